@@ -0,0 +1,224 @@
+package eu.gricom.basic.benchmark;
+
+import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.linker.Linker;
+import eu.gricom.basic.macroManager.MacroProcessor;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.memoryManager.FiFoQueue;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.memoryManager.VariableManagement;
+import eu.gricom.basic.optimizer.Optimizer;
+import eu.gricom.basic.optimizer.Specializer;
+import eu.gricom.basic.parser.BasicParser;
+import eu.gricom.basic.runtimeManager.Execute;
+import eu.gricom.basic.statements.VariableExpression;
+import eu.gricom.basic.tokenizer.BasicLexer;
+import eu.gricom.basic.variableTypes.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * BasicProgram.java
+ * <p>
+ * Description:
+ * <p>
+ * A BASIC program of the benchmarks, translated in the same steps as in the interpreter: macro processing,
+ * tokenization, parsing, linking, optimization, and specialization. Each step is also available as a static method,
+ * so that the steps can be measured one by one. The benchmark programs are stored as resources: the programs written
+ * for the benchmarks in the folder "programs", the ECMA examples in the folder "ecma". The programs of the "programs"
+ * folder do not print: the result of a run is read from a variable. If a program reads with INPUT, its input is given
+ * as text and read from System.in.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class BasicProgram {
+    private final Program _oProgram;
+    private final byte[] _abInput;
+
+    /**
+     * Default constructor: load and translate a program of the folder "programs".
+     *
+     * @param strName name of the program in the resource folder "programs"
+     * @throws Exception if the program cannot be loaded or translated
+     */
+    public BasicProgram(final String strName) throws Exception {
+        this("programs", strName, "");
+    }
+
+    /**
+     * Load and translate a program.
+     *
+     * @param strFolder resource folder of the program
+     * @param strName name of the program
+     * @param strInput input of the program, one line per INPUT statement
+     * @throws Exception if the program cannot be loaded or translated
+     */
+    public BasicProgram(final String strFolder, final String strName, final String strInput) throws Exception {
+        silence();
+
+        _oProgram = load(strFolder, strName);
+        _abInput = strInput.getBytes(StandardCharsets.UTF_8);
+
+        macros(_oProgram);
+        tokenize(_oProgram);
+        parse(_oProgram);
+        link(_oProgram);
+        optimize(_oProgram);
+        specialize(_oProgram);
+    }
+
+    /**
+     * Switch off the logging of the interpreter: the log output would be part of the measurement.
+     */
+    public static void silence() {
+        new Logger(BasicProgram.class.getName()).setLogLevel("");
+    }
+
+    /**
+     * Load the source code of a program.
+     *
+     * @param strFolder resource folder of the program
+     * @param strName name of the program
+     * @return the program with its source code
+     * @throws IOException if the program cannot be found
+     */
+    public static Program load(final String strFolder, final String strName) throws IOException {
+        Program oProgram = new Program();
+        oProgram.load(strName, read(strFolder, strName));
+
+        return oProgram;
+    }
+
+    /**
+     * Execute the macros of the program.
+     *
+     * @param oProgram the program
+     * @throws Exception if a macro is wrong
+     */
+    public static void macros(final Program oProgram) throws Exception {
+        oProgram.setProgram(new MacroProcessor().process(oProgram.getProgram()));
+    }
+
+    /**
+     * Translate the source code into tokens.
+     *
+     * @param oProgram the program
+     * @throws Exception if the source code cannot be tokenized
+     */
+    public static void tokenize(final Program oProgram) throws Exception {
+        oProgram.setTokens(new BasicLexer().tokenizeCompact(oProgram.getProgram()));
+    }
+
+    /**
+     * Parse the tokens into the statements and the DATA statements of the program.
+     *
+     * @param oProgram the program
+     * @throws Exception if the program has syntax errors
+     */
+    public static void parse(final Program oProgram) throws Exception {
+        BasicParser oParser = new BasicParser(oProgram.getTokens(), false);
+        oProgram.setPreRunStatements(oParser.parsePreRun());
+        oProgram.setStatements(oParser.parse());
+    }
+
+    /**
+     * Link the jumps of the program, and release the tokens like the interpreter does.
+     *
+     * @param oProgram the program
+     * @throws Exception if a jump target does not exist
+     */
+    public static void link(final Program oProgram) throws Exception {
+        new Linker(oProgram).link();
+        oProgram.releaseTokens();
+    }
+
+    /**
+     * Optimize the expressions of the program.
+     *
+     * @param oProgram the program
+     * @throws Exception if an expression cannot be optimized
+     */
+    public static void optimize(final Program oProgram) throws Exception {
+        new Optimizer(oProgram).optimize();
+    }
+
+    /**
+     * Specialize the expressions of the program on the types of their variables.
+     *
+     * @param oProgram the program
+     * @throws Exception if an expression cannot be specialized
+     */
+    public static void specialize(final Program oProgram) throws Exception {
+        new Specializer(oProgram).specialize();
+    }
+
+    /**
+     * Run a translated program in the interpreter, starting with empty variables and the DATA of the program.
+     *
+     * @param oProgram the program
+     * @throws Exception if the program fails
+     */
+    public static void execute(final Program oProgram) throws Exception {
+        new VariableManagement().reset();
+        new FiFoQueue().reset();
+        new ControlStack().reset();
+
+        Execute oRun = new Execute(oProgram);
+
+        oRun.loadEnvironment();
+        oRun.runProgram();
+    }
+
+    /**
+     * Get the translated program.
+     *
+     * @return the program
+     */
+    public Program getProgram() {
+        return _oProgram;
+    }
+
+    /**
+     * Run the program in the interpreter, with its input in System.in.
+     *
+     * @throws Exception if the program fails
+     */
+    public void execute() throws Exception {
+        System.setIn(new ByteArrayInputStream(_abInput));
+        execute(_oProgram);
+    }
+
+    /**
+     * Run the program in the interpreter, and read its result.
+     *
+     * @param strResult name of the variable holding the result of the program
+     * @return value of the result variable after the run
+     * @throws Exception if the result cannot be read
+     */
+    public Value run(final String strResult) throws Exception {
+        execute();
+
+        return new VariableExpression(strResult).evaluate();
+    }
+
+    /**
+     * Read the source code of a program from the resources.
+     *
+     * @param strFolder resource folder of the program
+     * @param strName name of the program
+     * @return the source code
+     * @throws IOException if the program cannot be found
+     */
+    public static String read(final String strFolder, final String strName) throws IOException {
+        try (InputStream oStream = BasicProgram.class.getResourceAsStream("/" + strFolder + "/" + strName)) {
+            if (oStream == null) {
+                throw new IOException("Benchmark program not found: " + strFolder + "/" + strName);
+            }
+
+            return new String(oStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package eu.gricom.basic.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BenchmarkMain.java
+ * <p>
+ * Description:
+ * <p>
+ * Main class of the benchmark JAR. It starts JMH with the given options, and writes the results as JSON, unless the
+ * options select another result format with -rf. The results are written to jmh-result.json, or to the file given
+ * with -rff.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Start JMH.
+     *
+     * @param astrArgs the JMH options
+     * @throws Exception if JMH fails
+     */
+    public static void main(final String[] astrArgs) throws Exception {
+        List<String> astrOptions = new ArrayList<>(Arrays.asList(astrArgs));
+
+        if (!astrOptions.contains("-rf")) {
+            astrOptions.addAll(0, List.of("-rf", "json"));
+        }
+
+        Main.main(astrOptions.toArray(new String[0]));
+    }
+}
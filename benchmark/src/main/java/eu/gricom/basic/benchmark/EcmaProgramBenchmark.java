@@ -0,0 +1,92 @@
+package eu.gricom.basic.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EcmaProgramBenchmark.java
+ * <p>
+ * Description:
+ * <p>
+ * Runs the ECMA examples of src/test/basic/ECMA_Basic_Examples end to end: every benchmark operation reads the
+ * source code and runs it through all steps of the interpreter, from the macro processing to the execution. This is
+ * what bin/regtest does, without the interaction and without the start of a JVM per program. The output of the
+ * programs goes to a null stream, the programs reading with INPUT get a fixed input. SEQSEARCH.BAS, SLLDEMO.BAS, and
+ * SLLIST.BAS are left out, as they are not accepted by the interpreter.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EcmaProgramBenchmark {
+    // resource folder of the ECMA examples
+    public static final String FOLDER = "ecma";
+
+    private static final Map<String, String> INPUTS = Map.of("BSEARCH.BAS", "13\n7\n-1\n",
+                                                             "FIBOR.BAS", "20\n");
+
+    @Param({"BSEARCH.BAS", "BSORT.BAS", "COMBSORT.BAS", "ERATOSTHENESE.BAS", "FACTORIAL.BAS", "FIBONACCI.BAS",
+            "FIBOR.BAS", "HSORT.BAS", "ISORT.BAS", "MATDET.BAS", "MATINV.BAS", "MATMUL.BAS", "MSORT.BAS",
+            "SLLISORT.BAS", "SSORT.BAS"})
+    public String _strProgram;
+
+    private PrintStream _oOutput;
+
+    /**
+     * Get the input of an ECMA example.
+     *
+     * @param strName name of the program
+     * @return the lines read by the INPUT statements of the program
+     */
+    public static String getInput(final String strName) {
+        return INPUTS.getOrDefault(strName, "");
+    }
+
+    /**
+     * Send the output of the programs to a null stream.
+     */
+    @Setup
+    public void setup() {
+        BasicProgram.silence();
+
+        _oOutput = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Restore the output.
+     */
+    @TearDown
+    public void tearDown() {
+        System.setOut(_oOutput);
+    }
+
+    /**
+     * Translate and run the program.
+     *
+     * @throws Exception if the program fails
+     */
+    @Benchmark
+    public void run() throws Exception {
+        new BasicProgram(FOLDER, _strProgram, getInput(_strProgram)).execute();
+    }
+}
@@ -0,0 +1,101 @@
+package eu.gricom.basic.benchmark;
+
+import eu.gricom.basic.functions.Function;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.tokenizer.Token;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FunctionBenchmark.java
+ * <p>
+ * Description:
+ * <p>
+ * Measures the function dispatcher with a numeric function (SIN) and two string functions (MID, INSTR). The
+ * parameters are constants, so the measurement covers the dispatch and the function itself. SIN is also measured as
+ * evaluateDouble(), the path of the numeric expressions which does not create a RealValue.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionBenchmark {
+    private Function _oSin;
+    private Function _oMid;
+    private Function _oInstr;
+
+    /**
+     * Create the function calls.
+     */
+    @Setup
+    public void setup() {
+        StringValue oText = new StringValue("THE QUICK BROWN FOX JUMPS OVER THE LAZY DOG");
+
+        _oSin = new Function(new Token("SIN", BasicTokenType.SIN, 10), new RealValue(0.5));
+        _oMid = new Function(new Token("MID", BasicTokenType.MID, 10), oText, new IntegerValue(4),
+                             new IntegerValue(8));
+        _oInstr = new Function(new Token("INSTR", BasicTokenType.INSTR, 10), oText, new StringValue("LAZY"));
+    }
+
+    /**
+     * SIN as a value.
+     *
+     * @return the sine
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value sin() throws Exception {
+        return _oSin.evaluate();
+    }
+
+    /**
+     * SIN as a double.
+     *
+     * @return the sine
+     * @throws Exception never
+     */
+    @Benchmark
+    public double sinDouble() throws Exception {
+        return _oSin.evaluateDouble();
+    }
+
+    /**
+     * MID with a word of the text.
+     *
+     * @return the sub-string
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value mid() throws Exception {
+        return _oMid.evaluate();
+    }
+
+    /**
+     * INSTR with a word near the end of the text.
+     *
+     * @return the position of the word
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value instr() throws Exception {
+        return _oInstr.evaluate();
+    }
+}
@@ -0,0 +1,53 @@
+package eu.gricom.basic.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * MicroBenchmarks.java
+ * <p>
+ * Description:
+ * <p>
+ * Runs the micro-benchmarks of the value types, the function dispatcher, and the variable access with the GC
+ * profiler, which adds the bytes allocated per operation (gc.alloc.rate.norm) to the time per operation. The results
+ * are written to micro-result.json. Further JMH options are taken from the command line, e.g. a pattern selecting the
+ * benchmarks, or -f 3 for more forks:
+ * <p>
+ * java -cp target/benchmarks.jar eu.gricom.basic.benchmark.MicroBenchmarks [JMH options]
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class MicroBenchmarks {
+    private MicroBenchmarks() {
+    }
+
+    /**
+     * Run the micro-benchmarks.
+     *
+     * @param astrArgs JMH options
+     * @throws Exception if JMH fails, or the options are wrong
+     */
+    public static void main(final String[] astrArgs) throws Exception {
+        CommandLineOptions oCommandLine = new CommandLineOptions(astrArgs);
+        ChainedOptionsBuilder oBuilder = new OptionsBuilder();
+
+        if (oCommandLine.getIncludes().isEmpty()) {
+            oBuilder.include(ValueBenchmark.class.getSimpleName())
+                    .include(FunctionBenchmark.class.getSimpleName())
+                    .include(VariableBenchmark.class.getSimpleName());
+        }
+
+        Options oOptions = oBuilder.parent(oCommandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("micro-result.json")
+                .build();
+
+        new Runner(oOptions).run();
+    }
+}
@@ -0,0 +1,265 @@
+package eu.gricom.basic.benchmark;
+
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.tokenizer.TokenBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PhaseBenchmark.java
+ * <p>
+ * Description:
+ * <p>
+ * Measures the steps of the interpreter one by one on the ECMA examples: macro processing, tokenization, parsing,
+ * linking, optimization, specialization, and execution. Each step starts with the result of the step before. The
+ * linker, the optimizer, and the specializer change the statements of the program, so they get a freshly parsed
+ * program for every call: the preparation is not measured, but JMH warns that the setup per call distorts the
+ * results of very short steps.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhaseBenchmark {
+    @Param({"BSORT.BAS", "FIBOR.BAS", "MATINV.BAS", "SLLISORT.BAS"})
+    public String _strProgram;
+
+    private String _strSource;
+    private Program _oMacros;
+    private Program _oTokens;
+    private Program _oParsed;
+    private BasicProgram _oTranslated;
+    private PrintStream _oOutput;
+
+    /**
+     * The program after the steps before the linker, as input of the linker.
+     */
+    @State(Scope.Thread)
+    public static class Parsed {
+        private Program _oProgram;
+
+        /**
+         * Translate the program up to the parser.
+         *
+         * @param oBenchmark the benchmark with the program
+         * @throws Exception if the program cannot be translated
+         */
+        @Setup(Level.Invocation)
+        public void setup(final PhaseBenchmark oBenchmark) throws Exception {
+            _oProgram = oBenchmark.translate(false, false);
+        }
+    }
+
+    /**
+     * The program after the steps before the optimizer, as input of the optimizer.
+     */
+    @State(Scope.Thread)
+    public static class Linked {
+        private Program _oProgram;
+
+        /**
+         * Translate the program up to the linker.
+         *
+         * @param oBenchmark the benchmark with the program
+         * @throws Exception if the program cannot be translated
+         */
+        @Setup(Level.Invocation)
+        public void setup(final PhaseBenchmark oBenchmark) throws Exception {
+            _oProgram = oBenchmark.translate(true, false);
+        }
+    }
+
+    /**
+     * The program after the steps before the specializer, as input of the specializer.
+     */
+    @State(Scope.Thread)
+    public static class Optimized {
+        private Program _oProgram;
+
+        /**
+         * Translate the program up to the optimizer.
+         *
+         * @param oBenchmark the benchmark with the program
+         * @throws Exception if the program cannot be translated
+         */
+        @Setup(Level.Invocation)
+        public void setup(final PhaseBenchmark oBenchmark) throws Exception {
+            _oProgram = oBenchmark.translate(true, true);
+        }
+    }
+
+    /**
+     * Prepare the input of each step, and send the output of the programs to a null stream.
+     *
+     * @throws Exception if the program cannot be translated
+     */
+    @Setup
+    public void setup() throws Exception {
+        BasicProgram.silence();
+
+        _strSource = BasicProgram.read(EcmaProgramBenchmark.FOLDER, _strProgram);
+
+        _oMacros = BasicProgram.load(EcmaProgramBenchmark.FOLDER, _strProgram);
+        BasicProgram.macros(_oMacros);
+
+        _oTokens = BasicProgram.load(EcmaProgramBenchmark.FOLDER, _strProgram);
+        BasicProgram.macros(_oTokens);
+        BasicProgram.tokenize(_oTokens);
+
+        _oParsed = BasicProgram.load(EcmaProgramBenchmark.FOLDER, _strProgram);
+        _oParsed.setProgram(_oTokens.getProgram());
+        _oParsed.setTokens(_oTokens.getTokens());
+
+        _oTranslated = new BasicProgram(EcmaProgramBenchmark.FOLDER, _strProgram,
+                                        EcmaProgramBenchmark.getInput(_strProgram));
+
+        _oOutput = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Restore the output.
+     */
+    @TearDown
+    public void tearDown() {
+        System.setOut(_oOutput);
+    }
+
+    /**
+     * Translate the program up to the parser, and optionally the linker and the optimizer.
+     *
+     * @param bLink true to link the program
+     * @param bOptimize true to optimize the program
+     * @return the translated program
+     * @throws Exception if the program cannot be translated
+     */
+    Program translate(final boolean bLink, final boolean bOptimize) throws Exception {
+        Program oProgram = BasicProgram.load(EcmaProgramBenchmark.FOLDER, _strProgram);
+        oProgram.setProgram(_oTokens.getProgram());
+        oProgram.setTokens(_oTokens.getTokens());
+        BasicProgram.parse(oProgram);
+
+        if (bLink) {
+            BasicProgram.link(oProgram);
+        }
+
+        if (bOptimize) {
+            BasicProgram.optimize(oProgram);
+        }
+
+        return oProgram;
+    }
+
+    /**
+     * Execute the macros.
+     *
+     * @return the source code after the macro processing
+     * @throws Exception if a macro is wrong
+     */
+    @Benchmark
+    public String macros() throws Exception {
+        _oMacros.setProgram(_strSource);
+        BasicProgram.macros(_oMacros);
+
+        return _oMacros.getProgram();
+    }
+
+    /**
+     * Tokenize the source code.
+     *
+     * @return the tokens
+     * @throws Exception if the source code cannot be tokenized
+     */
+    @Benchmark
+    public TokenBuffer tokenize() throws Exception {
+        BasicProgram.tokenize(_oTokens);
+
+        return _oTokens.getTokens();
+    }
+
+    /**
+     * Parse the tokens.
+     *
+     * @return the statements
+     * @throws Exception if the program has syntax errors
+     */
+    @Benchmark
+    public List<Statement> parse() throws Exception {
+        BasicProgram.parse(_oParsed);
+
+        return _oParsed.getStatements();
+    }
+
+    /**
+     * Link the program.
+     *
+     * @param oParsed a freshly parsed program
+     * @return the linked program
+     * @throws Exception if a jump target does not exist
+     */
+    @Benchmark
+    public Program link(final Parsed oParsed) throws Exception {
+        BasicProgram.link(oParsed._oProgram);
+
+        return oParsed._oProgram;
+    }
+
+    /**
+     * Optimize the program.
+     *
+     * @param oLinked a freshly linked program
+     * @return the optimized program
+     * @throws Exception if an expression cannot be optimized
+     */
+    @Benchmark
+    public Program optimize(final Linked oLinked) throws Exception {
+        BasicProgram.optimize(oLinked._oProgram);
+
+        return oLinked._oProgram;
+    }
+
+    /**
+     * Specialize the program.
+     *
+     * @param oOptimized a freshly optimized program
+     * @return the specialized program
+     * @throws Exception if an expression cannot be specialized
+     */
+    @Benchmark
+    public Program specialize(final Optimized oOptimized) throws Exception {
+        BasicProgram.specialize(oOptimized._oProgram);
+
+        return oOptimized._oProgram;
+    }
+
+    /**
+     * Run the translated program.
+     *
+     * @throws Exception if the program fails
+     */
+    @Benchmark
+    public void execute() throws Exception {
+        _oTranslated.execute();
+    }
+}
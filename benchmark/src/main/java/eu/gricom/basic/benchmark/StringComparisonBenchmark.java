@@ -0,0 +1,116 @@
+package eu.gricom.basic.benchmark;
+
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StringComparisonBenchmark.java
+ * <p>
+ * Description:
+ * <p>
+ * Measures the string comparisons of StringValue for each collation. As a reference, the regexBaseline benchmarks
+ * repeat the former implementation, which matched the right side as a regular expression, and calculated "<=" from
+ * two comparisons.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringComparisonBenchmark {
+    @Param({"binary", "nocase", "en"})
+    public String _strCollation;
+
+    private StringValue _oLeft;
+    private StringValue _oEqual;
+    private StringValue _oRight;
+
+    /**
+     * Create the operands, and select the collation.
+     */
+    @Setup
+    public void setup() {
+        _oLeft = new StringValue("NOVEMBER");
+        _oEqual = new StringValue(new String("NOVEMBER"));
+        _oRight = new StringValue("NOVEMBRE");
+        StringValue.setCollation(_strCollation);
+    }
+
+    /**
+     * Reset the collation.
+     */
+    @TearDown
+    public void tearDown() {
+        StringValue.setCollation("binary");
+    }
+
+    /**
+     * Compare two equal strings.
+     *
+     * @return result of the comparison
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value compareEqual() throws Exception {
+        return _oLeft.equals(_oEqual);
+    }
+
+    /**
+     * Compare two strings of the same length with a different end.
+     *
+     * @return result of the comparison
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value compareNotEqual() throws Exception {
+        return _oLeft.notEqual(_oRight);
+    }
+
+    /**
+     * Order two strings.
+     *
+     * @return result of the comparison
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value compareSmallerEqual() throws Exception {
+        return _oLeft.smallerEqualThan(_oRight);
+    }
+
+    /**
+     * The former equality: the right side is compiled to a pattern for every comparison.
+     *
+     * @return result of the comparison
+     */
+    @Benchmark
+    public boolean regexBaselineEqual() {
+        return _oLeft.toString().matches(_oEqual.toString());
+    }
+
+    /**
+     * The former "<=": a pattern match, and a second comparison if the strings are not equal.
+     *
+     * @return result of the comparison
+     */
+    @Benchmark
+    public boolean regexBaselineSmallerEqual() {
+        return _oLeft.toString().matches(_oRight.toString()) || _oLeft.toString().compareTo(_oRight.toString()) < 0;
+    }
+}
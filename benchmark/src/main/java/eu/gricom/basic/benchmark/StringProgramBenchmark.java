@@ -0,0 +1,79 @@
+package eu.gricom.basic.benchmark;
+
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StringProgramBenchmark.java
+ * <p>
+ * Description:
+ * <p>
+ * Runs string-heavy BASIC programs in the interpreter: SSORTS.BAS is the selection sort of SSORT.BAS on random words,
+ * BSEARCHS.BAS the binary search of BSEARCH.BAS on a sorted list of words. Nearly all of their time is spent in the
+ * string comparisons. The programs are translated once, every benchmark operation is a complete run.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringProgramBenchmark {
+    @Param({"SSORTS.BAS:S", "BSEARCHS.BAS:C"})
+    public String _strProgram;
+
+    @Param({"binary", "nocase"})
+    public String _strCollation;
+
+    private BasicProgram _oProgram;
+    private String _strResult;
+
+    /**
+     * Translate the program, and select the collation of the string comparisons.
+     *
+     * @throws Exception if the program cannot be translated
+     */
+    @Setup
+    public void setup() throws Exception {
+        String[] astrProgram = _strProgram.split(":");
+
+        _oProgram = new BasicProgram(astrProgram[0]);
+        _strResult = astrProgram[1];
+        StringValue.setCollation(_strCollation);
+    }
+
+    /**
+     * Reset the collation.
+     */
+    @TearDown
+    public void tearDown() {
+        StringValue.setCollation("binary");
+    }
+
+    /**
+     * Run the program.
+     *
+     * @return the result of the program
+     * @throws Exception if the program fails
+     */
+    @Benchmark
+    public Value run() throws Exception {
+        return _oProgram.run(_strResult);
+    }
+}
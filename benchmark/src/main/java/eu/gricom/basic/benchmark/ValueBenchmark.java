@@ -0,0 +1,132 @@
+package eu.gricom.basic.benchmark;
+
+import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValueBenchmark.java
+ * <p>
+ * Description:
+ * <p>
+ * Measures the operations of the value types, which are the innermost steps of every expression. The integer
+ * addition is measured with a result inside and outside of the cache of IntegerValue.valueOf(), as only the second
+ * one creates a new object. Run with the GC profiler (see MicroBenchmarks) to get the bytes allocated per operation.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueBenchmark {
+    private IntegerValue _oSmall;
+    private IntegerValue _oLarge;
+    private IntegerValue _oOne;
+    private RealValue _oReal;
+    private RealValue _oFactor;
+    private StringValue _oString;
+    private StringValue _oEqual;
+    private StringValue _oOther;
+    private BooleanValue _oTrue;
+    private BooleanValue _oFalse;
+
+    /**
+     * Create the operands. They are read from fields, so that the JIT compiler cannot fold the operations.
+     */
+    @Setup
+    public void setup() {
+        _oSmall = new IntegerValue(10);
+        _oLarge = new IntegerValue(100000);
+        _oOne = new IntegerValue(1);
+        _oReal = new RealValue(3.25);
+        _oFactor = new RealValue(1.5);
+        _oString = new StringValue("NOVEMBER");
+        _oEqual = new StringValue(new String("NOVEMBER"));
+        _oOther = new StringValue("NOVEMBRE");
+        _oTrue = new BooleanValue(true);
+        _oFalse = new BooleanValue(false);
+        StringValue.setCollation("binary");
+    }
+
+    /**
+     * Add two integers with a result from the cache.
+     *
+     * @return the sum
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value integerPlusCached() throws Exception {
+        return _oSmall.plus(_oOne);
+    }
+
+    /**
+     * Add two integers with a result outside of the cache.
+     *
+     * @return the sum
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value integerPlus() throws Exception {
+        return _oLarge.plus(_oOne);
+    }
+
+    /**
+     * Multiply two reals.
+     *
+     * @return the product
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value realMultiply() throws Exception {
+        return _oReal.multiply(_oFactor);
+    }
+
+    /**
+     * Compare two equal strings in different objects.
+     *
+     * @return result of the comparison
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value stringEquals() throws Exception {
+        return _oString.equals(_oEqual);
+    }
+
+    /**
+     * Order two strings of the same length with a different end.
+     *
+     * @return result of the comparison
+     */
+    @Benchmark
+    public int stringCompareTo() {
+        return _oString.compareTo(_oOther);
+    }
+
+    /**
+     * Combine two booleans.
+     *
+     * @return result of the operation
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value booleanAnd() throws Exception {
+        return _oTrue.and(_oFalse);
+    }
+}
@@ -0,0 +1,126 @@
+package eu.gricom.basic.benchmark;
+
+import eu.gricom.basic.memoryManager.VariableManagement;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VariableBenchmark.java
+ * <p>
+ * Description:
+ * <p>
+ * Measures the access to the variables by name, with putMap() and getMap(): for a scalar, and for an array element
+ * with a key like "A%(3,4)", whose index part is normalized on every access. The statements of a parsed program use
+ * the slots instead, the access by name is used by the statements working with names at runtime.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariableBenchmark {
+    private static final String SCALAR = "BENCH_I%";
+    private static final String REAL = "BENCH_R#";
+    private static final String ARRAY = "BENCH_A%(3,4)";
+
+    private final VariableManagement _oVariables = new VariableManagement();
+    private Value _oValue;
+    private int _iValue;
+
+    /**
+     * Create the variables, so that the benchmarks do not measure the first assignment.
+     *
+     * @throws Exception if a variable name is wrong
+     */
+    @Setup
+    public void setup() throws Exception {
+        BasicProgram.silence();
+
+        _oVariables.reset();
+        _oValue = new IntegerValue(100000);
+        _iValue = 100000;
+
+        _oVariables.putMap(SCALAR, _oValue);
+        _oVariables.putMap(REAL, new RealValue(2.5));
+        _oVariables.putMap(ARRAY, _oValue);
+    }
+
+    /**
+     * Assign a value object to a scalar.
+     *
+     * @throws Exception never
+     */
+    @Benchmark
+    public void putScalar() throws Exception {
+        _oVariables.putMap(SCALAR, _oValue);
+    }
+
+    /**
+     * Assign an int to a scalar.
+     *
+     * @throws Exception never
+     */
+    @Benchmark
+    public void putScalarInt() throws Exception {
+        _oVariables.putMap(SCALAR, _iValue);
+    }
+
+    /**
+     * Read an integer scalar.
+     *
+     * @return the value of the variable
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value getScalar() throws Exception {
+        return _oVariables.getMap(SCALAR);
+    }
+
+    /**
+     * Read a real scalar.
+     *
+     * @return the value of the variable
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value getReal() throws Exception {
+        return _oVariables.getMap(REAL);
+    }
+
+    /**
+     * Assign a value object to an array element.
+     *
+     * @throws Exception never
+     */
+    @Benchmark
+    public void putArray() throws Exception {
+        _oVariables.putMap(ARRAY, _oValue);
+    }
+
+    /**
+     * Read an array element.
+     *
+     * @return the value of the element
+     * @throws Exception never
+     */
+    @Benchmark
+    public Value getArray() throws Exception {
+        return _oVariables.getMap(ARRAY);
+    }
+}
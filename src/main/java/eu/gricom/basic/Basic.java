@@ -1,18 +1,35 @@
 package eu.gricom.basic;
 
 import eu.gricom.basic.codeGenerator.Generator;
+import eu.gricom.basic.codeGenerator.JSONCodeGenerator;
+import eu.gricom.basic.codeGenerator.pcode.PCodeLoader;
+import eu.gricom.basic.codeGenerator.pcode.ProgramCache;
+import eu.gricom.basic.codeGenerator.jvm.BytecodeCompiler;
+import eu.gricom.basic.codeGenerator.jvm.CompiledProgram;
+import eu.gricom.basic.error.CompileErrorException;
+import eu.gricom.basic.error.LinkErrorException;
+import eu.gricom.basic.error.RuntimeException;
 import eu.gricom.basic.functions.Mem;
+import eu.gricom.basic.linker.Linker;
 import eu.gricom.basic.tokenizer.BasicLexer;
 import eu.gricom.basic.tokenizer.Lexer;
-import eu.gricom.basic.tokenizer.Token;
+import eu.gricom.basic.tokenizer.TokenBuffer;
 import eu.gricom.basic.error.SyntaxErrorException;
 import eu.gricom.basic.helper.FileHandler;
 import eu.gricom.basic.helper.Logger;
 import eu.gricom.basic.helper.Printer;
 import eu.gricom.basic.macroManager.MacroProcessor;
+import eu.gricom.basic.memoryManager.ControlStack;
 import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.monitoring.Events;
+import eu.gricom.basic.monitoring.InterpreterMonitor;
+import eu.gricom.basic.optimizer.Optimizer;
+import eu.gricom.basic.optimizer.Specializer;
 import eu.gricom.basic.parser.BasicParser;
 import eu.gricom.basic.runtimeManager.Execute;
+import eu.gricom.basic.runtimeManager.Profiler;
+import eu.gricom.basic.runtimeManager.RegisterCompiler;
+import eu.gricom.basic.runtimeManager.RegisterMachine;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -42,6 +59,14 @@ public class Basic {
     private static boolean _bBeautified = false;
     private static boolean _bDartmouthFlag = false;
     private static boolean _bPCode = false;
+    private static String _strEngine = "tree";
+    private static ProgramCache _oProgramCache = null;
+    private static boolean _bDumpTree = false;
+
+    /**
+     * Version of the interpreter.
+     */
+    public static final String VERSION = "0.1.0";
 
     /**
      * Constructs a new Basic instance. The instance stores the global state of the interpreter such as the values of
@@ -74,6 +99,171 @@ public class Basic {
     }
 
 
+    /**
+     * List Tokens.
+     * Write the tokens of the program into the debug log.
+     *
+     * @param oProgram The program object, containing the tokenized program.
+     */
+    private void listTokens(final Program oProgram) {
+        if (!_oLogger.isDebug()) {
+            return;
+        }
+
+        TokenBuffer oTokens = oProgram.getTokens();
+
+        for (int iCounter = 0; iCounter < oTokens.size(); iCounter++) {
+            if (oTokens.getType(iCounter).toString().contains("LINE")) {
+                _oLogger.debug("[" + oTokens.getLine(iCounter) + "] Token # <" + iCounter + ">: ["
+                                       + oTokens.getType(iCounter) + "]: []");
+            } else {
+                _oLogger.debug("[" + oTokens.getLine(iCounter) + "] Token # <" + iCounter + ">: ["
+                                       + oTokens.getType(iCounter) + "]: [" + oTokens.getText(iCounter) + "]");
+            }
+        }
+    }
+
+    /**
+     * Linking.
+     * The linker resolves all jump targets of the parsed program into statement numbers. Unknown jump targets are
+     * reported before the execution of the program starts.
+     *
+     * @param oProgram The program object, containing the parsed program.
+     */
+    private void linking(final Program oProgram) {
+        _oLogger.info("Starting linking...");
+
+        Events.startPhase(Events.LINK, oProgram.getProgramName());
+
+        try {
+            Linker oLinker = new Linker(oProgram);
+            oLinker.link();
+        } catch (LinkErrorException eLinkError) {
+            System.out.println(eLinkError.getMessage());
+            System.exit(1);
+        }
+
+        // the linked program does not need the tokens anymore
+        oProgram.releaseTokens();
+
+        Events.endPhase();
+    }
+
+    /**
+     * Optimizing.
+     * The optimizer folds the constant expressions of the linked program and propagates the variables which are
+     * assigned once from a constant. With the tree option, the optimized program is printed before it is executed.
+     *
+     * @param oProgram The program object, containing the linked program.
+     */
+    private void optimizing(final Program oProgram) {
+        _oLogger.info("Starting optimization...");
+
+        Events.startPhase(Events.OPTIMIZE, oProgram.getProgramName());
+        Optimizer oOptimizer = new Optimizer(oProgram);
+        oOptimizer.optimize();
+        Events.endPhase();
+
+        if (_bDumpTree && oProgram.getStatements() != null) {
+            String strProgramName = oProgram.getProgramName() != null ? oProgram.getProgramName() : "";
+            Printer.println(new JSONCodeGenerator(strProgramName, oProgram).create(_bBeautified));
+        }
+    }
+
+    /**
+     * Specializing.
+     * The specializer replaces the generic operator expressions of the linked program with operations specialized on
+     * the operator and the types of the operands.
+     *
+     * @param oProgram The program object, containing the linked program.
+     */
+    private void specializing(final Program oProgram) {
+        _oLogger.info("Starting specialization...");
+
+        Events.startPhase(Events.SPECIALIZE, oProgram.getProgramName());
+        Specializer oSpecializer = new Specializer(oProgram);
+        oSpecializer.specialize();
+        Events.endPhase();
+    }
+
+    /**
+     * Run the program with the selected execution engine: the interpreter, the register machine, or the JVM byte
+     * code.
+     *
+     * @param oRun The interpreter, with the environment loaded.
+     */
+    private void runProgram(final Execute oRun) {
+        if (!_strEngine.equals("tree") && Profiler.isEnabled()) {
+            _oLogger.warning("The profiler only measures the interpreter (-e tree)");
+        }
+
+        if (!_strEngine.equals("tree") && InterpreterMonitor.isEnabled()) {
+            _oLogger.warning("The monitor only counts the statements of the interpreter (-e tree)");
+        }
+
+        if (_oProgram.getStatements() == null) {
+            oRun.runProgram();
+        } else if (_strEngine.equals("jvm")) {
+            runByteCode(_oProgram, oRun);
+        } else if (_strEngine.equals("vm")) {
+            runRegisterMachine(_oProgram);
+        } else {
+            oRun.runProgram();
+        }
+    }
+
+    /**
+     * Run the program in the register machine.
+     * The register compiler lowers the linked and specialized program into a flat instruction stream, which the
+     * register machine executes in a single loop. Statements without instructions of their own are executed by the
+     * statement objects, as in the interpreter.
+     *
+     * @param oProgram The program object, containing the specialized program.
+     */
+    private void runRegisterMachine(final Program oProgram) {
+        _oLogger.info("Compiling to register machine code...");
+
+        RegisterMachine oMachine = new RegisterCompiler(oProgram).compile();
+
+        _oLogger.info("Starting execution...");
+
+        try {
+            oMachine.run();
+        } catch (Exception eException) {
+            eException.printStackTrace();
+        }
+    }
+
+    /**
+     * Run the compiled program.
+     * The bytecode compiler translates the linked and specialized program into a JVM class, which is then executed in
+     * place of the interpreter. If the program cannot be compiled, the interpreter runs it.
+     *
+     * @param oProgram The program object, containing the specialized program.
+     * @param oRun The interpreter, with the environment loaded.
+     */
+    private void runByteCode(final Program oProgram, final Execute oRun) {
+        _oLogger.info("Compiling to JVM byte code...");
+
+        CompiledProgram oCompiledProgram;
+
+        try {
+            oCompiledProgram = new BytecodeCompiler(oProgram).compile();
+        } catch (CompileErrorException eCompileError) {
+            _oLogger.warning("Byte code not available, using the interpreter: " + eCompileError.getMessage());
+            oRun.runProgram();
+            return;
+        }
+
+        _oLogger.info("Starting execution...");
+
+        try {
+            oCompiledProgram.run();
+        } catch (Exception eException) {
+            eException.printStackTrace();
+        }
+    }
+
     /**
      * Process.
      * This is where the magic happens. This runs the code through the parsing pipeline to generator the AST. Then it
@@ -104,7 +294,7 @@ public class Basic {
         Lexer oTokenizer = new BasicLexer();
 
         try {
-            _oProgram.setTokens(oTokenizer.tokenize(oProgram.getProgram()));
+            _oProgram.setTokens(oTokenizer.tokenizeCompact(oProgram.getProgram()));
 
         } catch (SyntaxErrorException e) {
             // This syntax error has to generate due to the use of the macro. Original code errors in the lexer are
@@ -113,16 +303,7 @@ public class Basic {
             System.exit(1);
         }
 
-        int iCounter = 0;
-        for (Token oToken: _oProgram.getTokens()) {
-            if (oToken.getType().toString().contains("LINE")) {
-                _oLogger.debug("[" + oToken.getLine() + "] Token # <" + iCounter + ">: [" + oToken.getType() + "]: []");
-            } else {
-                _oLogger.debug("[" + oToken.getLine() + "] Token # <" + iCounter + ">: [" + oToken.getType() + "]: ["
-                                       + oToken.getText() + "]");
-            }
-            iCounter++;
-        }
+        listTokens(_oProgram);
 
         // Parse.
         _oLogger.info("Starting parsing...");
@@ -133,6 +314,9 @@ public class Basic {
         } catch (SyntaxErrorException eSyntaxError) {
             _oLogger.error(eSyntaxError.getMessage());
         }
+
+        // Link.
+        linking(_oProgram);
     }
 
     /**
@@ -147,10 +331,25 @@ public class Basic {
      */
     public final void interpret(final Program oProgram) {
 
+        // A cached program is executed without macro processing, tokenization, parsing, and linking.
+        String strCacheKey = null;
+
+        if (_oProgramCache != null) {
+            strCacheKey = ProgramCache.getKey(oProgram, VERSION, _bDartmouthFlag ? "d" : "");
+            Program oCachedProgram = _oProgramCache.load(strCacheKey);
+
+            if (oCachedProgram != null) {
+                _oProgram = oCachedProgram;
+                execute();
+                return;
+            }
+        }
+
         // Find and process Macros.
         _oLogger.info("Processing macros...");
         _oProgram = oProgram;
         MacroProcessor oMacroProcessor = new MacroProcessor();
+        Events.startPhase(Events.MACRO, oProgram.getProgramName());
 
         try {
             _oProgram.setProgram(oMacroProcessor.process(oProgram.getProgram()));
@@ -159,13 +358,16 @@ public class Basic {
             System.exit(1);
         }
 
+        Events.endPhase();
+
         // Tokenize. At the end of the tokenization, I have the program transferred into a list of tokens and parameters
         _oLogger.info("Starting tokenization...");
 
         Lexer oTokenizer = new BasicLexer();
+        Events.startPhase(Events.LEX, oProgram.getProgramName());
 
         try {
-            _oProgram.setTokens(oTokenizer.tokenize(oProgram.getProgram()));
+            _oProgram.setTokens(oTokenizer.tokenizeCompact(oProgram.getProgram()));
 
         } catch (SyntaxErrorException e) {
             // This syntax error has to generate due to the use of the macro. Original code errors in the lexer are
@@ -174,19 +376,14 @@ public class Basic {
             System.exit(1);
         }
 
-        int iCounter = 0;
-        for (Token oToken: _oProgram.getTokens()) {
-            if (oToken.getType().toString().contains("LINE")) {
-                _oLogger.debug("[" + oToken.getLine() + "] Token # <" + iCounter + ">: [" + oToken.getType() + "]: []");
-            } else {
-                _oLogger.debug("[" + oToken.getLine() + "] Token # <" + iCounter + ">: [" + oToken.getType() + "]: ["
-                        + oToken.getText() + "]");
-            }
-            iCounter++;
-        }
+        Events.endPhase();
+
+        listTokens(_oProgram);
 
         // Parse.
         _oLogger.info("Starting parsing...");
+        Events.startPhase(Events.PARSE, oProgram.getProgramName());
+
         try {
             BasicParser oParser = new BasicParser(oProgram.getTokens(), _bDartmouthFlag);
             _oProgram.setPreRunStatements(oParser.parsePreRun());
@@ -195,6 +392,50 @@ public class Basic {
             _oLogger.error(eSyntaxError.getMessage());
         }
 
+        Events.endPhase();
+
+        // Link.
+        linking(_oProgram);
+
+        // Keep the linked program for the next run.
+        if (_oProgramCache != null && _oProgram.getStatements() != null) {
+            _oProgramCache.store(strCacheKey, _oProgram);
+        }
+
+        execute();
+    }
+
+    /**
+     * Execute Object Code.
+     * The object code generated with the p-code option holds the linked program: it is loaded directly, without macro
+     * processing, tokenization, parsing, and linking, and then executed in the same way as an interpreted program.
+     *
+     * @param strObjectName The name of the object code file.
+     */
+    public final void executeObjectCode(final String strObjectName) {
+        _oLogger.info("Loading object code...");
+
+        try {
+            _oProgram = new PCodeLoader().load(strObjectName);
+        } catch (CompileErrorException eCompileError) {
+            System.out.println(eCompileError.getMessage());
+            System.exit(1);
+        }
+
+        execute();
+    }
+
+    /**
+     * Execute.
+     * Specialize the linked program and run it with the selected execution engine.
+     */
+    private void execute() {
+        // Fold and propagate the constants of the program.
+        optimizing(_oProgram);
+
+        // Specialize the expressions for the execution.
+        specializing(_oProgram);
+
         // Run.
         Execute oRun = new Execute(_oProgram);
 
@@ -202,7 +443,9 @@ public class Basic {
         oRun.loadEnvironment();
 
         // run the program
-        oRun.runProgram();
+        Events.startPhase(Events.EXECUTE, _oProgram.getProgramName());
+        runProgram(oRun);
+        Events.endPhase();
 
         System.exit(0);
     }
@@ -229,7 +472,7 @@ public class Basic {
         Lexer oTokenizer = new BasicLexer();
 
         try {
-            _oProgram.setTokens(oTokenizer.tokenize(oProgram.getProgram()));
+            _oProgram.setTokens(oTokenizer.tokenizeCompact(oProgram.getProgram()));
 
         } catch (SyntaxErrorException e) {
             // This syntax error has to generate due to the use of the macro. Original code errors in the lexer are
@@ -238,16 +481,7 @@ public class Basic {
             System.exit(1);
         }
 
-        int iCounter = 0;
-        for (Token oToken: _oProgram.getTokens()) {
-            if (oToken.getType().toString().contains("LINE")) {
-                _oLogger.debug("[" + oToken.getLine() + "] Token # <" + iCounter + ">: [" + oToken.getType() + "]: []");
-            } else {
-                _oLogger.debug("[" + oToken.getLine() + "] Token # <" + iCounter + ">: [" + oToken.getType() + "]: ["
-                                       + oToken.getText() + "]");
-            }
-            iCounter++;
-        }
+        listTokens(_oProgram);
 
         // Parse.
         _oLogger.info("Starting parsing...");
@@ -259,6 +493,9 @@ public class Basic {
             _oLogger.error(eSyntaxError.getMessage());
         }
 
+        // Link.
+        linking(_oProgram);
+
         // Generate and store object code.
         _oLogger.info("Create the object code...");
         if (!_bPCode) {
@@ -266,8 +503,8 @@ public class Basic {
 
             // Generate target code.
             _oLogger.info("Create the target code...");
-            if (strLanguage.equals("java")) {
-                Generator.createJavaCode();
+            if (strLanguage.equals("java") || strLanguage.equals("jar")) {
+                Generator.createJavaCode(_oProgram, strLanguage.equals("jar"));
             }
 
             // compile.
@@ -307,9 +544,22 @@ public class Basic {
             options.addOption("v", true, "verbose level: (info, debug, trace, or error)");
             options.addOption("c", false, "compile");
             options.addOption("b", false, "beautified JSON intermediate code for compilation");
-            options.addOption("p", false, "experimental: build p-code for later runtime component");
-            options.addOption("l", true, "compile language <java>");
+            options.addOption("p", false, "build p-code object file (.obj), which runs without parsing and linking");
+            options.addOption("l", true, "compile language <java|jar>");
             options.addOption("d", false, "dartmouth mode");
+            options.addOption("j", false, "alias of -e jvm: compile the program to JVM byte code before running it");
+            options.addOption("e", true, "execution engine: <tree|vm|jvm> (default tree, the interpreter)");
+            options.addOption("f", true, "profile the execution in the interpreter, and write the report to the file "
+                    + "(.csv or .json)");
+            options.addOption("x", false, "publish the state of the running program as a JMX MBean ("
+                    + InterpreterMonitor.OBJECT_NAME + ")");
+            options.addOption("t", false, "print the structure of the optimized program before running it");
+            options.addOption("k", true, "keep the linked programs in a cache directory, to run them again without "
+                    + "parsing and linking");
+            options.addOption("m", true, "maximum size of the program cache in KBytes (default "
+                    + ProgramCache.DEFAULT_MAX_SIZE / 1024 + ")");
+            options.addOption("s", true, "maximum depth of nested FOR/GOSUB/WHILE/DO blocks (default "
+                    + ControlStack.DEFAULT_MAX_DEPTH + ")");
 
             CommandLineParser parser = new DefaultParser();
             oCommandLine = parser.parse(options, args);
@@ -324,7 +574,8 @@ public class Basic {
             long lFreeMem = Mem.execute().toInt() / 1024;
             Printer.println();
             Printer.println("   _____ _____             ____            _    ");
-            Printer.println("  / ____|  __ \\           |  _ \\          (_)        GriCom Basic Interpreter Version 0.1.0");
+            Printer.println("  / ____|  __ \\           |  _ \\          (_)        GriCom Basic Interpreter Version "
+                                   + VERSION);
             Printer.println(" | |  __| |  | |  ______  | |_) | __ _ ___ _  ___    (c) Copyright A.Grimm 2025");
             Printer.println(" | | |_ | |  | | |______| |  _ < / _` / __| |/ __|   ");
             Printer.println(" | |__| | |__| |          | |_) | (_| \\__ \\ | (__    Maximum memory (KBytes): " + lMaxMemory);
@@ -345,7 +596,7 @@ public class Basic {
 
         if (oCommandLine != null && oCommandLine.hasOption("l")) {
             String strLanguage = oCommandLine.getOptionValue("l");
-            String strLanguageList = "java";
+            String strLanguageList = "java, jar";
 
             if (strLanguageList.contains(strLanguage.toLowerCase(Locale.ROOT))) {
                 _strCompileLanguage = strLanguage;
@@ -382,6 +633,70 @@ public class Basic {
             oLogger.debug("Dartmouth mode selected...");
         }
 
+        // -j is an alias of -e jvm
+        if (oCommandLine != null && (oCommandLine.hasOption("e") || oCommandLine.hasOption("j"))) {
+            String strEngine = oCommandLine.hasOption("e")
+                    ? oCommandLine.getOptionValue("e").toLowerCase(Locale.ROOT) : "jvm";
+
+            if (!strEngine.equals("tree") && !strEngine.equals("vm") && !strEngine.equals("jvm")) {
+                oLogger.error("Unknown execution engine: " + strEngine);
+                System.exit(-1);
+            }
+
+            if (oCommandLine.hasOption("j") && !strEngine.equals("jvm")) {
+                oLogger.error("The option -j selects the execution engine jvm, and conflicts with -e " + strEngine);
+                System.exit(-1);
+            }
+
+            _strEngine = strEngine;
+            oLogger.debug("Execution engine:" + strEngine + "...");
+        }
+
+        if (oCommandLine != null && oCommandLine.hasOption("f")) {
+            Profiler.enable(oCommandLine.getOptionValue("f"));
+            oLogger.debug("Profile is written to:" + oCommandLine.getOptionValue("f") + "...");
+        }
+
+        if (oCommandLine != null && oCommandLine.hasOption("x")) {
+            InterpreterMonitor.enable();
+            oLogger.debug("Monitor registered as:" + InterpreterMonitor.OBJECT_NAME + "...");
+        }
+
+        if (oCommandLine != null && oCommandLine.hasOption("t")) {
+            _bDumpTree = true;
+            oLogger.debug("Optimized program structure is printed...");
+        }
+
+        if (oCommandLine != null && oCommandLine.hasOption("k")) {
+            String strCacheDirectory = oCommandLine.getOptionValue("k");
+            String strMaxSize = oCommandLine.getOptionValue("m", Long.toString(ProgramCache.DEFAULT_MAX_SIZE / 1024));
+
+            try {
+                _oProgramCache = new ProgramCache(strCacheDirectory, Long.parseLong(strMaxSize) * 1024);
+            } catch (NumberFormatException eException) {
+                oLogger.error("Incorrect program cache size: " + strMaxSize);
+                System.exit(-1);
+            } catch (CompileErrorException eException) {
+                oLogger.error(eException.getMessage());
+                System.exit(-1);
+            }
+
+            oLogger.debug("Program cache directory:" + strCacheDirectory + "...");
+        }
+
+        if (oCommandLine != null && oCommandLine.hasOption("s")) {
+            String strMaxDepth = oCommandLine.getOptionValue("s");
+
+            try {
+                new ControlStack().setMaxDepth(Integer.parseInt(strMaxDepth));
+            } catch (NumberFormatException | RuntimeException eException) {
+                oLogger.error("Incorrect control stack depth: " + strMaxDepth);
+                System.exit(-1);
+            }
+
+            oLogger.debug("Control stack depth set:" + strMaxDepth + "...");
+        }
+
         if (oCommandLine != null) {
             List<String> astrArguments = oCommandLine.getArgList();
 
@@ -395,6 +710,13 @@ public class Basic {
 
             String strFileName = astrArguments.getLast();
 
+            // Object code is executed without reading the source.
+            if (!_bCompile && strFileName.toLowerCase(Locale.ROOT).endsWith(".obj")) {
+                oLogger.info("Run the object code...");
+                new Basic().executeObjectCode(strFileName);
+                return;
+            }
+
             // Read the file.
             oLogger.info("Read file: " + strFileName + "...");
             oProgram.load(strFileName, FileHandler.readFile(strFileName));
@@ -1,12 +1,37 @@
 package eu.gricom.basic.codeGenerator;
 
+import eu.gricom.basic.codeGenerator.java.GenerateJavaCode;
+import eu.gricom.basic.codeGenerator.java.JarGenerator;
+import eu.gricom.basic.error.CompileErrorException;
 import eu.gricom.basic.helper.Logger;
 import eu.gricom.basic.memoryManager.Program;
 
+import java.io.File;
 import java.io.PrintWriter;
+import java.util.Locale;
 
 public class Generator {
-    private static String _strObjectName = "";
+
+    /**
+     * Derive the name of a generated file from the name of the program: the extension ".bas" or ".basic" is replaced
+     * by the extension of the generated file, other names get the extension appended.
+     *
+     * @param strProgramName name of the program file
+     * @param strExtension extension of the generated file, e.g. ".json"
+     * @return name of the generated file
+     */
+    public static String getTargetName(final String strProgramName, final String strExtension) {
+        String strLowerCase = strProgramName.toLowerCase(Locale.ROOT);
+
+        for (String strSourceExtension : new String[] {".bas", ".basic"}) {
+            if (strLowerCase.endsWith(strSourceExtension)) {
+                return strProgramName.substring(0, strProgramName.length() - strSourceExtension.length())
+                        + strExtension;
+            }
+        }
+
+        return strProgramName.concat(strExtension);
+    }
 
     /**
      * Create and store the object code.
@@ -16,24 +41,15 @@ public class Generator {
      */
     public static void createJSONCode(Program oProgram, boolean bBeautified) {
         Logger oLogger = new Logger("eu.gricom.basic.codeGenerator.Generator.createJSONCode");
-        boolean bGenerateObjectCode = true;
 
         String strJSONCode = "";
         String strProgramName = oProgram.getProgramName();
 
         oLogger.info("Loaded program: " + strProgramName);
-        if (strProgramName.endsWith(".bas")) {
-            _strObjectName = strProgramName.replace(".bas", ".json");
-        } else {
-            if (!strProgramName.endsWith(".basic")) {
-                _strObjectName = strProgramName.replace(".basic", ".json");
-            } else {
-                _strObjectName = strProgramName.concat(".json");
-            }
-        }
-        oLogger.info("Name of object file: " + _strObjectName);
+        String strObjectName = getTargetName(strProgramName, ".json");
+        oLogger.info("Name of object file: " + strObjectName);
 
-        JSONCodeGenerator oJSONCodeGenerator = new JSONCodeGenerator(_strObjectName, oProgram);
+        JSONCodeGenerator oJSONCodeGenerator = new JSONCodeGenerator(strObjectName, oProgram);
         strJSONCode += oJSONCodeGenerator.create(bBeautified);
 //        strJSONCode += "}";
 
@@ -42,7 +58,7 @@ public class Generator {
         }
 
         try {
-            PrintWriter out = new PrintWriter(_strObjectName);
+            PrintWriter out = new PrintWriter(strObjectName);
             out.println(strJSONCode);
             out.close();
         } catch (Exception eException) {
@@ -57,15 +73,38 @@ public class Generator {
         ObjectCodeGenerator.createObjectCode(oProgram);
     }
 
-        /**
-         * Create and store the target Java code.
-         * Return the name of the program loaded.
-         *
-         */
-    public static void createJavaCode() {
+    /**
+     * Create and store the target Java code, and, if requested, compile it into an executable jar file.
+     *
+     * @param oProgram the linked program
+     * @param bJar true if a jar file is to be created
+     */
+    public static void createJavaCode(Program oProgram, boolean bJar) {
         Logger oLogger = new Logger("eu.gricom.basic.codeGenerator.Generator.createJavaCode");
 
-        String strJavaProgramName = _strObjectName.replace(".json", ".comp.java");
+        String strJavaProgramName = getTargetName(oProgram.getProgramName(), ".comp.java");
         oLogger.info("Name of target Java file: " + strJavaProgramName);
+
+        try {
+            GenerateJavaCode oJavaCodeGenerator = new GenerateJavaCode(oProgram);
+            String strJavaCode = oJavaCodeGenerator.generate();
+
+            PrintWriter out = new PrintWriter(strJavaProgramName);
+            out.print(strJavaCode);
+            out.close();
+
+            if (bJar) {
+                String strJarName = getTargetName(oProgram.getProgramName(), ".jar");
+                oLogger.info("Name of target jar file: " + strJarName);
+
+                JarGenerator.createJar(oJavaCodeGenerator.getClassName(), strJavaCode, new File(strJarName));
+            }
+        } catch (CompileErrorException eException) {
+            System.out.println(eException.getMessage());
+            System.exit(1);
+        } catch (Exception eException) {
+            oLogger.error("Cannot generate file, error: " + eException.getMessage());
+            System.exit(-1);
+        }
     }
 }
@@ -1,40 +1,47 @@
 package eu.gricom.basic.codeGenerator;
 
+import eu.gricom.basic.codeGenerator.pcode.PCodeWriter;
+import eu.gricom.basic.error.CompileErrorException;
 import eu.gricom.basic.helper.Logger;
 import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.monitoring.Events;
+import eu.gricom.basic.monitoring.FileEvent;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class ObjectCodeGenerator {
 
+    /**
+     * Store the linked program as p-code in an object file, which can be executed without parsing and linking it
+     * again.
+     *
+     * @param oProgram the linked program
+     */
     public static void createObjectCode(Program oProgram) {
         Logger oLogger = new Logger("eu.gricom.basic.codeGenerator.ObjectCodeGenerator");
 
         String strProgramName = oProgram.getProgramName();
-        String strObjectName;
 
         oLogger.info("Loaded program: " + strProgramName);
-
-        if (strProgramName.endsWith(".bas")) {
-            strObjectName = strProgramName.replace(".bas", ".obj");
-        } else {
-            if (!strProgramName.endsWith(".basic")) {
-                strObjectName = strProgramName.replace(".basic", ".obj");
-            } else {
-                strObjectName = strProgramName.concat(".obj");
-            }
-        }
+        String strObjectName = Generator.getTargetName(strProgramName, ".obj");
         oLogger.info("Name of object file: " + strObjectName);
 
         // export
-        try (FileOutputStream fileOut = new FileOutputStream(strObjectName);
-             ObjectOutputStream out = new ObjectOutputStream(fileOut)) {
-            out.writeObject(oProgram);
-            System.out.println("Serialized data is saved " + strObjectName);
+        try {
+            byte[] abPCode = new PCodeWriter(oProgram).write();
+            FileEvent oEvent = Events.startFile();
+
+            Files.write(Path.of(strObjectName), abPCode);
+            Events.endFile(oEvent, Events.WRITE, strObjectName, abPCode.length);
+            System.out.println("Object code is saved in " + strObjectName);
+        } catch (CompileErrorException eException) {
+            System.out.println(eException.getMessage());
+            System.exit(1);
         } catch (IOException eException) {
-            throw new RuntimeException(eException);
+            oLogger.error("Cannot generate file, error: " + eException.getMessage());
+            System.exit(-1);
         }
     }
 }
@@ -1,20 +1,1770 @@
 package eu.gricom.basic.codeGenerator.java;
 
-import eu.gricom.basic.helper.Logger;
-import org.json.JSONException;
-import org.json.JSONObject;
+import eu.gricom.basic.codeGenerator.jvm.BytecodeCompiler;
+import eu.gricom.basic.error.CompileErrorException;
+import eu.gricom.basic.functions.FnFunction;
+import eu.gricom.basic.functions.Function;
+import eu.gricom.basic.linker.Linker;
+import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.statements.ArrayExpression;
+import eu.gricom.basic.statements.AssignStatement;
+import eu.gricom.basic.statements.AssignableExpression;
+import eu.gricom.basic.statements.CleanStatement;
+import eu.gricom.basic.statements.ColonStatement;
+import eu.gricom.basic.statements.DataStatement;
+import eu.gricom.basic.statements.DimStatement;
+import eu.gricom.basic.statements.DoStatement;
+import eu.gricom.basic.statements.ElseStatement;
+import eu.gricom.basic.statements.EndStatement;
+import eu.gricom.basic.statements.EndWhileStatement;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.ForStatement;
+import eu.gricom.basic.statements.GosubStatement;
+import eu.gricom.basic.statements.GotoStatement;
+import eu.gricom.basic.statements.IfThenStatement;
+import eu.gricom.basic.statements.InputStatement;
+import eu.gricom.basic.statements.LabelStatement;
+import eu.gricom.basic.statements.NextStatement;
+import eu.gricom.basic.statements.OperatorExpression;
+import eu.gricom.basic.statements.OptionStatement;
+import eu.gricom.basic.statements.PragmaStatement;
+import eu.gricom.basic.statements.PrintStatement;
+import eu.gricom.basic.statements.ReadStatement;
+import eu.gricom.basic.statements.RemStatement;
+import eu.gricom.basic.statements.ReturnStatement;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.statements.SubStringExpression;
+import eu.gricom.basic.statements.UnaryOperatorExpression;
+import eu.gricom.basic.statements.UntilStatement;
+import eu.gricom.basic.statements.VariableExpression;
+import eu.gricom.basic.statements.WhileStatement;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.LongValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * GenerateJavaCode.java
+ * <p>
+ * Description:
+ * <p>
+ * The Java code generator translates a linked program into the source code of a Java class, which runs without the
+ * interpreter: the macro processing, the lexer and the parser are not needed anymore. The class uses the value
+ * classes, the functions, and the JavaRuntime of GD-BASIC for everything that is not translated into plain Java.
+ * <p>
+ * The main program becomes the method run(); every target of a GOSUB statement becomes a method of its own, which
+ * returns at the RETURN statement. A method contains all statements reachable from its start. If one of them is the
+ * target of a jump, the statements are the cases of a switch over the statement number in a loop, and a jump sets
+ * the statement number and continues the loop; otherwise the statements simply follow each other. The blocks of
+ * FOR, WHILE, DO, and IF ... ELSE are paired when the code is generated, so that no control stack is needed.
+ * <p>
+ * Variables are static fields of the class: integer, real, string, and boolean variables are primitive fields or
+ * strings; untyped variables which are only assigned real values are real fields, all others hold a value object.
+ * Arrays are static fields holding a flat Java array, described by a field with their dimensions. The end value and
+ * the step size of a FOR loop are evaluated once and kept in local variables of the method.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
 public class GenerateJavaCode {
-    public GenerateJavaCode(String strJSONProgram) {
+    // kinds of results of an expression
+    private static final int INT = 0;
+    private static final int DOUBLE = 1;
+    private static final int BOOLEAN = 2;
+    private static final int STRING = 3;
+    private static final int VALUE = 4;
+
+    private static final String[] JAVA_TYPES = {"int", "double", "boolean", "String", "Value"};
+    private static final String[] PREFIXES = {"i", "d", "b", "str", "o"};
+    private static final String[] ARRAY_PREFIXES = {"ai", "ad", "ab", "astr", "ao"};
+    private static final String[] SUFFIXES = {"$", "%", "&", "#", "!", "@"};
+    private static final String INDENT = "    ";
+
+    private final List<Statement> _aoStatements;
+    private final List<Statement> _aoPreRunStatements;
+    private final LineNumberXRef _oLineNumbers;
+    private final Linker _oLinker;
+    private final String _strProgramName;
+    private final String _strClassName;
+    private final Map<Integer, String> _astrSourceLines = new HashMap<>();
+
+    // pairing of the blocks: statement closing or continuing a block, and the statement it jumps to
+    private final Map<Integer, Integer> _aiForOfNext = new HashMap<>();
+    private final Map<Integer, Integer> _aiNextOfFor = new HashMap<>();
+    private final Map<Integer, Integer> _aiWhileOfEndWhile = new HashMap<>();
+    private final Map<Integer, Integer> _aiDoOfUntil = new HashMap<>();
+    private final Map<Integer, Integer> _aiEndIfOfElse = new HashMap<>();
+    private final Set<Integer> _aiSubroutines = new TreeSet<>();
+
+    // variables and arrays of the program: kind and name of the Java field
+    private final Map<String, Integer> _aiVariableKinds = new LinkedHashMap<>();
+    private final Map<String, String> _astrVariableNames = new HashMap<>();
+    private final Map<String, Integer> _aiArrayKinds = new LinkedHashMap<>();
+    private final Map<String, String> _astrArrayNames = new HashMap<>();
+    private final Map<String, String> _astrArrayDimensions = new HashMap<>();
+    private final Set<String> _astrDimensionedArrays = new HashSet<>();
+    private final Set<String> _astrFieldNames = new HashSet<>();
+    private final Set<String> _astrUntypedVariables = new HashSet<>();
+
+    private final Set<String> _astrImports = new TreeSet<>();
+    private final List<String> _astrData = new ArrayList<>();
+    private boolean _bRead = false;
+    private boolean _bOptionBase = false;
+    private StringBuilder _oCode;
+
+    /**
+     * Default constructor.
+     *
+     * @param oProgram the linked program
+     */
+    public GenerateJavaCode(final Program oProgram) {
+        _aoStatements = oProgram.getStatements();
+        _aoPreRunStatements = oProgram.getPreRunStatements() != null ? oProgram.getPreRunStatements()
+                : new ArrayList<>();
+        _oLineNumbers = oProgram.getLineNumbers();
+        _oLinker = new Linker(oProgram);
+
+        String strProgramName = oProgram.getProgramName() != null ? oProgram.getProgramName() : "";
+        _strProgramName = strProgramName.substring(strProgramName.lastIndexOf('/') + 1);
+        _strClassName = BytecodeCompiler.getClassName(_strProgramName);
+
+        if (oProgram.getProgram() != null) {
+            for (String strLine : oProgram.getProgram().split("\n")) {
+                String strSource = strLine.strip();
+                int iDigits = 0;
+
+                while (iDigits < strSource.length() && Character.isDigit(strSource.charAt(iDigits))) {
+                    iDigits++;
+                }
+
+                if (iDigits > 0 && iDigits < 10) {
+                    _astrSourceLines.putIfAbsent(Integer.parseInt(strSource.substring(0, iDigits)), strSource);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the name of the generated class.
+     *
+     * @return name of the class
+     */
+    public String getClassName() {
+        return _strClassName;
+    }
+
+    /**
+     * Generate the Java source code of the program.
+     *
+     * @return the source code of the class
+     * @throws CompileErrorException if the program contains a statement or expression that cannot be translated
+     */
+    public String generate() throws CompileErrorException {
+        if (_aoStatements == null) {
+            throw new CompileErrorException("Parsing delivered empty program");
+        }
+
+        analyze();
+
+        StringBuilder oMethods = new StringBuilder();
+        _oCode = oMethods;
+        generateMethod(0, "run", "Run the program.");
+
+        for (int iSubroutine : _aiSubroutines) {
+            generateMethod(iSubroutine, getMethodName(iSubroutine),
+                           "Subroutine starting in line " + getLineNumber(iSubroutine) + ".");
+        }
+
+        StringBuilder oFields = new StringBuilder();
+        _oCode = oFields;
+        generateFields();
+
+        StringBuilder oClass = new StringBuilder();
+        _oCode = oClass;
+
+        line(0, "/*");
+        line(0, " * " + _strClassName + ".comp.java");
+        line(0, " *");
+        line(0, " * Generated by GD-BASIC from " + _strProgramName + ".");
+        line(0, " */");
+
+        if (!_astrImports.isEmpty()) {
+            for (String strImport : _astrImports) {
+                line(0, "import " + strImport + ";");
+            }
+
+            line(0, "");
+        }
+
+        line(0, "final class " + _strClassName + " {");
+        oClass.append(oFields);
+
+        line(1, "private " + _strClassName + "() {");
+        line(1, "}");
+        line(0, "");
+        line(1, "/**");
+        line(1, " * Start the program.");
+        line(1, " *");
+        line(1, " * @param astrArguments not used");
+        line(1, " * @throws Exception on runtime errors of the program");
+        line(1, " */");
+        line(1, "public static void main(final String[] astrArguments) throws Exception {");
+        line(2, "run();");
+        line(1, "}");
+
+        oClass.append(oMethods);
+        line(0, "}");
+
+        return oClass.toString();
+    }
+
+    // analysis of the program ----------------------------------------------------------------------------------
+
+    /**
+     * Pair the blocks, find the subroutines, declare the variables and arrays, and find the untyped variables that
+     * only hold real values.
+     *
+     * @throws CompileErrorException if a variable cannot be translated
+     */
+    private void analyze() throws CompileErrorException {
+        for (Statement oStatement : _aoPreRunStatements) {
+            if (oStatement instanceof DataStatement oData) {
+                for (Value oValue : oData.getValues()) {
+                    _astrData.add(toValue(translate(oValue))._strCode);
+                }
+            }
+        }
+
+        for (int iStatement = 0; iStatement < _aoStatements.size(); iStatement++) {
+            Statement oStatement = _aoStatements.get(iStatement);
+
+            if (oStatement instanceof ForStatement oFor) {
+                int iNext = _oLinker.getMatchingStatement(iStatement, ForStatement.class, NextStatement.class);
+                _aiForOfNext.put(iNext, iStatement);
+                _aiNextOfFor.put(iStatement, iNext);
+                declareVariable(oFor.getName());
+            } else if (oStatement instanceof WhileStatement) {
+                int iEndWhile = _oLinker.getMatchingStatement(iStatement, WhileStatement.class,
+                                                              EndWhileStatement.class);
+                _aiWhileOfEndWhile.put(iEndWhile, iStatement);
+            } else if (oStatement instanceof DoStatement) {
+                int iUntil = _oLinker.getMatchingStatement(iStatement, DoStatement.class, UntilStatement.class);
+
+                if (iUntil >= 0) {
+                    _aiDoOfUntil.put(iUntil, iStatement);
+                }
+            } else if (oStatement instanceof IfThenStatement oIf && oIf.getTargetStatement() < 0 && oIf.hasElse()) {
+                // the ELSE statement is the last one before the ELSE block
+                for (int iElse = oIf.getFalseStatement() - 1; iElse > iStatement; iElse--) {
+                    if (_aoStatements.get(iElse) instanceof ElseStatement) {
+                        _aiEndIfOfElse.put(iElse, oIf.getEndIfStatement());
+                        break;
+                    }
+                }
+            } else if (oStatement instanceof GosubStatement oGosub) {
+                _aiSubroutines.add(oGosub.getTargetStatement());
+            } else if (oStatement instanceof AssignStatement oAssign) {
+                declareTarget(oAssign.getTarget());
+            } else if (oStatement instanceof ReadStatement oRead) {
+                _bRead = true;
+
+                for (AssignableExpression oTarget : oRead.getTargets()) {
+                    declareTarget(oTarget);
+                    _astrUntypedVariables.remove(getName(oTarget));
+                }
+            } else if (oStatement instanceof InputStatement oInput) {
+                declareVariable(oInput.getName());
+                _astrUntypedVariables.remove(oInput.getName());
+            } else if (oStatement instanceof DimStatement oDim) {
+                for (int iArray = 0; iArray < oDim.getNames().length; iArray++) {
+                    String strKey = getArrayKey(oDim.getNames()[iArray], oDim.getUpperBounds()[iArray].length);
+                    declareArray(strKey, oDim.getNames()[iArray]);
+                    _astrDimensionedArrays.add(strKey);
+                }
+            } else if (oStatement instanceof OptionStatement) {
+                _bOptionBase = true;
+            }
+
+            oStatement.rewrite(this::declare);
+        }
+
+        inferUntypedVariables();
+
+        for (Map.Entry<String, Integer> oVariable : _aiVariableKinds.entrySet()) {
+            _astrVariableNames.put(oVariable.getKey(),
+                                   getFieldName(PREFIXES[oVariable.getValue()], oVariable.getKey()));
+        }
+
+        for (Map.Entry<String, Integer> oArray : _aiArrayKinds.entrySet()) {
+            String strName = oArray.getKey().substring(0, oArray.getKey().indexOf('('));
+            _astrArrayNames.put(oArray.getKey(), getFieldName(ARRAY_PREFIXES[oArray.getValue()], strName));
+            _astrArrayDimensions.put(oArray.getKey(), getFieldName("aiDim", strName));
+        }
     }
 
-    public void generate(String strJSONProgram) {
-        Logger oLogger = new Logger(this.getClass().getName());
+    /**
+     * Declare the variables and arrays used in an expression and its parts.
+     *
+     * @param oExpression the expression
+     * @return the expression, unchanged
+     */
+    private Expression declare(final Expression oExpression) {
+        if (oExpression instanceof VariableExpression oVariable) {
+            declareVariable(oVariable.getName());
+        } else if (oExpression instanceof ArrayExpression oArray) {
+            declareArray(getArrayKey(oArray.getName(), oArray.getIndices().length), oArray.getName());
+        }
+
+        oExpression.rewrite(this::declare);
+
+        return oExpression;
+    }
+
+    /**
+     * Declare the target of an assignment.
+     *
+     * @param oTarget variable or array element
+     */
+    private void declareTarget(final AssignableExpression oTarget) {
+        if (oTarget instanceof ArrayExpression oArray) {
+            declareArray(getArrayKey(oArray.getName(), oArray.getIndices().length), oArray.getName());
+        } else {
+            declareVariable(getName(oTarget));
+        }
+    }
+
+    /**
+     * Declare a variable. The kind of the field follows the type of the variable; untyped variables are assumed to
+     * hold real values until an assignment of another kind is found.
+     *
+     * @param strName name of the variable
+     */
+    private void declareVariable(final String strName) {
+        if (_aiVariableKinds.containsKey(strName)) {
+            return;
+        }
+
+        int iKind = getKind(getVariableType(strName));
+
+        if (iKind == VALUE) {
+            iKind = DOUBLE;
+            _astrUntypedVariables.add(strName);
+        }
+
+        _aiVariableKinds.put(strName, iKind);
+    }
+
+    /**
+     * Declare an array. The kind of the elements follows the type of the array, untyped arrays hold real values.
+     *
+     * @param strKey name of the array and number of dimensions
+     * @param strName name of the array
+     */
+    private void declareArray(final String strKey, final String strName) {
+        if (!_aiArrayKinds.containsKey(strKey)) {
+            VariableType eType = getVariableType(strName);
+            _aiArrayKinds.put(strKey, eType == VariableType.UNDEFINED ? DOUBLE : getKind(eType));
+        }
+    }
+
+    /**
+     * Find the untyped variables that are assigned anything else than a real value, and hold them as value objects.
+     * As the kinds of expressions depend on the kinds of variables, this is repeated until nothing changes anymore.
+     *
+     * @throws CompileErrorException if an expression cannot be translated
+     */
+    private void inferUntypedVariables() throws CompileErrorException {
+        for (String strName : _aiVariableKinds.keySet()) {
+            if (!_astrUntypedVariables.contains(strName) && getKind(getVariableType(strName)) == VALUE) {
+                _aiVariableKinds.put(strName, VALUE);
+            }
+        }
+
+        boolean bChanged = true;
+
+        while (bChanged) {
+            bChanged = false;
+
+            for (Statement oStatement : _aoStatements) {
+                String strName = null;
+                Expression oExpression = null;
+
+                if (oStatement instanceof AssignStatement oAssign && oAssign.getTarget() instanceof VariableExpression) {
+                    strName = getName(oAssign.getTarget());
+                    oExpression = oAssign.getExpression();
+                } else if (oStatement instanceof ForStatement oFor) {
+                    strName = oFor.getName();
+                    oExpression = oFor.getStartValue();
+                }
 
-        try {
-            JSONObject oJSONObject = new JSONObject(strJSONProgram.toString());
-        } catch (JSONException eJSONException) {
-            oLogger.error("JSON parser error: " + eJSONException.getMessage());
+                if (strName != null && _aiVariableKinds.get(strName) != null
+                        && _aiVariableKinds.get(strName) == DOUBLE && !isTypedVariable(strName)
+                        && translate(oExpression)._iKind != DOUBLE) {
+                    _aiVariableKinds.put(strName, VALUE);
+                    bChanged = true;
+                }
+            }
         }
     }
+
+    /**
+     * Check whether a variable has a type, or is an untyped variable holding real values.
+     *
+     * @param strName name of the variable
+     * @return true for typed variables
+     */
+    private boolean isTypedVariable(final String strName) {
+        return getKind(getVariableType(strName)) != VALUE;
+    }
+
+    // generation of the class -----------------------------------------------------------------------------------
+
+    /**
+     * Generate the fields of the class: variables, arrays, and the DATA values.
+     */
+    private void generateFields() {
+        for (Map.Entry<String, Integer> oVariable : _aiVariableKinds.entrySet()) {
+            if (oVariable.getValue() == VALUE) {
+                _astrImports.add(Value.class.getName());
+            }
+
+            String strInitialValue = oVariable.getValue() == STRING ? " = \"\"" : "";
+            line(1, "private static " + JAVA_TYPES[oVariable.getValue()] + " "
+                    + _astrVariableNames.get(oVariable.getKey()) + strInitialValue + ";");
+        }
+
+        if (_bOptionBase || !_aiArrayKinds.isEmpty()) {
+            line(1, "private static int iOptionBase = 0;");
+        }
+
+        for (Map.Entry<String, Integer> oArray : _aiArrayKinds.entrySet()) {
+            line(1, "private static int[] " + _astrArrayDimensions.get(oArray.getKey()) + ";");
+            line(1, "private static " + JAVA_TYPES[oArray.getValue()] + "[] " + _astrArrayNames.get(oArray.getKey())
+                    + ";");
+        }
+
+        if (_bRead || !_astrData.isEmpty()) {
+            _astrImports.add(Value.class.getName());
+
+            if (_astrData.isEmpty()) {
+                line(1, "private static final Value[] DATA = {};");
+            } else {
+                line(1, "private static final Value[] DATA = {");
+
+                for (int iData = 0; iData < _astrData.size(); iData++) {
+                    line(3, _astrData.get(iData) + (iData < _astrData.size() - 1 ? "," : ""));
+                }
+
+                line(1, "};");
+            }
+
+            line(1, "private static int iData = 0;");
+        }
+
+        line(0, "");
+    }
+
+    /**
+     * Generate the method of the main program or a subroutine.
+     *
+     * @param iEntry number of the first statement
+     * @param strName name of the method
+     * @param strDescription description of the method
+     * @throws CompileErrorException if a statement cannot be translated
+     */
+    private void generateMethod(final int iEntry, final String strName, final String strDescription)
+            throws CompileErrorException {
+        boolean bMain = iEntry == 0 && "run".equals(strName);
+        Set<Integer> aiStatements = new TreeSet<>();
+        Set<Integer> aiTargets = new TreeSet<>();
+        List<Integer> aiOpen = new ArrayList<>();
+
+        aiOpen.add(iEntry);
+
+        while (!aiOpen.isEmpty()) {
+            int iStatement = aiOpen.removeLast();
+
+            if (iStatement >= _aoStatements.size() || !aiStatements.add(iStatement)) {
+                continue;
+            }
+
+            for (int iSuccessor : getSuccessors(iStatement)) {
+                if (iSuccessor != iStatement + 1) {
+                    aiTargets.add(iSuccessor);
+                }
+
+                aiOpen.add(iSuccessor);
+            }
+        }
+
+        boolean bSwitch = !aiTargets.isEmpty();
+
+        line(0, "");
+        line(1, "/**");
+        line(1, " * " + strDescription);
+        line(1, " *");
+        line(1, " * @throws Exception on runtime errors of the program");
+        line(1, " */");
+        line(1, (bMain ? "public" : "private") + " static void " + strName + "() throws Exception {");
+
+        // the end value and step size of the FOR loops
+        boolean bLocals = false;
+        for (int iStatement : aiStatements) {
+            int iFor = _aiForOfNext.getOrDefault(iStatement, iStatement);
+
+            if (_aoStatements.get(iFor) instanceof ForStatement oFor
+                    && (iFor == iStatement || !aiStatements.contains(iFor))) {
+                line(2, getLoopType(oFor.getEndValue()) + " " + getLoopLocal("Limit", iFor) + " = 0;");
+
+                if (!isConstant(oFor.getStepSize())) {
+                    line(2, getLoopType(oFor.getStepSize()) + " " + getLoopLocal("Step", iFor) + " = 0;");
+                }
+
+                bLocals = true;
+            }
+        }
+
+        // arrays used without a DIM statement have the default size of 10 in every dimension
+        if (bMain) {
+            for (Map.Entry<String, Integer> oArray : _aiArrayKinds.entrySet()) {
+                String strKey = oArray.getKey();
+
+                if (!_astrDimensionedArrays.contains(strKey)) {
+                    int iDimensions = Integer.parseInt(strKey.substring(strKey.indexOf('(') + 1,
+                                                                        strKey.indexOf(')')));
+                    String strDimensions = _astrArrayDimensions.get(strKey);
+
+                    _astrImports.add(JavaRuntime.class.getName());
+                    line(2, strDimensions + " = JavaRuntime.dim(null, \"" + strKey.substring(0, strKey.indexOf('('))
+                            + "\", 0" + ", 10".repeat(iDimensions) + ");");
+                    line(2, _astrArrayNames.get(strKey) + " = " + newArray(oArray.getValue(), strDimensions) + ";");
+                    bLocals = true;
+                }
+            }
+        }
+
+        int iLevel = 2;
+
+        if (bSwitch) {
+            line(2, "int iStatement = " + iEntry + ";");
+            line(0, "");
+            line(2, "while (true) {");
+            line(3, "switch (iStatement) {");
+            iLevel = 5;
+        } else if (bLocals) {
+            line(0, "");
+        }
+
+        int iLastLine = -1;
+        boolean bFallsThrough = true;
+
+        for (int iStatement : aiStatements) {
+            if (bSwitch && (iStatement == iEntry || aiTargets.contains(iStatement))) {
+                line(4, "case " + iStatement + ":");
+            }
+
+            int iLine = getLineNumber(iStatement);
+            if (iLine != iLastLine && _astrSourceLines.containsKey(iLine)) {
+                line(iLevel, "// " + _astrSourceLines.get(iLine));
+                iLastLine = iLine;
+            }
+
+            bFallsThrough = generateStatement(iStatement, iLevel, bMain);
+        }
+
+        // the end of the program
+        if (bSwitch) {
+            line(3, "}");
+            line(0, "");
+            line(3, bMain ? "return;" : "System.exit(0);");
+            line(2, "}");
+        } else if (bFallsThrough && !bMain) {
+            line(2, "System.exit(0);");
+        }
+
+        line(1, "}");
+    }
+
+    /**
+     * Get the statements a statement can continue with.
+     *
+     * @param iStatement number of the statement
+     * @return numbers of the following statements, the number of statements of the program for the end of it
+     */
+    private List<Integer> getSuccessors(final int iStatement) {
+        Statement oStatement = _aoStatements.get(iStatement);
+        List<Integer> aiSuccessors = new ArrayList<>();
+
+        if (oStatement instanceof GotoStatement oGoto) {
+            aiSuccessors.add(oGoto.getTargetStatement());
+        } else if (oStatement instanceof IfThenStatement oIf) {
+            aiSuccessors.add(oIf.getTargetStatement() >= 0 ? oIf.getTargetStatement() : oIf.getFalseStatement());
+            aiSuccessors.add(iStatement + 1);
+        } else if (oStatement instanceof ElseStatement) {
+            aiSuccessors.add(_aiEndIfOfElse.getOrDefault(iStatement, iStatement + 1));
+        } else if (oStatement instanceof ForStatement) {
+            aiSuccessors.add(_aiNextOfFor.get(iStatement) + 1);
+            aiSuccessors.add(iStatement + 1);
+        } else if (oStatement instanceof NextStatement) {
+            aiSuccessors.add(_aiForOfNext.get(iStatement) + 1);
+            aiSuccessors.add(iStatement + 1);
+        } else if (oStatement instanceof WhileStatement) {
+            aiSuccessors.add(getWhileExit(iStatement));
+            aiSuccessors.add(iStatement + 1);
+        } else if (oStatement instanceof EndWhileStatement) {
+            aiSuccessors.add(_aiWhileOfEndWhile.get(iStatement));
+        } else if (oStatement instanceof UntilStatement && _aiDoOfUntil.containsKey(iStatement)) {
+            aiSuccessors.add(_aiDoOfUntil.get(iStatement));
+            aiSuccessors.add(iStatement + 1);
+        } else if (!(oStatement instanceof ReturnStatement) && !(oStatement instanceof EndStatement)) {
+            aiSuccessors.add(iStatement + 1);
+        }
+
+        return aiSuccessors;
+    }
+
+    /**
+     * Generate the code of a statement.
+     *
+     * @param iStatement number of the statement
+     * @param iLevel indentation level
+     * @param bMain true if the statement is part of the main program
+     * @return true if the program can continue with the following statement
+     * @throws CompileErrorException if the statement cannot be translated
+     */
+    private boolean generateStatement(final int iStatement, final int iLevel, final boolean bMain)
+            throws CompileErrorException {
+        Statement oStatement = _aoStatements.get(iStatement);
+
+        switch (oStatement) {
+            case AssignStatement oAssign -> assign(iLevel, oAssign.getTarget(), translate(oAssign.getExpression()));
+
+            case PrintStatement oPrint -> {
+                List<String> astrParts = new ArrayList<>();
+
+                for (Expression oExpression : oPrint.getExpressions()) {
+                    JavaExpression oPart = translate(oExpression);
+                    astrParts.add(oPart._iKind == BOOLEAN ? convert(oPart, STRING) : oPart._strCode);
+
+                    if (astrParts.size() == 1 && oPart._iKind != STRING && oPrint.getExpressions().size() > 1) {
+                        astrParts.set(0, "String.valueOf(" + strip(astrParts.getFirst()) + ")");
+                    }
+                }
+
+                String strText = astrParts.size() == 1 ? strip(astrParts.getFirst()) : String.join(" + ", astrParts);
+                line(iLevel, "System.out." + (oPrint.hasLineFeed() ? "println(" : "print(") + strText + ");");
+            }
+
+            case GotoStatement oGoto -> {
+                jump(iLevel, oGoto.getTargetStatement());
+                return false;
+            }
+
+            case GosubStatement oGosub -> line(iLevel, getMethodName(oGosub.getTargetStatement()) + "();");
+
+            case ReturnStatement ignored -> {
+                if (bMain) {
+                    _astrImports.add(eu.gricom.basic.error.RuntimeException.class.getName());
+                    line(iLevel, "throw new RuntimeException(\"RETURN without GOSUB\");");
+                } else {
+                    line(iLevel, "return;");
+                }
+                return false;
+            }
+
+            case EndStatement ignored -> {
+                line(iLevel, "System.exit(0);");
+                return false;
+            }
+
+            case IfThenStatement oIf -> {
+                String strCondition = toBoolean(translate(oIf.getCondition()));
+
+                if (oIf.getTargetStatement() >= 0) {
+                    line(iLevel, "if " + parenthesize(strCondition) + " {");
+                    jump(iLevel + 1, oIf.getTargetStatement());
+                } else {
+                    line(iLevel, "if " + parenthesize(negate(strCondition)) + " {");
+                    jump(iLevel + 1, oIf.getFalseStatement());
+                }
+                line(iLevel, "}");
+            }
+
+            case ElseStatement ignored -> {
+                jump(iLevel, _aiEndIfOfElse.getOrDefault(iStatement, iStatement + 1));
+                return false;
+            }
+
+            case ForStatement oFor -> forStatement(iLevel, iStatement, oFor);
+
+            case NextStatement ignored -> nextStatement(iLevel, _aiForOfNext.get(iStatement));
+
+            case WhileStatement oWhile -> {
+                line(iLevel, "if " + parenthesize(negate(toBoolean(translate(oWhile.getCondition())))) + " {");
+                jump(iLevel + 1, getWhileExit(iStatement));
+                line(iLevel, "}");
+            }
+
+            case EndWhileStatement ignored -> {
+                jump(iLevel, _aiWhileOfEndWhile.get(iStatement));
+                return false;
+            }
+
+            case UntilStatement oUntil -> {
+                if (!_aiDoOfUntil.containsKey(iStatement)) {
+                    _astrImports.add(eu.gricom.basic.error.RuntimeException.class.getName());
+                    line(iLevel, "throw new RuntimeException(\"UNTIL without DO\");");
+                    return false;
+                }
+
+                line(iLevel, "if " + parenthesize(negate(toBoolean(translate(oUntil.getCondition())))) + " {");
+                jump(iLevel + 1, _aiDoOfUntil.get(iStatement));
+                line(iLevel, "}");
+            }
+
+            case ReadStatement oRead -> {
+                _astrImports.add(JavaRuntime.class.getName());
+
+                for (AssignableExpression oTarget : oRead.getTargets()) {
+                    assign(iLevel, oTarget, new JavaExpression("JavaRuntime.read(DATA, iData++)", VALUE));
+                }
+            }
+
+            case InputStatement oInput -> {
+                _astrImports.add(JavaRuntime.class.getName());
+                assignVariable(iLevel, oInput.getName(), new JavaExpression("JavaRuntime.input()", VALUE));
+            }
+
+            case DimStatement oDim -> {
+                _astrImports.add(JavaRuntime.class.getName());
+
+                for (int iArray = 0; iArray < oDim.getNames().length; iArray++) {
+                    String strName = oDim.getNames()[iArray];
+                    Expression[] aoUpperBounds = oDim.getUpperBounds()[iArray];
+                    String strKey = getArrayKey(strName, aoUpperBounds.length);
+                    String strDimensions = _astrArrayDimensions.get(strKey);
+                    StringBuilder strBounds = new StringBuilder();
+
+                    for (Expression oUpperBound : aoUpperBounds) {
+                        strBounds.append(", ").append(strip(toIndex(translate(oUpperBound))));
+                    }
+
+                    line(iLevel, strDimensions + " = JavaRuntime.dim(" + strDimensions + ", \"" + strName
+                            + "\", iOptionBase" + strBounds + ");");
+                    line(iLevel, _astrArrayNames.get(strKey) + " = "
+                            + newArray(_aiArrayKinds.get(strKey), strDimensions) + ";");
+                }
+            }
+
+            case OptionStatement oOption -> line(iLevel, "iOptionBase = " + oOption.getBase() + ";");
+
+            case DataStatement ignored -> {
+                // the values of the DATA statements are the field DATA
+            }
+
+            case RemStatement ignored -> {
+            }
+
+            case LabelStatement ignored -> {
+            }
+
+            case ColonStatement ignored -> {
+            }
+
+            case DoStatement ignored -> {
+            }
+
+            case PragmaStatement oPragma -> {
+                // log and trace levels are settings of the interpreter, the collation applies to the program
+                if (oPragma.getParameter().toLowerCase(Locale.ROOT).contains("collation")) {
+                    _astrImports.add(StringValue.class.getName());
+                    line(iLevel, "StringValue.setCollation(" + quote(oPragma.getValue()) + ");");
+                }
+            }
+
+            case CleanStatement ignored -> {
+                // there is no control stack in a translated program
+            }
+
+            default -> throw new CompileErrorException(oStatement.getClass().getSimpleName() + " in line "
+                                                               + getLineNumber(iStatement)
+                                                               + " cannot be translated into Java");
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the statement following the END-WHILE statement of a WHILE loop.
+     *
+     * @param iWhile number of the WHILE statement
+     * @return number of the statement after the loop
+     */
+    private int getWhileExit(final int iWhile) {
+        return _oLinker.getMatchingStatement(iWhile, WhileStatement.class, EndWhileStatement.class) + 1;
+    }
+
+    /**
+     * Generate the start of a FOR loop: the loop variable gets the start value, end value and step size are
+     * evaluated once. If the start value is already past the end value, the body of the loop is skipped, as in the
+     * interpreter.
+     *
+     * @param iLevel indentation level
+     * @param iFor number of the FOR statement
+     * @param oFor the FOR statement
+     * @throws CompileErrorException if an expression cannot be translated
+     */
+    private void forStatement(final int iLevel, final int iFor, final ForStatement oFor)
+            throws CompileErrorException {
+        assignVariable(iLevel, oFor.getName(), translate(oFor.getStartValue()));
+        line(iLevel, getLoopLocal("Limit", iFor) + " = " + strip(toLoop(oFor.getEndValue())) + ";");
+
+        if (!isConstant(oFor.getStepSize())) {
+            line(iLevel, getLoopLocal("Step", iFor) + " = " + strip(toLoop(oFor.getStepSize())) + ";");
+        }
+
+        line(iLevel, "if (!(" + getLoopCondition(iFor, getCounter(oFor.getName())) + ")) {");
+        jump(iLevel + 1, _aiNextOfFor.get(iFor) + 1);
+        line(iLevel, "}");
+    }
+
+    /**
+     * Generate the NEXT statement of a FOR loop: the step size is added to the loop variable, and if it is still
+     * within the end value, the loop continues with its first statement.
+     *
+     * @param iLevel indentation level
+     * @param iFor number of the FOR statement
+     * @throws CompileErrorException if an expression cannot be translated
+     */
+    private void nextStatement(final int iLevel, final int iFor) throws CompileErrorException {
+        ForStatement oFor = (ForStatement) _aoStatements.get(iFor);
+        String strName = oFor.getName();
+        int iKind = _aiVariableKinds.get(strName);
+        String strCounter = getCounter(strName);
+        boolean bConstant = isConstant(oFor.getStepSize());
+        double dStep = bConstant ? ((RealValue) oFor.getStepSize()).toReal() : 0;
+        int iNextKind = iKind == INT && (bConstant || getLoopType(oFor.getStepSize()).equals("int")) ? INT : DOUBLE;
+        String strNext;
+
+        if (iNextKind == DOUBLE) {
+            // real loops count in decimals, as in the interpreter
+            _astrImports.add(JavaRuntime.class.getName());
+            strNext = "JavaRuntime.step(" + strCounter + ", " + (bConstant ? literal(dStep, false)
+                    : getLoopLocal("Step", iFor)) + ")";
+        } else if (bConstant) {
+            strNext = strCounter + (dStep < 0 ? " - " + literal(-dStep, true) : " + " + literal(dStep, true));
+        } else {
+            strNext = strCounter + " + " + getLoopLocal("Step", iFor);
+        }
+
+        assignVariable(iLevel, strName, new JavaExpression("(" + strNext + ")", iNextKind));
+        line(iLevel, "if (" + getLoopCondition(iFor, strCounter) + ") {");
+        jump(iLevel + 1, iFor + 1);
+        line(iLevel, "}");
+    }
+
+    /**
+     * Get the Java code reading the loop variable as a number.
+     *
+     * @param strName name of the loop variable
+     * @return Java code of the value
+     */
+    private String getCounter(final String strName) {
+        return _aiVariableKinds.get(strName) == VALUE ? _astrVariableNames.get(strName) + ".toReal()"
+                : _astrVariableNames.get(strName);
+    }
+
+    /**
+     * Get the condition of a FOR loop: the loop variable has not passed the end value.
+     *
+     * @param iFor number of the FOR statement
+     * @param strCounter Java code of the value of the loop variable
+     * @return Java code of the condition
+     * @throws CompileErrorException if the end value or step size cannot be translated
+     */
+    private String getLoopCondition(final int iFor, final String strCounter) throws CompileErrorException {
+        ForStatement oFor = (ForStatement) _aoStatements.get(iFor);
+        String strLimit = getLoopLocal("Limit", iFor);
+
+        if (isConstant(oFor.getStepSize())) {
+            return strCounter + (((RealValue) oFor.getStepSize()).toReal() < 0 ? " >= " : " <= ") + strLimit;
+        }
+
+        String strStep = getLoopLocal("Step", iFor);
+
+        return strStep + " < 0 ? " + strCounter + " >= " + strLimit + " : " + strCounter + " <= " + strLimit;
+    }
+
+    /**
+     * Check whether the step size of a loop is a constant number.
+     *
+     * @param oExpression the step size
+     * @return true for a constant
+     */
+    private static boolean isConstant(final Expression oExpression) {
+        return oExpression instanceof RealValue;
+    }
+
+    /**
+     * Get the Java type of the local variable holding the end value or step size of a loop.
+     *
+     * @param oExpression the end value or step size
+     * @return "int" or "double"
+     * @throws CompileErrorException if the expression cannot be translated
+     */
+    private String getLoopType(final Expression oExpression) throws CompileErrorException {
+        return translate(oExpression)._iKind == INT ? "int" : "double";
+    }
+
+    /**
+     * Translate the end value or step size of a loop.
+     *
+     * @param oExpression the end value or step size
+     * @return Java code of the expression
+     * @throws CompileErrorException if the expression cannot be translated
+     */
+    private String toLoop(final Expression oExpression) throws CompileErrorException {
+        JavaExpression oLoop = translate(oExpression);
+
+        return oLoop._iKind == INT ? oLoop._strCode : convert(oLoop, DOUBLE);
+    }
+
+    /**
+     * Get the name of a local variable of a loop.
+     *
+     * @param strKind "Limit" or "Step"
+     * @param iFor number of the FOR statement
+     * @return name of the local variable
+     * @throws CompileErrorException if the end value or step size cannot be translated
+     */
+    private String getLoopLocal(final String strKind, final int iFor) throws CompileErrorException {
+        ForStatement oFor = (ForStatement) _aoStatements.get(iFor);
+        Expression oExpression = strKind.equals("Limit") ? oFor.getEndValue() : oFor.getStepSize();
+
+        return (getLoopType(oExpression).equals("int") ? "i" : "d") + strKind + getLabel(iFor);
+    }
+
+    /**
+     * Generate a jump.
+     *
+     * @param iLevel indentation level
+     * @param iTarget number of the target statement
+     */
+    private void jump(final int iLevel, final int iTarget) {
+        line(iLevel, "iStatement = " + iTarget + ";");
+        line(iLevel, "continue;");
+    }
+
+    /**
+     * Generate an assignment to a variable or an array element.
+     *
+     * @param iLevel indentation level
+     * @param oTarget the variable or array element
+     * @param oValue the value
+     * @throws CompileErrorException if the target cannot be translated
+     */
+    private void assign(final int iLevel, final AssignableExpression oTarget, final JavaExpression oValue)
+            throws CompileErrorException {
+        if (oTarget instanceof ArrayExpression oArray) {
+            JavaExpression oElement = translate(oArray);
+            line(iLevel, oElement._strCode + " = " + strip(convertForStore(oValue, oElement._iKind)) + ";");
+        } else {
+            assignVariable(iLevel, getName(oTarget), oValue);
+        }
+    }
+
+    /**
+     * Generate an assignment to a variable.
+     *
+     * @param iLevel indentation level
+     * @param strName name of the variable
+     * @param oValue the value
+     * @throws CompileErrorException if the variable cannot be translated
+     */
+    private void assignVariable(final int iLevel, final String strName, final JavaExpression oValue)
+            throws CompileErrorException {
+        if (!_aiVariableKinds.containsKey(strName)) {
+            throw new CompileErrorException("Variable " + strName + " cannot be translated into Java");
+        }
+
+        line(iLevel, _astrVariableNames.get(strName) + " = "
+                + strip(convertForStore(oValue, _aiVariableKinds.get(strName))) + ";");
+    }
+
+    // translation of expressions --------------------------------------------------------------------------------
+
+    /**
+     * Java code of an expression and the kind of its result.
+     */
+    private static final class JavaExpression {
+        private final String _strCode;
+        private final int _iKind;
+
+        /**
+         * Default constructor.
+         *
+         * @param strCode the Java code
+         * @param iKind kind of the result
+         */
+        private JavaExpression(final String strCode, final int iKind) {
+            _strCode = strCode;
+            _iKind = iKind;
+        }
+    }
+
+    /**
+     * Translate an expression into Java code.
+     *
+     * @param oExpression the expression
+     * @return Java code and kind of the result
+     * @throws CompileErrorException if the expression cannot be translated
+     */
+    private JavaExpression translate(final Expression oExpression) throws CompileErrorException {
+        switch (oExpression) {
+            case RealValue oReal -> {
+                return new JavaExpression(literal(oReal.toReal(), false), DOUBLE);
+            }
+
+            case IntegerValue oInteger -> {
+                return new JavaExpression(oInteger.toString(), INT);
+            }
+
+            case BooleanValue oBoolean -> {
+                return new JavaExpression(oBoolean.isTrue() ? "true" : "false", BOOLEAN);
+            }
+
+            case StringValue oString -> {
+                return new JavaExpression(quote(oString.toString()), STRING);
+            }
+
+            case LongValue oLong -> {
+                _astrImports.add(LongValue.class.getName());
+                return new JavaExpression("new LongValue(" + oLong + "L)", VALUE);
+            }
+
+            case VariableExpression oVariable -> {
+                String strName = oVariable.getName();
+
+                if (!_aiVariableKinds.containsKey(strName)) {
+                    throw new CompileErrorException("Variable " + strName + " cannot be translated into Java");
+                }
+
+                return new JavaExpression(_astrVariableNames.getOrDefault(strName, strName),
+                                          _aiVariableKinds.get(strName));
+            }
+
+            case ArrayExpression oArray -> {
+                String strKey = getArrayKey(oArray.getName(), oArray.getIndices().length);
+                StringBuilder strIndices = new StringBuilder();
+
+                for (Expression oIndex : oArray.getIndices()) {
+                    strIndices.append(", ").append(strip(toIndex(translate(oIndex))));
+                }
+
+                _astrImports.add(JavaRuntime.class.getName());
+
+                return new JavaExpression(_astrArrayNames.getOrDefault(strKey, strKey) + "[JavaRuntime.index("
+                                                  + _astrArrayDimensions.getOrDefault(strKey, strKey) + ", \""
+                                                  + oArray.getName() + "\"" + strIndices + ")]",
+                                          _aiArrayKinds.get(strKey));
+            }
+
+            case SubStringExpression oSubString -> {
+                String strString = convert(translate(oSubString.getString()), STRING);
+                String strStart = convert(translate(oSubString.getStart()), INT);
+
+                if (oSubString.getEnd() == null) {
+                    return new JavaExpression(runtime("subString", strString, strStart), STRING);
+                }
+
+                String strEnd = convert(translate(oSubString.getEnd()), INT);
+
+                return new JavaExpression(runtime("subString", strString, strStart + ", " + strip(strEnd)), STRING);
+            }
+
+            case OperatorExpression oOperator -> {
+                return translateOperator(oOperator);
+            }
+
+            case UnaryOperatorExpression oUnary -> {
+                return translateUnary(oUnary);
+            }
+
+            case Function oFunction -> {
+                return translateFunction(oFunction);
+            }
+
+            case FnFunction ignored -> throw new CompileErrorException("User defined functions (FN) cannot be "
+                                                                               + "translated into Java");
+
+            default -> throw new CompileErrorException(oExpression.getClass().getSimpleName()
+                                                               + " cannot be translated into Java");
+        }
+    }
+
+    /**
+     * Translate an operation. Operations with a type known at compile time become Java arithmetic, following the
+     * primitive evaluation of the operator expression; all others call the value classes.
+     *
+     * @param oOperator the operation
+     * @return Java code and kind of the result
+     * @throws CompileErrorException if the operation cannot be translated
+     */
+    private JavaExpression translateOperator(final OperatorExpression oOperator) throws CompileErrorException {
+        JavaExpression oLeft = translate(oOperator.getLeft());
+        JavaExpression oRight = translate(oOperator.getRight());
+        BasicTokenType eOperation = oOperator.getOperation();
+
+        if (eOperation == null) {
+            throw new CompileErrorException("Unknown operator: " + oOperator.getOperator());
+        }
+
+        VariableType eType = OperatorExpression.getResultType(eOperation, getType(oLeft._iKind),
+                                                              getType(oRight._iKind));
+
+        switch (eType) {
+            case REAL -> {
+                String strLeft = convert(oLeft, DOUBLE);
+                String strRight = convert(oRight, DOUBLE);
+
+                return new JavaExpression(switch (eOperation) {
+                    case PLUS -> "(" + strLeft + " + " + strRight + ")";
+                    case MINUS -> "(" + strLeft + " - " + strRight + ")";
+                    case MULTIPLY -> "(" + strLeft + " * " + strRight + ")";
+                    case DIVIDE -> runtime("divide", strLeft, strRight);
+                    case MODULO -> runtime("modulo", strLeft, strRight);
+                    case POWER -> "Math.pow(" + strip(strLeft) + ", " + strip(strRight) + ")";
+                    default -> throw new CompileErrorException("Unknown operator: " + eOperation);
+                }, DOUBLE);
+            }
+
+            case INTEGER -> {
+                String strLeft = convert(oLeft, INT);
+                String strRight = convert(oRight, INT);
+
+                return new JavaExpression(switch (eOperation) {
+                    case PLUS -> "(" + strLeft + " + " + strRight + ")";
+                    case MINUS -> "(" + strLeft + " - " + strRight + ")";
+                    case MULTIPLY -> "(" + strLeft + " * " + strRight + ")";
+                    case DIVIDE -> runtime("divide", strLeft, strRight);
+                    case MODULO -> runtime("modulo", strLeft, strRight);
+                    case POWER -> "((int) Math.pow(" + strip(strLeft) + ", " + strip(strRight) + "))";
+                    case SHIFT_LEFT -> "(" + strLeft + " * 2 * " + strRight + ")";
+                    case SHIFT_RIGHT -> runtime("shiftRight", strLeft, strRight);
+                    default -> throw new CompileErrorException("Unknown operator: " + eOperation);
+                }, INT);
+            }
+
+            case BOOLEAN -> {
+                // the type of the left side decides how the operands are compared
+                int iOperandKind = oLeft._iKind == BOOLEAN ? BOOLEAN : oLeft._iKind == INT ? INT : DOUBLE;
+                String strLeft = convert(oLeft, iOperandKind);
+                String strRight = convert(oRight, iOperandKind);
+                boolean bBoolean = iOperandKind == BOOLEAN;
+
+                return new JavaExpression(switch (eOperation) {
+                    case AND -> bBoolean ? "(" + strLeft + " && " + strRight + ")"
+                            : "(" + strLeft + " > 0 && " + strRight + " > 0)";
+                    case OR -> bBoolean ? "(" + strLeft + " || " + strRight + ")"
+                            : "(" + strLeft + " > 0 || " + strRight + " > 0)";
+                    case COMPARE_EQUAL -> "(" + strLeft + " == " + strRight + ")";
+                    case COMPARE_NOT_EQUAL -> "(" + strLeft + " != " + strRight + ")";
+                    case SMALLER -> "(" + strLeft + " < " + strRight + ")";
+                    case SMALLER_EQUAL -> "(" + strLeft + " <= " + strRight + ")";
+                    case GREATER -> "(" + strLeft + " > " + strRight + ")";
+                    case GREATER_EQUAL -> "(" + strLeft + " >= " + strRight + ")";
+                    default -> throw new CompileErrorException("Unknown operator: " + eOperation);
+                }, BOOLEAN);
+            }
+
+            default -> {
+                // a string on the left side of a "+" concatenates the text of the right side
+                if (oLeft._iKind == STRING && eOperation == BasicTokenType.PLUS) {
+                    String strRight = oRight._iKind == BOOLEAN ? convert(oRight, STRING) : oRight._strCode;
+
+                    return new JavaExpression("(" + oLeft._strCode + " + " + strRight + ")", STRING);
+                }
+
+                String strMethod = switch (eOperation) {
+                    case PLUS -> "plus";
+                    case MINUS -> "minus";
+                    case MULTIPLY -> "multiply";
+                    case DIVIDE -> "divide";
+                    case POWER -> "power";
+                    case AND -> "and";
+                    case OR -> "or";
+                    case COMPARE_EQUAL -> "equals";
+                    case COMPARE_NOT_EQUAL -> "notEqual";
+                    case SMALLER -> "smallerThan";
+                    case SMALLER_EQUAL -> "smallerEqualThan";
+                    case GREATER -> "largerThan";
+                    case GREATER_EQUAL -> "largerEqualThan";
+                    case MODULO -> "modulo";
+                    case SHIFT_RIGHT -> "shiftRight";
+                    case SHIFT_LEFT -> "shiftLeft";
+                    default -> throw new CompileErrorException("Unknown operator: " + eOperation);
+                };
+
+                return new JavaExpression(toValue(oLeft)._strCode + "." + strMethod + "("
+                                                  + strip(toValue(oRight)._strCode) + ")", VALUE);
+            }
+        }
+    }
+
+    /**
+     * Translate a unary operation.
+     *
+     * @param oUnary the unary operation
+     * @return Java code and kind of the result
+     * @throws CompileErrorException if the operation cannot be translated
+     */
+    private JavaExpression translateUnary(final UnaryOperatorExpression oUnary) throws CompileErrorException {
+        JavaExpression oOperand = translate(oUnary.getOperand());
+        BasicTokenType eOperator = oUnary.getOperator();
+        VariableType eType = UnaryOperatorExpression.getResultType(eOperator, getType(oOperand._iKind));
+
+        if (eOperator == BasicTokenType.PLUS && eType != VariableType.UNDEFINED) {
+            return oOperand;
+        }
+
+        if (eOperator == BasicTokenType.MINUS && eType == VariableType.REAL) {
+            return new JavaExpression("(-" + convert(oOperand, DOUBLE) + ")", DOUBLE);
+        }
+
+        if (eOperator == BasicTokenType.NOT && eType == VariableType.BOOLEAN) {
+            return new JavaExpression("(!" + oOperand._strCode + ")", BOOLEAN);
+        }
+
+        _astrImports.add(JavaRuntime.class.getName());
+        _astrImports.add(BasicTokenType.class.getName());
+
+        return new JavaExpression("JavaRuntime.unary(BasicTokenType." + eOperator + ", "
+                                          + strip(toValue(oOperand)._strCode) + ")", VALUE);
+    }
+
+    /**
+     * Translate a function call. Numeric functions of real values become calls of java.lang.Math, as in the
+     * primitive evaluation of the function; all others call the implementation of the function.
+     *
+     * @param oFunction the function
+     * @return Java code and kind of the result
+     * @throws CompileErrorException if the function cannot be translated
+     */
+    private JavaExpression translateFunction(final Function oFunction) throws CompileErrorException {
+        List<JavaExpression> aoParameters = new ArrayList<>();
+
+        for (Expression oParameter : oFunction.getParameters()) {
+            aoParameters.add(translate(oParameter));
+        }
+
+        BasicTokenType eFunction = oFunction.getFunction();
+        VariableType eType = aoParameters.size() > 1 ? VariableType.UNDEFINED
+                : Function.getResultType(eFunction, aoParameters.isEmpty() ? null
+                : getType(aoParameters.getFirst()._iKind));
+
+        if (eType == VariableType.REAL && eFunction == BasicTokenType.RND) {
+            return new JavaExpression("Math.random()", DOUBLE);
+        }
+
+        if (eType == VariableType.REAL) {
+            String strMethod = switch (eFunction) {
+                case ABS -> "abs";
+                case ATN -> "atan";
+                case COS -> "cos";
+                case EXP -> "exp";
+                case INT -> "floor";
+                case LOG -> "log";
+                case LOG10 -> "log10";
+                case SIN -> "sin";
+                case SQR -> "sqrt";
+                case TAN -> "tan";
+                default -> throw new CompileErrorException("Unknown function: " + eFunction);
+            };
+
+            return new JavaExpression("Math." + strMethod + "(" + strip(aoParameters.getFirst()._strCode) + ")",
+                                      DOUBLE);
+        }
+
+        if (eType == VariableType.INTEGER && eFunction == BasicTokenType.LEN) {
+            return new JavaExpression(aoParameters.getFirst()._strCode + ".length()", INT);
+        }
+
+        String strClass = switch (eFunction) {
+            case ABS -> "Abs";
+            case ASC -> "Asc";
+            case ATN -> "Atn";
+            case CDBL -> "Cdbl";
+            case CHR -> "Chr";
+            case CINT -> "Cint";
+            case COS -> "Cos";
+            case EXP -> "Exp";
+            case INSTR -> "Instr";
+            case INT -> "Int";
+            case LEFT -> "Left";
+            case LEN -> "Len";
+            case LOG -> "Log";
+            case LOG10 -> "Log10";
+            case MEM -> "Mem";
+            case MID -> "Mid";
+            case RIGHT -> "Right";
+            case RND -> "Rnd";
+            case SIN -> "Sin";
+            case SQR -> "Sqr";
+            case STR -> "Str";
+            case SYSTEM -> "System";
+            case TAN -> "Tan";
+            case VAL -> "Val";
+            default -> throw new CompileErrorException("Function " + eFunction + " cannot be translated into Java");
+        };
+
+        // the function SYSTEM is called with its full name, it would hide java.lang.System
+        String strPackage = Function.class.getPackageName();
+        if (eFunction == BasicTokenType.SYSTEM) {
+            strClass = strPackage + "." + strClass;
+        } else {
+            _astrImports.add(strPackage + "." + strClass);
+        }
+
+        List<String> astrParameters = new ArrayList<>();
+        for (JavaExpression oParameter : aoParameters) {
+            astrParameters.add(strip(toValue(oParameter)._strCode));
+        }
+
+        return new JavaExpression(strClass + ".execute(" + String.join(", ", astrParameters) + ")", VALUE);
+    }
+
+    // conversions -----------------------------------------------------------------------------------------------
+
+    /**
+     * Convert the result of an expression into another kind, as the evaluate methods of the expressions do.
+     *
+     * @param oExpression the expression
+     * @param iKind the kind required
+     * @return Java code of the converted expression
+     */
+    private String convert(final JavaExpression oExpression, final int iKind) {
+        String strCode = oExpression._strCode;
+
+        if (oExpression._iKind == iKind) {
+            return strCode;
+        }
+
+        switch (iKind) {
+            case DOUBLE:
+                return switch (oExpression._iKind) {
+                    case INT -> strCode;
+                    case BOOLEAN -> "(" + strCode + " ? 1.0 : 0.0)";
+                    case STRING -> "Double.parseDouble(" + strip(strCode) + ")";
+                    default -> strCode + ".toReal()";
+                };
+
+            case INT:
+                if (oExpression._iKind == DOUBLE && isIntegralLiteral(strCode)) {
+                    return strCode.substring(0, strCode.length() - 2);
+                }
+
+                return switch (oExpression._iKind) {
+                    case DOUBLE -> "((int) " + strCode + ")";
+                    case BOOLEAN -> "(" + strCode + " ? 1 : 0)";
+                    case STRING -> "((int) Double.parseDouble(" + strip(strCode) + "))";
+                    default -> "((int) " + strCode + ".toReal())";
+                };
+
+            case STRING:
+                _astrImports.add(JavaRuntime.class.getName());
+                return switch (oExpression._iKind) {
+                    case INT -> "Integer.toString(" + strip(strCode) + ")";
+                    case DOUBLE -> "Double.toString(" + strip(strCode) + ")";
+                    case BOOLEAN -> "JavaRuntime.toString(" + strip(strCode) + ")";
+                    default -> strCode + ".toString()";
+                };
+
+            case BOOLEAN:
+                _astrImports.add(JavaRuntime.class.getName());
+                return "JavaRuntime.toBoolean(" + strip(toValue(oExpression)._strCode) + ")";
+
+            default:
+                return toValue(oExpression)._strCode;
+        }
+    }
+
+    /**
+     * Convert a value for storing it in a variable or array element, as the variable management does: numbers are
+     * truncated for integers, anything but zero is true for booleans.
+     *
+     * @param oExpression the value
+     * @param iKind kind of the variable
+     * @return Java code of the converted value
+     */
+    private String convertForStore(final JavaExpression oExpression, final int iKind) {
+        if (iKind == BOOLEAN && oExpression._iKind != BOOLEAN) {
+            return "(" + convert(oExpression, DOUBLE) + " != 0)";
+        }
+
+        return convert(oExpression, iKind);
+    }
+
+    /**
+     * Wrap the result of an expression into a value object.
+     *
+     * @param oExpression the expression
+     * @return value expression
+     */
+    private JavaExpression toValue(final JavaExpression oExpression) {
+        String strClass = switch (oExpression._iKind) {
+            case INT -> IntegerValue.class.getName();
+            case DOUBLE -> RealValue.class.getName();
+            case BOOLEAN -> BooleanValue.class.getName();
+            case STRING -> StringValue.class.getName();
+            default -> null;
+        };
+
+        if (strClass == null) {
+            return oExpression;
+        }
+
+        _astrImports.add(strClass);
+
+        return new JavaExpression("new " + strClass.substring(strClass.lastIndexOf('.') + 1) + "("
+                                          + strip(oExpression._strCode) + ")", VALUE);
+    }
+
+    /**
+     * Convert the result of an expression into a condition.
+     *
+     * @param oExpression the expression
+     * @return Java code of the condition
+     */
+    private String toBoolean(final JavaExpression oExpression) {
+        return convert(oExpression, BOOLEAN);
+    }
+
+    /**
+     * Convert the result of an expression into an array index, rounded as the array expression does.
+     *
+     * @param oExpression the expression
+     * @return Java code of the index
+     */
+    private String toIndex(final JavaExpression oExpression) {
+        if (oExpression._iKind == INT || (oExpression._iKind == DOUBLE && isIntegralLiteral(oExpression._strCode))) {
+            return convert(oExpression, INT);
+        }
+
+        return "((int) Math.round(" + strip(convert(oExpression, DOUBLE)) + "))";
+    }
+
+    /**
+     * Negate a condition.
+     *
+     * @param strCondition Java code of the condition
+     * @return Java code of the negated condition
+     */
+    private static String negate(final String strCondition) {
+        return strCondition.startsWith("(") && strip(strCondition) != strCondition ? "!" + strCondition
+                : "!(" + strCondition + ")";
+    }
+
+    /**
+     * Put a condition into parenthesis, unless it has them already.
+     *
+     * @param strCondition Java code of the condition
+     * @return Java code in parenthesis
+     */
+    private static String parenthesize(final String strCondition) {
+        return strip(strCondition) != strCondition ? strCondition : "(" + strCondition + ")";
+    }
+
+    /**
+     * Remove the parenthesis around a complete expression.
+     *
+     * @param strCode Java code of the expression
+     * @return the code without the outer parenthesis, or the same string if there are none
+     */
+    private static String strip(final String strCode) {
+        if (!strCode.startsWith("(") || !strCode.endsWith(")")) {
+            return strCode;
+        }
+
+        int iDepth = 0;
+        boolean bString = false;
+
+        for (int iPosition = 0; iPosition < strCode.length(); iPosition++) {
+            char cCharacter = strCode.charAt(iPosition);
+
+            if (bString) {
+                if (cCharacter == '\\') {
+                    iPosition++;
+                } else if (cCharacter == '"') {
+                    bString = false;
+                }
+            } else if (cCharacter == '"') {
+                bString = true;
+            } else if (cCharacter == '(') {
+                iDepth++;
+            } else if (cCharacter == ')') {
+                iDepth--;
+
+                if (iDepth == 0 && iPosition < strCode.length() - 1) {
+                    return strCode;
+                }
+            }
+        }
+
+        return strCode.substring(1, strCode.length() - 1);
+    }
+
+    /**
+     * Generate a call of a method of the Java runtime.
+     *
+     * @param strMethod name of the method
+     * @param strLeft first parameter
+     * @param strRight second parameter
+     * @return Java code of the call
+     */
+    private String runtime(final String strMethod, final String strLeft, final String strRight) {
+        _astrImports.add(JavaRuntime.class.getName());
+
+        return "JavaRuntime." + strMethod + "(" + strip(strLeft) + ", " + strip(strRight) + ")";
+    }
+
+    /**
+     * Generate the creation of the store of an array.
+     *
+     * @param iKind kind of the elements
+     * @param strDimensions name of the field describing the dimensions
+     * @return Java code creating the store
+     */
+    private static String newArray(final int iKind, final String strDimensions) {
+        if (iKind == STRING) {
+            return "JavaRuntime.strings(" + strDimensions + ")";
+        }
+
+        return "new " + JAVA_TYPES[iKind] + "[JavaRuntime.size(" + strDimensions + ")]";
+    }
+
+    /**
+     * Write a number as a Java literal.
+     *
+     * @param dValue the number
+     * @param bInteger true for an int literal
+     * @return the literal
+     */
+    private static String literal(final double dValue, final boolean bInteger) {
+        if (bInteger && dValue == Math.rint(dValue) && Math.abs(dValue) <= Integer.MAX_VALUE) {
+            return Integer.toString((int) dValue);
+        }
+
+        return Double.toString(dValue);
+    }
+
+    /**
+     * Check whether a piece of code is a real literal without fraction, e.g. "10.0".
+     *
+     * @param strCode the code
+     * @return true for such a literal
+     */
+    private static boolean isIntegralLiteral(final String strCode) {
+        return strCode.matches("-?\\d{1,9}\\.0");
+    }
+
+    /**
+     * Write a string as a Java literal.
+     *
+     * @param strText the string
+     * @return the literal
+     */
+    private static String quote(final String strText) {
+        StringBuilder strLiteral = new StringBuilder("\"");
+
+        for (char cCharacter : strText.toCharArray()) {
+            switch (cCharacter) {
+                case '"' -> strLiteral.append("\\\"");
+                case '\\' -> strLiteral.append("\\\\");
+                case '\n' -> strLiteral.append("\\n");
+                case '\r' -> strLiteral.append("\\r");
+                case '\t' -> strLiteral.append("\\t");
+                default -> {
+                    if (cCharacter < ' ') {
+                        strLiteral.append(String.format("\\u%04x", (int) cCharacter));
+                    } else {
+                        strLiteral.append(cCharacter);
+                    }
+                }
+            }
+        }
+
+        return strLiteral.append('"').toString();
+    }
+
+    // names -----------------------------------------------------------------------------------------------------
+
+    /**
+     * Get the kind of the value of a BASIC type.
+     *
+     * @param eType the type
+     * @return the kind
+     */
+    private static int getKind(final VariableType eType) {
+        return switch (eType) {
+            case INTEGER, LONG -> INT;
+            case REAL, DOUBLE -> DOUBLE;
+            case BOOLEAN -> BOOLEAN;
+            case STRING -> STRING;
+            default -> VALUE;
+        };
+    }
+
+    /**
+     * Get the BASIC type of the result of a kind.
+     *
+     * @param iKind the kind
+     * @return the type
+     */
+    private static VariableType getType(final int iKind) {
+        return switch (iKind) {
+            case INT -> VariableType.INTEGER;
+            case DOUBLE -> VariableType.REAL;
+            case BOOLEAN -> VariableType.BOOLEAN;
+            case STRING -> VariableType.STRING;
+            default -> VariableType.UNDEFINED;
+        };
+    }
+
+    /**
+     * Get the type of a variable or array from the suffix of its name.
+     *
+     * @param strName the name
+     * @return the type, UNDEFINED for untyped names
+     */
+    private static VariableType getVariableType(final String strName) {
+        if (strName.contains("$")) {
+            return VariableType.STRING;
+        } else if (strName.contains("%")) {
+            return VariableType.INTEGER;
+        } else if (strName.contains("&")) {
+            return VariableType.LONG;
+        } else if (strName.contains("#")) {
+            return VariableType.REAL;
+        } else if (strName.contains("!")) {
+            return VariableType.DOUBLE;
+        } else if (strName.contains("@")) {
+            return VariableType.BOOLEAN;
+        }
+
+        return VariableType.UNDEFINED;
+    }
+
+    /**
+     * Get the name of the variable of an assignment target.
+     *
+     * @param oTarget the target
+     * @return name of the variable or array
+     */
+    private static String getName(final AssignableExpression oTarget) {
+        if (oTarget instanceof VariableExpression oVariable) {
+            return oVariable.getName();
+        }
+
+        return ((ArrayExpression) oTarget).getName();
+    }
+
+    /**
+     * Get the key of an array: its name and the number of dimensions, as the variable management does.
+     *
+     * @param strName name of the array
+     * @param iDimensions number of dimensions
+     * @return key of the array
+     */
+    private static String getArrayKey(final String strName, final int iDimensions) {
+        return strName + "(" + iDimensions + ")";
+    }
+
+    /**
+     * Derive a unique Java field name from a BASIC name.
+     *
+     * @param strPrefix prefix of the kind of field
+     * @param strName BASIC name
+     * @return the field name
+     */
+    private String getFieldName(final String strPrefix, final String strName) {
+        String strBase = strName;
+
+        for (String strSuffix : SUFFIXES) {
+            strBase = strBase.replace(strSuffix, "");
+        }
+
+        StringBuilder strField = new StringBuilder(strPrefix);
+        for (char cCharacter : strBase.toCharArray()) {
+            strField.append(Character.isJavaIdentifierPart(cCharacter) ? cCharacter : '_');
+        }
+
+        String strUnique = strField.toString();
+        for (int iCounter = 2; !_astrFieldNames.add(strUnique); iCounter++) {
+            strUnique = strField + "_" + iCounter;
+        }
+
+        return strUnique;
+    }
+
+    /**
+     * Get the line number of a statement.
+     *
+     * @param iStatement number of the statement
+     * @return BASIC line number
+     */
+    private int getLineNumber(final int iStatement) {
+        return _oLineNumbers != null ? _oLineNumbers.getLineNumberFromStatement(iStatement) : iStatement;
+    }
+
+    /**
+     * Get a label for a statement: its line number, followed by the position in the line if it is not the first
+     * statement of the line.
+     *
+     * @param iStatement number of the statement
+     * @return the label
+     */
+    private String getLabel(final int iStatement) {
+        int iLine = getLineNumber(iStatement);
+        int iFirst = _oLineNumbers != null ? _oLineNumbers.getStatementFromLineNumber(iLine) : iStatement;
+
+        return iFirst < 0 || iFirst == iStatement ? Integer.toString(iLine) : iLine + "_" + (iStatement - iFirst);
+    }
+
+    /**
+     * Get the name of the method of a subroutine.
+     *
+     * @param iStatement number of the first statement of the subroutine
+     * @return name of the method
+     */
+    private String getMethodName(final int iStatement) {
+        return "gosub" + getLabel(iStatement);
+    }
+
+    /**
+     * Append a line of code.
+     *
+     * @param iLevel indentation level
+     * @param strLine the code
+     */
+    private void line(final int iLevel, final String strLine) {
+        if (!strLine.isEmpty()) {
+            _oCode.append(INDENT.repeat(iLevel)).append(strLine);
+        }
+
+        _oCode.append('\n');
+    }
 }
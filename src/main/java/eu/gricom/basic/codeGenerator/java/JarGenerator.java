@@ -0,0 +1,203 @@
+package eu.gricom.basic.codeGenerator.java;
+
+import eu.gricom.basic.error.CompileErrorException;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+/**
+ * JarGenerator.java
+ * <p>
+ * Description:
+ * <p>
+ * The jar generator compiles the Java source code generated from a BASIC program with the Java compiler of the
+ * running JDK, and packs the classes into an executable jar file. The generated classes need the GD-BASIC classes at
+ * runtime: if they are loaded from a jar file, the manifest refers to it; if they are loaded from a directory of
+ * classes, e.g. target/classes of a Maven build, the classes are copied into the generated jar file.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class JarGenerator {
+
+    private JarGenerator() {
+    }
+
+    /**
+     * Compile the source code of a class and store it in a jar file.
+     *
+     * @param strClassName name of the class
+     * @param strSource Java source code of the class
+     * @param oJarFile the jar file to be created
+     * @throws CompileErrorException if there is no Java compiler, or the source cannot be compiled
+     */
+    public static void createJar(final String strClassName, final String strSource, final File oJarFile)
+            throws CompileErrorException {
+        JavaCompiler oCompiler = ToolProvider.getSystemJavaCompiler();
+
+        if (oCompiler == null) {
+            throw new CompileErrorException("No Java compiler available: a JDK is needed to create a jar file");
+        }
+
+        Path oClassDirectory = null;
+
+        try {
+            oClassDirectory = Files.createTempDirectory("gd-basic");
+
+            DiagnosticCollector<JavaFileObject> oDiagnostics = new DiagnosticCollector<>();
+            StandardJavaFileManager oFileManager = oCompiler.getStandardFileManager(oDiagnostics, null,
+                                                                                    StandardCharsets.UTF_8);
+            oFileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(oClassDirectory.toFile()));
+
+            JavaFileObject oSourceFile = new SimpleJavaFileObject(URI.create("string:///" + strClassName
+                                                                                     + JavaFileObject.Kind.SOURCE
+                    .extension), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(final boolean bIgnoreEncodingErrors) {
+                    return strSource;
+                }
+            };
+
+            boolean bSuccess = oCompiler.getTask(null, oFileManager, oDiagnostics,
+                                                 List.of("-classpath", System.getProperty("java.class.path")),
+                                                 null, List.of(oSourceFile)).call();
+            oFileManager.close();
+
+            if (!bSuccess) {
+                StringBuilder strMessage = new StringBuilder("Generated Java code cannot be compiled:");
+
+                for (Diagnostic<? extends JavaFileObject> oDiagnostic : oDiagnostics.getDiagnostics()) {
+                    if (oDiagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                        strMessage.append(System.lineSeparator()).append("line ")
+                                .append(oDiagnostic.getLineNumber()).append(": ")
+                                .append(oDiagnostic.getMessage(null));
+                    }
+                }
+
+                throw new CompileErrorException(strMessage.toString());
+            }
+
+            writeJar(strClassName, oClassDirectory, getRuntime(), oJarFile);
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot create jar file " + oJarFile + ": " + eException.getMessage());
+        } finally {
+            deleteDirectory(oClassDirectory);
+        }
+    }
+
+    /**
+     * Pack the compiled classes into a jar file, together with the GD-BASIC classes, or a reference to them.
+     *
+     * @param strClassName name of the main class
+     * @param oClassDirectory directory holding the compiled classes
+     * @param oRuntime jar file or directory holding the GD-BASIC classes
+     * @param oJarFile the jar file to be created
+     * @throws IOException if the jar file cannot be written
+     */
+    private static void writeJar(final String strClassName, final Path oClassDirectory, final Path oRuntime,
+                                 final File oJarFile) throws IOException {
+        Manifest oManifest = new Manifest();
+        Attributes oAttributes = oManifest.getMainAttributes();
+        oAttributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        oAttributes.put(Attributes.Name.MAIN_CLASS, strClassName);
+
+        boolean bBundle = Files.isDirectory(oRuntime);
+        if (!bBundle) {
+            Path oDirectory = oJarFile.getAbsoluteFile().toPath().getParent();
+            oAttributes.put(Attributes.Name.CLASS_PATH,
+                            oDirectory.relativize(oRuntime).toString().replace(File.separatorChar, '/'));
+        }
+
+        try (JarOutputStream oJar = new JarOutputStream(Files.newOutputStream(oJarFile.toPath()), oManifest)) {
+            addClasses(oJar, oClassDirectory);
+
+            if (bBundle) {
+                addClasses(oJar, oRuntime);
+            }
+        }
+    }
+
+    /**
+     * Add the class files of a directory and its sub-directories to a jar file.
+     *
+     * @param oJar the jar file
+     * @param oDirectory root directory of the classes
+     * @throws IOException if a class file cannot be read or written
+     */
+    private static void addClasses(final JarOutputStream oJar, final Path oDirectory) throws IOException {
+        try (Stream<Path> aoFiles = Files.walk(oDirectory)) {
+            for (Path oClassFile : aoFiles.filter(oFile -> oFile.toString().endsWith(".class")).sorted().toList()) {
+                String strName = oDirectory.relativize(oClassFile).toString().replace(File.separatorChar, '/');
+
+                oJar.putNextEntry(new JarEntry(strName));
+                Files.copy(oClassFile, (OutputStream) oJar);
+                oJar.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Get the jar file or the directory holding the GD-BASIC classes, which are needed to run the generated classes.
+     *
+     * @return path of the jar file or the directory
+     * @throws CompileErrorException if the location of the GD-BASIC classes is not known
+     */
+    private static Path getRuntime() throws CompileErrorException {
+        CodeSource oCodeSource = JavaRuntime.class.getProtectionDomain().getCodeSource();
+
+        try {
+            if (oCodeSource != null && oCodeSource.getLocation() != null) {
+                Path oRuntime = Path.of(oCodeSource.getLocation().toURI());
+
+                if (Files.isDirectory(oRuntime) || oRuntime.toString().endsWith(".jar")) {
+                    return oRuntime;
+                }
+            }
+        } catch (URISyntaxException | IllegalArgumentException eException) {
+            // reported below
+        }
+
+        throw new CompileErrorException("Cannot create an executable jar file: the GD-BASIC classes are not loaded "
+                                                + "from a jar file or a directory");
+    }
+
+    /**
+     * Delete a temporary directory and its content.
+     *
+     * @param oDirectory the directory, may be null
+     */
+    private static void deleteDirectory(final Path oDirectory) {
+        if (oDirectory == null) {
+            return;
+        }
+
+        try (Stream<Path> aoFiles = Files.walk(oDirectory)) {
+            for (Path oFile : aoFiles.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(oFile);
+            }
+        } catch (IOException eException) {
+            // the directory is in the temporary directory of the system, it is cleaned up from there
+        }
+    }
+}
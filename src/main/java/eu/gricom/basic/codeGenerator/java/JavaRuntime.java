@@ -0,0 +1,369 @@
+package eu.gricom.basic.codeGenerator.java;
+
+import eu.gricom.basic.error.DivideByZeroException;
+import eu.gricom.basic.error.OutOfDataException;
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.statements.ForStatement;
+import eu.gricom.basic.statements.UnaryOperatorExpression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+
+/**
+ * JavaRuntime.java
+ * <p>
+ * Description:
+ * <p>
+ * The Java runtime contains the helper methods called by the Java programs generated from BASIC programs: the
+ * operations that need an error check, the conversion of conditions, the input, the access to the DATA values, and
+ * the index calculation of arrays. An array is stored as a flat Java array; its dimensions are described by an int
+ * array holding the lowest index, then the highest index and the stride of every dimension, and finally the number
+ * of elements.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class JavaRuntime {
+    private static final BufferedReader INPUT = new BufferedReader(new InputStreamReader(System.in));
+
+    private JavaRuntime() {
+    }
+
+    /**
+     * Divide two real numbers.
+     *
+     * @param dLeft dividend
+     * @param dRight divisor
+     * @return quotient
+     * @throws DivideByZeroException if the divisor is zero
+     */
+    public static double divide(final double dLeft, final double dRight) throws DivideByZeroException {
+        if (dRight == 0) {
+            throw new DivideByZeroException(dLeft + "/" + dRight + " is a division by zero");
+        }
+
+        return dLeft / dRight;
+    }
+
+    /**
+     * Divide two integers.
+     *
+     * @param iLeft dividend
+     * @param iRight divisor
+     * @return quotient
+     * @throws DivideByZeroException if the divisor is zero
+     */
+    public static int divide(final int iLeft, final int iRight) throws DivideByZeroException {
+        if (iRight == 0) {
+            throw new DivideByZeroException(iLeft + "/" + iRight + " is a division by zero");
+        }
+
+        return iLeft / iRight;
+    }
+
+    /**
+     * Calculate the remainder of the division of two real numbers.
+     *
+     * @param dLeft dividend
+     * @param dRight divisor
+     * @return remainder
+     * @throws DivideByZeroException if the divisor is zero
+     */
+    public static double modulo(final double dLeft, final double dRight) throws DivideByZeroException {
+        if (dRight == 0) {
+            throw new DivideByZeroException(dLeft + "%" + dRight + " is a division by zero");
+        }
+
+        return dLeft % dRight;
+    }
+
+    /**
+     * Calculate the remainder of the division of two integers.
+     *
+     * @param iLeft dividend
+     * @param iRight divisor
+     * @return remainder
+     * @throws DivideByZeroException if the divisor is zero
+     */
+    public static int modulo(final int iLeft, final int iRight) throws DivideByZeroException {
+        if (iRight == 0) {
+            throw new DivideByZeroException(iLeft + "%" + iRight + " is a division by zero");
+        }
+
+        return iLeft % iRight;
+    }
+
+    /**
+     * Shift an integer to the right, as the interpreter does.
+     *
+     * @param iLeft value to be shifted
+     * @param iRight shift width
+     * @return result of the shift
+     * @throws DivideByZeroException if the shift width is zero
+     */
+    public static int shiftRight(final int iLeft, final int iRight) throws DivideByZeroException {
+        if (iRight == 0) {
+            throw new DivideByZeroException(iLeft + ">>" + iRight + " is a division by zero");
+        }
+
+        return iLeft / (2 * iRight);
+    }
+
+    /**
+     * Add the step size to the variable of a real FOR loop. The numbers are added as decimals, as in the
+     * interpreter, so that e.g. a step size of 0.1 does not add up rounding errors.
+     *
+     * @param dValue value of the loop variable
+     * @param dStep step size
+     * @return the next value of the loop variable
+     */
+    public static double step(final double dValue, final double dStep) {
+        return ForStatement.add(dValue, dStep);
+    }
+
+    /**
+     * Use a value as a condition.
+     *
+     * @param oValue the value
+     * @return the content of the boolean value
+     * @throws RuntimeException if the value is not a boolean
+     */
+    public static boolean toBoolean(final Value oValue) throws RuntimeException {
+        if (oValue instanceof BooleanValue) {
+            return ((BooleanValue) oValue).isTrue();
+        }
+
+        throw new RuntimeException("Condition <" + oValue + "> is not of type boolean");
+    }
+
+    /**
+     * Print a boolean as BASIC does.
+     *
+     * @param bValue the boolean
+     * @return "True" or "False"
+     */
+    public static String toString(final boolean bValue) {
+        return BooleanValue.valueOf(bValue).toString();
+    }
+
+    /**
+     * Get a sub-string, as A$[I, J] does in the interpreter.
+     *
+     * @param strValue the string
+     * @param iStart position of the first character, starting with 0
+     * @param iEnd position of the last character
+     * @return the sub-string
+     * @throws RuntimeException if a position is outside of the string
+     */
+    public static String subString(final String strValue, final int iStart, final int iEnd) throws RuntimeException {
+        return new StringValue(strValue).slice(iStart, iEnd).toString();
+    }
+
+    /**
+     * Get a single character, as A$[I] does in the interpreter.
+     *
+     * @param strValue the string
+     * @param iPosition position of the character, starting with 0
+     * @return the character as a string
+     * @throws RuntimeException if the position is outside of the string
+     */
+    public static String subString(final String strValue, final int iPosition) throws RuntimeException {
+        return subString(strValue, iPosition, iPosition);
+    }
+
+    /**
+     * Apply a unary operator to a value of a type only known at runtime.
+     *
+     * @param eOperator the operator: PLUS, MINUS, or NOT
+     * @param oValue the operand
+     * @return result of the operation
+     * @throws Exception if the operator cannot be applied to the value
+     */
+    public static Value unary(final BasicTokenType eOperator, final Value oValue) throws Exception {
+        return new UnaryOperatorExpression(eOperator, oValue).evaluate();
+    }
+
+    /**
+     * Read a line from the terminal. The input is a real value if it is a number, otherwise a string.
+     *
+     * @return the input
+     * @throws RuntimeException if no input can be read
+     */
+    public static Value input() throws RuntimeException {
+        String strInput;
+
+        try {
+            strInput = INPUT.readLine();
+        } catch (IOException eException) {
+            throw new RuntimeException("Incorrect input detected: " + eException.getMessage());
+        }
+
+        if (strInput == null) {
+            throw new RuntimeException("Incorrect input detected: end of input");
+        }
+
+        try {
+            return new RealValue(Double.parseDouble(strInput));
+        } catch (NumberFormatException eException) {
+            return new StringValue(strInput);
+        }
+    }
+
+    /**
+     * Get a value of the DATA statements.
+     *
+     * @param aoData the values of all DATA statements of the program
+     * @param iPosition position of the value to be read
+     * @return the value
+     * @throws OutOfDataException if all values have been read
+     */
+    public static Value read(final Value[] aoData, final int iPosition) throws OutOfDataException {
+        if (iPosition >= aoData.length) {
+            throw new OutOfDataException("Out of data: all " + aoData.length + " DATA values have been read");
+        }
+
+        return aoData[iPosition];
+    }
+
+    /**
+     * Describe the dimensions of an array.
+     *
+     * @param aiDimensions current description of the array, null if the array is not dimensioned yet
+     * @param strName name of the array
+     * @param iBase lowest index of every dimension
+     * @param aiUpperBounds highest index of every dimension
+     * @return description of the array
+     * @throws RuntimeException if the array is already dimensioned or the bounds are not valid
+     */
+    public static int[] dim(final int[] aiDimensions, final String strName, final int iBase,
+                            final int... aiUpperBounds) throws RuntimeException {
+        if (aiDimensions != null) {
+            throw new RuntimeException("Array already dimensioned: " + strName);
+        }
+
+        int[] aiDescription = new int[aiUpperBounds.length * 2 + 2];
+        aiDescription[0] = iBase;
+
+        // the last index runs fastest: the stride of a dimension is the size of all following dimensions
+        long lSize = 1;
+        for (int iDimension = aiUpperBounds.length - 1; iDimension >= 0; iDimension--) {
+            if (aiUpperBounds[iDimension] < iBase) {
+                throw new RuntimeException("Array dimension of " + strName + " smaller than " + iBase + ": "
+                                                   + aiUpperBounds[iDimension]);
+            }
+
+            aiDescription[iDimension * 2 + 1] = aiUpperBounds[iDimension];
+            aiDescription[iDimension * 2 + 2] = (int) lSize;
+            lSize *= aiUpperBounds[iDimension] - iBase + 1;
+
+            if (lSize > Integer.MAX_VALUE) {
+                throw new RuntimeException("Array " + strName + " too large");
+            }
+        }
+
+        aiDescription[aiDescription.length - 1] = (int) lSize;
+
+        return aiDescription;
+    }
+
+    /**
+     * Get the number of elements of an array.
+     *
+     * @param aiDimensions description of the array
+     * @return number of elements
+     */
+    public static int size(final int[] aiDimensions) {
+        return aiDimensions[aiDimensions.length - 1];
+    }
+
+    /**
+     * Create the store of a string array, filled with empty strings.
+     *
+     * @param aiDimensions description of the array
+     * @return the store
+     */
+    public static String[] strings(final int[] aiDimensions) {
+        String[] astrStore = new String[size(aiDimensions)];
+        Arrays.fill(astrStore, "");
+
+        return astrStore;
+    }
+
+    /**
+     * Calculate the position of an element of a one-dimensional array.
+     *
+     * @param aiDimensions description of the array
+     * @param strName name of the array
+     * @param iIndex index of the element
+     * @return position of the element in the store of the array
+     * @throws RuntimeException if the index is out of bounds
+     */
+    public static int index(final int[] aiDimensions, final String strName, final int iIndex)
+            throws RuntimeException {
+        return offset(aiDimensions, strName, 0, iIndex);
+    }
+
+    /**
+     * Calculate the position of an element of a two-dimensional array.
+     *
+     * @param aiDimensions description of the array
+     * @param strName name of the array
+     * @param iFirst first index of the element
+     * @param iSecond second index of the element
+     * @return position of the element in the store of the array
+     * @throws RuntimeException if an index is out of bounds
+     */
+    public static int index(final int[] aiDimensions, final String strName, final int iFirst, final int iSecond)
+            throws RuntimeException {
+        return offset(aiDimensions, strName, 0, iFirst) + offset(aiDimensions, strName, 1, iSecond);
+    }
+
+    /**
+     * Calculate the position of an element of an array with any number of dimensions.
+     *
+     * @param aiDimensions description of the array
+     * @param strName name of the array
+     * @param aiIndices indices of the element
+     * @return position of the element in the store of the array
+     * @throws RuntimeException if an index is out of bounds
+     */
+    public static int index(final int[] aiDimensions, final String strName, final int... aiIndices)
+            throws RuntimeException {
+        int iPosition = 0;
+
+        for (int iDimension = 0; iDimension < aiIndices.length; iDimension++) {
+            iPosition += offset(aiDimensions, strName, iDimension, aiIndices[iDimension]);
+        }
+
+        return iPosition;
+    }
+
+    /**
+     * Calculate the offset of an index in one dimension of an array.
+     *
+     * @param aiDimensions description of the array
+     * @param strName name of the array
+     * @param iDimension the dimension
+     * @param iIndex the index
+     * @return offset of the index
+     * @throws RuntimeException if the index is out of bounds
+     */
+    private static int offset(final int[] aiDimensions, final String strName, final int iDimension,
+                              final int iIndex) throws RuntimeException {
+        int iBase = aiDimensions[0];
+        int iUpperBound = aiDimensions[iDimension * 2 + 1];
+
+        if (iIndex < iBase || iIndex > iUpperBound) {
+            throw new RuntimeException("Index " + iIndex + " out of bounds of array " + strName + " (dimension "
+                                               + (iDimension + 1) + ": " + iBase + " to " + iUpperBound + ")");
+        }
+
+        return (iIndex - iBase) * aiDimensions[iDimension * 2 + 2];
+    }
+}
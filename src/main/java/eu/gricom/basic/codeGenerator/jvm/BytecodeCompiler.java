@@ -0,0 +1,1066 @@
+package eu.gricom.basic.codeGenerator.jvm;
+
+import eu.gricom.basic.error.CompileErrorException;
+import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.memoryManager.VariableManagement;
+import eu.gricom.basic.optimizer.BinaryOperation;
+import eu.gricom.basic.optimizer.Comparison;
+import eu.gricom.basic.optimizer.IntEqual;
+import eu.gricom.basic.optimizer.IntGreaterEqual;
+import eu.gricom.basic.optimizer.IntGreaterThan;
+import eu.gricom.basic.optimizer.IntLessEqual;
+import eu.gricom.basic.optimizer.IntLessThan;
+import eu.gricom.basic.optimizer.IntNotEqual;
+import eu.gricom.basic.optimizer.IntOperation;
+import eu.gricom.basic.optimizer.RealGuard;
+import eu.gricom.basic.optimizer.RealOperation;
+import eu.gricom.basic.optimizer.SpeculativeExpression;
+import eu.gricom.basic.statements.AssignStatement;
+import eu.gricom.basic.statements.AssignableExpression;
+import eu.gricom.basic.statements.ColonStatement;
+import eu.gricom.basic.statements.ElseStatement;
+import eu.gricom.basic.statements.EndStatement;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.ForStatement;
+import eu.gricom.basic.statements.GosubStatement;
+import eu.gricom.basic.statements.GotoStatement;
+import eu.gricom.basic.statements.IfThenStatement;
+import eu.gricom.basic.statements.LabelStatement;
+import eu.gricom.basic.statements.NextStatement;
+import eu.gricom.basic.statements.PragmaStatement;
+import eu.gricom.basic.statements.RemStatement;
+import eu.gricom.basic.statements.ReturnStatement;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.statements.VariableExpression;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.VariableType;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.AALOAD;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.ALOAD;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.ASTORE;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.CHECKCAST;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.D2I;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.DADD;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.DCMPG;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.DCMPL;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.DLOAD;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.DMUL;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.DSTORE;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.DSUB;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.GETFIELD;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.I2D;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IADD;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.ICONST_0;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.ICONST_1;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IFEQ;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IFGE;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IFGT;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IFLE;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IFLT;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IFNE;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IF_ICMPEQ;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IF_ICMPGE;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IF_ICMPGT;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IF_ICMPLE;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IF_ICMPLT;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IF_ICMPNE;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.ILOAD;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.IMUL;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.INVOKEINTERFACE;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.INVOKESPECIAL;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.INVOKESTATIC;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.INVOKEVIRTUAL;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.ISTORE;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.ISUB;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.POP;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.POP2;
+import static eu.gricom.basic.codeGenerator.jvm.CodeBuffer.PUTFIELD;
+
+/**
+ * BytecodeCompiler.java
+ * <p>
+ * Description:
+ * <p>
+ * The bytecode compiler translates a linked and specialized program into a JVM class with a single method run().
+ * Every statement becomes a block of byte code, starting with a label; the blocks follow each other in the order of
+ * the program, so that the program flows from one statement into the next. Jumps with a target known at compile time
+ * (GOTO, GOSUB, IF ... THEN, NEXT) jump directly to the label of the target. Jumps with a target known only at runtime
+ * (RETURN, ELSE, and all statements executed by their statement object) store the statement number in a local
+ * variable and continue with a table switch over all statements.
+ * <p>
+ * The assignments and conditions built of the specialized operations of the optimizer are translated into primitive
+ * JVM arithmetic. Variables of the types integer and real used in these expressions are held in local variables of
+ * the method; every assignment is written through to the variable management, and the local variables are reloaded
+ * after a statement has been executed by its statement object. Speculative expressions check the type of their
+ * untyped variables inline and fall back to the generic expression when a check fails, just as in the interpreter.
+ * All other statements and expressions are executed by calling their objects.
+ * <p>
+ * The line number table of the method maps every statement to its BASIC source line, so the stack trace of a
+ * runtime error shows the line of the BASIC program.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class BytecodeCompiler {
+    private static final String PACKAGE = "eu/gricom/basic/compiled/";
+    private static final String OBJECT = "java/lang/Object";
+    private static final String COMPILED_PROGRAM = "eu/gricom/basic/codeGenerator/jvm/CompiledProgram";
+    private static final String RUNTIME = "eu/gricom/basic/codeGenerator/jvm/JvmRuntime";
+    private static final String STATEMENT = "eu/gricom/basic/statements/Statement";
+    private static final String EXPRESSION = "eu/gricom/basic/statements/Expression";
+    private static final String ASSIGNABLE = "eu/gricom/basic/statements/AssignableExpression";
+    private static final String SPECULATIVE = "eu/gricom/basic/optimizer/SpeculativeExpression";
+    private static final String VARIABLES = "eu/gricom/basic/memoryManager/VariableManagement";
+    private static final String CONTROL_STACK = "eu/gricom/basic/memoryManager/ControlStack";
+    private static final String VALUE = "eu/gricom/basic/variableTypes/Value";
+
+    private static final String STATEMENTS_TYPE = "[L" + STATEMENT + ";";
+    private static final String EXPRESSIONS_TYPE = "[L" + EXPRESSION + ";";
+    private static final String VARIABLES_TYPE = "L" + VARIABLES + ";";
+    private static final String CONTROL_STACK_TYPE = "L" + CONTROL_STACK + ";";
+    private static final String CONSTRUCTOR_TYPE = "(" + STATEMENTS_TYPE + EXPRESSIONS_TYPE + VARIABLES_TYPE
+            + CONTROL_STACK_TYPE + ")V";
+
+    // local variables of the method run()
+    private static final int THIS = 0;
+    private static final int STATEMENT_NUMBER = 1;
+    private static final int STATEMENTS = 2;
+    private static final int EXPRESSIONS = 3;
+    private static final int VARIABLE_MANAGEMENT = 4;
+    private static final int CONTROL = 5;
+    private static final int FIRST_FREE_LOCAL = 6;
+
+    // kinds of results of an expression
+    private static final int DOUBLE = 0;
+    private static final int INT = 1;
+    private static final int BOOLEAN = 2;
+
+    private final Logger _oLogger = new Logger(this.getClass().getName());
+    private final VariableManagement _oVariableManagement = new VariableManagement();
+    private final List<Statement> _aoStatements;
+    private final LineNumberXRef _oLineNumbers;
+    private final String _strSourceFile;
+    private final String _strClassName;
+    private final boolean _bTrace;
+
+    private ClassFileWriter _oClassFile;
+    private CodeBuffer _oCode;
+    private final List<Expression> _aoExpressions = new ArrayList<>();
+    private final Map<Expression, Integer> _aoExpressionIndex = new IdentityHashMap<>();
+    private int[] _aiStatementLabels;
+    private int _iEndLabel;
+    private int _iDispatchLabel;
+
+    // local variables holding the integer and real variables: slots, value locals, and "defined" flag locals
+    private final List<Integer> _aiLocalSlots = new ArrayList<>();
+    private int[] _aiValueLocals = new int[0];
+    private int[] _aiDefinedLocals = new int[0];
+
+    // open speculative expression: stack depth at its start, sizes of the values on the stack, and the fallback
+    private int _iRegionBase = -1;
+    private int _iRegionSpeculation = -1;
+    private int _iRegionFallback = -1;
+    private int[] _aiPending = new int[16];
+    private int _iPending = 0;
+    private int _iRegionPending = 0;
+
+    private int _iNativeStatements = 0;
+
+    /**
+     * Default constructor.
+     *
+     * @param oProgram the linked and specialized program
+     */
+    public BytecodeCompiler(final Program oProgram) {
+        _aoStatements = oProgram.getStatements() != null ? oProgram.getStatements() : new ArrayList<>();
+        _oLineNumbers = oProgram.getLineNumbers();
+
+        String strProgramName = oProgram.getProgramName() != null ? oProgram.getProgramName() : "";
+        _strSourceFile = strProgramName.substring(strProgramName.lastIndexOf('/') + 1);
+        _strClassName = PACKAGE + getClassName(_strSourceFile);
+
+        // the trace calls are only compiled into programs which can switch on tracing
+        boolean bTrace = false;
+
+        for (List<Statement> aoStatements : Arrays.asList(oProgram.getPreRunStatements(), _aoStatements)) {
+            if (aoStatements != null) {
+                bTrace |= aoStatements.stream().anyMatch(oStatement -> oStatement instanceof PragmaStatement);
+            }
+        }
+
+        _bTrace = bTrace;
+    }
+
+    /**
+     * Derive a valid Java class name from the name of the program file.
+     *
+     * @param strFileName name of the program file
+     * @return class name
+     */
+    public static String getClassName(final String strFileName) {
+        int iExtension = strFileName.indexOf('.');
+        String strName = iExtension >= 0 ? strFileName.substring(0, iExtension) : strFileName;
+        StringBuilder strClassName = new StringBuilder();
+
+        for (char cCharacter : strName.toCharArray()) {
+            strClassName.append(Character.isJavaIdentifierPart(cCharacter) ? cCharacter : '_');
+        }
+
+        if (strClassName.isEmpty() || !Character.isJavaIdentifierStart(strClassName.charAt(0))) {
+            strClassName.insert(0, "PROGRAM_");
+        }
+
+        return strClassName.toString();
+    }
+
+    /**
+     * Compile the program and load the class.
+     *
+     * @return the compiled program, ready to run
+     * @throws CompileErrorException if the program cannot be compiled
+     */
+    public CompiledProgram compile() throws CompileErrorException {
+        byte[] abClassFile = generate();
+        String strClassName = _strClassName.replace('/', '.');
+
+        try {
+            Class<?> oClass = new ProgramClassLoader().define(strClassName, abClassFile);
+
+            return (CompiledProgram) oClass.getConstructor(Statement[].class, Expression[].class,
+                                                            VariableManagement.class, ControlStack.class)
+                    .newInstance(_aoStatements.toArray(new Statement[0]), _aoExpressions.toArray(new Expression[0]),
+                                 _oVariableManagement, new ControlStack());
+        } catch (LinkageError | ReflectiveOperationException eException) {
+            Throwable oCause = eException instanceof InvocationTargetException ? eException.getCause() : eException;
+            throw new CompileErrorException("Cannot load compiled program " + strClassName + ": " + oCause);
+        }
+    }
+
+    /**
+     * Generate the class file of the program.
+     *
+     * @return content of the class file
+     * @throws CompileErrorException if the program cannot be compiled
+     */
+    public byte[] generate() throws CompileErrorException {
+        _oClassFile = new ClassFileWriter(_strClassName, OBJECT, COMPILED_PROGRAM);
+        _oClassFile.setSourceFile(_strSourceFile);
+        _oClassFile.addField(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, "statements", STATEMENTS_TYPE);
+        _oClassFile.addField(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, "expressions",
+                             EXPRESSIONS_TYPE);
+        _oClassFile.addField(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, "variables", VARIABLES_TYPE);
+        _oClassFile.addField(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, "control", CONTROL_STACK_TYPE);
+
+        generateConstructor();
+        generateRun();
+
+        _oLogger.info("Compiled " + _aoStatements.size() + " statements into class " + _strClassName + ": "
+                              + _iNativeStatements + " in byte code, " + _aiLocalSlots.size() + " local variables");
+
+        return _oClassFile.toByteArray();
+    }
+
+    private void generateConstructor() throws CompileErrorException {
+        CodeBuffer oCode = new CodeBuffer(_oClassFile, 5);
+        String[][] astrFields = {{"statements", STATEMENTS_TYPE}, {"expressions", EXPRESSIONS_TYPE},
+                                 {"variables", VARIABLES_TYPE}, {"control", CONTROL_STACK_TYPE}};
+
+        oCode.local(ALOAD, THIS);
+        oCode.invoke(INVOKESPECIAL, OBJECT, "<init>", "()V");
+
+        for (int iField = 0; iField < astrFields.length; iField++) {
+            oCode.local(ALOAD, THIS);
+            oCode.local(ALOAD, iField + 1);
+            oCode.field(PUTFIELD, _strClassName, astrFields[iField][0], astrFields[iField][1]);
+        }
+
+        oCode.returnVoid();
+        _oClassFile.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", CONSTRUCTOR_TYPE, oCode);
+    }
+
+    private void generateRun() throws CompileErrorException {
+        _oCode = new CodeBuffer(_oClassFile, FIRST_FREE_LOCAL);
+        _aiStatementLabels = new int[_aoStatements.size()];
+
+        for (int iStatement = 0; iStatement < _aiStatementLabels.length; iStatement++) {
+            _aiStatementLabels[iStatement] = _oCode.newLabel();
+        }
+
+        _iEndLabel = _oCode.newLabel();
+        _iDispatchLabel = _oCode.newLabel();
+
+        allocateLocals();
+
+        // load the fields and the variables into local variables
+        String[][] astrFields = {{"statements", STATEMENTS_TYPE}, {"expressions", EXPRESSIONS_TYPE},
+                                 {"variables", VARIABLES_TYPE}, {"control", CONTROL_STACK_TYPE}};
+
+        for (int iField = 0; iField < astrFields.length; iField++) {
+            _oCode.local(ALOAD, THIS);
+            _oCode.field(GETFIELD, _strClassName, astrFields[iField][0], astrFields[iField][1]);
+            _oCode.local(ASTORE, STATEMENTS + iField);
+        }
+
+        reloadLocals();
+
+        for (int iStatement = 0; iStatement < _aoStatements.size(); iStatement++) {
+            _oCode.bind(_aiStatementLabels[iStatement]);
+
+            if (_oLineNumbers != null) {
+                int iLineNumber = _oLineNumbers.getLineNumberFromStatement(iStatement);
+
+                _oCode.lineNumber(iLineNumber);
+
+                if (_bTrace) {
+                    _oCode.intConstant(iLineNumber);
+                    _oCode.invoke(INVOKESTATIC, RUNTIME, "trace", "(I)V");
+                }
+            }
+
+            compileStatement(_aoStatements.get(iStatement), iStatement);
+        }
+
+        _oCode.bind(_iEndLabel);
+        _oCode.returnVoid();
+
+        // continue with the statement number in the local variable
+        _oCode.bind(_iDispatchLabel);
+
+        if (_aiStatementLabels.length > 0) {
+            _oCode.local(ILOAD, STATEMENT_NUMBER);
+            _oCode.tableSwitch(_aiStatementLabels, _iEndLabel);
+        } else {
+            _oCode.returnVoid();
+        }
+
+        _oClassFile.addMethod(ClassFileWriter.ACC_PUBLIC, "run", "()V", _oCode);
+    }
+
+    // -- local variables ----------------------------------------------------------------------------------------------
+
+    /**
+     * Find the integer and real variables used by the statements translated into byte code, and allocate a local
+     * variable for the value and one for the "defined" flag of each.
+     */
+    private void allocateLocals() {
+        for (Statement oStatement : _aoStatements) {
+            if (oStatement instanceof AssignStatement oAssignment) {
+                if (oAssignment.getTarget() instanceof VariableExpression oVariable) {
+                    collectVariable(oVariable);
+                }
+
+                collectVariables(oAssignment.getExpression());
+            } else if (oStatement instanceof IfThenStatement oIf) {
+                collectVariables(oIf.getCondition());
+            }
+        }
+
+        int iSlots = _oVariableManagement.getSlotCount();
+        _aiValueLocals = new int[iSlots];
+        _aiDefinedLocals = new int[iSlots];
+        Arrays.fill(_aiValueLocals, -1);
+
+        for (int iSlot : _aiLocalSlots) {
+            _aiValueLocals[iSlot] = _oCode.allocateLocal(isRealSlot(iSlot) ? 2 : 1);
+            _aiDefinedLocals[iSlot] = _oCode.allocateLocal(1);
+        }
+    }
+
+    private void collectVariables(final Expression oExpression) {
+        if (oExpression instanceof VariableExpression oVariable) {
+            collectVariable(oVariable);
+        } else if (oExpression instanceof BinaryOperation oOperation) {
+            collectVariables(oOperation.getLeft());
+            collectVariables(oOperation.getRight());
+        } else if (oExpression instanceof SpeculativeExpression oSpeculation) {
+            collectVariables(oSpeculation.getSpecialized());
+        }
+    }
+
+    private void collectVariable(final VariableExpression oVariable) {
+        int iSlot = oVariable.getSlot();
+
+        if (iSlot >= 0 && (oVariable.getType() == VariableType.REAL || oVariable.getType() == VariableType.INTEGER)
+                && !_aiLocalSlots.contains(iSlot)) {
+            _aiLocalSlots.add(iSlot);
+        }
+    }
+
+    private boolean isRealSlot(final int iSlot) {
+        VariableType eType = _oVariableManagement.getSlotType(iSlot);
+
+        return eType == VariableType.REAL || eType == VariableType.DOUBLE;
+    }
+
+    private boolean isLocal(final Expression oExpression) {
+        return oExpression instanceof VariableExpression oVariable && oVariable.getSlot() >= 0
+                && oVariable.getSlot() < _aiValueLocals.length && _aiValueLocals[oVariable.getSlot()] >= 0;
+    }
+
+    /**
+     * Load all local variables from the variable management.
+     *
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void reloadLocals() throws CompileErrorException {
+        for (int iSlot : _aiLocalSlots) {
+            _oCode.local(ALOAD, VARIABLE_MANAGEMENT);
+            _oCode.intConstant(iSlot);
+            _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "isDefined", "(I)Z");
+            _oCode.local(ISTORE, _aiDefinedLocals[iSlot]);
+
+            _oCode.local(ALOAD, VARIABLE_MANAGEMENT);
+            _oCode.intConstant(iSlot);
+
+            if (isRealSlot(iSlot)) {
+                _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "getDouble", "(I)D");
+                _oCode.local(DSTORE, _aiValueLocals[iSlot]);
+            } else {
+                _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "getInt", "(I)I");
+                _oCode.local(ISTORE, _aiValueLocals[iSlot]);
+            }
+        }
+    }
+
+    /**
+     * Store the value on top of the stack into the local variable of a slot, and write it through to the variable
+     * management.
+     *
+     * @param iSlot slot of the variable
+     * @param iKind kind of the value on the stack, DOUBLE or INT
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void storeLocal(final int iSlot, final int iKind) throws CompileErrorException {
+        int iLocal = _aiValueLocals[iSlot];
+
+        if (isRealSlot(iSlot)) {
+            convert(iKind, DOUBLE);
+            _oCode.local(DSTORE, iLocal);
+            _oCode.local(ALOAD, VARIABLE_MANAGEMENT);
+            _oCode.intConstant(iSlot);
+            _oCode.local(DLOAD, iLocal);
+            _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "putSlot", "(ID)V");
+        } else {
+            convert(iKind, INT);
+            _oCode.local(ISTORE, iLocal);
+            _oCode.local(ALOAD, VARIABLE_MANAGEMENT);
+            _oCode.intConstant(iSlot);
+            _oCode.local(ILOAD, iLocal);
+            _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "putSlot", "(II)V");
+        }
+
+        _oCode.op(ICONST_1, 1);
+        _oCode.local(ISTORE, _aiDefinedLocals[iSlot]);
+    }
+
+    // -- statements ---------------------------------------------------------------------------------------------------
+
+    private int getLabel(final int iStatement) {
+        if (iStatement >= 0 && iStatement < _aiStatementLabels.length) {
+            return _aiStatementLabels[iStatement];
+        }
+
+        return _iEndLabel;
+    }
+
+    private void compileStatement(final Statement oStatement, final int iStatement) throws CompileErrorException {
+        _iNativeStatements++;
+
+        if (oStatement instanceof RemStatement || oStatement instanceof LabelStatement
+                || oStatement instanceof ColonStatement) {
+            return;
+        }
+
+        if (oStatement instanceof EndStatement) {
+            _oCode.jump(_iEndLabel);
+        } else if (oStatement instanceof GotoStatement oGoto) {
+            _oCode.jump(getLabel(oGoto.getTargetStatement()));
+        } else if (oStatement instanceof GosubStatement oGosub) {
+            _oCode.local(ALOAD, CONTROL);
+            _oCode.intConstant(ControlStack.GOSUB);
+            _oCode.intConstant(oGosub.getReturnStatement());
+            _oCode.invoke(INVOKEVIRTUAL, CONTROL_STACK, "push", "(II)V");
+            _oCode.jump(getLabel(oGosub.getTargetStatement()));
+        } else if (oStatement instanceof ReturnStatement) {
+            compileReturnFromStack(ControlStack.GOSUB);
+        } else if (oStatement instanceof NextStatement oNext && oNext.getLoop() != null) {
+            compileNext(oNext.getLoop());
+        } else if (oStatement instanceof ElseStatement) {
+            compileReturnFromStack(ControlStack.ELSE);
+        } else if (oStatement instanceof IfThenStatement oIf) {
+            compileIf(oIf);
+        } else if (oStatement instanceof AssignStatement oAssignment) {
+            compileAssignment(oAssignment, iStatement);
+        } else {
+            _iNativeStatements--;
+            compileExecute(iStatement);
+        }
+    }
+
+    /**
+     * Pop a frame from the control stack and continue with the statement it refers to.
+     *
+     * @param iKind kind of the frame
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void compileReturnFromStack(final int iKind) throws CompileErrorException {
+        _oCode.local(ALOAD, CONTROL);
+        _oCode.intConstant(iKind);
+        _oCode.invoke(INVOKEVIRTUAL, CONTROL_STACK, "pop", "(I)I");
+        _oCode.local(ISTORE, STATEMENT_NUMBER);
+        _oCode.jump(_iDispatchLabel);
+    }
+
+    /**
+     * Run the next step of a FOR loop, and jump directly back to the body of the loop as long as it is not done.
+     *
+     * @param oLoop the FOR statement of the loop
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void compileNext(final ForStatement oLoop) throws CompileErrorException {
+        _oCode.local(ALOAD, STATEMENTS);
+        _oCode.intConstant(oLoop.getLinks()[0]);
+        _oCode.op(AALOAD, -1);
+        _oCode.invoke(INVOKESTATIC, RUNTIME, "next", "(L" + STATEMENT + ";)Z");
+        _oCode.local(ISTORE, STATEMENT_NUMBER);
+
+        reloadLocals();
+
+        _oCode.local(ILOAD, STATEMENT_NUMBER);
+        _oCode.branch(IFNE, getLabel(oLoop.getBodyStatement()));
+    }
+
+    /**
+     * Execute the statement by its statement object. If the statement did not jump, the program flows into the next
+     * statement, otherwise it continues with the statement number returned.
+     *
+     * @param iStatement number of the statement
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void compileExecute(final int iStatement) throws CompileErrorException {
+        _oCode.local(ALOAD, STATEMENTS);
+        _oCode.intConstant(iStatement);
+        _oCode.op(AALOAD, -1);
+        _oCode.intConstant(iStatement + 1);
+        _oCode.invoke(INVOKESTATIC, RUNTIME, "execute", "(L" + STATEMENT + ";I)I");
+        _oCode.local(ISTORE, STATEMENT_NUMBER);
+
+        reloadLocals();
+
+        _oCode.local(ILOAD, STATEMENT_NUMBER);
+        _oCode.intConstant(iStatement + 1);
+        _oCode.branch(IF_ICMPNE, _iDispatchLabel);
+    }
+
+    private void compileIf(final IfThenStatement oIf) throws CompileErrorException {
+        compileExpression(oIf.getCondition(), BOOLEAN);
+
+        if (oIf.getTargetStatement() >= 0) {
+            _oCode.branch(IFNE, getLabel(oIf.getTargetStatement()));
+            return;
+        }
+
+        _oCode.branch(IFEQ, getLabel(oIf.getFalseStatement()));
+
+        if (oIf.hasElse()) {
+            _oCode.local(ALOAD, CONTROL);
+            _oCode.intConstant(ControlStack.ELSE);
+            _oCode.intConstant(oIf.getEndIfStatement());
+            _oCode.invoke(INVOKEVIRTUAL, CONTROL_STACK, "push", "(II)V");
+        }
+    }
+
+    /**
+     * Translate an assignment. The kind of the calculation follows the type of the expression, as in the
+     * interpreter: real and integer expressions are calculated as primitives, all others as values.
+     *
+     * @param oAssignment the assignment
+     * @param iStatement number of the statement
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void compileAssignment(final AssignStatement oAssignment, final int iStatement)
+            throws CompileErrorException {
+        AssignableExpression oTarget = oAssignment.getTarget();
+        Expression oExpression = oAssignment.getExpression();
+
+        switch (oExpression.getType()) {
+            case REAL -> compileStore(oTarget, oExpression, DOUBLE);
+            case INTEGER -> compileStore(oTarget, oExpression, INT);
+            default -> {
+                if (oExpression instanceof SpeculativeExpression oSpeculation
+                        && oTarget instanceof VariableExpression oVariable && oVariable.getSlot() >= 0
+                        && canSpeculate(oSpeculation, DOUBLE)) {
+                    compileSpeculativeStore(oVariable, oSpeculation);
+                } else {
+                    compileGenericStore(oTarget, oExpression);
+                }
+            }
+        }
+    }
+
+    private void compileStore(final AssignableExpression oTarget, final Expression oExpression, final int iKind)
+            throws CompileErrorException {
+        if (isLocal(oTarget)) {
+            compileExpression(oExpression, iKind);
+            storeLocal(((VariableExpression) oTarget).getSlot(), iKind);
+            return;
+        }
+
+        if (iKind == DOUBLE && oTarget instanceof VariableExpression oVariable && oVariable.getSlot() >= 0
+                && _oVariableManagement.getSlotType(oVariable.getSlot()) == VariableType.UNDEFINED) {
+            _oCode.local(ALOAD, VARIABLE_MANAGEMENT);
+            _oCode.intConstant(oVariable.getSlot());
+            compileExpression(oExpression, DOUBLE);
+            _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "putSlot", "(ID)V");
+            return;
+        }
+
+        loadExpression(oTarget);
+        _oCode.type(CHECKCAST, ASSIGNABLE);
+        compileExpression(oExpression, iKind);
+
+        if (iKind == DOUBLE) {
+            _oCode.invoke(INVOKEINTERFACE, ASSIGNABLE, "assignDouble", "(D)V");
+        } else {
+            _oCode.invoke(INVOKEINTERFACE, ASSIGNABLE, "assignInt", "(I)V");
+        }
+    }
+
+    /**
+     * Translate the assignment of a speculative real calculation to a variable. As long as the speculation holds, the
+     * result is stored as a primitive; after a failed type check the generic expression calculates the value.
+     *
+     * @param oTarget the variable assigned to
+     * @param oSpeculation the speculative expression
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void compileSpeculativeStore(final VariableExpression oTarget, final SpeculativeExpression oSpeculation)
+            throws CompileErrorException {
+        int iGenericLabel = _oCode.newLabel();
+        int iEndLabel = _oCode.newLabel();
+
+        compileSpeculation(oSpeculation, DOUBLE, iGenericLabel);
+
+        if (isLocal(oTarget)) {
+            storeLocal(oTarget.getSlot(), DOUBLE);
+        } else {
+            int iTemporary = _oCode.allocateLocal(2);
+
+            _oCode.local(DSTORE, iTemporary);
+            _oCode.local(ALOAD, VARIABLE_MANAGEMENT);
+            _oCode.intConstant(oTarget.getSlot());
+            _oCode.local(DLOAD, iTemporary);
+            _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "putSlot", "(ID)V");
+        }
+
+        _oCode.jump(iEndLabel);
+        _oCode.bind(iGenericLabel);
+        compileGenericStore(oTarget, oSpeculation);
+        _oCode.bind(iEndLabel);
+    }
+
+    private void compileGenericStore(final AssignableExpression oTarget, final Expression oExpression)
+            throws CompileErrorException {
+        loadExpression(oTarget);
+        _oCode.type(CHECKCAST, ASSIGNABLE);
+        loadExpression(oExpression);
+        _oCode.invoke(INVOKEINTERFACE, EXPRESSION, "evaluate", "()L" + VALUE + ";");
+        _oCode.invoke(INVOKEINTERFACE, ASSIGNABLE, "assign", "(L" + VALUE + ";)V");
+
+        if (isLocal(oTarget)) {
+            int iSlot = ((VariableExpression) oTarget).getSlot();
+
+            _oCode.local(ALOAD, VARIABLE_MANAGEMENT);
+            _oCode.intConstant(iSlot);
+
+            if (isRealSlot(iSlot)) {
+                _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "getDouble", "(I)D");
+                _oCode.local(DSTORE, _aiValueLocals[iSlot]);
+            } else {
+                _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "getInt", "(I)I");
+                _oCode.local(ISTORE, _aiValueLocals[iSlot]);
+            }
+
+            _oCode.op(ICONST_1, 1);
+            _oCode.local(ISTORE, _aiDefinedLocals[iSlot]);
+        }
+    }
+
+    // -- expressions --------------------------------------------------------------------------------------------------
+
+    /**
+     * Push an expression object onto the stack.
+     *
+     * @param oExpression the expression
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void loadExpression(final Expression oExpression) throws CompileErrorException {
+        Integer iIndex = _aoExpressionIndex.get(oExpression);
+
+        if (iIndex == null) {
+            iIndex = _aoExpressions.size();
+            _aoExpressions.add(oExpression);
+            _aoExpressionIndex.put(oExpression, iIndex);
+        }
+
+        _oCode.local(ALOAD, EXPRESSIONS);
+        _oCode.intConstant(iIndex);
+        _oCode.op(AALOAD, -1);
+    }
+
+    /**
+     * Evaluate an expression by calling its object.
+     *
+     * @param oExpression the expression
+     * @param iKind kind of the result
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void compileCall(final Expression oExpression, final int iKind) throws CompileErrorException {
+        loadExpression(oExpression);
+
+        switch (iKind) {
+            case DOUBLE -> _oCode.invoke(INVOKEINTERFACE, EXPRESSION, "evaluateDouble", "()D");
+            case INT -> _oCode.invoke(INVOKEINTERFACE, EXPRESSION, "evaluateInt", "()I");
+            default -> _oCode.invoke(INVOKEINTERFACE, EXPRESSION, "evaluateBoolean", "()Z");
+        }
+    }
+
+    private void convert(final int iFrom, final int iTo) {
+        if (iFrom == DOUBLE && iTo == INT) {
+            _oCode.op(D2I, -1);
+        } else if (iFrom == INT && iTo == DOUBLE) {
+            _oCode.op(I2D, 1);
+        }
+    }
+
+    private static int size(final int iKind) {
+        return iKind == DOUBLE ? 2 : 1;
+    }
+
+    /**
+     * Translate an expression. The result is left on the stack as a double, an int, or a boolean, as the
+     * interpreter calls evaluateDouble(), evaluateInt(), or evaluateBoolean().
+     *
+     * @param oExpression the expression
+     * @param iKind kind of the result
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void compileExpression(final Expression oExpression, final int iKind) throws CompileErrorException {
+        if (oExpression instanceof SpeculativeExpression oSpeculation && canSpeculate(oSpeculation, iKind)) {
+            int iGenericLabel = _oCode.newLabel();
+            int iEndLabel = _oCode.newLabel();
+
+            compileSpeculation(oSpeculation, iKind, iGenericLabel);
+            _oCode.jump(iEndLabel);
+            _oCode.bind(iGenericLabel);
+            compileCall(oSpeculation, iKind);
+            _oCode.bind(iEndLabel);
+        } else if ((oExpression instanceof RealValue || oExpression instanceof IntegerValue) && iKind != BOOLEAN) {
+            try {
+                if (iKind == DOUBLE) {
+                    _oCode.doubleConstant(oExpression.evaluateDouble());
+                } else {
+                    _oCode.intConstant(oExpression.evaluateInt());
+                }
+            } catch (Exception eException) {
+                throw new CompileErrorException("Cannot evaluate constant " + oExpression.content());
+            }
+        } else if (isLocal(oExpression) && iKind != BOOLEAN) {
+            compileLocal((VariableExpression) oExpression, iKind);
+        } else if (oExpression instanceof RealGuard oGuard && isGuardable(oGuard) && _iRegionBase >= 0
+                && iKind != BOOLEAN) {
+            compileGuard(oGuard, iKind);
+        } else if (oExpression instanceof BinaryOperation oOperation && isNative(oOperation, iKind)) {
+            compileOperation(oOperation, iKind);
+        } else {
+            compileCall(oExpression, iKind);
+        }
+    }
+
+    /**
+     * Read a local variable. A variable that has not been assigned yet is read by its object, which reports the
+     * error.
+     *
+     * @param oVariable the variable
+     * @param iKind kind of the result
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void compileLocal(final VariableExpression oVariable, final int iKind) throws CompileErrorException {
+        int iSlot = oVariable.getSlot();
+        int iUndefinedLabel = _oCode.newLabel();
+        int iEndLabel = _oCode.newLabel();
+
+        _oCode.local(ILOAD, _aiDefinedLocals[iSlot]);
+        _oCode.branch(IFEQ, iUndefinedLabel);
+
+        if (isRealSlot(iSlot)) {
+            _oCode.local(DLOAD, _aiValueLocals[iSlot]);
+            convert(DOUBLE, iKind);
+        } else {
+            _oCode.local(ILOAD, _aiValueLocals[iSlot]);
+            convert(INT, iKind);
+        }
+
+        _oCode.jump(iEndLabel);
+        _oCode.bind(iUndefinedLabel);
+        compileCall(oVariable, iKind);
+        _oCode.bind(iEndLabel);
+    }
+
+    private boolean isNative(final BinaryOperation oOperation, final int iKind) {
+        if (oOperation instanceof Comparison) {
+            return iKind == BOOLEAN;
+        }
+
+        return (oOperation instanceof RealOperation || oOperation instanceof IntOperation) && iKind != BOOLEAN;
+    }
+
+    private static boolean isIntComparison(final BinaryOperation oOperation) {
+        return oOperation instanceof IntEqual || oOperation instanceof IntNotEqual
+                || oOperation instanceof IntLessThan || oOperation instanceof IntLessEqual
+                || oOperation instanceof IntGreaterThan || oOperation instanceof IntGreaterEqual;
+    }
+
+    private static int getOperandKind(final BinaryOperation oOperation) {
+        if (oOperation instanceof IntOperation || isIntComparison(oOperation)) {
+            return INT;
+        }
+
+        return DOUBLE;
+    }
+
+    private void compileOperation(final BinaryOperation oOperation, final int iKind) throws CompileErrorException {
+        int iOperandKind = getOperandKind(oOperation);
+
+        compileExpression(oOperation.getLeft(), iOperandKind);
+        pushPending(size(iOperandKind));
+        compileExpression(oOperation.getRight(), iOperandKind);
+        _iPending--;
+
+        if (oOperation instanceof Comparison) {
+            compileComparison(oOperation, iOperandKind);
+            return;
+        }
+
+        if (iOperandKind == DOUBLE) {
+            switch (oOperation.getOperation()) {
+                case PLUS -> _oCode.op(DADD, -2);
+                case MINUS -> _oCode.op(DSUB, -2);
+                case MULTIPLY -> _oCode.op(DMUL, -2);
+                default -> _oCode.invoke(INVOKESTATIC, RUNTIME, "divide", "(DD)D");
+            }
+        } else {
+            switch (oOperation.getOperation()) {
+                case PLUS -> _oCode.op(IADD, -1);
+                case MINUS -> _oCode.op(ISUB, -1);
+                case MULTIPLY -> _oCode.op(IMUL, -1);
+                default -> _oCode.invoke(INVOKESTATIC, RUNTIME, "divide", "(II)I");
+            }
+        }
+
+        convert(iOperandKind, iKind);
+    }
+
+    /**
+     * Compare the two values on the stack, with the semantics of the Java operators, and push 1 or 0.
+     *
+     * @param oOperation the comparison
+     * @param iOperandKind kind of the operands
+     */
+    private void compileComparison(final BinaryOperation oOperation, final int iOperandKind) {
+        int iFalseLabel = _oCode.newLabel();
+        int iEndLabel = _oCode.newLabel();
+
+        if (iOperandKind == DOUBLE) {
+            switch (oOperation.getOperation()) {
+                case SMALLER -> {
+                    _oCode.op(DCMPG, -3);
+                    _oCode.branch(IFGE, iFalseLabel);
+                }
+                case SMALLER_EQUAL -> {
+                    _oCode.op(DCMPG, -3);
+                    _oCode.branch(IFGT, iFalseLabel);
+                }
+                case GREATER -> {
+                    _oCode.op(DCMPL, -3);
+                    _oCode.branch(IFLE, iFalseLabel);
+                }
+                case GREATER_EQUAL -> {
+                    _oCode.op(DCMPL, -3);
+                    _oCode.branch(IFLT, iFalseLabel);
+                }
+                case COMPARE_EQUAL -> {
+                    _oCode.op(DCMPL, -3);
+                    _oCode.branch(IFNE, iFalseLabel);
+                }
+                default -> {
+                    _oCode.op(DCMPL, -3);
+                    _oCode.branch(IFEQ, iFalseLabel);
+                }
+            }
+        } else {
+            switch (oOperation.getOperation()) {
+                case SMALLER -> _oCode.branch(IF_ICMPGE, iFalseLabel);
+                case SMALLER_EQUAL -> _oCode.branch(IF_ICMPGT, iFalseLabel);
+                case GREATER -> _oCode.branch(IF_ICMPLE, iFalseLabel);
+                case GREATER_EQUAL -> _oCode.branch(IF_ICMPLT, iFalseLabel);
+                case COMPARE_EQUAL -> _oCode.branch(IF_ICMPNE, iFalseLabel);
+                default -> _oCode.branch(IF_ICMPEQ, iFalseLabel);
+            }
+        }
+
+        _oCode.op(ICONST_1, 1);
+        _oCode.jump(iEndLabel);
+        _oCode.bind(iFalseLabel);
+        _oCode.op(ICONST_0, 1);
+        _oCode.bind(iEndLabel);
+    }
+
+    // -- speculation --------------------------------------------------------------------------------------------------
+
+    private void pushPending(final int iSize) {
+        if (_iPending == _aiPending.length) {
+            _aiPending = Arrays.copyOf(_aiPending, _iPending * 2);
+        }
+
+        _aiPending[_iPending++] = iSize;
+    }
+
+    private static boolean isGuardable(final RealGuard oGuard) {
+        return oGuard.getOperand() instanceof VariableExpression oVariable && oVariable.getSlot() >= 0;
+    }
+
+    /**
+     * Verifies that a speculative expression can be translated into byte code for the requested kind of result:
+     * the speculation has to calculate that kind, and every type guard has to be translated inline, as a guard
+     * evaluated by its object would fail with an exception instead of falling back to the generic expression.
+     *
+     * @param oSpeculation the speculative expression
+     * @param iKind kind of the result
+     * @return true, if the expression can be translated
+     */
+    private boolean canSpeculate(final SpeculativeExpression oSpeculation, final int iKind) {
+        boolean bReal = oSpeculation.getSpecialized().getType() == VariableType.REAL;
+
+        if (bReal == (iKind == BOOLEAN)) {
+            return false;
+        }
+
+        return isGuarded(oSpeculation.getSpecialized(), iKind);
+    }
+
+    private boolean isGuarded(final Expression oExpression, final int iKind) {
+        if (oExpression instanceof RealGuard oGuard) {
+            return iKind != BOOLEAN && isGuardable(oGuard);
+        }
+
+        if (oExpression instanceof BinaryOperation oOperation) {
+            if (isNative(oOperation, iKind)) {
+                int iOperandKind = getOperandKind(oOperation);
+
+                return isGuarded(oOperation.getLeft(), iOperandKind)
+                        && isGuarded(oOperation.getRight(), iOperandKind);
+            }
+
+            return !containsGuard(oOperation);
+        }
+
+        return true;
+    }
+
+    private static boolean containsGuard(final Expression oExpression) {
+        if (oExpression instanceof RealGuard) {
+            return true;
+        }
+
+        if (oExpression instanceof BinaryOperation oOperation) {
+            return containsGuard(oOperation.getLeft()) || containsGuard(oOperation.getRight());
+        }
+
+        return false;
+    }
+
+    /**
+     * Translate the specialized version of a speculative expression. If the expression has been deoptimized before,
+     * or one of its type guards fails, the code continues at the generic label with the stack as at the start.
+     *
+     * @param oSpeculation the speculative expression
+     * @param iKind kind of the result
+     * @param iGenericLabel label of the generic calculation
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void compileSpeculation(final SpeculativeExpression oSpeculation, final int iKind,
+                                    final int iGenericLabel) throws CompileErrorException {
+        loadExpression(oSpeculation);
+        _oCode.type(CHECKCAST, SPECULATIVE);
+        _oCode.invoke(INVOKEVIRTUAL, SPECULATIVE, "isDeoptimized", "()Z");
+        _oCode.branch(IFNE, iGenericLabel);
+
+        int iRegionBase = _iRegionBase;
+        int iRegionSpeculation = _iRegionSpeculation;
+        int iRegionFallback = _iRegionFallback;
+        int iRegionPending = _iRegionPending;
+
+        _iRegionBase = _oCode.getStackDepth();
+        _iRegionSpeculation = _aoExpressionIndex.get(oSpeculation);
+        _iRegionFallback = iGenericLabel;
+        _iRegionPending = _iPending;
+
+        compileExpression(oSpeculation.getSpecialized(), iKind);
+
+        _iRegionBase = iRegionBase;
+        _iRegionSpeculation = iRegionSpeculation;
+        _iRegionFallback = iRegionFallback;
+        _iRegionPending = iRegionPending;
+    }
+
+    /**
+     * Read an untyped variable as a real. If the variable does not hold a real, the values calculated so far are
+     * dropped, the speculative expression is deoptimized, and the generic expression takes over.
+     *
+     * @param oGuard the type guard
+     * @param iKind kind of the result
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private void compileGuard(final RealGuard oGuard, final int iKind) throws CompileErrorException {
+        int iSlot = ((VariableExpression) oGuard.getOperand()).getSlot();
+        int iFailedLabel = _oCode.newLabel();
+        int iEndLabel = _oCode.newLabel();
+
+        _oCode.local(ALOAD, VARIABLE_MANAGEMENT);
+        _oCode.intConstant(iSlot);
+        _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "isReal", "(I)Z");
+        _oCode.branch(IFEQ, iFailedLabel);
+
+        _oCode.local(ALOAD, VARIABLE_MANAGEMENT);
+        _oCode.intConstant(iSlot);
+        _oCode.invoke(INVOKEVIRTUAL, VARIABLES, "getDouble", "(I)D");
+        convert(DOUBLE, iKind);
+        _oCode.jump(iEndLabel);
+
+        _oCode.bind(iFailedLabel);
+
+        for (int iPending = _iPending - 1; iPending >= _iRegionPending; iPending--) {
+            _oCode.op(_aiPending[iPending] == 2 ? POP2 : POP, -_aiPending[iPending]);
+        }
+
+        _oCode.local(ALOAD, EXPRESSIONS);
+        _oCode.intConstant(_iRegionSpeculation);
+        _oCode.op(AALOAD, -1);
+        _oCode.type(CHECKCAST, SPECULATIVE);
+        _oCode.invoke(INVOKEVIRTUAL, SPECULATIVE, "deoptimize", "()V");
+        _oCode.jump(_iRegionFallback);
+
+        _oCode.bind(iEndLabel);
+    }
+}
@@ -0,0 +1,444 @@
+package eu.gricom.basic.codeGenerator.jvm;
+
+import eu.gricom.basic.error.CompileErrorException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClassFileWriter.java
+ * <p>
+ * Description:
+ * <p>
+ * The class file writer assembles a JVM class file: the constant pool, the fields, and the methods with their code.
+ * The class is written in the format of Java 5 (version 49.0), so that the JVM verifies the generated code by type
+ * inference and no stack map frames have to be calculated.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class ClassFileWriter {
+    /**
+     * Access flag public.
+     */
+    public static final int ACC_PUBLIC = 0x0001;
+
+    /**
+     * Access flag private.
+     */
+    public static final int ACC_PRIVATE = 0x0002;
+
+    /**
+     * Access flag final.
+     */
+    public static final int ACC_FINAL = 0x0010;
+
+    /**
+     * Access flag super, set for all classes.
+     */
+    public static final int ACC_SUPER = 0x0020;
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int MAJOR_VERSION = 49;
+    private static final int MAX_POOL_SIZE = 0xFFFF;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream _oPoolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream _oPool = new DataOutputStream(_oPoolBytes);
+    private final Map<String, Integer> _aoPoolIndex = new HashMap<>();
+    private int _iPoolSize = 1;
+
+    private final int _iThisClass;
+    private final int _iSuperClass;
+    private final List<Integer> _aiInterfaces = new ArrayList<>();
+    private final ByteArrayOutputStream _oFieldBytes = new ByteArrayOutputStream();
+    private final DataOutputStream _oFields = new DataOutputStream(_oFieldBytes);
+    private int _iFieldCount = 0;
+    private final ByteArrayOutputStream _oMethodBytes = new ByteArrayOutputStream();
+    private final DataOutputStream _oMethods = new DataOutputStream(_oMethodBytes);
+    private int _iMethodCount = 0;
+    private int _iSourceFile = 0;
+
+    /**
+     * Default constructor.
+     *
+     * @param strClassName internal name of the class, e.g. "eu/gricom/basic/compiled/TEST"
+     * @param strSuperClass internal name of the super class
+     * @param astrInterfaces internal names of the implemented interfaces
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public ClassFileWriter(final String strClassName, final String strSuperClass, final String... astrInterfaces)
+            throws CompileErrorException {
+        _iThisClass = classRef(strClassName);
+        _iSuperClass = classRef(strSuperClass);
+
+        for (String strInterface : astrInterfaces) {
+            _aiInterfaces.add(classRef(strInterface));
+        }
+    }
+
+    /**
+     * Look up a constant in the pool, or add it if it is not yet there.
+     *
+     * @param strKey unique key of the constant
+     * @param iTag tag of the constant
+     * @param aiOperands the indices or values of the constant, written as u2
+     * @return index of the constant in the pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private int constant(final String strKey, final int iTag, final int... aiOperands) throws CompileErrorException {
+        Integer iIndex = _aoPoolIndex.get(strKey);
+
+        if (iIndex != null) {
+            return iIndex;
+        }
+
+        try {
+            _oPool.writeByte(iTag);
+
+            for (int iOperand : aiOperands) {
+                _oPool.writeShort(iOperand);
+            }
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot write constant pool: " + eException.getMessage());
+        }
+
+        return register(strKey, 1);
+    }
+
+    /**
+     * Register the constant just written under its key.
+     *
+     * @param strKey unique key of the constant
+     * @param iEntries number of pool entries taken by the constant (2 for long and double values)
+     * @return index of the constant in the pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private int register(final String strKey, final int iEntries) throws CompileErrorException {
+        int iIndex = _iPoolSize;
+
+        _iPoolSize += iEntries;
+
+        if (_iPoolSize > MAX_POOL_SIZE) {
+            throw new CompileErrorException("Constant pool overflow: more than " + MAX_POOL_SIZE + " constants");
+        }
+
+        _aoPoolIndex.put(strKey, iIndex);
+        return iIndex;
+    }
+
+    /**
+     * Get the pool index of an UTF-8 string.
+     *
+     * @param strValue the string
+     * @return index in the constant pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public int utf8(final String strValue) throws CompileErrorException {
+        String strKey = "U" + strValue;
+        Integer iIndex = _aoPoolIndex.get(strKey);
+
+        if (iIndex != null) {
+            return iIndex;
+        }
+
+        try {
+            _oPool.writeByte(CONSTANT_UTF8);
+            _oPool.writeUTF(strValue);
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot write constant pool: " + eException.getMessage());
+        }
+
+        return register(strKey, 1);
+    }
+
+    /**
+     * Get the pool index of an int constant.
+     *
+     * @param iValue value of the constant
+     * @return index in the constant pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public int integer(final int iValue) throws CompileErrorException {
+        String strKey = "I" + iValue;
+        Integer iIndex = _aoPoolIndex.get(strKey);
+
+        if (iIndex != null) {
+            return iIndex;
+        }
+
+        try {
+            _oPool.writeByte(CONSTANT_INTEGER);
+            _oPool.writeInt(iValue);
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot write constant pool: " + eException.getMessage());
+        }
+
+        return register(strKey, 1);
+    }
+
+    /**
+     * Get the pool index of a double constant.
+     *
+     * @param dValue value of the constant
+     * @return index in the constant pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public int doubleConstant(final double dValue) throws CompileErrorException {
+        String strKey = "D" + Double.doubleToRawLongBits(dValue);
+        Integer iIndex = _aoPoolIndex.get(strKey);
+
+        if (iIndex != null) {
+            return iIndex;
+        }
+
+        try {
+            _oPool.writeByte(CONSTANT_DOUBLE);
+            _oPool.writeDouble(dValue);
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot write constant pool: " + eException.getMessage());
+        }
+
+        return register(strKey, 2);
+    }
+
+    /**
+     * Get the pool index of a class.
+     *
+     * @param strClassName internal name of the class
+     * @return index in the constant pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public int classRef(final String strClassName) throws CompileErrorException {
+        int iName = utf8(strClassName);
+
+        return constant("C" + strClassName, CONSTANT_CLASS, iName);
+    }
+
+    /**
+     * Get the pool index of a string constant.
+     *
+     * @param strValue the string
+     * @return index in the constant pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public int string(final String strValue) throws CompileErrorException {
+        int iValue = utf8(strValue);
+
+        return constant("S" + strValue, CONSTANT_STRING, iValue);
+    }
+
+    /**
+     * Get the pool index of a name and a type descriptor.
+     *
+     * @param strName name of the member
+     * @param strDescriptor type descriptor of the member
+     * @return index in the constant pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    private int nameAndType(final String strName, final String strDescriptor) throws CompileErrorException {
+        int iName = utf8(strName);
+        int iDescriptor = utf8(strDescriptor);
+
+        return constant("N" + strName + ":" + strDescriptor, CONSTANT_NAME_AND_TYPE, iName, iDescriptor);
+    }
+
+    /**
+     * Get the pool index of a field.
+     *
+     * @param strOwner internal name of the class declaring the field
+     * @param strName name of the field
+     * @param strDescriptor type descriptor of the field
+     * @return index in the constant pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public int fieldRef(final String strOwner, final String strName, final String strDescriptor)
+            throws CompileErrorException {
+        int iClass = classRef(strOwner);
+        int iNameAndType = nameAndType(strName, strDescriptor);
+
+        return constant("F" + strOwner + "." + strName + ":" + strDescriptor, CONSTANT_FIELDREF, iClass,
+                        iNameAndType);
+    }
+
+    /**
+     * Get the pool index of a method of a class.
+     *
+     * @param strOwner internal name of the class declaring the method
+     * @param strName name of the method
+     * @param strDescriptor type descriptor of the method
+     * @return index in the constant pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public int methodRef(final String strOwner, final String strName, final String strDescriptor)
+            throws CompileErrorException {
+        int iClass = classRef(strOwner);
+        int iNameAndType = nameAndType(strName, strDescriptor);
+
+        return constant("M" + strOwner + "." + strName + strDescriptor, CONSTANT_METHODREF, iClass, iNameAndType);
+    }
+
+    /**
+     * Get the pool index of a method of an interface.
+     *
+     * @param strOwner internal name of the interface declaring the method
+     * @param strName name of the method
+     * @param strDescriptor type descriptor of the method
+     * @return index in the constant pool
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public int interfaceMethodRef(final String strOwner, final String strName, final String strDescriptor)
+            throws CompileErrorException {
+        int iClass = classRef(strOwner);
+        int iNameAndType = nameAndType(strName, strDescriptor);
+
+        return constant("J" + strOwner + "." + strName + strDescriptor, CONSTANT_INTERFACE_METHODREF, iClass,
+                        iNameAndType);
+    }
+
+    /**
+     * Set the name of the source file, shown in the stack traces of the class.
+     *
+     * @param strSourceFile name of the source file
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public void setSourceFile(final String strSourceFile) throws CompileErrorException {
+        utf8("SourceFile");
+        _iSourceFile = utf8(strSourceFile);
+    }
+
+    /**
+     * Add a field to the class.
+     *
+     * @param iAccess access flags
+     * @param strName name of the field
+     * @param strDescriptor type descriptor of the field
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public void addField(final int iAccess, final String strName, final String strDescriptor)
+            throws CompileErrorException {
+        int iName = utf8(strName);
+        int iDescriptor = utf8(strDescriptor);
+
+        try {
+            _oFields.writeShort(iAccess);
+            _oFields.writeShort(iName);
+            _oFields.writeShort(iDescriptor);
+            _oFields.writeShort(0);
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot write field " + strName + ": " + eException.getMessage());
+        }
+
+        _iFieldCount++;
+    }
+
+    /**
+     * Add a method to the class.
+     *
+     * @param iAccess access flags
+     * @param strName name of the method
+     * @param strDescriptor type descriptor of the method
+     * @param oCode code of the method
+     * @throws CompileErrorException if the code cannot be assembled
+     */
+    public void addMethod(final int iAccess, final String strName, final String strDescriptor, final CodeBuffer oCode)
+            throws CompileErrorException {
+        int iName = utf8(strName);
+        int iDescriptor = utf8(strDescriptor);
+        int iCodeAttribute = utf8("Code");
+        int iLineNumberAttribute = utf8("LineNumberTable");
+        byte[] abCode = oCode.toByteArray();
+        int[] aiLineNumbers = oCode.getLineNumbers();
+
+        try {
+            _oMethods.writeShort(iAccess);
+            _oMethods.writeShort(iName);
+            _oMethods.writeShort(iDescriptor);
+            _oMethods.writeShort(1);
+
+            // Code attribute: stack and locals, the byte code, no exception table, and the line number table
+            int iLineTableLength = 2 + aiLineNumbers.length * 2;
+            _oMethods.writeShort(iCodeAttribute);
+            _oMethods.writeInt(12 + abCode.length + 6 + iLineTableLength);
+            _oMethods.writeShort(oCode.getMaxStack());
+            _oMethods.writeShort(oCode.getMaxLocals());
+            _oMethods.writeInt(abCode.length);
+            _oMethods.write(abCode);
+            _oMethods.writeShort(0);
+            _oMethods.writeShort(1);
+
+            _oMethods.writeShort(iLineNumberAttribute);
+            _oMethods.writeInt(iLineTableLength);
+            _oMethods.writeShort(aiLineNumbers.length / 2);
+
+            for (int iLineNumber : aiLineNumbers) {
+                _oMethods.writeShort(iLineNumber);
+            }
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot write method " + strName + ": " + eException.getMessage());
+        }
+
+        _iMethodCount++;
+    }
+
+    /**
+     * Create the class file.
+     *
+     * @return content of the class file
+     * @throws CompileErrorException if the class file cannot be written
+     */
+    public byte[] toByteArray() throws CompileErrorException {
+        ByteArrayOutputStream oBytes = new ByteArrayOutputStream();
+        DataOutputStream oClass = new DataOutputStream(oBytes);
+
+        try {
+            oClass.writeInt(MAGIC);
+            oClass.writeShort(0);
+            oClass.writeShort(MAJOR_VERSION);
+            oClass.writeShort(_iPoolSize);
+            _oPoolBytes.writeTo(oClass);
+
+            oClass.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            oClass.writeShort(_iThisClass);
+            oClass.writeShort(_iSuperClass);
+            oClass.writeShort(_aiInterfaces.size());
+
+            for (int iInterface : _aiInterfaces) {
+                oClass.writeShort(iInterface);
+            }
+
+            oClass.writeShort(_iFieldCount);
+            _oFieldBytes.writeTo(oClass);
+            oClass.writeShort(_iMethodCount);
+            _oMethodBytes.writeTo(oClass);
+
+            if (_iSourceFile != 0) {
+                oClass.writeShort(1);
+                oClass.writeShort(utf8("SourceFile"));
+                oClass.writeInt(2);
+                oClass.writeShort(_iSourceFile);
+            } else {
+                oClass.writeShort(0);
+            }
+
+            oClass.flush();
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot write class file: " + eException.getMessage());
+        }
+
+        return oBytes.toByteArray();
+    }
+}
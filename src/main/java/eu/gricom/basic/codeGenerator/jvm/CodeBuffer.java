@@ -0,0 +1,525 @@
+package eu.gricom.basic.codeGenerator.jvm;
+
+import eu.gricom.basic.error.CompileErrorException;
+
+import java.util.Arrays;
+
+/**
+ * CodeBuffer.java
+ * <p>
+ * Description:
+ * <p>
+ * The code buffer collects the byte code of one method. Jumps refer to labels, which are resolved when the method is
+ * complete; all jumps use 32-bit offsets (goto_w), a conditional jump is emitted as the inverted condition around an
+ * unconditional jump. The buffer tracks the depth of the operand stack to calculate the maximum stack size of the
+ * method, and records the line number table.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class CodeBuffer {
+    /**
+     * Maximum size of the code of a method.
+     */
+    public static final int MAX_CODE_SIZE = 0xFFFF;
+
+    static final int ACONST_NULL = 0x01;
+    static final int ICONST_0 = 0x03;
+    static final int ICONST_1 = 0x04;
+    static final int DCONST_0 = 0x0e;
+    static final int DCONST_1 = 0x0f;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC = 0x12;
+    static final int LDC_W = 0x13;
+    static final int LDC2_W = 0x14;
+    static final int ILOAD = 0x15;
+    static final int DLOAD = 0x18;
+    static final int ALOAD = 0x19;
+    static final int AALOAD = 0x32;
+    static final int ISTORE = 0x36;
+    static final int DSTORE = 0x39;
+    static final int ASTORE = 0x3a;
+    static final int POP = 0x57;
+    static final int POP2 = 0x58;
+    static final int DUP = 0x59;
+    static final int IADD = 0x60;
+    static final int DADD = 0x63;
+    static final int ISUB = 0x64;
+    static final int DSUB = 0x67;
+    static final int IMUL = 0x68;
+    static final int DMUL = 0x6b;
+    static final int I2D = 0x87;
+    static final int D2I = 0x8e;
+    static final int DCMPL = 0x97;
+    static final int DCMPG = 0x98;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9a;
+    static final int IFLT = 0x9b;
+    static final int IFGE = 0x9c;
+    static final int IFGT = 0x9d;
+    static final int IFLE = 0x9e;
+    static final int IF_ICMPEQ = 0x9f;
+    static final int IF_ICMPNE = 0xa0;
+    static final int IF_ICMPLT = 0xa1;
+    static final int IF_ICMPGE = 0xa2;
+    static final int IF_ICMPGT = 0xa3;
+    static final int IF_ICMPLE = 0xa4;
+    static final int TABLESWITCH = 0xaa;
+    static final int RETURN = 0xb1;
+    static final int GETFIELD = 0xb4;
+    static final int PUTFIELD = 0xb5;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+    static final int INVOKEINTERFACE = 0xb9;
+    static final int NEW = 0xbb;
+    static final int CHECKCAST = 0xc0;
+    static final int WIDE = 0xc4;
+    static final int GOTO_W = 0xc8;
+
+    private final ClassFileWriter _oClassFile;
+    private byte[] _abCode = new byte[1024];
+    private int _iLength = 0;
+    private int _iStack = 0;
+    private int _iMaxStack = 0;
+    private int _iMaxLocals;
+
+    private int[] _aiLabelPositions = new int[64];
+    private int[] _aiLabelStacks = new int[64];
+    private int _iLabels = 0;
+
+    // per fixup: position of the offset, position of the instruction, label
+    private int[] _aiFixups = new int[192];
+    private int _iFixups = 0;
+
+    // pairs of code position and source line
+    private int[] _aiLineNumbers = new int[64];
+    private int _iLineNumbers = 0;
+
+    /**
+     * Default constructor.
+     *
+     * @param oClassFile class file, holding the constant pool of the method
+     * @param iParameterSlots number of local variable slots taken by "this" and the parameters of the method
+     */
+    public CodeBuffer(final ClassFileWriter oClassFile, final int iParameterSlots) {
+        _oClassFile = oClassFile;
+        _iMaxLocals = iParameterSlots;
+    }
+
+    private void writeByte(final int iValue) {
+        if (_iLength == _abCode.length) {
+            _abCode = Arrays.copyOf(_abCode, _abCode.length * 2);
+        }
+
+        _abCode[_iLength++] = (byte) iValue;
+    }
+
+    private void writeShort(final int iValue) {
+        writeByte(iValue >> 8);
+        writeByte(iValue);
+    }
+
+    private void writeInt(final int iValue) {
+        writeShort(iValue >> 16);
+        writeShort(iValue);
+    }
+
+    private void putInt(final int iPosition, final int iValue) {
+        _abCode[iPosition] = (byte) (iValue >> 24);
+        _abCode[iPosition + 1] = (byte) (iValue >> 16);
+        _abCode[iPosition + 2] = (byte) (iValue >> 8);
+        _abCode[iPosition + 3] = (byte) iValue;
+    }
+
+    private void stack(final int iDelta) {
+        _iStack += iDelta;
+        _iMaxStack = Math.max(_iMaxStack, _iStack);
+    }
+
+    /**
+     * Get the current position in the code.
+     *
+     * @return offset of the next instruction
+     */
+    public int getPosition() {
+        return _iLength;
+    }
+
+    /**
+     * Get the current depth of the operand stack.
+     *
+     * @return number of stack slots in use
+     */
+    public int getStackDepth() {
+        return _iStack;
+    }
+
+    /**
+     * Allocate a local variable.
+     *
+     * @param iSize number of slots: 1 for int and reference variables, 2 for double variables
+     * @return index of the local variable
+     */
+    public int allocateLocal(final int iSize) {
+        int iIndex = _iMaxLocals;
+
+        _iMaxLocals += iSize;
+        return iIndex;
+    }
+
+    /**
+     * Create a new label.
+     *
+     * @return number of the label
+     */
+    public int newLabel() {
+        if (_iLabels == _aiLabelPositions.length) {
+            _aiLabelPositions = Arrays.copyOf(_aiLabelPositions, _iLabels * 2);
+            _aiLabelStacks = Arrays.copyOf(_aiLabelStacks, _iLabels * 2);
+        }
+
+        _aiLabelPositions[_iLabels] = -1;
+        _aiLabelStacks[_iLabels] = -1;
+        return _iLabels++;
+    }
+
+    /**
+     * Place a label at the current position. If a jump to the label has been emitted before, the stack depth at the
+     * label is taken from the jump.
+     *
+     * @param iLabel number of the label
+     */
+    public void bind(final int iLabel) {
+        _aiLabelPositions[iLabel] = _iLength;
+
+        if (_aiLabelStacks[iLabel] >= 0) {
+            _iStack = _aiLabelStacks[iLabel];
+        }
+    }
+
+    private void reference(final int iLabel, final int iInstruction) {
+        if (_iFixups + 3 > _aiFixups.length) {
+            _aiFixups = Arrays.copyOf(_aiFixups, _aiFixups.length * 2);
+        }
+
+        _aiFixups[_iFixups++] = _iLength;
+        _aiFixups[_iFixups++] = iInstruction;
+        _aiFixups[_iFixups++] = iLabel;
+        _aiLabelStacks[iLabel] = _iStack;
+        writeInt(0);
+    }
+
+    /**
+     * Record the source line of the code following.
+     *
+     * @param iLineNumber source line number
+     */
+    public void lineNumber(final int iLineNumber) {
+        if (iLineNumber <= 0 || iLineNumber > 0xFFFF) {
+            return;
+        }
+
+        if (_iLineNumbers + 2 > _aiLineNumbers.length) {
+            _aiLineNumbers = Arrays.copyOf(_aiLineNumbers, _aiLineNumbers.length * 2);
+        }
+
+        _aiLineNumbers[_iLineNumbers++] = _iLength;
+        _aiLineNumbers[_iLineNumbers++] = iLineNumber;
+    }
+
+    /**
+     * Emit an instruction without operands.
+     *
+     * @param iOpcode the opcode
+     * @param iStackDelta change of the stack depth
+     */
+    public void op(final int iOpcode, final int iStackDelta) {
+        writeByte(iOpcode);
+        stack(iStackDelta);
+    }
+
+    /**
+     * Emit a return from a void method.
+     */
+    public void returnVoid() {
+        writeByte(RETURN);
+        _iStack = 0;
+    }
+
+    /**
+     * Push an int constant.
+     *
+     * @param iValue value of the constant
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public void intConstant(final int iValue) throws CompileErrorException {
+        if (iValue >= -1 && iValue <= 5) {
+            writeByte(ICONST_0 + iValue);
+        } else if (iValue >= Byte.MIN_VALUE && iValue <= Byte.MAX_VALUE) {
+            writeByte(BIPUSH);
+            writeByte(iValue);
+        } else if (iValue >= Short.MIN_VALUE && iValue <= Short.MAX_VALUE) {
+            writeByte(SIPUSH);
+            writeShort(iValue);
+        } else {
+            int iIndex = _oClassFile.integer(iValue);
+
+            if (iIndex <= 0xFF) {
+                writeByte(LDC);
+                writeByte(iIndex);
+            } else {
+                writeByte(LDC_W);
+                writeShort(iIndex);
+            }
+        }
+
+        stack(1);
+    }
+
+    /**
+     * Push a double constant.
+     *
+     * @param dValue value of the constant
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public void doubleConstant(final double dValue) throws CompileErrorException {
+        if (Double.doubleToRawLongBits(dValue) == 0L) {
+            writeByte(DCONST_0);
+        } else if (dValue == 1.0) {
+            writeByte(DCONST_1);
+        } else {
+            writeByte(LDC2_W);
+            writeShort(_oClassFile.doubleConstant(dValue));
+        }
+
+        stack(2);
+    }
+
+    /**
+     * Load a local variable onto the stack, or store the top of the stack into a local variable.
+     *
+     * @param iOpcode one of ILOAD, DLOAD, ALOAD, ISTORE, DSTORE, or ASTORE
+     * @param iIndex index of the local variable
+     */
+    public void local(final int iOpcode, final int iIndex) {
+        if (iIndex > 0xFF) {
+            writeByte(WIDE);
+            writeByte(iOpcode);
+            writeShort(iIndex);
+        } else {
+            writeByte(iOpcode);
+            writeByte(iIndex);
+        }
+
+        switch (iOpcode) {
+            case ILOAD, ALOAD -> stack(1);
+            case DLOAD -> stack(2);
+            case ISTORE, ASTORE -> stack(-1);
+            default -> stack(-2);
+        }
+    }
+
+    /**
+     * Emit an instruction referring to a class: NEW or CHECKCAST.
+     *
+     * @param iOpcode the opcode
+     * @param strClassName internal name of the class
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public void type(final int iOpcode, final String strClassName) throws CompileErrorException {
+        writeByte(iOpcode);
+        writeShort(_oClassFile.classRef(strClassName));
+        stack(iOpcode == NEW ? 1 : 0);
+    }
+
+    /**
+     * Emit a field access: GETFIELD or PUTFIELD.
+     *
+     * @param iOpcode the opcode
+     * @param strOwner internal name of the class declaring the field
+     * @param strName name of the field
+     * @param strDescriptor type descriptor of the field
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public void field(final int iOpcode, final String strOwner, final String strName, final String strDescriptor)
+            throws CompileErrorException {
+        int iSize = strDescriptor.equals("D") || strDescriptor.equals("J") ? 2 : 1;
+
+        writeByte(iOpcode);
+        writeShort(_oClassFile.fieldRef(strOwner, strName, strDescriptor));
+        stack(iOpcode == GETFIELD ? iSize - 1 : -iSize - 1);
+    }
+
+    /**
+     * Emit a method call.
+     *
+     * @param iOpcode one of INVOKEVIRTUAL, INVOKESPECIAL, INVOKESTATIC, or INVOKEINTERFACE
+     * @param strOwner internal name of the class or interface declaring the method
+     * @param strName name of the method
+     * @param strDescriptor type descriptor of the method
+     * @throws CompileErrorException if the constant pool overflows
+     */
+    public void invoke(final int iOpcode, final String strOwner, final String strName, final String strDescriptor)
+            throws CompileErrorException {
+        int iArguments = argumentSlots(strDescriptor);
+        char cResult = strDescriptor.charAt(strDescriptor.indexOf(')') + 1);
+        int iResult = cResult == 'V' ? 0 : cResult == 'D' || cResult == 'J' ? 2 : 1;
+
+        if (iOpcode != INVOKESTATIC) {
+            iArguments++;
+        }
+
+        writeByte(iOpcode);
+
+        if (iOpcode == INVOKEINTERFACE) {
+            writeShort(_oClassFile.interfaceMethodRef(strOwner, strName, strDescriptor));
+            writeByte(iArguments);
+            writeByte(0);
+        } else {
+            writeShort(_oClassFile.methodRef(strOwner, strName, strDescriptor));
+        }
+
+        stack(iResult - iArguments);
+    }
+
+    private static int argumentSlots(final String strDescriptor) {
+        int iSlots = 0;
+        int iPosition = 1;
+
+        while (strDescriptor.charAt(iPosition) != ')') {
+            char cType = strDescriptor.charAt(iPosition);
+
+            if (cType == 'D' || cType == 'J') {
+                iSlots += 2;
+            } else {
+                iSlots++;
+            }
+
+            while (strDescriptor.charAt(iPosition) == '[') {
+                iPosition++;
+            }
+
+            if (strDescriptor.charAt(iPosition) == 'L') {
+                iPosition = strDescriptor.indexOf(';', iPosition);
+            }
+
+            iPosition++;
+        }
+
+        return iSlots;
+    }
+
+    /**
+     * Emit an unconditional jump.
+     *
+     * @param iLabel target of the jump
+     */
+    public void jump(final int iLabel) {
+        int iInstruction = _iLength;
+
+        writeByte(GOTO_W);
+        reference(iLabel, iInstruction);
+        _iStack = 0;
+    }
+
+    /**
+     * Emit a conditional jump. The condition is inverted to skip an unconditional jump to the target, so that the
+     * target can be anywhere in the method.
+     *
+     * @param iOpcode one of the IFxx or IF_ICMPxx opcodes
+     * @param iLabel target of the jump
+     */
+    public void branch(final int iOpcode, final int iLabel) {
+        int iInverted = (iOpcode >= IFEQ && iOpcode <= IFLE)
+                ? IFEQ + ((iOpcode - IFEQ) ^ 1)
+                : IF_ICMPEQ + ((iOpcode - IF_ICMPEQ) ^ 1);
+
+        writeByte(iInverted);
+        writeShort(8);
+        stack(iOpcode >= IF_ICMPEQ ? -2 : -1);
+
+        int iStack = _iStack;
+        jump(iLabel);
+        _iStack = iStack;
+    }
+
+    /**
+     * Emit a table switch over the int on top of the stack, with the cases 0 to n - 1.
+     *
+     * @param aiLabels targets of the cases
+     * @param iDefaultLabel target for all other values
+     */
+    public void tableSwitch(final int[] aiLabels, final int iDefaultLabel) {
+        int iInstruction = _iLength;
+
+        writeByte(TABLESWITCH);
+
+        while (_iLength % 4 != 0) {
+            writeByte(0);
+        }
+
+        stack(-1);
+        reference(iDefaultLabel, iInstruction);
+        writeInt(0);
+        writeInt(aiLabels.length - 1);
+
+        for (int iLabel : aiLabels) {
+            reference(iLabel, iInstruction);
+        }
+
+        _iStack = 0;
+    }
+
+    /**
+     * Get the maximum depth of the operand stack.
+     *
+     * @return maximum number of stack slots
+     */
+    public int getMaxStack() {
+        return _iMaxStack;
+    }
+
+    /**
+     * Get the number of local variable slots.
+     *
+     * @return number of local variable slots
+     */
+    public int getMaxLocals() {
+        return _iMaxLocals;
+    }
+
+    /**
+     * Get the line number table.
+     *
+     * @return pairs of code position and source line
+     */
+    public int[] getLineNumbers() {
+        return Arrays.copyOf(_aiLineNumbers, _iLineNumbers);
+    }
+
+    /**
+     * Resolve the jumps and return the code.
+     *
+     * @return the byte code of the method
+     * @throws CompileErrorException if the code is too large or a label has not been placed
+     */
+    public byte[] toByteArray() throws CompileErrorException {
+        if (_iLength > MAX_CODE_SIZE) {
+            throw new CompileErrorException("Method too large: " + _iLength + " bytes of code, the maximum is "
+                                                    + MAX_CODE_SIZE);
+        }
+
+        for (int iFixup = 0; iFixup < _iFixups; iFixup += 3) {
+            int iTarget = _aiLabelPositions[_aiFixups[iFixup + 2]];
+
+            if (iTarget < 0) {
+                throw new CompileErrorException("Jump to undefined label " + _aiFixups[iFixup + 2]);
+            }
+
+            putInt(_aiFixups[iFixup], iTarget - _aiFixups[iFixup + 1]);
+        }
+
+        return Arrays.copyOf(_abCode, _iLength);
+    }
+}
@@ -0,0 +1,21 @@
+package eu.gricom.basic.codeGenerator.jvm;
+
+/**
+ * CompiledProgram.java
+ * <p>
+ * Description:
+ * <p>
+ * A compiled program is a BASIC program translated into a JVM class by the bytecode compiler. Running it executes the
+ * statements of the program, in the same way the interpreter executes them.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public interface CompiledProgram {
+
+    /**
+     * Run the program. The environment (the DATA statements) has to be loaded before.
+     *
+     * @throws Exception on runtime errors of the BASIC program
+     */
+    void run() throws Exception;
+}
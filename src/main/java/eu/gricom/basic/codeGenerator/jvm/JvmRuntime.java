@@ -0,0 +1,93 @@
+package eu.gricom.basic.codeGenerator.jvm;
+
+import eu.gricom.basic.error.DivideByZeroException;
+import eu.gricom.basic.helper.Trace;
+import eu.gricom.basic.memoryManager.ProgramPointer;
+import eu.gricom.basic.statements.ForStatement;
+import eu.gricom.basic.statements.Statement;
+
+/**
+ * JvmRuntime.java
+ * <p>
+ * Description:
+ * <p>
+ * The JVM runtime contains the helper methods called by compiled programs, for the parts of a statement that are
+ * not translated into byte code.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class JvmRuntime {
+    private static final ProgramPointer PROGRAM_POINTER = new ProgramPointer();
+    private static final Trace TRACE = new Trace(false);
+
+    private JvmRuntime() {
+    }
+
+    /**
+     * Execute a statement by calling its statement object, as the interpreter does. The program pointer points to
+     * the following statement while the statement is executed, so that jumps work as in the interpreter.
+     *
+     * @param oStatement the statement
+     * @param iNextStatement number of the following statement
+     * @return number of the statement to continue with
+     * @throws Exception on runtime errors of the statement
+     */
+    public static int execute(final Statement oStatement, final int iNextStatement) throws Exception {
+        PROGRAM_POINTER.setCurrentStatement(iNextStatement);
+        oStatement.execute();
+
+        return PROGRAM_POINTER.getCurrentStatement();
+    }
+
+    /**
+     * Run the next step of a FOR loop, for its NEXT statement.
+     *
+     * @param oLoop the FOR statement of the loop
+     * @return true if the body of the loop is executed again
+     * @throws Exception on runtime errors of the loop
+     */
+    public static boolean next(final Statement oLoop) throws Exception {
+        return ((ForStatement) oLoop).next();
+    }
+
+    /**
+     * Trace the execution of a source line, if tracing has been switched on by a PRAGMA statement.
+     *
+     * @param iSourceLine BASIC source line number
+     */
+    public static void trace(final int iSourceLine) {
+        TRACE.trace(iSourceLine);
+    }
+
+    /**
+     * Divide two reals.
+     *
+     * @param dLeft dividend
+     * @param dRight divisor
+     * @return quotient
+     * @throws DivideByZeroException if the divisor is zero
+     */
+    public static double divide(final double dLeft, final double dRight) throws DivideByZeroException {
+        if (dRight == 0) {
+            throw new DivideByZeroException(dLeft + "/" + dRight + " is a division by zero");
+        }
+
+        return dLeft / dRight;
+    }
+
+    /**
+     * Divide two integers.
+     *
+     * @param iLeft dividend
+     * @param iRight divisor
+     * @return quotient
+     * @throws DivideByZeroException if the divisor is zero
+     */
+    public static int divide(final int iLeft, final int iRight) throws DivideByZeroException {
+        if (iRight == 0) {
+            throw new DivideByZeroException(iLeft + "/" + iRight + " is a division by zero");
+        }
+
+        return iLeft / iRight;
+    }
+}
@@ -0,0 +1,33 @@
+package eu.gricom.basic.codeGenerator.jvm;
+
+/**
+ * ProgramClassLoader.java
+ * <p>
+ * Description:
+ * <p>
+ * Every compiled program is defined by its own class loader, so that the class can be unloaded together with the
+ * program and the names of different programs do not collide. The parent is the class loader of the interpreter,
+ * which resolves the runtime classes the compiled program calls.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+final class ProgramClassLoader extends ClassLoader {
+
+    /**
+     * Default constructor.
+     */
+    ProgramClassLoader() {
+        super(ProgramClassLoader.class.getClassLoader());
+    }
+
+    /**
+     * Define the class of a compiled program.
+     *
+     * @param strClassName binary name of the class
+     * @param abClassFile content of the class file
+     * @return the class
+     */
+    Class<?> define(final String strClassName, final byte[] abClassFile) {
+        return defineClass(strClassName, abClassFile, 0, abClassFile.length);
+    }
+}
@@ -0,0 +1,81 @@
+package eu.gricom.basic.codeGenerator.pcode;
+
+/**
+ * PCode.java
+ * <p>
+ * Description:
+ * <p>
+ * The p-code format stores a linked program in a compact binary form, which can be loaded and executed without
+ * macro processing, lexer, parser, and linker. All numbers are stored big-endian. The file consists of:
+ * <ul>
+ *     <li>the header: the magic number, the version of the format, and the name of the program,</li>
+ *     <li>the constant pool: the literals and names of the program, each one stored once, with a tag for its
+ *     type,</li>
+ *     <li>the code: an array of ints holding the statements of the program and then the pre-run statements. A
+ *     statement is its opcode followed by its operands; expressions are stored in the same way, nested into the
+ *     operands of their statement. Literals and names are indices into the constant pool, the jump targets of the
+ *     statements are stored as resolved by the linker,</li>
+ *     <li>the line table: the first statement and the BASIC line number of every line of the program.</li>
+ * </ul>
+ * Any change of the opcodes or their operands needs a new version of the format: files of other versions are
+ * rejected by the loader.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class PCode {
+    /**
+     * Magic number at the start of every p-code file: "GDPC".
+     */
+    public static final int MAGIC = 0x47445043;
+
+    /**
+     * Version of the format.
+     */
+    public static final int VERSION = 2;
+
+    // tags of the constant pool
+    static final int TAG_REAL = 1;
+    static final int TAG_INTEGER = 2;
+    static final int TAG_LONG = 3;
+    static final int TAG_STRING = 4;
+    static final int TAG_BOOLEAN = 5;
+    static final int TAG_NAME = 6;
+
+    // statements: opcode, followed by the operands
+    static final int ASSIGN = 1;        // target, expression
+    static final int PRINT = 2;         // line feed (0/1), number of expressions, expressions
+    static final int GOTO = 3;          // links
+    static final int GOSUB = 4;         // links
+    static final int RETURN = 5;
+    static final int END = 6;
+    static final int IF = 7;            // has ELSE (0/1), condition, links
+    static final int ELSE = 8;
+    static final int FOR = 9;           // name, start value, end value, step size, links
+    static final int NEXT = 10;
+    static final int WHILE = 11;        // condition, links
+    static final int END_WHILE = 12;
+    static final int DO = 13;           // links
+    static final int UNTIL = 14;        // condition
+    static final int INPUT = 15;        // name
+    static final int READ = 16;         // number of targets, targets
+    static final int DATA = 17;         // number of values, constants
+    static final int DIM = 18;          // number of arrays, for every array: name, number of dimensions, bounds
+    static final int OPTION = 19;       // base
+    static final int PRAGMA = 20;       // setting, value
+    static final int REM = 21;          // text
+    static final int CLEAN = 22;
+    static final int COLON = 23;
+
+    // expressions: opcode, followed by the operands
+    static final int CONSTANT = 64;     // constant
+    static final int VARIABLE = 65;     // name
+    static final int ARRAY = 66;        // name, number of indices, indices
+    static final int OPERATOR = 67;     // operator, left side, right side
+    static final int UNARY = 68;        // operator, operand
+    static final int FUNCTION = 69;     // function, number of parameters, parameters
+    static final int FN = 70;           // name, number of parameters, parameters
+    static final int SUBSTRING = 71;    // string, number of positions, positions
+
+    private PCode() {
+    }
+}
@@ -0,0 +1,441 @@
+package eu.gricom.basic.codeGenerator.pcode;
+
+import eu.gricom.basic.error.CompileErrorException;
+import eu.gricom.basic.error.SyntaxErrorException;
+import eu.gricom.basic.functions.FnFunction;
+import eu.gricom.basic.functions.Function;
+import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.monitoring.Events;
+import eu.gricom.basic.monitoring.FileEvent;
+import eu.gricom.basic.statements.ArrayExpression;
+import eu.gricom.basic.statements.AssignStatement;
+import eu.gricom.basic.statements.AssignableExpression;
+import eu.gricom.basic.statements.CleanStatement;
+import eu.gricom.basic.statements.ColonStatement;
+import eu.gricom.basic.statements.DataStatement;
+import eu.gricom.basic.statements.DimStatement;
+import eu.gricom.basic.statements.DoStatement;
+import eu.gricom.basic.statements.ElseStatement;
+import eu.gricom.basic.statements.EndStatement;
+import eu.gricom.basic.statements.EndWhileStatement;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.ForStatement;
+import eu.gricom.basic.statements.GosubStatement;
+import eu.gricom.basic.statements.GotoStatement;
+import eu.gricom.basic.statements.IfThenStatement;
+import eu.gricom.basic.statements.InputStatement;
+import eu.gricom.basic.statements.LinkableStatement;
+import eu.gricom.basic.statements.NextStatement;
+import eu.gricom.basic.statements.OperatorExpression;
+import eu.gricom.basic.statements.OptionStatement;
+import eu.gricom.basic.statements.PragmaStatement;
+import eu.gricom.basic.statements.PrintStatement;
+import eu.gricom.basic.statements.ReadStatement;
+import eu.gricom.basic.statements.RemStatement;
+import eu.gricom.basic.statements.ReturnStatement;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.statements.SubStringExpression;
+import eu.gricom.basic.statements.UnaryOperatorExpression;
+import eu.gricom.basic.statements.UntilStatement;
+import eu.gricom.basic.statements.VariableExpression;
+import eu.gricom.basic.statements.WhileStatement;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.tokenizer.Token;
+import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.LongValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PCodeLoader.java
+ * <p>
+ * Description:
+ * <p>
+ * The p-code loader reads a p-code file and creates the statements of the program from it, with the jump targets
+ * already resolved: the program can be executed right away, without macro processing, lexer, parser, and linker.
+ * The file is read completely and decoded in one pass over the code.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class PCodeLoader {
+    private Object[] _aoConstants;
+    private int[] _aiCode;
+    private int _iPosition;
+    private LineNumberXRef _oLineNumbers;
+
+    /**
+     * Load a p-code file.
+     *
+     * @param strFileName name of the p-code file
+     * @return the program, ready to be executed
+     * @throws CompileErrorException if the file cannot be read, or is not a p-code file of this version
+     */
+    public Program load(final String strFileName) throws CompileErrorException {
+        try {
+            FileEvent oEvent = Events.startFile();
+            byte[] abPCode = Files.readAllBytes(Path.of(strFileName));
+            Events.endFile(oEvent, Events.READ, strFileName, abPCode.length);
+
+            return load(abPCode);
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot read p-code file " + strFileName + ": " + eException.getMessage());
+        }
+    }
+
+    /**
+     * Load the content of a p-code file.
+     *
+     * @param abPCode content of the p-code file
+     * @return the program, ready to be executed
+     * @throws CompileErrorException if the content is not p-code of this version
+     */
+    public Program load(final byte[] abPCode) throws CompileErrorException {
+        ByteBuffer oBuffer = ByteBuffer.wrap(abPCode);
+
+        try {
+            if (oBuffer.getInt() != PCode.MAGIC) {
+                throw new CompileErrorException("Not a p-code file");
+            }
+
+            int iVersion = oBuffer.getInt();
+            if (iVersion != PCode.VERSION) {
+                throw new CompileErrorException("P-code version " + iVersion + " not supported, expected version "
+                                                        + PCode.VERSION);
+            }
+
+            String strProgramName = readString(oBuffer);
+
+            _aoConstants = new Object[oBuffer.getInt()];
+            for (int iIndex = 0; iIndex < _aoConstants.length; iIndex++) {
+                _aoConstants[iIndex] = readConstant(oBuffer);
+            }
+
+            int iStatements = oBuffer.getInt();
+            int iPreRunStatements = oBuffer.getInt();
+
+            _aiCode = new int[oBuffer.getInt()];
+            oBuffer.asIntBuffer().get(_aiCode);
+            oBuffer.position(oBuffer.position() + _aiCode.length * Integer.BYTES);
+
+            // expand the line table to the line of every statement
+            int[] aiStatementLines = new int[iStatements];
+            int iLines = oBuffer.getInt();
+            int iLastStatement = 0;
+            int iLastLine = 0;
+
+            for (int iLine = 0; iLine < iLines; iLine++) {
+                int iStatement = oBuffer.getInt();
+                int iLineNumber = oBuffer.getInt();
+
+                for (int iIndex = iLastStatement; iIndex < iStatement; iIndex++) {
+                    aiStatementLines[iIndex] = iLastLine;
+                }
+
+                iLastStatement = iStatement;
+                iLastLine = iLineNumber;
+            }
+
+            for (int iIndex = iLastStatement; iIndex < iStatements; iIndex++) {
+                aiStatementLines[iIndex] = iLastLine;
+            }
+
+            _oLineNumbers = new LineNumberXRef(aiStatementLines);
+            _iPosition = 0;
+
+            List<Statement> aoStatements = new ArrayList<>(iStatements);
+            for (int iStatement = 0; iStatement < iStatements; iStatement++) {
+                aoStatements.add(readStatement(iStatement));
+            }
+
+            connectLoops(aoStatements);
+
+            List<Statement> aoPreRunStatements = new ArrayList<>(iPreRunStatements);
+            for (int iStatement = 0; iStatement < iPreRunStatements; iStatement++) {
+                aoPreRunStatements.add(readStatement(0));
+            }
+
+            Program oProgram = new Program();
+            oProgram.load(strProgramName, null);
+            oProgram.setStatements(aoStatements);
+            oProgram.setPreRunStatements(aoPreRunStatements);
+            oProgram.setLineNumber(_oLineNumbers);
+
+            return oProgram;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException
+                 | IllegalArgumentException | SyntaxErrorException eException) {
+            throw new CompileErrorException("Corrupt p-code file: " + eException);
+        }
+    }
+
+    /**
+     * Read a statement with its operands.
+     *
+     * @param iTokenNumber token number of the statement: the statement number
+     * @return the statement
+     * @throws CompileErrorException for unknown opcodes
+     * @throws SyntaxErrorException for invalid variable names
+     */
+    private Statement readStatement(final int iTokenNumber) throws CompileErrorException, SyntaxErrorException {
+        int iOpcode = next();
+
+        return switch (iOpcode) {
+            case PCode.ASSIGN -> new AssignStatement(iTokenNumber, (AssignableExpression) readExpression(),
+                                                     readExpression());
+            case PCode.PRINT -> {
+                boolean bLineFeed = next() != 0;
+                yield new PrintStatement(iTokenNumber, readExpressions(), bLineFeed);
+            }
+            case PCode.GOTO -> {
+                int[] aiLinks = readLinks();
+                yield linked(new GotoStatement(iTokenNumber, getLine(aiLinks[0])), aiLinks);
+            }
+            case PCode.GOSUB -> {
+                int[] aiLinks = readLinks();
+                yield linked(new GosubStatement(iTokenNumber, getLine(aiLinks[0])), aiLinks);
+            }
+            case PCode.RETURN -> new ReturnStatement(iTokenNumber);
+            case PCode.END -> new EndStatement(iTokenNumber);
+            case PCode.IF -> {
+                int iElse = next();
+                Expression oCondition = readExpression();
+                int[] aiLinks = readLinks();
+                int iTargetLine = aiLinks[0] >= 0 ? _oLineNumbers.getLineNumberFromStatement(aiLinks[0]) : 0;
+                yield linked(new IfThenStatement(oCondition, iTokenNumber, iElse, 0, iTargetLine), aiLinks);
+            }
+            case PCode.ELSE -> new ElseStatement(iTokenNumber);
+            case PCode.FOR -> {
+                String strName = getName(next());
+                Expression oStartValue = readExpression();
+                Expression oEndValue = readExpression();
+                Expression oStepSize = readExpression();
+                yield linked(new ForStatement(iTokenNumber, strName, oStartValue, oEndValue, oStepSize, 0),
+                             readLinks());
+            }
+            case PCode.NEXT -> new NextStatement(iTokenNumber);
+            case PCode.WHILE -> linked(new WhileStatement(iTokenNumber, readExpression(), 0), readLinks());
+            case PCode.END_WHILE -> new EndWhileStatement(iTokenNumber);
+            case PCode.DO -> linked(new DoStatement(iTokenNumber), readLinks());
+            case PCode.UNTIL -> new UntilStatement(iTokenNumber, readExpression());
+            case PCode.INPUT -> new InputStatement(iTokenNumber, getName(next()));
+            case PCode.READ -> {
+                int iTargets = next();
+                List<AssignableExpression> aoTargets = new ArrayList<>(iTargets);
+
+                for (int iTarget = 0; iTarget < iTargets; iTarget++) {
+                    aoTargets.add((AssignableExpression) readExpression());
+                }
+                yield new ReadStatement(iTokenNumber, aoTargets);
+            }
+            case PCode.DATA -> {
+                int iValues = next();
+                List<Value> aoValues = new ArrayList<>(iValues);
+
+                for (int iValue = 0; iValue < iValues; iValue++) {
+                    aoValues.add((Value) _aoConstants[next()]);
+                }
+                yield new DataStatement(iTokenNumber, aoValues);
+            }
+            case PCode.DIM -> {
+                int iArrays = next();
+                List<String> astrNames = new ArrayList<>(iArrays);
+                List<List<Expression>> aoUpperBounds = new ArrayList<>(iArrays);
+
+                for (int iArray = 0; iArray < iArrays; iArray++) {
+                    astrNames.add(getName(next()));
+                    aoUpperBounds.add(readExpressions());
+                }
+                yield new DimStatement(iTokenNumber, astrNames, aoUpperBounds);
+            }
+            case PCode.OPTION -> new OptionStatement(iTokenNumber, next());
+            case PCode.PRAGMA -> new PragmaStatement(iTokenNumber, getName(next()), getName(next()));
+            case PCode.REM -> new RemStatement(iTokenNumber, getName(next()));
+            case PCode.CLEAN -> new CleanStatement(iTokenNumber);
+            case PCode.COLON -> new ColonStatement(iTokenNumber);
+            default -> throw new CompileErrorException("Unknown statement opcode " + iOpcode + " in p-code at "
+                                                               + (_iPosition - 1));
+        };
+    }
+
+    /**
+     * Read an expression with its operands.
+     *
+     * @return the expression
+     * @throws CompileErrorException for unknown opcodes
+     * @throws SyntaxErrorException for invalid variable names
+     */
+    private Expression readExpression() throws CompileErrorException, SyntaxErrorException {
+        int iOpcode = next();
+
+        return switch (iOpcode) {
+            case PCode.CONSTANT -> (Value) _aoConstants[next()];
+            case PCode.VARIABLE -> new VariableExpression(getName(next()));
+            case PCode.ARRAY -> new ArrayExpression(getName(next()), readExpressions());
+            case PCode.OPERATOR -> {
+                BasicTokenType eOperator = BasicTokenType.valueOf(getName(next()));
+                Expression oLeft = readExpression();
+                yield new OperatorExpression(oLeft, eOperator, readExpression());
+            }
+            case PCode.UNARY -> {
+                BasicTokenType eOperator = BasicTokenType.valueOf(getName(next()));
+                yield new UnaryOperatorExpression(eOperator, readExpression());
+            }
+            case PCode.FUNCTION -> {
+                String strFunction = getName(next());
+                Token oToken = new Token(strFunction, BasicTokenType.valueOf(strFunction), 0);
+                List<Expression> aoParameters = readExpressions();
+
+                yield switch (aoParameters.size()) {
+                    case 0 -> new Function(oToken);
+                    case 1 -> new Function(oToken, aoParameters.get(0));
+                    case 2 -> new Function(oToken, aoParameters.get(0), aoParameters.get(1));
+                    default -> new Function(oToken, aoParameters.get(0), aoParameters.get(1), aoParameters.get(2));
+                };
+            }
+            case PCode.FN -> new FnFunction(getName(next()), readExpressions());
+            case PCode.SUBSTRING -> {
+                Expression oString = readExpression();
+                List<Expression> aoPositions = readExpressions();
+                yield new SubStringExpression(oString, aoPositions.get(0),
+                                              aoPositions.size() > 1 ? aoPositions.get(1) : null);
+            }
+            default -> throw new CompileErrorException("Unknown expression opcode " + iOpcode + " in p-code at "
+                                                               + (_iPosition - 1));
+        };
+    }
+
+    /**
+     * Read a list of expressions, preceded by their number.
+     *
+     * @return the expressions
+     * @throws CompileErrorException for unknown opcodes
+     * @throws SyntaxErrorException for invalid variable names
+     */
+    private List<Expression> readExpressions() throws CompileErrorException, SyntaxErrorException {
+        int iExpressions = next();
+        List<Expression> aoExpressions = new ArrayList<>(iExpressions);
+
+        for (int iExpression = 0; iExpression < iExpressions; iExpression++) {
+            aoExpressions.add(readExpression());
+        }
+
+        return aoExpressions;
+    }
+
+    /**
+     * Read the jump targets of a statement, preceded by their number.
+     *
+     * @return statement numbers of the jump targets
+     */
+    private int[] readLinks() {
+        int[] aiLinks = new int[next()];
+
+        for (int iLink = 0; iLink < aiLinks.length; iLink++) {
+            aiLinks[iLink] = next();
+        }
+
+        return aiLinks;
+    }
+
+    /**
+     * Connect the "Next" statements to their "For" statements, as done by the linker. The "Next" statement of a loop
+     * is the statement before the exit of the loop.
+     *
+     * @param aoStatements the statements of the program
+     */
+    private static void connectLoops(final List<Statement> aoStatements) {
+        for (Statement oStatement : aoStatements) {
+            if (oStatement instanceof ForStatement oFor) {
+                ((NextStatement) aoStatements.get(oFor.getLinks()[1] - 1)).setLoop(oFor);
+            }
+        }
+    }
+
+    /**
+     * Restore the jump targets of a statement.
+     *
+     * @param oStatement the statement
+     * @param aiLinks statement numbers of the jump targets
+     * @return the statement
+     */
+    private static Statement linked(final LinkableStatement oStatement, final int[] aiLinks) {
+        oStatement.setLinks(aiLinks);
+
+        return oStatement;
+    }
+
+    /**
+     * Get the BASIC line of a jump target, as the text of a GOTO or GOSUB statement.
+     *
+     * @param iStatement statement number of the target
+     * @return line number as a string
+     */
+    private String getLine(final int iStatement) {
+        return Integer.toString(_oLineNumbers.getLineNumberFromStatement(iStatement));
+    }
+
+    /**
+     * Get a name from the constant pool.
+     *
+     * @param iIndex index in the constant pool
+     * @return the name
+     */
+    private String getName(final int iIndex) {
+        return (String) _aoConstants[iIndex];
+    }
+
+    /**
+     * Get the next int of the code.
+     *
+     * @return opcode or operand
+     */
+    private int next() {
+        return _aiCode[_iPosition++];
+    }
+
+    /**
+     * Read an entry of the constant pool.
+     *
+     * @param oBuffer the content of the file
+     * @return the constant: a value, or a name
+     * @throws CompileErrorException for unknown tags
+     */
+    private static Object readConstant(final ByteBuffer oBuffer) throws CompileErrorException {
+        int iTag = oBuffer.get();
+
+        return switch (iTag) {
+            case PCode.TAG_REAL -> new RealValue(oBuffer.getDouble());
+            case PCode.TAG_INTEGER -> IntegerValue.valueOf(oBuffer.getInt());
+            case PCode.TAG_LONG -> new LongValue(oBuffer.getLong());
+            case PCode.TAG_STRING -> new StringValue(readString(oBuffer));
+            case PCode.TAG_BOOLEAN -> BooleanValue.valueOf(oBuffer.get() != 0);
+            case PCode.TAG_NAME -> readString(oBuffer);
+            default -> throw new CompileErrorException("Unknown constant tag " + iTag + " in p-code");
+        };
+    }
+
+    /**
+     * Read a string: its length in bytes, followed by the UTF-8 encoded characters.
+     *
+     * @param oBuffer the content of the file
+     * @return the string
+     */
+    private static String readString(final ByteBuffer oBuffer) {
+        int iLength = oBuffer.getInt();
+        String strText = new String(oBuffer.array(), oBuffer.position(), iLength, StandardCharsets.UTF_8);
+        oBuffer.position(oBuffer.position() + iLength);
+
+        return strText;
+    }
+}
@@ -0,0 +1,462 @@
+package eu.gricom.basic.codeGenerator.pcode;
+
+import eu.gricom.basic.error.CompileErrorException;
+import eu.gricom.basic.functions.FnFunction;
+import eu.gricom.basic.functions.Function;
+import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.statements.ArrayExpression;
+import eu.gricom.basic.statements.AssignStatement;
+import eu.gricom.basic.statements.AssignableExpression;
+import eu.gricom.basic.statements.CleanStatement;
+import eu.gricom.basic.statements.ColonStatement;
+import eu.gricom.basic.statements.DataStatement;
+import eu.gricom.basic.statements.DimStatement;
+import eu.gricom.basic.statements.DoStatement;
+import eu.gricom.basic.statements.ElseStatement;
+import eu.gricom.basic.statements.EndStatement;
+import eu.gricom.basic.statements.EndWhileStatement;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.ForStatement;
+import eu.gricom.basic.statements.GosubStatement;
+import eu.gricom.basic.statements.GotoStatement;
+import eu.gricom.basic.statements.IfThenStatement;
+import eu.gricom.basic.statements.InputStatement;
+import eu.gricom.basic.statements.LinkableStatement;
+import eu.gricom.basic.statements.NextStatement;
+import eu.gricom.basic.statements.OperatorExpression;
+import eu.gricom.basic.statements.OptionStatement;
+import eu.gricom.basic.statements.PragmaStatement;
+import eu.gricom.basic.statements.PrintStatement;
+import eu.gricom.basic.statements.ReadStatement;
+import eu.gricom.basic.statements.RemStatement;
+import eu.gricom.basic.statements.ReturnStatement;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.statements.SubStringExpression;
+import eu.gricom.basic.statements.UnaryOperatorExpression;
+import eu.gricom.basic.statements.UntilStatement;
+import eu.gricom.basic.statements.VariableExpression;
+import eu.gricom.basic.statements.WhileStatement;
+import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.LongValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PCodeWriter.java
+ * <p>
+ * Description:
+ * <p>
+ * The p-code writer translates a linked program into the p-code format described in PCode. The statements are
+ * written in the order of the program, so that the statement numbers, and with them the jump targets resolved by
+ * the linker, stay valid when the program is loaded.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class PCodeWriter {
+    private final Program _oProgram;
+    private final List<Object> _aoConstants = new ArrayList<>();
+    private final Map<Object, Integer> _aiConstantIndices = new HashMap<>();
+    private int[] _aiCode = new int[1024];
+    private int _iCodeSize = 0;
+
+    /**
+     * Default constructor.
+     *
+     * @param oProgram the linked program
+     */
+    public PCodeWriter(final Program oProgram) {
+        _oProgram = oProgram;
+    }
+
+    /**
+     * Translate the program into p-code.
+     *
+     * @return the content of the p-code file
+     * @throws CompileErrorException if the program is empty or contains a statement or expression without p-code
+     */
+    public byte[] write() throws CompileErrorException {
+        List<Statement> aoStatements = _oProgram.getStatements();
+        List<Statement> aoPreRunStatements = _oProgram.getPreRunStatements() != null
+                ? _oProgram.getPreRunStatements() : List.of();
+
+        if (aoStatements == null) {
+            throw new CompileErrorException("Parsing delivered empty program");
+        }
+
+        for (Statement oStatement : aoStatements) {
+            writeStatement(oStatement);
+        }
+
+        for (Statement oStatement : aoPreRunStatements) {
+            writeStatement(oStatement);
+        }
+
+        // the line table holds the first statement of every line
+        LineNumberXRef oLineNumbers = _oProgram.getLineNumbers();
+        List<int[]> aiLines = new ArrayList<>();
+        int iLastLine = Integer.MIN_VALUE;
+
+        for (int iStatement = 0; iStatement < aoStatements.size(); iStatement++) {
+            int iLine = oLineNumbers.getLineNumberFromStatement(iStatement);
+
+            if (iLine != iLastLine) {
+                aiLines.add(new int[] {iStatement, iLine});
+                iLastLine = iLine;
+            }
+        }
+
+        ByteArrayOutputStream oBytes = new ByteArrayOutputStream(_iCodeSize * 4 + 1024);
+
+        try (DataOutputStream oOut = new DataOutputStream(oBytes)) {
+            oOut.writeInt(PCode.MAGIC);
+            oOut.writeInt(PCode.VERSION);
+            writeString(oOut, _oProgram.getProgramName() != null ? _oProgram.getProgramName() : "");
+
+            oOut.writeInt(_aoConstants.size());
+            for (Object oConstant : _aoConstants) {
+                writeConstant(oOut, oConstant);
+            }
+
+            oOut.writeInt(aoStatements.size());
+            oOut.writeInt(aoPreRunStatements.size());
+            oOut.writeInt(_iCodeSize);
+            for (int iIndex = 0; iIndex < _iCodeSize; iIndex++) {
+                oOut.writeInt(_aiCode[iIndex]);
+            }
+
+            oOut.writeInt(aiLines.size());
+            for (int[] aiLine : aiLines) {
+                oOut.writeInt(aiLine[0]);
+                oOut.writeInt(aiLine[1]);
+            }
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot write p-code: " + eException.getMessage());
+        }
+
+        return oBytes.toByteArray();
+    }
+
+    /**
+     * Write a statement with its operands.
+     *
+     * @param oStatement the statement
+     * @throws CompileErrorException if the statement has no p-code
+     */
+    private void writeStatement(final Statement oStatement) throws CompileErrorException {
+        switch (oStatement) {
+            case AssignStatement oAssign -> {
+                emit(PCode.ASSIGN);
+                writeExpression(oAssign.getTarget());
+                writeExpression(oAssign.getExpression());
+            }
+
+            case PrintStatement oPrint -> {
+                emit(PCode.PRINT);
+                emit(oPrint.hasLineFeed() ? 1 : 0);
+                writeExpressions(oPrint.getExpressions());
+            }
+
+            case GotoStatement oGoto -> {
+                emit(PCode.GOTO);
+                writeLinks(oGoto);
+            }
+
+            case GosubStatement oGosub -> {
+                emit(PCode.GOSUB);
+                writeLinks(oGosub);
+            }
+
+            case ReturnStatement ignored -> emit(PCode.RETURN);
+
+            case EndStatement ignored -> emit(PCode.END);
+
+            case IfThenStatement oIf -> {
+                emit(PCode.IF);
+                emit(oIf.hasElse() ? 1 : 0);
+                writeExpression(oIf.getCondition());
+                writeLinks(oIf);
+            }
+
+            case ElseStatement ignored -> emit(PCode.ELSE);
+
+            case ForStatement oFor -> {
+                emit(PCode.FOR);
+                emit(getConstant(oFor.getName(), true));
+                writeExpression(oFor.getStartValue());
+                writeExpression(oFor.getEndValue());
+                writeExpression(oFor.getStepSize());
+                writeLinks(oFor);
+            }
+
+            case NextStatement ignored -> emit(PCode.NEXT);
+
+            case WhileStatement oWhile -> {
+                emit(PCode.WHILE);
+                writeExpression(oWhile.getCondition());
+                writeLinks(oWhile);
+            }
+
+            case EndWhileStatement ignored -> emit(PCode.END_WHILE);
+
+            case DoStatement oDo -> {
+                emit(PCode.DO);
+                writeLinks(oDo);
+            }
+
+            case UntilStatement oUntil -> {
+                emit(PCode.UNTIL);
+                writeExpression(oUntil.getCondition());
+            }
+
+            case InputStatement oInput -> {
+                emit(PCode.INPUT);
+                emit(getConstant(oInput.getName(), true));
+            }
+
+            case ReadStatement oRead -> {
+                emit(PCode.READ);
+                writeExpressions(oRead.getTargets());
+            }
+
+            case DataStatement oData -> {
+                emit(PCode.DATA);
+                emit(oData.getValues().size());
+
+                for (Value oValue : oData.getValues()) {
+                    emit(getConstant(oValue, false));
+                }
+            }
+
+            case DimStatement oDim -> {
+                emit(PCode.DIM);
+                emit(oDim.getNames().length);
+
+                for (int iArray = 0; iArray < oDim.getNames().length; iArray++) {
+                    emit(getConstant(oDim.getNames()[iArray], true));
+                    writeExpressions(Arrays.asList(oDim.getUpperBounds()[iArray]));
+                }
+            }
+
+            case OptionStatement oOption -> {
+                emit(PCode.OPTION);
+                emit(oOption.getBase());
+            }
+
+            case PragmaStatement oPragma -> {
+                emit(PCode.PRAGMA);
+                emit(getConstant(oPragma.getParameter(), true));
+                emit(getConstant(oPragma.getValue(), true));
+            }
+
+            case RemStatement oRem -> {
+                emit(PCode.REM);
+                emit(getConstant(oRem.getText() != null ? oRem.getText() : "", true));
+            }
+
+            case CleanStatement ignored -> emit(PCode.CLEAN);
+
+            case ColonStatement ignored -> emit(PCode.COLON);
+
+            default -> throw new CompileErrorException("No p-code for statement "
+                                                               + oStatement.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Write an expression with its operands.
+     *
+     * @param oExpression the expression
+     * @throws CompileErrorException if the expression has no p-code
+     */
+    private void writeExpression(final Expression oExpression) throws CompileErrorException {
+        switch (oExpression) {
+            case Value oValue -> {
+                emit(PCode.CONSTANT);
+                emit(getConstant(oValue, false));
+            }
+
+            case VariableExpression oVariable -> {
+                emit(PCode.VARIABLE);
+                emit(getConstant(oVariable.getName(), true));
+            }
+
+            case ArrayExpression oArray -> {
+                emit(PCode.ARRAY);
+                emit(getConstant(oArray.getName(), true));
+                writeExpressions(Arrays.asList(oArray.getIndices()));
+            }
+
+            case OperatorExpression oOperator -> {
+                if (oOperator.getOperation() == null) {
+                    throw new CompileErrorException("No p-code for operator " + oOperator.getOperator());
+                }
+
+                emit(PCode.OPERATOR);
+                emit(getConstant(oOperator.getOperation().name(), true));
+                writeExpression(oOperator.getLeft());
+                writeExpression(oOperator.getRight());
+            }
+
+            case UnaryOperatorExpression oUnary -> {
+                emit(PCode.UNARY);
+                emit(getConstant(oUnary.getOperator().name(), true));
+                writeExpression(oUnary.getOperand());
+            }
+
+            case Function oFunction -> {
+                emit(PCode.FUNCTION);
+                emit(getConstant(oFunction.getFunction().name(), true));
+                writeExpressions(oFunction.getParameters());
+            }
+
+            case FnFunction oFunction -> {
+                emit(PCode.FN);
+                emit(getConstant(oFunction.getFunctionId(), true));
+                writeExpressions(oFunction.getParameters() != null ? oFunction.getParameters() : List.of());
+            }
+
+            case SubStringExpression oSubString -> {
+                emit(PCode.SUBSTRING);
+                writeExpression(oSubString.getString());
+                writeExpressions(oSubString.getEnd() != null
+                                         ? List.of(oSubString.getStart(), oSubString.getEnd())
+                                         : List.of(oSubString.getStart()));
+            }
+
+            default -> throw new CompileErrorException("No p-code for expression "
+                                                               + oExpression.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Write a list of expressions, preceded by their number.
+     *
+     * @param aoExpressions the expressions
+     * @throws CompileErrorException if an expression has no p-code
+     */
+    private void writeExpressions(final List<? extends Expression> aoExpressions) throws CompileErrorException {
+        emit(aoExpressions.size());
+
+        for (Expression oExpression : aoExpressions) {
+            writeExpression(oExpression);
+        }
+    }
+
+    /**
+     * Write the jump targets of a statement, as resolved by the linker, preceded by their number.
+     *
+     * @param oStatement the statement
+     */
+    private void writeLinks(final LinkableStatement oStatement) {
+        int[] aiLinks = oStatement.getLinks();
+        emit(aiLinks.length);
+
+        for (int iLink : aiLinks) {
+            emit(iLink);
+        }
+    }
+
+    /**
+     * Append an int to the code.
+     *
+     * @param iValue opcode or operand
+     */
+    private void emit(final int iValue) {
+        if (_iCodeSize == _aiCode.length) {
+            _aiCode = Arrays.copyOf(_aiCode, _iCodeSize * 2);
+        }
+
+        _aiCode[_iCodeSize++] = iValue;
+    }
+
+    /**
+     * Get the index of a constant in the constant pool, adding it if it is not in the pool yet.
+     *
+     * @param oConstant a value, or a name
+     * @param bName true for names, false for values
+     * @return index in the constant pool
+     * @throws CompileErrorException if the value has no p-code
+     */
+    private int getConstant(final Object oConstant, final boolean bName) throws CompileErrorException {
+        // values are identified by their type and text, so that e.g. 1 and 1.0 stay different constants
+        Object oKey = bName ? List.of(PCode.TAG_NAME, oConstant) : List.of(getTag(oConstant), oConstant.toString());
+        Integer iIndex = _aiConstantIndices.get(oKey);
+
+        if (iIndex == null) {
+            iIndex = _aoConstants.size();
+            _aoConstants.add(oConstant);
+            _aiConstantIndices.put(oKey, iIndex);
+        }
+
+        return iIndex;
+    }
+
+    /**
+     * Get the tag of a constant.
+     *
+     * @param oConstant the constant
+     * @return the tag
+     * @throws CompileErrorException if the value has no p-code
+     */
+    private static int getTag(final Object oConstant) throws CompileErrorException {
+        return switch (oConstant) {
+            case RealValue ignored -> PCode.TAG_REAL;
+            case IntegerValue ignored -> PCode.TAG_INTEGER;
+            case LongValue ignored -> PCode.TAG_LONG;
+            case StringValue ignored -> PCode.TAG_STRING;
+            case BooleanValue ignored -> PCode.TAG_BOOLEAN;
+            case String ignored -> PCode.TAG_NAME;
+            default -> throw new CompileErrorException("No p-code for constant "
+                                                               + oConstant.getClass().getSimpleName());
+        };
+    }
+
+    /**
+     * Write an entry of the constant pool.
+     *
+     * @param oOut the output
+     * @param oConstant the constant
+     * @throws IOException if the output cannot be written
+     * @throws CompileErrorException if the value has no p-code
+     */
+    private static void writeConstant(final DataOutputStream oOut, final Object oConstant)
+            throws IOException, CompileErrorException {
+        int iTag = getTag(oConstant);
+        oOut.writeByte(iTag);
+
+        switch (iTag) {
+            case PCode.TAG_REAL -> oOut.writeDouble(((RealValue) oConstant).toReal());
+            case PCode.TAG_INTEGER -> oOut.writeInt(((IntegerValue) oConstant).toInt());
+            case PCode.TAG_LONG -> oOut.writeLong(((LongValue) oConstant).toLong());
+            case PCode.TAG_BOOLEAN -> oOut.writeByte(((BooleanValue) oConstant).isTrue() ? 1 : 0);
+            default -> writeString(oOut, oConstant.toString());
+        }
+    }
+
+    /**
+     * Write a string: its length in bytes, followed by the UTF-8 encoded characters.
+     *
+     * @param oOut the output
+     * @param strText the string
+     * @throws IOException if the output cannot be written
+     */
+    private static void writeString(final DataOutputStream oOut, final String strText) throws IOException {
+        byte[] abText = strText.getBytes(StandardCharsets.UTF_8);
+
+        oOut.writeInt(abText.length);
+        oOut.write(abText);
+    }
+}
@@ -0,0 +1,212 @@
+package eu.gricom.basic.codeGenerator.pcode;
+
+import eu.gricom.basic.error.CompileErrorException;
+import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.monitoring.Events;
+import eu.gricom.basic.monitoring.FileEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * ProgramCache.java
+ * <p>
+ * Description:
+ * <p>
+ * The program cache keeps the linked programs in a directory as p-code files, so that a program which is run again
+ * without changes is loaded directly, without macro processing, tokenization, parsing, and linking. The name of an
+ * entry is a SHA-256 hash over the source code, the name of the program, the version of the interpreter and of the
+ * p-code format, and the flags changing the parser: a changed source or a new version of the interpreter produces a
+ * new key, and the old entry is not used anymore.
+ * <p>
+ * Entries are written to a temporary file, which is then renamed, so that a program running in parallel never reads
+ * a partly written entry. An entry that cannot be loaded is deleted. When the entries grow beyond the maximum size of
+ * the cache, the least recently used entries are deleted.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class ProgramCache {
+    /**
+     * Default maximum size of the cache in bytes.
+     */
+    public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+    private static final String EXTENSION = ".obj";
+
+    private final Logger _oLogger = new Logger(this.getClass().getName());
+    private final Path _oDirectory;
+    private final long _lMaxSize;
+
+    /**
+     * Default constructor.
+     *
+     * @param strDirectory directory of the cache, created if it does not exist
+     * @param lMaxSize maximum size of all entries in bytes
+     * @throws CompileErrorException if the directory cannot be created
+     */
+    public ProgramCache(final String strDirectory, final long lMaxSize) throws CompileErrorException {
+        _oDirectory = Path.of(strDirectory);
+        _lMaxSize = lMaxSize;
+
+        try {
+            Files.createDirectories(_oDirectory);
+        } catch (IOException eException) {
+            throw new CompileErrorException("Cannot create cache directory " + strDirectory + ": "
+                                                    + eException.getMessage());
+        }
+    }
+
+    /**
+     * Calculate the key of a program.
+     *
+     * @param oProgram the program, with its source code as read from the file
+     * @param strVersion version of the interpreter
+     * @param strFlags the flags changing the translation of the program
+     * @return the key of the program in the cache
+     */
+    public static String getKey(final Program oProgram, final String strVersion, final String strFlags) {
+        try {
+            MessageDigest oDigest = MessageDigest.getInstance("SHA-256");
+
+            for (String strPart : new String[] {strVersion, Integer.toString(PCode.VERSION), strFlags,
+                                                oProgram.getProgramName(), oProgram.getProgram()}) {
+                oDigest.update((strPart != null ? strPart : "").getBytes(StandardCharsets.UTF_8));
+                oDigest.update((byte) 0);
+            }
+
+            return HexFormat.of().formatHex(oDigest.digest());
+        } catch (NoSuchAlgorithmException eException) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(eException);
+        }
+    }
+
+    /**
+     * Load a program from the cache.
+     *
+     * @param strKey key of the program
+     * @return the linked program, or null if the cache holds no valid entry for the key
+     */
+    public Program load(final String strKey) {
+        Path oEntry = getEntry(strKey);
+        FileEvent oEvent = Events.startFile();
+
+        try {
+            byte[] abPCode = Files.readAllBytes(oEntry);
+            Events.endFile(oEvent, Events.READ, oEntry.toString(), abPCode.length);
+
+            Program oProgram = new PCodeLoader().load(abPCode);
+
+            // mark the entry as recently used
+            Files.setLastModifiedTime(oEntry, FileTime.fromMillis(System.currentTimeMillis()));
+            _oLogger.info("Program loaded from cache: " + oEntry);
+
+            return oProgram;
+        } catch (NoSuchFileException eException) {
+            return null;
+        } catch (IOException eException) {
+            _oLogger.warning("Cannot read cache entry " + oEntry + ": " + eException.getMessage());
+            return null;
+        } catch (CompileErrorException eException) {
+            _oLogger.warning("Invalid cache entry " + oEntry + " deleted: " + eException.getMessage());
+            delete(oEntry);
+            return null;
+        }
+    }
+
+    /**
+     * Store a linked program in the cache. A program that cannot be stored is not cached, without an error: it is
+     * translated again in the next run.
+     *
+     * @param strKey key of the program
+     * @param oProgram the linked program
+     */
+    public void store(final String strKey, final Program oProgram) {
+        Path oTemporary = null;
+
+        try {
+            byte[] abPCode = new PCodeWriter(oProgram).write();
+            FileEvent oEvent = Events.startFile();
+
+            oTemporary = Files.createTempFile(_oDirectory, strKey, ".tmp");
+            Files.write(oTemporary, abPCode);
+            Files.move(oTemporary, getEntry(strKey), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+            Events.endFile(oEvent, Events.WRITE, getEntry(strKey).toString(), abPCode.length);
+            _oLogger.info("Program stored in cache: " + getEntry(strKey));
+        } catch (CompileErrorException | IOException eException) {
+            _oLogger.warning("Program not cached: " + eException.getMessage());
+
+            if (oTemporary != null) {
+                delete(oTemporary);
+            }
+
+            return;
+        }
+
+        evict();
+    }
+
+    /**
+     * Delete the least recently used entries, until the entries fit into the maximum size of the cache.
+     */
+    public void evict() {
+        List<Path> aoEntries = new ArrayList<>();
+        long lSize = 0;
+
+        try (Stream<Path> oFiles = Files.list(_oDirectory)) {
+            for (Path oEntry : oFiles.filter(oFile -> oFile.getFileName().toString().endsWith(EXTENSION)).toList()) {
+                aoEntries.add(oEntry);
+                lSize += Files.size(oEntry);
+            }
+
+            aoEntries.sort(Comparator.comparing(ProgramCache::getLastModified));
+
+            for (Path oEntry : aoEntries) {
+                if (lSize <= _lMaxSize) {
+                    break;
+                }
+
+                lSize -= Files.size(oEntry);
+                delete(oEntry);
+                _oLogger.debug("Cache entry evicted: " + oEntry);
+            }
+        } catch (IOException eException) {
+            // an entry deleted by a program running in parallel
+            _oLogger.warning("Cannot evict cache entries: " + eException.getMessage());
+        }
+    }
+
+    private Path getEntry(final String strKey) {
+        return _oDirectory.resolve(strKey + EXTENSION);
+    }
+
+    private static FileTime getLastModified(final Path oEntry) {
+        try {
+            return Files.getLastModifiedTime(oEntry);
+        } catch (IOException eException) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void delete(final Path oFile) {
+        try {
+            Files.deleteIfExists(oFile);
+        } catch (IOException eException) {
+            _oLogger.warning("Cannot delete " + oFile + ": " + eException.getMessage());
+        }
+    }
+}
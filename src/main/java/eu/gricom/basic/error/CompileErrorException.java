@@ -0,0 +1,24 @@
+package eu.gricom.basic.error;
+
+/**
+ * CompileErrorException.java
+ * <p>
+ * Description:
+ * <p>
+ * The compile error exception is thrown when a back end is unable to translate the linked program into its target
+ * code, e.g. when the generated JVM method exceeds the size limit of the class file format. The program can still be
+ * executed by the interpreter.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public class CompileErrorException extends Exception {
+
+    /**
+     * Constructor of the Compile Error object.
+     *
+     * @param strErrorMessage - error message related to the compile error
+     */
+    public CompileErrorException(final String strErrorMessage) {
+        super(strErrorMessage);
+    }
+}
@@ -0,0 +1,24 @@
+package eu.gricom.basic.error;
+
+/**
+ * LinkErrorException.java
+ * <p>
+ * Description:
+ * <p>
+ * The link error exception is thrown when the linker is unable to resolve a jump target of the parsed program, e.g.
+ * a GOTO to a line number that does not exist in the source code. The error is reported before the program is
+ * executed.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public class LinkErrorException extends Exception {
+
+    /**
+     * Constructor of the Link Error object.
+     *
+     * @param strErrorMessage - error message related to the link error
+     */
+    public LinkErrorException(final String strErrorMessage) {
+        super(strErrorMessage);
+    }
+}
@@ -0,0 +1,38 @@
+package eu.gricom.basic.error;
+
+import eu.gricom.basic.variableTypes.Value;
+
+/**
+ * UnexpectedTypeException.java
+ * <p>
+ * Description:
+ * <p>
+ * The unexpected type exception is thrown by an expression that has been asked for a result of a given type, but
+ * evaluated to a value of another type. It carries the value, so that the caller can continue with the generic
+ * calculation without evaluating the expression again. The exception is part of the normal program flow of the
+ * specialized expressions and is therefore created without a stack trace.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public class UnexpectedTypeException extends Exception {
+    private final transient Value _oValue;
+
+    /**
+     * Constructor of the exception.
+     *
+     * @param oValue - the value the expression has evaluated to
+     */
+    public UnexpectedTypeException(final Value oValue) {
+        super("Unexpected type of value: " + oValue, null, false, false);
+        _oValue = oValue;
+    }
+
+    /**
+     * Get the value the expression has evaluated to.
+     *
+     * @return value of the expression
+     */
+    public Value getValue() {
+        return _oValue;
+    }
+}
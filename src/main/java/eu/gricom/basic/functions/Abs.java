@@ -35,7 +35,7 @@ public final class Abs {
     public static Value execute(final Value oValue) throws Exception {
         if (oValue instanceof IntegerValue) {
             if (((IntegerValue) oValue).toInt() < 0) {
-                return oValue.multiply(new IntegerValue(-1));
+                return oValue.multiply(IntegerValue.valueOf(-1));
             } else {
                 return oValue;
             }
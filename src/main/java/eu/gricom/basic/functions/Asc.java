@@ -35,7 +35,7 @@ public final class Asc {
         if (oValue instanceof StringValue) {
 
             if (oValue.toString().length() > 0) {
-                return new IntegerValue(oValue.toString().charAt(0));
+                return IntegerValue.valueOf(oValue.toString().charAt(0));
             } else {
                 throw new RuntimeException("Input value empty");
             }
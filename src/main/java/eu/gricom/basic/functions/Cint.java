@@ -37,10 +37,10 @@ public final class Cint {
             return oValue;
         } else
         if (oValue instanceof LongValue) {
-            return new IntegerValue((float) oValue.toReal());
+            return IntegerValue.valueOf((int) (float) oValue.toReal());
         } else
         if (oValue instanceof RealValue) {
-            return new IntegerValue(((RealValue) oValue).toInt());
+            return IntegerValue.valueOf(((RealValue) oValue).toInt());
         }
 
         throw new RuntimeException("Input value not numeric: " + oValue);
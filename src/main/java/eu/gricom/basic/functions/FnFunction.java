@@ -35,6 +35,24 @@ public class FnFunction implements Expression {
         _aoFunctionParameter = aoFunctionParameter;
     }
 
+    /**
+     * Get the name of the function.
+     *
+     * @return name of the function
+     */
+    public final String getFunctionId() {
+        return _strFunctionId;
+    }
+
+    /**
+     * Get the parameters of the function.
+     *
+     * @return list of parameters
+     */
+    public final List<Expression> getParameters() {
+        return _aoFunctionParameter;
+    }
+
     /**
      * This method is used to trigger the function selected.
      *
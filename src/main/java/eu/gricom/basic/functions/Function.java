@@ -1,9 +1,15 @@
 package eu.gricom.basic.functions;
 
+import eu.gricom.basic.tokenizer.BasicTokenType;
 import eu.gricom.basic.tokenizer.Token;
 import eu.gricom.basic.error.RuntimeException;
 import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.ExpressionRewriter;
 import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -11,7 +17,9 @@ import eu.gricom.basic.variableTypes.Value;
  * <p>
  * Description:
  * <p>
- * Function dispatcher: Execute the selected function and return the result.
+ * Function dispatcher: Execute the selected function and return the result. The numeric functions with a real
+ * parameter (SQR, SIN, ...) and RND have a result of type REAL, they are calculated without creating Value objects
+ * when evaluated as a double.
  * <p>
  * (c) = 2004,..,2016 by Andreas Grimm, Den Haag, The Netherlands
  * <p>
@@ -19,9 +27,10 @@ import eu.gricom.basic.variableTypes.Value;
  */
 public class Function implements Expression {
     private final Token _oToken;
-    private final Expression _oFirstParam;
-    private final Expression _oSecondParam;
-    private final Expression _oThirdParam;
+    private Expression _oFirstParam;
+    private Expression _oSecondParam;
+    private Expression _oThirdParam;
+    private VariableType _eType;
 
     /**
      * Contructor for functions without parameter.
@@ -33,6 +42,7 @@ public class Function implements Expression {
         _oFirstParam = null;
         _oSecondParam = null;
         _oThirdParam = null;
+        _eType = getResultType(oToken.getType(), null);
     }
 
     /**
@@ -47,6 +57,7 @@ public class Function implements Expression {
         _oFirstParam = oExpression;
         _oSecondParam = null;
         _oThirdParam = null;
+        _eType = getResultType(oToken.getType(), oExpression != null ? oExpression.getType() : null);
     }
 
     /**
@@ -63,6 +74,7 @@ public class Function implements Expression {
         _oFirstParam = oFirstParam;
         _oSecondParam = oSecondParam;
         _oThirdParam = null;
+        _eType = VariableType.UNDEFINED;
     }
 
     /**
@@ -81,6 +93,117 @@ public class Function implements Expression {
         _oFirstParam = oFirstParam;
         _oSecondParam = oSecondParam;
         _oThirdParam = oThirdParam;
+        _eType = VariableType.UNDEFINED;
+    }
+
+    /**
+     * Determine the type of the result of a function with at most one parameter.
+     *
+     * @param eFunction the function
+     * @param eParamType type of the parameter of the function, null if the function has no parameter
+     * @return type of the result, or UNDEFINED if it is only known when the function is executed
+     */
+    public static VariableType getResultType(final BasicTokenType eFunction, final VariableType eParamType) {
+        return switch (eFunction) {
+            case ABS, ATN, COS, EXP, INT, LOG, LOG10, SIN, SQR, TAN ->
+                    eParamType == VariableType.REAL ? VariableType.REAL : VariableType.UNDEFINED;
+            case LEN -> eParamType == VariableType.STRING ? VariableType.INTEGER : VariableType.UNDEFINED;
+            case RND -> VariableType.REAL;
+            default -> VariableType.UNDEFINED;
+        };
+    }
+
+    /**
+     * Let a compiler pass replace the parameters of the function. The type of the result is determined again.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public final void rewrite(final ExpressionRewriter oRewriter) {
+        if (_oFirstParam != null) {
+            _oFirstParam = oRewriter.rewrite(_oFirstParam);
+        }
+
+        if (_oSecondParam != null) {
+            _oSecondParam = oRewriter.rewrite(_oSecondParam);
+        }
+
+        if (_oThirdParam != null) {
+            _oThirdParam = oRewriter.rewrite(_oThirdParam);
+        }
+
+        if (_oSecondParam == null) {
+            _eType = getResultType(_oToken.getType(), _oFirstParam != null ? _oFirstParam.getType() : null);
+        }
+    }
+
+    /**
+     * Get the function called by the expression.
+     *
+     * @return type of the token of the function
+     */
+    public final BasicTokenType getFunction() {
+        return _oToken.getType();
+    }
+
+    /**
+     * Get the parameters of the function.
+     *
+     * @return the parameters, empty for a function without parameters
+     */
+    public final List<Expression> getParameters() {
+        List<Expression> aoParameters = new ArrayList<>();
+
+        for (Expression oParameter : new Expression[] {_oFirstParam, _oSecondParam, _oThirdParam}) {
+            if (oParameter != null) {
+                aoParameters.add(oParameter);
+            }
+        }
+
+        return aoParameters;
+    }
+
+    /**
+     * Get the type of the result of the function.
+     *
+     * @return type of the result, or UNDEFINED if it is only known when the function is executed
+     */
+    @Override
+    public final VariableType getType() {
+        return _eType;
+    }
+
+    /**
+     * Execute a numeric function with a real parameter directly on the double value of the parameter.
+     *
+     * @return - the result of the function
+     * @throws Exception - when the processing is running into a problem
+     */
+    @Override
+    public final double evaluateDouble() throws Exception {
+        if (_eType != VariableType.REAL) {
+            return Expression.super.evaluateDouble();
+        }
+
+        if (_oToken.getType() == BasicTokenType.RND) {
+            return Math.random();
+        }
+
+        double dParam = _oFirstParam.evaluateDouble();
+
+        return switch (_oToken.getType()) {
+            case ABS -> dParam < 0 ? -dParam : dParam;
+            case ATN -> Math.atan(dParam);
+            case COS -> Math.cos(dParam);
+            case EXP -> Math.exp(dParam);
+            case INT -> Math.floor(dParam);
+            case LOG -> Math.log(dParam);
+            case LOG10 -> Math.log10(dParam);
+            case SIN -> Math.sin(dParam);
+            case SQR -> Math.sqrt(dParam);
+            case TAN -> Math.tan(dParam);
+            default -> throw new RuntimeException("Unknown Function Called: " + _oToken.getText());
+        };
     }
 
     /**
@@ -147,6 +270,12 @@ public class Function implements Expression {
                 yield Instr.execute(_oFirstParam.evaluate(), _oSecondParam.evaluate());
             }
 
+            // INT Token: Return the largest integral number not greater than the parameter
+            case INT -> {
+                assert _oFirstParam != null;
+                yield Int.execute(_oFirstParam.evaluate());
+            }
+
             // LEFT Token: Return the first number of characters from the input string. The first parameter needs
             // to be a type String, the second parameter has to be part Integer.
             case LEFT -> {
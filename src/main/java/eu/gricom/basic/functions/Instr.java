@@ -41,7 +41,7 @@ public final class Instr {
                 throw new RuntimeException("Input string or search string is empty");
             }
 
-            return new IntegerValue(oValue.toString().indexOf(oSearch.toString()));
+            return IntegerValue.valueOf(oValue.toString().indexOf(oSearch.toString()));
         }
 
         throw new RuntimeException("Input values are not String");
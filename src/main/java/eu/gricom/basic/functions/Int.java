@@ -0,0 +1,46 @@
+package eu.gricom.basic.functions;
+
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.LongValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.variableTypes.Value;
+
+/**
+ * INT Function.
+ *
+ * Description:
+ *
+ * The INT function delivers the largest integral number that is not greater than the parameter, e.g. INT(-2.5) is
+ * -3. This parameter has to be numeric. Different to CINT, the type of the parameter is kept.
+ *
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class Int {
+
+    /**
+     * Private Constructor.
+     */
+    private Int() {
+    }
+
+    /**
+     * Functions implemented here are similar to Statements with the difference
+     * that they actually return a result to the caller of type Value. The method execute
+     * triggers the function.
+     *
+     * @param oValue input value
+     * @return Value the return message of the function
+     * @throws Exception as any execution error found during execution
+     */
+    public static Value execute(final Value oValue) throws Exception {
+        if (oValue instanceof IntegerValue || oValue instanceof LongValue) {
+            return oValue;
+        } else
+        if (oValue instanceof RealValue) {
+            return new RealValue(Math.floor(oValue.toReal()));
+        }
+
+        throw new RuntimeException("Input value not numeric: " + oValue);
+    }
+}
@@ -32,8 +32,8 @@ public final class Len {
      * @throws Exception as any execution error found during execution
      */
     public static Value execute(final Value oValue) throws Exception {
-        if (oValue instanceof StringValue) {
-                return new IntegerValue(oValue.toString().length());
+        if (oValue instanceof StringValue oString) {
+                return IntegerValue.valueOf(oString.length());
 
         }
 
@@ -28,6 +28,6 @@ public final class Mem {
      */
     public static IntegerValue execute() {
 
-        return new IntegerValue((int) Runtime.getRuntime().freeMemory());
+        return IntegerValue.valueOf((int) Runtime.getRuntime().freeMemory());
     }
 }
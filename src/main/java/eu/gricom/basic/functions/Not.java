@@ -38,9 +38,9 @@ public final class Not {
     public static Value execute(final Value oValue) throws Exception {
         if (oValue instanceof IntegerValue) {
             if (((IntegerValue) oValue).toInt() <= 0) {
-                return new IntegerValue(1);
+                return IntegerValue.valueOf(1);
             } else {
-                return new IntegerValue(0);
+                return IntegerValue.valueOf(0);
             }
         } else
         if (oValue instanceof LongValue) {
@@ -59,9 +59,9 @@ public final class Not {
         } else
         if (oValue instanceof BooleanValue) {
             if (((BooleanValue) oValue).isTrue()) {
-                return new BooleanValue(false);
+                return BooleanValue.FALSE;
             } else {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
         }
 
@@ -1,5 +1,7 @@
 package eu.gricom.basic.helper;
 
+import eu.gricom.basic.monitoring.Events;
+import eu.gricom.basic.monitoring.FileEvent;
 
 import java.io.BufferedReader;
 import java.io.FileInputStream;
@@ -37,6 +39,7 @@ public final class FileHandler {
      */
     public static String readFile(final String strPath) {
         _strBasicFile = strPath;
+        FileEvent oEvent = Events.startFile();
 
         try {
             FileInputStream oStream = new FileInputStream(strPath);
@@ -58,6 +61,7 @@ public final class FileHandler {
                 // HACK: The parser expects every statement to end in a newline, even the very last one, so we'll just
                 // tack one on here in case the file doesn't have one.
                 oBuilder.append("\n");
+                Events.endFile(oEvent, Events.READ, strPath, oStream.getChannel().position());
 
                 _oLogger.debug("Read File:\n" + oBuilder);
                 return oBuilder.toString();
@@ -122,6 +122,15 @@ public class Logger {
       }
   }
   
+  /**
+   * Checks whether debug messages are stored, so that a caller can skip building messages that are not stored.
+   * 
+   * @return true if the log level contains debug
+   */
+  public final boolean isDebug() {
+      return _strLogLevel.toLowerCase().contains("debug");
+  }
+  
   /**
    * Stores debug message.
    * 
@@ -130,7 +139,7 @@ public class Logger {
    * @param strMessage - content of the message
    */
   public final void debug(final String strMessage) {
-      if (_strLogLevel.toLowerCase().contains("debug")) {
+      if (isDebug()) {
           
           // if Log4J is not to be used - use local foot print...
           storeLogMessage("debug", strMessage);
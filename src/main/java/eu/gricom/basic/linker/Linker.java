@@ -0,0 +1,168 @@
+package eu.gricom.basic.linker;
+
+import eu.gricom.basic.error.LinkErrorException;
+import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.statements.LabelStatement;
+import eu.gricom.basic.statements.LinkableStatement;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.tokenizer.Token;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Linker.java
+ * <p>
+ * Description:
+ * <p>
+ * The linker runs once after the parser and before the execution of the program. It walks through the list of
+ * statements and lets every statement changing the program flow resolve its jump targets into statement numbers.
+ * Unknown jump targets are reported as link errors, so that a program with a broken GOTO does not start at all.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public class Linker {
+    private final Logger _oLogger = new Logger(this.getClass().getName());
+    private final LabelStatement _oLabelStatement = new LabelStatement();
+    private final List<Statement> _aoStatements;
+    private final LineNumberXRef _oLineNumbers;
+
+    /**
+     * Default constructor.
+     *
+     * @param oProgram the program after the parser step
+     */
+    public Linker(final Program oProgram) {
+        _aoStatements = oProgram.getStatements() != null ? oProgram.getStatements() : new ArrayList<>();
+        _oLineNumbers = oProgram.getLineNumbers();
+    }
+
+    /**
+     * Constructor used for the linking of a list of statements.
+     *
+     * @param aoTokens the tokenized program, used to translate token numbers into BASIC line numbers
+     * @param aoStatements the parsed program
+     */
+    public Linker(final List<Token> aoTokens, final List<Statement> aoStatements) {
+        _aoStatements = aoStatements != null ? aoStatements : new ArrayList<>();
+        _oLineNumbers = new LineNumberXRef(aoTokens, _aoStatements);
+    }
+
+    /**
+     * Link the program: every statement changing the program flow resolves its jump targets.
+     *
+     * @throws LinkErrorException if a jump target cannot be resolved
+     */
+    public final void link() throws LinkErrorException {
+        _oLogger.debug("-link-> linking " + _aoStatements.size() + " statements");
+
+        for (int iStatement = 0; iStatement < _aoStatements.size(); iStatement++) {
+            if (_aoStatements.get(iStatement) instanceof LinkableStatement oStatement) {
+                oStatement.link(this, iStatement);
+            }
+        }
+    }
+
+    /**
+     * Get the number of statements in the linked program. This is also the statement number to jump to for
+     * terminating the program.
+     *
+     * @return number of statements
+     */
+    public final int getProgramSize() {
+        return _aoStatements.size();
+    }
+
+    /**
+     * Get a statement of the linked program, e.g. to connect a statement closing a block to the opening statement.
+     *
+     * @param iStatement statement number
+     * @return the statement
+     */
+    public final Statement getStatement(final int iStatement) {
+        return _aoStatements.get(iStatement);
+    }
+
+    /**
+     * Get the BASIC source code line number of a statement, used for error messages.
+     *
+     * @param iStatement statement number
+     * @return BASIC source code line number, or 0 if the statement is unknown
+     */
+    public final int getLineNumber(final int iStatement) {
+        return _oLineNumbers.getLineNumberFromStatement(iStatement);
+    }
+
+    /**
+     * Get the first statement of a BASIC source code line.
+     *
+     * @param iLineNumber BASIC source code line number
+     * @return statement number, or -1 if the line does not exist
+     */
+    public final int getStatementFromLineNumber(final int iLineNumber) {
+        return _oLineNumbers.getStatementFromLineNumber(iLineNumber);
+    }
+
+    /**
+     * Get the first statement past a BASIC source code line, e.g. the statement following an END-IF.
+     *
+     * @param iLineNumber BASIC source code line number
+     * @return statement number, or the program size if there is no further line
+     */
+    public final int getStatementAfterLineNumber(final int iLineNumber) {
+        return _oLineNumbers.getStatementAfterLineNumber(iLineNumber);
+    }
+
+    /**
+     * Verify that a JASIC label is defined.
+     *
+     * @param strLabel label name
+     * @return true if the label is known
+     */
+    public final boolean containsLabel(final String strLabel) {
+        return strLabel != null && _oLabelStatement.containsLabelKey(strLabel);
+    }
+
+    /**
+     * Get the statement of a JASIC label.
+     *
+     * @param strLabel label name
+     * @return statement number
+     */
+    public final int getStatementFromLabel(final String strLabel) {
+        return _oLabelStatement.getLabelStatement(strLabel);
+    }
+
+    /**
+     * Find the statement closing a block, e.g. the NEXT matching a FOR. Blocks of the same type nested inside the
+     * block are skipped.
+     *
+     * @param iStartStatement statement number of the statement opening the block
+     * @param oOpening class of the statement opening a block
+     * @param oClosing class of the statement closing a block
+     * @return statement number of the closing statement, or -1 if the block is not closed
+     */
+    public final int getMatchingStatement(final int iStartStatement,
+                                          final Class<? extends Statement> oOpening,
+                                          final Class<? extends Statement> oClosing) {
+        int iDepth = 0;
+
+        for (int iStatement = iStartStatement + 1; iStatement < _aoStatements.size(); iStatement++) {
+            Statement oStatement = _aoStatements.get(iStatement);
+
+            if (oOpening.isInstance(oStatement)) {
+                iDepth++;
+            } else if (oClosing.isInstance(oStatement)) {
+                if (iDepth == 0) {
+                    return iStatement;
+                }
+
+                iDepth--;
+            }
+        }
+
+        return -1;
+    }
+}
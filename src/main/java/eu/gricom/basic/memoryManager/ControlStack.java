@@ -0,0 +1,174 @@
+package eu.gricom.basic.memoryManager;
+
+import eu.gricom.basic.error.RuntimeException;
+
+/**
+ * ControlStack.java
+ * <p>
+ * Description:
+ * <p>
+ * The control stack holds the open WHILE and DO loops, the return addresses of GOSUB calls, and the END-IF targets
+ * of IF blocks running into an ELSE. FOR loops do not use the stack: the linker connects FOR and NEXT, and the NEXT
+ * statement jumps back directly. Every frame consists of two primitive ints - the kind of the frame and
+ * the statement number it refers to - so pushing and popping a frame does not allocate any objects. The stack is not
+ * synchronized: the program is executed by a single thread.
+ * <p>
+ * A statement closing a block names the kind of frame it expects. An END-WHILE that finds a GOSUB frame on top of
+ * the stack fails with a clear error instead of jumping to the return address. A RETURN discards the loop frames of loops
+ * that were left with a GOTO inside the subroutine, up to the frame of the GOSUB call.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class ControlStack {
+    /**
+     * Frame of a GOSUB call, pointing to the statement following the GOSUB statement.
+     */
+    public static final int GOSUB = 0;
+
+    /**
+     * Frame of a WHILE loop, pointing to the WHILE statement.
+     */
+    public static final int WHILE = 1;
+
+    /**
+     * Frame of a DO loop, pointing to the DO statement.
+     */
+    public static final int DO = 2;
+
+    /**
+     * Frame of an IF block with an ELSE block, pointing to the END-IF statement.
+     */
+    public static final int ELSE = 3;
+
+    /**
+     * Default of the maximum number of frames on the stack.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 1024;
+
+    private static final String[] FRAME_NAMES = {"GOSUB", "WHILE", "DO", "IF-ELSE"};
+    private static final String[] CLOSING_NAMES = {"RETURN", "END-WHILE", "UNTIL", "ELSE"};
+
+    private static int _iMaxDepth = DEFAULT_MAX_DEPTH;
+    private static int[] _aiKinds = new int[DEFAULT_MAX_DEPTH];
+    private static int[] _aiStatements = new int[DEFAULT_MAX_DEPTH];
+    private static int _iDepth = 0;
+
+    /**
+     * Set the maximum number of frames on the stack. The stack is emptied.
+     *
+     * @param iMaxDepth maximum number of frames
+     * @throws RuntimeException if the maximum depth is not positive
+     */
+    public void setMaxDepth(final int iMaxDepth) throws RuntimeException {
+        if (iMaxDepth < 1) {
+            throw new RuntimeException("Control stack depth must be positive: " + iMaxDepth);
+        }
+
+        _iMaxDepth = iMaxDepth;
+        _aiKinds = new int[iMaxDepth];
+        _aiStatements = new int[iMaxDepth];
+        _iDepth = 0;
+    }
+
+    /**
+     * Get the maximum number of frames on the stack.
+     *
+     * @return maximum number of frames
+     */
+    public int getMaxDepth() {
+        return _iMaxDepth;
+    }
+
+    /**
+     * Get the number of frames on the stack.
+     *
+     * @return number of frames
+     */
+    public int getDepth() {
+        return _iDepth;
+    }
+
+    /**
+     * Get the number of frames of a kind on the stack.
+     *
+     * @param iKind kind of the frames (GOSUB, WHILE, DO, or ELSE)
+     * @return number of frames
+     */
+    public int getDepth(final int iKind) {
+        int iFrames = 0;
+
+        for (int iFrame = 0; iFrame < _iDepth; iFrame++) {
+            if (_aiKinds[iFrame] == iKind) {
+                iFrames++;
+            }
+        }
+
+        return iFrames;
+    }
+
+    /**
+     * Push a frame onto the stack.
+     *
+     * @param iKind kind of the frame (GOSUB, WHILE, DO, or ELSE)
+     * @param iStatement statement number the frame refers to
+     * @throws RuntimeException if the maximum depth of the stack is exceeded
+     */
+    public void push(final int iKind, final int iStatement) throws RuntimeException {
+        if (_iDepth >= _iMaxDepth) {
+            throw new RuntimeException("Control stack overflow: more than " + _iMaxDepth + " nested "
+                                               + "GOSUB/WHILE/DO/IF-ELSE blocks at " + FRAME_NAMES[iKind]);
+        }
+
+        _aiKinds[_iDepth] = iKind;
+        _aiStatements[_iDepth] = iStatement;
+        _iDepth++;
+    }
+
+    /**
+     * Pop the top frame from the stack. The frame has to be of the expected kind, a GOSUB frame additionally discards
+     * the loop frames above it.
+     *
+     * @param iKind expected kind of the frame (GOSUB, WHILE, DO, or ELSE)
+     * @return statement number the frame refers to
+     * @throws RuntimeException if the stack does not contain a frame of the expected kind on top
+     */
+    public int pop(final int iKind) throws RuntimeException {
+        if (iKind == GOSUB) {
+            while (_iDepth > 0 && _aiKinds[_iDepth - 1] != GOSUB) {
+                _iDepth--;
+            }
+        }
+
+        if (_iDepth == 0) {
+            throw new RuntimeException(CLOSING_NAMES[iKind] + " without " + FRAME_NAMES[iKind]);
+        }
+
+        if (_aiKinds[_iDepth - 1] != iKind) {
+            throw new RuntimeException(CLOSING_NAMES[iKind] + " without " + FRAME_NAMES[iKind] + ": found open "
+                                               + FRAME_NAMES[_aiKinds[_iDepth - 1]] + " block");
+        }
+
+        _iDepth--;
+        return _aiStatements[_iDepth];
+    }
+
+    /**
+     * Discard the top frame of the stack, independent of its kind.
+     *
+     * @throws RuntimeException if the stack is empty
+     */
+    public void drop() throws RuntimeException {
+        if (_iDepth == 0) {
+            throw new RuntimeException("Control stack empty");
+        }
+
+        _iDepth--;
+    }
+
+    /**
+     * Remove all frames from the stack.
+     */
+    public void reset() {
+        _iDepth = 0;
+    }
+}
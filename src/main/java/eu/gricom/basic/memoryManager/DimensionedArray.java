@@ -0,0 +1,365 @@
+package eu.gricom.basic.memoryManager;
+
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+/**
+ * DimensionedArray.java
+ * <p>
+ * Description:
+ * <p>
+ * A dimensioned array holds all elements of a BASIC array in one contiguous store: integers, longs and booleans in an
+ * int array, strings in a String array, reals, doubles and untyped elements in a double array. The position of an
+ * element is calculated from its indices with the strides of the dimensions, which are calculated once when the array
+ * is dimensioned.
+ * <p>
+ * The lowest index of every dimension is the OPTION BASE (0 or 1) valid at the time the array is dimensioned, the
+ * highest index is the value given in the DIM statement.
+ * <p>
+ * An array used without a DIM statement is created with a default size and grows: an index above the highest index of
+ * a dimension enlarges this dimension, the elements are copied into a new store and the strides are recalculated.
+ * Growing a dimension changes the strides of the dimensions before it, so the offsets of an element are calculated
+ * from the last dimension to the first (see getOffset()).
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class DimensionedArray {
+    private final String _strName;
+    private final VariableType _eType;
+    private final int _iBase;
+    private final boolean _bGrowing;
+    private int[] _aiUpperBounds;
+    private int[] _aiStrides;
+    private int[] _aiIntegers;
+    private double[] _adReals;
+    private String[] _astrStrings;
+
+    /**
+     * Default constructor, for an array dimensioned with a DIM statement.
+     *
+     * @param strName name of the array, used for error messages
+     * @param eType type of the elements
+     * @param iBase lowest index of every dimension
+     * @param aiUpperBounds highest index of every dimension
+     * @throws RuntimeException if a dimension is smaller than the lowest index
+     */
+    public DimensionedArray(final String strName,
+                            final VariableType eType,
+                            final int iBase,
+                            final int[] aiUpperBounds) throws RuntimeException {
+        this(strName, eType, iBase, aiUpperBounds, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param strName name of the array, used for error messages
+     * @param eType type of the elements
+     * @param iBase lowest index of every dimension
+     * @param aiUpperBounds highest index of every dimension
+     * @param bGrowing true if the array grows when an index is above the highest index of its dimension
+     * @throws RuntimeException if a dimension is smaller than the lowest index
+     */
+    public DimensionedArray(final String strName,
+                            final VariableType eType,
+                            final int iBase,
+                            final int[] aiUpperBounds,
+                            final boolean bGrowing) throws RuntimeException {
+        _strName = strName;
+        _eType = eType;
+        _iBase = iBase;
+        _bGrowing = bGrowing;
+        _aiUpperBounds = aiUpperBounds.clone();
+        _aiStrides = new int[aiUpperBounds.length];
+
+        allocate(calculateStrides(_aiUpperBounds, _aiStrides));
+    }
+
+    /**
+     * Calculate the strides of the dimensions. The last index runs fastest: the stride of a dimension is the size of
+     * all following dimensions.
+     *
+     * @param aiUpperBounds highest index of every dimension
+     * @param aiStrides array receiving the strides
+     * @return number of elements of the array
+     * @throws RuntimeException if a dimension is smaller than the lowest index or the array is too large
+     */
+    private int calculateStrides(final int[] aiUpperBounds, final int[] aiStrides) throws RuntimeException {
+        long lSize = 1;
+
+        for (int iDimension = aiUpperBounds.length - 1; iDimension >= 0; iDimension--) {
+            if (aiUpperBounds[iDimension] < _iBase) {
+                throw new RuntimeException("Array dimension of " + _strName + " smaller than " + _iBase + ": "
+                                                   + aiUpperBounds[iDimension]);
+            }
+
+            aiStrides[iDimension] = (int) lSize;
+            lSize *= aiUpperBounds[iDimension] - _iBase + 1;
+
+            if (lSize > Integer.MAX_VALUE) {
+                throw new RuntimeException("Array " + _strName + " too large");
+            }
+        }
+
+        return (int) lSize;
+    }
+
+    /**
+     * Allocate the store for the elements.
+     *
+     * @param iSize number of elements
+     */
+    private void allocate(final int iSize) {
+        switch (_eType) {
+            case INTEGER:
+            case LONG:
+            case BOOLEAN:
+                _aiIntegers = new int[iSize];
+                _adReals = null;
+                _astrStrings = null;
+                break;
+
+            case STRING:
+                _aiIntegers = null;
+                _adReals = null;
+                _astrStrings = new String[iSize];
+                break;
+
+            default:
+                _aiIntegers = null;
+                _adReals = new double[iSize];
+                _astrStrings = null;
+        }
+    }
+
+    /**
+     * Get the number of dimensions of the array.
+     *
+     * @return number of dimensions
+     */
+    public int getDimensions() {
+        return _aiUpperBounds.length;
+    }
+
+    /**
+     * Get the type of the elements of the array.
+     *
+     * @return type of the elements
+     */
+    public VariableType getType() {
+        return _eType;
+    }
+
+    /**
+     * Get the number of elements of the array.
+     *
+     * @return number of elements in all dimensions
+     */
+    public int getSize() {
+        if (_aiIntegers != null) {
+            return _aiIntegers.length;
+        }
+
+        return _adReals != null ? _adReals.length : _astrStrings.length;
+    }
+
+    /**
+     * Calculate the part of the position of an element contributed by the index of one dimension. The position of an
+     * element is the sum of these parts over all dimensions. As a growing array changes the strides of the dimensions
+     * before the one that grows, the parts are calculated from the last dimension to the first, once all indices are
+     * evaluated.
+     *
+     * @param iDimension dimension, starting with 0
+     * @param iIndex index in this dimension
+     * @return part of the position of the element
+     * @throws RuntimeException if the index is out of the bounds of the dimension
+     */
+    public int getOffset(final int iDimension, final int iIndex) throws RuntimeException {
+        if (_bGrowing && iIndex > _aiUpperBounds[iDimension]) {
+            grow(iDimension, iIndex);
+        }
+
+        if (iIndex < _iBase || iIndex > _aiUpperBounds[iDimension]) {
+            throw new RuntimeException("Index " + iIndex + " out of bounds of array " + _strName + " (dimension "
+                                               + (iDimension + 1) + ": " + _iBase + " to "
+                                               + _aiUpperBounds[iDimension] + ")");
+        }
+
+        return (iIndex - _iBase) * _aiStrides[iDimension];
+    }
+
+    /**
+     * Enlarge a dimension of a growing array so that it holds an index: the size of the dimension is at least doubled.
+     * The elements keep their indices; they are copied row by row, a row being the elements of the last dimension.
+     *
+     * @param iDimension dimension, starting with 0
+     * @param iIndex index in this dimension
+     * @throws RuntimeException if the array becomes too large
+     */
+    private void grow(final int iDimension, final int iIndex) throws RuntimeException {
+        int[] aiUpperBounds = _aiUpperBounds.clone();
+        int[] aiStrides = new int[aiUpperBounds.length];
+        long lDoubled = _iBase + 2L * (aiUpperBounds[iDimension] - _iBase + 1) - 1;
+
+        aiUpperBounds[iDimension] = (int) Math.min(Math.max(iIndex, lDoubled), Integer.MAX_VALUE);
+
+        int iOldSize = getSize();
+        int[] aiOldUpperBounds = _aiUpperBounds;
+        int[] aiOldStrides = _aiStrides;
+        int[] aiOldIntegers = _aiIntegers;
+        double[] adOldReals = _adReals;
+        String[] astrOldStrings = _astrStrings;
+
+        allocate(calculateStrides(aiUpperBounds, aiStrides));
+        _aiUpperBounds = aiUpperBounds;
+        _aiStrides = aiStrides;
+
+        int iLastDimension = aiUpperBounds.length - 1;
+        int iRowLength = aiOldUpperBounds[iLastDimension] - _iBase + 1;
+
+        for (int iOldPosition = 0; iOldPosition < iOldSize; iOldPosition += iRowLength) {
+            int iPosition = 0;
+
+            for (int iRowDimension = 0; iRowDimension < iLastDimension; iRowDimension++) {
+                int iLength = aiOldUpperBounds[iRowDimension] - _iBase + 1;
+
+                iPosition += iOldPosition / aiOldStrides[iRowDimension] % iLength * aiStrides[iRowDimension];
+            }
+
+            if (aiOldIntegers != null) {
+                System.arraycopy(aiOldIntegers, iOldPosition, _aiIntegers, iPosition, iRowLength);
+            } else if (adOldReals != null) {
+                System.arraycopy(adOldReals, iOldPosition, _adReals, iPosition, iRowLength);
+            } else {
+                System.arraycopy(astrOldStrings, iOldPosition, _astrStrings, iPosition, iRowLength);
+            }
+        }
+    }
+
+    /**
+     * Get an element of the array.
+     *
+     * @param iPosition position of the element, calculated with getOffset
+     * @return value of the element
+     */
+    public Value get(final int iPosition) {
+        switch (_eType) {
+            case INTEGER:
+            case LONG:
+                return IntegerValue.valueOf(_aiIntegers[iPosition]);
+
+            case BOOLEAN:
+                return BooleanValue.valueOf(_aiIntegers[iPosition] != 0);
+
+            case STRING:
+                String strValue = _astrStrings[iPosition];
+                return new StringValue(strValue != null ? strValue : "");
+
+            default:
+                return new RealValue(_adReals[iPosition]);
+        }
+    }
+
+    /**
+     * Get an element of an integer, real or untyped array as a double, without creating a Value object.
+     *
+     * @param iPosition position of the element, calculated with getOffset
+     * @return value of the element
+     */
+    public double getDouble(final int iPosition) {
+        return _adReals != null ? _adReals[iPosition] : _aiIntegers[iPosition];
+    }
+
+    /**
+     * Get an element of an integer array as an int, without creating a Value object.
+     *
+     * @param iPosition position of the element, calculated with getOffset
+     * @return value of the element
+     */
+    public int getInt(final int iPosition) {
+        return _aiIntegers != null ? _aiIntegers[iPosition] : (int) _adReals[iPosition];
+    }
+
+    /**
+     * Store an element of the array. The value is converted into the type of the array.
+     *
+     * @param iPosition position of the element, calculated with getOffset
+     * @param oValue value to be stored
+     */
+    public void put(final int iPosition, final Value oValue) {
+        switch (_eType) {
+            case INTEGER:
+            case LONG:
+                _aiIntegers[iPosition] = (int) oValue.toReal();
+                break;
+
+            case BOOLEAN:
+                _aiIntegers[iPosition] = oValue.toReal() != 0 ? 1 : 0;
+                break;
+
+            case STRING:
+                _astrStrings[iPosition] = oValue.toString();
+                break;
+
+            default:
+                _adReals[iPosition] = oValue.toReal();
+        }
+    }
+
+    /**
+     * Store a double in an element of the array. The number is converted into the type of the array.
+     *
+     * @param iPosition position of the element, calculated with getOffset
+     * @param dValue value to be stored
+     */
+    public void putDouble(final int iPosition, final double dValue) {
+        switch (_eType) {
+            case INTEGER:
+            case LONG:
+                _aiIntegers[iPosition] = (int) dValue;
+                break;
+
+            case BOOLEAN:
+                _aiIntegers[iPosition] = dValue != 0 ? 1 : 0;
+                break;
+
+            case STRING:
+                _astrStrings[iPosition] = Double.toString(dValue);
+                break;
+
+            default:
+                _adReals[iPosition] = dValue;
+        }
+    }
+
+    /**
+     * Store an int in an element of the array. The number is converted into the type of the array.
+     *
+     * @param iPosition position of the element, calculated with getOffset
+     * @param iValue value to be stored
+     */
+    public void putInt(final int iPosition, final int iValue) {
+        switch (_eType) {
+            case INTEGER:
+            case LONG:
+                _aiIntegers[iPosition] = iValue;
+                break;
+
+            case BOOLEAN:
+                _aiIntegers[iPosition] = iValue != 0 ? 1 : 0;
+                break;
+
+            case STRING:
+                _astrStrings[iPosition] = Integer.toString(iValue);
+                break;
+
+            default:
+                _adReals[iPosition] = iValue;
+        }
+    }
+}
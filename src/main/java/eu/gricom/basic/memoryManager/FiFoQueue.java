@@ -53,6 +53,15 @@ public class FiFoQueue {
     }
 
 
+    /**
+     * Get the number of values in the queue.
+     *
+     * @return number of values not read yet
+     */
+    public final int size() {
+        return _oFiFo.size();
+    }
+
     /**
      * Clear the queue.
      */
@@ -2,204 +2,269 @@ package eu.gricom.basic.memoryManager;
 
 import eu.gricom.basic.error.RuntimeException;
 import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.tokenizer.Token;
+import eu.gricom.basic.tokenizer.TokenBuffer;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * Label.java
+ * LineNumberXRef.java
  * <p>
  * Description:
  * <p>
- * The Label structure contained a list of the different labels found in the source code. This structure is now part
- * of the memory management function and has been deprecated.
+ * The line number cross-reference translates between the three numbering schemes of a program: the token number
+ * (position in the token list), the statement number (position in the statement list), and the BASIC source code
+ * line number. The cross-reference is built once after parsing and is immutable afterwards.
+ * <p>
+ * Token to line and statement to token are stored as arrays indexed directly by the token or statement number. The
+ * BASIC lines are kept in a sorted table, together with the first statement of each line, and are searched with a
+ * binary search.
  * <p>
  * (c) = 2020,.., by Andreas Grimm, Den Haag, The Netherlands
  */
-public class LineNumberXRef {
+public final class LineNumberXRef {
     private final Logger _oLogger = new Logger(this.getClass().getName());
-    private final static Map<Integer, Integer> _aoLineNumbers = new HashMap<>(); // Key: Token, Basic Source Line: Value
-    private final static Map<Integer, Integer> _aoStatementNumbers = new HashMap<>();
+    private final int[] _aiTokenLines;      // Key: Token, Value: Basic Source Line
+    private final int[] _aiStatementTokens; // Key: Statement, Value: Token
+    private final int[] _aiLines;           // sorted Basic Source Lines
+    private final int[] _aiFirstStatements; // Key: index in _aiLines, Value: first Statement of the line
 
     /**
-     * add a line number destination in the memory management.
-     *
-     * @param iLineNumber - name of the label
-     * @param iTokenNumber - statement number
+     * Empty cross-reference, used before a program has been parsed.
      */
-    public final void putLineNumber(final int iLineNumber, final int iTokenNumber) {
+    public LineNumberXRef() {
+        this(new int[0], new int[0]);
+    }
 
-//        _aoLineNumbers.put(iLineNumber, iTokenNumber);
-        _aoLineNumbers.put(iTokenNumber, iLineNumber);
+    /**
+     * Build the cross-reference of a parsed program.
+     *
+     * @param aoTokens the tokenized program
+     * @param aoStatements the parsed program
+     */
+    public LineNumberXRef(final List<Token> aoTokens, final List<Statement> aoStatements) {
+        this(getTokenLines(aoTokens), getStatementTokens(aoStatements));
     }
 
     /**
-     * add a line number destination in the memory management.
+     * Build the cross-reference of a parsed program from the token buffer.
      *
-     * @param iTokenNumber - name of the label
-     * @param iStatementNumber - statement number
+     * @param oTokens the tokenized program
+     * @param aoStatements the parsed program
      */
-    public final void putStatementNumber(final int iTokenNumber, final int iStatementNumber) {
-        _oLogger.debug("-putStatementNumber-> iTokenNumber [" + iTokenNumber + "] iStatementNumber ["
-                + iStatementNumber + "]");
-        _aoStatementNumbers.put(iTokenNumber, iStatementNumber);
+    public LineNumberXRef(final TokenBuffer oTokens, final List<Statement> aoStatements) {
+        this(getTokenLines(oTokens), getStatementTokens(aoStatements));
     }
 
     /**
-     * get the statement number of the line number searched.
+     * Build the cross-reference of a program loaded from object code, which has no tokens: the line table holds the
+     * line of every statement, and the token number of a statement is its statement number.
      *
-     * @param iTokenNumber token number
-     * @return BASIC source code line number
-     * @throws RuntimeException a requested token number was not found
+     * @param aiStatementLines BASIC source code line of every statement
      */
-    public final int getLineNumberFromToken(final int iTokenNumber) throws RuntimeException {
-        for (Map.Entry<Integer, Integer> oLine : _aoLineNumbers.entrySet()) {
-            if (oLine.getKey().equals(iTokenNumber)) {
-                _oLogger.debug("-getLineNumberFromToken-> Token No. [" + iTokenNumber + "] ---> Line No. ["
-                        + oLine.getValue() + "]");
-                return oLine.getValue();
+    public LineNumberXRef(final int[] aiStatementLines) {
+        this(aiStatementLines.clone(), getIdentity(aiStatementLines.length));
+    }
+
+    private LineNumberXRef(final int[] aiTokenLines, final int[] aiStatementTokens) {
+        int iStatements = aiStatementTokens.length;
+
+        _aiTokenLines = aiTokenLines;
+        _aiStatementTokens = aiStatementTokens;
+
+        // pack line and statement number into one value, so that sorting keeps the first statement of each line first
+        long[] alLineStatements = new long[iStatements];
+        for (int iStatement = 0; iStatement < iStatements; iStatement++) {
+            alLineStatements[iStatement] = ((long) lineOfToken(aiStatementTokens[iStatement]) << 32) | iStatement;
+        }
+        Arrays.sort(alLineStatements);
+
+        int[] aiLines = new int[iStatements];
+        int[] aiFirstStatements = new int[iStatements];
+        int iLineCount = 0;
+
+        for (long lLineStatement : alLineStatements) {
+            int iLine = (int) (lLineStatement >>> 32);
+
+            if (iLineCount == 0 || aiLines[iLineCount - 1] != iLine) {
+                aiLines[iLineCount] = iLine;
+                aiFirstStatements[iLineCount] = (int) lLineStatement;
+                iLineCount++;
             }
         }
 
-        throw new RuntimeException("getLineNumberFromToken: Token No. [" + iTokenNumber + "] not found");
+        _aiLines = Arrays.copyOf(aiLines, iLineCount);
+        _aiFirstStatements = Arrays.copyOf(aiFirstStatements, iLineCount);
+
+        if (_oLogger.isDebug()) {
+            _oLogger.debug("-LineNumberXRef-> " + aiTokenLines.length + " tokens, " + iStatements + " statements, "
+                                   + iLineCount + " lines");
+        }
+    }
+
+    private static int[] getTokenLines(final List<Token> aoTokens) {
+        int[] aiTokenLines = new int[aoTokens != null ? aoTokens.size() : 0];
+
+        for (int iToken = 0; iToken < aiTokenLines.length; iToken++) {
+            aiTokenLines[iToken] = aoTokens.get(iToken).getLine();
+        }
+
+        return aiTokenLines;
+    }
+
+    private static int[] getTokenLines(final TokenBuffer oTokens) {
+        int[] aiTokenLines = new int[oTokens != null ? oTokens.size() : 0];
+
+        for (int iToken = 0; iToken < aiTokenLines.length; iToken++) {
+            aiTokenLines[iToken] = oTokens.getLine(iToken);
+        }
+
+        return aiTokenLines;
+    }
+
+    private static int[] getStatementTokens(final List<Statement> aoStatements) {
+        int[] aiStatementTokens = new int[aoStatements != null ? aoStatements.size() : 0];
+
+        for (int iStatement = 0; iStatement < aiStatementTokens.length; iStatement++) {
+            aiStatementTokens[iStatement] = aoStatements.get(iStatement).getTokenNumber();
+        }
+
+        return aiStatementTokens;
+    }
+
+    private static int[] getIdentity(final int iLength) {
+        int[] aiIdentity = new int[iLength];
+
+        for (int iIndex = 0; iIndex < iLength; iIndex++) {
+            aiIdentity[iIndex] = iIndex;
+        }
+
+        return aiIdentity;
+    }
+
+    private int lineOfToken(final int iTokenNumber) {
+        if (iTokenNumber < 0 || iTokenNumber >= _aiTokenLines.length) {
+            return 0;
+        }
+
+        return _aiTokenLines[iTokenNumber];
     }
 
     /**
-     * get the statement number of the line number searched.
+     * get the BASIC source code line number of a token.
      *
-     * @param iStatement statement number
-     * @return token number
+     * @param iTokenNumber token number
+     * @return BASIC source code line number
      * @throws RuntimeException a requested token number was not found
      */
-    public final int getTokenFromStatement(final int iStatement) throws RuntimeException {
-        for (Map.Entry<Integer, Integer> oToken : _aoStatementNumbers.entrySet()) {
-            if (oToken.getValue().equals(iStatement)) {
-                _oLogger.debug("-getTokenFromStatement-> Statement No. [" + iStatement + "] ---> Token No. "
-                        + "[" + oToken.getKey() + "]");
-                return oToken.getKey();
-            }
+    public int getLineNumberFromToken(final int iTokenNumber) throws RuntimeException {
+        if (iTokenNumber < 0 || iTokenNumber >= _aiTokenLines.length) {
+            throw new RuntimeException("getLineNumberFromToken: Token No. [" + iTokenNumber + "] not found");
         }
 
-        throw new RuntimeException("getTokenFromStatement-> Statement No. [" + iStatement + "] not found");
+        return _aiTokenLines[iTokenNumber];
     }
 
     /**
-     * get the statement number of the line number searched.
+     * get the BASIC source code line number of a statement.
      *
-     * @param iLineNumber BASIC source code line number
-     * @return statement number
-     * @throws RuntimeException a requested statement number was not found
+     * @param iStatement statement number
+     * @return BASIC source code line number, or 0 if the statement is unknown
      */
-    public final int getStatementFromLineNumber(final int iLineNumber) throws RuntimeException {
-/*
-        if (_aoLineNumbers.containsKey(iLineNumber)) {
-            int iTokenNumber = _aoLineNumbers.get(iLineNumber);
-
-            if (_aoStatementNumbers.containsKey(iTokenNumber)) {
-                _oLogger.debug("-getStatementFromLineNumber-> Line No. [" + iLineNumber + "] ---> Statement ["
-                        + _aoStatementNumbers.get(iTokenNumber) + "]");
-                return _aoStatementNumbers.get(iTokenNumber);
-            }
-        }
-*/
-        for (Map.Entry<Integer, Integer> oLine : _aoLineNumbers.entrySet()) {
-            if (oLine.getValue().equals(iLineNumber)) {
-                int iTokenNumber = oLine.getKey();
-
-                if (_aoStatementNumbers.containsKey(iTokenNumber)) {
-                    _oLogger.debug("-getStatementFromLineNumber-> Line No. [" + iLineNumber + "] ---> Statement ["
-                                           + _aoStatementNumbers.get(iTokenNumber) + "]");
-                    return _aoStatementNumbers.get(iTokenNumber);
-                }
-            }
+    public int getLineNumberFromStatement(final int iStatement) {
+        if (iStatement < 0 || iStatement >= _aiStatementTokens.length) {
+            return 0;
         }
 
-        throw new RuntimeException("getStatementFromLineNumber: Line No. [" + iLineNumber + "] not found");
+        return lineOfToken(_aiStatementTokens[iStatement]);
     }
 
     /**
-     * get the statement number of the token number searched.
+     * get the token number of a statement.
      *
-     * @param iTokenNumber token number
-     * @return statement number
+     * @param iStatement statement number
+     * @return token number
      * @throws RuntimeException a requested statement number was not found
      */
-    public final int getStatementFromToken(final int iTokenNumber) throws RuntimeException {
-
-        if (_aoStatementNumbers.containsKey(iTokenNumber)) {
-            _oLogger.debug("-getStatementFromToken-> Token No. [" + iTokenNumber + "] ---> Statement ["
-                    + _aoStatementNumbers.get(iTokenNumber) + "]");
-            return _aoStatementNumbers.get(iTokenNumber);
+    public int getTokenFromStatement(final int iStatement) throws RuntimeException {
+        if (iStatement < 0 || iStatement >= _aiStatementTokens.length) {
+            throw new RuntimeException("getTokenFromStatement-> Statement No. [" + iStatement + "] not found");
         }
 
-        throw new RuntimeException("getStatementFromToken-> Token No. [" + iTokenNumber + "] not found");
+        return _aiStatementTokens[iStatement];
     }
 
     /**
-     * get the statement number of the line number searched.
+     * get the first statement of a BASIC source code line.
      *
      * @param iLineNumber BASIC source code line number
-     * @return next following BASIC source code number
+     * @return statement number, or -1 if the line does not exist
      */
-    public final int getNextLineNumber(final int iLineNumber) {
-        int iNextHigherStatement = 0;
+    public int getStatementFromLineNumber(final int iLineNumber) {
+        int iIndex = Arrays.binarySearch(_aiLines, iLineNumber);
 
-        for (Map.Entry<Integer, Integer> oLine : _aoLineNumbers.entrySet()) {
-
-            if (oLine.getValue() > iLineNumber) {
-                int iNewNextHigher = oLine.getValue();
+        return iIndex >= 0 ? _aiFirstStatements[iIndex] : -1;
+    }
 
-                if (iNextHigherStatement == 0) {
-                    iNextHigherStatement = iNewNextHigher;
-                }
+    /**
+     * get the next BASIC source code line following a line number.
+     *
+     * @param iLineNumber BASIC source code line number
+     * @return next following BASIC source code number, or 0 if there is no further line
+     */
+    public int getNextLineNumber(final int iLineNumber) {
+        int iIndex = higherIndex(iLineNumber);
 
-                if (iNewNextHigher < iNextHigherStatement) {
-                    iNextHigherStatement = iNewNextHigher;
-                }
-            }
-        }
-        _oLogger.debug("-getNextLineNumber-> Line No. [" + iLineNumber + "] ---> next Line No. ["
-                               + iNextHigherStatement + "]");
+        return iIndex < _aiLines.length ? _aiLines[iIndex] : 0;
+    }
 
-/*
-        for (Map.Entry<Integer, Integer> oLine : _aoLineNumbers.entrySet()) {
+    /**
+     * get the first statement past a BASIC source code line, e.g. the statement following an END-IF.
+     *
+     * @param iLineNumber BASIC source code line number
+     * @return statement number, or the number of statements if there is no further line
+     */
+    public int getStatementAfterLineNumber(final int iLineNumber) {
+        int iIndex = higherIndex(iLineNumber);
 
-            if (oLine.getKey() > iLineNumber) {
-                int iNewNextHigher = oLine.getKey();
+        return iIndex < _aiLines.length ? _aiFirstStatements[iIndex] : _aiStatementTokens.length;
+    }
 
-                if (iNextHigherStatement == 0) {
-                    iNextHigherStatement = iNewNextHigher;
-                }
+    // index of the first entry in the line table that is larger than the line number
+    private int higherIndex(final int iLineNumber) {
+        int iIndex = Arrays.binarySearch(_aiLines, iLineNumber);
 
-                if (iNewNextHigher < iNextHigherStatement) {
-                    iNextHigherStatement = iNewNextHigher;
-                }
-            }
-        }
-        _oLogger.debug("-getNextLineNumber-> Line No. [" + iLineNumber + "] ---> next Line No. ["
-                + iNextHigherStatement + "]");
-*/
-        return iNextHigherStatement;
+        return iIndex >= 0 ? iIndex + 1 : -iIndex - 1;
     }
 
     /**
-     * verify that a requested statement number is in the XRef table.
+     * get the number of statements in the cross-reference.
      *
-     * @param iTokenNumber statement number
-     * @return true if the statement is in the memory management
+     * @return number of statements
      */
-    public final boolean contains(final int iTokenNumber) {
+    public int getStatementCount() {
+        return _aiStatementTokens.length;
+    }
 
-        return _aoLineNumbers.containsKey(iTokenNumber);
+    /**
+     * verify that a requested token number is in the XRef table.
+     *
+     * @param iTokenNumber token number
+     * @return true if the token is in the cross-reference
+     */
+    public boolean contains(final int iTokenNumber) {
+        return iTokenNumber >= 0 && iTokenNumber < _aiTokenLines.length;
     }
 
     /**
-     * verify that a requested statement number is in the XRef table.
+     * list the line table in the debug log.
      */
-    public final void list() {
-        for (Map.Entry<Integer, Integer> oLine : _aoLineNumbers.entrySet()) {
-                _oLogger.debug("-list-> Token No. [" + oLine.getKey() + "] ---> Line No. ["
-                                       + oLine.getValue() + "]");
+    public void list() {
+        for (int iIndex = 0; iIndex < _aiLines.length; iIndex++) {
+            _oLogger.debug("-list-> Line No. [" + _aiLines[iIndex] + "] ---> Statement No. ["
+                                   + _aiFirstStatements[iIndex] + "]");
         }
     }
 }
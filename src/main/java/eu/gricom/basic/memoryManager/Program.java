@@ -2,6 +2,7 @@ package eu.gricom.basic.memoryManager;
 
 import eu.gricom.basic.helper.Logger;
 import eu.gricom.basic.tokenizer.Token;
+import eu.gricom.basic.tokenizer.TokenBuffer;
 import eu.gricom.basic.statements.Statement;
 import java.util.List;
 
@@ -12,7 +13,7 @@ import java.util.List;
  * <p>
  * This is the storage class for the Basic program to be executed. This is the main place of persistent information for
  * the different stages of the code: loaded, tokenized, and parsed. This allows the use of intermediate storage during
- * execution.
+ * execution. The tokens are only kept until the program is linked, see releaseTokens().
  * <p>
  * (c) = 2021,...,2025 by Andreas Grimm, Den Haag, The Netherlands
  */
@@ -23,7 +24,7 @@ public class Program {
     private LineNumberXRef _oLineNumbers = new LineNumberXRef();
     private List<Statement> _aoPreRunStatements;
     private List<Statement> _aoStatements = null;
-    private List<Token> _aoTokens = null;
+    private TokenBuffer _oTokens = null;
 
 
     /**
@@ -83,34 +84,57 @@ public class Program {
 
     /**
      * set Tokens.
-     * This method takes a list of tokens, coming out of the tokenizer.
+     * This method takes a list of tokens, coming out of the tokenizer, and stores them in a token buffer.
      *
      * @param aoTokens array of token objects, after the tokenization.
      */
     public final void setTokens(List<Token> aoTokens) {
-        _aoTokens = aoTokens;
+        _oTokens = TokenBuffer.of(aoTokens);
+    }
+
+
+    /**
+     * set Tokens.
+     * This method takes the token buffer coming out of the tokenizer.
+     *
+     * @param oTokens the tokens, after the tokenization.
+     */
+    public final void setTokens(TokenBuffer oTokens) {
+        _oTokens = oTokens;
     }
 
 
     /**
      * get Tokens.
-     * This method provides the list of tokens inside this object.
+     * This method provides the tokens inside this object.
      *
-     * @return list of token objects.
+     * @return buffer of the tokens, or null if the tokens have been released.
+     */
+    public final TokenBuffer getTokens() {
+        return _oTokens;
+    }
+
+
+    /**
+     * release Tokens.
+     * Once the program is linked, the tokens are not needed anymore: the line numbers of the tokens are kept in the
+     * line number cross-reference. Releasing the tokens frees the memory of the token buffer for the execution.
      */
-    public final List<Token> getTokens() {
-        return _aoTokens;
+    public final void releaseTokens() {
+        _oTokens = null;
     }
 
 
     /**
      * set Statements.
-     * This method takes a list of statements, coming out of the parser.
+     * This method takes a list of statements, coming out of the parser. The line number cross-reference of the
+     * program is built from the tokens and the statements.
      *
      * @param aoStatements array of Token objects, after the tokenization.
      */
     public final void setStatements(List<Statement> aoStatements) {
         _aoStatements = aoStatements;
+        _oLineNumbers = new LineNumberXRef(_oTokens, aoStatements);
     }
 
 
@@ -146,7 +170,23 @@ public class Program {
         return _aoPreRunStatements;
     }
 
+    /**
+     * set LineNumbers.
+     * This method replaces the line number cross-reference of the program.
+     *
+     * @param oLineNumbers the line number cross-reference
+     */
     public final void setLineNumber(LineNumberXRef oLineNumbers) {
         _oLineNumbers = oLineNumbers;
     }
+
+    /**
+     * get LineNumbers.
+     * This method provides the line number cross-reference of the program.
+     *
+     * @return the line number cross-reference
+     */
+    public final LineNumberXRef getLineNumbers() {
+        return _oLineNumbers;
+    }
 }
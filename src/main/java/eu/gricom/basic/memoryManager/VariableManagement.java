@@ -11,6 +11,8 @@ import eu.gricom.basic.variableTypes.VariableType;
 import eu.gricom.basic.error.RuntimeException;
 import eu.gricom.basic.error.SyntaxErrorException;
 
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,16 +22,42 @@ import java.util.Map;
  * Description:
  * This structure holds all variables used in the Basic program.
  * <p>
- * The Program Pointer contains the current position of the program.
+ * Every variable name is resolved once into a slot of the symbol table. The type of the slot is derived from the
+ * suffix of the name. Integers, longs and booleans are stored in an int frame, reals and doubles in a double frame,
+ * strings and untyped values in a value frame. Statements and expressions using a plain variable resolve the slot
+ * when they are created by the parser, so that reading or writing the variable during the execution is a simple
+ * array access. The value frame also caches the Value object of a numerical slot, so that repeated reads of a
+ * variable do not create new objects.
+ * <p>
+ * Names that are only known at runtime are resolved into the same slots via the name based methods.
+ * <p>
+ * Arrays are managed in a second symbol table. An array is identified by its name and its number of dimensions, and
+ * is resolved into an array slot by the parser as well. The array itself is created by the DIM statement, or with
+ * the default size of 10 elements per dimension on the first access, if the program uses it without DIM.
  * <p>
  * (c) = 2020,.., by Andreas Grimm, Den Haag, The Netherlands
  */
 public class VariableManagement {
-    private static Map<String, Value> _aoUntyped = new HashMap<>();
-    private static Map<String, BooleanValue> _aoBooleans = new HashMap<>();
-    private static Map<String, IntegerValue> _aoIntegers = new HashMap<>();
-    private static Map<String, RealValue> _aoReals = new HashMap<>();
-    private static Map<String, StringValue> _aoStrings = new HashMap<>();
+    private static final int INITIAL_SLOTS = 64;
+
+    private static Map<String, Integer> _aoSymbols = new HashMap<>();
+    private static VariableType[] _aeTypes = new VariableType[INITIAL_SLOTS];
+    private static boolean[] _abDefined = new boolean[INITIAL_SLOTS];
+    private static int[] _aiIntegers = new int[INITIAL_SLOTS];
+    private static double[] _adReals = new double[INITIAL_SLOTS];
+    private static Value[] _aoValues = new Value[INITIAL_SLOTS];
+    private static int _iSlots = 0;
+
+    private static final int DEFAULT_ARRAY_BOUND = 10;
+
+    private static Map<String, Integer> _aoArraySymbols = new HashMap<>();
+    private static String[] _astrArrayNames = new String[INITIAL_SLOTS];
+    private static int[] _aiArrayDimensions = new int[INITIAL_SLOTS];
+    private static DimensionedArray[] _aoArrays = new DimensionedArray[INITIAL_SLOTS];
+    private static int _iArraySlots = 0;
+    private static int _iOptionBase = 0;
+
+    private final Logger _oLogger = new Logger(this.getClass().getName());
 
     /**
      * Default Constructor.
@@ -37,50 +65,291 @@ public class VariableManagement {
     public VariableManagement() {
     }
 
-// section managing internal variables...
+// section managing the symbol table...
     /**
-     * Put a key - value pair into the variable map structure.
+     * Derive the type of variable from the suffix characters in the name.
      *
-     * @param strKey key part of the pair
-     * @param oValue value part of the pair, here as an Value object
-     * @throws SyntaxErrorException if the parenthesis are not set correctly
+     * @param strKey name of the variable
+     * @return type of the variable
      */
-    public final void putMap(final String strKey, final Value oValue) throws SyntaxErrorException {
-        VariableType eVariableType = VariableType.UNDEFINED;
-
+    private static VariableType getVariableType(final String strKey) {
         if (strKey.contains("$")) {
-            eVariableType = VariableType.STRING;
+            return VariableType.STRING;
         } else if (strKey.contains("%")) {
-            eVariableType = VariableType.INTEGER;
+            return VariableType.INTEGER;
         } else if (strKey.contains("&")) {
-            eVariableType = VariableType.LONG;
+            return VariableType.LONG;
         } else if (strKey.contains("#")) {
-            eVariableType = VariableType.REAL;
+            return VariableType.REAL;
         } else if (strKey.contains("!")) {
-            eVariableType = VariableType.DOUBLE;
+            return VariableType.DOUBLE;
         } else if (strKey.contains("@")) {
-            eVariableType = VariableType.BOOLEAN;
+            return VariableType.BOOLEAN;
         }
 
-        switch (eVariableType) {
-            case STRING:
-                _aoStrings.put(Normalizer.normalizeIndex(strKey), (StringValue) oValue);
-                break;
+        return VariableType.UNDEFINED;
+    }
+
+    /**
+     * Resolve a variable name into its slot. If the variable is not yet known, a new slot is assigned. The name must
+     * already be normalized.
+     *
+     * @param strKey normalized name of the variable
+     * @return slot of the variable
+     */
+    private static int lookupSlot(final String strKey) {
+        Integer oSlot = _aoSymbols.get(strKey);
+
+        if (oSlot != null) {
+            return oSlot;
+        }
+
+        if (_iSlots == _aeTypes.length) {
+            int iCapacity = _iSlots * 2;
+
+            _aeTypes = Arrays.copyOf(_aeTypes, iCapacity);
+            _abDefined = Arrays.copyOf(_abDefined, iCapacity);
+            _aiIntegers = Arrays.copyOf(_aiIntegers, iCapacity);
+            _adReals = Arrays.copyOf(_adReals, iCapacity);
+            _aoValues = Arrays.copyOf(_aoValues, iCapacity);
+        }
+
+        int iSlot = _iSlots++;
+        _aeTypes[iSlot] = getVariableType(strKey);
+        _aoSymbols.put(strKey, iSlot);
+
+        return iSlot;
+    }
+
+    /**
+     * Resolve a variable name into its slot. This is done by the parser for every plain variable, so that the
+     * execution of the program can use the slot directly.
+     *
+     * @param strKey name of the variable
+     * @return slot of the variable
+     * @throws SyntaxErrorException if the parenthesis are not set correctly
+     */
+    public final int resolveSlot(final String strKey) throws SyntaxErrorException {
+        return lookupSlot(Normalizer.normalizeIndex(strKey));
+    }
+
+    /**
+     * Get the type of variable stored in a slot.
+     *
+     * @param iSlot slot of the variable
+     * @return type of the variable
+     */
+    public final VariableType getSlotType(final int iSlot) {
+        return _aeTypes[iSlot];
+    }
+
+    /**
+     * Verifies that a value has been assigned to a slot.
+     *
+     * @param iSlot slot of the variable
+     * @return true, if the variable has a value
+     */
+    public final boolean isDefined(final int iSlot) {
+        return _abDefined[iSlot];
+    }
+
+    /**
+     * Remove the values of all variables and all dimensioned arrays, to run a program again. The slots stay assigned
+     * to their variables, as the linked statements keep their slot numbers.
+     */
+    public final void reset() {
+        Arrays.fill(_abDefined, false);
+        Arrays.fill(_aiIntegers, 0);
+        Arrays.fill(_adReals, 0);
+        Arrays.fill(_aoValues, null);
+        Arrays.fill(_aoArrays, null);
+        _iOptionBase = 0;
+    }
 
+    /**
+     * Get the number of slots in the symbol table.
+     *
+     * @return number of slots
+     */
+    public final int getSlotCount() {
+        return _iSlots;
+    }
+
+    /**
+     * Count the variables holding a value, per type. The method may be called by another thread while the program is
+     * running, and then returns the numbers of a recent moment.
+     *
+     * @return number of variables per type
+     */
+    public final Map<VariableType, Integer> countVariables() {
+        Map<VariableType, Integer> aoCounts = new EnumMap<>(VariableType.class);
+        VariableType[] aeTypes = _aeTypes;
+        boolean[] abDefined = _abDefined;
+        int iSlots = Math.min(_iSlots, Math.min(aeTypes.length, abDefined.length));
+
+        for (int iSlot = 0; iSlot < iSlots; iSlot++) {
+            if (abDefined[iSlot] && aeTypes[iSlot] != null) {
+                aoCounts.merge(aeTypes[iSlot], 1, Integer::sum);
+            }
+        }
+
+        return aoCounts;
+    }
+
+    /**
+     * Store a value in a slot. Numerical values are converted into the type of the slot.
+     *
+     * @param iSlot slot of the variable
+     * @param oValue value to be stored
+     */
+    public final void putSlot(final int iSlot, final Value oValue) {
+        switch (_aeTypes[iSlot]) {
             case INTEGER:
             case LONG:
-                _aoIntegers.put(Normalizer.normalizeIndex(strKey), new IntegerValue((int) oValue.toReal()));
+                _aiIntegers[iSlot] = (int) oValue.toReal();
+                _aoValues[iSlot] = oValue instanceof IntegerValue ? oValue : null;
+                break;
+
+            case BOOLEAN:
+                _aiIntegers[iSlot] = oValue.toReal() != 0 ? 1 : 0;
+                _aoValues[iSlot] = oValue instanceof BooleanValue ? oValue : null;
                 break;
+
             case REAL:
             case DOUBLE:
-                _aoReals.put(Normalizer.normalizeIndex(strKey), (RealValue) oValue);
+                _adReals[iSlot] = oValue.toReal();
+                _aoValues[iSlot] = oValue instanceof RealValue ? oValue : null;
                 break;
-            case BOOLEAN:
-                _aoBooleans.put(Normalizer.normalizeIndex(strKey), (BooleanValue) oValue);
+
+            case STRING:
+                _aoValues[iSlot] = oValue instanceof StringValue ? oValue : new StringValue(oValue.toString());
                 break;
+
             default:
-                _aoUntyped.put(Normalizer.normalizeIndex(strKey), oValue);
+                if (oValue instanceof RealValue) {
+                    _adReals[iSlot] = oValue.toReal();
+                }
+
+                _aoValues[iSlot] = oValue;
         }
+
+        _abDefined[iSlot] = true;
+    }
+
+    /**
+     * Store an integer in a slot of an integer variable.
+     *
+     * @param iSlot slot of the variable
+     * @param iValue value to be stored
+     */
+    public final void putSlot(final int iSlot, final int iValue) {
+        _aiIntegers[iSlot] = iValue;
+        _aoValues[iSlot] = null;
+        _abDefined[iSlot] = true;
+    }
+
+    /**
+     * Store a double in a slot of a real or untyped variable. An untyped variable reads the number as a real value.
+     *
+     * @param iSlot slot of the variable
+     * @param dValue value to be stored
+     */
+    public final void putSlot(final int iSlot, final double dValue) {
+        _adReals[iSlot] = dValue;
+        _aoValues[iSlot] = null;
+        _abDefined[iSlot] = true;
+    }
+
+    /**
+     * Get the value of a slot. The Value object of a numerical slot is only created on the first read after a
+     * primitive value has been stored.
+     *
+     * @param iSlot slot of the variable
+     * @return value of the variable, or null if no value has been assigned
+     */
+    public final Value getSlot(final int iSlot) {
+        if (!_abDefined[iSlot]) {
+            return null;
+        }
+
+        Value oValue = _aoValues[iSlot];
+
+        if (oValue == null) {
+            switch (_aeTypes[iSlot]) {
+                case INTEGER:
+                case LONG:
+                    oValue = IntegerValue.valueOf(_aiIntegers[iSlot]);
+                    break;
+
+                case BOOLEAN:
+                    oValue = BooleanValue.valueOf(_aiIntegers[iSlot] != 0);
+                    break;
+
+                default:
+                    oValue = new RealValue(_adReals[iSlot]);
+            }
+
+            _aoValues[iSlot] = oValue;
+        }
+
+        return oValue;
+    }
+
+    /**
+     * Verifies that a slot holds a real value, so that it can be read with getDouble. This is always the case for a
+     * defined real or double variable; an untyped variable holds a real value if the last value assigned was a real.
+     *
+     * @param iSlot slot of the variable
+     * @return true, if the variable holds a real value
+     */
+    public final boolean isReal(final int iSlot) {
+        if (!_abDefined[iSlot]) {
+            return false;
+        }
+
+        switch (_aeTypes[iSlot]) {
+            case REAL:
+            case DOUBLE:
+                return true;
+
+            case UNDEFINED:
+                return _aoValues[iSlot] == null || _aoValues[iSlot] instanceof RealValue;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Get the value of an integer, long or boolean slot as a primitive.
+     *
+     * @param iSlot slot of the variable
+     * @return value of the variable
+     */
+    public final int getInt(final int iSlot) {
+        return _aiIntegers[iSlot];
+    }
+
+    /**
+     * Get the value of a real or double slot, or of an untyped slot holding a real value, as a primitive.
+     *
+     * @param iSlot slot of the variable
+     * @return value of the variable
+     */
+    public final double getDouble(final int iSlot) {
+        return _adReals[iSlot];
+    }
+
+// section managing internal variables...
+    /**
+     * Put a key - value pair into the variable map structure.
+     *
+     * @param strKey key part of the pair
+     * @param oValue value part of the pair, here as an Value object
+     * @throws SyntaxErrorException if the parenthesis are not set correctly
+     */
+    public final void putMap(final String strKey, final Value oValue) throws SyntaxErrorException {
+        putSlot(resolveSlot(strKey), oValue);
     }
 
     /**
@@ -92,9 +361,10 @@ public class VariableManagement {
      * @throws RuntimeException incorrect format of the parenthesis
      */
     public final void putMap(final String strKey, final double dValue) throws SyntaxErrorException, RuntimeException {
-        if (strKey.contains("!") || strKey.contains("#")) {
-            RealValue oValue = new RealValue(dValue);
-            _aoReals.put(Normalizer.normalizeIndex(strKey), oValue);
+        int iSlot = resolveSlot(strKey);
+
+        if (_aeTypes[iSlot] == VariableType.REAL || _aeTypes[iSlot] == VariableType.DOUBLE) {
+            putSlot(iSlot, dValue);
             return;
         }
 
@@ -111,9 +381,10 @@ public class VariableManagement {
      * @throws RuntimeException incorrect format of the parenthesis
      */
     public final void putMap(final String strKey, final String strValue) throws SyntaxErrorException, RuntimeException {
-        if (strKey.contains("$")) {
-            StringValue oValue = new StringValue(strValue);
-            _aoStrings.put(Normalizer.normalizeIndex(strKey), oValue);
+        int iSlot = resolveSlot(strKey);
+
+        if (_aeTypes[iSlot] == VariableType.STRING) {
+            putSlot(iSlot, new StringValue(strValue));
             return;
         }
 
@@ -129,9 +400,10 @@ public class VariableManagement {
      * @throws RuntimeException incorrect format of the parenthesis
      */
     public final void putMap(final String strKey, final int iValue) throws SyntaxErrorException, RuntimeException {
-        if (strKey.contains("%") || strKey.contains("&")) {
-            IntegerValue oValue = new IntegerValue(iValue);
-            _aoIntegers.put(Normalizer.normalizeIndex(strKey), oValue);
+        int iSlot = resolveSlot(strKey);
+
+        if (_aeTypes[iSlot] == VariableType.INTEGER || _aeTypes[iSlot] == VariableType.LONG) {
+            putSlot(iSlot, iValue);
             return;
         }
 
@@ -148,78 +420,154 @@ public class VariableManagement {
      * @throws RuntimeException escalated exception
      */
     public final Value getMap(final String strKey) throws SyntaxErrorException, RuntimeException {
-        Logger oLogger = new Logger(this.getClass().getName());
-        boolean bProcess = false;
+        String strWork = Normalizer.normalizeIndex(strKey);
 
-        String strWork = strKey;
-
-        int iIndex = strKey.indexOf("[");
-        if (iIndex > 0) {
-            bProcess = true;
-            strWork = strKey.substring(0, iIndex);
+        Integer oSlot = _aoSymbols.get(strWork);
+        if (oSlot == null || !_abDefined[oSlot]) {
+            return null;
         }
 
-        strWork = Normalizer.normalizeIndex(strWork);
+        _oLogger.debug("-getMap-> retrieving key: <" + strWork + "> [" + _aeTypes[oSlot] + "] ");
 
-        if (_aoUntyped.containsKey(strWork)) {
-            oLogger.debug("-getMap-> retrieving key: <" + strWork + "> [untyped] ");
-            return _aoUntyped.get(strWork);
-        }
+        return getSlot(oSlot);
+    }
+
+    /**
+     * Verifies that the variables structure contains a given key.
+     *
+     * @param strKey Key to be verified
+     * @return true, if key is in the data structure
+     * @throws SyntaxErrorException if the parenthesis are not set correctly
+     */
+    public final boolean mapContainsKey(final String strKey) throws SyntaxErrorException {
+        Integer oSlot = _aoSymbols.get(Normalizer.normalizeIndex(strKey));
 
-        if (_aoStrings.containsKey(strWork)) {
-            oLogger.debug("-getMap-> retrieving key: <" + strWork + "> [string] " + _aoStrings.get(strWork));
-            Value oString = _aoStrings.get(strWork);
+        return oSlot != null && _abDefined[oSlot];
+    }
 
-            if (bProcess) {
-                return ((StringValue) oString).process(strKey);
-            }
+// section managing arrays...
+    /**
+     * Resolve an array into its array slot. An array is identified by the name and the number of dimensions.
+     *
+     * @param strName name of the array
+     * @param iDimensions number of dimensions
+     * @return array slot
+     */
+    public final int resolveArray(final String strName, final int iDimensions) {
+        String strKey = strName + "(" + iDimensions + ")";
+        Integer oSlot = _aoArraySymbols.get(strKey);
 
-            return _aoStrings.get(strWork);
+        if (oSlot != null) {
+            return oSlot;
         }
 
-        if (_aoIntegers.containsKey(strWork)) {
-            oLogger.debug("-getMap-> retrieving key: <" + strWork + "> [integer] ");
-            return _aoIntegers.get(strWork);
+        if (_iArraySlots == _aoArrays.length) {
+            int iCapacity = _iArraySlots * 2;
+
+            _astrArrayNames = Arrays.copyOf(_astrArrayNames, iCapacity);
+            _aiArrayDimensions = Arrays.copyOf(_aiArrayDimensions, iCapacity);
+            _aoArrays = Arrays.copyOf(_aoArrays, iCapacity);
         }
 
-        if (_aoReals.containsKey(strWork)) {
-            oLogger.debug("-getMap-> retrieving key: <" + strWork + "> [real] ");
-            return _aoReals.get(strWork);
+        int iSlot = _iArraySlots++;
+        _astrArrayNames[iSlot] = strName;
+        _aiArrayDimensions[iSlot] = iDimensions;
+        _aoArraySymbols.put(strKey, iSlot);
+
+        return iSlot;
+    }
+
+    /**
+     * Dimension an array: allocate the store for all elements, using the current OPTION BASE as lowest index.
+     *
+     * @param iArraySlot array slot
+     * @param aiUpperBounds highest index of every dimension
+     * @throws RuntimeException if the array is already dimensioned or the bounds are not valid
+     */
+    public final void dimArray(final int iArraySlot, final int[] aiUpperBounds) throws RuntimeException {
+        if (_aoArrays[iArraySlot] != null) {
+            throw new RuntimeException("Array already dimensioned: " + _astrArrayNames[iArraySlot]);
         }
 
-        if (_aoBooleans.containsKey(strWork)) {
-            oLogger.debug("-getMap-> retrieving key: <" + strWork + "> [boolean] ");
-            return _aoBooleans.get(strWork);
+        String strName = _astrArrayNames[iArraySlot];
+        _aoArrays[iArraySlot] = new DimensionedArray(strName, getVariableType(strName), _iOptionBase, aiUpperBounds);
+    }
+
+    /**
+     * Get the type of the elements of the array in an array slot, derived from the name of the array.
+     *
+     * @param iArraySlot array slot
+     * @return type of the elements
+     */
+    public final VariableType getArrayType(final int iArraySlot) {
+        return getVariableType(_astrArrayNames[iArraySlot]);
+    }
+
+    /**
+     * Count the elements of the dimensioned arrays, per type. The method may be called by another thread while the
+     * program is running, and then returns the numbers of a recent moment.
+     *
+     * @return number of array elements per type
+     */
+    public final Map<VariableType, Integer> countArrayCells() {
+        Map<VariableType, Integer> aoCounts = new EnumMap<>(VariableType.class);
+        DimensionedArray[] aoArrays = _aoArrays;
+        int iArraySlots = Math.min(_iArraySlots, aoArrays.length);
+
+        for (int iSlot = 0; iSlot < iArraySlots; iSlot++) {
+            DimensionedArray oArray = aoArrays[iSlot];
+
+            if (oArray != null) {
+                aoCounts.merge(oArray.getType(), oArray.getSize(), Integer::sum);
+            }
         }
 
-        return null;
+        return aoCounts;
     }
 
     /**
-     * Verifies that the variables structure contains a given key.
+     * Get the array of an array slot. An array that has not been dimensioned yet is created with the default bound of
+     * 10 in every dimension, and grows when a higher index is used.
      *
-     * @param strKey Key to be verified
-     * @return true, if key is in the data structure
-     * @throws SyntaxErrorException if the parenthesis are not set correctly
+     * @param iArraySlot array slot
+     * @return the array
+     * @throws RuntimeException if the array cannot be created
      */
-    public final boolean mapContainsKey(final String strKey) throws SyntaxErrorException {
-        String strWork = strKey;
+    public final DimensionedArray getArray(final int iArraySlot) throws RuntimeException {
+        DimensionedArray oArray = _aoArrays[iArraySlot];
+
+        if (oArray == null) {
+            int[] aiUpperBounds = new int[_aiArrayDimensions[iArraySlot]];
+            Arrays.fill(aiUpperBounds, DEFAULT_ARRAY_BOUND);
 
-        int iIndex = strKey.indexOf("[");
-        if (iIndex > 0) {
-            strWork = strKey.substring(0, iIndex);
+            String strName = _astrArrayNames[iArraySlot];
+            oArray = new DimensionedArray(strName, getVariableType(strName), _iOptionBase, aiUpperBounds, true);
+            _aoArrays[iArraySlot] = oArray;
         }
 
-        strWork = Normalizer.normalizeIndex(strWork);
+        return oArray;
+    }
 
-        if (_aoUntyped.containsKey(strWork)
-                || _aoBooleans.containsKey(strWork)
-                || _aoIntegers.containsKey(strWork)
-                || _aoReals.containsKey(strWork)
-                || _aoStrings.containsKey(strWork)) {
-            return true;
+    /**
+     * Set the lowest index of arrays dimensioned afterwards (OPTION BASE).
+     *
+     * @param iBase lowest index, 0 or 1
+     * @throws RuntimeException if the base is neither 0 nor 1
+     */
+    public final void setOptionBase(final int iBase) throws RuntimeException {
+        if (iBase != 0 && iBase != 1) {
+            throw new RuntimeException("OPTION BASE has to be 0 or 1: " + iBase);
         }
 
-        return false;
+        _iOptionBase = iBase;
+    }
+
+    /**
+     * Get the lowest index of arrays dimensioned from now on.
+     *
+     * @return lowest index, 0 or 1
+     */
+    public final int getOptionBase() {
+        return _iOptionBase;
     }
 }
@@ -0,0 +1,209 @@
+package eu.gricom.basic.monitoring;
+
+import eu.gricom.basic.memoryManager.LineNumberXRef;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Events.java
+ * <p>
+ * Description:
+ * <p>
+ * The interpreter reports its activity to the JDK Flight Recorder with the events of this package:
+ * <ul>
+ *     <li>eu.gricom.basic.Phase: the phases from the macro processing to the execution (PhaseEvent)</li>
+ *     <li>eu.gricom.basic.Gosub: GOSUB calls and RETURNs with the depth of the control stack (GosubEvent)</li>
+ *     <li>eu.gricom.basic.Loop: FOR and WHILE loops with the number of iterations (LoopEvent)</li>
+ *     <li>eu.gricom.basic.File: files read and written (FileEvent)</li>
+ *     <li>eu.gricom.basic.RuntimeError: errors terminating the program (RuntimeErrorEvent)</li>
+ * </ul>
+ * <p>
+ * The events are created here, and only after the flight recorder has been started, with -XX:StartFlightRecording
+ * or later with jcmd: loading the first event class initializes the flight recorder, which takes longer than running
+ * a small program. Until then, every event costs a single check of a flag.
+ * <p>
+ * The statements only know their statement numbers, the events report BASIC source lines: the interpreter registers
+ * the line numbers of the running program, and they are translated when an event is recorded. The current phase is
+ * kept as well, so that a phase can be ended in another method than the one starting it.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class Events {
+    public static final String MACRO = "macro";
+    public static final String LEX = "lex";
+    public static final String PARSE = "parse";
+    public static final String LINK = "link";
+    public static final String OPTIMIZE = "optimize";
+    public static final String SPECIALIZE = "specialize";
+    public static final String EXECUTE = "execute";
+
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+
+    private static LineNumberXRef _oLineNumbers = new LineNumberXRef();
+    private static PhaseEvent _oPhase = null;
+
+    /**
+     * default constructor.
+     */
+    private Events() {
+    }
+
+    /**
+     * Check whether the flight recorder has been started. Before that, no event is created.
+     *
+     * @return true if the flight recorder is running
+     */
+    public static boolean isRecording() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * Register the line numbers of the running program.
+     *
+     * @param oLineNumbers line numbers of the statements
+     */
+    public static void setLineNumbers(final LineNumberXRef oLineNumbers) {
+        _oLineNumbers = oLineNumbers;
+    }
+
+    /**
+     * Get the BASIC source line of a statement of the running program.
+     *
+     * @param iStatement number of the statement
+     * @return the line number, or 0 if the statement is not part of the program
+     */
+    public static int getLine(final int iStatement) {
+        return _oLineNumbers.getLineNumberFromStatement(iStatement);
+    }
+
+    /**
+     * Start a phase of the interpreter, and end the previous one.
+     *
+     * @param strPhase name of the phase, e.g. PARSE
+     * @param strProgram name of the program
+     */
+    public static void startPhase(final String strPhase, final String strProgram) {
+        endPhase();
+
+        if (isRecording()) {
+            _oPhase = new PhaseEvent();
+            _oPhase.phase = strPhase;
+            _oPhase.program = strProgram;
+            _oPhase.begin();
+        }
+    }
+
+    /**
+     * End the current phase of the interpreter, if there is one.
+     */
+    public static void endPhase() {
+        if (_oPhase != null) {
+            _oPhase.commit();
+            _oPhase = null;
+        }
+    }
+
+    /**
+     * Record a GOSUB call or a RETURN.
+     *
+     * @param bReturn true for a RETURN, false for a GOSUB call
+     * @param iStatement number of the GOSUB or RETURN statement
+     * @param iTarget number of the statement the program continues with
+     * @param iDepth depth of the control stack after the jump
+     */
+    public static void gosub(final boolean bReturn, final int iStatement, final int iTarget, final int iDepth) {
+        if (isRecording()) {
+            GosubEvent oEvent = new GosubEvent();
+
+            if (oEvent.shouldCommit()) {
+                oEvent.isReturn = bReturn;
+                oEvent.line = getLine(iStatement);
+                oEvent.targetLine = getLine(iTarget);
+                oEvent.depth = iDepth;
+                oEvent.commit();
+            }
+        }
+    }
+
+    /**
+     * Start the event of a loop, which is committed by LoopEvent.exit().
+     *
+     * @param strKind "FOR" or "WHILE"
+     * @param iStatement number of the statement opening the loop
+     * @return the started event, or null if the event is not recorded
+     */
+    public static LoopEvent enterLoop(final String strKind, final int iStatement) {
+        if (!isRecording()) {
+            return null;
+        }
+
+        LoopEvent oEvent = new LoopEvent();
+
+        if (!oEvent.isEnabled()) {
+            return null;
+        }
+
+        oEvent.kind = strKind;
+        oEvent.line = getLine(iStatement);
+        oEvent.begin();
+
+        return oEvent;
+    }
+
+    /**
+     * Start the event of a file operation, which is committed by endFile().
+     *
+     * @return the started event, or null if the event is not recorded
+     */
+    public static FileEvent startFile() {
+        if (!isRecording()) {
+            return null;
+        }
+
+        FileEvent oEvent = new FileEvent();
+        oEvent.begin();
+
+        return oEvent;
+    }
+
+    /**
+     * Commit the event of a file operation.
+     *
+     * @param oEvent the event started by startFile(), or null
+     * @param strOperation READ or WRITE
+     * @param strPath name of the file
+     * @param lBytes number of bytes read or written
+     */
+    public static void endFile(final FileEvent oEvent, final String strOperation, final String strPath,
+                               final long lBytes) {
+        if (oEvent != null) {
+            oEvent.end();
+
+            if (oEvent.shouldCommit()) {
+                oEvent.operation = strOperation;
+                oEvent.path = strPath;
+                oEvent.bytes = lBytes;
+                oEvent.commit();
+            }
+        }
+    }
+
+    /**
+     * Record an error terminating the program.
+     *
+     * @param iLine BASIC line of the failing statement
+     * @param eException the error
+     */
+    public static void runtimeError(final int iLine, final Exception eException) {
+        if (isRecording()) {
+            RuntimeErrorEvent oEvent = new RuntimeErrorEvent();
+
+            if (oEvent.shouldCommit()) {
+                oEvent.line = iLine;
+                oEvent.message = eException.getMessage();
+                oEvent.exception = eException.getClass();
+                oEvent.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package eu.gricom.basic.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * FileEvent.java
+ * <p>
+ * Description:
+ * <p>
+ * JDK Flight Recorder event for a file read or written by the interpreter: the source code, the object code, the
+ * entries of the program cache, and the profiler report. The event lasts from the start to the end of the operation.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@Name("eu.gricom.basic.File")
+@Label("BASIC File I/O")
+@Category({"GD-BASIC", "Interpreter"})
+@Description("File read or written by the interpreter")
+public final class FileEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Path")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,37 @@
+package eu.gricom.basic.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * GosubEvent.java
+ * <p>
+ * Description:
+ * <p>
+ * JDK Flight Recorder event for a GOSUB call or a RETURN: the BASIC line of the statement, the line it jumps to, and
+ * the depth of the control stack after the jump.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@Name("eu.gricom.basic.Gosub")
+@Label("BASIC GOSUB")
+@Category({"GD-BASIC", "Program"})
+@Description("GOSUB call or RETURN of a BASIC program")
+@StackTrace(false)
+public final class GosubEvent extends Event {
+    @Label("Return")
+    boolean isReturn;
+
+    @Label("Line")
+    int line;
+
+    @Label("Target Line")
+    int targetLine;
+
+    @Label("Depth")
+    int depth;
+}
@@ -0,0 +1,87 @@
+package eu.gricom.basic.monitoring;
+
+import java.util.Map;
+
+/**
+ * InterpreterMXBean.java
+ * <p>
+ * Description:
+ * <p>
+ * The management interface of the interpreter, registered as "eu.gricom.basic:type=Interpreter" in the platform
+ * MBean server. It shows the state of the running BASIC program in JConsole, VisualVM, or any other JMX client.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public interface InterpreterMXBean {
+    /**
+     * Get the number of statements executed by the interpreter since the monitor has been switched on.
+     *
+     * @return number of statements
+     */
+    long getStatementsExecuted();
+
+    /**
+     * Get the number of statements executed per second since the previous call, or since the monitor has been
+     * switched on.
+     *
+     * @return statements per second
+     */
+    double getStatementsPerSecond();
+
+    /**
+     * Get the BASIC source line of the statement executed at the moment.
+     *
+     * @return line number, or 0 if no program is running
+     */
+    int getCurrentLine();
+
+    /**
+     * Get the number of frames on the control stack.
+     *
+     * @return number of frames
+     */
+    int getControlStackDepth();
+
+    /**
+     * Get the number of open GOSUB calls.
+     *
+     * @return number of GOSUB frames on the control stack
+     */
+    int getGosubDepth();
+
+    /**
+     * Get the number of open WHILE and DO loops. FOR loops are linked to their NEXT statements and do not use the
+     * control stack.
+     *
+     * @return number of WHILE and DO frames on the control stack
+     */
+    int getLoopDepth();
+
+    /**
+     * Get the number of variables holding a value, per type.
+     *
+     * @return number of variables per type, e.g. "INTEGER"
+     */
+    Map<String, Integer> getVariables();
+
+    /**
+     * Get the number of elements of the dimensioned arrays, per type.
+     *
+     * @return number of array elements per type, e.g. "REAL"
+     */
+    Map<String, Integer> getArrayCells();
+
+    /**
+     * Get the number of DATA values not read yet.
+     *
+     * @return number of DATA values
+     */
+    int getDataItemsRemaining();
+
+    /**
+     * Get the number of files open in the process of the interpreter.
+     *
+     * @return number of open file descriptors, or -1 if the operating system does not report them
+     */
+    long getOpenFileHandles();
+}
@@ -0,0 +1,182 @@
+package eu.gricom.basic.monitoring;
+
+import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.memoryManager.FiFoQueue;
+import eu.gricom.basic.memoryManager.ProgramPointer;
+import eu.gricom.basic.memoryManager.VariableManagement;
+import eu.gricom.basic.variableTypes.VariableType;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * InterpreterMonitor.java
+ * <p>
+ * Description:
+ * <p>
+ * The monitor publishes the state of the running BASIC program as an MBean (see InterpreterMXBean). Only the number
+ * of executed statements is counted by the interpreter, in a LongAdder, which adds without locks or contention. All
+ * other values are read from the memory manager when a JMX client asks for them, and cost nothing while the program
+ * is running.
+ * <p>
+ * The monitor is switched on with the command line option "-x" or with @PRAGMA("Monitor" = "on"). Registering the
+ * MBean starts the JMX infrastructure of the JVM, which takes about half a second: it is only done when the monitor
+ * is switched on the first time. While the monitor is off, the interpreter only checks a static flag per statement.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class InterpreterMonitor implements InterpreterMXBean {
+    /**
+     * Name of the MBean.
+     */
+    public static final String OBJECT_NAME = "eu.gricom.basic:type=Interpreter";
+
+    private static final InterpreterMonitor MONITOR = new InterpreterMonitor();
+    private static final LongAdder STATEMENTS = new LongAdder();
+
+    private static boolean _bEnabled = false;
+    private static boolean _bRegistered = false;
+
+    private final ControlStack _oControlStack = new ControlStack();
+    private final ProgramPointer _oProgramPointer = new ProgramPointer();
+    private final VariableManagement _oVariableManagement = new VariableManagement();
+    private long _lLastStatements = 0;
+    private long _lLastTime = System.nanoTime();
+
+    /**
+     * default constructor.
+     */
+    private InterpreterMonitor() {
+    }
+
+    /**
+     * Switch the monitor on, and register the MBean if it is not registered yet.
+     */
+    public static synchronized void enable() {
+        _bEnabled = true;
+
+        if (!_bRegistered) {
+            try {
+                MBeanServer oServer = ManagementFactory.getPlatformMBeanServer();
+                oServer.registerMBean(MONITOR, new ObjectName(OBJECT_NAME));
+                _bRegistered = true;
+            } catch (JMException eException) {
+                new Logger(InterpreterMonitor.class.getName()).error("Monitor cannot be registered: "
+                                                                             + eException.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Switch the monitor off. The MBean stays registered, and the statements are not counted any more.
+     */
+    public static void disable() {
+        _bEnabled = false;
+    }
+
+    /**
+     * Check whether the statements are counted.
+     *
+     * @return true if the monitor is on
+     */
+    public static boolean isEnabled() {
+        return _bEnabled;
+    }
+
+    /**
+     * Count an executed statement.
+     */
+    public static void countStatement() {
+        STATEMENTS.increment();
+    }
+
+    /**
+     * Get the monitor, e.g. to read its values without JMX.
+     *
+     * @return the monitor
+     */
+    public static InterpreterMonitor getMonitor() {
+        return MONITOR;
+    }
+
+    @Override
+    public long getStatementsExecuted() {
+        return STATEMENTS.sum();
+    }
+
+    @Override
+    public synchronized double getStatementsPerSecond() {
+        long lStatements = STATEMENTS.sum();
+        long lTime = System.nanoTime();
+        double dRate = lTime > _lLastTime ? (lStatements - _lLastStatements) * 1e9 / (lTime - _lLastTime) : 0.0;
+
+        _lLastStatements = lStatements;
+        _lLastTime = lTime;
+
+        return dRate;
+    }
+
+    @Override
+    public int getCurrentLine() {
+        // the interpreter advances the program pointer before it executes the statement
+        return Events.getLine(_oProgramPointer.getCurrentStatement() - 1);
+    }
+
+    @Override
+    public int getControlStackDepth() {
+        return _oControlStack.getDepth();
+    }
+
+    @Override
+    public int getGosubDepth() {
+        return _oControlStack.getDepth(ControlStack.GOSUB);
+    }
+
+    @Override
+    public int getLoopDepth() {
+        return _oControlStack.getDepth(ControlStack.WHILE) + _oControlStack.getDepth(ControlStack.DO);
+    }
+
+    @Override
+    public Map<String, Integer> getVariables() {
+        return byName(_oVariableManagement.countVariables());
+    }
+
+    @Override
+    public Map<String, Integer> getArrayCells() {
+        return byName(_oVariableManagement.countArrayCells());
+    }
+
+    @Override
+    public int getDataItemsRemaining() {
+        return new FiFoQueue().size();
+    }
+
+    @Override
+    public long getOpenFileHandles() {
+        OperatingSystemMXBean oSystem = ManagementFactory.getOperatingSystemMXBean();
+
+        if (oSystem instanceof com.sun.management.UnixOperatingSystemMXBean oUnix) {
+            return oUnix.getOpenFileDescriptorCount();
+        }
+
+        return -1;
+    }
+
+    private static Map<String, Integer> byName(final Map<VariableType, Integer> aoCounts) {
+        Map<String, Integer> aoNames = new TreeMap<>();
+
+        for (Map.Entry<VariableType, Integer> oCount : aoCounts.entrySet()) {
+            aoNames.put(oCount.getKey().name(), oCount.getValue());
+        }
+
+        return aoNames;
+    }
+}
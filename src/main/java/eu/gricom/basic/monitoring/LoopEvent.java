@@ -0,0 +1,53 @@
+package eu.gricom.basic.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * LoopEvent.java
+ * <p>
+ * Description:
+ * <p>
+ * JDK Flight Recorder event for a FOR or WHILE loop: the event starts when the loop is entered, counts the runs of
+ * the body, and is committed when the loop is done. A FOR loop left with GOTO is committed when it is entered again,
+ * a WHILE loop left with GOTO continues with the same event.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@Name("eu.gricom.basic.Loop")
+@Label("BASIC Loop")
+@Category({"GD-BASIC", "Program"})
+@Description("FOR or WHILE loop of a BASIC program, from the entry to the exit")
+@StackTrace(false)
+public final class LoopEvent extends Event {
+    @Label("Kind")
+    String kind;
+
+    @Label("Line")
+    int line;
+
+    @Label("Iterations")
+    long iterations;
+
+    /**
+     * Count a run of the body of the loop.
+     */
+    public void iterate() {
+        iterations++;
+    }
+
+    /**
+     * Commit the event, at the exit of the loop.
+     */
+    public void exit() {
+        end();
+
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package eu.gricom.basic.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * PhaseEvent.java
+ * <p>
+ * Description:
+ * <p>
+ * JDK Flight Recorder event for a phase of the interpreter: macro processing, tokenization, parsing, linking,
+ * optimization, specialization, and execution. The event lasts from the start to the end of the phase.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@Name("eu.gricom.basic.Phase")
+@Label("BASIC Phase")
+@Category({"GD-BASIC", "Interpreter"})
+@Description("Phase of the interpreter, from the macro processing to the execution of the program")
+public final class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Program")
+    String program;
+}
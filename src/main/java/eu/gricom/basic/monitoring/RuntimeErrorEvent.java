@@ -0,0 +1,32 @@
+package eu.gricom.basic.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * RuntimeErrorEvent.java
+ * <p>
+ * Description:
+ * <p>
+ * JDK Flight Recorder event for an error terminating a BASIC program: the BASIC line of the failing statement, the
+ * message, and the class of the exception.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@Name("eu.gricom.basic.RuntimeError")
+@Label("BASIC Runtime Error")
+@Category({"GD-BASIC", "Program"})
+@Description("Error terminating a BASIC program")
+public final class RuntimeErrorEvent extends Event {
+    @Label("Line")
+    int line;
+
+    @Label("Message")
+    String message;
+
+    @Label("Exception")
+    Class<?> exception;
+}
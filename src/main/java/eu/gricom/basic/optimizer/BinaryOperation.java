@@ -0,0 +1,105 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.ExpressionRewriter;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * BinaryOperation.java
+ * <p>
+ * Description:
+ * <p>
+ * Base class of the specialized operations created by the specializer. A specialized operation executes exactly one
+ * operator on operands of exactly one type, e.g. the addition of two reals. The operands are known to deliver the
+ * expected type, either because their type is known when the program is parsed, or because they are guarded.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public abstract class BinaryOperation implements Expression {
+    private final String _strName;
+    private final BasicTokenType _eOperator;
+    protected Expression _oLeft;
+    protected Expression _oRight;
+
+    /**
+     * Default constructor.
+     *
+     * @param strName name of the specialized operation, used in the structure of the program
+     * @param eOperator the operator
+     * @param oLeft left side of the operation
+     * @param oRight right side of the operation
+     */
+    protected BinaryOperation(final String strName, final BasicTokenType eOperator,
+                              final Expression oLeft, final Expression oRight) {
+        _strName = strName;
+        _eOperator = eOperator;
+        _oLeft = oLeft;
+        _oRight = oRight;
+    }
+
+    /**
+     * get the left side of the operation.
+     *
+     * @return the left side of the operation as an expression
+     */
+    public final Expression getLeft() {
+        return _oLeft;
+    }
+
+    /**
+     * get the operator of the operation.
+     *
+     * @return the operator as a token type
+     */
+    public final BasicTokenType getOperation() {
+        return _eOperator;
+    }
+
+    /**
+     * get the right side of the operation.
+     *
+     * @return the right side of the operation as an expression
+     */
+    public final Expression getRight() {
+        return _oRight;
+    }
+
+    /**
+     * Let a compiler pass replace both sides of the operation. The pass has to keep the type of the operands.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public final void rewrite(final ExpressionRewriter oRewriter) {
+        _oLeft = oRewriter.rewrite(_oLeft);
+        _oRight = oRewriter.rewrite(_oRight);
+    }
+
+    /**
+     * This method is used in testing and debugging. It returns the set values when the constructor has been called.
+     *
+     * @return - readable string with both sides and the operator
+     */
+    @Override
+    public final String content() {
+        return _oLeft.content() + " " + _eOperator + " " + _oRight.content();
+    }
+
+    /**
+     * Structure.
+     * <p>
+     * Method for the compiler to get the structure of the program.
+     *
+     * @return gives the name of the specialized operation and both sides of the operation
+     * @throws Exception based on errors in the implementation classes
+     */
+    @Override
+    public final String structure() throws Exception {
+        String strReturn = "{\"" + _strName + "\": {";
+        strReturn += "\"LEFT_EXPRESSION\": " + _oLeft.structure() + ",";
+        strReturn += "\"RIGHT_EXPRESSION\": " + _oRight.structure();
+        strReturn += "}}";
+
+        return strReturn;
+    }
+}
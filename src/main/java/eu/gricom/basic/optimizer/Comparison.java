@@ -0,0 +1,43 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+/**
+ * Comparison.java
+ * <p>
+ * Description:
+ * <p>
+ * Base class of the specialized comparisons of two reals, or of two integers. The subclasses implement
+ * evaluateBoolean, the boolean value is derived from it.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public abstract class Comparison extends BinaryOperation {
+
+    /**
+     * Default constructor.
+     *
+     * @param strName name of the specialized comparison
+     * @param eOperator the comparison operator
+     * @param oLeft left side of the comparison
+     * @param oRight right side of the comparison
+     */
+    protected Comparison(final String strName, final BasicTokenType eOperator,
+                         final Expression oLeft, final Expression oRight) {
+        super(strName, eOperator, oLeft, oRight);
+    }
+
+    @Override
+    public final VariableType getType() {
+        return VariableType.BOOLEAN;
+    }
+
+    @Override
+    public final Value evaluate() throws Exception {
+        return BooleanValue.valueOf(evaluateBoolean());
+    }
+}
@@ -0,0 +1,39 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.error.DivideByZeroException;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * IntDiv.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized operation divides an integer by an integer. A division by zero is reported like in IntegerValue.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class IntDiv extends IntOperation {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the operation
+     * @param oRight right side of the operation
+     */
+    public IntDiv(final Expression oLeft, final Expression oRight) {
+        super("INT_DIV", BasicTokenType.DIVIDE, oLeft, oRight);
+    }
+
+    @Override
+    public int evaluateInt() throws Exception {
+        int iLeft = _oLeft.evaluateInt();
+        int iRight = _oRight.evaluateInt();
+
+        if (iRight == 0) {
+            throw new DivideByZeroException(iLeft + "/" + iRight + " is a division by zero");
+        }
+
+        return iLeft / iRight;
+    }
+}
@@ -0,0 +1,32 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * IntGreaterThan.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized comparison verifies that an integer is larger than an integer or a real. A real is truncated, like in
+ * IntegerValue.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class IntGreaterThan extends Comparison {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the comparison
+     * @param oRight right side of the comparison
+     */
+    public IntGreaterThan(final Expression oLeft, final Expression oRight) {
+        super("INT_GREATER_THAN", BasicTokenType.GREATER, oLeft, oRight);
+    }
+
+    @Override
+    public boolean evaluateBoolean() throws Exception {
+        return _oLeft.evaluateInt() > _oRight.evaluateInt();
+    }
+}
@@ -0,0 +1,32 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * IntLessThan.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized comparison verifies that an integer is smaller than an integer or a real. A real is truncated, like
+ * in IntegerValue.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class IntLessThan extends Comparison {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the comparison
+     * @param oRight right side of the comparison
+     */
+    public IntLessThan(final Expression oLeft, final Expression oRight) {
+        super("INT_LESS_THAN", BasicTokenType.SMALLER, oLeft, oRight);
+    }
+
+    @Override
+    public boolean evaluateBoolean() throws Exception {
+        return _oLeft.evaluateInt() < _oRight.evaluateInt();
+    }
+}
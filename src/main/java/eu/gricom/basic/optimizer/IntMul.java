@@ -0,0 +1,31 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * IntMul.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized operation multiplies an integer with an integer or real. A real is truncated, like in IntegerValue.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class IntMul extends IntOperation {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the operation
+     * @param oRight right side of the operation
+     */
+    public IntMul(final Expression oLeft, final Expression oRight) {
+        super("INT_MUL", BasicTokenType.MULTIPLY, oLeft, oRight);
+    }
+
+    @Override
+    public int evaluateInt() throws Exception {
+        return _oLeft.evaluateInt() * _oRight.evaluateInt();
+    }
+}
@@ -0,0 +1,31 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * IntNotEqual.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized comparison verifies that an integer is not equal to an integer.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class IntNotEqual extends Comparison {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the comparison
+     * @param oRight right side of the comparison
+     */
+    public IntNotEqual(final Expression oLeft, final Expression oRight) {
+        super("INT_NOT_EQUAL", BasicTokenType.COMPARE_NOT_EQUAL, oLeft, oRight);
+    }
+
+    @Override
+    public boolean evaluateBoolean() throws Exception {
+        return _oLeft.evaluateInt() != _oRight.evaluateInt();
+    }
+}
@@ -0,0 +1,49 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+/**
+ * IntOperation.java
+ * <p>
+ * Description:
+ * <p>
+ * Base class of the specialized arithmetic operations on an integer and an integer or real. As in IntegerValue, a
+ * real on the right side is truncated. The subclasses implement evaluateInt, all other ways to evaluate the operation
+ * are derived from it.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public abstract class IntOperation extends BinaryOperation {
+
+    /**
+     * Default constructor.
+     *
+     * @param strName name of the specialized operation
+     * @param eOperator the operator
+     * @param oLeft left side of the operation, of type INTEGER
+     * @param oRight right side of the operation, of type INTEGER or REAL
+     */
+    protected IntOperation(final String strName, final BasicTokenType eOperator,
+                           final Expression oLeft, final Expression oRight) {
+        super(strName, eOperator, oLeft, oRight);
+    }
+
+    @Override
+    public final VariableType getType() {
+        return VariableType.INTEGER;
+    }
+
+    @Override
+    public final Value evaluate() throws Exception {
+        return IntegerValue.valueOf(evaluateInt());
+    }
+
+    @Override
+    public final double evaluateDouble() throws Exception {
+        return evaluateInt();
+    }
+}
@@ -0,0 +1,31 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * IntSub.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized operation subtracts an integer or real from an integer. A real is truncated, like in IntegerValue.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class IntSub extends IntOperation {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the operation
+     * @param oRight right side of the operation
+     */
+    public IntSub(final Expression oLeft, final Expression oRight) {
+        super("INT_SUB", BasicTokenType.MINUS, oLeft, oRight);
+    }
+
+    @Override
+    public int evaluateInt() throws Exception {
+        return _oLeft.evaluateInt() - _oRight.evaluateInt();
+    }
+}
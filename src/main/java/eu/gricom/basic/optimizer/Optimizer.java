@@ -0,0 +1,333 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.functions.Function;
+import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.statements.AssignStatement;
+import eu.gricom.basic.statements.AssignableExpression;
+import eu.gricom.basic.statements.ColonStatement;
+import eu.gricom.basic.statements.DataStatement;
+import eu.gricom.basic.statements.DimStatement;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.ExpressionRewriter;
+import eu.gricom.basic.statements.ForStatement;
+import eu.gricom.basic.statements.InputStatement;
+import eu.gricom.basic.statements.LabelStatement;
+import eu.gricom.basic.statements.OperatorExpression;
+import eu.gricom.basic.statements.OptionStatement;
+import eu.gricom.basic.statements.PragmaStatement;
+import eu.gricom.basic.statements.PrintStatement;
+import eu.gricom.basic.statements.ReadStatement;
+import eu.gricom.basic.statements.RemStatement;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.statements.SubStringExpression;
+import eu.gricom.basic.statements.UnaryOperatorExpression;
+import eu.gricom.basic.statements.VariableExpression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Optimizer.java
+ * <p>
+ * Description:
+ * <p>
+ * The optimizer runs once after the linker and before the specializer. It rewrites the expressions of all statements
+ * bottom-up, in two steps:
+ * <ul>
+ *     <li>constant folding: operator expressions, unary operator expressions, sub-strings, and calls of functions
+ *     without side effects (SIN, SQR, CHR$, ...), whose operands are all constants, are calculated once and replaced
+ *     with their value,</li>
+ *     <li>constant propagation: a variable that is assigned exactly once in the program, from a constant, is replaced
+ *     with this constant wherever it is read. The assignment itself stays in the program.</li>
+ * </ul>
+ * A variable is only propagated if its assignment is executed before any of its uses: the assignment has to be part
+ * of the straight-line start of the program, before the first statement that can jump, and the variable must not be
+ * read before it. Variables that are also set by FOR, INPUT, or READ are not propagated.
+ * <p>
+ * Comparisons of strings are not folded, as their result depends on the collation selected during the execution.
+ * Expressions whose calculation fails, e.g. a division by zero, are left as they are, so that the error is reported
+ * when the statement is executed.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public class Optimizer {
+    // functions that only depend on their parameters
+    private static final Set<BasicTokenType> PURE_FUNCTIONS = EnumSet.of(
+            BasicTokenType.ABS, BasicTokenType.ASC, BasicTokenType.ATN, BasicTokenType.CDBL, BasicTokenType.CHR,
+            BasicTokenType.CINT, BasicTokenType.COS, BasicTokenType.EXP, BasicTokenType.INSTR, BasicTokenType.INT,
+            BasicTokenType.LEFT, BasicTokenType.LEN, BasicTokenType.LOG, BasicTokenType.LOG10, BasicTokenType.MID,
+            BasicTokenType.RIGHT, BasicTokenType.SIN, BasicTokenType.SQR, BasicTokenType.STR, BasicTokenType.TAN,
+            BasicTokenType.VAL);
+
+    private final Logger _oLogger = new Logger(this.getClass().getName());
+    private final List<Statement> _aoStatements;
+    private final List<Statement> _aoProgramStatements;
+    private Map<String, Value> _aoConstants = new HashMap<>();
+    private int _iFolded = 0;
+    private int _iPropagated = 0;
+
+    /**
+     * Default constructor.
+     *
+     * @param oProgram the program after the linker step
+     */
+    public Optimizer(final Program oProgram) {
+        _aoStatements = new ArrayList<>();
+        _aoProgramStatements = oProgram.getStatements() != null ? oProgram.getStatements() : new ArrayList<>();
+
+        if (oProgram.getPreRunStatements() != null) {
+            _aoStatements.addAll(oProgram.getPreRunStatements());
+        }
+
+        _aoStatements.addAll(_aoProgramStatements);
+    }
+
+    /**
+     * Fold the constant expressions of all statements, and then propagate the constant variables.
+     */
+    public final void optimize() {
+        for (Statement oStatement : _aoStatements) {
+            oStatement.rewrite(this::fold);
+        }
+
+        // a propagated constant can make the assignment of another variable constant
+        Map<String, Value> aoConstants = findConstants();
+
+        while (!aoConstants.isEmpty()) {
+            _aoConstants.putAll(aoConstants);
+
+            for (Statement oStatement : _aoStatements) {
+                oStatement.rewrite(this::propagate);
+            }
+
+            aoConstants = findConstants();
+            aoConstants.keySet().removeAll(_aoConstants.keySet());
+        }
+
+        _oLogger.debug("-optimize-> " + _iFolded + " constant expressions folded, " + _aoConstants.size()
+                               + " constant variables propagated into " + _iPropagated + " uses");
+    }
+
+    /**
+     * Get the number of expressions replaced by their value.
+     *
+     * @return number of folded expressions
+     */
+    public final int getFolded() {
+        return _iFolded;
+    }
+
+    /**
+     * Get the number of variables replaced by a constant.
+     *
+     * @return number of replaced uses of constant variables
+     */
+    public final int getPropagated() {
+        return _iPropagated;
+    }
+
+    /**
+     * Fold an expression, after folding its sub-expressions.
+     *
+     * @param oExpression expression to be folded
+     * @return the value of the expression, or the expression itself
+     */
+    public final Expression fold(final Expression oExpression) {
+        oExpression.rewrite(this::fold);
+
+        return foldConstant(oExpression);
+    }
+
+    /**
+     * Replace the constant variables of an expression, and fold the expressions which become constant.
+     *
+     * @param oExpression expression to be rewritten
+     * @return the rewritten expression
+     */
+    private Expression propagate(final Expression oExpression) {
+        if (oExpression instanceof VariableExpression oVariable && _aoConstants.containsKey(oVariable.getName())) {
+            _iPropagated++;
+            return _aoConstants.get(oVariable.getName());
+        }
+
+        oExpression.rewrite(this::propagate);
+
+        return foldConstant(oExpression);
+    }
+
+    /**
+     * Calculate an expression whose operands are all constants.
+     *
+     * @param oExpression expression with folded sub-expressions
+     * @return the value of the expression, or the expression itself if it cannot be calculated before the execution
+     */
+    private Expression foldConstant(final Expression oExpression) {
+        boolean bFoldable = oExpression instanceof OperatorExpression
+                || oExpression instanceof UnaryOperatorExpression
+                || oExpression instanceof SubStringExpression
+                || oExpression instanceof Function oFunction && PURE_FUNCTIONS.contains(oFunction.getFunction());
+
+        if (!bFoldable || !isConstant(oExpression) || isStringComparison(oExpression)) {
+            return oExpression;
+        }
+
+        try {
+            Value oValue = oExpression.evaluate();
+            _iFolded++;
+
+            return oValue;
+        } catch (Exception eException) {
+            // reported when the statement is executed
+            return oExpression;
+        }
+    }
+
+    /**
+     * Check whether an expression compares strings. The result depends on the collation, which a PRAGMA statement
+     * can change during the execution.
+     *
+     * @param oExpression the expression
+     * @return true for a comparison with a string on the left side
+     */
+    private static boolean isStringComparison(final Expression oExpression) {
+        return oExpression instanceof OperatorExpression oOperator && oOperator.getLeft() instanceof StringValue
+                && oOperator.getOperation() != BasicTokenType.PLUS;
+    }
+
+    /**
+     * Check whether all sub-expressions of an expression are constants.
+     *
+     * @param oExpression the expression
+     * @return true if the expression has sub-expressions, and all of them are values
+     */
+    private static boolean isConstant(final Expression oExpression) {
+        boolean[] abConstant = {true, false};
+
+        oExpression.rewrite(oOperand -> {
+            abConstant[0] &= oOperand instanceof Value;
+            abConstant[1] = true;
+            return oOperand;
+        });
+
+        return abConstant[0] && abConstant[1];
+    }
+
+    /**
+     * Find the variables with a single assignment from a constant, which is executed before the variable is read.
+     *
+     * @return the constant variables by name, with their values
+     */
+    private Map<String, Value> findConstants() {
+        Map<String, Value> aoCandidates = new HashMap<>();
+        Map<String, Integer> aiAssignments = new HashMap<>();
+        Set<String> astrExcluded = new HashSet<>();
+        Set<String> astrRead = new HashSet<>();
+        boolean bStraightLine = true;
+
+        for (Statement oStatement : _aoProgramStatements) {
+            if (oStatement instanceof AssignStatement oAssignment) {
+                AssignableExpression oTarget = oAssignment.getTarget();
+
+                if (oTarget instanceof VariableExpression oVariable) {
+                    String strName = oVariable.getName();
+
+                    aiAssignments.merge(strName, 1, Integer::sum);
+
+                    if (bStraightLine && !astrRead.contains(strName) && oVariable.getSlot() >= 0
+                            && oAssignment.getExpression() instanceof Value oValue) {
+                        Value oStored = getStoredValue(oVariable.getType(), oValue);
+
+                        if (oStored != null) {
+                            aoCandidates.put(strName, oStored);
+                        }
+                    }
+                }
+            } else if (oStatement instanceof ForStatement oFor) {
+                astrExcluded.add(oFor.getName());
+            } else if (oStatement instanceof InputStatement oInput) {
+                astrExcluded.add(oInput.getName());
+            } else if (oStatement instanceof ReadStatement oRead) {
+                for (AssignableExpression oTarget : oRead.getTargets()) {
+                    if (oTarget instanceof VariableExpression oVariable) {
+                        astrExcluded.add(oVariable.getName());
+                    }
+                }
+            }
+
+            collectReads(oStatement, astrRead);
+            bStraightLine &= isStraightLine(oStatement);
+        }
+
+        aoCandidates.keySet().removeIf(strName -> aiAssignments.get(strName) != 1 || astrExcluded.contains(strName));
+
+        return aoCandidates;
+    }
+
+    /**
+     * Get the value read from a variable after the assignment of a constant. An integer variable stores a real
+     * value without its decimals.
+     *
+     * @param eType type of the variable
+     * @param oValue the constant
+     * @return the value of the variable, or null if it is not known before the execution
+     */
+    private static Value getStoredValue(final VariableType eType, final Value oValue) {
+        if (eType == VariableType.UNDEFINED || eType == oValue.getType()) {
+            return oValue;
+        }
+
+        if (eType == VariableType.INTEGER && oValue instanceof RealValue oReal) {
+            return IntegerValue.valueOf((int) oReal.evaluateDouble());
+        }
+
+        return null;
+    }
+
+    /**
+     * Collect the names of all variables read by a statement.
+     *
+     * @param oStatement the statement
+     * @param astrRead names of the variables read so far
+     */
+    private static void collectReads(final Statement oStatement, final Set<String> astrRead) {
+        ExpressionRewriter oCollector = new ExpressionRewriter() {
+            @Override
+            public Expression rewrite(final Expression oExpression) {
+                if (oExpression instanceof VariableExpression oVariable) {
+                    astrRead.add(oVariable.getName());
+                }
+
+                oExpression.rewrite(this);
+                return oExpression;
+            }
+        };
+
+        oStatement.rewrite(oCollector);
+    }
+
+    /**
+     * Check whether the execution always continues with the next statement.
+     *
+     * @param oStatement the statement
+     * @return true for statements without jumps
+     */
+    private static boolean isStraightLine(final Statement oStatement) {
+        return oStatement instanceof AssignStatement || oStatement instanceof PrintStatement
+                || oStatement instanceof RemStatement || oStatement instanceof DimStatement
+                || oStatement instanceof DataStatement || oStatement instanceof OptionStatement
+                || oStatement instanceof PragmaStatement || oStatement instanceof LabelStatement
+                || oStatement instanceof ColonStatement;
+    }
+}
@@ -0,0 +1,31 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * RealAdd.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized operation adds two reals.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class RealAdd extends RealOperation {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the operation
+     * @param oRight right side of the operation
+     */
+    public RealAdd(final Expression oLeft, final Expression oRight) {
+        super("REAL_ADD", BasicTokenType.PLUS, oLeft, oRight);
+    }
+
+    @Override
+    public double evaluateDouble() throws Exception {
+        return _oLeft.evaluateDouble() + _oRight.evaluateDouble();
+    }
+}
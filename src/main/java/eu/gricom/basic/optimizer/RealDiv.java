@@ -0,0 +1,39 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.error.DivideByZeroException;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * RealDiv.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized operation divides a real by a real. A division by zero is reported like in RealValue.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class RealDiv extends RealOperation {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the operation
+     * @param oRight right side of the operation
+     */
+    public RealDiv(final Expression oLeft, final Expression oRight) {
+        super("REAL_DIV", BasicTokenType.DIVIDE, oLeft, oRight);
+    }
+
+    @Override
+    public double evaluateDouble() throws Exception {
+        double dLeft = _oLeft.evaluateDouble();
+        double dRight = _oRight.evaluateDouble();
+
+        if (dRight == 0) {
+            throw new DivideByZeroException(dLeft + "/" + dRight + " is a division by zero");
+        }
+
+        return dLeft / dRight;
+    }
+}
@@ -0,0 +1,31 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * RealGreaterEqual.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized comparison verifies that a real is larger than or equal to a real.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class RealGreaterEqual extends Comparison {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the comparison
+     * @param oRight right side of the comparison
+     */
+    public RealGreaterEqual(final Expression oLeft, final Expression oRight) {
+        super("REAL_GREATER_EQUAL", BasicTokenType.GREATER_EQUAL, oLeft, oRight);
+    }
+
+    @Override
+    public boolean evaluateBoolean() throws Exception {
+        return _oLeft.evaluateDouble() >= _oRight.evaluateDouble();
+    }
+}
@@ -0,0 +1,82 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.error.UnexpectedTypeException;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+/**
+ * RealGuard.java
+ * <p>
+ * Description:
+ * <p>
+ * The guard wraps an operand whose type is only known at runtime, e.g. an untyped variable, into an expression of
+ * type REAL. As long as the operand evaluates to a real value, the guard passes the number on. Otherwise it throws an
+ * UnexpectedTypeException, which makes the enclosing speculative expression fall back to the generic operations.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class RealGuard implements Expression {
+    private final Expression _oOperand;
+
+    /**
+     * Default constructor.
+     *
+     * @param oOperand the guarded operand
+     */
+    public RealGuard(final Expression oOperand) {
+        _oOperand = oOperand;
+    }
+
+    /**
+     * get the guarded operand.
+     *
+     * @return the operand
+     */
+    public Expression getOperand() {
+        return _oOperand;
+    }
+
+    @Override
+    public VariableType getType() {
+        return VariableType.REAL;
+    }
+
+    @Override
+    public Value evaluate() throws Exception {
+        return new RealValue(_oOperand.evaluateReal());
+    }
+
+    /**
+     * Return the operand as a double.
+     *
+     * @return value of the operand
+     * @throws UnexpectedTypeException if the operand does not evaluate to a real value
+     * @throws Exception any error of the operand
+     */
+    @Override
+    public double evaluateDouble() throws Exception {
+        return _oOperand.evaluateReal();
+    }
+
+    @Override
+    public double evaluateReal() throws Exception {
+        return _oOperand.evaluateReal();
+    }
+
+    @Override
+    public int evaluateInt() throws Exception {
+        return (int) _oOperand.evaluateReal();
+    }
+
+    @Override
+    public String content() {
+        return _oOperand.content();
+    }
+
+    @Override
+    public String structure() throws Exception {
+        return "{\"REAL_GUARD\": " + _oOperand.structure() + "}";
+    }
+}
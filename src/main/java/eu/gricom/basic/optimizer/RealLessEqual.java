@@ -0,0 +1,31 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * RealLessEqual.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized comparison verifies that a real is smaller than or equal to a real.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class RealLessEqual extends Comparison {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the comparison
+     * @param oRight right side of the comparison
+     */
+    public RealLessEqual(final Expression oLeft, final Expression oRight) {
+        super("REAL_LESS_EQUAL", BasicTokenType.SMALLER_EQUAL, oLeft, oRight);
+    }
+
+    @Override
+    public boolean evaluateBoolean() throws Exception {
+        return _oLeft.evaluateDouble() <= _oRight.evaluateDouble();
+    }
+}
@@ -0,0 +1,53 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+/**
+ * RealOperation.java
+ * <p>
+ * Description:
+ * <p>
+ * Base class of the specialized arithmetic operations on two reals. The subclasses implement evaluateDouble, all other
+ * ways to evaluate the operation are derived from it.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public abstract class RealOperation extends BinaryOperation {
+
+    /**
+     * Default constructor.
+     *
+     * @param strName name of the specialized operation
+     * @param eOperator the operator
+     * @param oLeft left side of the operation, of type REAL
+     * @param oRight right side of the operation, of type REAL
+     */
+    protected RealOperation(final String strName, final BasicTokenType eOperator,
+                            final Expression oLeft, final Expression oRight) {
+        super(strName, eOperator, oLeft, oRight);
+    }
+
+    @Override
+    public final VariableType getType() {
+        return VariableType.REAL;
+    }
+
+    @Override
+    public final Value evaluate() throws Exception {
+        return new RealValue(evaluateDouble());
+    }
+
+    @Override
+    public final double evaluateReal() throws Exception {
+        return evaluateDouble();
+    }
+
+    @Override
+    public final int evaluateInt() throws Exception {
+        return (int) evaluateDouble();
+    }
+}
@@ -0,0 +1,31 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+
+/**
+ * RealSub.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized operation subtracts a real from a real.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class RealSub extends RealOperation {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the operation
+     * @param oRight right side of the operation
+     */
+    public RealSub(final Expression oLeft, final Expression oRight) {
+        super("REAL_SUB", BasicTokenType.MINUS, oLeft, oRight);
+    }
+
+    @Override
+    public double evaluateDouble() throws Exception {
+        return _oLeft.evaluateDouble() - _oRight.evaluateDouble();
+    }
+}
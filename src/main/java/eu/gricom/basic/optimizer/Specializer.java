@@ -0,0 +1,244 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.OperatorExpression;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.statements.VariableExpression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.VariableType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specializer.java
+ * <p>
+ * Description:
+ * <p>
+ * The specializer runs once after the linker and before the execution of the program. It rewrites the expressions of
+ * all statements bottom-up and replaces the generic operator expressions with specialized operations, e.g. RealAdd for
+ * the addition of two reals or IntLessThan for the comparison of two integers. A specialized operation only executes
+ * its own operator on its own type, without dispatching on the operator or on the class of the values.
+ * <p>
+ * If the types of the operands are known when the program is parsed, the specialized operation is used directly.
+ * Untyped variables usually hold real values, as all numbers in a BASIC program are reals: the specializer speculates
+ * on this, guards the variables with a RealGuard, and wraps the largest speculated part of the expression into a
+ * SpeculativeExpression, which deoptimizes to the generic expression as soon as a guard fails.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public class Specializer {
+    private final Logger _oLogger = new Logger(this.getClass().getName());
+    private final List<Statement> _aoStatements;
+    private int _iSpecialized = 0;
+    private int _iSpeculative = 0;
+
+    /**
+     * Default constructor.
+     *
+     * @param oProgram the program after the linker step
+     */
+    public Specializer(final Program oProgram) {
+        _aoStatements = new ArrayList<>();
+
+        if (oProgram.getPreRunStatements() != null) {
+            _aoStatements.addAll(oProgram.getPreRunStatements());
+        }
+
+        if (oProgram.getStatements() != null) {
+            _aoStatements.addAll(oProgram.getStatements());
+        }
+    }
+
+    /**
+     * Constructor used for the specialization of a list of statements.
+     *
+     * @param aoStatements the parsed program
+     */
+    public Specializer(final List<Statement> aoStatements) {
+        _aoStatements = aoStatements != null ? aoStatements : new ArrayList<>();
+    }
+
+    /**
+     * Specialize the expressions of all statements of the program.
+     */
+    public final void specialize() {
+        for (Statement oStatement : _aoStatements) {
+            oStatement.rewrite(this::specialize);
+        }
+
+        _oLogger.debug("-specialize-> " + _iSpecialized + " specialized operations, " + _iSpeculative
+                               + " of them speculative");
+    }
+
+    /**
+     * Specialize an expression, after the specialization of its sub-expressions.
+     *
+     * @param oExpression expression to be specialized
+     * @return the specialized expression, or the expression itself
+     */
+    public final Expression specialize(final Expression oExpression) {
+        oExpression.rewrite(this::specialize);
+
+        if (oExpression instanceof OperatorExpression oOperator) {
+            return specializeOperator(oOperator);
+        }
+
+        return oExpression;
+    }
+
+    /**
+     * Specialize an operator expression whose sides are already specialized.
+     *
+     * @param oOperator the operator expression
+     * @return the specialized operation, a speculative expression, or the operator expression itself
+     */
+    private Expression specializeOperator(final OperatorExpression oOperator) {
+        BasicTokenType eOperation = oOperator.getOperation();
+        Expression oLeft = oOperator.getLeft();
+        Expression oRight = oOperator.getRight();
+
+        if (eOperation == null) {
+            return oOperator;
+        }
+
+        // a string on the left side concatenates anything
+        if (eOperation == BasicTokenType.PLUS && oLeft.getType() == VariableType.STRING) {
+            _iSpecialized++;
+            return new StringConcat(oLeft, oRight);
+        }
+
+        Expression oLeftOperand = getOperand(oLeft);
+        Expression oRightOperand = getOperand(oRight);
+
+        if (oLeftOperand == null || oRightOperand == null) {
+            return oOperator;
+        }
+
+        boolean bSpeculative = oLeftOperand != oLeft || oRightOperand != oRight;
+        Expression oSpecialized = createOperation(eOperation, oLeftOperand, oRightOperand);
+
+        if (oSpecialized == null && bSpeculative) {
+            // no specialized class for this operator, but the operator expression has primitive paths of its own
+            oSpecialized = new OperatorExpression(oLeftOperand, eOperation, oRightOperand);
+
+            if (oSpecialized.getType() == VariableType.UNDEFINED) {
+                oSpecialized = null;
+            }
+        }
+
+        if (oSpecialized == null) {
+            return oOperator;
+        }
+
+        _iSpecialized++;
+
+        if (!bSpeculative) {
+            return oSpecialized;
+        }
+
+        _iSpeculative++;
+        Expression oGeneric = new OperatorExpression(getGeneric(oLeft), eOperation, getGeneric(oRight));
+
+        return new SpeculativeExpression(oSpecialized, oGeneric);
+    }
+
+    /**
+     * Get the operand to be used by a specialized operation: expressions of a known type are used as they are, the
+     * specialized version of a speculative expression is taken over into the enclosing speculation, and untyped
+     * variables are guarded.
+     *
+     * @param oExpression side of the operator expression
+     * @return the operand, or null if the type of the expression is not known and cannot be speculated on
+     */
+    private static Expression getOperand(final Expression oExpression) {
+        if (oExpression.getType() != VariableType.UNDEFINED) {
+            return oExpression;
+        }
+
+        if (oExpression instanceof SpeculativeExpression oSpeculative) {
+            return oSpeculative.getSpecialized();
+        }
+
+        if (oExpression instanceof VariableExpression) {
+            return new RealGuard(oExpression);
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the generic version of a side of the operator expression.
+     *
+     * @param oExpression side of the operator expression
+     * @return the generic version of a speculative expression, or the expression itself
+     */
+    private static Expression getGeneric(final Expression oExpression) {
+        if (oExpression instanceof SpeculativeExpression oSpeculative) {
+            return oSpeculative.getGeneric();
+        }
+
+        return oExpression;
+    }
+
+    /**
+     * Create the specialized operation for an operator and the types of its operands. The type rules are the same as
+     * in the operator expression.
+     *
+     * @param eOperation the operator
+     * @param oLeft left operand, of a known type
+     * @param oRight right operand, of a known type
+     * @return the specialized operation, or null if there is no specialized operation for this combination
+     */
+    private static Expression createOperation(final BasicTokenType eOperation, final Expression oLeft,
+                                              final Expression oRight) {
+        VariableType eLeft = oLeft.getType();
+        VariableType eRight = oRight.getType();
+
+        if (eLeft == VariableType.REAL && eRight == VariableType.REAL) {
+            return switch (eOperation) {
+                case PLUS -> new RealAdd(oLeft, oRight);
+                case MINUS -> new RealSub(oLeft, oRight);
+                case MULTIPLY -> new RealMul(oLeft, oRight);
+                case DIVIDE -> new RealDiv(oLeft, oRight);
+                case COMPARE_EQUAL -> new RealEqual(oLeft, oRight);
+                case COMPARE_NOT_EQUAL -> new RealNotEqual(oLeft, oRight);
+                case SMALLER -> new RealLessThan(oLeft, oRight);
+                case SMALLER_EQUAL -> new RealLessEqual(oLeft, oRight);
+                case GREATER -> new RealGreaterThan(oLeft, oRight);
+                case GREATER_EQUAL -> new RealGreaterEqual(oLeft, oRight);
+                default -> null;
+            };
+        }
+
+        if (eLeft == VariableType.INTEGER && eRight == VariableType.INTEGER) {
+            switch (eOperation) {
+                case DIVIDE:
+                    return new IntDiv(oLeft, oRight);
+                case COMPARE_EQUAL:
+                    return new IntEqual(oLeft, oRight);
+                case COMPARE_NOT_EQUAL:
+                    return new IntNotEqual(oLeft, oRight);
+                default:
+                    break;
+            }
+        }
+
+        if (eLeft == VariableType.INTEGER && (eRight == VariableType.INTEGER || eRight == VariableType.REAL)) {
+            return switch (eOperation) {
+                case PLUS -> new IntAdd(oLeft, oRight);
+                case MINUS -> new IntSub(oLeft, oRight);
+                case MULTIPLY -> new IntMul(oLeft, oRight);
+                case SMALLER -> new IntLessThan(oLeft, oRight);
+                case SMALLER_EQUAL -> new IntLessEqual(oLeft, oRight);
+                case GREATER -> new IntGreaterThan(oLeft, oRight);
+                case GREATER_EQUAL -> new IntGreaterEqual(oLeft, oRight);
+                default -> null;
+            };
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,151 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.error.UnexpectedTypeException;
+import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+/**
+ * SpeculativeExpression.java
+ * <p>
+ * Description:
+ * <p>
+ * A speculative expression holds two versions of the same calculation: a specialized version assuming that the
+ * untyped operands hold real values, and the generic version using the operations of the value classes. The
+ * specialized version is executed until one of its guards finds a value of another type. From then on, the
+ * expression is deoptimized and always executes the generic version.
+ * <p>
+ * The specializer only speculates on operands without side effects, so that the generic version can calculate the
+ * expression again after a guard has failed.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class SpeculativeExpression implements Expression {
+    private final Logger _oLogger = new Logger(this.getClass().getName());
+    private final Expression _oSpecialized;
+    private final Expression _oGeneric;
+    private final boolean _bReal;
+    private boolean _bDeoptimized = false;
+
+    /**
+     * Default constructor.
+     *
+     * @param oSpecialized the specialized version, of type REAL or BOOLEAN
+     * @param oGeneric the generic version
+     */
+    public SpeculativeExpression(final Expression oSpecialized, final Expression oGeneric) {
+        _oSpecialized = oSpecialized;
+        _oGeneric = oGeneric;
+        _bReal = oSpecialized.getType() == VariableType.REAL;
+    }
+
+    /**
+     * get the specialized version of the expression.
+     *
+     * @return the specialized expression
+     */
+    public Expression getSpecialized() {
+        return _oSpecialized;
+    }
+
+    /**
+     * get the generic version of the expression.
+     *
+     * @return the generic expression
+     */
+    public Expression getGeneric() {
+        return _oGeneric;
+    }
+
+    /**
+     * Verifies whether a guard has failed and the generic version is used.
+     *
+     * @return true, if the expression is deoptimized
+     */
+    public boolean isDeoptimized() {
+        return _bDeoptimized;
+    }
+
+    /**
+     * Switch to the generic version for all further evaluations. Compiled code calls this when one of its type
+     * guards fails.
+     */
+    public void deoptimize() {
+        _oLogger.debug("-deoptimize-> " + _oGeneric.content());
+        _bDeoptimized = true;
+    }
+
+    @Override
+    public Value evaluate() throws Exception {
+        if (!_bDeoptimized) {
+            try {
+                if (_bReal) {
+                    return new RealValue(_oSpecialized.evaluateDouble());
+                }
+
+                return BooleanValue.valueOf(_oSpecialized.evaluateBoolean());
+            } catch (UnexpectedTypeException eException) {
+                deoptimize();
+            }
+        }
+
+        return _oGeneric.evaluate();
+    }
+
+    @Override
+    public double evaluateDouble() throws Exception {
+        if (!_bDeoptimized && _bReal) {
+            try {
+                return _oSpecialized.evaluateDouble();
+            } catch (UnexpectedTypeException eException) {
+                deoptimize();
+            }
+        }
+
+        return _oGeneric.evaluateDouble();
+    }
+
+    @Override
+    public double evaluateReal() throws Exception {
+        if (!_bDeoptimized && _bReal) {
+            try {
+                return _oSpecialized.evaluateDouble();
+            } catch (UnexpectedTypeException eException) {
+                deoptimize();
+            }
+        }
+
+        return _oGeneric.evaluateReal();
+    }
+
+    @Override
+    public boolean evaluateBoolean() throws Exception {
+        if (!_bDeoptimized && !_bReal) {
+            try {
+                return _oSpecialized.evaluateBoolean();
+            } catch (UnexpectedTypeException eException) {
+                deoptimize();
+            }
+        }
+
+        return _oGeneric.evaluateBoolean();
+    }
+
+    @Override
+    public String content() {
+        return _oGeneric.content();
+    }
+
+    @Override
+    public String structure() throws Exception {
+        String strReturn = "{\"SPECULATION\": {";
+        strReturn += "\"SPECIALIZED\": " + _oSpecialized.structure() + ",";
+        strReturn += "\"GENERIC\": " + _oGeneric.structure();
+        strReturn += "}}";
+
+        return strReturn;
+    }
+}
@@ -0,0 +1,42 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+/**
+ * StringConcat.java
+ * <p>
+ * Description:
+ * <p>
+ * The specialized operation concatenates a string and a value of any type. As in StringValue, the value on the right
+ * side is converted into its string form, and a string built by repeated concatenations is appended in place.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class StringConcat extends BinaryOperation {
+
+    /**
+     * Default constructor.
+     *
+     * @param oLeft left side of the operation, of type STRING
+     * @param oRight right side of the operation
+     */
+    public StringConcat(final Expression oLeft, final Expression oRight) {
+        super("STRING_CONCAT", BasicTokenType.PLUS, oLeft, oRight);
+    }
+
+    @Override
+    public VariableType getType() {
+        return VariableType.STRING;
+    }
+
+    @Override
+    public Value evaluate() throws Exception {
+        Value oLeft = _oLeft.evaluate();
+
+        // appends to the buffer of the left side, see StringValue
+        return oLeft.plus(_oRight.evaluate());
+    }
+}
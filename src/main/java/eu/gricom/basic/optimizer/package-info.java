@@ -0,0 +1,4 @@
+/**
+ *
+ */
+package eu.gricom.basic.optimizer;
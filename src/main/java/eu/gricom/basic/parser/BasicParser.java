@@ -1,23 +1,29 @@
 package eu.gricom.basic.parser;
 
 import eu.gricom.basic.functions.Function;
+import eu.gricom.basic.statements.ArrayExpression;
+import eu.gricom.basic.statements.AssignableExpression;
 import eu.gricom.basic.statements.ColonStatement;
 import eu.gricom.basic.statements.DataStatement;
+import eu.gricom.basic.statements.DimStatement;
 import eu.gricom.basic.statements.ElseStatement;
+import eu.gricom.basic.statements.EndWhileStatement;
 import eu.gricom.basic.statements.ForStatement;
 import eu.gricom.basic.statements.GosubStatement;
 import eu.gricom.basic.statements.GotoStatement;
 import eu.gricom.basic.statements.IfThenStatement;
 import eu.gricom.basic.statements.InputStatement;
 import eu.gricom.basic.statements.OperatorExpression;
+import eu.gricom.basic.statements.OptionStatement;
 import eu.gricom.basic.statements.PrintStatement;
 import eu.gricom.basic.statements.RemStatement;
+import eu.gricom.basic.tokenizer.BasicLexer;
 import eu.gricom.basic.tokenizer.BasicTokenType;
 import eu.gricom.basic.tokenizer.Token;
+import eu.gricom.basic.tokenizer.TokenBuffer;
 import eu.gricom.basic.variableTypes.RealValue;
 import eu.gricom.basic.error.SyntaxErrorException;
 import eu.gricom.basic.helper.Logger;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
 import eu.gricom.basic.statements.AssignStatement;
 import eu.gricom.basic.statements.DoStatement;
 import eu.gricom.basic.statements.EndStatement;
@@ -28,6 +34,7 @@ import eu.gricom.basic.statements.PragmaStatement;
 import eu.gricom.basic.statements.ReadStatement;
 import eu.gricom.basic.statements.ReturnStatement;
 import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.statements.SubStringExpression;
 import eu.gricom.basic.statements.UnaryOperatorExpression;
 import eu.gricom.basic.statements.UntilStatement;
 import eu.gricom.basic.statements.VariableExpression;
@@ -36,7 +43,10 @@ import eu.gricom.basic.variableTypes.StringValue;
 
 import eu.gricom.basic.variableTypes.Value;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * This defines the Basic parser. The parser takes in a sequence of tokens
@@ -45,28 +55,51 @@ import java.util.List;
  * nest arbitrarily deeply) that they evaluate. In technical terms, what we
  * have is a recursive descent parser, the simplest kind to hand-write.
  * <p>
- * As a side-effect, this phase also stores off the line numbers for each
+ * As a side-effect, this phase also stores off the statement numbers for each
  * label in the program. It's a bit gross, but it works.
+ * <p>
+ * The parser reads the tokens from a token buffer with a cursor: _iPosition is the next token to be consumed, and
+ * getType(), getText() and getLine() look ahead from there without creating Token objects.
  */
 public class BasicParser implements Parser {
+    // the string functions written with a "$", e.g. CHR$(67), and the number of their parameters
+    private static final Map<String, BasicTokenType> STRING_FUNCTIONS = Map.of(
+            "CHR$", BasicTokenType.CHR, "LEFT$", BasicTokenType.LEFT, "MID$", BasicTokenType.MID,
+            "RIGHT$", BasicTokenType.RIGHT, "STR$", BasicTokenType.STR);
+    private static final Map<BasicTokenType, Integer> STRING_FUNCTION_PARAMETERS = Map.of(
+            BasicTokenType.CHR, 1, BasicTokenType.LEFT, 2, BasicTokenType.MID, 3, BasicTokenType.RIGHT, 2,
+            BasicTokenType.STR, 1);
+
     private final Logger _oLogger = new Logger(this.getClass().getName());
-    private final List<Token> _aoTokens;
+    private final TokenBuffer _oTokens;
     private int _iPosition;
-    private final LineNumberXRef _oLineNumber = new LineNumberXRef();
     private final boolean _bDartmouthFlag;
 
+    // the literals of the program, every number and string is represented by a single shared value
+    private final Map<Double, RealValue> _aoNumbers = new HashMap<>();
+    private final Map<String, StringValue> _aoStrings = new HashMap<>();
+
     /**
      * Default constructor.
      * The constructor receives the tokenized program and parses it.
      *
-     * @param aoTokens - the tokenized program
+     * @param oTokens - the tokenized program
      */
-    public BasicParser(final List<Token> aoTokens, boolean bDartmouthFlag) {
-        _aoTokens = aoTokens;
+    public BasicParser(final TokenBuffer oTokens, boolean bDartmouthFlag) {
+        _oTokens = oTokens;
         _iPosition = 0;
         _bDartmouthFlag = bDartmouthFlag;
     }
 
+    /**
+     * Constructor for a list of tokens.
+     *
+     * @param aoTokens - the tokenized program
+     */
+    public BasicParser(final List<Token> aoTokens, boolean bDartmouthFlag) {
+        this(TokenBuffer.of(aoTokens), bDartmouthFlag);
+    }
+
 
     /**
      * This parse step catches statements that are executed before the program starts. Typical command is DATA.
@@ -82,10 +115,9 @@ public class BasicParser implements Parser {
         boolean bContinue = true;
 
         while (bContinue) {
-            switch (getToken(0).getType()) {
+            switch (getType(0)) {
                 case DATA:
                     _oLogger.debug("-parsePreRun-> found Token: <" + _iPosition + "> [DATA] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     List<Value> aoValues = new ArrayList<>();
                     Value oValue;
 
@@ -96,16 +128,12 @@ public class BasicParser implements Parser {
                         throw new SyntaxErrorException("Token not of expected type:" + oToken.getType() + " Value: " + oToken.getText());
                     }
 
-                    if (oToken.getType() == BasicTokenType.STRING) {
-                        oValue = new StringValue(oToken.getText());
-                    } else {
-                        oValue = new RealValue(Double.parseDouble(oToken.getText()));
-                    }
+                    oValue = literal(oToken);
 
                     aoValues.add(oValue);
                     _iPosition++;
 
-                    while (getToken(0).getType() == BasicTokenType.COMMA) {
+                    while (getType(0) == BasicTokenType.COMMA) {
                         _iPosition++;
                         oToken = getToken(0);
                         if (oToken.getType() != BasicTokenType.STRING
@@ -113,11 +141,7 @@ public class BasicParser implements Parser {
                             throw new SyntaxErrorException("Token not of expected type:" + oToken.getType() + " Value: " + oToken.getText());
                         }
 
-                        if (oToken.getType() == BasicTokenType.STRING) {
-                            oValue = new StringValue(oToken.getText());
-                        } else {
-                            oValue = new RealValue(Double.parseDouble(oToken.getText()));
-                        }
+                        oValue = literal(oToken);
 
                         aoValues.add(oValue);
                         _iPosition++;
@@ -135,7 +159,7 @@ public class BasicParser implements Parser {
 
                 // No Token identified, Syntax Error
                 default:
-                    _oLogger.debug("-parsePreRun-> found Token: <" + _iPosition + "> [" + getToken(0).getType() + "] ");
+                    _oLogger.debug("-parsePreRun-> found Token: <" + _iPosition + "> [" + getType(0) + "] ");
                     _iPosition++;
             }
         }
@@ -157,12 +181,11 @@ public class BasicParser implements Parser {
         boolean bContinue = true;
 
         while (bContinue) {
-            switch (getToken(0).getType()) {
+            switch (getType(0)) {
                 // PRAGMA Token: Change execution behaviour of the program.
                 case PRAGMA:
                     int iPragmaLineNumber = _iPosition;
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [@PRAGMA] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     _iPosition++;
 
                     // Get start assignment, target value, and step size
@@ -170,9 +193,9 @@ public class BasicParser implements Parser {
                     String strSetting = consumeToken(BasicTokenType.STRING).getText();
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [STRING] " + strSetting);
 
-                    if (getToken(0).getType() != BasicTokenType.ASSIGN_EQUAL) {
-                        throw new SyntaxErrorException("Incorrect Operator: " + getToken(0).getType().toString() + " in Line ["
-                                                               + getToken(0).getLine() + "]");
+                    if (getType(0) != BasicTokenType.ASSIGN_EQUAL) {
+                        throw new SyntaxErrorException("Incorrect Operator: " + getType(0).toString() + " in Line ["
+                                                               + getLine(0) + "]");
                     }
 
                     _iPosition++;
@@ -187,7 +210,6 @@ public class BasicParser implements Parser {
                 // COMMENT Token: Ignore any following part of the line, identical to the REM token.
                 case COLON:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [COLON] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     aoStatements.add(new ColonStatement(_iPosition));
                     _iPosition++;
                     break;
@@ -201,7 +223,6 @@ public class BasicParser implements Parser {
                 // DATA Token: Already processed in the pre-run parse step, still in to ensure stability
                 case DATA:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [DATA] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
 
                     Token oToken = getToken(1);
                     if (oToken.getType() != BasicTokenType.STRING
@@ -210,7 +231,7 @@ public class BasicParser implements Parser {
                     }
                     _iPosition++;
 
-                    while (getToken(1).getType() == BasicTokenType.COMMA) {
+                    while (getType(1) == BasicTokenType.COMMA) {
                         _iPosition++;
 
                         oToken = getToken(1);
@@ -227,36 +248,53 @@ public class BasicParser implements Parser {
                 // DEF Token: Ignored as this part of the code is processed in the MacroProcessor.
                 case DEF:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [DEF] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     aoStatements.add(new RemStatement(_iPosition, "found DEF statement"));
 
                     int iMoveTo = 1;
-                    while (getToken(iMoveTo).getType() != BasicTokenType.STRING) {
+                    while (getType(iMoveTo) != BasicTokenType.STRING) {
                         iMoveTo++;
                     }
                     _iPosition = _iPosition + iMoveTo;
                     _iPosition++;
                     break;
 
+                // DIM Token: Define one or more arrays, e.g. DIM A(3,3), B$(10)
+                case DIM:
+                    int iDimPosition = _iPosition;
+                    _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [DIM] ");
+                    List<String> astrArrayNames = new ArrayList<>();
+                    List<List<Expression>> aoUpperBounds = new ArrayList<>();
+                    _iPosition++;
+
+                    astrArrayNames.add(consumeToken(BasicTokenType.WORD).getText());
+                    aoUpperBounds.add(indexList());
+
+                    while (getType(0) == BasicTokenType.COMMA) {
+                        _iPosition++;
+                        astrArrayNames.add(consumeToken(BasicTokenType.WORD).getText());
+                        aoUpperBounds.add(indexList());
+                    }
+
+                    aoStatements.add(new DimStatement(iDimPosition, astrArrayNames, aoUpperBounds));
+                    break;
+
                 // DO Token: Define the anchor point for the DO - UNTIL loop
                 case DO:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [DO] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     aoStatements.add(new DoStatement(_iPosition));
                     _iPosition++;
                     break;
 
-                // END Token: Terminate execution of program
-                case END:
+                // END and STOP Token: Terminate execution of program
+                case END: case STOP:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [END] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     aoStatements.add(new EndStatement(_iPosition));
                     _iPosition++;
                     break;
 
                 // List of all tokens that are used in a different context (e.g. as part of the IFTHEN token)
                 case ENDIF:
-                    _oLogger.debug("-parse-> ignoring token: <" + _iPosition + "> [" + getToken(0).getType() + "] ");
+                    _oLogger.debug("-parse-> ignoring token: <" + _iPosition + "> [" + getType(0) + "] ");
                     _iPosition++;
                     break;
 
@@ -275,33 +313,32 @@ public class BasicParser implements Parser {
 
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [FOR] ");
                     final int iForPosition = _iPosition++;
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), iForPosition);
 
                     // Get start assignment, target value, and step size
                     String strForVariable = consumeToken(BasicTokenType.WORD).getText();
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [WORD] " + strForVariable);
 
-                    if (getToken(0).getType() != BasicTokenType.ASSIGN_EQUAL) {
-                        throw new SyntaxErrorException("Incorrect Operator: " + getToken(0).getType().toString() + " in Line ["
-                                + getToken(0).getLine() + "]");
+                    if (getType(0) != BasicTokenType.ASSIGN_EQUAL) {
+                        throw new SyntaxErrorException("Incorrect Operator: " + getType(0).toString() + " in Line ["
+                                + getLine(0) + "]");
                     } else {
                         _iPosition = _iPosition + 1;
                         oStartValueExpression = expression();
                         _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [NUMBER] " + oStartValueExpression.content());
                     }
 
-                    if (getToken(0).getType() != BasicTokenType.TO) {
-                        throw new SyntaxErrorException("Missing TO Operator: " + getToken(0).getType().toString()
-                                + " in Line [" + getToken(0).getLine() + "]");
+                    if (getType(0) != BasicTokenType.TO) {
+                        throw new SyntaxErrorException("Missing TO Operator: " + getType(0).toString()
+                                + " in Line [" + getLine(0) + "]");
                     } else {
                         _iPosition = _iPosition + 1;
                         oEndValueExpression = expression();
                         _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [NUMBER] " + oEndValueExpression.content());
                     }
 
-                    if (getToken(0).getType() != BasicTokenType.STEP) {
-                        _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [" + getToken(0).getType().toString() + " ] StepSize set to 1");
-                        oStepSize = new RealValue(1); // default step size
+                    if (getType(0) != BasicTokenType.STEP) {
+                        _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [" + getType(0).toString() + " ] StepSize set to 1");
+                        oStepSize = number(1); // default step size
                     } else {
                         _iPosition = _iPosition + 1;
                          oStepSize = expression();
@@ -327,7 +364,6 @@ public class BasicParser implements Parser {
                 case GOTO:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [GOTO] ");
                     iOrgPosition = _iPosition;
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     _iPosition++;
                     strTargetLineNumber = consumeToken(BasicTokenType.NUMBER).getText();
                     aoStatements.add(new GotoStatement(iOrgPosition, strTargetLineNumber));
@@ -337,7 +373,6 @@ public class BasicParser implements Parser {
                 case GOSUB:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [GOSUB] ");
                     iOrgPosition = _iPosition;
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     _iPosition++;
                     strTargetLineNumber = consumeToken(BasicTokenType.NUMBER).getText();
                     aoStatements.add(new GosubStatement(iOrgPosition, strTargetLineNumber));
@@ -347,7 +382,6 @@ public class BasicParser implements Parser {
                 case IF:
                     int iElsePosition; // initialize the variable that holds the location of the ELSE token
                     iOrgPosition = _iPosition;
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     _iPosition++;
                     Expression oCondition = expression();
                     _oLogger.debug("-parse-> found Token: <" + (_iPosition - 1) + "> [IF]: <" + oCondition.content() + ">");
@@ -356,9 +390,9 @@ public class BasicParser implements Parser {
 
                     // if the programmer wants to jump to a specific location instead of executing the IF block, then
                     // the next token is a number.
-                    if (getToken(0).getType() == BasicTokenType.NUMBER) {
+                    if (getType(0) == BasicTokenType.NUMBER) {
                         aoStatements.add(new IfThenStatement(oCondition, iOrgPosition, 0, 0,
-                                                             Integer.parseInt(getToken(0).getText())));
+                                                             Integer.parseInt(getText(0))));
                         _iPosition++;
                     } else {
                         // This block is executed if the next token is a command - means the parser looks for a ELSE
@@ -396,7 +430,6 @@ public class BasicParser implements Parser {
                 // ELSE Token: When the IF block is executed, then the program can run into an ELSE statement.
                 case ELSE:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [ELSE] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     _iPosition++;
                     aoStatements.add(new ElseStatement(_iPosition - 1));
                     break;
@@ -404,7 +437,6 @@ public class BasicParser implements Parser {
                 // INPUT Token: Read the line from terminal for processing
                 case INPUT:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [INPUT] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     _iPosition++;
                     aoStatements.add(new InputStatement(_iPosition - 1, consumeToken(BasicTokenType.WORD).getText()));
                     break;
@@ -412,7 +444,13 @@ public class BasicParser implements Parser {
                 // LABEL Token: tbd
                 case LABEL:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [LABEL] ");
-                    oLabelStatement.putLabelStatement(getToken(0).getText(), aoStatements.size());
+                    oLabelStatement.putLabelStatement(getText(0), aoStatements.size());
+                    _iPosition++;
+                    break;
+
+                // LET Token: Optional keyword in front of an assignment, ignore
+                case LET:
+                    _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [LET] ");
                     _iPosition++;
                     break;
 
@@ -422,23 +460,52 @@ public class BasicParser implements Parser {
                     _iPosition++;
                     break;
 
+                // OPTION Token: Set the lowest index of the arrays (OPTION BASE 0 or OPTION BASE 1)
+                case OPTION:
+                    int iOptionPosition = _iPosition;
+                    _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [OPTION] ");
+                    _iPosition++;
+                    consumeToken(BasicTokenType.BASE);
+                    int iBase = (int) Double.parseDouble(consumeToken(BasicTokenType.NUMBER).getText());
+                    aoStatements.add(new OptionStatement(iOptionPosition, iBase));
+                    break;
+
+                // RANDOMIZE Token: The random number generator is seeded at start, ignore
+                case RANDOMIZE:
+                    _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [RANDOMIZE] ");
+                    aoStatements.add(new RemStatement(_iPosition, "RANDOMIZE"));
+                    _iPosition++;
+                    break;
+
                 // RETURN Token: Jump to the GoSub statement
                 case RETURN:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [RETURN], to be translated ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     aoStatements.add(new ReturnStatement(_iPosition));
                     _iPosition++;
                     break;
 
-                // ENDWHILE Token: Identical to the NEXT functionality:
+                // ENDWHILE Token: End of the WHILE loop, returns to the WHILE statement
                 case ENDWHILE:
+                    _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [END-WHILE] ");
+                    aoStatements.add(new EndWhileStatement(_iPosition));
+                    _iPosition++;
+                    break;
 
                 // NEXT Token: Start of the FOR-NEXT loop
                 case NEXT:
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [NEXT] ");
-                    aoStatements.add(new NextStatement(_iPosition));
+                    int iNextPosition = _iPosition;
+                    String strNextVariable = null;
                     _iPosition++;
+
+                    // the loop variable after NEXT is optional, the linker checks that it matches the FOR statement
+                    if (getType(0) == BasicTokenType.WORD
+                            && getLine(0) == getLine(-1)) {
+                        strNextVariable = getText(0);
+                        _iPosition++;
+                    }
+
+                    aoStatements.add(new NextStatement(iNextPosition, strNextVariable));
                     break;
 
                 // PRINT Token: print to the terminal
@@ -448,26 +515,26 @@ public class BasicParser implements Parser {
                     boolean bCRLF = true;
 
                     _oLogger.debug("-parse-> found Token: <" + iPrintPosition + "> [PRINT] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), iPrintPosition);
                     _iPosition++;
 
 
-                    if (getToken(0).getType() != BasicTokenType.NUMBER
-                            && getToken(0).getType() != BasicTokenType.STRING
-                            && getToken(0).getType() != BasicTokenType.WORD) {
-                        aoExpression.add(new StringValue(" "));
+                    if (isEndOfStatement(iPrintPosition)) {
+                        aoExpression.add(string(" "));
                     } else {
                         aoExpression.add(expression());
-                    }
 
-                    while (getToken(0).getType() == BasicTokenType.COMMA) {
-                        _iPosition++;
-                        aoExpression.add(expression());
-                    }
+                        // a separator at the end of the statement suppresses the line feed
+                        while (getType(0) == BasicTokenType.COMMA
+                                || getType(0) == BasicTokenType.SEMICOLON) {
+                            _iPosition++;
 
-                    if (getToken(0).getType() == BasicTokenType.SEMICOLON) {
-                        _iPosition++;
-                        bCRLF = false;
+                            if (isEndOfStatement(iPrintPosition)) {
+                                bCRLF = false;
+                                break;
+                            }
+
+                            aoExpression.add(expression());
+                        }
                     }
 
                     aoStatements.add(new PrintStatement(iPrintPosition, aoExpression, bCRLF));
@@ -477,38 +544,22 @@ public class BasicParser implements Parser {
                 case READ:
                     int iReadPosition = _iPosition;
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [READ] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
-                    List<String> astrVariables = new ArrayList<>();
+                    List<AssignableExpression> aoVariables = new ArrayList<>();
                     _iPosition++;
 
-                    Token oReadToken = getToken(0);
-                    if (oReadToken.getType() != BasicTokenType.WORD) {
-                        throw new SyntaxErrorException("Token not of expected type:" + oReadToken.getType()
-                                                               + " Value" + ": " + oReadToken.getText());
-                    }
-
-                    astrVariables.add(oReadToken.getText());
-                    _iPosition++;
+                    aoVariables.add(assignable());
 
-                    while (getToken(0).getType() == BasicTokenType.COMMA) {
-                        _iPosition++;
-                        oReadToken = getToken(0);
-                        if (oReadToken.getType() != BasicTokenType.WORD) {
-                            throw new SyntaxErrorException("Token not of expected type:" + oReadToken.getType()
-                                                                   + " Value: " + oReadToken.getText());
-                        }
-
-                        astrVariables.add(oReadToken.getText());
+                    while (getType(0) == BasicTokenType.COMMA) {
                         _iPosition++;
+                        aoVariables.add(assignable());
                     }
 
-                    aoStatements.add(new ReadStatement(iReadPosition, astrVariables));
+                    aoStatements.add(new ReadStatement(iReadPosition, aoVariables));
                     break;
 
                 // REM Token: contains comments to the program, ignore the rest of the line
                 case REM:
                     _oLogger.debug("-parse-> found Token: <" + _iPosition + "> [REM] ");
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     aoStatements.add(new RemStatement(_iPosition, "Comment"));
                     _iPosition++;
                     break;
@@ -516,7 +567,6 @@ public class BasicParser implements Parser {
                 // UNTIL Token: Conditional processing
                 case UNTIL:
                     iOrgPosition = _iPosition;
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), iOrgPosition);
                     _iPosition++;
                     Expression oUntilCondition = expression();
                     _oLogger.debug("-parse-> found Token: <" + (iOrgPosition) + "> [UNTIL]: <" + oUntilCondition.content() + ">");
@@ -526,7 +576,6 @@ public class BasicParser implements Parser {
                 // WHILE Token: Conditional looping
                 case WHILE:
                     iOrgPosition = _iPosition;
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), _iPosition);
                     _iPosition++;
                     Expression oWhileCondition = expression();
                     _oLogger.debug("-parse-> found Token: <" + (_iPosition - 1) + "> [WHILE]: <" + oWhileCondition.content() + ">");
@@ -541,31 +590,27 @@ public class BasicParser implements Parser {
 
                     int iCurrPosition = _iPosition;
 
-                    _oLineNumber.putLineNumber(getToken(0).getLine(), iCurrPosition);
 
-                    if (getToken(1).getType() == BasicTokenType.ASSIGN_EQUAL) {
-                        String strName = getToken(0).getText();
-                        _iPosition = _iPosition + 2;
+                    if (getType(1) == BasicTokenType.ASSIGN_EQUAL
+                            || getType(1) == BasicTokenType.LEFT_PAREN) {
+                        AssignableExpression oTarget = assignable();
+                        consumeToken(BasicTokenType.ASSIGN_EQUAL);
                         Expression oExpression = expression();
-                        aoStatements.add(new AssignStatement(iCurrPosition, strName, oExpression));
+                        aoStatements.add(new AssignStatement(iCurrPosition, oTarget, oExpression));
                     } else {
-                        throw new SyntaxErrorException("Incorrect Operator: " + getToken(0).getType().toString()
-                                + " in Line [" + getToken(0).getLine() + "]");
+                        throw new SyntaxErrorException("Incorrect Operator: " + getType(0).toString()
+                                + " in Line [" + getLine(0) + "]");
                     }
                     break;
 
                 // No Token identified, Syntax Error
                 default:
-                    throw new SyntaxErrorException("Incorrect Command: " + getToken(0).getLine() + ": ["
-                            + getToken(0).getType() + "] <"
-                            + getToken(0).getLine() + ">");
+                    throw new SyntaxErrorException("Incorrect Command: " + getLine(0) + ": ["
+                            + getType(0) + "] <"
+                            + getLine(0) + ">");
             }
         }
 
-        for (Statement oStatement: aoStatements) {
-            _oLineNumber.putStatementNumber(oStatement.getTokenNumber(), aoStatements.indexOf(oStatement));
-        }
-
         return aoStatements;
     }
 
@@ -582,7 +627,7 @@ public class BasicParser implements Parser {
      * @throws SyntaxErrorException - marks any syntax errors
      */
     private Expression expression() throws SyntaxErrorException {
-        _oLogger.debug("-expression-> <" + _iPosition + "> [" + getToken(0).getType().toString() + "]");
+        _oLogger.debug("-expression-> <" + _iPosition + "> [" + getType(0).toString() + "]");
         if (_bDartmouthFlag) {
             return operator();
         }
@@ -664,7 +709,7 @@ public class BasicParser implements Parser {
     private Expression logicalOr() throws SyntaxErrorException {
         Expression left = logicalAnd();
 
-        while (getToken(0).getType() == BasicTokenType.OR) {
+        while (getType(0) == BasicTokenType.OR) {
             Token operator = getToken(0);
             _iPosition++;
             Expression right = logicalAnd();
@@ -683,7 +728,7 @@ public class BasicParser implements Parser {
     private Expression logicalAnd() throws SyntaxErrorException {
         Expression left = equality();
 
-        while (getToken(0).getType() == BasicTokenType.AND) {
+        while (getType(0) == BasicTokenType.AND) {
             Token operator = getToken(0);
             _iPosition++;
             Expression right = equality();
@@ -702,12 +747,17 @@ public class BasicParser implements Parser {
     private Expression equality() throws SyntaxErrorException {
         Expression left = comparison();
 
-        while (getToken(0).getType() == BasicTokenType.COMPARE_EQUAL ||
-                getToken(0).getType() == BasicTokenType.COMPARE_NOT_EQUAL) {
+        while (getType(0) == BasicTokenType.COMPARE_EQUAL ||
+                getType(0) == BasicTokenType.COMPARE_NOT_EQUAL ||
+                getType(0) == BasicTokenType.ASSIGN_EQUAL) {
             Token operator = getToken(0);
             _iPosition++;
             Expression right = comparison();
-            left = new OperatorExpression(left, operator.getType(), right);
+
+            // inside an expression, a single "=" compares like "=="
+            BasicTokenType eOperator = operator.getType() == BasicTokenType.ASSIGN_EQUAL
+                    ? BasicTokenType.COMPARE_EQUAL : operator.getType();
+            left = new OperatorExpression(left, eOperator, right);
         }
 
         return left;
@@ -722,10 +772,10 @@ public class BasicParser implements Parser {
     private Expression comparison() throws SyntaxErrorException {
         Expression left = shift();
 
-        while (getToken(0).getType() == BasicTokenType.SMALLER ||
-                getToken(0).getType() == BasicTokenType.SMALLER_EQUAL ||
-                getToken(0).getType() == BasicTokenType.GREATER ||
-                getToken(0).getType() == BasicTokenType.GREATER_EQUAL) {
+        while (getType(0) == BasicTokenType.SMALLER ||
+                getType(0) == BasicTokenType.SMALLER_EQUAL ||
+                getType(0) == BasicTokenType.GREATER ||
+                getType(0) == BasicTokenType.GREATER_EQUAL) {
             Token operator = getToken(0);
             _iPosition++;
             Expression right = shift();
@@ -744,8 +794,8 @@ public class BasicParser implements Parser {
     private Expression shift() throws SyntaxErrorException {
         Expression left = addition();
 
-        while (getToken(0).getType() == BasicTokenType.SHIFT_LEFT ||
-                getToken(0).getType() == BasicTokenType.SHIFT_RIGHT) {
+        while (getType(0) == BasicTokenType.SHIFT_LEFT ||
+                getType(0) == BasicTokenType.SHIFT_RIGHT) {
             Token operator = getToken(0);
             _iPosition++;
             Expression right = addition();
@@ -764,8 +814,8 @@ public class BasicParser implements Parser {
     private Expression addition() throws SyntaxErrorException {
         Expression left = multiplication();
 
-        while (getToken(0).getType() == BasicTokenType.PLUS ||
-                getToken(0).getType() == BasicTokenType.MINUS) {
+        while (getType(0) == BasicTokenType.PLUS ||
+                getType(0) == BasicTokenType.MINUS) {
             Token operator = getToken(0);
             _iPosition++;
             Expression right = multiplication();
@@ -784,9 +834,9 @@ public class BasicParser implements Parser {
     private Expression multiplication() throws SyntaxErrorException {
         Expression left = exponentiation();
 
-        while (getToken(0).getType() == BasicTokenType.MULTIPLY ||
-                getToken(0).getType() == BasicTokenType.DIVIDE ||
-                getToken(0).getType() == BasicTokenType.MODULO) {
+        while (getType(0) == BasicTokenType.MULTIPLY ||
+                getType(0) == BasicTokenType.DIVIDE ||
+                getType(0) == BasicTokenType.MODULO) {
             Token operator = getToken(0);
             _iPosition++;
             Expression right = exponentiation();
@@ -805,7 +855,7 @@ public class BasicParser implements Parser {
     private Expression exponentiation() throws SyntaxErrorException {
         Expression left = unary();
 
-        if (getToken(0).getType() == BasicTokenType.POWER) {
+        if (getType(0) == BasicTokenType.POWER) {
             Token operator = getToken(0);
             _iPosition++;
             // Exponentiation is right-associative, so we call exponentiation() recursively
@@ -823,9 +873,9 @@ public class BasicParser implements Parser {
      * @throws SyntaxErrorException for syntax errors
      */
     private Expression unary() throws SyntaxErrorException {
-        if (getToken(0).getType() == BasicTokenType.PLUS ||
-                getToken(0).getType() == BasicTokenType.MINUS ||
-                getToken(0).getType() == BasicTokenType.NOT) {
+        if (getType(0) == BasicTokenType.PLUS ||
+                getType(0) == BasicTokenType.MINUS ||
+                getType(0) == BasicTokenType.NOT) {
             Token operator = getToken(0);
             _iPosition++;
             Expression operand = unary();
@@ -836,6 +886,40 @@ public class BasicParser implements Parser {
     }
 
 
+    /**
+     * Get the value of a number or string literal. Equal literals share a single value.
+     *
+     * @param oToken the NUMBER or STRING token
+     * @return the value of the literal
+     */
+    private Value literal(final Token oToken) {
+        if (oToken.getType() == BasicTokenType.STRING) {
+            return string(oToken.getText());
+        }
+
+        return number(Double.parseDouble(oToken.getText()));
+    }
+
+    /**
+     * Get the value of a number literal. Equal numbers share a single value.
+     *
+     * @param dValue the number
+     * @return the value of the number
+     */
+    private RealValue number(final double dValue) {
+        return _aoNumbers.computeIfAbsent(dValue, RealValue::new);
+    }
+
+    /**
+     * Get the value of a string literal. Equal strings share a single value.
+     *
+     * @param strValue the string
+     * @return the value of the string
+     */
+    private StringValue string(final String strValue) {
+        return _aoStrings.computeIfAbsent(strValue, StringValue::new);
+    }
+
     /**
      * Parses an "atomic" expression. This is the highest level of
      * precedence and contains single literal tokens like 123 and "foo", as
@@ -851,12 +935,30 @@ public class BasicParser implements Parser {
 
         switch (oToken.getType()) {
 
-            // If the current token is of type WORD, then we assume it is a variable.
+            // If the current token is of type WORD, then we assume it is a string function written with a "$", a
+            // variable, an array element if it is followed by a parenthesis, or a sub-string if it contains a square
+            // bracket.
             case WORD:
                 oToken = getToken(0);
                 _oLogger.debug("-atomic-> found token: <" + _iPosition + "> [" + oToken.getType().toString() + "] '"
                         + oToken.getText() + "' [" + oToken.getLine() + "]");
+
+                if (getType(1) == BasicTokenType.LEFT_PAREN) {
+                    BasicTokenType oFunction = STRING_FUNCTIONS.get(oToken.getText().toUpperCase(Locale.ROOT));
+
+                    if (oFunction != null) {
+                        return stringFunction(new Token(oToken.getText(), oFunction, oToken.getLine()));
+                    }
+
+                    return assignable();
+                }
+
                 _iPosition++;
+
+                if (oToken.getText().indexOf('[') > 0) {
+                    return subString(oToken);
+                }
+
                 return new VariableExpression(oToken.getText());
 
             // If the current token is of type NUMBER, then return the value as a double value
@@ -865,7 +967,7 @@ public class BasicParser implements Parser {
                 _oLogger.debug("-atomic-> found token: <" + _iPosition + "> [" + oToken.getType().toString() + "] '"
                         + oToken.getText() + "' [" + oToken.getLine() + "]");
                 _iPosition++;
-                return new RealValue(Double.parseDouble(oToken.getText()));
+                return literal(oToken);
 
             // If the current token us of type STRING, then return the value as a string value
             case STRING:
@@ -873,7 +975,7 @@ public class BasicParser implements Parser {
                 _oLogger.debug("-atomic-> found token: <" + _iPosition + "> [" + oToken.getType().toString() + "] '"
                         + oToken.getText() + "' [" + oToken.getLine() + "]");
                 _iPosition++;
-                return new StringValue(oToken.getText());
+                return literal(oToken);
 
             // The contents of a parenthesized expression can be any expression. This lets us "restart" the precedence cascade
             // so that you can have a lower precedence expression inside the parentheses.
@@ -917,7 +1019,7 @@ public class BasicParser implements Parser {
                 return oTwoParameterFunction;
 
             // single parameter function calls
-            case ABS: case ASC: case ATN: case CDBL: case CHR: case CINT: case COS: case EXP: case LEN: case LOG:
+            case ABS: case ASC: case ATN: case CDBL: case CHR: case CINT: case COS: case EXP: case INT: case LEN: case LOG:
                 case LOG10: case NOT: case SIN: case SQR: case STR: case TAN: case VAL:
                 oToken = getToken(0);
                 _oLogger.debug("-atomic-> found token: <" + _iPosition + "> [" + oToken.getType().toString() + "] '"
@@ -939,10 +1041,184 @@ public class BasicParser implements Parser {
 
             default:
                 // OK - here we have a text block that we cannot parse, so we throw an syntax exception
-                throw new SyntaxErrorException("Couldn't parse : [" + getToken(0).getType().toString() + "] <"
-                        + getToken(0).getLine() + ">");
+                throw new SyntaxErrorException("Couldn't parse : [" + getType(0).toString() + "] <"
+                        + getLine(0) + ">");
+
+        }
+    }
+
+    /**
+     * Parses a string function written with a "$", e.g. CHR$(67) or MID$(A$, 2, 3), in the same way as the function
+     * without the "$". Without this, the name would be read as an array.
+     *
+     * @param oToken the function, with the type of the function without the "$"
+     * @return The parsed function.
+     * @throws SyntaxErrorException - mark any syntax issues, e.g. a wrong number of parameters
+     */
+    private Expression stringFunction(final Token oToken) throws SyntaxErrorException {
+        List<Expression> aoParameters = new ArrayList<>();
+
+        _iPosition++;
+        consumeToken(BasicTokenType.LEFT_PAREN);
+        aoParameters.add(expression());
+
+        while (getType(0) == BasicTokenType.COMMA) {
+            _iPosition++;
+            aoParameters.add(expression());
+        }
+
+        consumeToken(BasicTokenType.RIGHT_PAREN);
+
+        if (aoParameters.size() != STRING_FUNCTION_PARAMETERS.get(oToken.getType())) {
+            throw new SyntaxErrorException("Wrong number of parameters for " + oToken.getText() + ": <"
+                                                   + oToken.getLine() + ">");
+        }
+
+        return switch (aoParameters.size()) {
+            case 1 -> new Function(oToken, aoParameters.get(0));
+            case 2 -> new Function(oToken, aoParameters.get(0), aoParameters.get(1));
+            default -> new Function(oToken, aoParameters.get(0), aoParameters.get(1), aoParameters.get(2));
+        };
+    }
+
+    /**
+     * Parses a variable or an array element that can be the target of an assignment or a READ statement.
+     *
+     * @return The parsed variable or array element.
+     * @throws SyntaxErrorException - mark any syntax issues
+     */
+    private AssignableExpression assignable() throws SyntaxErrorException {
+        Token oToken = consumeToken(BasicTokenType.WORD);
+        String strName = oToken.getText();
+
+        if (strName.indexOf('[') >= 0) {
+            throw new SyntaxErrorException("Sub-string " + strName + " cannot be assigned: <" + oToken.getLine() + ">");
+        }
+
+        if (getType(0) == BasicTokenType.LEFT_PAREN) {
+            return new ArrayExpression(strName, indexList());
+        }
+
+        return new VariableExpression(strName);
+    }
+
+    /**
+     * Parses a sub-string, e.g. A$[I] or A$[I, J + 1]. The lexer keeps the square brackets as part of the word token,
+     * so the positions are tokenized and parsed here, each by a parser of its own.
+     *
+     * @param oToken the word token with the name of the string and the positions in square brackets
+     * @return The parsed sub-string.
+     * @throws SyntaxErrorException - mark any syntax issues
+     */
+    private Expression subString(final Token oToken) throws SyntaxErrorException {
+        String strText = oToken.getText();
+        int iOpen = strText.indexOf('[');
+
+        if (!strText.endsWith("]")) {
+            throw new SyntaxErrorException("Sub-string " + strText + " is not closed: <" + oToken.getLine() + ">");
+        }
+
+        List<String> astrPositions = splitPositions(strText.substring(iOpen + 1, strText.length() - 1));
+
+        if (astrPositions.size() > 2) {
+            throw new SyntaxErrorException("Sub-string " + strText + " has more than two positions: <"
+                    + oToken.getLine() + ">");
+        }
+
+        Expression oString = new VariableExpression(strText.substring(0, iOpen));
+        Expression oStart = position(astrPositions.get(0), oToken.getLine());
+        Expression oEnd = astrPositions.size() == 2 ? position(astrPositions.get(1), oToken.getLine()) : null;
+
+        return new SubStringExpression(oString, oStart, oEnd);
+    }
+
+    /**
+     * Splits the text between the square brackets of a sub-string at the commas, which are not part of a function
+     * call, a nested sub-string, or a string literal.
+     *
+     * @param strText text between the square brackets
+     * @return the texts of the positions
+     */
+    private static List<String> splitPositions(final String strText) {
+        List<String> astrPositions = new ArrayList<>();
+        int iDepth = 0;
+        int iStart = 0;
+        boolean bQuoted = false;
+
+        for (int iIndex = 0; iIndex < strText.length(); iIndex++) {
+            char cCharacter = strText.charAt(iIndex);
+
+            if (cCharacter == '"') {
+                bQuoted = !bQuoted;
+            } else if (!bQuoted && (cCharacter == '(' || cCharacter == '[')) {
+                iDepth++;
+            } else if (!bQuoted && (cCharacter == ')' || cCharacter == ']')) {
+                iDepth--;
+            } else if (!bQuoted && iDepth == 0 && cCharacter == ',') {
+                astrPositions.add(strText.substring(iStart, iIndex));
+                iStart = iIndex + 1;
+            }
+        }
+
+        astrPositions.add(strText.substring(iStart));
+        return astrPositions;
+    }
+
+    /**
+     * Parses the position of a sub-string as a complete expression.
+     *
+     * @param strText text of the position
+     * @param iLine line number of the sub-string
+     * @return The parsed position.
+     * @throws SyntaxErrorException - mark any syntax issues
+     */
+    private Expression position(final String strText, final int iLine) throws SyntaxErrorException {
+        TokenBuffer oTokens = new BasicLexer().tokenizeCompact(iLine + " " + strText);
+        BasicParser oParser = new BasicParser(oTokens, _bDartmouthFlag);
+        Expression oPosition = oParser.expression();
+
+        if (oParser.getType(0) != BasicTokenType.EOP) {
+            throw new SyntaxErrorException("Couldn't parse the sub-string position " + strText + ": <" + iLine + ">");
+        }
+
+        return oPosition;
+    }
+
+    /**
+     * Parses a parenthesized, comma separated list of expressions, e.g. the indices of an array element or the
+     * dimensions of an array.
+     *
+     * @return The parsed expressions.
+     * @throws SyntaxErrorException - mark any syntax issues
+     */
+    private List<Expression> indexList() throws SyntaxErrorException {
+        List<Expression> aoIndices = new ArrayList<>();
 
+        consumeToken(BasicTokenType.LEFT_PAREN);
+        aoIndices.add(expression());
+
+        while (getType(0) == BasicTokenType.COMMA) {
+            _iPosition++;
+            aoIndices.add(expression());
         }
+
+        consumeToken(BasicTokenType.RIGHT_PAREN);
+        return aoIndices;
+    }
+
+    /**
+     * Checks whether the next token ends the current statement: it is a colon, the end of the program, or it is
+     * located in a different line than the statement.
+     *
+     * @param  iStatementPosition position of the first token of the statement.
+     * @return true if the statement ends before the next token.
+     */
+    private boolean isEndOfStatement(final int iStatementPosition) {
+        BasicTokenType oType = getType(0);
+
+        return oType == BasicTokenType.COLON
+                || oType == BasicTokenType.EOP
+                || getLine(0) != _oTokens.getLine(iStatementPosition);
     }
 
     /**
@@ -954,12 +1230,12 @@ public class BasicParser implements Parser {
     @Deprecated
     public final boolean matchNextToken(final String strName) {
 
-        if (getToken(0).getType() != BasicTokenType.WORD) {
+        if (getType(0) != BasicTokenType.WORD) {
             _oLogger.debug("-matchNextToken-> token compare failed");
             return false;
         }
 
-        if (!getToken(0).getText().equals(strName)) {
+        if (!getText(0).equals(strName)) {
             _oLogger.debug("-matchNextToken-> token compare failed");
             return false;
         }
@@ -981,14 +1257,14 @@ public class BasicParser implements Parser {
      */
     public final Token consumeToken(final BasicTokenType oType) throws SyntaxErrorException {
         _oLogger.debug("-consumeToken-> looking for Token: <" + (_iPosition) + "> [" + oType.toString() + "]: <"
-                + getToken(0).getType() + ">");
+                + getType(0) + ">");
 
-        if (getToken(0).getType() != oType) {
-            throw new SyntaxErrorException(getToken(0).getLine() + " Found: "
-                                                   + getToken(0).getText() + " " + "expected " + oType + ".");
+        if (getType(0) != oType) {
+            throw new SyntaxErrorException(getLine(0) + " Found: "
+                                                   + getText(0) + " " + "expected " + oType + ".");
         }
 
-        return _aoTokens.get(_iPosition++);
+        return _oTokens.getToken(_iPosition++);
     }
 
     /**
@@ -1002,18 +1278,18 @@ public class BasicParser implements Parser {
      */
     public final Token findToken(final BasicTokenType oType) throws SyntaxErrorException {
         _oLogger.debug("-findToken-> looking for Token: <" + (_iPosition) + "> [" + oType.toString() + "]: <"
-                + getToken(0).getType() + ">");
+                + getType(0) + ">");
 
         int iCurrentPosition = _iPosition;
 
-        while (iCurrentPosition < _aoTokens.size()) {
-            Token oToken = _aoTokens.get(iCurrentPosition);
+        while (iCurrentPosition < _oTokens.size()) {
+            BasicTokenType oFoundType = _oTokens.getType(iCurrentPosition);
 
-            if (oToken.getType() == oType) {
-                _oLogger.debug("-findToken-> found: <" + (iCurrentPosition) + "> [" + oToken.getType() + "]");
-                return oToken;
+            if (oFoundType == oType) {
+                _oLogger.debug("-findToken-> found: <" + (iCurrentPosition) + "> [" + oFoundType + "]");
+                return _oTokens.getToken(iCurrentPosition);
             } else {
-                _oLogger.debug("-findToken-> failed: <" + iCurrentPosition + "> [" + oToken.getType() + "]");
+                _oLogger.debug("-findToken-> failed: <" + iCurrentPosition + "> [" + oFoundType + "]");
                 iCurrentPosition++;
             }
         }
@@ -1031,13 +1307,56 @@ public class BasicParser implements Parser {
     public final Token getToken(final int iOffset) {
 
         //check whether the current position in the tokenized program is larger or equal the token size
-        if (_iPosition + iOffset >= _aoTokens.size()) {
+        if (_iPosition + iOffset >= _oTokens.size()) {
             // send an end_of_file token back - this is an unexpected EOP
             // TODO actually this is a syntax error and should throw the syntax error exception
             return new Token("", BasicTokenType.EOP, 0);
         }
 
         // get the requested token
-        return _aoTokens.get(_iPosition + iOffset);
+        return _oTokens.getToken(_iPosition + iOffset);
+    }
+
+    /**
+     * Gets the type of an unconsumed token, like getToken(iOffset).getType(), but without creating the token.
+     *
+     * @param  iOffset How far forward in the token stream to look.
+     * @return        The type of the token, or EOP after the end of the program.
+     */
+    public final BasicTokenType getType(final int iOffset) {
+        if (_iPosition + iOffset >= _oTokens.size()) {
+            return BasicTokenType.EOP;
+        }
+
+        return _oTokens.getType(_iPosition + iOffset);
+    }
+
+    /**
+     * Gets the text of an unconsumed token, like getToken(iOffset).getText(), but without creating the token.
+     *
+     * @param  iOffset How far forward in the token stream to look.
+     * @return        The text of the token, or an empty text after the end of the program.
+     */
+    public final String getText(final int iOffset) {
+        if (_iPosition + iOffset >= _oTokens.size()) {
+            return "";
+        }
+
+        return _oTokens.getText(_iPosition + iOffset);
+    }
+
+    /**
+     * Gets the BASIC line number of an unconsumed token, like getToken(iOffset).getLine(), but without creating the
+     * token.
+     *
+     * @param  iOffset How far forward in the token stream to look.
+     * @return        The line number of the token, or 0 after the end of the program.
+     */
+    public final int getLine(final int iOffset) {
+        if (_iPosition + iOffset >= _oTokens.size()) {
+            return 0;
+        }
+
+        return _oTokens.getLine(_iPosition + iOffset);
     }
 }
@@ -5,22 +5,30 @@ import eu.gricom.basic.helper.Logger;
 import eu.gricom.basic.memoryManager.LineNumberXRef;
 import eu.gricom.basic.memoryManager.Program;
 import eu.gricom.basic.memoryManager.ProgramPointer;
+import eu.gricom.basic.monitoring.Events;
+import eu.gricom.basic.monitoring.InterpreterMonitor;
 import eu.gricom.basic.statements.Statement;
 import java.util.List;
 
 public class Execute {
     private final transient Logger _oLogger = new Logger(this.getClass().getName());
-    private final transient LineNumberXRef _oLineNumbers = new LineNumberXRef();
+    private final transient LineNumberXRef _oLineNumbers;
     private final ProgramPointer _oProgramPointer = new ProgramPointer();
     private final List<Statement> _aoPreRunStatements;
     private final List<Statement> _aoStatements;
     private final Trace _oTrace = new Trace(false);
+    private final String _strProgramName;
 
     private Statement _oStatement = null;
+    private Profiler _oProfiler = null;
 
     public Execute(Program oProgram) {
         _aoPreRunStatements = oProgram.getPreRunStatements();
         _aoStatements = oProgram.getStatements();
+        _oLineNumbers = oProgram.getLineNumbers();
+        _strProgramName = oProgram.getProgramName();
+
+        Events.setLineNumbers(_oLineNumbers);
     }
 
     public void loadEnvironment() {
@@ -33,8 +41,10 @@ public class Execute {
                     int iThisStatement = _oProgramPointer.getCurrentStatement();
 
                     _oProgramPointer.calcNextStatement();
-                    _oLogger.debug("PreRun Statement # <" + iThisStatement + ">: [" + _aoPreRunStatements.get(
-                            iThisStatement).content() + "]");
+                    if (_oLogger.isDebug()) {
+                        _oLogger.debug("PreRun Statement # <" + iThisStatement + ">: [" + _aoPreRunStatements.get(
+                                iThisStatement).content() + "]");
+                    }
 
                     _aoPreRunStatements.get(iThisStatement).execute();
                 }
@@ -43,44 +53,89 @@ public class Execute {
                 System.exit(- 1);
             }
         } catch (Exception eException) {
+            Events.runtimeError(0, eException);
             eException.printStackTrace();
         }
     }
 
     public void runProgram() {
+        int iSourceCodeLineNumber = -1;
 
         _oLogger.info("Starting execution...");
         try {
             if (_aoStatements != null) {
-                int iSourceCodeLineNumber = -1;
                 _oProgramPointer.setCurrentStatement(0);
 
                 while (_oProgramPointer.getCurrentStatement() < _aoStatements.size()) {
                     // as long as we have not reached the end of the code
                     int iThisStatement = _oProgramPointer.getCurrentStatement();
 
-                    iSourceCodeLineNumber =
-                            _oLineNumbers.getLineNumberFromToken(_aoStatements.get(iThisStatement).getTokenNumber());
+                    iSourceCodeLineNumber = _oLineNumbers.getLineNumberFromStatement(iThisStatement);
 
                     _oProgramPointer.calcNextStatement();
 
-                    _oLogger.debug(
-                            "Basic Source Code Line [" + iSourceCodeLineNumber + "] Statement [ "
-                                    + _aoStatements.get(iThisStatement).getTokenNumber() + "]: "
-                                    + _aoStatements.get(iThisStatement).content());
+                    if (_oLogger.isDebug()) {
+                        _oLogger.debug(
+                                "Basic Source Code Line [" + iSourceCodeLineNumber + "] Statement [ "
+                                        + _aoStatements.get(iThisStatement).getTokenNumber() + "]: "
+                                        + _aoStatements.get(iThisStatement).content());
+                    }
 
                     _oTrace.trace(iSourceCodeLineNumber);
 
                     _oStatement = _aoStatements.get(iThisStatement);
-                    _aoStatements.get(iThisStatement).execute();
+
+                    if (InterpreterMonitor.isEnabled()) {
+                        InterpreterMonitor.countStatement();
+                    }
+
+                    if (Profiler.isEnabled()) {
+                        executeProfiled(iThisStatement);
+                    } else {
+                        _oStatement.execute();
+                    }
                 }
             } else {
                 _oLogger.error("Parsing delivered empty program");
                 System.exit(-1);
             }
         } catch (Exception eException) {
+            Events.runtimeError(iSourceCodeLineNumber, eException);
             eException.printStackTrace();
         }
+
+        if (_oProfiler != null) {
+            _oProfiler.report();
+        }
+    }
+
+    /**
+     * Execute the current statement, and record its duration in the profiler.
+     *
+     * @param iStatement number of the statement
+     * @throws Exception any error of the statement
+     */
+    private void executeProfiled(final int iStatement) throws Exception {
+        if (_oProfiler == null) {
+            _oProfiler = new Profiler(_strProgramName, _aoStatements, _oLineNumbers);
+        }
+
+        long lStart = System.nanoTime();
+
+        try {
+            _oStatement.execute();
+        } finally {
+            _oProfiler.record(iStatement, System.nanoTime() - lStart);
+        }
+    }
+
+    /**
+     * Get the profiler of the last run.
+     *
+     * @return the profiler, or null if the profiler was not switched on
+     */
+    public Profiler getProfiler() {
+        return _oProfiler;
     }
 
     public Statement getFinalStatement() {
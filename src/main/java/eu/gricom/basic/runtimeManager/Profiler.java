@@ -0,0 +1,288 @@
+package eu.gricom.basic.runtimeManager;
+
+import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.helper.Printer;
+import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.monitoring.Events;
+import eu.gricom.basic.monitoring.FileEvent;
+import eu.gricom.basic.statements.Statement;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Profiler.java
+ * <p>
+ * Description:
+ * <p>
+ * The profiler shows where a BASIC program spends its time in the interpreter. For each statement, it counts the
+ * executions and adds up their duration in nanoseconds, in two arrays indexed by the statement number. The report
+ * sums them up per BASIC source line and per statement type: the lines with the most time are printed as a table,
+ * and all lines and statement types are written to the report file, as JSON if the name ends with ".json", otherwise
+ * as CSV.
+ * <p>
+ * The profiler is switched on with the command line option "-f" or with @PRAGMA("Profile" = ...). While it is off,
+ * the interpreter only checks a static flag per statement. If the JVM is terminated before the end of the program,
+ * the report is created by a shutdown hook.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class Profiler {
+    // number of lines in the printed table
+    private static final int HOT_LINES = 20;
+
+    private static boolean _bEnabled = false;
+    private static String _strReportFile = null;
+
+    private final Logger _oLogger = new Logger(this.getClass().getName());
+    private final String _strProgramName;
+    private final List<Statement> _aoStatements;
+    private final LineNumberXRef _oLineNumbers;
+    private final long[] _alCounts;
+    private final long[] _alNanos;
+    private boolean _bReported = false;
+
+    /**
+     * Default constructor.
+     *
+     * @param strProgramName name of the program
+     * @param aoStatements statements of the program
+     * @param oLineNumbers line numbers of the statements
+     */
+    public Profiler(final String strProgramName, final List<Statement> aoStatements,
+                    final LineNumberXRef oLineNumbers) {
+        _strProgramName = strProgramName;
+        _aoStatements = aoStatements;
+        _oLineNumbers = oLineNumbers;
+        _alCounts = new long[aoStatements.size()];
+        _alNanos = new long[aoStatements.size()];
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::report));
+    }
+
+    /**
+     * Switch the profiler on.
+     *
+     * @param strReportFile name of the report file, or null to keep the current one
+     */
+    public static void enable(final String strReportFile) {
+        _bEnabled = true;
+
+        if (strReportFile != null) {
+            _strReportFile = strReportFile;
+        }
+    }
+
+    /**
+     * Switch the profiler off. The statements measured so far are still reported.
+     */
+    public static void disable() {
+        _bEnabled = false;
+    }
+
+    /**
+     * Check whether the statements are measured.
+     *
+     * @return true if the profiler is on
+     */
+    public static boolean isEnabled() {
+        return _bEnabled;
+    }
+
+    /**
+     * Record the execution of a statement.
+     *
+     * @param iStatement number of the statement
+     * @param lNanos duration of the execution in nanoseconds
+     */
+    public void record(final int iStatement, final long lNanos) {
+        _alCounts[iStatement]++;
+        _alNanos[iStatement] += lNanos;
+    }
+
+    /**
+     * Print the hot lines, and write the report file. Only the first call creates the report.
+     */
+    public synchronized void report() {
+        if (_bReported) {
+            return;
+        }
+
+        _bReported = true;
+        Printer.println(getHotLines());
+
+        if (_strReportFile != null) {
+            String strReport = _strReportFile.toLowerCase(Locale.ROOT).endsWith(".json") ? toJson() : toCsv();
+            byte[] abReport = strReport.getBytes(StandardCharsets.UTF_8);
+            FileEvent oEvent = Events.startFile();
+
+            try {
+                Files.write(Path.of(_strReportFile), abReport);
+                Events.endFile(oEvent, Events.WRITE, _strReportFile, abReport.length);
+            } catch (IOException eException) {
+                _oLogger.error("Profile cannot be written to " + _strReportFile + ": " + eException.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the table of the lines with the most time, sorted by their time.
+     *
+     * @return the table as text
+     */
+    public String getHotLines() {
+        Map<Integer, long[]> aoLines = sumLines();
+        long lTotal = 0;
+        long lExecuted = 0;
+
+        for (long[] alSum : aoLines.values()) {
+            lExecuted += alSum[0];
+            lTotal += alSum[1];
+        }
+
+        List<Map.Entry<Integer, long[]>> aoSorted = new ArrayList<>(aoLines.entrySet());
+        aoSorted.sort((oLeft, oRight) -> Long.compare(oRight.getValue()[1], oLeft.getValue()[1]));
+
+        StringBuilder strTable = new StringBuilder();
+        strTable.append(String.format(Locale.ROOT, "Profile of %s: %d statements in %.3f ms%n", _strProgramName,
+                                      lExecuted, lTotal / 1e6));
+        strTable.append(String.format(Locale.ROOT, "%8s %12s %12s %7s  %s%n", "Line", "Count", "Time (ms)", "Time %",
+                                      "Statements"));
+
+        for (Map.Entry<Integer, long[]> oLine : aoSorted.subList(0, Math.min(HOT_LINES, aoSorted.size()))) {
+            long[] alSum = oLine.getValue();
+
+            strTable.append(String.format(Locale.ROOT, "%8d %12d %12.3f %6.1f%%  %s%n", oLine.getKey(), alSum[0],
+                                          alSum[1] / 1e6, lTotal > 0 ? 100.0 * alSum[1] / lTotal : 0.0,
+                                          String.join(", ", getTypes(oLine.getKey()))));
+        }
+
+        return strTable.toString();
+    }
+
+    /**
+     * Get the report as CSV: one row per line and per statement type.
+     *
+     * @return the report
+     */
+    public String toCsv() {
+        StringBuilder strReport = new StringBuilder("kind,name,count,nanos\n");
+
+        for (Map.Entry<Integer, long[]> oLine : sumLines().entrySet()) {
+            strReport.append("line,").append(oLine.getKey()).append(',').append(oLine.getValue()[0]).append(',')
+                    .append(oLine.getValue()[1]).append('\n');
+        }
+
+        for (Map.Entry<String, long[]> oType : sumTypes().entrySet()) {
+            strReport.append("statement,").append(oType.getKey()).append(',').append(oType.getValue()[0])
+                    .append(',').append(oType.getValue()[1]).append('\n');
+        }
+
+        return strReport.toString();
+    }
+
+    /**
+     * Get the report as JSON, with the lists "lines" and "statements".
+     *
+     * @return the report
+     */
+    public String toJson() {
+        StringBuilder strReport = new StringBuilder("{\"program\": \"");
+        strReport.append(_strProgramName.replace("\\", "\\\\").replace("\"", "\\\"")).append("\",\n\"lines\": [");
+
+        String strSeparator = "\n";
+
+        for (Map.Entry<Integer, long[]> oLine : sumLines().entrySet()) {
+            strReport.append(strSeparator).append("{\"line\": ").append(oLine.getKey()).append(", \"count\": ")
+                    .append(oLine.getValue()[0]).append(", \"nanos\": ").append(oLine.getValue()[1]).append('}');
+            strSeparator = ",\n";
+        }
+
+        strReport.append("],\n\"statements\": [");
+        strSeparator = "\n";
+
+        for (Map.Entry<String, long[]> oType : sumTypes().entrySet()) {
+            strReport.append(strSeparator).append("{\"statement\": \"").append(oType.getKey())
+                    .append("\", \"count\": ").append(oType.getValue()[0]).append(", \"nanos\": ")
+                    .append(oType.getValue()[1]).append('}');
+            strSeparator = ",\n";
+        }
+
+        return strReport.append("]}\n").toString();
+    }
+
+    /**
+     * Sum up the executed statements per source line.
+     *
+     * @return count and nanoseconds per line, for the lines with executed statements
+     */
+    private Map<Integer, long[]> sumLines() {
+        Map<Integer, long[]> aoLines = new TreeMap<>();
+
+        for (int iStatement = 0; iStatement < _alCounts.length; iStatement++) {
+            if (_alCounts[iStatement] > 0) {
+                long[] alSum = aoLines.computeIfAbsent(_oLineNumbers.getLineNumberFromStatement(iStatement),
+                                                       iLine -> new long[2]);
+                alSum[0] += _alCounts[iStatement];
+                alSum[1] += _alNanos[iStatement];
+            }
+        }
+
+        return aoLines;
+    }
+
+    /**
+     * Sum up the executed statements per statement type.
+     *
+     * @return count and nanoseconds per statement type, for the types with executed statements
+     */
+    private Map<String, long[]> sumTypes() {
+        Map<String, long[]> aoTypes = new TreeMap<>();
+
+        for (int iStatement = 0; iStatement < _alCounts.length; iStatement++) {
+            if (_alCounts[iStatement] > 0) {
+                long[] alSum = aoTypes.computeIfAbsent(getType(iStatement), strType -> new long[2]);
+                alSum[0] += _alCounts[iStatement];
+                alSum[1] += _alNanos[iStatement];
+            }
+        }
+
+        return aoTypes;
+    }
+
+    /**
+     * Get the types of the executed statements of a source line.
+     *
+     * @param iLine the line number
+     * @return the statement types, in alphabetical order
+     */
+    private TreeSet<String> getTypes(final int iLine) {
+        TreeSet<String> astrTypes = new TreeSet<>();
+
+        for (int iStatement = 0; iStatement < _alCounts.length; iStatement++) {
+            if (_alCounts[iStatement] > 0 && _oLineNumbers.getLineNumberFromStatement(iStatement) == iLine) {
+                astrTypes.add(getType(iStatement));
+            }
+        }
+
+        return astrTypes;
+    }
+
+    /**
+     * Get the type of a statement: the name of its class without "Statement", e.g. "Assign".
+     *
+     * @param iStatement number of the statement
+     * @return the statement type
+     */
+    private String getType(final int iStatement) {
+        return _aoStatements.get(iStatement).getClass().getSimpleName().replace("Statement", "");
+    }
+}
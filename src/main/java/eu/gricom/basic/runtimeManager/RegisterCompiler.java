@@ -0,0 +1,710 @@
+package eu.gricom.basic.runtimeManager;
+
+import eu.gricom.basic.helper.Logger;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.memoryManager.VariableManagement;
+import eu.gricom.basic.optimizer.BinaryOperation;
+import eu.gricom.basic.optimizer.Comparison;
+import eu.gricom.basic.optimizer.IntAdd;
+import eu.gricom.basic.optimizer.IntDiv;
+import eu.gricom.basic.optimizer.IntEqual;
+import eu.gricom.basic.optimizer.IntGreaterEqual;
+import eu.gricom.basic.optimizer.IntGreaterThan;
+import eu.gricom.basic.optimizer.IntLessEqual;
+import eu.gricom.basic.optimizer.IntLessThan;
+import eu.gricom.basic.optimizer.IntMul;
+import eu.gricom.basic.optimizer.IntNotEqual;
+import eu.gricom.basic.optimizer.IntSub;
+import eu.gricom.basic.optimizer.RealAdd;
+import eu.gricom.basic.optimizer.RealDiv;
+import eu.gricom.basic.optimizer.RealEqual;
+import eu.gricom.basic.optimizer.RealGreaterEqual;
+import eu.gricom.basic.optimizer.RealGreaterThan;
+import eu.gricom.basic.optimizer.RealGuard;
+import eu.gricom.basic.optimizer.RealLessEqual;
+import eu.gricom.basic.optimizer.RealLessThan;
+import eu.gricom.basic.optimizer.RealMul;
+import eu.gricom.basic.optimizer.RealNotEqual;
+import eu.gricom.basic.optimizer.RealSub;
+import eu.gricom.basic.optimizer.SpeculativeExpression;
+import eu.gricom.basic.statements.ArrayExpression;
+import eu.gricom.basic.statements.AssignStatement;
+import eu.gricom.basic.statements.AssignableExpression;
+import eu.gricom.basic.statements.ColonStatement;
+import eu.gricom.basic.statements.DoStatement;
+import eu.gricom.basic.statements.ElseStatement;
+import eu.gricom.basic.statements.EndStatement;
+import eu.gricom.basic.statements.EndWhileStatement;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.GosubStatement;
+import eu.gricom.basic.statements.GotoStatement;
+import eu.gricom.basic.statements.IfThenStatement;
+import eu.gricom.basic.statements.LabelStatement;
+import eu.gricom.basic.statements.NextStatement;
+import eu.gricom.basic.statements.PragmaStatement;
+import eu.gricom.basic.statements.RemStatement;
+import eu.gricom.basic.statements.ReturnStatement;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.statements.UntilStatement;
+import eu.gricom.basic.statements.VariableExpression;
+import eu.gricom.basic.statements.WhileStatement;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.VariableType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static eu.gricom.basic.runtimeManager.RegisterMachine.ASSIGN;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.ASSIGN_INT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.ASSIGN_REAL;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.BOOLEAN_CALL;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.BOOLEAN_GUARDED_CALL;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.DISPATCH;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.EXECUTE;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.GUARD;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.HALT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.INDEX;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.INT_CALL;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.INT_CONSTANT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.INT_ELEMENT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.INT_GUARDED_CALL;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.INT_TO_REAL;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.INT_VARIABLE;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.JUMP;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.JUMP_NOT_ZERO;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.JUMP_ZERO;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.NEXT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.POP;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.POP_REGISTER;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.PUSH;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.REAL_CALL;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.REAL_CONSTANT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.REAL_ELEMENT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.REAL_GUARDED_CALL;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.REAL_TO_INT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.REAL_VARIABLE;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.SPECULATE;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.STORE_INT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.STORE_INT_ELEMENT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.STORE_REAL;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.STORE_REAL_ELEMENT;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.TRACE;
+import static eu.gricom.basic.runtimeManager.RegisterMachine.UNTYPED_VARIABLE;
+
+/**
+ * RegisterCompiler.java
+ * <p>
+ * Description:
+ * <p>
+ * The register compiler lowers a linked and specialized program into the instructions of the register machine. The
+ * statements are translated one after the other, so that the program flows from one statement into the next. Jumps
+ * with a target known at compile time (GOTO, GOSUB, IF ... THEN, WHILE) jump directly to the first instruction of the
+ * target, the control stack is used in the same way as by the statement objects.
+ * <p>
+ * Assignments and conditions built of the specialized operations of the optimizer, of numerical variables, array
+ * elements, and constants are calculated in the registers of the machine. Speculative expressions check the type of
+ * their untyped variables and fall back to the generic expression when a check fails, just as in the interpreter.
+ * All other statements and expressions are executed by calling their objects, so the register machine runs every
+ * program the interpreter runs.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class RegisterCompiler {
+    // kinds of results of an expression
+    private static final int DOUBLE = 0;
+    private static final int INT = 1;
+    private static final int BOOLEAN = 2;
+
+    private final Logger _oLogger = new Logger(this.getClass().getName());
+    private final VariableManagement _oVariableManagement = new VariableManagement();
+    private final List<Statement> _aoStatements;
+    private final LineNumberXRef _oLineNumbers;
+    private final boolean _bTrace;
+
+    private int[] _aiCode = new int[256];
+    private int _iCodeSize = 0;
+    private final List<Object> _aoObjects = new ArrayList<>();
+    private final Map<Object, Integer> _aoObjectIndex = new IdentityHashMap<>();
+    private final List<Double> _adConstants = new ArrayList<>();
+
+    // jumps to statements: position of the operand and number of the target statement
+    private final List<int[]> _aiStatementJumps = new ArrayList<>();
+
+    private int _iIntRegisters = 0;
+    private int _iRealRegisters = 0;
+    private int _iMaxIntRegisters = 0;
+    private int _iMaxRealRegisters = 0;
+
+    // open speculative expression: its object and the position of the operand holding the target of the fallback
+    private int _iRegionSpeculation = -1;
+    private List<Integer> _aiRegionFallbacks = null;
+
+    private int _iNativeStatements = 0;
+
+    /**
+     * Default constructor.
+     *
+     * @param oProgram the linked and specialized program
+     */
+    public RegisterCompiler(final Program oProgram) {
+        _aoStatements = oProgram.getStatements() != null ? oProgram.getStatements() : new ArrayList<>();
+        _oLineNumbers = oProgram.getLineNumbers();
+
+        // the trace instructions are only compiled into programs which can switch on tracing
+        boolean bTrace = false;
+
+        for (List<Statement> aoStatements : Arrays.asList(oProgram.getPreRunStatements(), _aoStatements)) {
+            if (aoStatements != null) {
+                bTrace |= aoStatements.stream().anyMatch(oStatement -> oStatement instanceof PragmaStatement);
+            }
+        }
+
+        _bTrace = bTrace;
+    }
+
+    /**
+     * Lower the program into the instructions of the register machine.
+     *
+     * @return the register machine, ready to run the program
+     */
+    public RegisterMachine compile() {
+        int[] aiStatementPositions = new int[_aoStatements.size() + 1];
+
+        for (int iStatement = 0; iStatement < _aoStatements.size(); iStatement++) {
+            aiStatementPositions[iStatement] = _iCodeSize;
+            _iIntRegisters = 0;
+            _iRealRegisters = 0;
+
+            if (_bTrace && _oLineNumbers != null) {
+                emit(TRACE, _oLineNumbers.getLineNumberFromStatement(iStatement));
+            }
+
+            compileStatement(_aoStatements.get(iStatement), iStatement);
+        }
+
+        aiStatementPositions[_aoStatements.size()] = _iCodeSize;
+        emit(HALT);
+
+        for (int[] aiJump : _aiStatementJumps) {
+            int iTarget = aiJump[1];
+
+            _aiCode[aiJump[0]] = iTarget >= 0 && iTarget < aiStatementPositions.length
+                    ? aiStatementPositions[iTarget] : aiStatementPositions[_aoStatements.size()];
+        }
+
+        double[] adConstants = new double[_adConstants.size()];
+        for (int iConstant = 0; iConstant < adConstants.length; iConstant++) {
+            adConstants[iConstant] = _adConstants.get(iConstant);
+        }
+
+        _oLogger.info("Lowered " + _aoStatements.size() + " statements into " + _iCodeSize + " ints of code: "
+                              + _iNativeStatements + " in registers, " + _iMaxIntRegisters + " int and "
+                              + _iMaxRealRegisters + " double registers");
+
+        return new RegisterMachine(Arrays.copyOf(_aiCode, _iCodeSize), aiStatementPositions,
+                                   _aoObjects.toArray(), adConstants, _iMaxIntRegisters, _iMaxRealRegisters);
+    }
+
+    // -- code buffer --------------------------------------------------------------------------------------------------
+
+    private void emit(final int... aiInts) {
+        if (_iCodeSize + aiInts.length > _aiCode.length) {
+            _aiCode = Arrays.copyOf(_aiCode, Math.max(_aiCode.length * 2, _iCodeSize + aiInts.length));
+        }
+
+        System.arraycopy(aiInts, 0, _aiCode, _iCodeSize, aiInts.length);
+        _iCodeSize += aiInts.length;
+    }
+
+    /**
+     * Emit a jump instruction to a statement, the target is filled in after all statements have been translated.
+     *
+     * @param iOpcode the jump instruction
+     * @param iRegister the register tested by the jump (or the loop object of a NEXT), or -1 for an unconditional jump
+     * @param iStatement number of the target statement
+     */
+    private void emitStatementJump(final int iOpcode, final int iRegister, final int iStatement) {
+        if (iRegister < 0) {
+            emit(iOpcode, 0);
+        } else {
+            emit(iOpcode, iRegister, 0);
+        }
+
+        _aiStatementJumps.add(new int[] {_iCodeSize - 1, iStatement});
+    }
+
+    /**
+     * Get the index of an object of the program, which is executed by the register machine by calling it.
+     *
+     * @param oObject statement or expression
+     * @return index of the object
+     */
+    private int getObject(final Object oObject) {
+        Integer iIndex = _aoObjectIndex.get(oObject);
+
+        if (iIndex == null) {
+            iIndex = _aoObjects.size();
+            _aoObjects.add(oObject);
+            _aoObjectIndex.put(oObject, iIndex);
+        }
+
+        return iIndex;
+    }
+
+    private int getConstant(final double dValue) {
+        for (int iConstant = 0; iConstant < _adConstants.size(); iConstant++) {
+            if (Double.compare(_adConstants.get(iConstant), dValue) == 0) {
+                return iConstant;
+            }
+        }
+
+        _adConstants.add(dValue);
+        return _adConstants.size() - 1;
+    }
+
+    private int newRegister(final int iKind) {
+        if (iKind == DOUBLE) {
+            _iMaxRealRegisters = Math.max(_iMaxRealRegisters, _iRealRegisters + 1);
+            return _iRealRegisters++;
+        }
+
+        _iMaxIntRegisters = Math.max(_iMaxIntRegisters, _iIntRegisters + 1);
+        return _iIntRegisters++;
+    }
+
+    // -- statements ---------------------------------------------------------------------------------------------------
+
+    private void compileStatement(final Statement oStatement, final int iStatement) {
+        _iNativeStatements++;
+
+        if (oStatement instanceof RemStatement || oStatement instanceof LabelStatement
+                || oStatement instanceof ColonStatement) {
+            return;
+        }
+
+        if (oStatement instanceof EndStatement) {
+            emitStatementJump(JUMP, -1, _aoStatements.size());
+        } else if (oStatement instanceof GotoStatement oGoto) {
+            emitStatementJump(JUMP, -1, oGoto.getTargetStatement());
+        } else if (oStatement instanceof GosubStatement oGosub) {
+            emit(PUSH, ControlStack.GOSUB, oGosub.getReturnStatement());
+            emitStatementJump(JUMP, -1, oGosub.getTargetStatement());
+        } else if (oStatement instanceof ReturnStatement) {
+            emit(POP, ControlStack.GOSUB);
+        } else if (oStatement instanceof NextStatement oNext && oNext.getLoop() != null) {
+            emitStatementJump(NEXT, getObject(oNext.getLoop()), oNext.getLoop().getBodyStatement());
+        } else if (oStatement instanceof ElseStatement) {
+            emit(POP, ControlStack.ELSE);
+        } else if (oStatement instanceof EndWhileStatement) {
+            emit(POP, ControlStack.WHILE);
+        } else if (oStatement instanceof IfThenStatement oIf) {
+            compileIf(oIf);
+        } else if (oStatement instanceof WhileStatement oWhile) {
+            int[] aiLinks = oWhile.getLinks();
+            int iCondition = compileExpression(oWhile.getCondition(), BOOLEAN);
+
+            emitStatementJump(JUMP_ZERO, iCondition, aiLinks[1]);
+            emit(PUSH, ControlStack.WHILE, aiLinks[0]);
+        } else if (oStatement instanceof DoStatement oDo) {
+            emit(PUSH, ControlStack.DO, oDo.getLinks()[0]);
+        } else if (oStatement instanceof UntilStatement oUntil) {
+            int iLoopStatement = newRegister(INT);
+
+            emit(POP_REGISTER, iLoopStatement, ControlStack.DO);
+            int iCondition = compileExpression(oUntil.getCondition(), BOOLEAN);
+            emit(JUMP_NOT_ZERO, iCondition, _iCodeSize + 5);
+            emit(DISPATCH, iLoopStatement);
+        } else if (oStatement instanceof AssignStatement oAssignment) {
+            compileAssignment(oAssignment);
+        } else {
+            _iNativeStatements--;
+            emit(EXECUTE, getObject(oStatement), iStatement + 1);
+        }
+    }
+
+    private void compileIf(final IfThenStatement oIf) {
+        int iCondition = compileExpression(oIf.getCondition(), BOOLEAN);
+
+        if (oIf.getTargetStatement() >= 0) {
+            emitStatementJump(JUMP_NOT_ZERO, iCondition, oIf.getTargetStatement());
+            return;
+        }
+
+        emitStatementJump(JUMP_ZERO, iCondition, oIf.getFalseStatement());
+
+        if (oIf.hasElse()) {
+            emit(PUSH, ControlStack.ELSE, oIf.getEndIfStatement());
+        }
+    }
+
+    /**
+     * Translate an assignment. The kind of the calculation follows the type of the expression, as in the
+     * interpreter: real and integer expressions are calculated in registers, all others as values.
+     *
+     * @param oAssignment the assignment
+     */
+    private void compileAssignment(final AssignStatement oAssignment) {
+        AssignableExpression oTarget = oAssignment.getTarget();
+        Expression oExpression = oAssignment.getExpression();
+
+        switch (oExpression.getType()) {
+            case REAL -> storeReal(oTarget, compileExpression(oExpression, DOUBLE));
+            case INTEGER -> storeInt(oTarget, compileExpression(oExpression, INT));
+            default -> {
+                if (oExpression instanceof SpeculativeExpression oSpeculation
+                        && oSpeculation.getSpecialized().getType() == VariableType.REAL
+                        && oTarget instanceof VariableExpression oVariable && oVariable.getSlot() >= 0
+                        && isNumerical(_oVariableManagement.getSlotType(oVariable.getSlot()))) {
+                    // a real value stored in a numerical variable: as long as the speculation holds, the result
+                    // is stored as a primitive, which is the same as storing the real value
+                    int iResult = newRegister(DOUBLE);
+                    List<Integer> aiFallbacks = compileSpeculation(oSpeculation, DOUBLE, iResult);
+
+                    storeReal(oTarget, iResult);
+                    emit(JUMP, 0);
+                    int iEnd = _iCodeSize - 1;
+
+                    bind(aiFallbacks);
+                    emit(ASSIGN, getObject(oTarget), getObject(oExpression));
+                    _aiCode[iEnd] = _iCodeSize;
+                    return;
+                }
+
+                emit(ASSIGN, getObject(oTarget), getObject(oExpression));
+            }
+        }
+    }
+
+    private static boolean isNumerical(final VariableType eType) {
+        return switch (eType) {
+            case REAL, DOUBLE, INTEGER, LONG, UNDEFINED -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Store a double register, with the conversions of AssignableExpression.assignDouble().
+     *
+     * @param oTarget the variable or array element assigned to
+     * @param iRegister the double register
+     */
+    private void storeReal(final AssignableExpression oTarget, final int iRegister) {
+        if (oTarget instanceof VariableExpression oVariable && oVariable.getSlot() >= 0) {
+            int iSlot = oVariable.getSlot();
+
+            switch (_oVariableManagement.getSlotType(iSlot)) {
+                case REAL, DOUBLE, UNDEFINED -> emit(STORE_REAL, iSlot, iRegister);
+                case INTEGER, LONG -> {
+                    int iInt = newRegister(INT);
+
+                    emit(REAL_TO_INT, iInt, iRegister);
+                    emit(STORE_INT, iSlot, iInt);
+                }
+                default -> emit(ASSIGN_REAL, getObject(oTarget), iRegister);
+            }
+        } else if (oTarget instanceof ArrayExpression oArray && isNumerical(oArray)) {
+            int iPosition = compilePosition(oArray);
+
+            emit(STORE_REAL_ELEMENT, oArray.getArraySlot(), iPosition, iRegister);
+        } else {
+            emit(ASSIGN_REAL, getObject(oTarget), iRegister);
+        }
+    }
+
+    /**
+     * Store an int register, with the conversions of AssignableExpression.assignInt().
+     *
+     * @param oTarget the variable or array element assigned to
+     * @param iRegister the int register
+     */
+    private void storeInt(final AssignableExpression oTarget, final int iRegister) {
+        if (oTarget instanceof VariableExpression oVariable && oVariable.getSlot() >= 0) {
+            int iSlot = oVariable.getSlot();
+
+            switch (_oVariableManagement.getSlotType(iSlot)) {
+                case INTEGER, LONG -> emit(STORE_INT, iSlot, iRegister);
+                case REAL, DOUBLE -> {
+                    int iReal = newRegister(DOUBLE);
+
+                    emit(INT_TO_REAL, iReal, iRegister);
+                    emit(STORE_REAL, iSlot, iReal);
+                }
+                default -> emit(ASSIGN_INT, getObject(oTarget), iRegister);
+            }
+        } else if (oTarget instanceof ArrayExpression oArray && isNumerical(oArray)) {
+            int iPosition = compilePosition(oArray);
+
+            emit(STORE_INT_ELEMENT, oArray.getArraySlot(), iPosition, iRegister);
+        } else {
+            emit(ASSIGN_INT, getObject(oTarget), iRegister);
+        }
+    }
+
+    // -- expressions --------------------------------------------------------------------------------------------------
+
+    /**
+     * Translate an expression into a new register. The result is an int, a double, or a boolean (as 0 or 1), as the
+     * interpreter calls evaluateInt(), evaluateDouble(), or evaluateBoolean().
+     *
+     * @param oExpression the expression
+     * @param iKind kind of the result
+     * @return the register holding the result
+     */
+    private int compileExpression(final Expression oExpression, final int iKind) {
+        int iResult = newRegister(iKind);
+
+        compileExpression(oExpression, iKind, iResult);
+        return iResult;
+    }
+
+    /**
+     * Translate an expression into a register.
+     *
+     * @param oExpression the expression
+     * @param iKind kind of the result
+     * @param iResult the register of the result
+     */
+    private void compileExpression(final Expression oExpression, final int iKind, final int iResult) {
+        if (oExpression instanceof SpeculativeExpression oSpeculation
+                && (oSpeculation.getSpecialized().getType() == VariableType.REAL) != (iKind == BOOLEAN)) {
+            List<Integer> aiFallbacks = compileSpeculation(oSpeculation, iKind, iResult);
+
+            emit(JUMP, 0);
+            int iEnd = _iCodeSize - 1;
+
+            bind(aiFallbacks);
+            compileCall(oSpeculation, iKind, iResult);
+            _aiCode[iEnd] = _iCodeSize;
+        } else if ((oExpression instanceof RealValue || oExpression instanceof IntegerValue) && iKind != BOOLEAN) {
+            try {
+                if (iKind == DOUBLE) {
+                    emit(REAL_CONSTANT, iResult, getConstant(oExpression.evaluateDouble()));
+                } else {
+                    emit(INT_CONSTANT, iResult, oExpression.evaluateInt());
+                }
+            } catch (Exception eException) {
+                compileCall(oExpression, iKind, iResult);
+            }
+        } else if (oExpression instanceof VariableExpression oVariable && oVariable.getSlot() >= 0
+                && iKind != BOOLEAN && isNumerical(_oVariableManagement.getSlotType(oVariable.getSlot()))) {
+            compileVariable(oVariable, iKind, iResult);
+        } else if (oExpression instanceof RealGuard oGuard && _iRegionSpeculation >= 0 && iKind != BOOLEAN
+                && oGuard.getOperand() instanceof VariableExpression oVariable && oVariable.getSlot() >= 0) {
+            int iReal = iKind == DOUBLE ? iResult : newRegister(DOUBLE);
+
+            emit(GUARD, iReal, oVariable.getSlot(), _iRegionSpeculation, 0);
+            _aiRegionFallbacks.add(_iCodeSize - 1);
+            convert(DOUBLE, iReal, iKind, iResult);
+        } else if (oExpression instanceof ArrayExpression oArray && isNumerical(oArray) && iKind != BOOLEAN) {
+            int iPosition = compilePosition(oArray);
+
+            if (oArray.getType() == VariableType.INTEGER && iKind == INT) {
+                emit(INT_ELEMENT, iResult, oArray.getArraySlot(), iPosition);
+            } else if (iKind == DOUBLE) {
+                emit(REAL_ELEMENT, iResult, oArray.getArraySlot(), iPosition);
+            } else {
+                // DimensionedArray.getInt() truncates a real element
+                emit(INT_ELEMENT, iResult, oArray.getArraySlot(), iPosition);
+            }
+        } else if (oExpression instanceof BinaryOperation oOperation && getOperation(oOperation, iKind) >= 0) {
+            compileOperation(oOperation, iKind, iResult);
+        } else {
+            compileCall(oExpression, iKind, iResult);
+        }
+    }
+
+    /**
+     * Evaluate an expression by calling its object. Inside of a speculative expression, a failed type check of the
+     * called expression falls back to the generic version.
+     *
+     * @param oExpression the expression
+     * @param iKind kind of the result
+     * @param iResult the register of the result
+     */
+    private void compileCall(final Expression oExpression, final int iKind, final int iResult) {
+        if (_iRegionSpeculation >= 0) {
+            int iOpcode = iKind == DOUBLE ? REAL_GUARDED_CALL : iKind == INT ? INT_GUARDED_CALL : BOOLEAN_GUARDED_CALL;
+
+            emit(iOpcode, iResult, getObject(oExpression), _iRegionSpeculation, 0);
+            _aiRegionFallbacks.add(_iCodeSize - 1);
+        } else {
+            int iOpcode = iKind == DOUBLE ? REAL_CALL : iKind == INT ? INT_CALL : BOOLEAN_CALL;
+
+            emit(iOpcode, iResult, getObject(oExpression));
+        }
+    }
+
+    /**
+     * Read a numerical variable, with the conversions of VariableExpression.evaluateDouble() and evaluateInt(). A
+     * variable that has not been assigned yet is read by its object, which reports the error.
+     *
+     * @param oVariable the variable
+     * @param iKind kind of the result
+     * @param iResult the register of the result
+     */
+    private void compileVariable(final VariableExpression oVariable, final int iKind, final int iResult) {
+        int iSlot = oVariable.getSlot();
+
+        if (oVariable.getType() == VariableType.INTEGER) {
+            int iInt = iKind == INT ? iResult : newRegister(INT);
+
+            emit(INT_VARIABLE, iInt, iSlot, getObject(oVariable));
+            convert(INT, iInt, iKind, iResult);
+            return;
+        }
+
+        int iReal = iKind == DOUBLE ? iResult : newRegister(DOUBLE);
+
+        if (oVariable.getType() == VariableType.REAL) {
+            emit(REAL_VARIABLE, iReal, iSlot, getObject(oVariable));
+        } else {
+            emit(UNTYPED_VARIABLE, iReal, iSlot, getObject(oVariable));
+        }
+
+        convert(DOUBLE, iReal, iKind, iResult);
+    }
+
+    private static boolean isNumerical(final ArrayExpression oArray) {
+        return oArray.getType() == VariableType.REAL || oArray.getType() == VariableType.INTEGER;
+    }
+
+    /**
+     * Calculate the position of an array element from its indices, which are rounded to integers as in the array
+     * expression.
+     *
+     * @param oArray the array element
+     * @return the int register holding the position
+     */
+    private int compilePosition(final ArrayExpression oArray) {
+        Expression[] aoIndices = oArray.getIndices();
+        int[] aiIndices = new int[aoIndices.length];
+        int iPosition = newRegister(INT);
+
+        for (int iDimension = 0; iDimension < aoIndices.length; iDimension++) {
+            aiIndices[iDimension] = compileExpression(aoIndices[iDimension], DOUBLE);
+        }
+
+        // an array growing in a dimension changes the strides of the dimensions before it
+        for (int iDimension = aoIndices.length - 1; iDimension >= 0; iDimension--) {
+            emit(INDEX, iPosition, oArray.getArraySlot(), iDimension, aiIndices[iDimension]);
+        }
+
+        if (aoIndices.length == 0) {
+            emit(INT_CONSTANT, iPosition, 0);
+        }
+
+        return iPosition;
+    }
+
+    private void convert(final int iFrom, final int iSource, final int iTo, final int iTarget) {
+        if (iFrom == DOUBLE && iTo == INT) {
+            emit(REAL_TO_INT, iTarget, iSource);
+        } else if (iFrom == INT && iTo == DOUBLE) {
+            emit(INT_TO_REAL, iTarget, iSource);
+        }
+    }
+
+    /**
+     * Get the instruction of a specialized operation.
+     *
+     * @param oOperation the operation
+     * @param iKind kind of the result
+     * @return the opcode, or -1 if the operation is executed by calling it
+     */
+    private static int getOperation(final BinaryOperation oOperation, final int iKind) {
+        if ((oOperation instanceof Comparison) != (iKind == BOOLEAN)) {
+            return -1;
+        }
+
+        return switch (oOperation) {
+            case IntAdd ignored -> RegisterMachine.INT_ADD;
+            case IntSub ignored -> RegisterMachine.INT_SUB;
+            case IntMul ignored -> RegisterMachine.INT_MUL;
+            case IntDiv ignored -> RegisterMachine.INT_DIV;
+            case RealAdd ignored -> RegisterMachine.REAL_ADD;
+            case RealSub ignored -> RegisterMachine.REAL_SUB;
+            case RealMul ignored -> RegisterMachine.REAL_MUL;
+            case RealDiv ignored -> RegisterMachine.REAL_DIV;
+            case IntEqual ignored -> RegisterMachine.INT_EQUAL;
+            case IntNotEqual ignored -> RegisterMachine.INT_NOT_EQUAL;
+            case IntLessThan ignored -> RegisterMachine.INT_LESS_THAN;
+            case IntLessEqual ignored -> RegisterMachine.INT_LESS_EQUAL;
+            case IntGreaterThan ignored -> RegisterMachine.INT_GREATER_THAN;
+            case IntGreaterEqual ignored -> RegisterMachine.INT_GREATER_EQUAL;
+            case RealEqual ignored -> RegisterMachine.REAL_EQUAL;
+            case RealNotEqual ignored -> RegisterMachine.REAL_NOT_EQUAL;
+            case RealLessThan ignored -> RegisterMachine.REAL_LESS_THAN;
+            case RealLessEqual ignored -> RegisterMachine.REAL_LESS_EQUAL;
+            case RealGreaterThan ignored -> RegisterMachine.REAL_GREATER_THAN;
+            case RealGreaterEqual ignored -> RegisterMachine.REAL_GREATER_EQUAL;
+            default -> -1;
+        };
+    }
+
+    private void compileOperation(final BinaryOperation oOperation, final int iKind, final int iResult) {
+        int iOpcode = getOperation(oOperation, iKind);
+
+        // the int operations and comparisons calculate with evaluateInt() of their operands
+        boolean bInt = iOpcode <= RegisterMachine.INT_DIV
+                || iOpcode >= RegisterMachine.INT_EQUAL && iOpcode <= RegisterMachine.INT_GREATER_EQUAL;
+        int iOperandKind = bInt ? INT : DOUBLE;
+
+        int iLeft = compileExpression(oOperation.getLeft(), iOperandKind);
+        int iRight = compileExpression(oOperation.getRight(), iOperandKind);
+
+        if (iKind == BOOLEAN || iKind == iOperandKind) {
+            emit(iOpcode, iResult, iLeft, iRight);
+        } else {
+            int iTemporary = newRegister(iOperandKind);
+
+            emit(iOpcode, iTemporary, iLeft, iRight);
+            convert(iOperandKind, iTemporary, iKind, iResult);
+        }
+    }
+
+    /**
+     * Translate the specialized version of a speculative expression. If the expression has been deoptimized before,
+     * or one of its type checks fails, the machine continues with the fallback.
+     *
+     * @param oSpeculation the speculative expression
+     * @param iKind kind of the result
+     * @param iResult the register of the result
+     * @return positions of the operands to be bound to the fallback
+     */
+    private List<Integer> compileSpeculation(final SpeculativeExpression oSpeculation, final int iKind,
+                                             final int iResult) {
+        int iRegionSpeculation = _iRegionSpeculation;
+        List<Integer> aiRegionFallbacks = _aiRegionFallbacks;
+
+        _iRegionSpeculation = getObject(oSpeculation);
+        _aiRegionFallbacks = new ArrayList<>();
+
+        emit(SPECULATE, _iRegionSpeculation, 0);
+        _aiRegionFallbacks.add(_iCodeSize - 1);
+
+        compileExpression(oSpeculation.getSpecialized(), iKind, iResult);
+
+        List<Integer> aiFallbacks = _aiRegionFallbacks;
+        _iRegionSpeculation = iRegionSpeculation;
+        _aiRegionFallbacks = aiRegionFallbacks;
+
+        return aiFallbacks;
+    }
+
+    /**
+     * Let the jumps to a fallback continue at the current position.
+     *
+     * @param aiFallbacks positions of the jump targets
+     */
+    private void bind(final List<Integer> aiFallbacks) {
+        for (int iFallback : aiFallbacks) {
+            _aiCode[iFallback] = _iCodeSize;
+        }
+    }
+}
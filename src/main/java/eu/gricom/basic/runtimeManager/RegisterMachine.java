@@ -0,0 +1,462 @@
+package eu.gricom.basic.runtimeManager;
+
+import eu.gricom.basic.error.DivideByZeroException;
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.error.UnexpectedTypeException;
+import eu.gricom.basic.helper.Trace;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.memoryManager.DimensionedArray;
+import eu.gricom.basic.memoryManager.ProgramPointer;
+import eu.gricom.basic.memoryManager.VariableManagement;
+import eu.gricom.basic.optimizer.SpeculativeExpression;
+import eu.gricom.basic.statements.AssignableExpression;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.ForStatement;
+import eu.gricom.basic.statements.Statement;
+
+/**
+ * RegisterMachine.java
+ * <p>
+ * Description:
+ * <p>
+ * The register machine executes a program lowered by the register compiler. The program is a flat array of ints:
+ * every instruction is an opcode followed by its operands. The operands address two register files, one of ints
+ * (also holding booleans as 0 or 1) and one of doubles, the slots of the variable management, the objects of the
+ * program (statements and expressions executed by calling them), the double constants, and the positions of other
+ * instructions as jump targets. The instructions are executed in a single loop switching over the opcode.
+ * <p>
+ * Jumps to a statement number only known at runtime (RETURN, the end of a block, and statements executed by
+ * their statement object) are translated into the position of the first instruction of the statement with a table.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class RegisterMachine {
+    // control flow
+    static final int HALT = 0;
+    static final int JUMP = 1;                  // target
+    static final int JUMP_ZERO = 2;             // int register, target
+    static final int JUMP_NOT_ZERO = 3;         // int register, target
+    static final int PUSH = 4;                  // frame kind, statement number
+    static final int POP = 5;                   // frame kind
+    static final int POP_REGISTER = 6;          // int register, frame kind
+    static final int DISPATCH = 7;              // int register holding a statement number
+    static final int EXECUTE = 8;               // statement object, number of the following statement
+    static final int TRACE = 9;                 // source line
+
+    // loading values into registers
+    static final int INT_CONSTANT = 10;         // int register, value
+    static final int REAL_CONSTANT = 11;        // double register, constant
+    static final int INT_VARIABLE = 12;         // int register, slot, expression object
+    static final int REAL_VARIABLE = 13;        // double register, slot, expression object
+    static final int UNTYPED_VARIABLE = 14;     // double register, slot, expression object
+    static final int INT_TO_REAL = 15;          // double register, int register
+    static final int REAL_TO_INT = 16;          // int register, double register
+    static final int INT_CALL = 17;             // int register, expression object
+    static final int REAL_CALL = 18;            // double register, expression object
+    static final int BOOLEAN_CALL = 19;         // int register, expression object
+
+    // speculation
+    static final int SPECULATE = 20;            // speculative expression object, target of the generic version
+    static final int GUARD = 21;                // double register, slot, speculative expression object, target
+    static final int INT_GUARDED_CALL = 22;     // int register, expression object, speculation, target
+    static final int REAL_GUARDED_CALL = 23;    // double register, expression object, speculation, target
+    static final int BOOLEAN_GUARDED_CALL = 24; // int register, expression object, speculation, target
+
+    // arrays
+    static final int INDEX = 25;                // int register, array slot, dimension, double register
+    static final int INT_ELEMENT = 26;          // int register, array slot, int register holding the position
+    static final int REAL_ELEMENT = 27;         // double register, array slot, int register holding the position
+    static final int STORE_INT_ELEMENT = 28;    // array slot, int register holding the position, int register
+    static final int STORE_REAL_ELEMENT = 29;   // array slot, int register holding the position, double register
+
+    // storing values
+    static final int STORE_INT = 30;            // slot, int register
+    static final int STORE_REAL = 31;           // slot, double register
+    static final int ASSIGN_INT = 32;           // assignable expression object, int register
+    static final int ASSIGN_REAL = 33;          // assignable expression object, double register
+    static final int ASSIGN = 34;               // assignable expression object, expression object
+
+    // loops
+    static final int NEXT = 35;                 // FOR statement object, first instruction of the body
+
+    // arithmetic and comparisons: target register, left register, right register
+    static final int INT_ADD = 40;
+    static final int INT_SUB = 41;
+    static final int INT_MUL = 42;
+    static final int INT_DIV = 43;
+    static final int REAL_ADD = 44;
+    static final int REAL_SUB = 45;
+    static final int REAL_MUL = 46;
+    static final int REAL_DIV = 47;
+    static final int INT_EQUAL = 50;
+    static final int INT_NOT_EQUAL = 51;
+    static final int INT_LESS_THAN = 52;
+    static final int INT_LESS_EQUAL = 53;
+    static final int INT_GREATER_THAN = 54;
+    static final int INT_GREATER_EQUAL = 55;
+    static final int REAL_EQUAL = 56;
+    static final int REAL_NOT_EQUAL = 57;
+    static final int REAL_LESS_THAN = 58;
+    static final int REAL_LESS_EQUAL = 59;
+    static final int REAL_GREATER_THAN = 60;
+    static final int REAL_GREATER_EQUAL = 61;
+
+    private final VariableManagement _oVariableManagement = new VariableManagement();
+    private final ControlStack _oControlStack = new ControlStack();
+    private final ProgramPointer _oProgramPointer = new ProgramPointer();
+    private final Trace _oTrace = new Trace(false);
+
+    private final int[] _aiCode;
+    private final int[] _aiStatementPositions;
+    private final Object[] _aoObjects;
+    private final double[] _adConstants;
+    private final int _iIntRegisters;
+    private final int _iRealRegisters;
+
+    /**
+     * Default constructor, used by the register compiler.
+     *
+     * @param aiCode the instructions
+     * @param aiStatementPositions position of the first instruction of every statement, followed by the position of
+     *                             the final HALT instruction
+     * @param aoObjects statements and expressions executed by calling them
+     * @param adConstants double constants
+     * @param iIntRegisters number of int registers
+     * @param iRealRegisters number of double registers
+     */
+    RegisterMachine(final int[] aiCode,
+                    final int[] aiStatementPositions,
+                    final Object[] aoObjects,
+                    final double[] adConstants,
+                    final int iIntRegisters,
+                    final int iRealRegisters) {
+        _aiCode = aiCode;
+        _aiStatementPositions = aiStatementPositions;
+        _aoObjects = aoObjects;
+        _adConstants = adConstants;
+        _iIntRegisters = iIntRegisters;
+        _iRealRegisters = iRealRegisters;
+    }
+
+    /**
+     * Get the number of ints of the instruction array.
+     *
+     * @return size of the code
+     */
+    public int getCodeSize() {
+        return _aiCode.length;
+    }
+
+    /**
+     * Get the position of the first instruction of a statement. Statement numbers past the end of the program
+     * end the program, as in the interpreter.
+     *
+     * @param iStatement statement number
+     * @return position of the instruction
+     */
+    private int getPosition(final int iStatement) {
+        if (iStatement >= 0 && iStatement < _aiStatementPositions.length) {
+            return _aiStatementPositions[iStatement];
+        }
+
+        return _aiStatementPositions[_aiStatementPositions.length - 1];
+    }
+
+    /**
+     * Run the program.
+     *
+     * @throws Exception on runtime errors of the program
+     */
+    public void run() throws Exception {
+        final int[] aiCode = _aiCode;
+        final Object[] aoObjects = _aoObjects;
+        final int[] aiInts = new int[_iIntRegisters];
+        final double[] adReals = new double[_iRealRegisters];
+        int iPosition = 0;
+
+        while (true) {
+            switch (aiCode[iPosition]) {
+                case HALT -> {
+                    return;
+                }
+                case JUMP -> iPosition = aiCode[iPosition + 1];
+                case JUMP_ZERO -> iPosition = aiInts[aiCode[iPosition + 1]] == 0 ? aiCode[iPosition + 2]
+                        : iPosition + 3;
+                case JUMP_NOT_ZERO -> iPosition = aiInts[aiCode[iPosition + 1]] != 0 ? aiCode[iPosition + 2]
+                        : iPosition + 3;
+                case PUSH -> {
+                    _oControlStack.push(aiCode[iPosition + 1], aiCode[iPosition + 2]);
+                    iPosition += 3;
+                }
+                case POP -> iPosition = getPosition(_oControlStack.pop(aiCode[iPosition + 1]));
+                case POP_REGISTER -> {
+                    aiInts[aiCode[iPosition + 1]] = _oControlStack.pop(aiCode[iPosition + 2]);
+                    iPosition += 3;
+                }
+                case DISPATCH -> iPosition = getPosition(aiInts[aiCode[iPosition + 1]]);
+                case NEXT -> iPosition = ((ForStatement) aoObjects[aiCode[iPosition + 1]]).next()
+                        ? aiCode[iPosition + 2] : iPosition + 3;
+                case EXECUTE -> {
+                    int iNextStatement = aiCode[iPosition + 2];
+
+                    _oProgramPointer.setCurrentStatement(iNextStatement);
+                    ((Statement) aoObjects[aiCode[iPosition + 1]]).execute();
+
+                    int iStatement = _oProgramPointer.getCurrentStatement();
+                    iPosition = iStatement == iNextStatement ? iPosition + 3 : getPosition(iStatement);
+                }
+                case TRACE -> {
+                    _oTrace.trace(aiCode[iPosition + 1]);
+                    iPosition += 2;
+                }
+                case INT_CONSTANT -> {
+                    aiInts[aiCode[iPosition + 1]] = aiCode[iPosition + 2];
+                    iPosition += 3;
+                }
+                case REAL_CONSTANT -> {
+                    adReals[aiCode[iPosition + 1]] = _adConstants[aiCode[iPosition + 2]];
+                    iPosition += 3;
+                }
+                case INT_VARIABLE -> {
+                    int iSlot = aiCode[iPosition + 2];
+
+                    aiInts[aiCode[iPosition + 1]] = _oVariableManagement.isDefined(iSlot)
+                            ? _oVariableManagement.getInt(iSlot)
+                            : ((Expression) aoObjects[aiCode[iPosition + 3]]).evaluateInt();
+                    iPosition += 4;
+                }
+                case REAL_VARIABLE -> {
+                    int iSlot = aiCode[iPosition + 2];
+
+                    adReals[aiCode[iPosition + 1]] = _oVariableManagement.isDefined(iSlot)
+                            ? _oVariableManagement.getDouble(iSlot)
+                            : ((Expression) aoObjects[aiCode[iPosition + 3]]).evaluateDouble();
+                    iPosition += 4;
+                }
+                case UNTYPED_VARIABLE -> {
+                    int iSlot = aiCode[iPosition + 2];
+
+                    adReals[aiCode[iPosition + 1]] = _oVariableManagement.isReal(iSlot)
+                            ? _oVariableManagement.getDouble(iSlot)
+                            : ((Expression) aoObjects[aiCode[iPosition + 3]]).evaluateDouble();
+                    iPosition += 4;
+                }
+                case INT_TO_REAL -> {
+                    adReals[aiCode[iPosition + 1]] = aiInts[aiCode[iPosition + 2]];
+                    iPosition += 3;
+                }
+                case REAL_TO_INT -> {
+                    aiInts[aiCode[iPosition + 1]] = (int) adReals[aiCode[iPosition + 2]];
+                    iPosition += 3;
+                }
+                case INT_CALL -> {
+                    aiInts[aiCode[iPosition + 1]] = ((Expression) aoObjects[aiCode[iPosition + 2]]).evaluateInt();
+                    iPosition += 3;
+                }
+                case REAL_CALL -> {
+                    adReals[aiCode[iPosition + 1]] = ((Expression) aoObjects[aiCode[iPosition + 2]])
+                            .evaluateDouble();
+                    iPosition += 3;
+                }
+                case BOOLEAN_CALL -> {
+                    aiInts[aiCode[iPosition + 1]] = ((Expression) aoObjects[aiCode[iPosition + 2]])
+                            .evaluateBoolean() ? 1 : 0;
+                    iPosition += 3;
+                }
+                case SPECULATE -> iPosition = ((SpeculativeExpression) aoObjects[aiCode[iPosition + 1]])
+                        .isDeoptimized() ? aiCode[iPosition + 2] : iPosition + 3;
+                case GUARD -> {
+                    int iSlot = aiCode[iPosition + 2];
+
+                    if (_oVariableManagement.isReal(iSlot)) {
+                        adReals[aiCode[iPosition + 1]] = _oVariableManagement.getDouble(iSlot);
+                        iPosition += 5;
+                    } else {
+                        ((SpeculativeExpression) aoObjects[aiCode[iPosition + 3]]).deoptimize();
+                        iPosition = aiCode[iPosition + 4];
+                    }
+                }
+                case INT_GUARDED_CALL, REAL_GUARDED_CALL, BOOLEAN_GUARDED_CALL -> {
+                    Expression oExpression = (Expression) aoObjects[aiCode[iPosition + 2]];
+
+                    try {
+                        switch (aiCode[iPosition]) {
+                            case INT_GUARDED_CALL -> aiInts[aiCode[iPosition + 1]] = oExpression.evaluateInt();
+                            case REAL_GUARDED_CALL -> adReals[aiCode[iPosition + 1]] = oExpression.evaluateDouble();
+                            default -> aiInts[aiCode[iPosition + 1]] = oExpression.evaluateBoolean() ? 1 : 0;
+                        }
+
+                        iPosition += 5;
+                    } catch (UnexpectedTypeException eException) {
+                        ((SpeculativeExpression) aoObjects[aiCode[iPosition + 3]]).deoptimize();
+                        iPosition = aiCode[iPosition + 4];
+                    }
+                }
+                case INDEX -> {
+                    int iDimension = aiCode[iPosition + 3];
+                    DimensionedArray oArray = _oVariableManagement.getArray(aiCode[iPosition + 2]);
+                    int iOffset = oArray.getOffset(iDimension, (int) Math.round(adReals[aiCode[iPosition + 4]]));
+
+                    // the offsets are added from the last dimension to the first
+                    aiInts[aiCode[iPosition + 1]] = iDimension == oArray.getDimensions() - 1 ? iOffset
+                            : aiInts[aiCode[iPosition + 1]] + iOffset;
+                    iPosition += 5;
+                }
+                case INT_ELEMENT -> {
+                    aiInts[aiCode[iPosition + 1]] = _oVariableManagement.getArray(aiCode[iPosition + 2])
+                            .getInt(aiInts[aiCode[iPosition + 3]]);
+                    iPosition += 4;
+                }
+                case REAL_ELEMENT -> {
+                    adReals[aiCode[iPosition + 1]] = _oVariableManagement.getArray(aiCode[iPosition + 2])
+                            .getDouble(aiInts[aiCode[iPosition + 3]]);
+                    iPosition += 4;
+                }
+                case STORE_INT_ELEMENT -> {
+                    _oVariableManagement.getArray(aiCode[iPosition + 1])
+                            .putInt(aiInts[aiCode[iPosition + 2]], aiInts[aiCode[iPosition + 3]]);
+                    iPosition += 4;
+                }
+                case STORE_REAL_ELEMENT -> {
+                    _oVariableManagement.getArray(aiCode[iPosition + 1])
+                            .putDouble(aiInts[aiCode[iPosition + 2]], adReals[aiCode[iPosition + 3]]);
+                    iPosition += 4;
+                }
+                case STORE_INT -> {
+                    _oVariableManagement.putSlot(aiCode[iPosition + 1], aiInts[aiCode[iPosition + 2]]);
+                    iPosition += 3;
+                }
+                case STORE_REAL -> {
+                    _oVariableManagement.putSlot(aiCode[iPosition + 1], adReals[aiCode[iPosition + 2]]);
+                    iPosition += 3;
+                }
+                case ASSIGN_INT -> {
+                    ((AssignableExpression) aoObjects[aiCode[iPosition + 1]])
+                            .assignInt(aiInts[aiCode[iPosition + 2]]);
+                    iPosition += 3;
+                }
+                case ASSIGN_REAL -> {
+                    ((AssignableExpression) aoObjects[aiCode[iPosition + 1]])
+                            .assignDouble(adReals[aiCode[iPosition + 2]]);
+                    iPosition += 3;
+                }
+                case ASSIGN -> {
+                    ((AssignableExpression) aoObjects[aiCode[iPosition + 1]])
+                            .assign(((Expression) aoObjects[aiCode[iPosition + 2]]).evaluate());
+                    iPosition += 3;
+                }
+                case INT_ADD -> {
+                    aiInts[aiCode[iPosition + 1]] = aiInts[aiCode[iPosition + 2]] + aiInts[aiCode[iPosition + 3]];
+                    iPosition += 4;
+                }
+                case INT_SUB -> {
+                    aiInts[aiCode[iPosition + 1]] = aiInts[aiCode[iPosition + 2]] - aiInts[aiCode[iPosition + 3]];
+                    iPosition += 4;
+                }
+                case INT_MUL -> {
+                    aiInts[aiCode[iPosition + 1]] = aiInts[aiCode[iPosition + 2]] * aiInts[aiCode[iPosition + 3]];
+                    iPosition += 4;
+                }
+                case INT_DIV -> {
+                    int iLeft = aiInts[aiCode[iPosition + 2]];
+                    int iRight = aiInts[aiCode[iPosition + 3]];
+
+                    if (iRight == 0) {
+                        throw new DivideByZeroException(iLeft + "/" + iRight + " is a division by zero");
+                    }
+
+                    aiInts[aiCode[iPosition + 1]] = iLeft / iRight;
+                    iPosition += 4;
+                }
+                case REAL_ADD -> {
+                    adReals[aiCode[iPosition + 1]] = adReals[aiCode[iPosition + 2]]
+                            + adReals[aiCode[iPosition + 3]];
+                    iPosition += 4;
+                }
+                case REAL_SUB -> {
+                    adReals[aiCode[iPosition + 1]] = adReals[aiCode[iPosition + 2]]
+                            - adReals[aiCode[iPosition + 3]];
+                    iPosition += 4;
+                }
+                case REAL_MUL -> {
+                    adReals[aiCode[iPosition + 1]] = adReals[aiCode[iPosition + 2]]
+                            * adReals[aiCode[iPosition + 3]];
+                    iPosition += 4;
+                }
+                case REAL_DIV -> {
+                    double dLeft = adReals[aiCode[iPosition + 2]];
+                    double dRight = adReals[aiCode[iPosition + 3]];
+
+                    if (dRight == 0) {
+                        throw new DivideByZeroException(dLeft + "/" + dRight + " is a division by zero");
+                    }
+
+                    adReals[aiCode[iPosition + 1]] = dLeft / dRight;
+                    iPosition += 4;
+                }
+                case INT_EQUAL -> {
+                    aiInts[aiCode[iPosition + 1]] = aiInts[aiCode[iPosition + 2]] == aiInts[aiCode[iPosition + 3]]
+                            ? 1 : 0;
+                    iPosition += 4;
+                }
+                case INT_NOT_EQUAL -> {
+                    aiInts[aiCode[iPosition + 1]] = aiInts[aiCode[iPosition + 2]] != aiInts[aiCode[iPosition + 3]]
+                            ? 1 : 0;
+                    iPosition += 4;
+                }
+                case INT_LESS_THAN -> {
+                    aiInts[aiCode[iPosition + 1]] = aiInts[aiCode[iPosition + 2]] < aiInts[aiCode[iPosition + 3]]
+                            ? 1 : 0;
+                    iPosition += 4;
+                }
+                case INT_LESS_EQUAL -> {
+                    aiInts[aiCode[iPosition + 1]] = aiInts[aiCode[iPosition + 2]] <= aiInts[aiCode[iPosition + 3]]
+                            ? 1 : 0;
+                    iPosition += 4;
+                }
+                case INT_GREATER_THAN -> {
+                    aiInts[aiCode[iPosition + 1]] = aiInts[aiCode[iPosition + 2]] > aiInts[aiCode[iPosition + 3]]
+                            ? 1 : 0;
+                    iPosition += 4;
+                }
+                case INT_GREATER_EQUAL -> {
+                    aiInts[aiCode[iPosition + 1]] = aiInts[aiCode[iPosition + 2]] >= aiInts[aiCode[iPosition + 3]]
+                            ? 1 : 0;
+                    iPosition += 4;
+                }
+                case REAL_EQUAL -> {
+                    aiInts[aiCode[iPosition + 1]] = adReals[aiCode[iPosition + 2]]
+                            == adReals[aiCode[iPosition + 3]] ? 1 : 0;
+                    iPosition += 4;
+                }
+                case REAL_NOT_EQUAL -> {
+                    aiInts[aiCode[iPosition + 1]] = adReals[aiCode[iPosition + 2]]
+                            != adReals[aiCode[iPosition + 3]] ? 1 : 0;
+                    iPosition += 4;
+                }
+                case REAL_LESS_THAN -> {
+                    aiInts[aiCode[iPosition + 1]] = adReals[aiCode[iPosition + 2]]
+                            < adReals[aiCode[iPosition + 3]] ? 1 : 0;
+                    iPosition += 4;
+                }
+                case REAL_LESS_EQUAL -> {
+                    aiInts[aiCode[iPosition + 1]] = adReals[aiCode[iPosition + 2]]
+                            <= adReals[aiCode[iPosition + 3]] ? 1 : 0;
+                    iPosition += 4;
+                }
+                case REAL_GREATER_THAN -> {
+                    aiInts[aiCode[iPosition + 1]] = adReals[aiCode[iPosition + 2]]
+                            > adReals[aiCode[iPosition + 3]] ? 1 : 0;
+                    iPosition += 4;
+                }
+                case REAL_GREATER_EQUAL -> {
+                    aiInts[aiCode[iPosition + 1]] = adReals[aiCode[iPosition + 2]]
+                            >= adReals[aiCode[iPosition + 3]] ? 1 : 0;
+                    iPosition += 4;
+                }
+                default -> throw new RuntimeException("Unknown opcode " + aiCode[iPosition] + " at "
+                                                                   + iPosition);
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package eu.gricom.basic.statements;
+
+import eu.gricom.basic.memoryManager.DimensionedArray;
+import eu.gricom.basic.memoryManager.VariableManagement;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+import java.util.List;
+
+/**
+ * ArrayExpression.java
+ * <p>
+ * Description:
+ * <p>
+ * An array expression evaluates to the current value of an array element, e.g. A(I, J+1). The array is resolved into
+ * its array slot when the parser creates the expression, the indices are expressions that are evaluated and rounded
+ * to integers at runtime.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class ArrayExpression implements AssignableExpression {
+    private final VariableManagement _oVariableManagement = new VariableManagement();
+    private final String _strName;
+    private final Expression[] _aoIndices;
+    private final int[] _aiIndices;
+    private final int _iArraySlot;
+    private final VariableType _eType;
+
+    /**
+     * Default constructor.
+     *
+     * @param strName name of the array
+     * @param aoIndices expressions calculating the indices, one per dimension
+     */
+    public ArrayExpression(final String strName, final List<Expression> aoIndices) {
+        _strName = strName;
+        _aoIndices = aoIndices.toArray(new Expression[0]);
+        _aiIndices = new int[_aoIndices.length];
+        _iArraySlot = _oVariableManagement.resolveArray(strName, _aoIndices.length);
+        _eType = switch (_oVariableManagement.getArrayType(_iArraySlot)) {
+            case INTEGER, LONG -> VariableType.INTEGER;
+            case STRING -> VariableType.STRING;
+            case BOOLEAN -> VariableType.BOOLEAN;
+            default -> VariableType.REAL;
+        };
+    }
+
+    /**
+     * Get the type of the elements of the array.
+     *
+     * @return type of the value of an element
+     */
+    @Override
+    public VariableType getType() {
+        return _eType;
+    }
+
+    /**
+     * Calculate the position of the element in the store of the array.
+     *
+     * @param oArray the array
+     * @return position of the element
+     * @throws Exception if an index cannot be evaluated or is out of bounds
+     */
+    private int getPosition(final DimensionedArray oArray) throws Exception {
+        int iPosition = 0;
+
+        for (int iDimension = 0; iDimension < _aoIndices.length; iDimension++) {
+            _aiIndices[iDimension] = (int) Math.round(_aoIndices[iDimension].evaluateDouble());
+        }
+
+        // an array growing in a dimension changes the strides of the dimensions before it
+        for (int iDimension = _aoIndices.length - 1; iDimension >= 0; iDimension--) {
+            iPosition += oArray.getOffset(iDimension, _aiIndices[iDimension]);
+        }
+
+        return iPosition;
+    }
+
+    /**
+     * Return the content of the array element.
+     *
+     * @return value of the array element
+     * @throws Exception if an index cannot be evaluated or is out of bounds
+     */
+    @Override
+    public Value evaluate() throws Exception {
+        DimensionedArray oArray = _oVariableManagement.getArray(_iArraySlot);
+
+        return oArray.get(getPosition(oArray));
+    }
+
+    /**
+     * Return the content of an element of a real or integer array as a double, without creating a Value object.
+     *
+     * @return value of the array element
+     * @throws Exception if an index cannot be evaluated or is out of bounds
+     */
+    @Override
+    public double evaluateDouble() throws Exception {
+        if (_eType != VariableType.REAL && _eType != VariableType.INTEGER) {
+            return evaluate().toReal();
+        }
+
+        DimensionedArray oArray = _oVariableManagement.getArray(_iArraySlot);
+
+        return oArray.getDouble(getPosition(oArray));
+    }
+
+    /**
+     * Return the content of an element of a real or integer array as an int, without creating a Value object.
+     *
+     * @return value of the array element
+     * @throws Exception if an index cannot be evaluated or is out of bounds
+     */
+    @Override
+    public int evaluateInt() throws Exception {
+        if (_eType != VariableType.REAL && _eType != VariableType.INTEGER) {
+            return (int) evaluate().toReal();
+        }
+
+        DimensionedArray oArray = _oVariableManagement.getArray(_iArraySlot);
+
+        return oArray.getInt(getPosition(oArray));
+    }
+
+    /**
+     * Store a value in the array element.
+     *
+     * @param oValue value to be stored
+     * @throws Exception if an index cannot be evaluated or is out of bounds
+     */
+    @Override
+    public void assign(final Value oValue) throws Exception {
+        DimensionedArray oArray = _oVariableManagement.getArray(_iArraySlot);
+
+        oArray.put(getPosition(oArray), oValue);
+    }
+
+    /**
+     * Store a double in the array element without creating a Value object.
+     *
+     * @param dValue value to be stored
+     * @throws Exception if an index cannot be evaluated or is out of bounds
+     */
+    @Override
+    public void assignDouble(final double dValue) throws Exception {
+        DimensionedArray oArray = _oVariableManagement.getArray(_iArraySlot);
+
+        oArray.putDouble(getPosition(oArray), dValue);
+    }
+
+    /**
+     * Store an int in the array element without creating a Value object.
+     *
+     * @param iValue value to be stored
+     * @throws Exception if an index cannot be evaluated or is out of bounds
+     */
+    @Override
+    public void assignInt(final int iValue) throws Exception {
+        DimensionedArray oArray = _oVariableManagement.getArray(_iArraySlot);
+
+        oArray.putInt(getPosition(oArray), iValue);
+    }
+
+    /**
+     * Let a compiler pass replace the index expressions.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public void rewrite(final ExpressionRewriter oRewriter) {
+        for (int iDimension = 0; iDimension < _aoIndices.length; iDimension++) {
+            _aoIndices[iDimension] = oRewriter.rewrite(_aoIndices[iDimension]);
+        }
+    }
+
+    /**
+     * Get the name of the array.
+     *
+     * @return name of the array as a string.
+     */
+    public String getName() {
+
+        return _strName;
+    }
+
+    /**
+     * Get the slot of the array in the variable management.
+     *
+     * @return array slot
+     */
+    public int getArraySlot() {
+        return _iArraySlot;
+    }
+
+    /**
+     * Get the expressions calculating the indices.
+     *
+     * @return the indices, one per dimension
+     */
+    public Expression[] getIndices() {
+        return _aoIndices;
+    }
+
+    /**
+     * This method is used in testing and debugging. It returns the set values when the constructor has been called.
+     *
+     * @return - readable string with the name and the indices of the array element
+     */
+    @Override
+    public String content() {
+        StringBuilder strContent = new StringBuilder(_strName).append("(");
+
+        for (int iDimension = 0; iDimension < _aoIndices.length; iDimension++) {
+            if (iDimension > 0) {
+                strContent.append(",");
+            }
+
+            strContent.append(_aoIndices[iDimension].content());
+        }
+
+        return strContent.append(")").toString();
+    }
+
+    /**
+     * Structure.
+     * <p>
+     * Method for the compiler to get the structure of the program.
+     *
+     * @return gives the name of the array and a list of the index expressions
+     * @throws Exception based on errors in the implementation classes
+     */
+    @Override
+    public String structure() throws Exception {
+        String strReturn = "{\"ARRAY\": {";
+        strReturn += "\"NAME\": \""+ _strName +"\",";
+        strReturn += "\"INDICES\": [";
+
+        for (int iDimension = 0; iDimension < _aoIndices.length; iDimension++) {
+            if (iDimension > 0) {
+                strReturn += ",";
+            }
+
+            strReturn += _aoIndices[iDimension].structure();
+        }
+
+        strReturn += "]}}";
+        return strReturn;
+    }
+}
@@ -1,7 +1,6 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.memoryManager.VariableManagement;
-import eu.gricom.basic.tokenizer.Normalizer;
+import eu.gricom.basic.error.SyntaxErrorException;
 
 /**
  * AssignStatement.java
@@ -16,20 +15,34 @@ import eu.gricom.basic.tokenizer.Normalizer;
  *
  */
 public final class AssignStatement implements Statement {
-    private final String _strKey;
-    private final Expression _oExpression;
+    private final AssignableExpression _oTarget;
+    private Expression _oExpression;
     private final int _iTokenNumber;
-    private final VariableManagement _oVariableManagement = new VariableManagement();
 
     /**
      * Default constructor.
+     * <p>
+     * The target is a plain variable, which is resolved into its slot in the variable management here.
      *
      * @param iTokenNumber - number of the basic command line
      * @param strName - target of the assign statement
      * @param oExpression - value of the assignment statement
+     * @throws SyntaxErrorException if the parenthesis are not set correctly
      */
-    public AssignStatement(final int iTokenNumber, final String strName, final Expression oExpression) {
-        _strKey = strName;
+    public AssignStatement(final int iTokenNumber, final String strName, final Expression oExpression)
+            throws SyntaxErrorException {
+        this(iTokenNumber, new VariableExpression(strName), oExpression);
+    }
+
+    /**
+     * Constructor for assignments to a variable or an array element.
+     *
+     * @param iTokenNumber - number of the basic command line
+     * @param oTarget - target of the assign statement
+     * @param oExpression - value of the assignment statement
+     */
+    public AssignStatement(final int iTokenNumber, final AssignableExpression oTarget, final Expression oExpression) {
+        _oTarget = oTarget;
         _oExpression = oExpression;
         _iTokenNumber = iTokenNumber;
     }
@@ -39,11 +52,10 @@ public final class AssignStatement implements Statement {
      *
      * @param strName - target of the assign statement
      * @param oExpression - value of the assignment statement
+     * @throws SyntaxErrorException if the parenthesis are not set correctly
      */
-    public AssignStatement(final String strName, final Expression oExpression) {
-        _strKey = strName;
-        _oExpression = oExpression;
-        _iTokenNumber = 0;
+    public AssignStatement(final String strName, final Expression oExpression) throws SyntaxErrorException {
+        this(0, strName, oExpression);
     }
 
     /**
@@ -58,56 +70,52 @@ public final class AssignStatement implements Statement {
 
     /**
      * The assignment is defined as part of the default constructor. But only here the transaction is actually
-     * executed. After the execution, the variable is assigned.
+     * executed. After the execution, the variable is assigned. Numeric results with a known type are passed to the
+     * variable as primitive values.
      *
      * @throws Exception - any exception coming from the memory management
      */
     @Override
     public void execute() throws Exception {
-        String strKey = _strKey;
-
-        // here the found word could be an array or a function... first determine the being and the end position of
-        // the bracketed part...
-        int iIndexStart = strKey.indexOf("(");
-        int iIndexEnd = strKey.indexOf(")");
-
-        if (iIndexStart > 0 && iIndexEnd > 0) {
-            String strInner = strKey.substring(iIndexStart + 1, iIndexEnd);
-
-            if (strInner.contains(",")) {
-                String[] astrCommaSeperatedList = strInner.split(",");
-                StringBuilder strCommaSeperatedList = new StringBuilder();
-
-                for (String strExpression: astrCommaSeperatedList) {
-                    String strValue = strExpression;
-                    if (_oVariableManagement.mapContainsKey(strExpression)) {
-                        Expression oExpression = new VariableExpression(strExpression);
-
-                        strValue = oExpression.evaluate().toString();
-                    }
-
-                    strCommaSeperatedList.append(strValue).append(",");
-                }
-
-                strKey = strKey.substring(0, iIndexStart + 1)
-                        + strCommaSeperatedList.substring(0, strCommaSeperatedList.length() - 1)
-                        + strKey.substring(iIndexEnd);
-
-            } else {
-                if (_oVariableManagement.mapContainsKey(strInner)) {
-                    Expression oExpression = new VariableExpression(strInner);
-
-                    strKey = strKey.substring(0, iIndexStart + 1)
-                            + oExpression.evaluate().toString()
-                            + strKey.substring(iIndexEnd);
+        switch (_oExpression.getType()) {
+            case REAL:
+                _oTarget.assignDouble(_oExpression.evaluateDouble());
+                break;
+            case INTEGER:
+                _oTarget.assignInt(_oExpression.evaluateInt());
+                break;
+            default:
+                _oTarget.assign(_oExpression.evaluate());
+        }
+    }
 
-                }
-            }
+    /**
+     * Get the target of the assignment.
+     *
+     * @return the variable or array element assigned to
+     */
+    public AssignableExpression getTarget() {
+        return _oTarget;
+    }
 
-            strKey = Normalizer.normalizeIndex(strKey);
-        }
+    /**
+     * Get the expression of the assignment.
+     *
+     * @return the expression calculating the assigned value
+     */
+    public Expression getExpression() {
+        return _oExpression;
+    }
 
-        _oVariableManagement.putMap(strKey, _oExpression.evaluate());
+    /**
+     * Let a compiler pass replace the expression of the assignment, and the index expressions of the target.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public void rewrite(final ExpressionRewriter oRewriter) {
+        _oTarget.rewrite(oRewriter);
+        _oExpression = oRewriter.rewrite(_oExpression);
     }
 
     /**
@@ -117,7 +125,7 @@ public final class AssignStatement implements Statement {
      */
     @Override
     public String content() {
-        return "ASSIGN [" + _strKey + ":= " + _oExpression.content() + "]";
+        return "ASSIGN [" + _oTarget.content() + ":= " + _oExpression.content() + "]";
     }
 
     /**
@@ -132,7 +140,7 @@ public final class AssignStatement implements Statement {
     public String structure() throws Exception {
         String strReturn = "{\"ASSIGN\": {";
         strReturn += "\"TOKEN_NR\": \""+ _iTokenNumber +"\",";
-        strReturn += "\"NAME\": \""+ _strKey +"\",";
+        strReturn += "\"NAME\": \""+ _oTarget.content() +"\",";
         strReturn += "\"EXPRESSION\": "+ _oExpression.structure();
         strReturn += "}}";
         return strReturn;
@@ -0,0 +1,48 @@
+package eu.gricom.basic.statements;
+
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.Value;
+
+/**
+ * AssignableExpression Interface.
+ * <p>
+ * Description:
+ * <p>
+ * Expressions that can be the target of an assignment implement this interface: plain variables and array elements.
+ * The LET, READ and INPUT statements store their values via this interface.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public interface AssignableExpression extends Expression {
+
+    /**
+     * Assign a value to the variable or array element described by the expression.
+     *
+     * @param oValue value to be stored
+     * @throws Exception for any errors occurring in the evaluation of an array index
+     */
+    void assign(Value oValue) throws Exception;
+
+    /**
+     * Assign the result of a REAL expression to the variable or array element without creating a Value object, where
+     * the target allows it.
+     *
+     * @param dValue value to be stored
+     * @throws Exception for any errors occurring in the evaluation of an array index
+     */
+    default void assignDouble(final double dValue) throws Exception {
+        assign(new RealValue(dValue));
+    }
+
+    /**
+     * Assign the result of an INTEGER expression to the variable or array element without creating a Value object,
+     * where the target allows it.
+     *
+     * @param iValue value to be stored
+     * @throws Exception for any errors occurring in the evaluation of an array index
+     */
+    default void assignInt(final int iValue) throws Exception {
+        assign(IntegerValue.valueOf(iValue));
+    }
+}
@@ -1,7 +1,7 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.error.EmptyStackException;
-import eu.gricom.basic.memoryManager.Stack;
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.memoryManager.ControlStack;
 import eu.gricom.basic.helper.Logger;
 
 /**
@@ -15,6 +15,7 @@ import eu.gricom.basic.helper.Logger;
  */
 public class CleanStatement implements Statement {
     private final int _iTokenNumber;
+    private final ControlStack _oControlStack = new ControlStack();
     private final Logger _oLogger = new Logger(this.getClass().getName());
 
     /**
@@ -43,11 +44,9 @@ public class CleanStatement implements Statement {
      * Remove the last stack entry.
      */
     public final void execute() {
-        Stack oStack = new Stack();
-
         try {
-            oStack.pop();
-        } catch (EmptyStackException eException) {
+            _oControlStack.drop();
+        } catch (RuntimeException eException) {
             _oLogger.error(eException.getMessage());
         }
     }
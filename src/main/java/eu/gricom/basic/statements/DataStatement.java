@@ -40,6 +40,15 @@ public class DataStatement implements Statement {
         return _iTokenNumber;
     }
 
+    /**
+     * Get the values of the statement.
+     *
+     * @return the values
+     */
+    public final List<Value> getValues() {
+        return _aoValues;
+    }
+
     /**
      * Execute.
      * <p>
@@ -1,25 +1,47 @@
 package eu.gricom.basic.statements;
 
+import eu.gricom.basic.memoryManager.VariableManagement;
+
+import java.util.List;
+
 /**
  * DimStatement.java
  * <p>
  * Description:
  * <p>
- * The DimStatement class defines all kinds of arrays.
+ * The DimStatement class defines all kinds of arrays. A single DIM statement can define several arrays, e.g.
+ * DIM A(3,3), B$(10). The highest index of each dimension is an expression, evaluated when the statement is executed.
+ * The lowest index is defined by the OPTION BASE statement.
  * <p>
  * (c) = 2020,...,2025 by Andreas Grimm, Den Haag, The Netherlands
  */
 public class DimStatement implements Statement {
     private final int _iTokenNumber;
+    private final VariableManagement _oVariableManagement = new VariableManagement();
+    private final String[] _astrNames;
+    private final int[] _aiArraySlots;
+    private final Expression[][] _aoUpperBounds;
 
     /**
      * Default constructor.
      * <p>
      * A "DIM" statement initializes an array of any type.
      * @param iTokenNumber - number of the command in the basic program
+     * @param astrNames - names of the arrays
+     * @param aoUpperBounds - per array, the expressions of the highest index of every dimension
      */
-    public DimStatement(final int iTokenNumber) {
+    public DimStatement(final int iTokenNumber, final List<String> astrNames,
+                        final List<List<Expression>> aoUpperBounds) {
         _iTokenNumber = iTokenNumber;
+        _astrNames = astrNames.toArray(new String[0]);
+        _aiArraySlots = new int[_astrNames.length];
+        _aoUpperBounds = new Expression[_astrNames.length][];
+
+        for (int iArray = 0; iArray < _astrNames.length; iArray++) {
+            _aoUpperBounds[iArray] = aoUpperBounds.get(iArray).toArray(new Expression[0]);
+            _aiArraySlots[iArray] = _oVariableManagement.resolveArray(_astrNames[iArray],
+                                                                       _aoUpperBounds[iArray].length);
+        }
     }
 
     /**
@@ -32,13 +54,55 @@ public class DimStatement implements Statement {
         return _iTokenNumber;
     }
 
+    /**
+     * Get the names of the arrays.
+     *
+     * @return names of the arrays
+     */
+    public String[] getNames() {
+        return _astrNames;
+    }
+
+    /**
+     * Get the expressions of the highest indices, per array one expression for every dimension.
+     *
+     * @return the highest indices
+     */
+    public Expression[][] getUpperBounds() {
+        return _aoUpperBounds;
+    }
+
+    /**
+     * Let a compiler pass replace the expressions of the highest indices.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public void rewrite(final ExpressionRewriter oRewriter) {
+        for (Expression[] aoUpperBounds : _aoUpperBounds) {
+            for (int iDimension = 0; iDimension < aoUpperBounds.length; iDimension++) {
+                aoUpperBounds[iDimension] = oRewriter.rewrite(aoUpperBounds[iDimension]);
+            }
+        }
+    }
+
     /**
      * Execute.
      * <p>
-     * Terminate the running program.
+     * Allocate the arrays.
+     *
+     * @throws Exception if a bound cannot be evaluated or an array is already dimensioned
      */
-    public final void execute() {
-        System.exit(0);
+    public final void execute() throws Exception {
+        for (int iArray = 0; iArray < _astrNames.length; iArray++) {
+            int[] aiUpperBounds = new int[_aoUpperBounds[iArray].length];
+
+            for (int iDimension = 0; iDimension < aiUpperBounds.length; iDimension++) {
+                aiUpperBounds[iDimension] = (int) Math.round(_aoUpperBounds[iArray][iDimension].evaluateDouble());
+            }
+
+            _oVariableManagement.dimArray(_aiArraySlots[iArray], aiUpperBounds);
+        }
     }
 
     /**
@@ -46,12 +110,27 @@ public class DimStatement implements Statement {
      * <p>
      * Method for JUnit to return the content of the statement.
      *
-     * @return - gives the name of the statement ("END")
+     * @return - gives the name of the statement ("DIM") and the arrays
      */
     @Override
     public final String content() {
+        StringBuilder strContent = new StringBuilder();
+
+        for (int iArray = 0; iArray < _astrNames.length; iArray++) {
+            strContent.append("<").append(_astrNames[iArray]).append("(");
+
+            for (int iDimension = 0; iDimension < _aoUpperBounds[iArray].length; iDimension++) {
+                if (iDimension > 0) {
+                    strContent.append(",");
+                }
 
-        return "END";
+                strContent.append(_aoUpperBounds[iArray][iDimension].content());
+            }
+
+            strContent.append(")>");
+        }
+
+        return "DIM (" + strContent + ")";
     }
 
     /**
@@ -59,14 +138,35 @@ public class DimStatement implements Statement {
      * <p>
      * Method for the compiler to get the structure of the program.
      *
-     * @return gives the name of the statement ("INPUT") and a list of the parameters
+     * @return gives the name of the statement ("DIM") and a list of the parameters
      * @throws Exception based on errors in the implementation classes
      */
     @Override
     public String structure() throws Exception {
         String strReturn = "{\"DIM\": {";
-        strReturn += "\"TOKEN_NR\": \""+ _iTokenNumber +"\"";
-        strReturn += "}}";
+        strReturn += "\"TOKEN_NR\": \""+ _iTokenNumber +"\",";
+        strReturn += "\"ARRAYS\": [";
+
+        for (int iArray = 0; iArray < _astrNames.length; iArray++) {
+            if (iArray > 0) {
+                strReturn += ",";
+            }
+
+            strReturn += "{\"NAME\": \""+ _astrNames[iArray] +"\",";
+            strReturn += "\"UPPER_BOUNDS\": [";
+
+            for (int iDimension = 0; iDimension < _aoUpperBounds[iArray].length; iDimension++) {
+                if (iDimension > 0) {
+                    strReturn += ",";
+                }
+
+                strReturn += _aoUpperBounds[iArray][iDimension].structure();
+            }
+
+            strReturn += "]}";
+        }
+
+        strReturn += "]}}";
         return strReturn;
     }
 }
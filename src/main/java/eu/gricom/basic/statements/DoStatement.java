@@ -1,7 +1,7 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.memoryManager.Stack;
-import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.linker.Linker;
+import eu.gricom.basic.memoryManager.ControlStack;
 
 /**
  * DoStatement.java
@@ -15,8 +15,10 @@ import eu.gricom.basic.variableTypes.IntegerValue;
  * <p>
  * Created in 2021
  */
-public class DoStatement implements Statement {
+public class DoStatement implements LinkableStatement {
     private final int _iTokenNumber;
+    private int _iLoopStatement = -1;
+    private final ControlStack _oControlStack = new ControlStack();
 
     /**
      * Default constructor.
@@ -35,11 +37,41 @@ public class DoStatement implements Statement {
         return _iTokenNumber;
     }
 
+    /**
+     * Link the statement: the "Until" command jumps back to this "Do" statement, which defines the return location
+     * again.
+     *
+     * @param oLinker the linker holding the cross-reference of the program
+     * @param iStatementNumber the number of this statement in the program
+     */
     @Override
-    public final void execute() throws Exception {
-        final Stack oStack = new Stack();
+    public final void link(final Linker oLinker, final int iStatementNumber) {
+        _iLoopStatement = iStatementNumber;
+    }
 
-        oStack.push(new IntegerValue(_iTokenNumber));
+    /**
+     * Get the jump targets resolved by the linker: this statement, where the loop starts again.
+     *
+     * @return statement numbers of the jump targets
+     */
+    @Override
+    public final int[] getLinks() {
+        return new int[] {_iLoopStatement};
+    }
+
+    /**
+     * Restore the jump targets of a stored program, in place of linking it again.
+     *
+     * @param aiLinks statement numbers of the jump targets, as delivered by getLinks()
+     */
+    @Override
+    public final void setLinks(final int[] aiLinks) {
+        _iLoopStatement = aiLinks[0];
+    }
+
+    @Override
+    public final void execute() throws Exception {
+        _oControlStack.push(ControlStack.DO, _iLoopStatement);
     }
 
     @Override
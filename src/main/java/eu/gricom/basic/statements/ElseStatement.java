@@ -1,9 +1,7 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.error.SyntaxErrorException;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
-import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.memoryManager.ControlStack;
 
 /**
  * ElseStatement.java
@@ -21,6 +19,7 @@ import eu.gricom.basic.variableTypes.IntegerValue;
  */
 public class ElseStatement implements Statement {
     private final ProgramPointer _oProgramPointer = new ProgramPointer();
+    private final ControlStack _oControlStack = new ControlStack();
     private final int _iTokenNumber;
 
     /**
@@ -42,16 +41,7 @@ public class ElseStatement implements Statement {
 
     @Override
     public final void execute() throws Exception {
-        final Stack oStack = new Stack();
-
-        int iTargetLineNumber = ((IntegerValue) oStack.pop()).toInt();
-
-        if (iTargetLineNumber == 0) {
-            throw new SyntaxErrorException("Undefined Jump Target");
-        } else {
-            _oProgramPointer.setCurrentStatement(iTargetLineNumber);
-        }
-
+        _oProgramPointer.setCurrentStatement(_oControlStack.pop(ControlStack.ELSE));
     }
 
     @Override
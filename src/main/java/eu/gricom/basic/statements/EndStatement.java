@@ -1,15 +1,20 @@
 package eu.gricom.basic.statements;
 
+import eu.gricom.basic.memoryManager.ProgramPointer;
+
 /**
  * EndStatement.java
  * <p>
  * Description:
  * <p>
- * The EndStatement class terminates the running Basic program.
+ * The EndStatement class terminates the running Basic program: it moves the program pointer past the last statement,
+ * in the same way as the register machine and the JVM byte code jump to the end of the program. The interpreter then
+ * ends as at the end of the program, and can be used to run a program inside another Java program, e.g. a benchmark.
  * <p>
  * (c) = 2020,.., by Andreas Grimm, Den Haag, The Netherlands
  */
 public class EndStatement implements Statement {
+    private final ProgramPointer _oProgramPointer = new ProgramPointer();
     private final int _iTokenNumber;
 
     /**
@@ -47,7 +52,7 @@ public class EndStatement implements Statement {
      * Terminate the running program.
      */
     public final void execute() {
-        System.exit(0);
+        _oProgramPointer.setCurrentStatement(Integer.MAX_VALUE);
     }
 
     /**
@@ -1,18 +1,15 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.error.SyntaxErrorException;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
-import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.memoryManager.ControlStack;
 
 /**
- * NextStatement.java
+ * EndWhileStatement.java
  * <p>
  * Description:
  * <p>
- * A For statement counts an integer or real value from a start value to an end value - and with every increase it
- * loops through the block from the "For" statement to the next "Next" statement. When the target value is reached, the
- * program flow will jump to the statement past the next statement.
+ * An "End-While" statement closes the innermost open "While" loop and returns to the "While" statement, which then
+ * evaluates its condition again.
  * <p>
  * (c) = 2004,...,2021 by Andreas Grimm, Den Haag, The Netherlands
  * <p>
@@ -20,6 +17,7 @@ import eu.gricom.basic.variableTypes.IntegerValue;
  */
 public class EndWhileStatement implements Statement {
     private final ProgramPointer _oProgramPointer = new ProgramPointer();
+    private final ControlStack _oControlStack = new ControlStack();
     private final int _iTokenNumber;
 
     /**
@@ -40,21 +38,12 @@ public class EndWhileStatement implements Statement {
 
     @Override
     public final void execute() throws Exception {
-        final Stack oStack = new Stack();
-
-        int iTargetLineNumber = ((IntegerValue) oStack.pop()).toInt();
-
-        if (iTargetLineNumber == 0) {
-            throw new SyntaxErrorException("Undefined Jump Target");
-        } else {
-            _oProgramPointer.setCurrentStatement(iTargetLineNumber);
-        }
-
+        _oProgramPointer.setCurrentStatement(_oControlStack.pop(ControlStack.WHILE));
     }
 
     @Override
     public final String content() {
-        return "NEXT";
+        return "END-WHILE";
     }
 
     /**
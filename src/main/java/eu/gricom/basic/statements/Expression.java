@@ -1,6 +1,11 @@
 package eu.gricom.basic.statements;
 
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.error.UnexpectedTypeException;
+import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.RealValue;
 import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
 
 /**
  * Base interface for an expression. An expression is like a statement
@@ -8,6 +13,13 @@ import eu.gricom.basic.variableTypes.Value;
  * appear at the top level in Jasic programs, but are used in many
  * statements. For example, the value printed by a "print" statement is an
  * expression. Unlike statements, expressions can nest.
+ * <p>
+ * Besides evaluate(), which returns a Value object, an expression offers
+ * primitive evaluation paths (evaluateDouble, evaluateInt, evaluateBoolean).
+ * Expressions that know the type of their result before the program runs
+ * report it with getType() and implement the matching primitive path
+ * without creating Value objects. All other expressions fall back to
+ * evaluate().
  */
 
 public interface Expression {
@@ -20,6 +32,81 @@ public interface Expression {
      */
     Value evaluate() throws Exception;
 
+    /**
+     * Get the type of the result of the expression, as far as it is known when the program is parsed: REAL for
+     * RealValue results, INTEGER for IntegerValue results, and so on.
+     *
+     * @return type of the result, UNDEFINED if the type is only known when the expression is evaluated
+     */
+    default VariableType getType() {
+        return VariableType.UNDEFINED;
+    }
+
+    /**
+     * Evaluate the expression as a double. Expressions of type REAL implement this without creating a Value object.
+     *
+     * @return The value of the calculated expression.
+     * @throws Exception - Any Exception generated in a lower part of the program.
+     */
+    default double evaluateDouble() throws Exception {
+        return evaluate().toReal();
+    }
+
+    /**
+     * Evaluate the expression as a double, expecting a real value. This is used by the specialized expressions for
+     * operands whose type is only known at runtime.
+     *
+     * @return The value of the calculated expression.
+     * @throws UnexpectedTypeException - if the expression evaluates to a value that is not a real value.
+     * @throws Exception - Any Exception generated in a lower part of the program.
+     */
+    default double evaluateReal() throws Exception {
+        Value oValue = evaluate();
+
+        if (oValue instanceof RealValue) {
+            return oValue.toReal();
+        }
+
+        throw new UnexpectedTypeException(oValue);
+    }
+
+    /**
+     * Evaluate the expression as an int. Expressions of type INTEGER implement this without creating a Value object.
+     *
+     * @return The value of the calculated expression, real values are truncated.
+     * @throws Exception - Any Exception generated in a lower part of the program.
+     */
+    default int evaluateInt() throws Exception {
+        return (int) evaluate().toReal();
+    }
+
+    /**
+     * Evaluate the expression as a condition. Expressions of type BOOLEAN implement this without creating a Value
+     * object.
+     *
+     * @return The value of the calculated condition.
+     * @throws Exception - Any Exception generated in a lower part of the program, or if the expression is not a
+     * condition.
+     */
+    default boolean evaluateBoolean() throws Exception {
+        Value oValue = evaluate();
+
+        if (oValue instanceof BooleanValue) {
+            return ((BooleanValue) oValue).isTrue();
+        }
+
+        throw new RuntimeException("Condition <" + content() + "> is not of type boolean");
+    }
+
+    /**
+     * Let a compiler pass replace the sub-expressions of this expression, e.g. the operands of an operator. Expressions
+     * without sub-expressions do nothing.
+     *
+     * @param oRewriter the compiler pass, called once for every direct sub-expression
+     */
+    default void rewrite(final ExpressionRewriter oRewriter) {
+    }
+
     /**
      * Get the content in human-readable form.
      *
@@ -0,0 +1,24 @@
+package eu.gricom.basic.statements;
+
+/**
+ * ExpressionRewriter Interface.
+ * <p>
+ * Description:
+ * <p>
+ * A compiler pass rewriting the parsed program, e.g. by replacing generic expressions with specialized ones,
+ * implements this interface. The statements and expressions call the pass once for each of their direct
+ * sub-expressions, and store the expression returned in its place.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+@FunctionalInterface
+public interface ExpressionRewriter {
+
+    /**
+     * Rewrite an expression.
+     *
+     * @param oExpression the expression found in the program
+     * @return the expression replacing it, or the same expression if nothing changes
+     */
+    Expression rewrite(Expression oExpression);
+}
@@ -1,11 +1,15 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.error.LinkErrorException;
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.error.SyntaxErrorException;
+import eu.gricom.basic.linker.Linker;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
 import eu.gricom.basic.memoryManager.VariableManagement;
-import eu.gricom.basic.variableTypes.IntegerValue;
-import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.monitoring.Events;
+import eu.gricom.basic.monitoring.LoopEvent;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
 
 /**
  * ForStatement.java
@@ -13,24 +17,55 @@ import eu.gricom.basic.variableTypes.RealValue;
  * Description:
  * <p>
  * A For statement counts an integer or real value from a start value to an end value - and with every increase it
- * loops through the block from the "For" statement to the next "Next" statement. When the target value is reached, the
- * program flow will jump to the statement past the next statement.
+ * loops through the block from the "For" statement to the matching "Next" statement. When the target value is reached,
+ * the program flow will jump to the statement past the matching "Next" statement. Both locations are resolved by the
+ * linker.
+ * <p>
+ * The loop follows the standard BASIC semantics: the start value, end value and step size are calculated once, when
+ * the loop is entered. If the start value is already past the end value, the body is skipped. The "Next" statement
+ * adds the step size to the variable and jumps back to the first statement of the body, as long as the variable has
+ * not passed the end value; after the loop, the variable holds the first value past the end value.
+ * <p>
+ * An integer variable (I%) with an integer step size is counted with ints. A real or untyped variable is counted in
+ * multiples of the smallest decimal fraction of the start value and step size, so that e.g. STEP 0.1 stays exact and
+ * does not need to be rounded.
  * <p>
  * (c) = 2004,...,2021 by Andreas Grimm, Den Haag, The Netherlands
  * <p>
  * Created in 2021
  */
-public final class ForStatement implements Statement {
-    private boolean _bForStarted = false;
+public final class ForStatement implements LinkableStatement {
+    // the scales of the numbers of decimals counted exactly, and the largest scaled counter stored exactly in a double
+    private static final double[] SCALES = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9};
+    private static final double MAX_SCALED = 1e15;
+
+    private int _iStatementNumber = -1;
+    private int _iExitStatement = -1;
     private final String _strName;
-    private final Expression _oStartValue;
-    private final Expression _oEndValue;
-    private final Expression _oStepSize;
+    private Expression _oStartValue;
+    private Expression _oEndValue;
+    private Expression _oStepSize;
     private final int _iEndForStatement;
     private final int _iTokenNumber;
     private final VariableManagement _oVariableManagement = new VariableManagement();
     private final ProgramPointer _oProgramPointer = new ProgramPointer();
-    private final Stack _oStack = new Stack();
+    private final VariableExpression _oVariable;
+
+    // the state of the loop, set when the loop is entered
+    private boolean _bEntered = false;
+    private boolean _bInteger;
+    private int _iEndValue;
+    private int _iStepSize;
+    private double _dEndValue;
+    private double _dStepSize;
+    private boolean _bScaled;
+    private double _dScale;
+    private long _lCounter;
+    private long _lStepSize;
+    private double _dCounter;
+
+    // the loop recorded while the flight recorder is on
+    private LoopEvent _oLoopEvent = null;
 
     /**
      * Gets a previously consumed token, indexing backwards. Last(1) will
@@ -42,63 +77,307 @@ public final class ForStatement implements Statement {
      * @param oEndValueExpression Expression for the calculation of the end value.
      * @param oStepSize size of the steps in which the loop is processed
      * @param iEndForStatement location of the next command to be processed after the loop
+     * @throws SyntaxErrorException if the name of the variable is not valid
      */
     public ForStatement(final int iTokenNumber,
                         final String strName,
                         final Expression oStartValueExpression,
                         final Expression oEndValueExpression,
                         final Expression oStepSize,
-                        final int iEndForStatement) {
+                        final int iEndForStatement) throws SyntaxErrorException {
         _iTokenNumber = iTokenNumber;
         _strName = strName;
         _oStartValue = oStartValueExpression;
         _oEndValue = oEndValueExpression;
         _oStepSize = oStepSize;
         _iEndForStatement = iEndForStatement;
-   }
+        _oVariable = new VariableExpression(strName);
+    }
 
     @Override
     public int getTokenNumber() {
         return _iTokenNumber;
     }
 
+    /**
+     * Get the name of the loop variable.
+     *
+     * @return name of the variable
+     */
+    public String getName() {
+        return _strName;
+    }
+
+    /**
+     * Get the expression of the start value.
+     *
+     * @return the start value
+     */
+    public Expression getStartValue() {
+        return _oStartValue;
+    }
+
+    /**
+     * Get the expression of the end value.
+     *
+     * @return the end value
+     */
+    public Expression getEndValue() {
+        return _oEndValue;
+    }
+
+    /**
+     * Get the expression of the step size.
+     *
+     * @return the step size
+     */
+    public Expression getStepSize() {
+        return _oStepSize;
+    }
+
+    /**
+     * Get the first statement of the body of the loop, the target of the jump back from the "Next" statement.
+     *
+     * @return statement number
+     */
+    public int getBodyStatement() {
+        return _iStatementNumber + 1;
+    }
+
+    /**
+     * Link the statement: find the matching "Next" statement, nested loops are skipped, and connect it to this loop.
+     * A "Next" statement naming a different variable, e.g. "NEXT I" closing "FOR J", is rejected.
+     *
+     * @param oLinker the linker holding the cross-reference of the program
+     * @param iStatementNumber the number of this statement in the program
+     * @throws LinkErrorException if the loop is not closed by a "Next" statement of the same variable
+     */
+    @Override
+    public void link(final Linker oLinker, final int iStatementNumber) throws LinkErrorException {
+        int iNextStatement = oLinker.getMatchingStatement(iStatementNumber, ForStatement.class, NextStatement.class);
+
+        if (iNextStatement < 0) {
+            throw new LinkErrorException("FOR without NEXT in Line [" + oLinker.getLineNumber(iStatementNumber) + "]");
+        }
+
+        NextStatement oNext = (NextStatement) oLinker.getStatement(iNextStatement);
+
+        if (oNext.getName() != null && !oNext.getName().equals(_strName)) {
+            throw new LinkErrorException("NEXT " + oNext.getName() + " does not match FOR " + _strName + " in Line ["
+                                                 + oLinker.getLineNumber(iNextStatement) + "]");
+        }
+
+        _iStatementNumber = iStatementNumber;
+        _iExitStatement = iNextStatement + 1;
+        oNext.setLoop(this);
+    }
+
+    /**
+     * Get the jump targets resolved by the linker: this statement and the statement following the loop.
+     *
+     * @return statement numbers of the jump targets
+     */
+    @Override
+    public int[] getLinks() {
+        return new int[] {_iStatementNumber, _iExitStatement};
+    }
+
+    /**
+     * Restore the jump targets of a stored program, in place of linking it again.
+     *
+     * @param aiLinks statement numbers of the jump targets, as delivered by getLinks()
+     */
+    @Override
+    public void setLinks(final int[] aiLinks) {
+        _iStatementNumber = aiLinks[0];
+        _iExitStatement = aiLinks[1];
+    }
+
+    /**
+     * Let a compiler pass replace the start value, end value and step size of the loop.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public void rewrite(final ExpressionRewriter oRewriter) {
+        _oStartValue = oRewriter.rewrite(_oStartValue);
+        _oEndValue = oRewriter.rewrite(_oEndValue);
+        _oStepSize = oRewriter.rewrite(_oStepSize);
+    }
+
+    /**
+     * Enter the loop: calculate the start value, end value and step size, and assign the start value to the variable.
+     * If the start value is already past the end value, the body of the loop is skipped.
+     *
+     * @throws Exception if one of the expressions cannot be calculated
+     */
     @Override
     public void execute() throws Exception {
-        boolean bCountingDown = _oStepSize.evaluate().toReal() < 0;
+        Value oStartValue = _oStartValue.evaluate();
+        double dEndValue = _oEndValue.evaluate().toReal();
+        double dStepSize = _oStepSize.evaluate().toReal();
+        boolean bWithin;
+
+        // a loop left with GOTO is done when it is entered again
+        if (_oLoopEvent != null) {
+            _oLoopEvent.exit();
+        }
+
+        _oLoopEvent = Events.enterLoop("FOR", _iStatementNumber);
+        _bEntered = true;
+        _bInteger = _oVariable.getType() == VariableType.INTEGER && dStepSize == Math.rint(dStepSize)
+                && Math.abs(dStepSize) <= Integer.MAX_VALUE;
+
+        if (_bInteger) {
+            int iStartValue = (int) oStartValue.toReal();
+
+            // an int counter only reaches the integers up to the end value
+            _iStepSize = (int) dStepSize;
+            _iEndValue = (int) (_iStepSize >= 0 ? Math.floor(dEndValue) : Math.ceil(dEndValue));
+            _oVariable.assignInt(iStartValue);
+            bWithin = _iStepSize >= 0 ? iStartValue <= _iEndValue : iStartValue >= _iEndValue;
+        } else {
+            double dStartValue = oStartValue.toReal();
+            int iDecimals = Math.max(getDecimals(dStartValue), getDecimals(dStepSize));
+
+            _dEndValue = dEndValue;
+            _dStepSize = dStepSize;
+            _bScaled = iDecimals >= 0 && Math.abs(dStartValue) * SCALES[iDecimals] < MAX_SCALED
+                    && Math.abs(dEndValue) * SCALES[iDecimals] < MAX_SCALED;
+
+            if (_bScaled) {
+                _dScale = SCALES[iDecimals];
+                _lCounter = Math.round(dStartValue * _dScale);
+                _lStepSize = Math.round(dStepSize * _dScale);
+                _dCounter = _lCounter / _dScale;
+            }
+
+            // an untyped variable keeps the type of the start value until the first step
+            _oVariable.assign(oStartValue);
+            bWithin = _dStepSize >= 0 ? dStartValue <= _dEndValue : dStartValue >= _dEndValue;
+        }
+
+        if (!bWithin) {
+            _oProgramPointer.setCurrentStatement(_iExitStatement);
+        }
+
+        if (_oLoopEvent != null) {
+            countIteration(bWithin);
+        }
+    }
 
-        final LineNumberXRef oLineNumberObject = new LineNumberXRef();
+    /**
+     * Run the next step of the loop, called by the matching "Next" statement: add the step size to the variable.
+     *
+     * @return true if the variable has not passed the end value, and the body of the loop is executed again
+     * @throws Exception if the loop has not been entered, or the variable does not hold a number
+     */
+    public boolean next() throws Exception {
+        boolean bNext = step();
 
-        if (_bForStarted) {
-            // if the FOR loop is already started - i.e., this is the second iteration then process here
-            double dEndValue = _oEndValue.evaluate().toReal();
-            double dStepSize = _oStepSize.evaluate().toReal();
-            double dCounter = _oVariableManagement.getMap(_strName).toReal();
+        if (_oLoopEvent != null) {
+            countIteration(bNext);
+        }
+
+        return bNext;
+    }
+
+    /**
+     * Count a run of the body in the recorded loop, or commit the loop if it is done.
+     *
+     * @param bIteration true if the body is executed again
+     */
+    private void countIteration(final boolean bIteration) {
+        if (bIteration) {
+            _oLoopEvent.iterate();
+        } else {
+            _oLoopEvent.exit();
+            _oLoopEvent = null;
+        }
+    }
 
-            if (dCounter + dStepSize <= dEndValue && !bCountingDown
-                || dCounter + dStepSize >= dEndValue && bCountingDown) {
+    /**
+     * Add the step size to the variable.
+     *
+     * @return true if the variable has not passed the end value
+     * @throws Exception if the loop has not been entered, or the variable does not hold a number
+     */
+    private boolean step() throws Exception {
+        if (!_bEntered) {
+            throw new RuntimeException("NEXT without FOR: " + _strName);
+        }
 
-                // if the sum of the current value and step size remains lower than the end value, continue
-                _oVariableManagement.putMap(_strName, new RealValue(RealValue.round(dCounter + dStepSize, 2)));
-                _oStack.push(new IntegerValue(oLineNumberObject.getStatementFromToken(_iTokenNumber)));
+        if (_bInteger) {
+            long lValue = (long) _oVariable.evaluateInt() + _iStepSize;
 
-            } else  {
-                // calculate the final sum of the current value and leave the loop
-                _oProgramPointer.setCurrentStatement(
-                        oLineNumberObject.getStatementFromLineNumber(
-                                oLineNumberObject.getNextLineNumber(_iEndForStatement)));
+            if (lValue > Integer.MAX_VALUE || lValue < Integer.MIN_VALUE) {
+                // the counter passed the range of the variable, and therefore also the end value
+                return false;
             }
+
+            _oVariable.assignInt((int) lValue);
+
+            return _iStepSize >= 0 ? lValue <= _iEndValue : lValue >= _iEndValue;
+        }
+
+        double dValue = _oVariable.evaluateDouble();
+
+        if (_bScaled && dValue == _dCounter) {
+            _lCounter += _lStepSize;
+            dValue = _lCounter / _dScale;
         } else {
-            // Define the variable and set the initial value. If the value already exists - overwrite.
-            _oStack.push(new IntegerValue(oLineNumberObject.getStatementFromToken(_iTokenNumber)));
-            _oVariableManagement.putMap(_strName, _oStartValue.evaluate());
-            _bForStarted = true;
+            // the body changed the variable, count with its value from here on
+            _bScaled = false;
+            dValue = add(dValue, _dStepSize);
+        }
+
+        _dCounter = dValue;
+        _oVariable.assignDouble(dValue);
+
+        return _dStepSize >= 0 ? dValue <= _dEndValue : dValue >= _dEndValue;
+    }
+
+    /**
+     * Add two numbers as decimals, e.g. 0.2 + 0.1 = 0.3 and not 0.30000000000000004 as with doubles.
+     *
+     * @param dValue first number
+     * @param dStep second number
+     * @return the sum, rounded to the decimals of the numbers
+     */
+    public static double add(final double dValue, final double dStep) {
+        int iDecimals = Math.max(getDecimals(dValue), getDecimals(dStep));
+
+        if (iDecimals >= 0 && Math.abs(dValue) * SCALES[iDecimals] < MAX_SCALED
+                && Math.abs(dStep) * SCALES[iDecimals] < MAX_SCALED) {
+            return (Math.round(dValue * SCALES[iDecimals]) + Math.round(dStep * SCALES[iDecimals]))
+                    / SCALES[iDecimals];
         }
+
+        return dValue + dStep;
+    }
+
+    /**
+     * Get the number of decimals of a number, e.g. 2 for 0.25.
+     *
+     * @param dValue the number
+     * @return number of decimals, or -1 if the number has more decimals than counted exactly
+     */
+    private static int getDecimals(final double dValue) {
+        for (int iDecimals = 0; iDecimals < SCALES.length; iDecimals++) {
+            double dScaled = dValue * SCALES[iDecimals];
+
+            if (Math.abs(dScaled - Math.rint(dScaled)) <= 4 * Math.ulp(dScaled)) {
+                return iDecimals;
+            }
+        }
+
+        return -1;
     }
 
     @Override
     public String content() throws Exception {
         double dCounter;
-        String strStartValue = _oEndValue.content();
+        String strStartValue = _oStartValue.content();
         String strEndValue = _oEndValue.content();
         String strStepSize = _oStepSize.content();
         if (_oVariableManagement.getMap(_strName) != null) {
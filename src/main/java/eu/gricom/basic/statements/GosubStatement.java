@@ -1,11 +1,11 @@
 package eu.gricom.basic.statements;
 
+import eu.gricom.basic.error.LinkErrorException;
 import eu.gricom.basic.error.RuntimeException;
-import eu.gricom.basic.error.SyntaxErrorException;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.linker.Linker;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
-import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.monitoring.Events;
 
 /**
  * GoSubStatement.java
@@ -13,19 +13,19 @@ import eu.gricom.basic.variableTypes.IntegerValue;
  * Description:
  * <p>
  * A "GOSUB" statement jumps execution to another place in the program and returns to this location after reaching the
- * return command.
+ * return command. Target and return address are resolved by the linker into statement numbers.
  * <p>
  * (c) = 2004,...,2021 by Andreas Grimm, Den Haag, The Netherlands
  * <p>
  * Created in 2021
  */
-public final class GosubStatement implements Statement {
+public final class GosubStatement implements LinkableStatement {
     private final String _strTarget;
     private final int _iTokenNumber;
+    private int _iTargetStatement = -1;
+    private int _iReturnStatement = -1;
     private final ProgramPointer _oProgramPointer = new ProgramPointer();
-    private final LabelStatement _oLabelStatement = new LabelStatement();
-    private final LineNumberXRef _oLineNumberObject = new LineNumberXRef();
-    private final Stack _oStack = new Stack();
+    private final ControlStack _oControlStack = new ControlStack();
 
     /**
      * Default constructor.
@@ -49,23 +49,80 @@ public final class GosubStatement implements Statement {
     }
 
     /**
-     * Execute the transaction.
+     * Get the statement number of the jump target, as resolved by the linker.
      *
-     * @throws SyntaxErrorException when the target of the GoSub command is unknown
-     * @throws RuntimeException escalated from the LineNumberXRef class
+     * @return statement number of the target
      */
-    public void execute() throws SyntaxErrorException, RuntimeException {
+    public int getTargetStatement() {
+        return _iTargetStatement;
+    }
+
+    /**
+     * Get the statement number the subroutine returns to, as resolved by the linker.
+     *
+     * @return statement number following the GOSUB statement
+     */
+    public int getReturnStatement() {
+        return _iReturnStatement;
+    }
+
+    /**
+     * Link the statement: translate the target line number into a statement number. The return address is the
+     * statement following the GOSUB statement.
+     *
+     * @param oLinker the linker holding the cross-reference of the program
+     * @param iStatementNumber the number of this statement in the program
+     * @throws LinkErrorException when the target of the GoSub command is unknown
+     */
+    @Override
+    public void link(final Linker oLinker, final int iStatementNumber) throws LinkErrorException {
         // This class is only used for the BASIC version...
         // here we are using line numbers to jump to the destination. This is only done for BASIC programs.
-        int iTokenNo = _oLineNumberObject.getStatementFromLineNumber(Integer.parseInt(_strTarget));
+        try {
+            _iTargetStatement = oLinker.getStatementFromLineNumber(Integer.parseInt(_strTarget));
+        } catch (NumberFormatException eNumberException) {
+            throw new LinkErrorException("GOSUB [incorrect format]: Target: " + _strTarget + " in Line ["
+                                                 + oLinker.getLineNumber(iStatementNumber) + "]");
+        }
 
-        if (iTokenNo != 0) {
-            _oStack.push(new IntegerValue(_oLineNumberObject.getStatementFromToken(_iTokenNumber)));
-            _oProgramPointer.setCurrentStatement(iTokenNo);
-            return;
+        if (_iTargetStatement < 0) {
+            throw new LinkErrorException("GOSUB [unknown]: Target: " + _strTarget + " in Line ["
+                                                 + oLinker.getLineNumber(iStatementNumber) + "]");
         }
 
-        throw new SyntaxErrorException("GOSUB [unknown]: Target: " + _strTarget);
+        _iReturnStatement = iStatementNumber + 1;
+    }
+
+    /**
+     * Get the jump targets resolved by the linker: the start of the subroutine and the return address.
+     *
+     * @return statement numbers of the jump targets
+     */
+    @Override
+    public int[] getLinks() {
+        return new int[] {_iTargetStatement, _iReturnStatement};
+    }
+
+    /**
+     * Restore the jump targets of a stored program, in place of linking it again.
+     *
+     * @param aiLinks statement numbers of the jump targets, as delivered by getLinks()
+     */
+    @Override
+    public void setLinks(final int[] aiLinks) {
+        _iTargetStatement = aiLinks[0];
+        _iReturnStatement = aiLinks[1];
+    }
+
+    /**
+     * Execute the transaction.
+     *
+     * @throws RuntimeException if the maximum depth of the control stack is exceeded
+     */
+    public void execute() throws RuntimeException {
+        _oControlStack.push(ControlStack.GOSUB, _iReturnStatement);
+        _oProgramPointer.setCurrentStatement(_iTargetStatement);
+        Events.gosub(false, _iReturnStatement - 1, _iTargetStatement, _oControlStack.getDepth());
     }
 
     /**
@@ -74,12 +131,8 @@ public final class GosubStatement implements Statement {
      * @return - readable string with the name and the value of the assignment
      */
     @Override
-    public String content() throws RuntimeException {
-        if (_oLabelStatement.containsLabelKey(_strTarget)) {
-            return "GOSUB [" + _strTarget + "]: Destination: " + _oLabelStatement.getLabelStatement(_strTarget);
-        }
-
-       return "GOSUB [" + _strTarget + "]: Destination: " + _oLineNumberObject.getStatementFromLineNumber(Integer.parseInt(_strTarget));
+    public String content() {
+       return "GOSUB [" + _strTarget + "]: Destination: " + _iTargetStatement;
     }
 
     /**
@@ -1,9 +1,8 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.error.RuntimeException;
-import eu.gricom.basic.error.SyntaxErrorException;
+import eu.gricom.basic.error.LinkErrorException;
 import eu.gricom.basic.helper.Logger;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.linker.Linker;
 import eu.gricom.basic.memoryManager.ProgramPointer;
 
 /**
@@ -11,20 +10,20 @@ import eu.gricom.basic.memoryManager.ProgramPointer;
  * <p>
  * Description:
  * <p>
- * A "goto" statement jumps execution to another place in the program.
+ * A "goto" statement jumps execution to another place in the program. The target is resolved by the linker into a
+ * statement number, so the jump itself only sets the program pointer.
  * <p>
  * (c) = 2004,...,2016 by Andreas Grimm, Den Haag, The Netherlands
  * <p>
  * Created in 2003
  *
  */
-public final class GotoStatement implements Statement {
+public final class GotoStatement implements LinkableStatement {
     private final Logger _oLogger = new Logger(this.getClass().getName());
     private final String _strTarget;
     private final int _iTokenNumber;
+    private int _iTargetStatement = -1;
     private final ProgramPointer _oProgramPointer = new ProgramPointer();
-    private final LabelStatement _oLabelStatement = new LabelStatement();
-    private final LineNumberXRef _oLineNumberObject = new LineNumberXRef();
 
     /**
      * Default constructor.
@@ -57,46 +56,79 @@ public final class GotoStatement implements Statement {
     }
 
     /**
-     * Execute the transaction.
+     * Get the statement number of the jump target, as resolved by the linker.
      *
-     * @throws SyntaxErrorException for unknown or incorrect formatted targets
+     * @return statement number of the target
      */
-    public void execute() throws SyntaxErrorException {
+    public int getTargetStatement() {
+        return _iTargetStatement;
+    }
+
+    /**
+     * Link the statement: translate the target label or line number into a statement number.
+     *
+     * @param oLinker the linker holding the cross-reference of the program
+     * @param iStatementNumber the number of this statement in the program
+     * @throws LinkErrorException for unknown or incorrect formatted targets
+     */
+    @Override
+    public void link(final Linker oLinker, final int iStatementNumber) throws LinkErrorException {
         // This part of the method is executed if the BASIC interpreter uses labels (e.g., we are using JASIC)
-        if (_oLabelStatement.containsLabelKey(_strTarget)) {
-            _oLogger.debug("-execute-> jump to [" + _strTarget + "]");
-            _oProgramPointer.setCurrentStatement(_oLabelStatement.getLabelStatement(_strTarget));
-            _oLogger.debug("-execute-> jump to [" + _oLabelStatement.getLabelStatement(_strTarget) + "]");
+        if (oLinker.containsLabel(_strTarget)) {
+            _iTargetStatement = oLinker.getStatementFromLabel(_strTarget);
+            _oLogger.debug("-link-> jump to [" + _strTarget + "]: statement [" + _iTargetStatement + "]");
             return;
         }
 
         // Here we are using line numbers to jump to the destination. This is only done for BASIC programs.
         try {
-            int iTokenNo = _oLineNumberObject.getStatementFromLineNumber(Integer.parseInt(_strTarget));
-
-            if (iTokenNo != 0) {
-                _oProgramPointer.setCurrentStatement(iTokenNo);
-                return;
-            }
+            _iTargetStatement = oLinker.getStatementFromLineNumber(Integer.parseInt(_strTarget));
+        } catch (NumberFormatException eNumberException) {
+            throw new LinkErrorException("GOTO [incorrect format]: Target: " + _strTarget + " in Line ["
+                                                 + oLinker.getLineNumber(iStatementNumber) + "]");
+        }
 
-            throw new SyntaxErrorException("GOTO [unknown]: Target: " + _strTarget);
-        } catch (RuntimeException e) {
-            throw new SyntaxErrorException("GOTO [incorrect format]: Target: " + _strTarget);
+        if (_iTargetStatement < 0) {
+            throw new LinkErrorException("GOTO [unknown]: Target: " + _strTarget + " in Line ["
+                                                 + oLinker.getLineNumber(iStatementNumber) + "]");
         }
     }
 
+    /**
+     * Get the jump targets resolved by the linker: the target of the jump.
+     *
+     * @return statement numbers of the jump targets
+     */
+    @Override
+    public int[] getLinks() {
+        return new int[] {_iTargetStatement};
+    }
+
+    /**
+     * Restore the jump targets of a stored program, in place of linking it again.
+     *
+     * @param aiLinks statement numbers of the jump targets, as delivered by getLinks()
+     */
+    @Override
+    public void setLinks(final int[] aiLinks) {
+        _iTargetStatement = aiLinks[0];
+    }
+
+    /**
+     * Execute the transaction.
+     */
+    public void execute() {
+        _oProgramPointer.setCurrentStatement(_iTargetStatement);
+    }
+
     /**
      * This method is used in testing and debugging. It returns the set values when the constructor has been called.
      *
      * @return - readable string with the name and the value of the assignment
      */
     @Override
-    public String content() throws RuntimeException {
-        if (_oLabelStatement.containsLabelKey(_strTarget)) {
-            return "GOTO [" + _strTarget + "]: Destination: " + _oLabelStatement.getLabelStatement(_strTarget);
-        }
-
-        return "GOTO [" + _strTarget + "]: Destination: " + _oLineNumberObject.getStatementFromLineNumber(Integer.parseInt(_strTarget));
+    public String content() {
+        return "GOTO [" + _strTarget + "]: Destination: " + _iTargetStatement;
     }
 
     /**
@@ -1,11 +1,9 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.error.SyntaxErrorException;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.error.LinkErrorException;
+import eu.gricom.basic.linker.Linker;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
-import eu.gricom.basic.variableTypes.BooleanValue;
-import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.memoryManager.ControlStack;
 
 /**
  * IfThenStatement.java
@@ -13,22 +11,24 @@ import eu.gricom.basic.variableTypes.IntegerValue;
  * Description:
  * <p>
  * An "IF" then statement jumps execution to another place in the program, but only if an expression evaluates to
- * something other than 0.
+ * something other than 0. All jump targets are resolved by the linker into statement numbers.
  * <p>
  * (c) = 2004,...,2021 by Andreas Grimm, Den Haag, The Netherlands
  * <p>
  * Created in 2021
  *
  */
-public final class IfThenStatement implements Statement {
-    private final Expression _oCondition;
+public final class IfThenStatement implements LinkableStatement {
+    private Expression _oCondition;
     private final String _strLabel;
     private int _iTokenNumber = 0;
     private int _iTargetLineNumber = 0;
     private  int _iElseStatement = 0;
+    private int _iTargetStatement = -1;
+    private int _iFalseStatement = -1;
+    private int _iEndIfStatement = -1;
     private final ProgramPointer _oProgramPointer = new ProgramPointer();
-    private final LabelStatement _oLabelStatement = new LabelStatement();
-    private final LineNumberXRef _oLineNumberObject = new LineNumberXRef();
+    private final ControlStack _oControlStack = new ControlStack();
     private final int _iEndIfLine;
 
     /**
@@ -62,7 +62,7 @@ public final class IfThenStatement implements Statement {
         _oCondition = oCondition;
         _strLabel = "";
         _iElseStatement = iELseStatement;
-            _iEndIfLine = iEndIfLine;
+        _iEndIfLine = iEndIfLine;
         _iTargetLineNumber = iTargetLineNumber;
     }
 
@@ -77,78 +77,152 @@ public final class IfThenStatement implements Statement {
     }
 
     /**
-     * Execute the If statement.
+     * Get the condition of the statement.
      *
-     * @throws Exception - exposes any exception coming from the memory management
+     * @return the condition
      */
-    public void execute() throws Exception {
-        Stack oStack = new Stack();
+    public Expression getCondition() {
+        return _oCondition;
+    }
+
+    /**
+     * Get the statement number of the jump target of an IF ... THEN line number statement.
+     *
+     * @return statement number of the target, or -1 for an IF block
+     */
+    public int getTargetStatement() {
+        return _iTargetStatement;
+    }
 
+    /**
+     * Get the statement number an IF block continues with if the condition is false: past the ELSE or the END-IF.
+     *
+     * @return statement number
+     */
+    public int getFalseStatement() {
+        return _iFalseStatement;
+    }
+
+    /**
+     * Get the statement number past the END-IF of an IF block.
+     *
+     * @return statement number
+     */
+    public int getEndIfStatement() {
+        return _iEndIfStatement;
+    }
+
+    /**
+     * Verifies that the IF block has an ELSE block.
+     *
+     * @return true, if the block has an ELSE block
+     */
+    public boolean hasElse() {
+        return _iElseStatement != 0;
+    }
+
+    /**
+     * Link the If statement: translate the jump target, or the locations past the ELSE and END-IF statements, into
+     * statement numbers.
+     *
+     * @param oLinker the linker holding the cross-reference of the program
+     * @param iStatementNumber the number of this statement in the program
+     * @throws LinkErrorException for unknown jump targets
+     */
+    @Override
+    public void link(final Linker oLinker, final int iStatementNumber) throws LinkErrorException {
         // This part of the method is executed if the BASIC interpreter uses labels (e.g., we are using JASIC)
-        if (_oLabelStatement.containsLabelKey(_strLabel)) {
-            BooleanValue bValue = (BooleanValue) _oCondition.evaluate();
-            if (bValue.isTrue()) {
-                _oProgramPointer.setCurrentStatement(_oLabelStatement.getLabelStatement(_strLabel));
-            }
+        if (oLinker.containsLabel(_strLabel)) {
+            _iTargetStatement = oLinker.getStatementFromLabel(_strLabel);
+            return;
+        }
+
+        // If the coder uses a jump target, the jump target needs to be valid
+        if (_iTargetLineNumber != 0) {
+            _iTargetStatement = oLinker.getStatementFromLineNumber(_iTargetLineNumber);
 
+            if (_iTargetStatement < 0) {
+                throw new LinkErrorException("IF [unknown]: Target: [" + _iTargetLineNumber + "] in Line ["
+                                                     + oLinker.getLineNumber(iStatementNumber) + "]");
+            }
             return;
         }
 
-        // Here we are using line numbers to jump to the destination. This is only done for BASIC programs.
-        BooleanValue bValue = (BooleanValue) _oCondition.evaluate();
+        // only if the _iElseStatement, _iEndIfLine number and the _iTargetLineNumber are 0 then we have a problem
+        if (_iEndIfLine == 0) {
+            throw new LinkErrorException("IF [unknown]: Target: [" + _strLabel + "] in Line ["
+                                                 + oLinker.getLineNumber(iStatementNumber) + "]");
+        }
 
-        // different to the code above: when the result of the condition is false, then ignore the next block and
-        // jump to the END-IF statement.
-        if (!bValue.isTrue()) {
-            try {
+        _iEndIfStatement = oLinker.getStatementAfterLineNumber(_iEndIfLine);
 
-                int iStatementNo = 0;
+        if (_iElseStatement != 0) { // ok - we found an ELSE statement - so we jump there rather than to the END-IF
+            _iFalseStatement = oLinker.getStatementAfterLineNumber(_iElseStatement);
+        } else {
+            _iFalseStatement = _iEndIfStatement;
+        }
+    }
 
-                if (_iElseStatement != 0) { // ok - we found an ELSE statement - so we jump there rather than to the END-IF
-                    iStatementNo = _oLineNumberObject.getStatementFromLineNumber(_oLineNumberObject.getNextLineNumber(_iElseStatement));
-                } else {
-                    // no ELSE - check for an END-IF
-                    if (_iEndIfLine != 0) {
-                        iStatementNo = _oLineNumberObject.getStatementFromLineNumber(_oLineNumberObject.getNextLineNumber(_iEndIfLine));
-                    }
-                }
+    /**
+     * Get the jump targets resolved by the linker: the target of the jump, and the statements past the ELSE and the END-IF.
+     *
+     * @return statement numbers of the jump targets
+     */
+    @Override
+    public int[] getLinks() {
+        return new int[] {_iTargetStatement, _iFalseStatement, _iEndIfStatement};
+    }
 
-                if (iStatementNo != 0) {
-                    _oProgramPointer.setCurrentStatement(iStatementNo);
-                    return;
-                }
+    /**
+     * Restore the jump targets of a stored program, in place of linking it again.
+     *
+     * @param aiLinks statement numbers of the jump targets, as delivered by getLinks()
+     */
+    @Override
+    public void setLinks(final int[] aiLinks) {
+        _iTargetStatement = aiLinks[0];
+        _iFalseStatement = aiLinks[1];
+        _iEndIfStatement = aiLinks[2];
+    }
 
+    /**
+     * Let a compiler pass replace the condition.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public void rewrite(final ExpressionRewriter oRewriter) {
+        _oCondition = oRewriter.rewrite(_oCondition);
+    }
 
-                // only if the _iElseStatement, _iEndIfLine number and the _iTargetLineNumber are 0 then we have a
-                // problem
-                if (_iTargetLineNumber == 0) {
-                    throw new SyntaxErrorException("IF [unknown]: Target: [" + _iEndIfLine + "]");
-                }
+    /**
+     * Execute the If statement.
+     *
+     * @throws Exception - exposes any exception coming from the memory management
+     */
+    public void execute() throws Exception {
+        boolean bValue = _oCondition.evaluateBoolean();
 
-                return;
-            } catch (NumberFormatException eNumberException) {
-                throw new SyntaxErrorException("IF [incorrect format]: Target: " + _strLabel);
+        // If the coder uses a jump target, jump only if the condition is true.
+        if (_iTargetStatement >= 0) {
+            if (bValue) {
+                _oProgramPointer.setCurrentStatement(_iTargetStatement);
             }
-        }
 
-        // If the condition is true, check whether we have a jump target. The jump target needs to be valid otherwise
-        // an exception is thrown
-        if (_iTargetLineNumber != 0) {
-            int iStatementNo = _oLineNumberObject.getStatementFromLineNumber(_iTargetLineNumber);
+            return;
+        }
 
-            if (iStatementNo != 0) {
-                _oProgramPointer.setCurrentStatement(iStatementNo);
-                return;
-            }
-            throw new SyntaxErrorException("IF [unknown]: Target: [" + _iTargetLineNumber + "]");
+        // when the result of the condition is false, then ignore the next block and jump past the ELSE or END-IF
+        // statement.
+        if (!bValue) {
+            _oProgramPointer.setCurrentStatement(_iFalseStatement);
+            return;
         }
 
         if (_iElseStatement != 0) { // Ok - we found an ELSE statement - and we will run into it. So put the
             // necessary info on the stack, then ELSE can use it to jump over the ELSE block.
-            int iStatementNo = _oLineNumberObject.getStatementFromLineNumber(_oLineNumberObject.getNextLineNumber(_iEndIfLine));
-            oStack.push(new IntegerValue(iStatementNo));
+            _oControlStack.push(ControlStack.ELSE, _iEndIfStatement);
         }
-
     }
 
     /**
@@ -8,6 +8,7 @@ import eu.gricom.basic.variableTypes.StringValue;
 import eu.gricom.basic.variableTypes.Value;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 
 /**
@@ -17,9 +18,15 @@ import java.io.InputStreamReader;
  * <p>
  * The InputStatement class has a single function: read the console and move the content into a named variable.
  * <p>
+ * All input statements read from the same buffered reader, so that a line read ahead by the buffer is not lost when
+ * the input is redirected from a file. A new reader is only created if System.in has been replaced.
+ * <p>
  * (c) = 2020,...,2025 by Andreas Grimm, Den Haag, The Netherlands
  */
 public class InputStatement implements Statement {
+    private static InputStream _oInput = null;
+    private static BufferedReader _oReader = null;
+
     private final String _strName;
     private final int _iTokenNumber;
 
@@ -58,6 +65,15 @@ public class InputStatement implements Statement {
         return _iTokenNumber;
     }
 
+    /**
+     * Get the name of the variable receiving the input.
+     *
+     * @return name of the variable
+     */
+    public final String getName() {
+        return _strName;
+    }
+
     /**
      * Execute.
      * <p>
@@ -66,12 +82,11 @@ public class InputStatement implements Statement {
      * @throws RuntimeException if an incorrect input is detected
      */
     public final void execute() throws RuntimeException {
-        BufferedReader oReader = new BufferedReader(new InputStreamReader(System.in));
         AssignStatement oAssignStatement;
         Value oValue;
 
         try {
-            String strInput = oReader.readLine();
+            String strInput = getReader().readLine();
 
             // Store it as a number if possible, otherwise use a string.
             try {
@@ -89,6 +104,20 @@ public class InputStatement implements Statement {
         }
     }
 
+    /**
+     * Get the reader of the console input.
+     *
+     * @return reader of System.in
+     */
+    private static BufferedReader getReader() {
+        if (_oInput != System.in) {
+            _oInput = System.in;
+            _oReader = new BufferedReader(new InputStreamReader(System.in));
+        }
+
+        return _oReader;
+    }
+
     /**
      * Content.
      * <p>
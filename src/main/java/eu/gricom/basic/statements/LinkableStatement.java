@@ -0,0 +1,41 @@
+package eu.gricom.basic.statements;
+
+import eu.gricom.basic.error.LinkErrorException;
+import eu.gricom.basic.linker.Linker;
+
+/**
+ * LinkableStatement Interface.
+ * <p>
+ * Description:
+ * <p>
+ * Statements changing the program flow implement this interface. The linker calls each of these statements once
+ * after parsing, so that the statement can translate its jump targets (BASIC line numbers, labels, or the matching
+ * end of a loop) into statement numbers. At runtime, a jump is then a simple update of the program pointer.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public interface LinkableStatement extends Statement {
+
+    /**
+     * Link - resolve the jump targets of the statement.
+     *
+     * @param oLinker the linker holding the cross-reference of the program
+     * @param iStatementNumber the number of this statement in the program
+     * @throws LinkErrorException if a jump target cannot be resolved
+     */
+    void link(Linker oLinker, int iStatementNumber) throws LinkErrorException;
+
+    /**
+     * Get Links - the jump targets resolved by the linker, so that a linked program can be stored.
+     *
+     * @return statement numbers of the jump targets, in an order defined by the statement
+     */
+    int[] getLinks();
+
+    /**
+     * Set Links - restore the jump targets of a stored program, in place of linking it again.
+     *
+     * @param aiLinks statement numbers of the jump targets, as delivered by getLinks()
+     */
+    void setLinks(int[] aiLinks);
+}
@@ -1,9 +1,7 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.error.SyntaxErrorException;
+import eu.gricom.basic.error.RuntimeException;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
-import eu.gricom.basic.variableTypes.IntegerValue;
 
 /**
  * NextStatement.java
@@ -11,7 +9,9 @@ import eu.gricom.basic.variableTypes.IntegerValue;
  * Description:
  * <p>
  * A "Next" statement closes the most outside open "For" loop and triggers the next run of the "For"
- * loop.
+ * loop. The linker connects the statement to its "For" statement, and rejects a "Next" naming a different loop
+ * variable; the "Next" statement runs the next step of the loop and jumps directly to the first statement of the body,
+ * or continues past the loop when the loop is done.
  * <p>
  * (c) = 2004,...,2021 by Andreas Grimm, Den Haag, The Netherlands
  * <p>
@@ -20,6 +20,8 @@ import eu.gricom.basic.variableTypes.IntegerValue;
 public class NextStatement implements Statement {
     private final ProgramPointer _oProgramPointer = new ProgramPointer();
     private final int _iTokenNumber;
+    private final String _strName;
+    private ForStatement _oLoop;
 
     /**
      * Default constructor.
@@ -29,7 +31,18 @@ public class NextStatement implements Statement {
      * @param iTokenNumber the line number of this command
      */
     public NextStatement(final int iTokenNumber) {
+        this(iTokenNumber, null);
+    }
+
+    /**
+     * Constructor for a "Next" statement naming the loop variable, e.g. "NEXT I".
+     *
+     * @param iTokenNumber the line number of this command
+     * @param strName name of the loop variable, or null if the statement does not name it
+     */
+    public NextStatement(final int iTokenNumber, final String strName) {
         _iTokenNumber = iTokenNumber;
+        _strName = strName;
     }
 
     @Override
@@ -37,22 +50,47 @@ public class NextStatement implements Statement {
         return _iTokenNumber;
     }
 
+    /**
+     * Get the name of the loop variable.
+     *
+     * @return name of the variable, or null if the statement does not name it
+     */
+    public final String getName() {
+        return _strName;
+    }
+
+    /**
+     * Connect the statement to the "For" statement opening the loop, done by the linker.
+     *
+     * @param oLoop the matching "For" statement
+     */
+    public final void setLoop(final ForStatement oLoop) {
+        _oLoop = oLoop;
+    }
+
+    /**
+     * Get the "For" statement opening the loop.
+     *
+     * @return the matching "For" statement, or null if the statement is not linked
+     */
+    public final ForStatement getLoop() {
+        return _oLoop;
+    }
+
     @Override
     public final void execute() throws Exception {
-        final Stack oStack = new Stack();
-
-        int iTargetLineNumber = ((IntegerValue) oStack.pop()).toInt();
-        if (iTargetLineNumber == 0) {
-            throw new SyntaxErrorException("Undefined Jump Target");
-        } else {
-            _oProgramPointer.setCurrentStatement(iTargetLineNumber);
+        if (_oLoop == null) {
+            throw new RuntimeException("NEXT without FOR");
         }
 
+        if (_oLoop.next()) {
+            _oProgramPointer.setCurrentStatement(_oLoop.getBodyStatement());
+        }
     }
 
     @Override
     public final String content() {
-        return "NEXT";
+        return _strName != null ? "NEXT " + _strName : "NEXT";
     }
 
     /**
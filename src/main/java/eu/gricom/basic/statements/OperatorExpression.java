@@ -1,22 +1,36 @@
 package eu.gricom.basic.statements;
 
 
+import eu.gricom.basic.error.DivideByZeroException;
 import eu.gricom.basic.error.SyntaxErrorException;
 import eu.gricom.basic.helper.Logger;
 import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
 import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
 
 /**
  * An operator expression evaluates two expressions and then performs some
  * arithmetic operation on the results.
+ * <p>
+ * If the types of both operands are known when the expression is created,
+ * the type of the result is known as well. In this case the operation is
+ * calculated on primitive doubles, ints or booleans, with the same rules as
+ * the operations of the value classes (e.g. an integer plus a real is an
+ * integer). Otherwise the operation is passed to the value of the left side.
  */
 
 public class OperatorExpression implements Expression {
     private final Logger _oLogger = new Logger(this.getClass().getName());
-    private final Expression _oLeft;
+    private Expression _oLeft;
     private final String _strOperator;
     private final BasicTokenType _oOperator;
-    private final Expression _oRight;
+    private Expression _oRight;
+    private final BasicTokenType _eOperation;
+    private VariableType _eOperandType;
+    private VariableType _eType;
 
     /**
      * Default constructor.
@@ -31,6 +45,9 @@ public class OperatorExpression implements Expression {
         _strOperator = strOperator;
         _oOperator = null;
         _oRight = oRight;
+        _eOperation = getOperation(strOperator);
+        _eOperandType = oLeft.getType();
+        _eType = getResultType(_eOperation, oLeft.getType(), oRight.getType());
     }
 
     /**
@@ -46,6 +63,118 @@ public class OperatorExpression implements Expression {
         _strOperator = null;
         _oOperator = oOperator;
         _oRight = oRight;
+        _eOperation = oOperator;
+        _eOperandType = oLeft.getType();
+        _eType = getResultType(_eOperation, oLeft.getType(), oRight.getType());
+    }
+
+    /**
+     * Translate an operator given as a string into the matching token type.
+     *
+     * @param strOperator the operator as a string
+     * @return the operator as a token type, or null if the operator is not known
+     */
+    private static BasicTokenType getOperation(final String strOperator) {
+        return switch (strOperator) {
+            case "=", "==" -> BasicTokenType.COMPARE_EQUAL;
+            case "+" -> BasicTokenType.PLUS;
+            case "-" -> BasicTokenType.MINUS;
+            case "*" -> BasicTokenType.MULTIPLY;
+            case "/" -> BasicTokenType.DIVIDE;
+            case "^" -> BasicTokenType.POWER;
+            case "&", "AND" -> BasicTokenType.AND;
+            case "|", "OR" -> BasicTokenType.OR;
+            case "!=" -> BasicTokenType.COMPARE_NOT_EQUAL;
+            case "<" -> BasicTokenType.SMALLER;
+            case "<=" -> BasicTokenType.SMALLER_EQUAL;
+            case ">" -> BasicTokenType.GREATER;
+            case ">=" -> BasicTokenType.GREATER_EQUAL;
+            case "%" -> BasicTokenType.MODULO;
+            case ">>" -> BasicTokenType.SHIFT_RIGHT;
+            case "<<" -> BasicTokenType.SHIFT_LEFT;
+            default -> null;
+        };
+    }
+
+    /**
+     * Determine the type of the result of the operation from the types of the operands. The rules follow the value
+     * classes: the left operand decides the kind of calculation, an integer accepts a real on the right side for some
+     * of the operations.
+     *
+     * @param eOperation the operator
+     * @param eLeft type of the left side
+     * @param eRight type of the right side
+     * @return type of the result, or UNDEFINED if it is only known when the operation is executed
+     */
+    public static VariableType getResultType(final BasicTokenType eOperation, final VariableType eLeft,
+                                             final VariableType eRight) {
+        if (eOperation == null) {
+            return VariableType.UNDEFINED;
+        }
+
+        boolean bRealReal = eLeft == VariableType.REAL && eRight == VariableType.REAL;
+        boolean bIntInt = eLeft == VariableType.INTEGER && eRight == VariableType.INTEGER;
+        boolean bIntReal = eLeft == VariableType.INTEGER && eRight == VariableType.REAL;
+        boolean bBoolBool = eLeft == VariableType.BOOLEAN && eRight == VariableType.BOOLEAN;
+
+        switch (eOperation) {
+            case PLUS, MINUS, MULTIPLY, POWER:
+                if (bRealReal) {
+                    return VariableType.REAL;
+                }
+                if (bIntInt || bIntReal) {
+                    return VariableType.INTEGER;
+                }
+                break;
+
+            case DIVIDE, MODULO:
+                if (bRealReal) {
+                    return VariableType.REAL;
+                }
+                if (bIntInt) {
+                    return VariableType.INTEGER;
+                }
+                break;
+
+            case SHIFT_LEFT:
+                if (bIntInt || bIntReal) {
+                    return VariableType.INTEGER;
+                }
+                break;
+
+            case SHIFT_RIGHT:
+                if (bIntInt) {
+                    return VariableType.INTEGER;
+                }
+                break;
+
+            case AND, OR, COMPARE_EQUAL, COMPARE_NOT_EQUAL:
+                if (bRealReal || bIntInt || bBoolBool) {
+                    return VariableType.BOOLEAN;
+                }
+                break;
+
+            case SMALLER, SMALLER_EQUAL, GREATER, GREATER_EQUAL:
+                if (bRealReal || bIntInt || bIntReal) {
+                    return VariableType.BOOLEAN;
+                }
+                break;
+
+            default:
+                break;
+        }
+
+        return VariableType.UNDEFINED;
+    }
+
+    /**
+     * Get the type of the result of the operation.
+     *
+     * @return type of the result, or UNDEFINED if it is only known when the operation is executed
+     */
+    @Override
+    public final VariableType getType() {
+        return _eType;
     }
 
     /**
@@ -55,6 +184,17 @@ public class OperatorExpression implements Expression {
      * @return returns the result of the operation.
      */
     public final Value evaluate() throws Exception {
+        switch (_eType) {
+            case REAL:
+                return new RealValue(evaluateDouble());
+            case INTEGER:
+                return IntegerValue.valueOf(evaluateInt());
+            case BOOLEAN:
+                return BooleanValue.valueOf(evaluateBoolean());
+            default:
+                break;
+        }
+
         Value oLeftValue = _oLeft.evaluate();
         Value oRightValue = _oRight.evaluate();
 
@@ -102,6 +242,152 @@ public class OperatorExpression implements Expression {
         };
     }
 
+    /**
+     * Return the result of an operation of type REAL as a double, without creating Value objects.
+     *
+     * @return the result of the operation
+     * @throws Exception if the operation cannot be executed
+     */
+    @Override
+    public final double evaluateDouble() throws Exception {
+        if (_eType == VariableType.INTEGER) {
+            return evaluateInt();
+        }
+
+        if (_eType != VariableType.REAL) {
+            return Expression.super.evaluateDouble();
+        }
+
+        double dLeft = _oLeft.evaluateDouble();
+        double dRight = _oRight.evaluateDouble();
+
+        return switch (_eOperation) {
+            case PLUS -> dLeft + dRight;
+            case MINUS -> dLeft - dRight;
+            case MULTIPLY -> dLeft * dRight;
+            case DIVIDE -> {
+                if (dRight == 0) {
+                    throw new DivideByZeroException(dLeft + "/" + dRight + " is a division by zero");
+                }
+                yield dLeft / dRight;
+            }
+            case MODULO -> {
+                if (dRight == 0) {
+                    throw new DivideByZeroException(dLeft + "%" + dRight + " is a division by zero");
+                }
+                yield dLeft % dRight;
+            }
+            case POWER -> Math.pow(dLeft, dRight);
+            default -> throw new SyntaxErrorException("Unknown operator: " + _eOperation);
+        };
+    }
+
+    /**
+     * Return the result of an operation of type INTEGER as an int, without creating Value objects. A real value on
+     * the right side is truncated, like IntegerValue does.
+     *
+     * @return the result of the operation
+     * @throws Exception if the operation cannot be executed
+     */
+    @Override
+    public final int evaluateInt() throws Exception {
+        if (_eType == VariableType.REAL) {
+            return (int) evaluateDouble();
+        }
+
+        if (_eType != VariableType.INTEGER) {
+            return Expression.super.evaluateInt();
+        }
+
+        int iLeft = _oLeft.evaluateInt();
+        int iRight = _oRight.evaluateInt();
+
+        return switch (_eOperation) {
+            case PLUS -> iLeft + iRight;
+            case MINUS -> iLeft - iRight;
+            case MULTIPLY -> iLeft * iRight;
+            case DIVIDE -> {
+                if (iRight == 0) {
+                    throw new DivideByZeroException(iLeft + "/" + iRight + " is a division by zero");
+                }
+                yield iLeft / iRight;
+            }
+            case MODULO -> {
+                if (iRight == 0) {
+                    throw new DivideByZeroException(iLeft + "%" + iRight + " is a division by zero");
+                }
+                yield iLeft % iRight;
+            }
+            case POWER -> (int) Math.pow(iLeft, iRight);
+            case SHIFT_LEFT -> iLeft * 2 * iRight;
+            case SHIFT_RIGHT -> {
+                if (iRight == 0) {
+                    throw new DivideByZeroException(iLeft + ">>" + iRight + " is a division by zero");
+                }
+                yield iLeft / (2 * iRight);
+            }
+            default -> throw new SyntaxErrorException("Unknown operator: " + _eOperation);
+        };
+    }
+
+    /**
+     * Return the result of a comparison or logical operation of type BOOLEAN, without creating Value objects.
+     *
+     * @return the result of the operation
+     * @throws Exception if the operation cannot be executed
+     */
+    @Override
+    public final boolean evaluateBoolean() throws Exception {
+        if (_eType != VariableType.BOOLEAN) {
+            return Expression.super.evaluateBoolean();
+        }
+
+        if (_eOperandType == VariableType.BOOLEAN) {
+            boolean bLeft = _oLeft.evaluateBoolean();
+            boolean bRight = _oRight.evaluateBoolean();
+
+            return switch (_eOperation) {
+                case AND -> bLeft && bRight;
+                case OR -> bLeft || bRight;
+                case COMPARE_EQUAL -> bLeft == bRight;
+                case COMPARE_NOT_EQUAL -> bLeft != bRight;
+                default -> throw new SyntaxErrorException("Unknown operator: " + _eOperation);
+            };
+        }
+
+        if (_eOperandType == VariableType.INTEGER) {
+            int iLeft = _oLeft.evaluateInt();
+            int iRight = _oRight.evaluateInt();
+
+            return switch (_eOperation) {
+                case AND -> iLeft > 0 && iRight > 0;
+                case OR -> iLeft > 0 || iRight > 0;
+                case COMPARE_EQUAL -> iLeft == iRight;
+                case COMPARE_NOT_EQUAL -> iLeft != iRight;
+                case SMALLER -> iLeft < iRight;
+                case SMALLER_EQUAL -> iLeft <= iRight;
+                case GREATER -> iLeft > iRight;
+                case GREATER_EQUAL -> iLeft >= iRight;
+                default -> throw new SyntaxErrorException("Unknown operator: " + _eOperation);
+            };
+        }
+
+        double dLeft = _oLeft.evaluateDouble();
+        double dRight = _oRight.evaluateDouble();
+
+        return switch (_eOperation) {
+            case AND -> dLeft > 0 && dRight > 0;
+            case OR -> dLeft > 0 || dRight > 0;
+            case COMPARE_EQUAL -> dLeft == dRight;
+            case COMPARE_NOT_EQUAL -> dLeft != dRight;
+            case SMALLER -> dLeft < dRight;
+            case SMALLER_EQUAL -> dLeft <= dRight;
+            case GREATER -> dLeft > dRight;
+            case GREATER_EQUAL -> dLeft >= dRight;
+            default -> throw new SyntaxErrorException("Unknown operator: " + _eOperation);
+        };
+    }
+
     /**
      * get the left side of the operation.
      *
@@ -122,6 +408,16 @@ public class OperatorExpression implements Expression {
         return String.valueOf(_strOperator);
     }
 
+    /**
+     * get the operator of the operation.
+     *
+     * @return - the operator as a token type, null if the operator is not known
+     */
+    public final BasicTokenType getOperation() {
+
+        return _eOperation;
+    }
+
     /**
      * get the right side of the operation.
      *
@@ -132,6 +428,19 @@ public class OperatorExpression implements Expression {
         return _oRight;
     }
 
+    /**
+     * Let a compiler pass replace both sides of the operation. The type of the result is determined again.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public final void rewrite(final ExpressionRewriter oRewriter) {
+        _oLeft = oRewriter.rewrite(_oLeft);
+        _oRight = oRewriter.rewrite(_oRight);
+        _eOperandType = _oLeft.getType();
+        _eType = getResultType(_eOperation, _oLeft.getType(), _oRight.getType());
+    }
+
     /**
      * This method is used in testing and debugging. It returns the set values when the constructor has been called.
      *
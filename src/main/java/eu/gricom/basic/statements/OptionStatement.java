@@ -0,0 +1,91 @@
+package eu.gricom.basic.statements;
+
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.memoryManager.VariableManagement;
+
+/**
+ * OptionStatement.java
+ * <p>
+ * Description:
+ * <p>
+ * The OptionStatement class implements "OPTION BASE n": it sets the lowest index (0 or 1) of all arrays that are
+ * dimensioned afterwards.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public class OptionStatement implements Statement {
+    private final int _iTokenNumber;
+    private final int _iBase;
+    private final VariableManagement _oVariableManagement = new VariableManagement();
+
+    /**
+     * Default constructor.
+     *
+     * @param iTokenNumber - number of the command in the basic program
+     * @param iBase - lowest index of arrays
+     */
+    public OptionStatement(final int iTokenNumber, final int iBase) {
+        _iTokenNumber = iTokenNumber;
+        _iBase = iBase;
+    }
+
+    /**
+     * Get Token Number.
+     *
+     * @return the command line number of the statement
+     */
+    @Override
+    public final int getTokenNumber() {
+        return _iTokenNumber;
+    }
+
+    /**
+     * Get the lowest index of arrays set by the statement.
+     *
+     * @return lowest index, 0 or 1
+     */
+    public final int getBase() {
+        return _iBase;
+    }
+
+    /**
+     * Execute.
+     * <p>
+     * Set the lowest index of arrays.
+     *
+     * @throws RuntimeException if the base is neither 0 nor 1
+     */
+    public final void execute() throws RuntimeException {
+        _oVariableManagement.setOptionBase(_iBase);
+    }
+
+    /**
+     * Content.
+     * <p>
+     * Method for JUnit to return the content of the statement.
+     *
+     * @return - gives the name of the statement ("OPTION BASE") and the base
+     */
+    @Override
+    public final String content() {
+
+        return "OPTION BASE " + _iBase;
+    }
+
+    /**
+     * Structure.
+     * <p>
+     * Method for the compiler to get the structure of the program.
+     *
+     * @return gives the name of the statement ("OPTION") and the base
+     * @throws Exception based on errors in the implementation classes
+     */
+    @Override
+    public String structure() throws Exception {
+        String strReturn = "{\"OPTION\": {";
+        strReturn += "\"TOKEN_NR\": \""+ _iTokenNumber +"\",";
+        strReturn += "\"BASE\": \""+ _iBase +"\"";
+        strReturn += "}}";
+        return strReturn;
+    }
+}
@@ -2,6 +2,9 @@ package eu.gricom.basic.statements;
 
 import eu.gricom.basic.helper.Logger;
 import eu.gricom.basic.helper.Trace;
+import eu.gricom.basic.monitoring.InterpreterMonitor;
+import eu.gricom.basic.runtimeManager.Profiler;
+import eu.gricom.basic.variableTypes.StringValue;
 import java.util.Locale;
 
 /**
@@ -10,8 +13,12 @@ import java.util.Locale;
  * Description:
  * <p>
  * The Pragma Statement changes the behavior of the interpreter / compiler during execution from the moment it is
- * found. Currently, the following parameter can be modified:
+ * found. Currently, the following parameters can be modified:
  * Debug Level
+ * Trace
+ * Collation of the string comparisons: "binary", "nocase", or a language tag like "de"
+ * Profiler: "on", "off", or the name of the report file
+ * Monitor: "on" or "off", publishes the state of the program as an MBean
  * <p>
  * (c) = 2020,...,2025 by Andreas Grimm, Den Haag, The Netherlands
  */
@@ -53,11 +60,53 @@ public class PragmaStatement implements Statement {
         }
     }
 
+    private void changeCollation(final String strCollation) {
+        if (!StringValue.setCollation(strCollation)) {
+            Logger oLogger = new Logger(this.getClass().getName());
+
+            oLogger.error("Unknown collation: " + strCollation);
+        }
+    }
+
+    private void changeProfiler(final String strProfile) {
+        switch (strProfile.toLowerCase(Locale.ROOT)) {
+            case "on" -> Profiler.enable(null);
+            case "off" -> Profiler.disable();
+            default -> Profiler.enable(strProfile);
+        }
+    }
+
+    private void changeMonitor(final String strMonitor) {
+        if (strMonitor.toLowerCase(Locale.ROOT).contains("on")) {
+            InterpreterMonitor.enable();
+        } else {
+            InterpreterMonitor.disable();
+        }
+    }
+
     @Override
     public final int getTokenNumber() {
         return _iTokenNumber;
     }
 
+    /**
+     * Get the setting changed by the statement.
+     *
+     * @return name of the setting, e.g. "log"
+     */
+    public final String getParameter() {
+        return _strParameter;
+    }
+
+    /**
+     * Get the new value of the setting.
+     *
+     * @return value of the setting
+     */
+    public final String getValue() {
+        return _strValue;
+    }
+
     @Override
     public final void execute() {
         if (_strParameter.toLowerCase(Locale.ROOT).contains("log")) {
@@ -67,6 +116,18 @@ public class PragmaStatement implements Statement {
         if (_strParameter.toLowerCase(Locale.ROOT).contains("trace")) {
             changeTraceLevel(_strValue);
         }
+
+        if (_strParameter.toLowerCase(Locale.ROOT).contains("collation")) {
+            changeCollation(_strValue);
+        }
+
+        if (_strParameter.toLowerCase(Locale.ROOT).contains("profile")) {
+            changeProfiler(_strValue);
+        }
+
+        if (_strParameter.toLowerCase(Locale.ROOT).contains("monitor")) {
+            changeMonitor(_strValue);
+        }
     }
 
     @Override
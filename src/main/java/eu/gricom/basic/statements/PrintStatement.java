@@ -15,7 +15,7 @@ import java.util.List;
  *
  */
 public final class PrintStatement implements Statement {
-    private final Expression _oExpression;
+    private Expression _oExpression;
     private final int _iTokenNumber;
     private final List<Expression> _aoExpression;
     private final boolean _bCRLF;
@@ -60,6 +60,22 @@ public final class PrintStatement implements Statement {
         return _iTokenNumber;
     }
 
+    /**
+     * Let a compiler pass replace the expressions to be printed.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public void rewrite(final ExpressionRewriter oRewriter) {
+        if (_oExpression != null) {
+            _oExpression = oRewriter.rewrite(_oExpression);
+        }
+
+        if (_aoExpression != null) {
+            _aoExpression.replaceAll(oRewriter::rewrite);
+        }
+    }
+
     /**
      * Execute the transaction.
      *
@@ -136,4 +152,22 @@ public final class PrintStatement implements Statement {
         assert _aoExpression != null;
         return _aoExpression.getFirst();
     }
+
+    /**
+     * Get the expressions printed by the statement.
+     *
+     * @return the expressions, or only the single expression of the JASIC version
+     */
+    public List<Expression> getExpressions() {
+        return _aoExpression != null ? _aoExpression : List.of(_oExpression);
+    }
+
+    /**
+     * Check whether the statement ends the line.
+     *
+     * @return true if a line feed is printed after the expressions
+     */
+    public boolean hasLineFeed() {
+        return _aoExpression == null || _bCRLF;
+    }
 }
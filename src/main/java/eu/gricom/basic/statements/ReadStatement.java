@@ -19,7 +19,7 @@ import java.util.List;
  */
 public class ReadStatement implements Statement {
     private final int _iTokenNumber;
-    private final List<String> _astrNames;
+    private final List<AssignableExpression> _aoTargets;
 
     /**
      * Default constructor.
@@ -27,11 +27,11 @@ public class ReadStatement implements Statement {
      * An "input" statement reads input from the user and stores it in a variable.
      *
      * @param iTokenNumber the token number of this command
-     * @param astrNames the names of the variable to be read.
+     * @param aoTargets the variables and array elements to be read.
      */
-    public ReadStatement(final int iTokenNumber, final List<String> astrNames) {
+    public ReadStatement(final int iTokenNumber, final List<AssignableExpression> aoTargets) {
         _iTokenNumber = iTokenNumber;
-        _astrNames = astrNames;
+        _aoTargets = aoTargets;
     }
 
     /**
@@ -44,6 +44,27 @@ public class ReadStatement implements Statement {
         return _iTokenNumber;
     }
 
+    /**
+     * Get the variables and array elements receiving the data.
+     *
+     * @return the targets of the statement
+     */
+    public final List<AssignableExpression> getTargets() {
+        return _aoTargets;
+    }
+
+    /**
+     * Let a compiler pass replace the index expressions of the targets.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public void rewrite(final ExpressionRewriter oRewriter) {
+        for (AssignableExpression oTarget : _aoTargets) {
+            oTarget.rewrite(oRewriter);
+        }
+    }
+
     /**
      * Execute.
      * <p>
@@ -53,14 +74,12 @@ public class ReadStatement implements Statement {
      * @throws OutOfDataException if the FiFo queue is empty
      */
     public final void execute() throws OutOfDataException, SyntaxErrorException {
-        AssignStatement oAssignStatement;
         FiFoQueue oFiFO = new FiFoQueue();
 
-        for (String strName: _astrNames) {
+        for (AssignableExpression oTarget: _aoTargets) {
             try {
                 Value oInput = oFiFO.pop();
-                oAssignStatement = new AssignStatement(_iTokenNumber, strName, oInput);
-                oAssignStatement.execute();
+                oTarget.assign(oInput);
             } catch (EmptyStackException eOutOfDataException) {
                 throw new OutOfDataException(eOutOfDataException.getMessage());
             } catch (Exception eUnknownException) {
@@ -81,8 +100,8 @@ public class ReadStatement implements Statement {
 
         StringBuilder strReturn = new StringBuilder();
 
-        for (String strName: _astrNames) {
-            strReturn.append(strName).append(" ");
+        for (AssignableExpression oTarget: _aoTargets) {
+            strReturn.append(oTarget.content()).append(" ");
         }
 
         return "READ ( " + strReturn + ")";
@@ -100,8 +119,8 @@ public class ReadStatement implements Statement {
     public String structure() throws Exception {
         StringBuilder strReturn = new StringBuilder("{\"READ\": {");
         strReturn.append("\"TOKEN_NR\": \"").append(_iTokenNumber).append("\",");
-        for (String strName: _astrNames) {
-            strReturn.append("\"NAME\": \"").append(strName).append("\",");
+        for (AssignableExpression oTarget: _aoTargets) {
+            strReturn.append("\"NAME\": \"").append(oTarget.content()).append("\",");
         }
         strReturn.deleteCharAt(strReturn.length() - 1);
         strReturn.append("}}");
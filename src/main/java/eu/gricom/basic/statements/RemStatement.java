@@ -35,6 +35,15 @@ public class RemStatement implements Statement {
         return _iTokenNumber;
     }
 
+    /**
+     * Get the text of the remark.
+     *
+     * @return the text
+     */
+    public final String getText() {
+        return _strRemText;
+    }
+
     /**
      * Execute.
      *
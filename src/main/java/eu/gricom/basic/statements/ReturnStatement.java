@@ -1,18 +1,16 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.error.SyntaxErrorException;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
-import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.monitoring.Events;
 
 /**
  * ReturnStatement.java
  * <p>
  * Description:
  * <p>
- * The Return command retrieves the caller address from the stack and calculates the next statement as return address.
- * It then changes the program pointer to that address.
+ * The Return command retrieves the return address from the stack. The return address has been resolved by the linker
+ * and pushed by the GoSub statement. It then changes the program pointer to that address.
  * <p>
  * (c) = 2004,...,2021 by Andreas Grimm, Den Haag, The Netherlands
  * <p>
@@ -20,6 +18,8 @@ import eu.gricom.basic.variableTypes.IntegerValue;
  */
 public class ReturnStatement implements Statement {
     private final int _iTokenNumber;
+    private final ProgramPointer _oProgramPointer = new ProgramPointer();
+    private final ControlStack _oControlStack = new ControlStack();
 
     /**
      * Default constructor.
@@ -40,21 +40,11 @@ public class ReturnStatement implements Statement {
 
     @Override
     public final void execute() throws Exception {
-        final Stack oStack = new Stack();
-        final ProgramPointer oProgramPointer = new ProgramPointer();
-        final LineNumberXRef oLineNumberObject = new LineNumberXRef();
-
-        int iTargetLineNumber = ((IntegerValue) oStack.pop()).toInt();
-
-        if (iTargetLineNumber == 0) {
-            throw new SyntaxErrorException("Undefined Jump Target");
-        } else {
-            oProgramPointer.setCurrentStatement(oLineNumberObject.getStatementFromLineNumber(
-                    oLineNumberObject.getNextLineNumber(
-                            oLineNumberObject.getLineNumberFromToken(
-                                    oLineNumberObject.getTokenFromStatement(iTargetLineNumber)))));
-        }
+        int iReturnStatement = _oControlStack.pop(ControlStack.GOSUB);
 
+        // the program pointer already points to the statement following the RETURN
+        Events.gosub(true, _oProgramPointer.getCurrentStatement() - 1, iReturnStatement, _oControlStack.getDepth());
+        _oProgramPointer.setCurrentStatement(iReturnStatement);
     }
 
     @Override
@@ -27,6 +27,16 @@ public interface Statement {
      */
     void execute() throws Exception;
 
+    /**
+     * Rewrite.
+     *
+     * Let a compiler pass replace the expressions of the statement. Statements without expressions do nothing.
+     *
+     * @param oRewriter the compiler pass, called once for every expression of the statement
+     */
+    default void rewrite(final ExpressionRewriter oRewriter) {
+    }
+
     /**
      * Content.
      *
@@ -0,0 +1,147 @@
+package eu.gricom.basic.statements;
+
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
+
+/**
+ * SubStringExpression.java
+ * <p>
+ * Description:
+ * <p>
+ * A sub-string expression evaluates to a part of a string, e.g. A$[I] for the character at position I, or A$[I, J]
+ * for the characters from position I to position J. The positions start with 0. The parser creates the expression
+ * with the string and the positions as sub-expressions, which are evaluated at runtime. The result is a view on the
+ * characters of the string (see StringValue.slice()): they are only copied if the sub-string is turned into a String.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class SubStringExpression implements Expression {
+    private Expression _oString;
+    private Expression _oStart;
+    private Expression _oEnd;
+
+    /**
+     * Default constructor.
+     *
+     * @param oString expression calculating the string
+     * @param oStart expression calculating the position of the first character
+     * @param oEnd expression calculating the position of the last character, or null for a single character
+     */
+    public SubStringExpression(final Expression oString, final Expression oStart, final Expression oEnd) {
+        _oString = oString;
+        _oStart = oStart;
+        _oEnd = oEnd;
+    }
+
+    /**
+     * Get the type of the sub-string.
+     *
+     * @return STRING
+     */
+    @Override
+    public VariableType getType() {
+        return VariableType.STRING;
+    }
+
+    /**
+     * Return the sub-string.
+     *
+     * @return view on the characters of the string
+     * @throws Exception if the expression is not a string, or a position is outside of the string
+     */
+    @Override
+    public Value evaluate() throws Exception {
+        Value oValue = _oString.evaluate();
+
+        if (!(oValue instanceof StringValue oString)) {
+            throw new RuntimeException(_oString.content() + " is not a String");
+        }
+
+        int iStart = _oStart.evaluateInt();
+        int iEnd = _oEnd != null ? _oEnd.evaluateInt() : iStart;
+
+        return oString.slice(iStart, iEnd);
+    }
+
+    /**
+     * Let a compiler pass replace the string and the position expressions.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public void rewrite(final ExpressionRewriter oRewriter) {
+        _oString = oRewriter.rewrite(_oString);
+        _oStart = oRewriter.rewrite(_oStart);
+
+        if (_oEnd != null) {
+            _oEnd = oRewriter.rewrite(_oEnd);
+        }
+    }
+
+    /**
+     * Get the expression calculating the string.
+     *
+     * @return the string expression
+     */
+    public Expression getString() {
+        return _oString;
+    }
+
+    /**
+     * Get the expression calculating the position of the first character.
+     *
+     * @return the start position
+     */
+    public Expression getStart() {
+        return _oStart;
+    }
+
+    /**
+     * Get the expression calculating the position of the last character.
+     *
+     * @return the end position, or null for a single character
+     */
+    public Expression getEnd() {
+        return _oEnd;
+    }
+
+    /**
+     * This method is used in testing and debugging. It returns the set values when the constructor has been called.
+     *
+     * @return - readable string with the string and the positions of the sub-string
+     */
+    @Override
+    public String content() {
+        StringBuilder strContent = new StringBuilder(_oString.content()).append("[").append(_oStart.content());
+
+        if (_oEnd != null) {
+            strContent.append(",").append(_oEnd.content());
+        }
+
+        return strContent.append("]").toString();
+    }
+
+    /**
+     * Structure.
+     * <p>
+     * Method for the compiler to get the structure of the program.
+     *
+     * @return gives the string and the position expressions
+     * @throws Exception based on errors in the implementation classes
+     */
+    @Override
+    public String structure() throws Exception {
+        String strReturn = "{\"SUBSTRING\": {";
+        strReturn += "\"STRING\": " + _oString.structure() + ",";
+        strReturn += "\"START\": " + _oStart.structure();
+
+        if (_oEnd != null) {
+            strReturn += ",\"END\": " + _oEnd.structure();
+        }
+
+        strReturn += "}}";
+        return strReturn;
+    }
+}
@@ -7,6 +7,7 @@ import eu.gricom.basic.variableTypes.Value;
 import eu.gricom.basic.variableTypes.RealValue;
 import eu.gricom.basic.variableTypes.IntegerValue;
 import eu.gricom.basic.variableTypes.BooleanValue;
+import eu.gricom.basic.variableTypes.VariableType;
 
 /**
  * UnaryOperatorExpression handles unary operators that operate on a single operand.
@@ -17,7 +18,9 @@ import eu.gricom.basic.variableTypes.BooleanValue;
  * - NOT (!): Logical NOT (inverts boolean values, bitwise NOT for integers)
  * <p>
  * This class follows the same pattern as OperatorExpression but handles
- * single-operand operations instead of binary operations.
+ * single-operand operations instead of binary operations. A unary minus on a
+ * number and a NOT on a boolean have a known result type and are calculated
+ * on primitive values.
  * 
  * @author GD-BASIC Team
  * @version 1.0
@@ -25,7 +28,8 @@ import eu.gricom.basic.variableTypes.BooleanValue;
 public class UnaryOperatorExpression implements Expression {
     private final Logger _oLogger = new Logger(this.getClass().getName());
     private final BasicTokenType _oOperator;
-    private final Expression _oOperand;
+    private Expression _oOperand;
+    private VariableType _eType;
 
     /**
      * Constructor for unary operator expressions.
@@ -44,6 +48,110 @@ public class UnaryOperatorExpression implements Expression {
             oOperator != BasicTokenType.NOT) {
             throw new IllegalArgumentException("Invalid unary operator: " + oOperator);
         }
+
+        _eType = getResultType(oOperator, oOperand.getType());
+    }
+
+    /**
+     * Determines the type of the result from the type of the operand.
+     *
+     * @param oOperator the unary operator
+     * @param eOperandType type of the operand
+     * @return type of the result, or UNDEFINED if it is only known when the expression is evaluated
+     */
+    public static VariableType getResultType(final BasicTokenType oOperator, final VariableType eOperandType) {
+        if (oOperator == BasicTokenType.PLUS) {
+            return eOperandType;
+        }
+
+        if (oOperator == BasicTokenType.MINUS
+                && (eOperandType == VariableType.REAL || eOperandType == VariableType.INTEGER)) {
+            return VariableType.REAL;
+        }
+
+        if (oOperator == BasicTokenType.NOT && eOperandType == VariableType.BOOLEAN) {
+            return VariableType.BOOLEAN;
+        }
+
+        return VariableType.UNDEFINED;
+    }
+
+    /**
+     * Lets a compiler pass replace the operand. The type of the result is determined again.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public final void rewrite(final ExpressionRewriter oRewriter) {
+        _oOperand = oRewriter.rewrite(_oOperand);
+        _eType = getResultType(_oOperator, _oOperand.getType());
+    }
+
+    /**
+     * Gets the type of the result of the unary expression.
+     *
+     * @return type of the result, or UNDEFINED if it is only known when the expression is evaluated
+     */
+    @Override
+    public final VariableType getType() {
+        return _eType;
+    }
+
+    /**
+     * Evaluates the unary expression as a double. A unary minus on a number does not create a Value object.
+     *
+     * @return the result of applying the unary operator to the operand
+     * @throws Exception if the operation cannot be performed
+     */
+    @Override
+    public final double evaluateDouble() throws Exception {
+        if (_eType == VariableType.REAL || _eType == VariableType.INTEGER) {
+            if (_oOperator == BasicTokenType.MINUS) {
+                return -_oOperand.evaluateDouble();
+            }
+
+            return _oOperand.evaluateDouble();
+        }
+
+        return Expression.super.evaluateDouble();
+    }
+
+    /**
+     * Evaluates the unary expression as an int.
+     *
+     * @return the result of applying the unary operator to the operand
+     * @throws Exception if the operation cannot be performed
+     */
+    @Override
+    public final int evaluateInt() throws Exception {
+        if (_eType == VariableType.INTEGER) {
+            return _oOperand.evaluateInt();
+        }
+
+        if (_eType == VariableType.REAL) {
+            return (int) evaluateDouble();
+        }
+
+        return Expression.super.evaluateInt();
+    }
+
+    /**
+     * Evaluates the unary expression as a condition. A NOT on a boolean does not create a Value object.
+     *
+     * @return the result of applying the unary operator to the operand
+     * @throws Exception if the operation cannot be performed
+     */
+    @Override
+    public final boolean evaluateBoolean() throws Exception {
+        if (_eType == VariableType.BOOLEAN) {
+            if (_oOperator == BasicTokenType.NOT) {
+                return !_oOperand.evaluateBoolean();
+            }
+
+            return _oOperand.evaluateBoolean();
+        }
+
+        return Expression.super.evaluateBoolean();
     }
 
     /**
@@ -122,7 +230,7 @@ public class UnaryOperatorExpression implements Expression {
             // Try to convert to boolean first
             if (operand instanceof BooleanValue) {
                 boolean boolValue = operand.toReal() != 0.0;
-                return new BooleanValue(!boolValue);
+                return BooleanValue.valueOf(!boolValue);
             }
             
             // For numeric values, perform bitwise NOT
@@ -132,7 +240,7 @@ public class UnaryOperatorExpression implements Expression {
             
             // Return as integer if it fits, otherwise as real
             if (notValue >= Integer.MIN_VALUE && notValue <= Integer.MAX_VALUE) {
-                return new IntegerValue((int) notValue);
+                return IntegerValue.valueOf((int) notValue);
             } else {
                 return new RealValue((double) notValue);
             }
@@ -1,11 +1,7 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.error.SyntaxErrorException;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
-import eu.gricom.basic.variableTypes.BooleanValue;
-import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.memoryManager.ControlStack;
 
 /**
  *
@@ -21,9 +17,9 @@ import eu.gricom.basic.variableTypes.IntegerValue;
  */
 public final class UntilStatement implements Statement {
     private final int _iTokenNumber;
-    private final Expression _oCondition;
+    private Expression _oCondition;
     private final ProgramPointer _oProgramPointer = new ProgramPointer();
-    private final Stack _oStack = new Stack();
+    private final ControlStack _oControlStack = new ControlStack();
 
 
     /**
@@ -44,27 +40,35 @@ public final class UntilStatement implements Statement {
         return _iTokenNumber;
     }
 
+    /**
+     * Get the condition of the statement.
+     *
+     * @return the condition
+     */
+    public Expression getCondition() {
+        return _oCondition;
+    }
+
+    /**
+     * Let a compiler pass replace the condition.
+     *
+     * @param oRewriter the compiler pass
+     */
     @Override
-    public void execute() throws Exception {
-        final LineNumberXRef oLineNumberObject = new LineNumberXRef();
+    public void rewrite(final ExpressionRewriter oRewriter) {
+        _oCondition = oRewriter.rewrite(_oCondition);
+    }
 
-        int iDoCommandLine = ((IntegerValue) _oStack.pop()).toInt();
+    @Override
+    public void execute() throws Exception {
+        // the DO statement has pushed the statement number of the loop start, resolved by the linker
+        int iLoopStatement = _oControlStack.pop(ControlStack.DO);
 
-        // here we are using line numbers to jump to the destination. This is only done for BASIC programs.
-        BooleanValue bValue = (BooleanValue) _oCondition.evaluate();
+        boolean bValue = _oCondition.evaluateBoolean();
 
-        // different to the code above: when the result of the condition is false, then ignore the next block and
-        // jump to the END-IF statement.
-        if (!bValue.isTrue()) {
-            try {
-                int iStatementNo =
-                    oLineNumberObject.getStatementFromToken(iDoCommandLine);
-                if (iStatementNo != 0) {
-                    _oProgramPointer.setCurrentStatement(iStatementNo);
-                }
-            } catch (NumberFormatException eNumberException) {
-                throw new SyntaxErrorException("UNTIL [incorrect format]: Target: " + iDoCommandLine);
-            }
+        // when the result of the condition is false, then jump back to the start of the loop
+        if (!bValue) {
+            _oProgramPointer.setCurrentStatement(iLoopStatement);
         }
     }
 
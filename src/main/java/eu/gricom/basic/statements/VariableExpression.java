@@ -1,9 +1,12 @@
 package eu.gricom.basic.statements;
 
 import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.error.SyntaxErrorException;
 import eu.gricom.basic.memoryManager.VariableManagement;
-import eu.gricom.basic.tokenizer.Normalizer;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
 import eu.gricom.basic.variableTypes.Value;
+import eu.gricom.basic.variableTypes.VariableType;
 
 /**
  * VariableExpression.java
@@ -17,75 +20,191 @@ import eu.gricom.basic.variableTypes.Value;
  * Created in 2020
  *
  */
-public final class VariableExpression implements Expression {
-
+public final class VariableExpression implements AssignableExpression {
+    private final VariableManagement _oVariableManagement = new VariableManagement();
     private final String _strName;
+    private final int _iSlot;
+    private final VariableType _eType;
 
     /**
      * Default constructor.
+     * <p>
+     * A plain variable is resolved into its slot in the variable management here, so that the evaluation does not
+     * need to look up the name. Sub-strings (e.g. A$[1, 2]) are parsed into a SubStringExpression.
      *
      * @param strName name of the variable.
+     * @throws SyntaxErrorException if the parenthesis are not set correctly
      */
-    public VariableExpression(final String strName) {
+    public VariableExpression(final String strName) throws SyntaxErrorException {
 
         _strName = strName;
+
+        _iSlot = _oVariableManagement.resolveSlot(strName);
+        _eType = getResultType(_oVariableManagement.getSlotType(_iSlot));
+    }
+
+    /**
+     * Derive the type of the value returned by evaluate() from the type of the variable: long variables are stored as
+     * integers, doubles as reals.
+     *
+     * @param eSlotType type of the variable
+     * @return type of the value of the variable
+     */
+    private static VariableType getResultType(final VariableType eSlotType) {
+        return switch (eSlotType) {
+            case INTEGER, LONG -> VariableType.INTEGER;
+            case REAL, DOUBLE -> VariableType.REAL;
+            default -> eSlotType;
+        };
+    }
+
+    /**
+     * Get the type of the variable.
+     *
+     * @return type of the value of the variable, UNDEFINED for untyped variables
+     */
+    @Override
+    public VariableType getType() {
+        return _eType;
     }
 
     /**
      * Return the content of the variable in the Memory Management component.
      *
-     * @return returns the value of the variable - or if the variable does not exist - returns a 0 as a numerical value
-     * @throws Exception for any errors occurring in the execution of the evaluation. Currently, this happens if
-     * the index in an array subscription is larger than the array.
+     * @return returns the value of the variable
+     * @throws Exception if the variable has not been assigned a value yet
      */
     public Value evaluate() throws Exception {
-        VariableManagement oVariableManager = new VariableManagement();
-        String strKey = _strName;
+        if (_iSlot >= 0) {
+            if (_oVariableManagement.isDefined(_iSlot)) {
+                return _oVariableManagement.getSlot(_iSlot);
+            }
+        } else if (_oVariableManagement.mapContainsKey(_strName)) {
+            return _oVariableManagement.getMap(_strName);
+        }
 
-        int iIndexStart = strKey.indexOf("(");
-        int iIndexEnd = strKey.indexOf(")");
+        throw new RuntimeException("Unknown variable <" + _strName + ">");
+    }
 
-        if (iIndexStart > 0 && iIndexEnd > 0) {
-            String strInner = strKey.substring(iIndexStart + 1, iIndexEnd);
+    /**
+     * Return the content of a real or integer variable as a double, without creating a Value object.
+     *
+     * @return returns the value of the variable
+     * @throws Exception if the variable has not been assigned a value yet
+     */
+    @Override
+    public double evaluateDouble() throws Exception {
+        if (_eType == VariableType.INTEGER && _oVariableManagement.isDefined(_iSlot)) {
+            return _oVariableManagement.getInt(_iSlot);
+        }
 
-            if (strInner.contains(",")) {
-                String[] astrCommaSeperatedList = strInner.split(",");
-                StringBuilder strCommaSeperatedList = new StringBuilder();
+        if (_iSlot >= 0 && _oVariableManagement.isReal(_iSlot)) {
+            return _oVariableManagement.getDouble(_iSlot);
+        }
 
-                for (String strExpression: astrCommaSeperatedList) {
-                    String strValue = strExpression;
-                    if (oVariableManager.mapContainsKey(strExpression)) {
-                        Expression oExpression = new VariableExpression(strExpression);
+        return evaluate().toReal();
+    }
 
-                        strValue = oExpression.evaluate().toString();
-                    }
+    /**
+     * Return the content of a variable holding a real value as a double, without creating a Value object. This is
+     * also possible for untyped variables, as long as the last value assigned was a real value.
+     *
+     * @return returns the value of the variable
+     * @throws Exception if the variable has not been assigned a value yet, or does not hold a real value
+     */
+    @Override
+    public double evaluateReal() throws Exception {
+        if (_iSlot >= 0 && _oVariableManagement.isReal(_iSlot)) {
+            return _oVariableManagement.getDouble(_iSlot);
+        }
 
-                    strCommaSeperatedList.append(strValue).append(",");
-                }
+        return AssignableExpression.super.evaluateReal();
+    }
 
-                strKey = strKey.substring(0, iIndexStart + 1)
-                        + strCommaSeperatedList.substring(0, strCommaSeperatedList.length() - 1)
-                        + strKey.substring(iIndexEnd);
+    /**
+     * Return the content of an integer variable as an int, without creating a Value object.
+     *
+     * @return returns the value of the variable
+     * @throws Exception if the variable has not been assigned a value yet
+     */
+    @Override
+    public int evaluateInt() throws Exception {
+        if (_eType == VariableType.INTEGER && _oVariableManagement.isDefined(_iSlot)) {
+            return _oVariableManagement.getInt(_iSlot);
+        }
 
-            } else {
-                if (oVariableManager.mapContainsKey(strInner)) {
-                    Expression oExpression = new VariableExpression(strInner);
+        return (int) evaluateDouble();
+    }
 
-                    strKey = strKey.substring(0, iIndexStart + 1)
-                            + oExpression.evaluate().toString()
-                            + strKey.substring(iIndexEnd);
+    /**
+     * Return the content of a boolean variable, without creating a Value object.
+     *
+     * @return returns the value of the variable
+     * @throws Exception if the variable has not been assigned a value yet, or is not a boolean
+     */
+    @Override
+    public boolean evaluateBoolean() throws Exception {
+        if (_eType == VariableType.BOOLEAN && _oVariableManagement.isDefined(_iSlot)) {
+            return _oVariableManagement.getInt(_iSlot) != 0;
+        }
 
-                }
-            }
+        return AssignableExpression.super.evaluateBoolean();
+    }
 
-            strKey = Normalizer.normalizeIndex(strKey);
+    /**
+     * Assign a value to the variable.
+     *
+     * @param oValue value to be stored
+     * @throws Exception if the name of the variable is not valid
+     */
+    @Override
+    public void assign(final Value oValue) throws Exception {
+        if (_iSlot >= 0) {
+            _oVariableManagement.putSlot(_iSlot, oValue);
+        } else {
+            _oVariableManagement.putMap(_strName, oValue);
         }
+    }
 
-        if (oVariableManager.mapContainsKey(strKey)) {
-            return oVariableManager.getMap(strKey);
+    /**
+     * Assign a double to the variable. Real, integer and untyped variables store the number without creating a Value
+     * object.
+     *
+     * @param dValue value to be stored
+     * @throws Exception if the name of the variable is not valid
+     */
+    @Override
+    public void assignDouble(final double dValue) throws Exception {
+        if (_iSlot < 0) {
+            assign(new RealValue(dValue));
+            return;
+        }
+
+        switch (_oVariableManagement.getSlotType(_iSlot)) {
+            case REAL, DOUBLE, UNDEFINED -> _oVariableManagement.putSlot(_iSlot, dValue);
+            case INTEGER, LONG -> _oVariableManagement.putSlot(_iSlot, (int) dValue);
+            default -> assign(new RealValue(dValue));
+        }
+    }
+
+    /**
+     * Assign an int to the variable. Real and integer variables store the number without creating a Value object.
+     *
+     * @param iValue value to be stored
+     * @throws Exception if the name of the variable is not valid
+     */
+    @Override
+    public void assignInt(final int iValue) throws Exception {
+        if (_iSlot < 0) {
+            assign(IntegerValue.valueOf(iValue));
+            return;
         }
 
-        throw new RuntimeException("Unknown variable <" + strKey + ">");
+        switch (_oVariableManagement.getSlotType(_iSlot)) {
+            case REAL, DOUBLE -> _oVariableManagement.putSlot(_iSlot, (double) iValue);
+            case INTEGER, LONG -> _oVariableManagement.putSlot(_iSlot, iValue);
+            default -> assign(IntegerValue.valueOf(iValue));
+        }
     }
 
     /**
@@ -98,6 +217,15 @@ public final class VariableExpression implements Expression {
         return _strName;
     }
 
+    /**
+     * Get the slot of the variable in the symbol table.
+     *
+     * @return slot of the variable, or -1 for variables that are kept by name
+     */
+    public int getSlot() {
+        return _iSlot;
+    }
+
     /**
      * This method is used in testing and debugging. It returns the set values when the constructor has been called.
      *
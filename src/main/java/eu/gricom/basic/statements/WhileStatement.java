@@ -1,33 +1,37 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.error.SyntaxErrorException;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.error.LinkErrorException;
+import eu.gricom.basic.linker.Linker;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
-import eu.gricom.basic.variableTypes.BooleanValue;
-import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.monitoring.Events;
+import eu.gricom.basic.monitoring.LoopEvent;
 
 /**
  * WhileStatement.java
  * <p>
  * Description:
  * <p>
- * A While statement loops through the block from the While statement to the next End-While statement as long as the
- * condition in the While statement is True. When the condition defined is changing from True to False, the program
- * flow will jump to the next statement past the End-While statement.
+ * A While statement loops through the block from the While statement to the matching End-While statement as long as
+ * the condition in the While statement is True. When the condition defined is changing from True to False, the program
+ * flow will jump to the next statement past the End-While statement. Both locations are resolved by the linker.
  * <p>
  * (c) = 2004,...,2021 by Andreas Grimm, Den Haag, The Netherlands
  * <p>
  * Created in 2021
  */
-public final class WhileStatement implements Statement {
+public final class WhileStatement implements LinkableStatement {
     private final int _iEndWhileLine;
     private final int _iTokenNumber;
-    private final Expression _oCondition;
+    private int _iStatementNumber = -1;
+    private int _iExitStatement = -1;
+    private Expression _oCondition;
     private final ProgramPointer _oProgramPointer = new ProgramPointer();
-    private final LineNumberXRef _oLineNumberObject = new LineNumberXRef();
-    private final Stack _oStack = new Stack();
+    private final ControlStack _oControlStack = new ControlStack();
 
+    // the loop is running until the condition is false, and recorded while the flight recorder is on
+    private boolean _bRunning = false;
+    private LoopEvent _oLoopEvent = null;
 
     /**
      * Gets a previously consumed token, indexing backwards. Last (1) will
@@ -50,33 +54,93 @@ public final class WhileStatement implements Statement {
         return _iTokenNumber;
     }
 
+    /**
+     * Get the condition of the statement.
+     *
+     * @return the condition
+     */
+    public Expression getCondition() {
+        return _oCondition;
+    }
+
+    /**
+     * Link the statement: find the matching "End-While" statement, nested loops are skipped.
+     *
+     * @param oLinker the linker holding the cross-reference of the program
+     * @param iStatementNumber the number of this statement in the program
+     * @throws LinkErrorException if the loop is not closed by an "End-While" statement
+     */
+    @Override
+    public void link(final Linker oLinker, final int iStatementNumber) throws LinkErrorException {
+        int iEndWhileStatement = oLinker.getMatchingStatement(iStatementNumber, WhileStatement.class,
+                                                              EndWhileStatement.class);
+
+        if (iEndWhileStatement < 0) {
+            throw new LinkErrorException("WHILE without END-WHILE in Line ["
+                                                 + oLinker.getLineNumber(iStatementNumber) + "]");
+        }
+
+        _iStatementNumber = iStatementNumber;
+        _iExitStatement = iEndWhileStatement + 1;
+    }
+
+    /**
+     * Get the jump targets resolved by the linker: this statement and the statement following the loop.
+     *
+     * @return statement numbers of the jump targets
+     */
+    @Override
+    public int[] getLinks() {
+        return new int[] {_iStatementNumber, _iExitStatement};
+    }
+
+    /**
+     * Restore the jump targets of a stored program, in place of linking it again.
+     *
+     * @param aiLinks statement numbers of the jump targets, as delivered by getLinks()
+     */
+    @Override
+    public void setLinks(final int[] aiLinks) {
+        _iStatementNumber = aiLinks[0];
+        _iExitStatement = aiLinks[1];
+    }
+
+    /**
+     * Let a compiler pass replace the condition.
+     *
+     * @param oRewriter the compiler pass
+     */
+    @Override
+    public void rewrite(final ExpressionRewriter oRewriter) {
+        _oCondition = oRewriter.rewrite(_oCondition);
+    }
+
     @Override
     public void execute() throws Exception {
-        final LineNumberXRef oLineNumberObject = new LineNumberXRef();
-
-        // Here we are using line numbers to jump to the destination. This is only done for BASIC programs.
-        BooleanValue bValue = (BooleanValue) _oCondition.evaluate();
-
-        // different to the code above: when the result of the condition is false, then ignore the next block and
-        // jump to the END-IF statement.
-        if (!bValue.isTrue()) {
-            try {
-                if (_iEndWhileLine != 0) {
-                    int iStatementNo =
-                        _oLineNumberObject.getStatementFromLineNumber(_oLineNumberObject.getNextLineNumber(_iEndWhileLine));
-                    if (iStatementNo != 0) {
-                        _oProgramPointer.setCurrentStatement(iStatementNo);
-                        return;
-                    }
-                    return;
-                }
-
-                throw new SyntaxErrorException("WHILE [unknown]: Target: [" + _iEndWhileLine + "]");
-            } catch (NumberFormatException eNumberException) {
-                throw new SyntaxErrorException("WHILE [incorrect format]: Target: " + _iEndWhileLine);
+        boolean bValue = _oCondition.evaluateBoolean();
+
+        // the END-WHILE statement jumps back to this statement, the loop is only entered if it is not running
+        if (!_bRunning) {
+            _oLoopEvent = Events.enterLoop("WHILE", _iStatementNumber);
+        }
+
+        // when the result of the condition is false, then ignore the next block and jump past the END-WHILE
+        // statement.
+        if (!bValue) {
+            _oProgramPointer.setCurrentStatement(_iExitStatement);
+            _bRunning = false;
+
+            if (_oLoopEvent != null) {
+                _oLoopEvent.exit();
+                _oLoopEvent = null;
             }
         } else {
-            _oStack.push(new IntegerValue(oLineNumberObject.getStatementFromToken(_iTokenNumber)));
+            _oControlStack.push(ControlStack.WHILE, _iStatementNumber);
+            _bRunning = true;
+
+            if (_oLoopEvent != null) {
+                _oLoopEvent.iterate();
+            }
         }
     }
 
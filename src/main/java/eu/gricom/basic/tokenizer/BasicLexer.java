@@ -3,57 +3,86 @@ package eu.gricom.basic.tokenizer;
 import eu.gricom.basic.error.SyntaxErrorException;
 import eu.gricom.basic.helper.Logger;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.Pattern;
 
 /**
  * BasicLexer.java
  * <p>
  * Description:
  * <p>
- * The BasicLexer class converts the source code into a list of tokens. The read a source code file and move the content
- * into a single string. This might cause problems in case of really big programs, so this needs to be addressed later.
+ * The BasicLexer class converts the source code into a list of tokens. It scans the source code once, line by line:
+ * each line is normalized into a buffer that is shared by all lines (see Normalizer), and the words of the buffer are
+ * classified in place: reserved words are looked up in a trie (see ReservedWords), numbers and booleans are checked
+ * character by character. The tokens are written into a TokenBuffer, which creates a string only for every different
+ * text of the tokens, so the time of the lexer grows linearly with the size of the program.
  * <p>
  * (c) = 2020,.., by Andreas Grimm, Den Haag, The Netherlands
  */
 public class BasicLexer implements Lexer {
+    // the line numbers with up to 9 digits are read without creating a string
+    private static final int MAX_FAST_DIGITS = 9;
+
     private final Logger _oLogger = new Logger(this.getClass().getName());
 
     @Override
     public final List<Token> tokenize(final String strSource) throws SyntaxErrorException {
+        return tokenizeCompact(strSource).toList();
+    }
 
-        List<Token> aoTokens = new ArrayList<>();
+    @Override
+    public final TokenBuffer tokenizeCompact(final String strSource) throws SyntaxErrorException {
 
-        // Convert the program into a list of lines
-        String[] astrProgramLines = strSource.split("\\s*\n\\s*");
+        TokenBuffer oTokens = new TokenBuffer();
+        StringBuilder strProgramLine = new StringBuilder();
 
+        // text of a string running over several words, and the line in which it started
+        StringBuilder strString = new StringBuilder();
         boolean bIsStringRunning = false;
+        int iStringLineNumber = -1;
+
         int iLastLineNumber = -1;
+        int iPosition = 0;
 
-        for (String strProgramLine: astrProgramLines) {
-            Token oToken = null;
+        while (iPosition < strSource.length()) {
+            // the lines are divided by white space containing a new line, which is not part of the lines
+            int iNewLine = strSource.indexOf('\n', iPosition);
+            int iLineStart = iPosition;
+            int iLineEnd = strSource.length();
 
-            // split the line number from the program line... make sure that the numbers are in ascending order...
-            int iLineNumber;
+            if (iNewLine >= 0) {
+                iLineEnd = iNewLine;
+
+                while (iLineEnd > iLineStart && Normalizer.isWhiteSpace(strSource.charAt(iLineEnd - 1))) {
+                    iLineEnd--;
+                }
+            }
+
+            iPosition = iNewLine < 0 ? strSource.length() : iNewLine;
+
+            while (iPosition < strSource.length() && Normalizer.isWhiteSpace(strSource.charAt(iPosition))) {
+                iPosition++;
+            }
 
-            if (strProgramLine.length() <= 0) {
+            if (iLineEnd <= iLineStart) {
                 // line is empty - we continue
                 continue;
-            } else if (strProgramLine.indexOf(" ") < 0)  {
-                // line only contains line number
-                iLineNumber = Integer.parseInt(strProgramLine);
-                strProgramLine = "";
-            } else {
-                // isolate line number and the program line
-                iLineNumber = Integer.parseInt(
-                        strProgramLine.substring(0,
-                                strProgramLine.indexOf(" ")));
+            }
 
-                strProgramLine = strProgramLine.substring(strProgramLine.indexOf(" ") + 1);
+            // split the line number from the program line... make sure that the numbers are in ascending order...
+            int iSpace = iLineStart;
+
+            while (iSpace < iLineEnd && strSource.charAt(iSpace) != ' ') {
+                iSpace++;
             }
 
+            if (iSpace == iLineEnd) {
+                // line only contains line number
+                iSpace = -1;
+            }
+
+            int iLineNumber = parseLineNumber(strSource, iLineStart, iSpace < 0 ? iLineEnd : iSpace);
+
             // check whether the line number is smaller or equal to the previous number. If so - throw an syntax error
             if (iLineNumber <= iLastLineNumber) {
                 throw new SyntaxErrorException("Line Number sequence not correct...:" + iLastLineNumber + " to " + iLineNumber);
@@ -62,140 +91,236 @@ public class BasicLexer implements Lexer {
             }
 
             // here we handle all empty lines, e.g. lines that only contain the line number
-            if (strProgramLine.length() < 1) {
-                aoTokens.add(new Token("empty", BasicTokenType.LINE, iLineNumber));
-            } else {
-                // normalize the line: put spaces in places where needed, or remove them
-                strProgramLine = Normalizer.normalize(strProgramLine);
-                strProgramLine = Normalizer.normalizeFunction(strProgramLine);
+            if (iSpace < 0 || iSpace + 1 >= iLineEnd) {
+                oTokens.add("empty", BasicTokenType.LINE, iLineNumber);
+                continue;
+            }
+
+            // normalize the line: put spaces in places where needed, or remove them
+            strProgramLine.setLength(0);
+            Normalizer.normalize(strSource, iSpace + 1, iLineEnd, strProgramLine);
+            Normalizer.normalizeFunction(strProgramLine);
+
+            // find the words of the line, which are separated by white space, and iterate over them
+            int iLength = strProgramLine.length();
+            int iWordEnd = 0;
+
+            while (iWordEnd < iLength) {
+                int iWordStart = iWordEnd;
+
+                while (iWordStart < iLength && Normalizer.isWhiteSpace(strProgramLine.charAt(iWordStart))) {
+                    iWordStart++;
+                }
+
+                iWordEnd = iWordStart;
+
+                while (iWordEnd < iLength && !Normalizer.isWhiteSpace(strProgramLine.charAt(iWordEnd))) {
+                    iWordEnd++;
+                }
+
+                // eliminate the white space at the end of the line
+                if (iWordStart >= iLength) {
+                    break;
+                }
 
-                // find reserved words: divide the string in an array of words
-                String[] astrWords = strProgramLine.split("\\s");
+                boolean bEndsWithQuote = strProgramLine.charAt(iWordEnd - 1) == '"';
 
-                // and iterate over them
-                for (String strWord : astrWords) {
+                // this section verifies whether the next word is part of a string (as a string started but did not end yet)
+                // if a string started (bIsStringRunning == true) then the word is added to the string, if the word contains
+                // quotation marks ("), the string is closed.
+                if (bIsStringRunning) {
+                    if (iStringLineNumber != iLineNumber) {
+                        throw new SyntaxErrorException("Syntax Error: Unrecognized character sequence: " + iLineNumber
+                                        + " " + strProgramLine);
+                    }
+
+                    // add the word to the string, if the word ends with a ", then we stop the string without the "
+                    strString.append(' ').append(strProgramLine, iWordStart, bEndsWithQuote ? iWordEnd - 1 : iWordEnd);
 
-                    // eliminate all empty strings
-                    if (strWord.length() <= 0) {
-                        continue;
+                    if (bEndsWithQuote) {
+                        bIsStringRunning = false;
+                        oTokens.add(strString, 0, strString.length(), BasicTokenType.STRING, iLineNumber);
                     }
 
-                    // this section verifies whether the next word is part of a string (as a string started but did not end yet)
-                    // if a string started (bIsStringRunning == true) then the word is added to the string, if the word contains
-                    // quotation marks ("), the string is closed.
-                    if (bIsStringRunning) {
-                        if (oToken == null) {
-                            throw new SyntaxErrorException("Syntax Error: Unrecognized character sequence: " + iLineNumber
-                                            + " " + strProgramLine);
-                        }
-
-                        // if the word ends with a ", then we stop any running string and remove the last character "
-                        if (strWord.endsWith("\"")) {
-                            strWord = strWord.substring(0, strWord.length() - 1);
-                            bIsStringRunning = false;
-                            aoTokens.add(oToken);
-                        }
-
-                        // add the word to the string in the token
-                        oToken.setText(oToken.getText() + " " + strWord);
+                    continue;
+                }
+
+                // ok - we know this is not part of a string.
+
+                // compare the word with the list of reserved words
+                int iIndex = ReservedWords.getIndex(strProgramLine, iWordStart, iWordEnd);
+
+                if (iIndex != -1) {
+                    // we found a reserved word...
+                    BasicTokenType oTokenType = ReservedWords.getTokenType(iIndex);
+
+                    // this block handles all comments
+                    if (oTokenType == BasicTokenType.REM
+                            || oTokenType == BasicTokenType.COMMENT) {
+                        oTokens.add(strProgramLine, 0, strProgramLine.length(), oTokenType, iLineNumber);
+
+                        break;
+                    }
+
+                    oTokens.add(strProgramLine, iWordStart, iWordEnd, oTokenType, iLineNumber);
+
+                // ok - this is not reserved word - so maybe it is a number?
+                } else if (isNumber(strProgramLine, iWordStart, iWordEnd)) {
+                    oTokens.add(strProgramLine, iWordStart, iWordEnd, BasicTokenType.NUMBER, iLineNumber);
+
+                // now check whether the word is marked as the beginning of a String
+                } else if (strProgramLine.charAt(iWordStart) == '"') {
+                    // this section handles single word strings, the " are removed
+                    if (bEndsWithQuote && iWordEnd - iWordStart > 1) {
+                        oTokens.add(strProgramLine, iWordStart + 1, iWordEnd - 1, BasicTokenType.STRING, iLineNumber);
                     } else {
-                        // ok - we know this is not part of a string.
-
-                        // compare the word with the list of reserved words
-                        int iIndex = ReservedWords.getIndex(strWord);
-
-                        if (iIndex != -1) {
-                            // we found a reserved word...
-                            BasicTokenType oTokenType = ReservedWords.getTokenType(iIndex);
-
-                            // this block handles all comments
-                            if (oTokenType == BasicTokenType.REM
-                                    || oTokenType == BasicTokenType.COMMENT)  {
-                                aoTokens.add(new Token(strProgramLine, oTokenType, iLineNumber));
-
-                                break;
-                            }
-
-                            oToken = new Token(strWord, oTokenType, iLineNumber);
-
-                        // ok - this is not reserved word - so maybe it is a number?
-                        } else if (isNumber(strWord)) {
-                            oToken = new Token(strWord, BasicTokenType.NUMBER, iLineNumber);
-
-                        // now check whether the word is marked as the beginning of a String
-                        } else if (isString(strWord)) {
-                            strWord = strWord.substring(1); // remove the "
-
-                            // this section handles single word strings
-                            if (strWord.endsWith("\"")) {
-                                strWord = strWord.substring(0, strWord.length() - 1);
-                                bIsStringRunning = false;
-                                oToken = new Token(strWord, BasicTokenType.STRING, iLineNumber);
-                                aoTokens.add(oToken);
-                            } else {
-                                oToken = new Token(strWord, BasicTokenType.STRING, iLineNumber);
-                                bIsStringRunning = true;
-                            }
-
-                        // now check whether the word is marked as a boolean
-                        } else if (isBoolean(strWord)) {
-                            oToken = new Token(strWord, BasicTokenType.BOOLEAN, iLineNumber);
-
-                        } else {
-                            // as it is neither a number, string, or boolean - it has to be a variable / constant...
-                            BasicTokenType oTokenType = BasicTokenType.WORD;
-
-                            oToken = new Token(strWord, oTokenType, iLineNumber);
-                        }
-
-                        if (oToken.getType() != BasicTokenType.STRING) { // Strings are added after they are completed.
-                            aoTokens.add(oToken);
-                        }
+                        strString.setLength(0);
+                        strString.append(strProgramLine, iWordStart + 1, iWordEnd);
+                        bIsStringRunning = true;
+                        iStringLineNumber = iLineNumber;
                     }
+
+                // now check whether the word is marked as a boolean
+                } else if (isBoolean(strProgramLine, iWordStart, iWordEnd)) {
+                    oTokens.add(strProgramLine, iWordStart, iWordEnd, BasicTokenType.BOOLEAN, iLineNumber);
+
+                } else {
+                    // as it is neither a number, string, or boolean - it has to be a variable / constant...
+                    oTokens.add(strProgramLine, iWordStart, iWordEnd, BasicTokenType.WORD, iLineNumber);
                 }
             }
         }
 
-        for (Token oToken: aoTokens) {
-            _oLogger.debug(" [" + oToken.getLine() + "]  [" + oToken.getType().toString() + "] " + oToken.getText());
+        if (_oLogger.isDebug()) {
+            for (int iToken = 0; iToken < oTokens.size(); iToken++) {
+                _oLogger.debug(" [" + oTokens.getLine(iToken) + "]  [" + oTokens.getType(iToken).toString() + "] "
+                                       + oTokens.getText(iToken));
+            }
+        }
+
+        oTokens.trimToSize();
+
+        return oTokens;
+    }
+
+    /**
+     * Read the line number at the start of a line.
+     *
+     * @param strSource the source code
+     * @param iStart position of the first character of the line number
+     * @param iEnd position after the last character of the line number
+     * @return the line number
+     * @throws NumberFormatException if the line does not start with a number
+     */
+    private static int parseLineNumber(final String strSource, final int iStart, final int iEnd) {
+        int iNumber = 0;
+
+        if (iEnd > iStart && iEnd - iStart <= MAX_FAST_DIGITS) {
+            for (int iPosition = iStart; iPosition < iEnd; iPosition++) {
+                char cDigit = strSource.charAt(iPosition);
+
+                if (cDigit < '0' || cDigit > '9') {
+                    return Integer.parseInt(strSource.substring(iStart, iEnd));
+                }
+
+                iNumber = iNumber * 10 + (cDigit - '0');
+            }
+
+            return iNumber;
         }
 
-        return aoTokens;
+        // signs, long numbers, and errors are handled as before
+        return Integer.parseInt(strSource.substring(iStart, iEnd));
     }
 
     /**
      * isBoolean identifies a boolean in the BASIC program by the keywords "TRUE" and "FALSE".
      *
-     * @param strWord argument for the check
+     * @param strLine the line containing the word
+     * @param iStart position of the first character of the word
+     * @param iEnd position after the last character of the word
      * @return true if argument is a boolean
      */
-    private boolean isBoolean(final String strWord) {
-        return strWord.toUpperCase(Locale.ROOT).matches("TRUE")
-                || strWord.toUpperCase(Locale.ROOT).matches("FALSE");
+    private static boolean isBoolean(final CharSequence strLine, final int iStart, final int iEnd) {
+        return isUpperCase(strLine, iStart, iEnd, "TRUE") || isUpperCase(strLine, iStart, iEnd, "FALSE");
     }
 
     /**
-     * isString identifies a string in the BASIC program by the trailing quotation marks (").
+     * Compare a word in upper case with a keyword.
      *
-     * @param strWord argument for the check
-     * @return true if argument is a string
+     * @param strLine the line containing the word
+     * @param iStart position of the first character of the word
+     * @param iEnd position after the last character of the word
+     * @param strKeyword the keyword in upper case
+     * @return true if the word in upper case is the keyword
      */
-    private boolean isString(final String strWord) {
-        return strWord.startsWith("\"");
+    private static boolean isUpperCase(final CharSequence strLine, final int iStart, final int iEnd,
+                                       final String strKeyword) {
+        for (int iPosition = iStart; iPosition < iEnd; iPosition++) {
+            if (strLine.charAt(iPosition) > 127) {
+                // the upper case of some characters has a different length: convert the word as a whole
+                return strLine.subSequence(iStart, iEnd).toString().toUpperCase(Locale.ROOT).equals(strKeyword);
+            }
+        }
+
+        if (iEnd - iStart != strKeyword.length()) {
+            return false;
+        }
+
+        for (int iPosition = iStart; iPosition < iEnd; iPosition++) {
+            if (Character.toUpperCase(strLine.charAt(iPosition)) != strKeyword.charAt(iPosition - iStart)) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
-     * isNumber uses a regular expression to verify that the argument string contains a number.
+     * isNumber verifies that the word is a number: an optional "-", digits, and an optional "." followed by digits.
      *
-     * @param strWord argument for the check
+     * @param strLine the line containing the word
+     * @param iStart position of the first character of the word
+     * @param iEnd position after the last character of the word
      * @return true if argument is a number
      */
-    private boolean isNumber(final String strWord) {
-        Pattern oPattern = Pattern.compile("-?\\d*(\\.\\d+)?");
+    private static boolean isNumber(final CharSequence strLine, final int iStart, final int iEnd) {
+        int iPosition = iStart;
 
-        if (strWord == null) {
-            return false;
+        if (iPosition < iEnd && strLine.charAt(iPosition) == '-') {
+            iPosition++;
         }
-        return oPattern.matcher(strWord).matches();
+
+        iPosition = skipDigits(strLine, iPosition, iEnd);
+
+        if (iPosition < iEnd && strLine.charAt(iPosition) == '.') {
+            int iFraction = iPosition + 1;
+
+            iPosition = skipDigits(strLine, iFraction, iEnd);
+
+            if (iPosition == iFraction) {
+                return false;
+            }
+        }
+
+        return iPosition == iEnd;
+    }
+
+    /**
+     * Skip the digits of a number.
+     *
+     * @param strLine the line containing the number
+     * @param iStart position of the first digit
+     * @param iEnd end of the word
+     * @return position after the last digit
+     */
+    private static int skipDigits(final CharSequence strLine, final int iStart, final int iEnd) {
+        int iPosition = iStart;
+
+        while (iPosition < iEnd && strLine.charAt(iPosition) >= '0' && strLine.charAt(iPosition) <= '9') {
+            iPosition++;
+        }
+
+        return iPosition;
     }
 }
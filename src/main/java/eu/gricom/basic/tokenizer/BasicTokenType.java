@@ -8,6 +8,7 @@ public enum BasicTokenType {
     AND,
     ASC,
     ATN,
+    BASE,
     CALL,
     CDBL,
     CHR, // token for the CHR$ function
@@ -44,6 +45,7 @@ public enum BasicTokenType {
     IF,
     INSTR,
     INPUT,
+    INT,
     LEFT, // token for the LEFT$ function
     LEN,
     LENGTH,
@@ -57,10 +59,12 @@ public enum BasicTokenType {
     NOT,
     ON,
     OPEN,
+    OPTION,
     OR,
     PRAGMA,
     PRINT,
     RANDOM,
+    RANDOMIZE,
     READ,
     REM,
     RETURN,
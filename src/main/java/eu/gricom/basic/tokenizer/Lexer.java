@@ -26,4 +26,14 @@ public interface Lexer {
      * @throws SyntaxErrorException for any situation in which the tokenizer fails
      */
     List<Token> tokenize(String strSource) throws SyntaxErrorException;
+
+    /**
+     * This function tokenizes a script in the same way as tokenize(), but returns the tokens in the compact form of a
+     * token buffer, which is used by the interpreter and the compiler.
+     *
+     * @param strSource - the basic source code as a single string.
+     * @return buffer of the token found in the source code.
+     * @throws SyntaxErrorException for any situation in which the tokenizer fails
+     */
+    TokenBuffer tokenizeCompact(String strSource) throws SyntaxErrorException;
 }
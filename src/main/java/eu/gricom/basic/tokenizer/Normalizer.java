@@ -24,87 +24,252 @@ public final class Normalizer {
     /**
      * The normalize function converts the input string by removing un-needed spaces and ensures that the format of the
      * line in working with the lexer.
+     * <p>
+     * Outside of strings and square brackets, separators, parenthesis and operators are surrounded by a single space,
+     * so that compact source code like "IF A(I)<=A(I+1) THEN 120" is split into words in the same way as spaced source
+     * code. A "+" or "-" is only separated if it is used as a binary operator, a sign of a number (e.g. "STEP -1")
+     * or the hyphen of a keyword (e.g. "END-IF") is kept in place.
      *
      * @param strInput string to be adjusted
      * @return normalized string
      */
     public static String normalize(final String strInput) {
-        String strWork = strInput;
-        String strOutput = new String();
+        StringBuilder strOutput = new StringBuilder(strInput.length() + 16);
+        normalize(strInput, 0, strInput.length(), strOutput);
+
+        return strOutput.toString();
+    }
 
+    /**
+     * Normalize a part of a text into a buffer, as described for normalize(String). The lexer uses this method with
+     * one buffer for all lines of the program, so that no strings are created for the lines.
+     *
+     * @param strInput text containing the line
+     * @param iStart position of the first character of the line
+     * @param iEnd position after the last character of the line
+     * @param strOutput empty buffer for the normalized line
+     */
+    static void normalize(final CharSequence strInput, final int iStart, final int iEnd,
+                          final StringBuilder strOutput) {
         boolean bQuotationMark = false;
-        boolean bArrayParenthenes = false;
         boolean bSquareBrackets = false;
 
-        // replace tabs with spaces
-        strWork = strWork.replace("\t", "    ");
-
-        // ignore anything in quotation marks (") and add it to the string
-        char cPreviousChar = '\0';
-        char cCurrentChar = '\0';
+        for (int i = iStart; i < iEnd; i++) {
+            // tabs are read as spaces, in strings they are replaced with four spaces
+            char cCurrentChar = toSpace(strInput.charAt(i));
+            char cNextChar = i + 1 < iEnd ? toSpace(strInput.charAt(i + 1)) : '\0';
 
-        for (int i = 0; i < strWork.length(); i++) {
-            cPreviousChar = cCurrentChar;
-            cCurrentChar = strWork.charAt(i);
-
-            if (cCurrentChar == '[') {
-                bSquareBrackets = true;
+            // ignore anything in quotation marks (") and add it to the string
+            if (cCurrentChar == '"') {
+                bQuotationMark = !bQuotationMark;
+                strOutput.append(cCurrentChar);
+                continue;
             }
 
-            if (cCurrentChar == '('
-                    && (cPreviousChar == '$'
-                        || cPreviousChar == '#'
-                        || cPreviousChar == '!'
-                        || cPreviousChar == '%'
-                        || cPreviousChar == '&'
-                        || cPreviousChar == '@')) {
-                bArrayParenthenes = true;
+            if (bQuotationMark) {
+                if (strInput.charAt(i) == '\t') {
+                    strOutput.append("    ");
+                } else {
+                    strOutput.append(cCurrentChar);
+                }
+                continue;
             }
 
-            // if the quotation mark is not set, then just pass thru...
-            if (cCurrentChar == '"') {
-                bQuotationMark = !bQuotationMark;
+            if (cCurrentChar == '[') {
+                bSquareBrackets = true;
             }
 
             // now check whether we are between square brackets [] - here remove all spaces
             if (bSquareBrackets) {
                 if (cCurrentChar != ' ') {
-                    strOutput += cCurrentChar;
+                    strOutput.append(cCurrentChar);
                 }
 
                 if (cCurrentChar == ']') {
                     bSquareBrackets = false;
                 }
-            } else if (bQuotationMark || bArrayParenthenes) {
-                strOutput += cCurrentChar;
-                if (cCurrentChar == ')'
-                        && bArrayParenthenes) {
-                    bArrayParenthenes = false;
-                }
-            } else {
-                // else apply filters
-                switch (cCurrentChar) {
-                    case ',':
-                        strOutput += " ,";
-                        break;
-                    case ';':
-                        strOutput += " ;";
-                        break;
-                    case ':':
-                        strOutput += " :";
-                        break;
-                    case '(':
-                        strOutput += " ( ";
-                        break;
-                    case ')':
-                        strOutput += " ) ";
-                        break;
-                    default:
-                        strOutput += cCurrentChar;
-                }
+
+                continue;
+            }
+
+            // else apply filters
+            switch (cCurrentChar) {
+                case ',': case ';': case '(': case ')': case '*': case '/': case '^':
+                    appendSeparated(strOutput, String.valueOf(cCurrentChar));
+                    break;
+
+                case ':':
+                    if (cNextChar == '=') {
+                        appendSeparated(strOutput, ":=");
+                        i++;
+                    } else {
+                        appendSeparated(strOutput, ":");
+                    }
+                    break;
+
+                case '=':
+                    if (cNextChar == '=') {
+                        appendSeparated(strOutput, "==");
+                        i++;
+                    } else {
+                        appendSeparated(strOutput, "=");
+                    }
+                    break;
+
+                case '<':
+                    if (cNextChar == '=' || cNextChar == '>' || cNextChar == '<') {
+                        appendSeparated(strOutput, "<" + cNextChar);
+                        i++;
+                    } else {
+                        appendSeparated(strOutput, "<");
+                    }
+                    break;
+
+                case '>':
+                    if (cNextChar == '=' || cNextChar == '>') {
+                        appendSeparated(strOutput, ">" + cNextChar);
+                        i++;
+                    } else {
+                        appendSeparated(strOutput, ">");
+                    }
+                    break;
+
+                case '!':
+                    // "!" is either the suffix of a double variable, or the start of the "!=" operator
+                    if (cNextChar == '=' && (strOutput.length() == 0 || strOutput.charAt(strOutput.length() - 1) == ' ')) {
+                        appendSeparated(strOutput, "!=");
+                        i++;
+                    } else {
+                        strOutput.append(cCurrentChar);
+                    }
+                    break;
+
+                case '+': case '-':
+                    if (isBinaryOperator(strOutput)) {
+                        appendSeparated(strOutput, String.valueOf(cCurrentChar));
+                    } else {
+                        strOutput.append(cCurrentChar);
+                    }
+                    break;
+
+                case ' ':
+                    if (strOutput.length() > 0 && strOutput.charAt(strOutput.length() - 1) != ' ') {
+                        strOutput.append(cCurrentChar);
+                    }
+                    break;
+
+                default:
+                    strOutput.append(cCurrentChar);
             }
         }
-        return strOutput;
+
+        trim(strOutput);
+    }
+
+    /**
+     * Read a tab as a space.
+     *
+     * @param cCharacter character of the input
+     * @return the character, or a space for a tab
+     */
+    private static char toSpace(final char cCharacter) {
+        return cCharacter == '\t' ? ' ' : cCharacter;
+    }
+
+    /**
+     * Remove the white space and control characters at the start and the end of the buffer, like String.trim().
+     *
+     * @param strOutput the buffer
+     */
+    private static void trim(final StringBuilder strOutput) {
+        int iEnd = strOutput.length();
+
+        while (iEnd > 0 && strOutput.charAt(iEnd - 1) <= ' ') {
+            iEnd--;
+        }
+
+        strOutput.setLength(iEnd);
+
+        int iStart = 0;
+
+        while (iStart < iEnd && strOutput.charAt(iStart) <= ' ') {
+            iStart++;
+        }
+
+        if (iStart > 0) {
+            strOutput.delete(0, iStart);
+        }
+    }
+
+    /**
+     * Append an operator or separator to the output, surrounded by single spaces.
+     *
+     * @param strOutput output of the normalization
+     * @param strOperator operator or separator to be added
+     */
+    private static void appendSeparated(final StringBuilder strOutput, final String strOperator) {
+        if (strOutput.length() > 0 && strOutput.charAt(strOutput.length() - 1) != ' ') {
+            strOutput.append(' ');
+        }
+
+        strOutput.append(strOperator).append(' ');
+    }
+
+    /**
+     * Decide whether a "+" or "-" following the normalized output is a binary operator. This is the case if it follows
+     * an operand: a closing parenthesis, a string, or a word that is not a keyword. Keywords like RND, which are used
+     * as an operand, are the exception.
+     *
+     * @param strOutput normalized output up to the operator
+     * @return true if the operator is a binary operator
+     */
+    private static boolean isBinaryOperator(final StringBuilder strOutput) {
+        int iEnd = strOutput.length();
+
+        while (iEnd > 0 && strOutput.charAt(iEnd - 1) == ' ') {
+            iEnd--;
+        }
+
+        if (iEnd == 0) {
+            return false;
+        }
+
+        char cLastChar = strOutput.charAt(iEnd - 1);
+        if (cLastChar == ')' || cLastChar == ']' || cLastChar == '"') {
+            return true;
+        }
+
+        int iStart = iEnd;
+        while (iStart > 0 && isWordCharacter(strOutput.charAt(iStart - 1))) {
+            iStart--;
+        }
+
+        // a suffix character only belongs to a word, if it follows a letter or digit; otherwise it is an operator
+        if (iStart == iEnd || !Character.isLetterOrDigit(strOutput.charAt(iStart))) {
+            return false;
+        }
+
+        int iIndex = ReservedWords.getIndex(strOutput, iStart, iEnd);
+
+        if (iIndex < 0) {
+            return true;
+        }
+
+        BasicTokenType eTokenType = ReservedWords.getTokenType(iIndex);
+
+        return eTokenType == BasicTokenType.RND || eTokenType == BasicTokenType.MEM || eTokenType == BasicTokenType.TIME;
+    }
+
+    /**
+     * Characters that are part of a variable name, a keyword or a number.
+     *
+     * @param cCharacter character to be verified
+     * @return true if the character is part of a word
+     */
+    private static boolean isWordCharacter(final char cCharacter) {
+        return Character.isLetterOrDigit(cCharacter)
+                || cCharacter == '.' || cCharacter == '$' || cCharacter == '#' || cCharacter == '!'
+                || cCharacter == '%' || cCharacter == '&' || cCharacter == '@';
     }
 
     /**
@@ -151,18 +316,29 @@ public final class Normalizer {
      * @throws SyntaxErrorException if the parenthesis are not set correctly
      */
     public static String normalizeFunction(final String strInput) throws SyntaxErrorException {
-        String strWork = strInput;
+        StringBuilder strWork = new StringBuilder(strInput);
+        normalizeFunction(strWork);
+
+        return strWork.toString();
+    }
 
+    /**
+     * Normalize the function calls of a line in a buffer, as described for normalizeFunction(String).
+     *
+     * @param strWork the line, which is changed in place
+     * @throws SyntaxErrorException if the parenthesis are not set correctly
+     */
+    static void normalizeFunction(final StringBuilder strWork) throws SyntaxErrorException {
         // this function only runs if there are two parenthesis in the string
         int iIndexStart = strWork.indexOf("(");
         int iIndexEnd = strWork.indexOf(")");
 
         if (iIndexStart < 0 && iIndexEnd < 0) {
-            return strWork;
+            return;
         // if there is only one then I see a problem and throw an exception
         } else {
             if (iIndexStart < 0 || iIndexEnd < 0) {
-                throw new SyntaxErrorException("Parenthesis incorrectly set: " + strInput);
+                throw new SyntaxErrorException("Parenthesis incorrectly set: " + strWork);
             }
         }
 
@@ -171,22 +347,83 @@ public final class Normalizer {
         // place
 
         // reduce the found word from the left parenthesis
-        String strStub = strWork.substring(0, iIndexStart);
-        strStub = strStub.substring(strStub.lastIndexOf(" ") + 1);
+        int iStub = iIndexStart;
 
-        // and check whether the rest is a keyword
-        int iIndex = ReservedWords.getIndex(strStub);
+        while (iStub > 0 && strWork.charAt(iStub - 1) != ' ') {
+            iStub--;
+        }
 
-        // we found a keyword
-        if (iIndex > -1) {
+        // and check whether the rest is a keyword
+        if (ReservedWords.getIndex(strWork, iStub, iIndexStart) > -1) {
             // the pre-scan shows that the scan will find a function. So we need to put extra spaces between the
             // function, the opening parentheses, the number in the parenthesis, and the closing parenthesis
-            strWork = strWork.substring(0, iIndexStart) + " " + strWork.substring(iIndexStart);
+            strWork.insert(iIndexStart, ' ');
         }
 
-        // after the normalization above, () becomes " (  ) " - still needs to be removed
-        strWork = strWork.replaceAll(" \\(  \\) ", "");
+        // after the normalization above, () becomes " ( ) " - still needs to be removed, with the white space before
+        removeEmptyParenthesis(strWork);
+    }
 
-        return strWork;
+    /**
+     * Remove all empty parenthesis "()", with the white space before and between them, in one pass over the buffer.
+     * The parenthesis found by removing a pair are not removed: "(())" becomes "()".
+     *
+     * @param strWork the line, which is changed in place
+     */
+    private static void removeEmptyParenthesis(final StringBuilder strWork) {
+        int iLength = strWork.length();
+        int iRead = 0;
+        int iWrite = 0;
+
+        while (iRead < iLength) {
+            int iOpen = skipWhiteSpace(strWork, iRead, iLength);
+
+            if (iOpen < iLength && strWork.charAt(iOpen) == '(') {
+                int iClose = skipWhiteSpace(strWork, iOpen + 1, iLength);
+
+                if (iClose < iLength && strWork.charAt(iClose) == ')') {
+                    iRead = iClose + 1;
+                    continue;
+                }
+            }
+
+            // no empty parenthesis start in the white space before the next character: copy both
+            int iCopyEnd = Math.min(iOpen + 1, iLength);
+
+            while (iRead < iCopyEnd) {
+                strWork.setCharAt(iWrite++, strWork.charAt(iRead++));
+            }
+        }
+
+        strWork.setLength(iWrite);
+    }
+
+    /**
+     * Skip the white space in a buffer.
+     *
+     * @param strWork the buffer
+     * @param iStart position to start from
+     * @param iEnd end of the buffer
+     * @return position of the first character that is not white space, or iEnd
+     */
+    private static int skipWhiteSpace(final StringBuilder strWork, final int iStart, final int iEnd) {
+        int iPosition = iStart;
+
+        while (iPosition < iEnd && isWhiteSpace(strWork.charAt(iPosition))) {
+            iPosition++;
+        }
+
+        return iPosition;
+    }
+
+    /**
+     * The white space characters (\s in regular expressions), which separate the words of a normalized line.
+     *
+     * @param cCharacter character to be verified
+     * @return true if the character is white space
+     */
+    static boolean isWhiteSpace(final char cCharacter) {
+        return cCharacter == ' ' || cCharacter == '\t' || cCharacter == '\n' || cCharacter == '\u000B'
+                || cCharacter == '\f' || cCharacter == '\r';
     }
 }
@@ -1,5 +1,6 @@
 package eu.gricom.basic.tokenizer;
 
+import java.util.Arrays;
 import java.util.Locale;
 
 /**
@@ -7,7 +8,9 @@ import java.util.Locale;
  * <p>
  * Description:
  * <p>
- * The list of reserved words and the matching token.
+ * The list of reserved words and the matching token. The words are looked up in a trie, which is built from the list
+ * when the class is loaded: each node has one child per character used in the reserved words, so a word is found
+ * with one array access per character, without creating a string for the word.
  * <p>
  * (c) = 2020,.., by Andreas Grimm, Den Haag, The Netherlands
  */
@@ -19,36 +22,40 @@ public final class ReservedWords {
     private ReservedWords() { }
 
     /**
-     * This defines the different kinds of tokens for the Dartmouth BASIC styles.
+     * This defines the different kinds of tokens for the Dartmouth BASIC styles. The words are compared in upper case.
+     * "RIGHT" and the empty word are the words found by the former regular expressions "RIGHT$" and "||": a word
+     * "RIGHT$" or "||" is not a reserved word.
      */
-    private static String[] _astrReservedWords = {
+    private static final String[] _astrReservedWords = {
             "@PRAGMA", "ABS", "AND", "ASC", "ATN",
+            "BASE",
             "CALL", "CDBL", "CHR", "CINT", "CLEAN", "CLOSE", "CLS", "CMD", "CONT", "COS",
             "DATA", "DEF", "DIM", "DO",
             "ELSE", "END", "END-IF", "END-WHILE", "EOF", "EOL", "ERL", "ERR", "EXIT", "EXP",
             "FCLOSE", "FOPEN", "FOR", "FPRINT", "FREAD", "FREE",
             "GOSUB", "GOTO",
-            "IF", "INSTR", "INPUT",
+            "IF", "INSTR", "INPUT", "INT",
             "LEFT", "LEN", "LENGTH", "LET", "LOG", "LOG10",
             "MEM", "MID", "%",
             "NEXT", "NOT",
-            "ON", "OPEN", "OR",
+            "ON", "OPEN", "OPTION", "OR",
             "PRINT",
-            "RANDOM", "READ", "REM", "RETURN", "RIGHT$", "RND",
+            "RANDOM", "RANDOMIZE", "READ", "REM", "RETURN", "RIGHT", "RND",
             "SIN", "SQR", "STEP", "STOP", "STRING", "STR", "SYSTEM",
             "TAB", "TAN", "THEN", "TIME", "TO",
             "UNTIL",
             "VAL",
             "WHILE", "WRITE",
-            "&&", "\\+", "\\-", "\\*", "\\/", ":",
-            ">", ">=", "<", "<=", "=", ":=", "==", "!=", "\\^",
-            "\\(", "\\)", "\\'", "\\;", "\\,", "||", "\\?",
+            "&&", "+", "-", "*", "/", ":",
+            ">", ">=", "<", "<=", "=", ":=", "==", "!=", "<>", "^",
+            "(", ")", "'", ";", ",", "", "?",
             ">>", "<<"
     };
 
-    private static BasicTokenType[] _aeTokenTypes = {
+    private static final BasicTokenType[] _aeTokenTypes = {
         BasicTokenType.PRAGMA,
         BasicTokenType.ABS, BasicTokenType.AND, BasicTokenType.ASC, BasicTokenType.ATN,
+        BasicTokenType.BASE,
         BasicTokenType.CALL, BasicTokenType.CDBL, BasicTokenType.CHR, BasicTokenType.CINT, BasicTokenType.CLEAN,
             BasicTokenType.CLOSE, BasicTokenType.CLS, BasicTokenType.CMD, BasicTokenType.CONT, BasicTokenType.COS,
         BasicTokenType.DATA, BasicTokenType.DEF, BasicTokenType.DIM, BasicTokenType.DO,
@@ -57,13 +64,13 @@ public final class ReservedWords {
         BasicTokenType.FCLOSE, BasicTokenType.FOPEN, BasicTokenType.FOR, BasicTokenType.FPRINT, BasicTokenType.FREAD,
             BasicTokenType.FREE,
         BasicTokenType.GOSUB, BasicTokenType.GOTO,
-        BasicTokenType.IF, BasicTokenType.INSTR, BasicTokenType.INPUT,
+        BasicTokenType.IF, BasicTokenType.INSTR, BasicTokenType.INPUT, BasicTokenType.INT,
         BasicTokenType.LEFT, BasicTokenType.LEN, BasicTokenType.LENGTH, BasicTokenType.LET, BasicTokenType.LOG, BasicTokenType.LOG10,
         BasicTokenType.MEM, BasicTokenType.MID, BasicTokenType.MODULO,
             BasicTokenType.NEXT, BasicTokenType.NOT,
-        BasicTokenType.ON, BasicTokenType.OPEN, BasicTokenType.OR,
+        BasicTokenType.ON, BasicTokenType.OPEN, BasicTokenType.OPTION, BasicTokenType.OR,
         BasicTokenType.PRINT,
-        BasicTokenType.RANDOM, BasicTokenType.READ, BasicTokenType.REM, BasicTokenType.RETURN,
+        BasicTokenType.RANDOM, BasicTokenType.RANDOMIZE, BasicTokenType.READ, BasicTokenType.REM, BasicTokenType.RETURN,
             BasicTokenType.RIGHT, BasicTokenType.RND,
         BasicTokenType.SIN, BasicTokenType.SQR, BasicTokenType.STEP, BasicTokenType.STOP, BasicTokenType.TOSTRING, BasicTokenType.STR,
             BasicTokenType.SYSTEM,
@@ -74,31 +81,137 @@ public final class ReservedWords {
         BasicTokenType.AND, BasicTokenType.PLUS, BasicTokenType.MINUS, BasicTokenType.MULTIPLY, BasicTokenType.DIVIDE,
             BasicTokenType.COLON,
         BasicTokenType.GREATER, BasicTokenType.GREATER_EQUAL, BasicTokenType.SMALLER, BasicTokenType.SMALLER_EQUAL, BasicTokenType.ASSIGN_EQUAL,
-            BasicTokenType.PASCAL_ASSIGN_EQUAL, BasicTokenType.COMPARE_EQUAL, BasicTokenType.COMPARE_NOT_EQUAL, BasicTokenType.POWER,
+            BasicTokenType.PASCAL_ASSIGN_EQUAL, BasicTokenType.COMPARE_EQUAL, BasicTokenType.COMPARE_NOT_EQUAL, BasicTokenType.COMPARE_NOT_EQUAL,
+            BasicTokenType.POWER,
         BasicTokenType.LEFT_PAREN, BasicTokenType.RIGHT_PAREN, BasicTokenType.COMMENT, BasicTokenType.SEMICOLON,
             BasicTokenType.COMMA, BasicTokenType.OR, BasicTokenType.PRINT,
         BasicTokenType.SHIFT_RIGHT, BasicTokenType.SHIFT_LEFT};
 
+    // column of a character in the trie, or -1 if the character is not used in a reserved word
+    private static final int[] COLUMNS = new int[128];
+    private static final int ALPHABET;
+
+    // children of the trie nodes, ALPHABET entries per node; 0 means no child, as the root is node 0
+    private static final int[] CHILDREN;
+
+    // index of the reserved word ending at a node, or -1
+    private static final int[] WORDS;
+
+    static {
+        Arrays.fill(COLUMNS, -1);
+
+        int iColumns = 0;
+        int iNodes = 1;
+
+        for (String strWord : _astrReservedWords) {
+            for (char cCharacter : strWord.toCharArray()) {
+                if (COLUMNS[cCharacter] < 0) {
+                    COLUMNS[cCharacter] = iColumns++;
+                }
+            }
+
+            iNodes += strWord.length();
+        }
+
+        ALPHABET = iColumns;
+        CHILDREN = new int[iNodes * ALPHABET];
+        WORDS = new int[iNodes];
+        Arrays.fill(WORDS, -1);
+
+        int iFree = 1;
+
+        for (int iIndex = 0; iIndex < _astrReservedWords.length; iIndex++) {
+            int iNode = 0;
+
+            for (char cCharacter : _astrReservedWords[iIndex].toCharArray()) {
+                int iChild = iNode * ALPHABET + COLUMNS[cCharacter];
+
+                if (CHILDREN[iChild] == 0) {
+                    CHILDREN[iChild] = iFree++;
+                }
+
+                iNode = CHILDREN[iChild];
+            }
+
+            if (WORDS[iNode] < 0) {
+                WORDS[iNode] = iIndex;
+            }
+        }
+    }
+
     /**
      * getIndex returns the index of the token based on an entered token type.
      *
      * @param strTokenType name of the token
-     * @return index found for the token
+     * @return index found for the token, or -1 if it is not a reserved word
      */
     public static int getIndex(final String strTokenType) {
-        int iReturn = -1;
-        int iIndex = 0;
+        return getIndex(strTokenType, 0, strTokenType.length());
+    }
 
-        for (String strReserveWord: _astrReservedWords) {
-            if (strTokenType.toUpperCase(Locale.ROOT).matches(strReserveWord)) {
-                iReturn = iIndex;
-                break;
+    /**
+     * getIndex returns the index of the token for a word in a character sequence, e.g. the line read by the lexer.
+     *
+     * @param strText text containing the word
+     * @param iStart position of the first character of the word
+     * @param iEnd position after the last character of the word
+     * @return index found for the token, or -1 if it is not a reserved word
+     */
+    public static int getIndex(final CharSequence strText, final int iStart, final int iEnd) {
+        int iNode = 0;
+
+        for (int iPosition = iStart; iPosition < iEnd; iPosition++) {
+            char cCharacter = strText.charAt(iPosition);
+
+            if (cCharacter >= COLUMNS.length) {
+                // the upper case of some characters has a different length: convert the word as a whole
+                return getUpperCaseIndex(strText.subSequence(iStart, iEnd).toString().toUpperCase(Locale.ROOT));
+            }
+
+            iNode = getChild(iNode, Character.toUpperCase(cCharacter));
+
+            if (iNode < 0) {
+                return -1;
             }
+        }
+
+        return WORDS[iNode];
+    }
+
+    /**
+     * Look up a word in upper case.
+     *
+     * @param strWord the word in upper case
+     * @return index found for the token, or -1 if it is not a reserved word
+     */
+    private static int getUpperCaseIndex(final String strWord) {
+        int iNode = 0;
 
-            iIndex++;
+        for (int iPosition = 0; iPosition < strWord.length() && iNode >= 0; iPosition++) {
+            char cCharacter = strWord.charAt(iPosition);
+            iNode = cCharacter < COLUMNS.length ? getChild(iNode, cCharacter) : -1;
         }
 
-        return iReturn;
+        return iNode >= 0 ? WORDS[iNode] : -1;
+    }
+
+    /**
+     * Get the child of a node of the trie.
+     *
+     * @param iNode the node
+     * @param cCharacter next character of the word, in upper case
+     * @return the child node, or -1 if no reserved word continues with the character
+     */
+    private static int getChild(final int iNode, final char cCharacter) {
+        int iColumn = COLUMNS[cCharacter];
+
+        if (iColumn < 0) {
+            return -1;
+        }
+
+        int iChild = CHILDREN[iNode * ALPHABET + iColumn];
+
+        return iChild != 0 ? iChild : -1;
     }
 
     /**
@@ -0,0 +1,292 @@
+package eu.gricom.basic.tokenizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TokenBuffer.java
+ * <p>
+ * Description:
+ * <p>
+ * The TokenBuffer is the compact form of the tokenized program. Instead of one Token object per token, it keeps the
+ * tokens in parallel arrays: the type (ordinal of BasicTokenType), the BASIC line number, the command sequence, and
+ * the index of the text in a table of texts. The texts are interned: a keyword, a variable name or a number that is
+ * used many times in the program is stored only once, and is found without creating a string (see intern()).
+ * <p>
+ * The parser reads the buffer by token number, a Token object is only created if it is requested with getToken().
+ * Once the program is linked, the buffer is not needed anymore and is released by the program.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class TokenBuffer {
+    private static final BasicTokenType[] TYPES = BasicTokenType.values();
+    private static final int INITIAL_TOKENS = 256;
+    private static final int INITIAL_TEXTS = 64;
+
+    private int[] _aiTypes = new int[INITIAL_TOKENS];             // Key: Token, Value: ordinal of the type
+    private int[] _aiLines = new int[INITIAL_TOKENS];             // Key: Token, Value: Basic Source Line
+    private int[] _aiCommandSequences = new int[INITIAL_TOKENS];  // Key: Token, Value: Command in the line
+    private int[] _aiTexts = new int[INITIAL_TOKENS];             // Key: Token, Value: index in the text table
+    private int _iSize = 0;
+
+    private String[] _astrTexts = new String[INITIAL_TEXTS];      // Key: index, Value: Text
+    private int[] _aiTextSlots = new int[INITIAL_TEXTS * 2];      // hash table of the texts, index + 1 or 0 if free
+    private int _iTextCount = 0;
+
+    /**
+     * Create a buffer from a list of tokens, e.g. for a program tokenized by Lexer.tokenize().
+     *
+     * @param aoTokens list of tokens
+     * @return the buffer holding the same tokens
+     */
+    public static TokenBuffer of(final List<Token> aoTokens) {
+        TokenBuffer oBuffer = new TokenBuffer();
+
+        if (aoTokens != null) {
+            for (Token oToken : aoTokens) {
+                oBuffer.add(oToken.getText(), oToken.getType(), oToken.getLine(), oToken.getCommandSequence());
+            }
+        }
+
+        return oBuffer;
+    }
+
+    /**
+     * Add a token which is the first command in the line.
+     *
+     * @param strText text of the token
+     * @param oType type of the token
+     * @param iLineNumber number of the line in the BASIC source code
+     */
+    public void add(final String strText, final BasicTokenType oType, final int iLineNumber) {
+        add(strText, oType, iLineNumber, 1);
+    }
+
+    /**
+     * Add a token.
+     *
+     * @param strText text of the token
+     * @param oType type of the token
+     * @param iLineNumber number of the line in the BASIC source code
+     * @param iCommandSequence the number of the command in the source code line
+     */
+    public void add(final String strText, final BasicTokenType oType, final int iLineNumber,
+                    final int iCommandSequence) {
+        add(intern(strText, 0, strText.length()), oType, iLineNumber, iCommandSequence);
+    }
+
+    /**
+     * Add a token which is the first command in the line, with the text taken from a part of a line.
+     *
+     * @param strLine the line containing the text
+     * @param iStart position of the first character of the text
+     * @param iEnd position after the last character of the text
+     * @param oType type of the token
+     * @param iLineNumber number of the line in the BASIC source code
+     */
+    public void add(final CharSequence strLine, final int iStart, final int iEnd, final BasicTokenType oType,
+                    final int iLineNumber) {
+        add(intern(strLine, iStart, iEnd), oType, iLineNumber, 1);
+    }
+
+    private void add(final int iText, final BasicTokenType oType, final int iLineNumber,
+                     final int iCommandSequence) {
+        if (_iSize == _aiTypes.length) {
+            int iCapacity = Math.max(_iSize * 2, INITIAL_TOKENS);
+
+            _aiTypes = Arrays.copyOf(_aiTypes, iCapacity);
+            _aiLines = Arrays.copyOf(_aiLines, iCapacity);
+            _aiCommandSequences = Arrays.copyOf(_aiCommandSequences, iCapacity);
+            _aiTexts = Arrays.copyOf(_aiTexts, iCapacity);
+        }
+
+        _aiTypes[_iSize] = oType.ordinal();
+        _aiLines[_iSize] = iLineNumber;
+        _aiCommandSequences[_iSize] = iCommandSequence;
+        _aiTexts[_iSize] = iText;
+        _iSize++;
+    }
+
+    /**
+     * Reduce the arrays to the number of tokens, once all tokens are added.
+     */
+    public void trimToSize() {
+        _aiTypes = Arrays.copyOf(_aiTypes, _iSize);
+        _aiLines = Arrays.copyOf(_aiLines, _iSize);
+        _aiCommandSequences = Arrays.copyOf(_aiCommandSequences, _iSize);
+        _aiTexts = Arrays.copyOf(_aiTexts, _iSize);
+    }
+
+    /**
+     * Find a text in the text table, or add it. The hash code is calculated in the same way as String.hashCode(), so
+     * that the texts already in the table do not need to be hashed again.
+     *
+     * @param strLine the line containing the text
+     * @param iStart position of the first character of the text
+     * @param iEnd position after the last character of the text
+     * @return index of the text in the text table
+     */
+    private int intern(final CharSequence strLine, final int iStart, final int iEnd) {
+        int iHash = 0;
+
+        for (int iPosition = iStart; iPosition < iEnd; iPosition++) {
+            iHash = 31 * iHash + strLine.charAt(iPosition);
+        }
+
+        int iMask = _aiTextSlots.length - 1;
+        int iSlot = spread(iHash) & iMask;
+
+        while (_aiTextSlots[iSlot] != 0) {
+            int iText = _aiTextSlots[iSlot] - 1;
+
+            if (isEqual(_astrTexts[iText], strLine, iStart, iEnd)) {
+                return iText;
+            }
+
+            iSlot = (iSlot + 1) & iMask;
+        }
+
+        if (_iTextCount == _astrTexts.length) {
+            _astrTexts = Arrays.copyOf(_astrTexts, _iTextCount * 2);
+        }
+
+        int iText = _iTextCount++;
+        _astrTexts[iText] = strLine.subSequence(iStart, iEnd).toString();
+        _aiTextSlots[iSlot] = iText + 1;
+
+        // keep the hash table at most half full
+        if (_iTextCount * 2 > _aiTextSlots.length) {
+            rehash();
+        }
+
+        return iText;
+    }
+
+    private void rehash() {
+        int[] aiTextSlots = new int[_aiTextSlots.length * 2];
+        int iMask = aiTextSlots.length - 1;
+
+        for (int iText = 0; iText < _iTextCount; iText++) {
+            int iSlot = spread(_astrTexts[iText].hashCode()) & iMask;
+
+            while (aiTextSlots[iSlot] != 0) {
+                iSlot = (iSlot + 1) & iMask;
+            }
+
+            aiTextSlots[iSlot] = iText + 1;
+        }
+
+        _aiTextSlots = aiTextSlots;
+    }
+
+    private static int spread(final int iHash) {
+        return iHash ^ (iHash >>> 16);
+    }
+
+    private static boolean isEqual(final String strText, final CharSequence strLine, final int iStart,
+                                   final int iEnd) {
+        if (strText.length() != iEnd - iStart) {
+            return false;
+        }
+
+        for (int iPosition = iStart; iPosition < iEnd; iPosition++) {
+            if (strText.charAt(iPosition - iStart) != strLine.charAt(iPosition)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the number of tokens in the buffer.
+     *
+     * @return number of tokens
+     */
+    public int size() {
+        return _iSize;
+    }
+
+    /**
+     * Get the number of different texts of the tokens.
+     *
+     * @return number of texts in the text table
+     */
+    public int getTextCount() {
+        return _iTextCount;
+    }
+
+    /**
+     * Get the type of a token.
+     *
+     * @param iToken token number
+     * @return type of the token
+     */
+    public BasicTokenType getType(final int iToken) {
+        return TYPES[_aiTypes[check(iToken)]];
+    }
+
+    /**
+     * Get the text of a token.
+     *
+     * @param iToken token number
+     * @return text of the token
+     */
+    public String getText(final int iToken) {
+        return _astrTexts[_aiTexts[check(iToken)]];
+    }
+
+    /**
+     * Get the BASIC line number of a token.
+     *
+     * @param iToken token number
+     * @return BASIC line number
+     */
+    public int getLine(final int iToken) {
+        return _aiLines[check(iToken)];
+    }
+
+    /**
+     * Get the sequence number of the command of a token.
+     *
+     * @param iToken token number
+     * @return sequence number of the command
+     */
+    public int getCommandSequence(final int iToken) {
+        return _aiCommandSequences[check(iToken)];
+    }
+
+    /**
+     * Create a Token object for a token of the buffer.
+     *
+     * @param iToken token number
+     * @return the token
+     */
+    public Token getToken(final int iToken) {
+        return new Token(getText(iToken), getType(iToken), getLine(iToken), getCommandSequence(iToken));
+    }
+
+    /**
+     * Create the list of Token objects of the buffer.
+     *
+     * @return list of tokens
+     */
+    public List<Token> toList() {
+        List<Token> aoTokens = new ArrayList<>(_iSize);
+
+        for (int iToken = 0; iToken < _iSize; iToken++) {
+            aoTokens.add(getToken(iToken));
+        }
+
+        return aoTokens;
+    }
+
+    private int check(final int iToken) {
+        if (iToken < 0 || iToken >= _iSize) {
+            throw new IndexOutOfBoundsException("Token No. [" + iToken + "] not found, size " + _iSize);
+        }
+
+        return iToken;
+    }
+}
@@ -7,11 +7,22 @@ import eu.gricom.basic.error.SyntaxErrorException;
  * <p>
  * Description:
  * <p>
- * The BooleanValue is the container to manage all boolean values.
+ * The BooleanValue is the container to manage all boolean values. The values are immutable, the results of
+ * comparisons and logical operations are the shared instances TRUE and FALSE.
  * <p>
  * (c) = 2020,.., by Andreas Grimm, Den Haag, The Netherlands
  */
 public class BooleanValue implements Value {
+    /**
+     * The shared instance of true.
+     */
+    public static final BooleanValue TRUE = new BooleanValue(true);
+
+    /**
+     * The shared instance of false.
+     */
+    public static final BooleanValue FALSE = new BooleanValue(false);
+
     private final boolean _bValue;
 
     /**
@@ -24,6 +35,16 @@ public class BooleanValue implements Value {
         _bValue = bValue;
     }
 
+    /**
+     * Get the shared instance of a boolean value.
+     *
+     * @param bValue the value
+     * @return TRUE or FALSE
+     */
+    public static BooleanValue valueOf(final boolean bValue) {
+        return bValue ? TRUE : FALSE;
+    }
+
     /**
      * Douple Type constructor.
      *
@@ -100,6 +121,26 @@ public class BooleanValue implements Value {
         return this;
     }
 
+    /**
+     * Get the type of the value.
+     *
+     * @return BOOLEAN
+     */
+    @Override
+    public final VariableType getType() {
+        return VariableType.BOOLEAN;
+    }
+
+    /**
+     * Return the value field as a primitive.
+     *
+     * @return the boolean value
+     */
+    @Override
+    public final boolean evaluateBoolean() {
+        return _bValue;
+    }
+
     /**
      * Return the value field as an object.
      *
@@ -114,10 +155,10 @@ public class BooleanValue implements Value {
     public final Value equals(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof BooleanValue) {
             if (this.toReal() == oValue.toReal()) {
-                return new BooleanValue(true);
+                return TRUE;
             }
 
-            return new BooleanValue(false);
+            return FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not a boolean");
@@ -127,10 +168,10 @@ public class BooleanValue implements Value {
     public final Value notEqual(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof BooleanValue) {
             if (this.toReal() != oValue.toReal()) {
-                return new BooleanValue(true);
+                return TRUE;
             }
 
-            return new BooleanValue(false);
+            return FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not a boolean");
@@ -146,12 +187,12 @@ public class BooleanValue implements Value {
 
             // A + (non A) = 1
             if (((BooleanValue) oValue).isTrue() != _bValue) {
-                return new BooleanValue(true);
+                return TRUE;
             }
 
             // A + 1 = 1
             if (((BooleanValue) oValue).isTrue()) {
-                return new BooleanValue(true);
+                return TRUE;
             } else {
                 // A + 0 = A
                 return this;
@@ -171,12 +212,12 @@ public class BooleanValue implements Value {
         if (oValue instanceof BooleanValue) {
             // 0 * A = 0
             if (!_bValue) {
-                return new BooleanValue(false);
+                return FALSE;
             }
 
             // 1 * A = A
             if (_bValue) {
-                return new BooleanValue(true);
+                return TRUE;
             }
 
             // A * A = A: covered above
@@ -211,10 +252,10 @@ public class BooleanValue implements Value {
         if (oValue instanceof BooleanValue) {
 
             if (_bValue && ((BooleanValue) oValue).isTrue()) {
-                return new BooleanValue(true);
+                return TRUE;
             }
 
-            return new BooleanValue(false);
+            return FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not of type boolean");
@@ -225,10 +266,10 @@ public class BooleanValue implements Value {
         if (oValue instanceof BooleanValue) {
 
             if (_bValue || ((BooleanValue) oValue).isTrue()) {
-                return new BooleanValue(true);
+                return TRUE;
             }
 
-            return new BooleanValue(false);
+            return FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not of type boolean");
@@ -241,9 +282,9 @@ public class BooleanValue implements Value {
             BooleanValue oWorkValue = (BooleanValue) oValue;
 
             if (_bValue == oWorkValue.toBoolean()) {
-                return new BooleanValue(false);
+                return FALSE;
             } else {
-                return new BooleanValue(true);
+                return TRUE;
             }
         }
 
@@ -4,15 +4,28 @@ import eu.gricom.basic.error.DivideByZeroException;
 import eu.gricom.basic.error.SyntaxErrorException;
 
 /**
- * RealValue.java
+ * IntegerValue.java
  * <p>
  * Description:
  * <p>
- * The NumberValue is the container to hold all numeric values.
+ * The NumberValue is the container to hold all numeric values. The values are immutable; like Integer.valueOf(),
+ * valueOf() returns shared instances for the small numbers used most as counters and indices, and the results of the
+ * operations are created by it.
  * <p>
  * (c) = 2020,.., by Andreas Grimm, Den Haag, The Netherlands
  */
 public class IntegerValue implements Value {
+    // range of the shared instances
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 1023;
+    private static final IntegerValue[] CACHE = new IntegerValue[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int iValue = CACHE_LOW; iValue <= CACHE_HIGH; iValue++) {
+            CACHE[iValue - CACHE_LOW] = new IntegerValue(iValue);
+        }
+    }
+
     private final int _iValue;
 
     /**
@@ -25,6 +38,20 @@ public class IntegerValue implements Value {
         _iValue = iValue;
     }
 
+    /**
+     * Get an integer value, shared for small numbers.
+     *
+     * @param iValue the number
+     * @return the value
+     */
+    public static IntegerValue valueOf(final int iValue) {
+        if (iValue >= CACHE_LOW && iValue <= CACHE_HIGH) {
+            return CACHE[iValue - CACHE_LOW];
+        }
+
+        return new IntegerValue(iValue);
+    }
+
     /**
      * Default constructor.
      *
@@ -76,14 +103,44 @@ public class IntegerValue implements Value {
         return this;
     }
 
+    /**
+     * Get the type of the value.
+     *
+     * @return INTEGER
+     */
+    @Override
+    public final VariableType getType() {
+        return VariableType.INTEGER;
+    }
+
+    /**
+     * Return the value field as a primitive.
+     *
+     * @return the number value
+     */
+    @Override
+    public final int evaluateInt() {
+        return _iValue;
+    }
+
+    /**
+     * Return the value field as a primitive.
+     *
+     * @return the number value
+     */
+    @Override
+    public final double evaluateDouble() {
+        return _iValue;
+    }
+
     @Override
     public final Value equals(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof IntegerValue) {
             if (this.toInt() == ((IntegerValue) oValue).toInt()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an integer");
@@ -93,10 +150,10 @@ public class IntegerValue implements Value {
     public final Value notEqual(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof IntegerValue) {
             if (this.toInt() != ((IntegerValue) oValue).toInt()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an integer");
@@ -105,10 +162,10 @@ public class IntegerValue implements Value {
     @Override
     public final Value plus(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof IntegerValue) {
-            IntegerValue oReturn = new IntegerValue(_iValue + ((IntegerValue) oValue).toInt());
+            IntegerValue oReturn = valueOf(_iValue + ((IntegerValue) oValue).toInt());
             return oReturn;
         } else if (oValue instanceof RealValue) {
-            IntegerValue oReturn = new IntegerValue(_iValue + ((RealValue) oValue).toInt());
+            IntegerValue oReturn = valueOf(_iValue + ((RealValue) oValue).toInt());
             return oReturn;
         }
 
@@ -118,10 +175,10 @@ public class IntegerValue implements Value {
     @Override
     public final Value minus(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof IntegerValue) {
-            IntegerValue oReturn = new IntegerValue(_iValue - ((IntegerValue) oValue).toInt());
+            IntegerValue oReturn = valueOf(_iValue - ((IntegerValue) oValue).toInt());
             return oReturn;
         } else if (oValue instanceof RealValue) {
-            IntegerValue oReturn = new IntegerValue(_iValue - ((RealValue) oValue).toInt());
+            IntegerValue oReturn = valueOf(_iValue - ((RealValue) oValue).toInt());
             return oReturn;
         }
 
@@ -131,10 +188,10 @@ public class IntegerValue implements Value {
     @Override
     public final Value multiply(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof IntegerValue) {
-            IntegerValue oReturn = new IntegerValue(_iValue * ((IntegerValue) oValue).toInt());
+            IntegerValue oReturn = valueOf(_iValue * ((IntegerValue) oValue).toInt());
             return oReturn;
         } else if (oValue instanceof RealValue) {
-            IntegerValue oReturn = new IntegerValue(_iValue * ((RealValue) oValue).toInt());
+            IntegerValue oReturn = valueOf(_iValue * ((RealValue) oValue).toInt());
             return oReturn;
         }
 
@@ -147,7 +204,7 @@ public class IntegerValue implements Value {
 
         if (oValue instanceof IntegerValue) {
             if (((IntegerValue) oValue).toInt() != 0) {
-                oReturn = new IntegerValue(_iValue / ((IntegerValue) oValue).toInt());
+                oReturn = valueOf(_iValue / ((IntegerValue) oValue).toInt());
             } else {
                 throw new DivideByZeroException(this.toInt() + "/" + ((IntegerValue) oValue).toInt() + " is a " + "division by zero");
             }
@@ -163,7 +220,7 @@ public class IntegerValue implements Value {
 
         if (oValue instanceof IntegerValue) {
             if (((IntegerValue) oValue).toInt() != 0) {
-                oReturn = new IntegerValue(_iValue % ((IntegerValue) oValue).toInt());
+                oReturn = valueOf(_iValue % ((IntegerValue) oValue).toInt());
             } else {
                 throw new DivideByZeroException(this.toInt() + "%" + ((IntegerValue) oValue).toInt() + " is a division by zero");
             }
@@ -176,10 +233,10 @@ public class IntegerValue implements Value {
     @Override
     public final Value shiftLeft(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof IntegerValue) {
-            IntegerValue oReturn = new IntegerValue(_iValue * 2 * ((IntegerValue) oValue).toInt());
+            IntegerValue oReturn = valueOf(_iValue * 2 * ((IntegerValue) oValue).toInt());
             return oReturn;
         } else if (oValue instanceof RealValue) {
-            IntegerValue oReturn = new IntegerValue(_iValue * 2 * ((RealValue) oValue).toInt());
+            IntegerValue oReturn = valueOf(_iValue * 2 * ((RealValue) oValue).toInt());
             return oReturn;
         }
 
@@ -191,10 +248,10 @@ public class IntegerValue implements Value {
         if (oValue instanceof IntegerValue) {
 
             if (_iValue > 0 && ((IntegerValue) oValue).toInt() > 0) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not of type integer");
@@ -205,10 +262,10 @@ public class IntegerValue implements Value {
         if (oValue instanceof IntegerValue) {
 
             if (_iValue > 0 || ((IntegerValue) oValue).toInt() > 0) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not of type integer");
@@ -220,7 +277,7 @@ public class IntegerValue implements Value {
 
         if (oValue instanceof IntegerValue) {
             if (((IntegerValue) oValue).toInt() != 0) {
-                oReturn = new IntegerValue(_iValue / (2 * ((IntegerValue) oValue).toInt()));
+                oReturn = valueOf(_iValue / (2 * ((IntegerValue) oValue).toInt()));
             } else {
                 throw new DivideByZeroException(this.toInt() + ">>" + ((IntegerValue) oValue).toInt()
                                                         + " is a division by zero");
@@ -236,11 +293,11 @@ public class IntegerValue implements Value {
         IntegerValue oReturn;
 
         if (oValue instanceof IntegerValue) {
-            oReturn = new IntegerValue(new RealValue(Math.pow(_iValue, ((IntegerValue) oValue).toInt())).toInt());
+            oReturn = valueOf((int) Math.pow(_iValue, ((IntegerValue) oValue).toInt()));
 
             return oReturn;
         } else if (oValue instanceof RealValue) {
-            oReturn = new IntegerValue(new RealValue(Math.pow(_iValue, ((RealValue) oValue).toInt())).toInt());
+            oReturn = valueOf((int) Math.pow(_iValue, ((RealValue) oValue).toInt()));
             return oReturn;
         }
 
@@ -251,16 +308,16 @@ public class IntegerValue implements Value {
     public final Value smallerThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof IntegerValue) {
             if (this.toInt() < ((IntegerValue) oValue).toInt()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         } else if (oValue instanceof RealValue) {
             if (this.toInt() < ((RealValue) oValue).toInt()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an integer");
@@ -270,16 +327,16 @@ public class IntegerValue implements Value {
     public final Value smallerEqualThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof IntegerValue) {
             if (this.toInt() <= ((IntegerValue) oValue).toInt()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         } else if (oValue instanceof RealValue) {
             if (this.toInt() <= ((RealValue) oValue).toInt()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an integer");
@@ -289,16 +346,16 @@ public class IntegerValue implements Value {
     public final Value largerThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof IntegerValue) {
             if (this.toInt() > ((IntegerValue) oValue).toInt()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         } else if (oValue instanceof RealValue) {
             if (this.toInt() > ((RealValue) oValue).toInt()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an integer");
@@ -308,16 +365,16 @@ public class IntegerValue implements Value {
     public final Value largerEqualThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof IntegerValue) {
             if (this.toInt() >= ((IntegerValue) oValue).toInt()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         } else if (oValue instanceof RealValue) {
             if (this.toInt() >= ((RealValue) oValue).toInt()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an integer");
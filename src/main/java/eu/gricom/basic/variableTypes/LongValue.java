@@ -66,15 +66,25 @@ public class LongValue implements Value {
         return this;
     }
 
+    /**
+     * Get the type of the value.
+     *
+     * @return LONG
+     */
+    @Override
+    public final VariableType getType() {
+        return VariableType.LONG;
+    }
+
 
     @Override
     public final Value equals(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof LongValue) {
             if (this.toLong() == ((LongValue) oValue).toLong()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an Long");
@@ -84,10 +94,10 @@ public class LongValue implements Value {
     public final Value notEqual(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof LongValue) {
             if (this.toLong() != ((LongValue) oValue).toLong()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an Long");
@@ -172,10 +182,10 @@ public class LongValue implements Value {
         if (oValue instanceof LongValue) {
 
             if (_lValue > 0 && ((LongValue) oValue).toLong() > 0) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not of type Long");
@@ -186,10 +196,10 @@ public class LongValue implements Value {
         if (oValue instanceof LongValue) {
 
             if (_lValue > 0 || ((LongValue) oValue).toLong() > 0) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not of type Long");
@@ -229,10 +239,10 @@ public class LongValue implements Value {
     public final Value smallerThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof LongValue) {
             if (this.toLong() < ((LongValue) oValue).toLong()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an Long");
@@ -242,10 +252,10 @@ public class LongValue implements Value {
     public final Value smallerEqualThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof LongValue) {
             if (this.toLong() <= ((LongValue) oValue).toLong()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an Long");
@@ -255,10 +265,10 @@ public class LongValue implements Value {
     public final Value largerThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof LongValue) {
             if (this.toLong() > ((LongValue) oValue).toLong()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an Long");
@@ -268,10 +278,10 @@ public class LongValue implements Value {
     public final Value largerEqualThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof LongValue) {
             if (this.toLong() >= ((LongValue) oValue).toLong()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not an Long");
@@ -1,7 +1,5 @@
 package eu.gricom.basic.variableTypes;
 
-import eu.gricom.basic.helper.EnvParam;
-
 import eu.gricom.basic.error.DivideByZeroException;
 import eu.gricom.basic.error.SyntaxErrorException;
 
@@ -18,15 +16,7 @@ import java.math.RoundingMode;
  * (c) = 2020,.., by Andreas Grimm, Den Haag, The Netherlands
  */
 public class RealValue implements Value {
-    private double _fValue;
-
-    // BCD Representation
-    private final int _iMaxNumOfDigits = EnvParam.getMAX_BCD_DIGITS(); // max value of float + decimal point
-    private char[] _aiBCDValue = new char[_iMaxNumOfDigits];
-    private char[] _aiBCDMaxValue = new char[_iMaxNumOfDigits];
-    private char[] _aiBCDMinValue = new char[_iMaxNumOfDigits];
-    private final double _fMaxReal = Float.MAX_VALUE;
-    private final double _fMinReal = Float.MIN_VALUE;
+    private final double _fValue;
 
     /**
      * Default constructor.
@@ -79,14 +69,34 @@ public class RealValue implements Value {
         return this;
     }
 
+    /**
+     * Get the type of the value.
+     *
+     * @return REAL
+     */
+    @Override
+    public final VariableType getType() {
+        return VariableType.REAL;
+    }
+
+    /**
+     * Return the value field as a primitive.
+     *
+     * @return the number value
+     */
+    @Override
+    public final double evaluateDouble() {
+        return _fValue;
+    }
+
     @Override
     public final Value equals(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof RealValue) {
             if (this.toReal() == oValue.toReal()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not a number");
@@ -96,10 +106,10 @@ public class RealValue implements Value {
     public final Value notEqual(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof RealValue) {
             if (this.toReal() != oValue.toReal()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not a number");
@@ -177,10 +187,10 @@ public class RealValue implements Value {
         if (oValue instanceof RealValue) {
 
             if (_fValue > 0 && oValue.toReal() > 0) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not of type Real");
@@ -191,10 +201,10 @@ public class RealValue implements Value {
         if (oValue instanceof RealValue) {
 
             if (_fValue > 0 || oValue.toReal() > 0) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not of type Real");
@@ -222,10 +232,10 @@ public class RealValue implements Value {
     public final Value smallerThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof RealValue) {
             if (this.toReal() < oValue.toReal()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not a number");
@@ -235,10 +245,10 @@ public class RealValue implements Value {
     public final Value smallerEqualThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof RealValue) {
             if (this.toReal() <= oValue.toReal()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not a number");
@@ -248,10 +258,10 @@ public class RealValue implements Value {
     public final Value largerThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof RealValue) {
             if (this.toReal() > oValue.toReal()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not a number");
@@ -261,10 +271,10 @@ public class RealValue implements Value {
     public final Value largerEqualThan(final Value oValue) throws SyntaxErrorException {
         if (oValue instanceof RealValue) {
             if (this.toReal() >= oValue.toReal()) {
-                return new BooleanValue(true);
+                return BooleanValue.TRUE;
             }
 
-            return new BooleanValue(false);
+            return BooleanValue.FALSE;
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not a number");
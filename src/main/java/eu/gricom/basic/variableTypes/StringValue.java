@@ -4,7 +4,9 @@ import eu.gricom.basic.error.DivideByZeroException;
 import eu.gricom.basic.error.RuntimeException;
 import eu.gricom.basic.error.SyntaxErrorException;
 
-import java.util.Objects;
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.Locale;
 
 /**
  * StringValue.java
@@ -13,10 +15,28 @@ import java.util.Objects;
  *
  * The StringValue is the container to hold all strings.
  *
+ * A string built by concatenation (A$ = A$ + X$) is not copied for every step: the result of plus() is a view on a
+ * prefix of a StringBuilder, which is shared with the value it was built from. As long as a value ends at the end of
+ * its buffer, the next concatenation appends in place, as the prefixes seen by older values do not change; otherwise
+ * the concatenation copies into a new buffer. In the same way, a sub-string (A$[I, J]) is a view on the characters of
+ * the string it is taken from, see slice(). The content is only turned into a String when the value is observed,
+ * e.g. by toString() for PRINT or MID$, and then kept. A view keeps the characters of its origin alive.
+ *
+ * All comparisons are based on a single compareTo(), using the collation selected with @PRAGMA "collation": by
+ * default, the strings are compared by the codes of their characters.
+ *
  * (c) = 2020,.., by Andreas Grimm, Den Haag, The Netherlands
  */
 public class StringValue implements Value {
-    private final String _strValue;
+    // collation of the comparisons, null for the order of the character codes
+    private static Comparator<String> _oCollation = null;
+
+    // the content as a String, null until a view is observed
+    private String _strValue;
+    // the characters the value is a view on: a String, or the buffer of a concatenation
+    private final CharSequence _oChars;
+    private final int _iOffset;
+    private final int _iLength;
 
     /**
      * Default constructor.
@@ -25,19 +45,48 @@ public class StringValue implements Value {
      */
     public StringValue(final String strValue) {
         _strValue = strValue;
+        _oChars = strValue;
+        _iOffset = 0;
+        _iLength = strValue != null ? strValue.length() : 0;
+    }
+
+    /**
+     * Constructor of a view, e.g. the result of a concatenation or a sub-string.
+     *
+     * @param oChars characters holding the content
+     * @param iOffset position of the first character of the content
+     * @param iLength length of the content
+     */
+    private StringValue(final CharSequence oChars, final int iOffset, final int iLength) {
+        _strValue = null;
+        _oChars = oChars;
+        _iOffset = iOffset;
+        _iLength = iLength;
     }
 
     @Override
     public final String toString() {
+        if (_strValue == null && _oChars != null) {
+            _strValue = _oChars.subSequence(_iOffset, _iOffset + _iLength).toString();
+        }
 
         return _strValue;
     }
 
+    /**
+     * Get the length of the string, without turning a view into a String.
+     *
+     * @return number of characters
+     */
+    public final int length() {
+        return _iLength;
+    }
+
 
     @Override
     public final double toReal() {
 
-        return Double.parseDouble(_strValue);
+        return Double.parseDouble(toString());
     }
 
 
@@ -46,15 +95,21 @@ public class StringValue implements Value {
         return this;
     }
 
+    /**
+     * Get the type of the value.
+     *
+     * @return STRING
+     */
+    @Override
+    public final VariableType getType() {
+        return VariableType.STRING;
+    }
+
 
     @Override
     public final Value equals(final Value oValue) throws SyntaxErrorException {
-        if (oValue instanceof StringValue) {
-            if (this.toString().matches(oValue.toString())) {
-                return new BooleanValue(true);
-            }
-
-            return new BooleanValue(false);
+        if (oValue instanceof StringValue oString) {
+            return BooleanValue.valueOf(isEqual(oString));
         }
 
         throw new SyntaxErrorException(oValue.content() + " is not a String");
@@ -62,20 +117,133 @@ public class StringValue implements Value {
 
     @Override
     public final Value notEqual(final Value oValue) throws SyntaxErrorException {
-        if (oValue instanceof StringValue) {
-            if (this.toString().matches(oValue.toString())) {
-                return new BooleanValue(false);
+        if (oValue instanceof StringValue oString) {
+            return BooleanValue.valueOf(!isEqual(oString));
+        }
+
+        throw new SyntaxErrorException(oValue.content() + " is not a String");
+    }
+
+    /**
+     * Compare two strings for equality, using the selected collation.
+     *
+     * @param oValue the other string
+     * @return true if both strings are equal
+     */
+    private boolean isEqual(final StringValue oValue) {
+        if (_oCollation == null) {
+            return _iLength == oValue._iLength && compareChars(oValue) == 0;
+        }
+
+        return _oCollation.compare(toString(), oValue.toString()) == 0;
+    }
+
+    /**
+     * Compare two strings, using the selected collation. Without a collation, the strings are ordered by the codes of
+     * their characters.
+     *
+     * @param oValue the other string
+     * @return a negative number, zero, or a positive number if this string is smaller than, equal to, or larger than
+     * the other string
+     */
+    public final int compareTo(final StringValue oValue) {
+        if (_oCollation == null) {
+            return compareChars(oValue);
+        }
+
+        return _oCollation.compare(toString(), oValue.toString());
+    }
+
+    /**
+     * Compare two strings by the codes of their characters, without turning a view into a String.
+     *
+     * @param oValue the other string
+     * @return a negative number, zero, or a positive number as in String.compareTo()
+     */
+    private int compareChars(final StringValue oValue) {
+        if (_strValue != null && oValue._strValue != null) {
+            return _strValue.compareTo(oValue._strValue);
+        }
+
+        int iLength = Math.min(_iLength, oValue._iLength);
+
+        for (int iIndex = 0; iIndex < iLength; iIndex++) {
+            char cThis = _oChars.charAt(_iOffset + iIndex);
+            char cOther = oValue._oChars.charAt(oValue._iOffset + iIndex);
+
+            if (cThis != cOther) {
+                return cThis - cOther;
             }
+        }
+
+        return _iLength - oValue._iLength;
+    }
+
+    /**
+     * Select the collation of all string comparisons. Supported are:
+     * <ul>
+     *     <li>"binary": the strings are ordered by the codes of their characters (default),</li>
+     *     <li>"nocase": as binary, but upper and lower case letters are equal,</li>
+     *     <li>a language tag, e.g. "de" or "en-US": the strings are ordered following the rules of the language.</li>
+     * </ul>
+     *
+     * @param strCollation name of the collation
+     * @return true if the collation is selected, false if it is unknown and the previous collation is kept
+     */
+    public static boolean setCollation(final String strCollation) {
+        String strName = strCollation.trim().toLowerCase(Locale.ROOT);
 
-            return new BooleanValue(true);
+        if (strName.equals("binary")) {
+            _oCollation = null;
+            return true;
         }
 
-        throw new SyntaxErrorException(oValue.content() + " is not a String");
+        if (strName.equals("nocase")) {
+            _oCollation = String.CASE_INSENSITIVE_ORDER;
+            return true;
+        }
+
+        Locale oLocale = Locale.forLanguageTag(strName);
+
+        for (Locale oAvailable : Collator.getAvailableLocales()) {
+            if (!oLocale.getLanguage().isEmpty() && oAvailable.getLanguage().equals(oLocale.getLanguage())) {
+                _oCollation = Collator.getInstance(oLocale)::compare;
+                return true;
+            }
+        }
+
+        return false;
     }
 
     @Override
     public final Value plus(final Value oValue) throws SyntaxErrorException {
-        return new StringValue(_strValue + oValue.toString());
+        if (_oChars instanceof StringBuilder oBuffer && _iOffset == 0 && oBuffer.length() == _iLength) {
+            // no other value has appended to the buffer: append in place
+            appendTo(oBuffer, oValue);
+
+            return new StringValue(oBuffer, 0, oBuffer.length());
+        }
+
+        StringBuilder oBuffer = new StringBuilder(Math.max(16, 2 * _iLength));
+
+        appendTo(oBuffer, this);
+        appendTo(oBuffer, oValue);
+
+        return new StringValue(oBuffer, 0, oBuffer.length());
+    }
+
+    /**
+     * Append the content of a value to a buffer, without turning a view into a String.
+     *
+     * @param oBuffer the buffer
+     * @param oValue the value
+     */
+    private static void appendTo(final StringBuilder oBuffer, final Value oValue) {
+        if (oValue instanceof StringValue oString && oString._oChars != null) {
+            oBuffer.append(oString._oChars, oString._iOffset, oString._iOffset + oString._iLength);
+        } else {
+            oBuffer.append(oValue.toString());
+        }
     }
 
     @Override
@@ -125,12 +293,8 @@ public class StringValue implements Value {
 
     @Override
     public final Value smallerThan(final Value oValue) throws SyntaxErrorException {
-        if (oValue instanceof StringValue) {
-            if (this.toString().compareTo(oValue.toString()) < 0) {
-                return new BooleanValue(true);
-            } else {
-                return new BooleanValue(false);
-            }
+        if (oValue instanceof StringValue oString) {
+            return BooleanValue.valueOf(compareTo(oString) < 0);
         }
 
         throw new SyntaxErrorException(oValue.content() + " value is not a String");
@@ -138,22 +302,17 @@ public class StringValue implements Value {
 
     @Override
     public final Value smallerEqualThan(final Value oValue) throws SyntaxErrorException {
-        if (Objects.equals(equals(oValue).toString(), "True")
-                || Objects.equals(smallerThan(oValue).toString(), "True")) {
-            return new BooleanValue(true);
-        } else {
-            return new BooleanValue(false);
+        if (oValue instanceof StringValue oString) {
+            return BooleanValue.valueOf(compareTo(oString) <= 0);
         }
+
+        throw new SyntaxErrorException(oValue.content() + " value is not a String");
     }
 
     @Override
     public final Value largerThan(final Value oValue) throws SyntaxErrorException {
-        if (oValue instanceof StringValue) {
-            if (this.toString().compareTo(oValue.toString()) > 0) {
-                return new BooleanValue(true);
-            } else {
-                return new BooleanValue(false);
-            }
+        if (oValue instanceof StringValue oString) {
+            return BooleanValue.valueOf(compareTo(oString) > 0);
         }
 
         throw new SyntaxErrorException(oValue.content() + " value is not a String");
@@ -161,18 +320,17 @@ public class StringValue implements Value {
 
     @Override
     public final Value largerEqualThan(final Value oValue) throws SyntaxErrorException {
-        if (Objects.equals(equals(oValue).toString(), "True")
-                || Objects.equals(largerThan(oValue).toString(), "True")) {
-            return new BooleanValue(true);
-        } else {
-            return new BooleanValue(false);
+        if (oValue instanceof StringValue oString) {
+            return BooleanValue.valueOf(compareTo(oString) >= 0);
         }
+
+        throw new SyntaxErrorException(oValue.content() + " value is not a String");
     }
 
     @Override
     public final String content() {
 
-        return _strValue;
+        return toString();
     }
 
     /**
@@ -189,47 +347,23 @@ public class StringValue implements Value {
     }
 
     /**
-     * The keys extentions (squared ('[]') or round ('()') brackets are ignored in previous steps of the value
-     * retrieval. During this step they are now processed.
+     * Get a sub-string (A$[I] or A$[I, J]) as a view on the characters of this string, without copying them. The
+     * positions start with 0, and the end position is part of the sub-string.
      *
-     * @param strKey the original requesting key.
-     * @return processed string, either using round or squared brackets: substring or string being part of an array.
-     * @throws RuntimeException for any errors occuring in the execution of the evaluation. Currently this happens if
-     * the index in an array subscription is larger than the array.
+     * @param iStart position of the first character
+     * @param iEnd position of the last character
+     * @return the sub-string
+     * @throws RuntimeException if a position is outside of the string
      */
-    public final Value process(final String strKey) throws RuntimeException {
-
-        if (strKey.indexOf("[") > 0) {
-            return new StringValue(squareBrackets(strKey));
+    public final StringValue slice(final int iStart, final int iEnd) throws RuntimeException {
+        if (iEnd >= _iLength) {
+            throw new RuntimeException("Index value " + iEnd + " out of bounds");
         }
 
-        return this;
-    }
-
-    private String squareBrackets(final String strKey) throws RuntimeException {
-        // lets check whether between the brackets is a comma
-        int iComma = strKey.indexOf(",");
-        int iStart = strKey.indexOf("[");
-        int iEnd = strKey.indexOf("]");
-
-        if (iComma > iStart && iComma < iEnd) {
-            int iFirstNo = Integer.parseInt(strKey.substring(iStart + 1, iComma));
-            int iSecondNo = Integer.parseInt(strKey.substring(iComma + 1, iEnd));
-
-            if (iSecondNo >= _strValue.length()) {
-                throw new RuntimeException("Index value " + iSecondNo + " out of bounds");
-            }
-
-            return _strValue.substring(iFirstNo, iSecondNo + 1);
-        }
-
-        // no - no comma, we return the pointed character
-        int iPosition = Integer.parseInt(strKey.substring(iStart + 1, iEnd));
-
-        if (iPosition >= _strValue.length()) {
-            throw new RuntimeException("Index value " + iPosition + " out of bounds");
+        if (iStart < 0 || iStart > iEnd + 1) {
+            throw new RuntimeException("Index value " + iStart + " out of bounds");
         }
 
-        return String.valueOf(_strValue.charAt(iPosition));
+        return new StringValue(_oChars, _iOffset + iStart, iEnd - iStart + 1);
     }
 }
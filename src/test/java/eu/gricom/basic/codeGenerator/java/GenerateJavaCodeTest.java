@@ -0,0 +1,95 @@
+package eu.gricom.basic.codeGenerator.java;
+
+import eu.gricom.basic.linker.TestProgram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GenerateJavaCodeTest {
+
+    @TempDir
+    Path _oDirectory;
+
+    private GenerateJavaCode translate(final String strProgram) throws Exception {
+        return new GenerateJavaCode(TestProgram.link(strProgram));
+    }
+
+    private String run(final String strProgram) throws Exception {
+        GenerateJavaCode oGenerator = translate(strProgram);
+        File oJarFile = _oDirectory.resolve("TEST.jar").toFile();
+        JarGenerator.createJar(oGenerator.getClassName(), oGenerator.generate(), oJarFile);
+
+        PrintStream oOut = System.out;
+        ByteArrayOutputStream oOutput = new ByteArrayOutputStream();
+
+        try (URLClassLoader oLoader = new URLClassLoader(new URL[] {oJarFile.toURI().toURL()},
+                                                         getClass().getClassLoader())) {
+            Method oRun = oLoader.loadClass(oGenerator.getClassName()).getDeclaredMethod("run");
+            oRun.setAccessible(true);
+
+            System.setOut(new PrintStream(oOutput, true));
+            oRun.invoke(null);
+        } finally {
+            System.setOut(oOut);
+        }
+
+        return oOutput.toString().replace(System.lineSeparator(), "\n");
+    }
+
+    @Test
+    public void testLoopAndGosub() throws Exception {
+        String strOutput = run("10 S% = 0\n20 FOR I% = 1 TO 100\n30 S% = S% + I%\n40 NEXT I%\n50 GOSUB 100\n"
+                                       + "60 PRINT S%\n70 GOTO 200\n100 S% = S% * 2\n110 RETURN\n200 REM\n");
+
+        assertEquals("10100\n", strOutput);
+    }
+
+    @Test
+    public void testArraysStringsAndData() throws Exception {
+        String strOutput = run("10 DIM A(3)\n20 FOR I = 0 TO 3\n30 READ A(I)\n40 NEXT I\n50 T$ = \"SUM\"\n"
+                                       + "60 T$ = T$ + \"=\"\n70 PRINT T$; A(0) + A(1) + A(2) + A(3)\n"
+                                       + "80 DATA 1, 2, 3, 4\n");
+
+        assertEquals("SUM=10.0\n", strOutput);
+    }
+
+    @Test
+    public void testSubroutineMethods() throws Exception {
+        String strSource = translate("10 X = 1\n20 GOSUB 100\n30 END\n100 X = X + 1\n110 RETURN\n").generate();
+
+        assertTrue(strSource.contains("final class TEST {"));
+        assertTrue(strSource.contains("private static double dX;"));
+        assertTrue(strSource.contains("private static void gosub100() throws Exception {"));
+    }
+
+    @Test
+    public void testExecutableJar() throws Exception {
+        GenerateJavaCode oGenerator = translate("10 PRINT \"HELLO\"\n");
+        File oJarFile = _oDirectory.resolve("TEST.jar").toFile();
+        JarGenerator.createJar(oGenerator.getClassName(), oGenerator.generate(), oJarFile);
+
+        // the jar runs on its own, also if the GD-BASIC classes are loaded from a directory of classes
+        Process oProcess = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                                              "-jar", oJarFile.getAbsolutePath())
+                .redirectErrorStream(true)
+                .start();
+        oProcess.getOutputStream().close();
+        String strOutput = new String(oProcess.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+        assertTrue(oProcess.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(0, oProcess.exitValue(), strOutput);
+        assertTrue(strOutput.contains("HELLO"), strOutput);
+    }
+}
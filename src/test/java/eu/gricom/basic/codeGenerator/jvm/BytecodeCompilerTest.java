@@ -0,0 +1,49 @@
+package eu.gricom.basic.codeGenerator.jvm;
+
+import eu.gricom.basic.error.DivideByZeroException;
+import eu.gricom.basic.linker.TestProgram;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.optimizer.Specializer;
+import eu.gricom.basic.statements.VariableExpression;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BytecodeCompilerTest {
+
+    private CompiledProgram compile(final String strProgram) throws Exception {
+        Program oProgram = TestProgram.link(strProgram);
+        new Specializer(oProgram).specialize();
+
+        return new BytecodeCompiler(oProgram).compile();
+    }
+
+    @Test
+    public void testIntegerLoop() throws Exception {
+        compile("10 BC_SUM% = 0\n20 BC_I% = 1\n30 BC_SUM% = BC_SUM% + BC_I%\n40 BC_I% = BC_I% + 1\n"
+                + "50 IF BC_I% <= 100 THEN 30\n60 END\n").run();
+
+        assertEquals(5050, new VariableExpression("BC_SUM%").evaluateInt());
+        assertEquals(101, new VariableExpression("BC_I%").evaluateInt());
+    }
+
+    @Test
+    public void testGosub() throws Exception {
+        compile("10 BC_X = 1\n20 GOSUB 100\n30 GOSUB 100\n40 END\n100 BC_X = BC_X * 3\n110 RETURN\n").run();
+
+        assertEquals(9.0, new VariableExpression("BC_X").evaluateDouble());
+    }
+
+    @Test
+    public void testLineNumbersInStackTrace() throws Exception {
+        CompiledProgram oProgram = compile("10 BC_A# = 1\n20 BC_B# = 0\n30 BC_C# = BC_A# / BC_B#\n40 END\n");
+
+        DivideByZeroException eException = assertThrows(DivideByZeroException.class, oProgram::run);
+        assertTrue(Arrays.stream(eException.getStackTrace()).anyMatch(
+                oElement -> "TEST.bas".equals(oElement.getFileName()) && oElement.getLineNumber() == 30));
+    }
+}
@@ -0,0 +1,60 @@
+package eu.gricom.basic.codeGenerator.pcode;
+
+import eu.gricom.basic.error.CompileErrorException;
+import eu.gricom.basic.linker.TestProgram;
+import eu.gricom.basic.runtimeManager.Execute;
+import eu.gricom.basic.statements.VariableExpression;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PCodeTest {
+
+    private byte[] write(final String strProgram) throws Exception {
+        return new PCodeWriter(TestProgram.link(strProgram)).write();
+    }
+
+    private void run(final String strProgram) throws Exception {
+        Execute oRun = new Execute(new PCodeLoader().load(write(strProgram)));
+        oRun.loadEnvironment();
+        oRun.runProgram();
+    }
+
+    @Test
+    public void testLoop() throws Exception {
+        run("10 PC_SUM% = 0\n20 FOR PC_I% = 1 TO 10\n30 PC_SUM% = PC_SUM% + PC_I%\n40 NEXT PC_I%\n"
+                + "50 PC_J% = 0\n60 WHILE PC_J% < 5\n70 PC_J% = PC_J% + 1\n80 END-WHILE\n");
+
+        assertEquals(55, new VariableExpression("PC_SUM%").evaluateInt());
+        assertEquals(5, new VariableExpression("PC_J%").evaluateInt());
+    }
+
+    @Test
+    public void testGosubAndIf() throws Exception {
+        run("10 PC_X = 1\n20 GOSUB 100\n30 GOSUB 100\n40 GOTO 200\n100 PC_X = PC_X * 3\n110 RETURN\n"
+                + "200 IF PC_X > 5 THEN\n210 PC_Y = 1\n220 ELSE\n230 PC_Y = 2\n240 END-IF\n");
+
+        assertEquals(9.0, new VariableExpression("PC_X").evaluateDouble());
+        assertEquals(1.0, new VariableExpression("PC_Y").evaluateDouble());
+    }
+
+    @Test
+    public void testDataAndArray() throws Exception {
+        run("10 DIM PC_A(3)\n20 FOR PC_K% = 1 TO 3\n30 READ PC_A(PC_K%)\n40 NEXT PC_K%\n"
+                + "50 PC_Z = PC_A(1) + PC_A(2) * PC_A(3)\n60 DATA 2, 3, 4\n");
+
+        assertEquals(14.0, new VariableExpression("PC_Z").evaluateDouble());
+    }
+
+    @Test
+    public void testVersion() throws Exception {
+        byte[] abPCode = write("10 PC_V = 1\n");
+
+        abPCode[7]++;
+        assertThrows(CompileErrorException.class, () -> new PCodeLoader().load(abPCode));
+
+        abPCode[0]++;
+        assertThrows(CompileErrorException.class, () -> new PCodeLoader().load(abPCode));
+    }
+}
@@ -0,0 +1,98 @@
+package eu.gricom.basic.codeGenerator.pcode;
+
+import eu.gricom.basic.linker.TestProgram;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.runtimeManager.Execute;
+import eu.gricom.basic.statements.VariableExpression;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProgramCacheTest {
+    @TempDir
+    Path _oDirectory;
+
+    private static Program source(final String strProgram) {
+        Program oProgram = new Program();
+        oProgram.load("TEST.bas", strProgram);
+
+        return oProgram;
+    }
+
+    private long countEntries() throws Exception {
+        try (Stream<Path> oFiles = Files.list(_oDirectory)) {
+            return oFiles.count();
+        }
+    }
+
+    @Test
+    public void testKey() {
+        String strKey = ProgramCache.getKey(source("10 PK_A = 1\n"), "1.0", "");
+
+        assertEquals(strKey, ProgramCache.getKey(source("10 PK_A = 1\n"), "1.0", ""));
+        assertNotEquals(strKey, ProgramCache.getKey(source("10 PK_A = 2\n"), "1.0", ""));
+        assertNotEquals(strKey, ProgramCache.getKey(source("10 PK_A = 1\n"), "1.1", ""));
+        assertNotEquals(strKey, ProgramCache.getKey(source("10 PK_A = 1\n"), "1.0", "d"));
+    }
+
+    @Test
+    public void testStoreAndLoad() throws Exception {
+        String strSource = "10 PK_SUM% = 0\n20 FOR PK_I% = 1 TO 4\n30 PK_SUM% = PK_SUM% + PK_I%\n40 NEXT PK_I%\n";
+        String strKey = ProgramCache.getKey(source(strSource), "1.0", "");
+        ProgramCache oCache = new ProgramCache(_oDirectory.toString(), ProgramCache.DEFAULT_MAX_SIZE);
+
+        assertNull(oCache.load(strKey));
+        oCache.store(strKey, TestProgram.link(strSource));
+
+        Program oProgram = oCache.load(strKey);
+        assertNotNull(oProgram);
+
+        Execute oRun = new Execute(oProgram);
+        oRun.loadEnvironment();
+        oRun.runProgram();
+
+        assertEquals(10, new VariableExpression("PK_SUM%").evaluateInt());
+    }
+
+    @Test
+    public void testInvalidEntry() throws Exception {
+        ProgramCache oCache = new ProgramCache(_oDirectory.toString(), ProgramCache.DEFAULT_MAX_SIZE);
+        Path oEntry = _oDirectory.resolve("0123.obj");
+
+        Files.write(oEntry, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertNull(oCache.load("0123"));
+        assertFalse(Files.exists(oEntry));
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        Program oProgram = TestProgram.link("10 PK_B = 1\n20 PK_C = PK_B + 2\n");
+        long lSize = new PCodeWriter(oProgram).write().length;
+        ProgramCache oCache = new ProgramCache(_oDirectory.toString(), lSize * 2);
+
+        oCache.store("first", oProgram);
+        oCache.store("second", oProgram);
+        assertEquals(2, countEntries());
+
+        Files.setLastModifiedTime(_oDirectory.resolve("first.obj"),
+                                  Files.getLastModifiedTime(_oDirectory.resolve("second.obj")));
+        Files.setLastModifiedTime(_oDirectory.resolve("second.obj"), FileTime.fromMillis(0));
+
+        oCache.store("third", oProgram);
+        assertEquals(2, countEntries());
+        assertTrue(Files.exists(_oDirectory.resolve("first.obj")));
+        assertFalse(Files.exists(_oDirectory.resolve("second.obj")));
+    }
+}
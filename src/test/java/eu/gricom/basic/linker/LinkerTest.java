@@ -0,0 +1,64 @@
+package eu.gricom.basic.linker;
+
+import eu.gricom.basic.error.LinkErrorException;
+import eu.gricom.basic.parser.BasicParser;
+import eu.gricom.basic.statements.ForStatement;
+import eu.gricom.basic.statements.NextStatement;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.tokenizer.BasicLexer;
+import eu.gricom.basic.tokenizer.Lexer;
+import eu.gricom.basic.tokenizer.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LinkerTest {
+
+    private Linker createLinker(final String strProgram) throws Exception {
+        Lexer oTokenizer = new BasicLexer();
+        List<Token> aoTokens = oTokenizer.tokenize(strProgram);
+        List<Statement> aoStatements = new BasicParser(aoTokens, false).parse();
+
+        return new Linker(aoTokens, aoStatements);
+    }
+
+    @Test
+    public void testLineNumbers() throws Exception {
+        Linker oLinker = createLinker("10 A# = 1\n20 B# = 2 : C# = 3\n30 END\n");
+
+        oLinker.link();
+
+        assertEquals(4, oLinker.getStatementFromLineNumber(30));
+        assertEquals(-1, oLinker.getStatementFromLineNumber(25));
+        assertEquals(4, oLinker.getStatementAfterLineNumber(20));
+        assertEquals(5, oLinker.getStatementAfterLineNumber(30));
+        assertEquals(20, oLinker.getLineNumber(3));
+    }
+
+    @Test
+    public void testNestedLoops() throws Exception {
+        Linker oLinker = createLinker("10 FOR I# = 1 TO 2\n20 FOR J# = 1 TO 2\n30 NEXT\n40 NEXT\n50 END\n");
+
+        oLinker.link();
+
+        assertEquals(3, oLinker.getMatchingStatement(0, ForStatement.class, NextStatement.class));
+        assertEquals(2, oLinker.getMatchingStatement(1, ForStatement.class, NextStatement.class));
+    }
+
+    @Test
+    public void testUnknownTarget() throws Exception {
+        Linker oLinker = createLinker("10 GOTO 40\n20 END\n");
+
+        assertThrows(LinkErrorException.class, oLinker::link);
+    }
+
+    @Test
+    public void testMissingNext() throws Exception {
+        Linker oLinker = createLinker("10 FOR I# = 1 TO 2\n20 FOR J# = 1 TO 2\n30 NEXT\n40 END\n");
+
+        assertThrows(LinkErrorException.class, oLinker::link);
+    }
+}
@@ -0,0 +1,43 @@
+package eu.gricom.basic.linker;
+
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.parser.BasicParser;
+import eu.gricom.basic.tokenizer.BasicLexer;
+
+/**
+ * TestProgram.java
+ * <p>
+ * Description:
+ * <p>
+ * Test fixture building a linked program from BASIC source code, in the same way as the interpreter: the source is
+ * tokenized, the pre-run and the program statements are parsed, and the program is linked. The tests then apply the
+ * pass or the execution engine under test to the program.
+ * <p>
+ * (c) = 2025,.., by Andreas Grimm, Den Haag, The Netherlands
+ */
+public final class TestProgram {
+
+    private TestProgram() {
+    }
+
+    /**
+     * Tokenize, parse, and link a program.
+     *
+     * @param strProgram source code of the program
+     * @return the linked program
+     * @throws Exception if the program cannot be tokenized, parsed, or linked
+     */
+    public static Program link(final String strProgram) throws Exception {
+        Program oProgram = new Program();
+        oProgram.load("TEST.bas", strProgram);
+        oProgram.setTokens(new BasicLexer().tokenize(oProgram.getProgram()));
+
+        BasicParser oParser = new BasicParser(oProgram.getTokens(), false);
+        oProgram.setPreRunStatements(oParser.parsePreRun());
+        oProgram.setStatements(oParser.parse());
+
+        new Linker(oProgram).link();
+
+        return oProgram;
+    }
+}
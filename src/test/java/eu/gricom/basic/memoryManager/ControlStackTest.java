@@ -0,0 +1,71 @@
+package eu.gricom.basic.memoryManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import eu.gricom.basic.error.RuntimeException;
+import org.junit.jupiter.api.Test;
+
+public class ControlStackTest {
+
+    @Test
+    public void testStack() throws RuntimeException {
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
+
+        oControlStack.push(ControlStack.GOSUB, 10);
+        oControlStack.push(ControlStack.DO, 999);
+        assertEquals(2, oControlStack.getDepth());
+        assertEquals(1, oControlStack.getDepth(ControlStack.GOSUB));
+        assertEquals(0, oControlStack.getDepth(ControlStack.WHILE));
+
+        assertEquals(999, oControlStack.pop(ControlStack.DO));
+        assertEquals(10, oControlStack.pop(ControlStack.GOSUB));
+        assertEquals(0, oControlStack.getDepth());
+    }
+
+    @Test
+    public void testStackWithException() {
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
+
+        assertThrows(RuntimeException.class, () -> {
+            oControlStack.pop(ControlStack.DO);
+        });
+    }
+
+    @Test
+    public void testMismatch() throws RuntimeException {
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
+
+        // END-WHILE must not return into a subroutine call
+        oControlStack.push(ControlStack.GOSUB, 10);
+
+        RuntimeException eException = assertThrows(RuntimeException.class, () -> {
+            oControlStack.pop(ControlStack.WHILE);
+        });
+        assertEquals("END-WHILE without WHILE: found open GOSUB block", eException.getMessage());
+
+        // RETURN discards the loops left inside the subroutine
+        oControlStack.push(ControlStack.DO, 20);
+        oControlStack.push(ControlStack.WHILE, 30);
+        assertEquals(10, oControlStack.pop(ControlStack.GOSUB));
+        assertEquals(0, oControlStack.getDepth());
+    }
+
+    @Test
+    public void testMaxDepth() throws RuntimeException {
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.setMaxDepth(2);
+
+        oControlStack.push(ControlStack.GOSUB, 10);
+        oControlStack.push(ControlStack.GOSUB, 20);
+
+        assertThrows(RuntimeException.class, () -> {
+            oControlStack.push(ControlStack.GOSUB, 30);
+        });
+
+        oControlStack.setMaxDepth(ControlStack.DEFAULT_MAX_DEPTH);
+    }
+}
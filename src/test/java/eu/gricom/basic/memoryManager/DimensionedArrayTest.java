@@ -0,0 +1,71 @@
+package eu.gricom.basic.memoryManager;
+
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.VariableType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DimensionedArrayTest {
+
+    @Test
+    public void testRealArray() throws Exception {
+        DimensionedArray oArray = new DimensionedArray("A", VariableType.REAL, 1, new int[] {3, 3});
+
+        // the last index runs fastest: A(2,3) is the sixth element
+        int iPosition = oArray.getOffset(0, 2) + oArray.getOffset(1, 3);
+        assertEquals(5, iPosition);
+
+        oArray.put(iPosition, new RealValue(4.5));
+        assertEquals(4.5, oArray.get(iPosition).toReal());
+        assertEquals(0.0, oArray.get(0).toReal());
+        assertEquals(2, oArray.getDimensions());
+    }
+
+    @Test
+    public void testStringArray() throws Exception {
+        DimensionedArray oArray = new DimensionedArray("A$", VariableType.STRING, 0, new int[] {10});
+
+        oArray.put(oArray.getOffset(0, 10), new StringValue("Test"));
+        assertEquals("Test", oArray.get(10).toString());
+        assertEquals("", oArray.get(0).toString());
+    }
+
+    @Test
+    public void testGrowingArray() throws Exception {
+        DimensionedArray oArray = new DimensionedArray("A%", VariableType.INTEGER, 0, new int[] {10, 10}, true);
+
+        oArray.putInt(oArray.getOffset(1, 4) + oArray.getOffset(0, 3), 34);
+        oArray.putInt(oArray.getOffset(1, 10) + oArray.getOffset(0, 10), 1010);
+        assertEquals(121, oArray.getSize());
+
+        // the offsets are calculated from the last dimension to the first
+        int iPosition = oArray.getOffset(1, 25);
+        iPosition += oArray.getOffset(0, 12);
+        oArray.putInt(iPosition, 1225);
+
+        assertEquals(22 * 26, oArray.getSize());
+        assertEquals(34, oArray.getInt(oArray.getOffset(1, 4) + oArray.getOffset(0, 3)));
+        assertEquals(1010, oArray.getInt(oArray.getOffset(1, 10) + oArray.getOffset(0, 10)));
+        assertEquals(1225, oArray.getInt(oArray.getOffset(1, 25) + oArray.getOffset(0, 12)));
+        assertEquals(0, oArray.getInt(oArray.getOffset(1, 3) + oArray.getOffset(0, 4)));
+
+        // the lowest index is not changed
+        assertThrows(RuntimeException.class, () -> oArray.getOffset(0, -1));
+    }
+
+    @Test
+    public void testBounds() {
+        assertThrows(RuntimeException.class, () -> {
+            new DimensionedArray("A", VariableType.REAL, 1, new int[] {0});
+        });
+
+        assertThrows(RuntimeException.class, () -> {
+            DimensionedArray oArray = new DimensionedArray("A", VariableType.REAL, 1, new int[] {3});
+            oArray.getOffset(0, 0);
+        });
+    }
+}
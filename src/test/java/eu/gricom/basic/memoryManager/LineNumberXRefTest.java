@@ -0,0 +1,62 @@
+package eu.gricom.basic.memoryManager;
+
+import eu.gricom.basic.statements.RemStatement;
+import eu.gricom.basic.statements.Statement;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.tokenizer.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LineNumberXRefTest {
+
+    private LineNumberXRef createXRef() {
+        List<Token> aoTokens = new ArrayList<>();
+        List<Statement> aoStatements = new ArrayList<>();
+
+        // line 10: one statement, line 20: two statements, line 40: one statement
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 10));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 20));
+        aoTokens.add(new Token(":", BasicTokenType.COLON, 20));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 20));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 40));
+
+        aoStatements.add(new RemStatement(0, "Comment"));
+        aoStatements.add(new RemStatement(1, "Comment"));
+        aoStatements.add(new RemStatement(3, "Comment"));
+        aoStatements.add(new RemStatement(4, "Comment"));
+
+        return new LineNumberXRef(aoTokens, aoStatements);
+    }
+
+    @Test
+    public void testTokenAndStatement() throws Exception {
+        LineNumberXRef oLineNumbers = createXRef();
+
+        assertEquals(20, oLineNumbers.getLineNumberFromToken(2));
+        assertEquals(3, oLineNumbers.getTokenFromStatement(2));
+        assertEquals(40, oLineNumbers.getLineNumberFromStatement(3));
+        assertEquals(4, oLineNumbers.getStatementCount());
+
+        assertThrows(eu.gricom.basic.error.RuntimeException.class, () -> {
+            oLineNumbers.getLineNumberFromToken(5);
+        });
+    }
+
+    @Test
+    public void testLineNumbers() {
+        LineNumberXRef oLineNumbers = createXRef();
+
+        assertEquals(1, oLineNumbers.getStatementFromLineNumber(20));
+        assertEquals(-1, oLineNumbers.getStatementFromLineNumber(30));
+        assertEquals(40, oLineNumbers.getNextLineNumber(20));
+        assertEquals(40, oLineNumbers.getNextLineNumber(30));
+        assertEquals(0, oLineNumbers.getNextLineNumber(40));
+        assertEquals(3, oLineNumbers.getStatementAfterLineNumber(20));
+        assertEquals(4, oLineNumbers.getStatementAfterLineNumber(40));
+    }
+}
@@ -3,7 +3,9 @@ package eu.gricom.basic.memoryManager;
 import eu.gricom.basic.variableTypes.IntegerValue;
 import eu.gricom.basic.error.RuntimeException;
 import eu.gricom.basic.error.SyntaxErrorException;
+import eu.gricom.basic.variableTypes.RealValue;
 import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.VariableType;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,8 @@ import org.junit.jupiter.api.TestMethodOrder;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 public class VariableManagementTest {
@@ -33,4 +37,44 @@ public class VariableManagementTest {
             e.printStackTrace();
         }
     }
+
+    @Test
+    @Order(2)
+    public void testSlotStorage() throws SyntaxErrorException, RuntimeException {
+        VariableManagement oVariableManagement = new VariableManagement();
+
+        int iSlot = oVariableManagement.resolveSlot("Slot%");
+        assertEquals(iSlot, oVariableManagement.resolveSlot("Slot%"));
+        assertFalse(oVariableManagement.isDefined(iSlot));
+        assertFalse(oVariableManagement.mapContainsKey("Slot%"));
+
+        oVariableManagement.putSlot(iSlot, new RealValue(12.7));
+        assertEquals(12, oVariableManagement.getInt(iSlot));
+        assertEquals(12, ((IntegerValue) oVariableManagement.getMap("Slot%")).toInt());
+        assertSame(oVariableManagement.getSlot(iSlot), oVariableManagement.getSlot(iSlot));
+
+        int iRealSlot = oVariableManagement.resolveSlot("Slot#");
+        oVariableManagement.putMap("Slot#", 2.5);
+        assertEquals(2.5, oVariableManagement.getDouble(iRealSlot));
+        assertEquals(VariableType.REAL, oVariableManagement.getSlotType(iRealSlot));
+    }
+
+    @Test
+    @Order(3)
+    public void testReset() throws SyntaxErrorException, RuntimeException {
+        VariableManagement oVariableManagement = new VariableManagement();
+
+        int iSlot = oVariableManagement.resolveSlot("Reset%");
+        int iArraySlot = oVariableManagement.resolveArray("Reset$", 1);
+
+        oVariableManagement.putSlot(iSlot, 5);
+        oVariableManagement.dimArray(iArraySlot, new int[] {3});
+        oVariableManagement.reset();
+
+        // the slots stay assigned, the values and arrays are removed
+        assertEquals(iSlot, oVariableManagement.resolveSlot("Reset%"));
+        assertFalse(oVariableManagement.isDefined(iSlot));
+        oVariableManagement.dimArray(iArraySlot, new int[] {3});
+        assertEquals(1, oVariableManagement.getArray(iArraySlot).getDimensions());
+    }
 }
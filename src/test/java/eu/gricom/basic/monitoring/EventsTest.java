@@ -0,0 +1,90 @@
+package eu.gricom.basic.monitoring;
+
+import eu.gricom.basic.linker.TestProgram;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.runtimeManager.Execute;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventsTest {
+    @TempDir
+    Path _oDirectory;
+
+    private List<RecordedEvent> record(final String strProgram) throws Exception {
+        Program oProgram = TestProgram.link(strProgram);
+        new ControlStack().reset();
+
+        Path oFile = _oDirectory.resolve("events.jfr");
+
+        try (Recording oRecording = new Recording()) {
+            oRecording.enable("eu.gricom.basic.Gosub");
+            oRecording.enable("eu.gricom.basic.Loop");
+            oRecording.enable("eu.gricom.basic.RuntimeError");
+            oRecording.start();
+
+            new Execute(oProgram).runProgram();
+
+            oRecording.stop();
+            oRecording.dump(oFile);
+        }
+
+        return RecordingFile.readAllEvents(oFile);
+    }
+
+    private static List<RecordedEvent> filter(final List<RecordedEvent> aoEvents, final String strName) {
+        return aoEvents.stream().filter(oEvent -> oEvent.getEventType().getName().equals(strName)).toList();
+    }
+
+    @Test
+    public void testLoops() throws Exception {
+        List<RecordedEvent> aoEvents = record("10 FOR EVT_I% = 1 TO 5\n20 EVT_A% = EVT_I%\n30 NEXT EVT_I%\n"
+                                                      + "40 EVT_B% = 0\n50 WHILE EVT_B% < 3\n60 EVT_B% = EVT_B% + 1\n"
+                                                      + "70 END-WHILE\n");
+        List<RecordedEvent> aoLoops = filter(aoEvents, "eu.gricom.basic.Loop");
+
+        assertEquals(2, aoLoops.size());
+        assertEquals("FOR", aoLoops.get(0).getString("kind"));
+        assertEquals(10, aoLoops.get(0).getInt("line"));
+        assertEquals(5, aoLoops.get(0).getLong("iterations"));
+        assertEquals("WHILE", aoLoops.get(1).getString("kind"));
+        assertEquals(50, aoLoops.get(1).getInt("line"));
+        assertEquals(3, aoLoops.get(1).getLong("iterations"));
+    }
+
+    @Test
+    public void testGosubAndError() throws Exception {
+        List<RecordedEvent> aoEvents = record("10 GOSUB 100\n20 EVT_C% = 1\n30 RETURN\n100 GOSUB 200\n110 RETURN\n"
+                                                      + "200 RETURN\n");
+        List<RecordedEvent> aoCalls = filter(aoEvents, "eu.gricom.basic.Gosub");
+
+        assertEquals(4, aoCalls.size());
+        assertFalse(aoCalls.get(0).getBoolean("isReturn"));
+        assertEquals(10, aoCalls.get(0).getInt("line"));
+        assertEquals(100, aoCalls.get(0).getInt("targetLine"));
+        assertEquals(1, aoCalls.get(0).getInt("depth"));
+        assertEquals(2, aoCalls.get(1).getInt("depth"));
+        assertTrue(aoCalls.get(2).getBoolean("isReturn"));
+        assertEquals(200, aoCalls.get(2).getInt("line"));
+        assertEquals(110, aoCalls.get(2).getInt("targetLine"));
+        assertEquals(1, aoCalls.get(2).getInt("depth"));
+        assertEquals(20, aoCalls.get(3).getInt("targetLine"));
+        assertEquals(0, aoCalls.get(3).getInt("depth"));
+
+        // the RETURN in line 30 has no GOSUB
+        List<RecordedEvent> aoErrors = filter(aoEvents, "eu.gricom.basic.RuntimeError");
+
+        assertEquals(1, aoErrors.size());
+        assertEquals(30, aoErrors.get(0).getInt("line"));
+    }
+}
@@ -0,0 +1,88 @@
+package eu.gricom.basic.monitoring;
+
+import eu.gricom.basic.linker.TestProgram;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.memoryManager.FiFoQueue;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.memoryManager.VariableManagement;
+import eu.gricom.basic.runtimeManager.Execute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InterpreterMonitorTest {
+    private static final String PROGRAM = "10 @PRAGMA(\"Monitor\" = \"on\")\n"
+            + "20 DIM MON_A(4)\n30 DIM MON_B$(1, 2)\n40 MON_I% = 1\n50 MON_S$ = \"x\"\n"
+            + "60 FOR MON_J% = 1 TO 3\n70 MON_A(MON_J%) = MON_J%\n80 NEXT MON_J%\n"
+            + "90 READ MON_D%\n100 DATA 1, 2, 3\n110 GOSUB 200\n120 GOTO 300\n"
+            + "200 MON_DEPTH% = 0\n210 WHILE MON_DEPTH% < 1\n220 MON_DEPTH% = 1\n230 GOTO 300\n240 END-WHILE\n"
+            + "250 RETURN\n300 MON_X% = 0\n";
+
+    private void run(final String strProgram) throws Exception {
+        Program oProgram = TestProgram.link(strProgram);
+        new VariableManagement().reset();
+        new FiFoQueue().reset();
+        new ControlStack().reset();
+
+        Execute oRun = new Execute(oProgram);
+        oRun.loadEnvironment();
+        oRun.runProgram();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InterpreterMonitor.disable();
+        new FiFoQueue().reset();
+        new ControlStack().reset();
+    }
+
+    @Test
+    public void testMonitor() throws Exception {
+        InterpreterMonitor oMonitor = InterpreterMonitor.getMonitor();
+        long lStatements = oMonitor.getStatementsExecuted();
+
+        run(PROGRAM);
+
+        // the PRAGMA statement itself is executed before the monitor is switched on
+        assertTrue(InterpreterMonitor.isEnabled());
+        assertEquals(18, oMonitor.getStatementsExecuted() - lStatements);
+        assertEquals(2, oMonitor.getDataItemsRemaining());
+
+        // the program left the subroutine and the WHILE loop with GOTO
+        assertEquals(2, oMonitor.getControlStackDepth());
+        assertEquals(1, oMonitor.getGosubDepth());
+        assertEquals(1, oMonitor.getLoopDepth());
+
+        // untyped arrays are counted as UNDEFINED
+        assertEquals(5, (int) oMonitor.getArrayCells().get("UNDEFINED"));
+        assertEquals(6, (int) oMonitor.getArrayCells().get("STRING"));
+        assertEquals(5, (int) oMonitor.getVariables().get("INTEGER"));
+        assertEquals(1, (int) oMonitor.getVariables().get("STRING"));
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        InterpreterMonitor.enable();
+        run("10 MON_Y% = 1\n20 MON_Y% = MON_Y% + 1\n");
+
+        MBeanServer oServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName oName = new ObjectName(InterpreterMonitor.OBJECT_NAME);
+
+        assertTrue(oServer.isRegistered(oName));
+        assertTrue((Long) oServer.getAttribute(oName, "StatementsExecuted") >= 2);
+        assertTrue((Double) oServer.getAttribute(oName, "StatementsPerSecond") >= 0.0);
+        assertEquals(0, oServer.getAttribute(oName, "ControlStackDepth"));
+
+        TabularData oVariables = (TabularData) oServer.getAttribute(oName, "Variables");
+        CompositeData oIntegers = oVariables.get(new Object[] {"INTEGER"});
+        assertTrue((Integer) oIntegers.get("value") >= 1);
+    }
+}
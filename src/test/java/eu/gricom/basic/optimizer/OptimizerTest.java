@@ -0,0 +1,131 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.error.SyntaxErrorException;
+import eu.gricom.basic.linker.TestProgram;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.runtimeManager.Execute;
+import eu.gricom.basic.statements.AssignStatement;
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.OperatorExpression;
+import eu.gricom.basic.statements.SubStringExpression;
+import eu.gricom.basic.statements.VariableExpression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.Value;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OptimizerTest {
+
+    private Program optimize(final String strProgram) throws Exception {
+        Program oProgram = TestProgram.link(strProgram);
+        new Optimizer(oProgram).optimize();
+
+        return oProgram;
+    }
+
+    private static Expression getExpression(final Program oProgram, final int iStatement) {
+        return ((AssignStatement) oProgram.getStatements().get(iStatement)).getExpression();
+    }
+
+    @Test
+    public void testFolding() throws Exception {
+        Optimizer oOptimizer = new Optimizer(new Program());
+
+        Expression oExpression = oOptimizer.fold(new OperatorExpression(
+                new OperatorExpression(new RealValue(2), BasicTokenType.MULTIPLY, new RealValue(3.5)),
+                BasicTokenType.DIVIDE, new RealValue(7)));
+        assertTrue(oExpression instanceof RealValue);
+        assertEquals(1.0, oExpression.evaluateDouble());
+        assertEquals(2, oOptimizer.getFolded());
+
+        // the division by zero is reported when the statement is executed
+        OperatorExpression oDivision = new OperatorExpression(new RealValue(1), BasicTokenType.DIVIDE,
+                                                              new RealValue(0));
+        assertSame(oDivision, oOptimizer.fold(oDivision));
+    }
+
+    @Test
+    public void testStringComparison() throws Exception {
+        Optimizer oOptimizer = new Optimizer(new Program());
+
+        // the result depends on the collation selected during the execution
+        OperatorExpression oComparison = new OperatorExpression(new StringValue("a"), BasicTokenType.COMPARE_EQUAL,
+                                                                new StringValue("A"));
+        assertSame(oComparison, oOptimizer.fold(oComparison));
+
+        Expression oConcatenation = oOptimizer.fold(new OperatorExpression(new StringValue("a"), BasicTokenType.PLUS,
+                                                                           new StringValue("b")));
+        assertEquals("ab", oConcatenation.toString());
+    }
+
+    @Test
+    public void testFunctions() throws Exception {
+        Program oProgram = optimize("10 OPT_A = SQR(16) + ABS(-3)\n20 OPT_B = RND * 2\n");
+
+        assertTrue(getExpression(oProgram, 0) instanceof Value);
+        assertEquals(7.0, getExpression(oProgram, 0).evaluateDouble());
+        assertFalse(getExpression(oProgram, 1) instanceof Value);
+    }
+
+    @Test
+    public void testStringFunctions() throws Exception {
+        // the string functions written with a "$" are functions, not arrays, and are folded as well
+        Program oProgram = optimize("10 OPT_S$ = CHR$(CINT(67)) + LEFT$(\"HELLO\", 2)\n"
+                                            + "20 OPT_T$ = RIGHT$(OPT_U$, 1)\n");
+
+        assertTrue(getExpression(oProgram, 0) instanceof Value);
+        assertEquals("CHE", getExpression(oProgram, 0).toString());
+        assertFalse(getExpression(oProgram, 1) instanceof Value);
+        assertThrows(SyntaxErrorException.class, () -> optimize("10 OPT_V$ = CHR$(1, 2)\n"));
+    }
+
+    @Test
+    public void testPropagation() throws Exception {
+        Program oProgram = optimize("10 OPT_PI = 3.5\n20 OPT_X = 2 * OPT_PI\n30 OPT_C = 1\n"
+                + "40 OPT_Y = OPT_X + OPT_C\n50 OPT_C = OPT_C + 1\n60 IF OPT_Y < 10 THEN 40\n"
+                + "70 OPT_Z = OPT_X * 2\n");
+
+        // OPT_PI and OPT_X are assigned once, OPT_C twice
+        assertEquals(7.0, getExpression(oProgram, 1).evaluateDouble());
+        assertTrue(getExpression(oProgram, 6) instanceof Value);
+        assertEquals(14.0, getExpression(oProgram, 6).evaluateDouble());
+        assertFalse(getExpression(oProgram, 3) instanceof Value);
+
+        Execute oRun = new Execute(oProgram);
+        oRun.loadEnvironment();
+        oRun.runProgram();
+
+        assertEquals(7.0, new VariableExpression("OPT_X").evaluateDouble());
+        assertEquals(10.0, new VariableExpression("OPT_Y").evaluateDouble());
+    }
+
+    @Test
+    public void testNoPropagation() throws Exception {
+        // assigned after a jump, read before the assignment, or set by a FOR loop
+        Program oProgram = optimize("10 GOTO 30\n20 OPT_D = OPT_E\n30 OPT_E = 5\n40 OPT_F = OPT_E + 1\n"
+                + "50 OPT_G = 2\n60 PRINT OPT_G\n70 FOR OPT_H = 1 TO 2\n80 NEXT OPT_H\n");
+
+        assertFalse(getExpression(oProgram, 3) instanceof Value);
+    }
+
+    @Test
+    public void testSubString() throws Exception {
+        Program oProgram = optimize("10 OPTSUBA$ = \"abcdef\"\n20 OPTSUBB$ = OPTSUBA$[1, 3]\n"
+                                            + "30 OPTSUBC$ = OPTSUBA$[7]\n");
+
+        // the constant string is propagated, and the sub-string is folded
+        Expression oExpression = getExpression(oProgram, 1);
+        assertTrue(oExpression instanceof StringValue);
+        assertEquals("bcd", oExpression.toString());
+
+        // out of bounds: reported when the statement is executed
+        assertTrue(getExpression(oProgram, 2) instanceof SubStringExpression);
+    }
+}
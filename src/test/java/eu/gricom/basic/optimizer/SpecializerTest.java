@@ -0,0 +1,70 @@
+package eu.gricom.basic.optimizer;
+
+import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.OperatorExpression;
+import eu.gricom.basic.statements.VariableExpression;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.VariableType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpecializerTest {
+    private final Specializer _oSpecializer = new Specializer(new ArrayList<>());
+
+    @Test
+    public void testTypedOperations() throws Exception {
+        Expression oSum = _oSpecializer.specialize(
+                new OperatorExpression(new RealValue(2), BasicTokenType.PLUS, new RealValue(3)));
+        assertTrue(oSum instanceof RealAdd);
+        assertEquals(5.0, oSum.evaluateDouble());
+
+        VariableExpression oCounter = new VariableExpression("SPEC_COUNTER%");
+        oCounter.assignInt(4);
+
+        Expression oCompare = _oSpecializer.specialize(
+                new OperatorExpression(oCounter, BasicTokenType.SMALLER, new RealValue(4.5)));
+        assertTrue(oCompare instanceof IntLessThan);
+        assertFalse(oCompare.evaluateBoolean());
+
+        Expression oConcat = _oSpecializer.specialize(
+                new OperatorExpression(new StringValue("A"), BasicTokenType.PLUS, new RealValue(1)));
+        assertTrue(oConcat instanceof StringConcat);
+        assertEquals("A1.0", oConcat.evaluate().toString());
+
+        // the remainder has no specialized class, the operator expression keeps its own primitive path
+        OperatorExpression oModulo = new OperatorExpression(new RealValue(7), BasicTokenType.MODULO, new RealValue(4));
+        assertSame(oModulo, _oSpecializer.specialize(oModulo));
+    }
+
+    @Test
+    public void testSpeculation() throws Exception {
+        VariableExpression oVariable = new VariableExpression("SPEC_UNTYPED");
+        oVariable.assign(new RealValue(2));
+
+        // (X * 3) + 1 is speculated as one real calculation
+        Expression oExpression = _oSpecializer.specialize(new OperatorExpression(
+                new OperatorExpression(oVariable, BasicTokenType.MULTIPLY, new RealValue(3)),
+                BasicTokenType.PLUS, new RealValue(1)));
+
+        assertTrue(oExpression instanceof SpeculativeExpression);
+        assertEquals(VariableType.UNDEFINED, oExpression.getType());
+        assertTrue(((SpeculativeExpression) oExpression).getSpecialized() instanceof RealAdd);
+        assertEquals(7.0, oExpression.evaluate().toReal());
+        assertFalse(((SpeculativeExpression) oExpression).isDeoptimized());
+
+        // an integer in the variable makes the calculation fall back to the value classes: 5 * 3 + 1 = 16
+        oVariable.assign(new IntegerValue(5));
+        assertTrue(oExpression.evaluate() instanceof IntegerValue);
+        assertEquals(16.0, oExpression.evaluate().toReal());
+        assertTrue(((SpeculativeExpression) oExpression).isDeoptimized());
+    }
+}
@@ -5,16 +5,22 @@ import eu.gricom.basic.helper.FileHandler;
 import eu.gricom.basic.memoryManager.Program;
 import eu.gricom.basic.runtimeManager.Execute;
 import eu.gricom.basic.statements.Expression;
+import eu.gricom.basic.statements.OperatorExpression;
 import eu.gricom.basic.statements.PrintStatement;
+import eu.gricom.basic.statements.SubStringExpression;
+import eu.gricom.basic.statements.VariableExpression;
 import eu.gricom.basic.tokenizer.BasicLexer;
 import eu.gricom.basic.tokenizer.Lexer;
 import eu.gricom.basic.tokenizer.Token;
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.StringValue;
 import eu.gricom.basic.variableTypes.Value;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings("SpellCheckingInspection")
@@ -198,4 +204,48 @@ public class BasicParserTest {
 
         assertTrue(strExpression.matches("eu.gricom.basic.statements.VariableExpression"));
     }
+
+    /**
+     * Test a sub-string with expressions as positions, which are evaluated at runtime...
+     */
+    @Test
+    public void testAtomicSubString() throws Exception {
+        Lexer oTokenizer = new BasicLexer();
+
+        List<Token> aoTokens = oTokenizer.tokenize("10 PARSERSUB$[PARSERSUBI% + 1, LEN(PARSERSUB$) - 2]");
+        BasicParser oParser = new BasicParser(aoTokens, false);
+        Expression oExpression = oParser.atomic();
+
+        assertTrue(oExpression instanceof SubStringExpression);
+        assertTrue(((SubStringExpression) oExpression).getString() instanceof VariableExpression);
+        assertTrue(((SubStringExpression) oExpression).getStart() instanceof OperatorExpression);
+        assertTrue(((SubStringExpression) oExpression).getEnd() instanceof OperatorExpression);
+
+        new VariableExpression("PARSERSUB$").assign(new StringValue("abcdef"));
+        new VariableExpression("PARSERSUBI%").assign(IntegerValue.valueOf(1));
+        assertEquals("cde", oExpression.evaluate().toString());
+
+        oParser = new BasicParser(oTokenizer.tokenize("10 PARSERSUB$[PARSERSUBI%]"), false);
+        assertEquals("b", oParser.atomic().evaluate().toString());
+    }
+
+    /**
+     * Test the syntax errors of sub-strings...
+     */
+    @Test
+    public void testSubStringSyntaxErrors() throws Exception {
+        Lexer oTokenizer = new BasicLexer();
+
+        BasicParser oParser = new BasicParser(oTokenizer.tokenize("10 PARSERSUB$[1, 2, 3]"), false);
+        assertThrows(SyntaxErrorException.class, oParser::atomic);
+
+        oParser = new BasicParser(oTokenizer.tokenize("10 PARSERSUB$[(1)2]"), false);
+        assertThrows(SyntaxErrorException.class, oParser::atomic);
+
+        oParser = new BasicParser(oTokenizer.tokenize("10 PARSERSUB$[1+]"), false);
+        assertThrows(SyntaxErrorException.class, oParser::atomic);
+
+        oParser = new BasicParser(oTokenizer.tokenize("10 PARSERSUB$[1] = \"X\""), false);
+        assertThrows(SyntaxErrorException.class, oParser::parse);
+    }
 }
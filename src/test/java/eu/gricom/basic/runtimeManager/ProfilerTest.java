@@ -0,0 +1,65 @@
+package eu.gricom.basic.runtimeManager;
+
+import eu.gricom.basic.linker.TestProgram;
+import eu.gricom.basic.memoryManager.Program;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProfilerTest {
+    @TempDir
+    Path _oDirectory;
+
+    private Execute run(final String strProgram) throws Exception {
+        Program oProgram = TestProgram.link(strProgram);
+
+        Execute oRun = new Execute(oProgram);
+        oRun.runProgram();
+
+        return oRun;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Profiler.disable();
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        Execute oRun = run("10 PROF_A% = 1\n20 PROF_A% = PROF_A% + 1\n");
+
+        assertNull(oRun.getProfiler());
+    }
+
+    @Test
+    public void testPragma() throws Exception {
+        Path oReport = _oDirectory.resolve("profile.json");
+
+        Execute oRun = run("10 @PRAGMA(\"Profile\" = \"" + oReport.toString().replace("\\", "/") + "\")\n"
+                                   + "20 FOR PROF_I% = 1 TO 10\n30 PROF_B% = PROF_I% * 2\n40 NEXT PROF_I%\n");
+
+        Profiler oProfiler = oRun.getProfiler();
+        String strCsv = oProfiler.toCsv();
+
+        // the PRAGMA statement itself is executed before the profiler is switched on
+        assertFalse(strCsv.contains("line,10,"));
+        assertTrue(strCsv.contains("line,20,1,"));
+        assertTrue(strCsv.contains("line,30,10,"));
+        assertTrue(strCsv.contains("line,40,10,"));
+        assertTrue(strCsv.contains("statement,Assign,10,"));
+        assertTrue(strCsv.contains("statement,Next,10,"));
+
+        assertTrue(oProfiler.getHotLines().contains("Assign"));
+
+        String strJson = Files.readString(oReport);
+        assertTrue(strJson.contains("{\"line\": 30, \"count\": 10, \"nanos\": "));
+        assertTrue(strJson.contains("{\"statement\": \"For\", \"count\": 1, \"nanos\": "));
+    }
+}
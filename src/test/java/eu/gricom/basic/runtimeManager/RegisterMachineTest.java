@@ -0,0 +1,80 @@
+package eu.gricom.basic.runtimeManager;
+
+import eu.gricom.basic.error.DivideByZeroException;
+import eu.gricom.basic.linker.TestProgram;
+import eu.gricom.basic.memoryManager.Program;
+import eu.gricom.basic.optimizer.Specializer;
+import eu.gricom.basic.statements.VariableExpression;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RegisterMachineTest {
+
+    private RegisterMachine compile(final String strProgram) throws Exception {
+        Program oProgram = TestProgram.link(strProgram);
+        new Specializer(oProgram).specialize();
+
+        return new RegisterCompiler(oProgram).compile();
+    }
+
+    @Test
+    public void testIntegerLoop() throws Exception {
+        compile("10 RM_SUM% = 0\n20 RM_I% = 1\n30 RM_SUM% = RM_SUM% + RM_I%\n40 RM_I% = RM_I% + 1\n"
+                + "50 IF RM_I% <= 100 THEN 30\n60 END\n").run();
+
+        assertEquals(5050, new VariableExpression("RM_SUM%").evaluateInt());
+        assertEquals(101, new VariableExpression("RM_I%").evaluateInt());
+    }
+
+    @Test
+    public void testGosub() throws Exception {
+        compile("10 RM_X = 1\n20 GOSUB 100\n30 GOSUB 100\n40 END\n100 RM_X = RM_X * 3\n110 RETURN\n").run();
+
+        assertEquals(9.0, new VariableExpression("RM_X").evaluateDouble());
+    }
+
+    @Test
+    public void testIfElse() throws Exception {
+        compile("10 RM_A# = 5\n20 IF RM_A# > 3 THEN\n30 RM_B# = 1\n40 ELSE\n50 RM_B# = 2\n60 END-IF\n"
+                + "70 IF RM_A# < 3 THEN\n80 RM_C# = 1\n90 ELSE\n100 RM_C# = 2\n110 END-IF\n").run();
+
+        assertEquals(1.0, new VariableExpression("RM_B#").evaluateDouble());
+        assertEquals(2.0, new VariableExpression("RM_C#").evaluateDouble());
+    }
+
+    @Test
+    public void testWhileAndUntil() throws Exception {
+        compile("10 RM_W% = 0\n20 WHILE RM_W% < 10\n30 RM_W% = RM_W% + 2\n40 END-WHILE\n"
+                + "50 RM_D = 1\n60 DO\n70 RM_D = RM_D * 2\n80 UNTIL RM_D > 100\n").run();
+
+        assertEquals(10, new VariableExpression("RM_W%").evaluateInt());
+        assertEquals(128.0, new VariableExpression("RM_D").evaluateDouble());
+    }
+
+    @Test
+    public void testArraysAndForLoop() throws Exception {
+        compile("10 DIM RM_ARR(10)\n20 FOR RM_J = 0 TO 9\n30 RM_ARR(RM_J) = RM_J * RM_J\n40 NEXT RM_J\n"
+                + "50 RM_T = 0\n60 RM_K = 0\n70 RM_T = RM_T + RM_ARR(RM_K)\n80 RM_K = RM_K + 1\n"
+                + "90 IF RM_K < 10 THEN 70\n").run();
+
+        assertEquals(285.0, new VariableExpression("RM_T").evaluateDouble());
+    }
+
+    @Test
+    public void testArrayWithoutDim() throws Exception {
+        compile("10 RM_U$(20) = \"x\"\n20 RM_V(3, 4) = 7\n30 RM_V(15, 12) = RM_V(3, 4) * 2\n"
+                + "40 RM_S$ = RM_U$(20)\n50 RM_W = RM_V(3, 4) + RM_V(15, 12)\n").run();
+
+        assertEquals("x", new VariableExpression("RM_S$").evaluate().toString());
+        assertEquals(21.0, new VariableExpression("RM_W").evaluateDouble());
+    }
+
+    @Test
+    public void testDivideByZero() throws Exception {
+        RegisterMachine oMachine = compile("10 RM_P# = 1\n20 RM_Q# = 0\n30 RM_R# = RM_P# / RM_Q#\n40 END\n");
+
+        assertThrows(DivideByZeroException.class, oMachine::run);
+    }
+}
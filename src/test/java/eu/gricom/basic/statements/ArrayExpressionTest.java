@@ -0,0 +1,29 @@
+package eu.gricom.basic.statements;
+
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ArrayExpressionTest {
+
+    @Test
+    public void testArrayWithoutDim() throws Exception {
+        // A$(20) = "x" without DIM: the array grows beyond the default bound of 10
+        ArrayExpression oElement = new ArrayExpression("AE_A$", List.of(new IntegerValue(20)));
+        oElement.assign(new StringValue("x"));
+        assertEquals("x", oElement.evaluate().toString());
+
+        ArrayExpression oMatrix = new ArrayExpression("AE_M%", List.of(new IntegerValue(2), new IntegerValue(3)));
+        oMatrix.assignInt(23);
+
+        ArrayExpression oGrown = new ArrayExpression("AE_M%", List.of(new IntegerValue(25), new IntegerValue(30)));
+        oGrown.assignInt(2530);
+
+        assertEquals(23, oMatrix.evaluateInt());
+        assertEquals(2530, oGrown.evaluateInt());
+    }
+}
@@ -1,23 +1,28 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.variableTypes.IntegerValue;
-import eu.gricom.basic.memoryManager.Stack;
+import eu.gricom.basic.linker.Linker;
+import eu.gricom.basic.memoryManager.ControlStack;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class DoStatementTest {
     @Test
     public void testExecute() {
-        Stack oStack = new Stack();
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
 
         DoStatement oDoStatement = new DoStatement(10);
 
         try {
+            // the UNTIL statement returns to the DO statement
+            oDoStatement.link(new Linker(new ArrayList<>(), new ArrayList<>()), 4);
             oDoStatement.execute();
 
-            Assertions.assertEquals(10, ((IntegerValue) oStack.pop()).toInt());
+            Assertions.assertEquals(4, oControlStack.pop(ControlStack.DO));
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -1,100 +1,204 @@
 package eu.gricom.basic.statements;
 
+import eu.gricom.basic.error.LinkErrorException;
+import eu.gricom.basic.linker.Linker;
+import eu.gricom.basic.linker.TestProgram;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
 import eu.gricom.basic.memoryManager.VariableManagement;
+import eu.gricom.basic.variableTypes.IntegerValue;
 import eu.gricom.basic.variableTypes.RealValue;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.tokenizer.Token;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ForStatementTest {
 
+    /**
+     * Link a loop of a FOR statement, a REM statement as body, a NEXT statement and a REM statement following the
+     * loop.
+     *
+     * @param oForStatement the FOR statement
+     * @return the NEXT statement, no. 2; the loop is left to statement no. 3
+     */
+    private static NextStatement link(final ForStatement oForStatement) throws Exception {
+        List<Token> aoTokens = new ArrayList<>();
+        List<Statement> aoStatements = new ArrayList<>();
+        NextStatement oNextStatement = new NextStatement(2);
+
+        aoTokens.add(new Token("FOR", BasicTokenType.FOR, 5));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 10));
+        aoTokens.add(new Token("NEXT", BasicTokenType.NEXT, 15));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 20));
+
+        aoStatements.add(oForStatement);
+        aoStatements.add(new RemStatement(1, "Comment"));
+        aoStatements.add(oNextStatement);
+        aoStatements.add(new RemStatement(3, "Comment"));
+
+        new Linker(aoTokens, aoStatements).link();
+
+        return oNextStatement;
+    }
+
     @Test
     public void testExecuteUpwards() throws Exception {
-        Stack oStack = new Stack();
         ProgramPointer oProgramPointer = new ProgramPointer();
         VariableManagement oVariableManager = new VariableManagement();
 
-        RealValue oStart = new RealValue(0);
-        RealValue oEnd = new RealValue(1);
-        RealValue oStep = new RealValue(1);
-        LineNumberXRef oLineNumber = new LineNumberXRef();
-
-        oLineNumber.putStatementNumber(5, 5);
-        oLineNumber.putLineNumber(5, 5);
-        oLineNumber.putStatementNumber(10, 10);
-        oLineNumber.putLineNumber(10, 10);
-        oLineNumber.putStatementNumber(15, 15);
-        oLineNumber.putLineNumber(15, 15);
-
-        ForStatement oForStatement = new ForStatement(5, "X#", oStart, oEnd, oStep, 10);
+        ForStatement oForStatement = new ForStatement(0, "X#", new RealValue(0), new RealValue(1), new RealValue(1),
+                                                      15);
+        NextStatement oNextStatement = link(oForStatement);
 
         // after the execute, there should be a X real in the system with the value of 0
+        oProgramPointer.setCurrentStatement(1);
         oForStatement.execute();
 
-        RealValue oXVariable = (RealValue) oVariableManager.getMap("X#");
+        assertEquals(1, oProgramPointer.getCurrentStatement());
+        assertEquals(0.0, oVariableManager.getMap("X#").toReal());
 
-        assertTrue(oXVariable.toReal() == 0.0);
-        oStack.pop();
-        // after the second execution, X should have a value of 1.0
-        oForStatement.execute();
+        // the NEXT statement jumps back into the body, X has a value of 1.0
+        oProgramPointer.setCurrentStatement(3);
+        oNextStatement.execute();
 
-        oXVariable = (RealValue) oVariableManager.getMap("X#");
+        assertEquals(1, oProgramPointer.getCurrentStatement());
+        assertEquals(1.0, oVariableManager.getMap("X#").toReal());
 
-        assertTrue(oXVariable.toReal() == 1.0);
-        oStack.pop();
+        // the loop is left past the NEXT statement, X holds the first value past the end value
+        oProgramPointer.setCurrentStatement(3);
+        oNextStatement.execute();
+
+        assertEquals(3, oProgramPointer.getCurrentStatement());
+        assertEquals(2.0, oVariableManager.getMap("X#").toReal());
+    }
+
+    @Test
+    public void testExecuteDownwards() throws Exception {
+        VariableManagement oVariableManager = new VariableManagement();
+
+        ForStatement oForStatement = new ForStatement(0, "X#", new RealValue(1), new RealValue(0),
+                                                      new RealValue(-1), 15);
+        link(oForStatement);
 
-        // after the third execution, X should have a value of 2.0 and the program pointer should be set to 10
         oForStatement.execute();
+        assertEquals(1.0, oVariableManager.getMap("X#").toReal());
 
-        oXVariable = (RealValue) oVariableManager.getMap("X#");
+        assertTrue(oForStatement.next());
+        assertEquals(0.0, oVariableManager.getMap("X#").toReal());
 
-        assertTrue(oXVariable.toReal() == 1.0);
+        assertFalse(oForStatement.next());
+        assertEquals(-1.0, oVariableManager.getMap("X#").toReal());
     }
 
     @Test
-    public void testExecuteDownwards() throws Exception {
-        Stack oStack = new Stack();
+    public void testExecuteSkipsBody() throws Exception {
         ProgramPointer oProgramPointer = new ProgramPointer();
         VariableManagement oVariableManager = new VariableManagement();
 
-        RealValue oStart = new RealValue(1);
-        RealValue oEnd = new RealValue(0);
-        RealValue oStep = new RealValue(-1);
+        ForStatement oForStatement = new ForStatement(0, "FS_SKIP#", new RealValue(5), new RealValue(1),
+                                                      new RealValue(1), 15);
+        link(oForStatement);
+
+        // the start value is past the end value: the loop is left without executing the body
+        oProgramPointer.setCurrentStatement(1);
+        oForStatement.execute();
 
-        LineNumberXRef oLineNumber = new LineNumberXRef();
+        assertEquals(3, oProgramPointer.getCurrentStatement());
+        assertEquals(5.0, oVariableManager.getMap("FS_SKIP#").toReal());
+    }
 
-        oLineNumber.putStatementNumber(5, 5);
-        oLineNumber.putLineNumber(5, 5);
-        oLineNumber.putStatementNumber(10, 10);
-        oLineNumber.putLineNumber(10, 10);
-        oLineNumber.putStatementNumber(15, 15);
-        oLineNumber.putLineNumber(15, 15);
+    @Test
+    public void testExactDecimalSteps() throws Exception {
+        VariableManagement oVariableManager = new VariableManagement();
 
-        ForStatement oForStatement = new ForStatement(5, "X#", oStart, oEnd, oStep, 10);
+        ForStatement oForStatement = new ForStatement(0, "FS_DECIMAL#", new RealValue(0), new RealValue(1),
+                                                      new RealValue(0.1), 15);
+        link(oForStatement);
 
-        // after the execute, there should be a X real in the system with the value of 0
         oForStatement.execute();
+        int iIterations = 1;
+
+        while (oForStatement.next()) {
+            assertEquals(iIterations / 10.0, oVariableManager.getMap("FS_DECIMAL#").toReal());
+            iIterations++;
+        }
 
-        RealValue oXVariable = (RealValue) oVariableManager.getMap("X#");
+        // 0.0, 0.1, ..., 1.0 without rounding errors
+        assertEquals(11, iIterations);
+        assertEquals(1.1, oVariableManager.getMap("FS_DECIMAL#").toReal());
+    }
+
+    @Test
+    public void testIntegerCounter() throws Exception {
+        VariableManagement oVariableManager = new VariableManagement();
+
+        // the end value of an integer loop is rounded to the integers reached by the counter
+        ForStatement oForStatement = new ForStatement(0, "FS_COUNTER%", new IntegerValue(1), new RealValue(10.5),
+                                                      new IntegerValue(3), 15);
+        link(oForStatement);
 
-        assertTrue(oXVariable.toReal() == 1.0);
-        oStack.pop();
-        // after the second execution, X should have a value of 1.0
         oForStatement.execute();
+        int iSum = (int) oVariableManager.getMap("FS_COUNTER%").toReal();
+
+        while (oForStatement.next()) {
+            iSum += (int) oVariableManager.getMap("FS_COUNTER%").toReal();
+        }
+
+        // 1 + 4 + 7 + 10
+        assertEquals(22, iSum);
+        assertEquals(13, (int) oVariableManager.getMap("FS_COUNTER%").toReal());
+    }
+
+    @Test
+    public void testEndValueEvaluatedOnce() throws Exception {
+        VariableManagement oVariableManager = new VariableManagement();
 
-        oXVariable = (RealValue) oVariableManager.getMap("X#");
+        oVariableManager.putMap("FS_LIMIT#", new RealValue(3));
 
-        assertTrue(oXVariable.toReal() == 0.0);
-        oStack.pop();
+        ForStatement oForStatement = new ForStatement(0, "FS_ONCE#", new RealValue(1),
+                                                      new VariableExpression("FS_LIMIT#"), new RealValue(1), 15);
+        link(oForStatement);
 
-        // after the third execution, X should have a value of 2.0 and the program pointer should be set to 10
         oForStatement.execute();
+        int iIterations = 1;
+
+        // changing the end value in the body of the loop does not change the number of iterations
+        oVariableManager.putMap("FS_LIMIT#", new RealValue(100));
+
+        while (oForStatement.next()) {
+            iIterations++;
+        }
+
+        assertEquals(3, iIterations);
+    }
+
+    @Test
+    public void testContent() throws Exception {
+        ForStatement oForStatement = new ForStatement(0, "FS_CONTENT#", new RealValue(2), new RealValue(5),
+                                                      new RealValue(1), 15);
+
+        assertTrue(oForStatement.content().startsWith("FOR (FS_CONTENT# = " + new RealValue(2).content() + " TO "
+                                                              + new RealValue(5).content() + " STEP "));
+    }
+
+    @Test
+    public void testNextVariable() throws Exception {
+        String strNested = "10 FOR FS_I% = 1 TO 2\n20 FOR FS_J% = 1 TO 2\n30 NEXT FS_J%\n40 NEXT FS_I%";
+        String strCrossed = "10 FOR FS_I% = 1 TO 2\n20 FOR FS_J% = 1 TO 2\n30 NEXT FS_I%\n40 NEXT FS_J%";
+        String strUnnamed = "10 FOR FS_I% = 1 TO 2\n20 FOR FS_J% = 1 TO 2\n30 NEXT\n40 NEXT";
 
-        oXVariable = (RealValue) oVariableManager.getMap("X#");
+        TestProgram.link(strNested);
+        TestProgram.link(strUnnamed);
 
-        assertTrue(oXVariable.toReal() == 0.0);
+        // the NEXT statements close the loops of the other variable
+        LinkErrorException eLinkError = assertThrows(LinkErrorException.class, () -> TestProgram.link(strCrossed));
+        assertEquals("NEXT FS_J% does not match FOR FS_I% in Line [40]", eLinkError.getMessage());
     }
 }
@@ -1,9 +1,16 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.error.LinkErrorException;
+import eu.gricom.basic.linker.Linker;
 import eu.gricom.basic.memoryManager.ProgramPointer;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.tokenizer.Token;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -19,6 +26,7 @@ public class GoToStatementTest {
         try {
             GotoStatement oStatement = new GotoStatement("TestCase");
 
+            oStatement.link(new Linker(new ArrayList<>(), new ArrayList<>()), 0);
             oStatement.execute();
 
             int iNewLabel = oProgramPointer.getCurrentStatement();
@@ -33,22 +41,41 @@ public class GoToStatementTest {
     @Test
     public void testEvaluateBasic() {
         ProgramPointer oProgramPointer = new ProgramPointer();
-        LineNumberXRef oLineNumberObject = new LineNumberXRef();
+        List<Token> aoTokens = new ArrayList<>();
+        List<Statement> aoStatements = new ArrayList<>();
+
+        // Jump to line "5" -> which is token no. 1 -> statement no. 1
+        aoTokens.add(new Token("GOTO", BasicTokenType.GOTO, 1));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 5));
 
-        oLineNumberObject.putLineNumber(5, 1);
-        oLineNumberObject.putStatementNumber(1, 6);
+        GotoStatement oStatement = new GotoStatement(0, "5");
+        aoStatements.add(oStatement);
+        aoStatements.add(new RemStatement(1, "Comment"));
 
         try {
-            GotoStatement oStatement = new GotoStatement("5");
+            new Linker(aoTokens, aoStatements).link();
 
             oStatement.execute();
 
             int iNewLabel = oProgramPointer.getCurrentStatement();
 
-            assertEquals(6, iNewLabel);
+            assertEquals(1, iNewLabel);
 
         } catch (Exception eException) {
             fail();
         }
     }
+
+    @Test
+    public void testUnknownTarget() {
+        List<Token> aoTokens = new ArrayList<>();
+        List<Statement> aoStatements = new ArrayList<>();
+
+        aoTokens.add(new Token("GOTO", BasicTokenType.GOTO, 1));
+        aoStatements.add(new GotoStatement(0, "5"));
+
+        assertThrows(LinkErrorException.class, () -> {
+            new Linker(aoTokens, aoStatements).link();
+        });
+    }
 }
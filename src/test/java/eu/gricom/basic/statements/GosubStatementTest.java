@@ -1,11 +1,15 @@
 package eu.gricom.basic.statements;
 
+import eu.gricom.basic.linker.Linker;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
-import eu.gricom.basic.variableTypes.IntegerValue;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.tokenizer.Token;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -14,30 +18,35 @@ public class GosubStatementTest {
     @Test
     public void testEvaluate() {
         ProgramPointer oProgramPointer = new ProgramPointer();
-        LineNumberXRef oLineNumberObject = new LineNumberXRef();
-        Stack oStack = new Stack();
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
+        List<Token> aoTokens = new ArrayList<>();
+        List<Statement> aoStatements = new ArrayList<>();
 
         // setting the line number object for the actual jump:
-        // Jump to line "5" -> which is token no. 1 -> statement no. 5
-        oLineNumberObject.putLineNumber(5, 1);
-        oLineNumberObject.putStatementNumber(1, 5);
+        // Jump to line "5" -> which is token no. 2 -> statement no. 2
+        aoTokens.add(new Token("GOSUB", BasicTokenType.GOSUB, 1));
+        aoTokens.add(new Token("END", BasicTokenType.END, 2));
+        aoTokens.add(new Token("RETURN", BasicTokenType.RETURN, 5));
 
-        // this here is used to reference the current token number, which is translated into a statement and then
-        // pushed onto the stack...
-        oLineNumberObject.putStatementNumber(10, 5);
+        GosubStatement oStatement = new GosubStatement(0, "5");
+        aoStatements.add(oStatement);
+        aoStatements.add(new EndStatement(1));
+        aoStatements.add(new ReturnStatement(2));
 
         try {
-            GosubStatement oStatement = new GosubStatement(10, "5");
+            new Linker(aoTokens, aoStatements).link();
 
             oStatement.execute();
-            int iTokenNumber = ((IntegerValue) oStack.pop()).toInt();
 
-            assertEquals(5, iTokenNumber);
-            assertEquals(5, oProgramPointer.getCurrentStatement());
+            // the return address is the statement following the GOSUB statement
+            int iReturnStatement = oControlStack.pop(ControlStack.GOSUB);
+
+            assertEquals(1, iReturnStatement);
+            assertEquals(2, oProgramPointer.getCurrentStatement());
 
         } catch (Exception eException) {
             fail();
         }
     }
 }
-
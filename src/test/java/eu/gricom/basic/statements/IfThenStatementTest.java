@@ -1,10 +1,15 @@
 package eu.gricom.basic.statements;
 
+import eu.gricom.basic.linker.Linker;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.tokenizer.Token;
 import eu.gricom.basic.variableTypes.RealValue;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
 import eu.gricom.basic.memoryManager.ProgramPointer;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -25,6 +30,7 @@ public class IfThenStatementTest {
 
             IfThenStatement oStatement = new IfThenStatement(oExpression, "TestCase");
 
+            oStatement.link(new Linker(new ArrayList<>(), new ArrayList<>()), 0);
             oStatement.execute();
 
             int iNewLabel = oProgramPointer.getCurrentStatement();
@@ -51,6 +57,7 @@ public class IfThenStatementTest {
 
             IfThenStatement oStatement = new IfThenStatement(oExpression, "TestCase");
 
+            oStatement.link(new Linker(new ArrayList<>(), new ArrayList<>()), 0);
             oStatement.execute();
 
             int iNewLabel = oProgramPointer.getCurrentStatement();
@@ -64,13 +71,12 @@ public class IfThenStatementTest {
     @Test
     public void testEvaluateBasic() {
         ProgramPointer oProgramPointer = new ProgramPointer();
-        LineNumberXRef oLineNumberObject = new LineNumberXRef();
-
-        oLineNumberObject.putLineNumber(6, 1);
-        oLineNumberObject.putStatementNumber(1, 6);
+        List<Token> aoTokens = new ArrayList<>();
+        List<Statement> aoStatements = new ArrayList<>();
 
-        oLineNumberObject.putLineNumber(7, 2);
-        oLineNumberObject.putStatementNumber(2, 7);
+        aoTokens.add(new Token("IF", BasicTokenType.IF, 4));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 5));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 6));
 
         oProgramPointer.setCurrentStatement(4);
 
@@ -79,8 +85,12 @@ public class IfThenStatementTest {
         try {
             OperatorExpression oExpression = new OperatorExpression(oLeftValue, "==", oLeftValue);
 
-            IfThenStatement oStatement = new IfThenStatement(oExpression, 6, 0, 5, 0);
+            IfThenStatement oStatement = new IfThenStatement(oExpression, 0, 0, 5, 0);
+            aoStatements.add(oStatement);
+            aoStatements.add(new RemStatement(1, "Comment"));
+            aoStatements.add(new RemStatement(2, "Comment"));
 
+            new Linker(aoTokens, aoStatements).link();
             oStatement.execute();
 
             int iNewLabel = oProgramPointer.getCurrentStatement();
@@ -94,10 +104,14 @@ public class IfThenStatementTest {
     @Test
     public void testNegativeEvaluateBasic() {
         ProgramPointer oProgramPointer = new ProgramPointer();
-        LineNumberXRef oLineNumberObject = new LineNumberXRef();
+        List<Token> aoTokens = new ArrayList<>();
+        List<Statement> aoStatements = new ArrayList<>();
+
+        // the END-IF is in line 5, the next statement to be executed is the first statement in line 6
+        aoTokens.add(new Token("IF", BasicTokenType.IF, 4));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 5));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 6));
 
-        oLineNumberObject.putLineNumber(5, 1);
-        oLineNumberObject.putStatementNumber(1, 6);
         oProgramPointer.setCurrentStatement(4);
 
         RealValue oLeftValue = new RealValue(2);
@@ -106,13 +120,17 @@ public class IfThenStatementTest {
         try {
             OperatorExpression oExpression = new OperatorExpression(oLeftValue, "==", oRightValue);
 
-            IfThenStatement oStatement = new IfThenStatement(oExpression, 4, 0, 6, 0);
+            IfThenStatement oStatement = new IfThenStatement(oExpression, 0, 0, 5, 0);
+            aoStatements.add(oStatement);
+            aoStatements.add(new RemStatement(1, "Comment"));
+            aoStatements.add(new RemStatement(2, "Comment"));
 
+            new Linker(aoTokens, aoStatements).link();
             oStatement.execute();
 
             int iNewLabel = oProgramPointer.getCurrentStatement();
 
-            assertEquals(iNewLabel, 7);
+            assertEquals(iNewLabel, 2);
         } catch (Exception eException) {
             fail();
         }
@@ -1,9 +1,8 @@
 package eu.gricom.basic.statements;
 
-import eu.gricom.basic.variableTypes.IntegerValue;
-import eu.gricom.basic.error.EmptyStackException;
+import eu.gricom.basic.error.RuntimeException;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
+import eu.gricom.basic.variableTypes.RealValue;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -11,33 +10,39 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class NextStatementTest {
     @Test
-    public void testExecute() {
-        Stack oStack = new Stack();
+    public void testExecute() throws Exception {
         ProgramPointer oProgramPointer = new ProgramPointer();
 
-        oStack.push(new IntegerValue(10));
-        oProgramPointer.setCurrentStatement(20);
+        ForStatement oForStatement = new ForStatement(9, "NS_X#", new RealValue(1), new RealValue(2),
+                                                      new RealValue(1), 20);
+        oForStatement.setLinks(new int[] {9, 21});
 
-        NextStatement oNextStatement = new NextStatement(5);
+        NextStatement oNextStatement = new NextStatement(20);
+        oNextStatement.setLoop(oForStatement);
 
-        try {
-            oNextStatement.execute();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        oForStatement.execute();
+        oProgramPointer.setCurrentStatement(21);
+        oNextStatement.execute();
+
+        // the loop continues with the first statement of the body
         assertEquals(10, oProgramPointer.getCurrentStatement());
+
+        oProgramPointer.setCurrentStatement(21);
+        oNextStatement.execute();
+
+        // the loop is done, the program continues past the NEXT statement
+        assertEquals(21, oProgramPointer.getCurrentStatement());
     }
 
     @Test
     public void testExecuteFails() {
-        Stack oStack = new Stack();
         ProgramPointer oProgramPointer = new ProgramPointer();
 
         oProgramPointer.setCurrentStatement(20);
 
         NextStatement oNextStatement = new NextStatement(5);
 
-        assertThrows(EmptyStackException.class, () -> {
+        assertThrows(RuntimeException.class, () -> {
             oNextStatement.execute();
         });
     }
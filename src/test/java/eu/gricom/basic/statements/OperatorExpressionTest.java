@@ -1,12 +1,17 @@
 package eu.gricom.basic.statements;
 
+import eu.gricom.basic.error.DivideByZeroException;
+import eu.gricom.basic.tokenizer.BasicTokenType;
 import eu.gricom.basic.variableTypes.BooleanValue;
 import eu.gricom.basic.variableTypes.IntegerValue;
 import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.StringValue;
+import eu.gricom.basic.variableTypes.VariableType;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -183,4 +188,34 @@ public class OperatorExpressionTest {
             fail();
         }
     }
+
+    @Test
+    public void testPrimitivePaths() throws Exception {
+        RealValue oLeftValue = new RealValue(7.5);
+        RealValue oRightValue = new RealValue(2);
+
+        OperatorExpression oProduct = new OperatorExpression(oLeftValue, BasicTokenType.MULTIPLY, oRightValue);
+        assertEquals(VariableType.REAL, oProduct.getType());
+        assertEquals(15.0, oProduct.evaluateDouble());
+
+        OperatorExpression oSum = new OperatorExpression(new IntegerValue(3), BasicTokenType.PLUS, oLeftValue);
+        assertEquals(VariableType.INTEGER, oSum.getType());
+        assertEquals(10, oSum.evaluateInt());
+        assertEquals(10, ((IntegerValue) oSum.evaluate()).toInt());
+
+        OperatorExpression oCompare = new OperatorExpression(oProduct, BasicTokenType.GREATER, oRightValue);
+        assertEquals(VariableType.BOOLEAN, oCompare.getType());
+        assertTrue(oCompare.evaluateBoolean());
+
+        OperatorExpression oLogical = new OperatorExpression(oCompare, BasicTokenType.AND, new BooleanValue(false));
+        assertEquals(VariableType.BOOLEAN, oLogical.getType());
+        assertFalse(oLogical.evaluateBoolean());
+
+        OperatorExpression oDivide = new OperatorExpression(oLeftValue, BasicTokenType.DIVIDE, new RealValue(0));
+        assertThrows(DivideByZeroException.class, oDivide::evaluateDouble);
+
+        // a string on one side leaves the type open, the operation is executed on the values
+        OperatorExpression oConcat = new OperatorExpression(new StringValue("A"), BasicTokenType.PLUS, oRightValue);
+        assertEquals(VariableType.UNDEFINED, oConcat.getType());
+    }
 }
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import eu.gricom.basic.variableTypes.IntegerValue;
 import eu.gricom.basic.error.OutOfDataException;
+import eu.gricom.basic.error.SyntaxErrorException;
 import eu.gricom.basic.memoryManager.FiFoQueue;
 import eu.gricom.basic.memoryManager.VariableManagement;
 import eu.gricom.basic.variableTypes.StringValue;
@@ -19,14 +20,14 @@ public class ReadStatementTest {
     @Test
     public void testExecuteSingleValue() {
         FiFoQueue oFiFo = new FiFoQueue();
-        List<String> astrVariables = new ArrayList<>();
+        List<AssignableExpression> aoVariables = new ArrayList<>();
 
         oFiFo.push(new StringValue("TestValue"));
 
         try {
-            astrVariables.add("A$");
+            aoVariables.add(new VariableExpression("A$"));
 
-            ReadStatement oReadStatement = new ReadStatement(1, astrVariables);
+            ReadStatement oReadStatement = new ReadStatement(1, aoVariables);
             oReadStatement.execute();
 
             StringValue oString = (StringValue) _oVariableManagement.getMap("A$");
@@ -40,16 +41,16 @@ public class ReadStatementTest {
     @Test
     public void testExecuteDoubleValue() {
         FiFoQueue oFiFo = new FiFoQueue();
-        List<String> astrVariables = new ArrayList<>();
+        List<AssignableExpression> aoVariables = new ArrayList<>();
 
         oFiFo.push(new StringValue("TestValue"));
         oFiFo.push(new IntegerValue(999));
 
         try {
-            astrVariables.add("A$");
-            astrVariables.add("A#");
+            aoVariables.add(new VariableExpression("A$"));
+            aoVariables.add(new VariableExpression("A#"));
 
-            ReadStatement oReadStatement = new ReadStatement(1, astrVariables);
+            ReadStatement oReadStatement = new ReadStatement(1, aoVariables);
             oReadStatement.execute();
 
             StringValue oString = (StringValue) _oVariableManagement.getMap("A$");
@@ -63,16 +64,16 @@ public class ReadStatementTest {
     }
 
     @Test
-    public void testExecuteWithException() {
+    public void testExecuteWithException() throws SyntaxErrorException {
         FiFoQueue oFiFo = new FiFoQueue();
-        List<String> astrVariables = new ArrayList<>();
+        List<AssignableExpression> aoVariables = new ArrayList<>();
 
         oFiFo.push(new StringValue("TestValue"));
 
-        astrVariables.add("A$");
-        astrVariables.add("B$");
+        aoVariables.add(new VariableExpression("A$"));
+        aoVariables.add(new VariableExpression("B$"));
 
-        ReadStatement oReadStatement = new ReadStatement(1, astrVariables);
+        ReadStatement oReadStatement = new ReadStatement(1, aoVariables);
 
         assertThrows(OutOfDataException.class, () -> {
             oReadStatement.execute();
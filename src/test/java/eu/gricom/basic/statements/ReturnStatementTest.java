@@ -1,10 +1,8 @@
 package eu.gricom.basic.statements;
 
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.variableTypes.IntegerValue;
-import eu.gricom.basic.error.EmptyStackException;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
-import eu.gricom.basic.memoryManager.Stack;
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.memoryManager.ControlStack;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -12,18 +10,13 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ReturnStatementTest {
     @Test
-    public void testExecute() {
-        Stack oStack = new Stack();
+    public void testExecute() throws RuntimeException {
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
         ProgramPointer oProgramPointer = new ProgramPointer();
-        LineNumberXRef oLineNumber = new LineNumberXRef();
 
-        oLineNumber.putStatementNumber(10, 10);
-        oLineNumber.putLineNumber(10, 10);
-
-        oLineNumber.putStatementNumber(15, 15);
-        oLineNumber.putLineNumber(15, 15);
-
-        oStack.push(new IntegerValue(10));
+        // the GOSUB statement pushes the return address resolved by the linker
+        oControlStack.push(ControlStack.GOSUB, 10);
         oProgramPointer.setCurrentStatement(20);
 
         ReturnStatement oReturnStatement = new ReturnStatement(30);
@@ -33,19 +26,20 @@ public class ReturnStatementTest {
         } catch (Exception e) {
             e.printStackTrace();
         }
-        assertEquals(15, oProgramPointer.getCurrentStatement());
+        assertEquals(10, oProgramPointer.getCurrentStatement());
     }
 
     @Test
     public void testExecuteFails() {
-        Stack oStack = new Stack();
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
         ProgramPointer oProgramPointer = new ProgramPointer();
 
         oProgramPointer.setCurrentStatement(20);
 
         ReturnStatement oReturnStatement = new ReturnStatement(5);
 
-        assertThrows(EmptyStackException.class, () -> {
+        assertThrows(RuntimeException.class, () -> {
             oReturnStatement.execute();
         });
     }
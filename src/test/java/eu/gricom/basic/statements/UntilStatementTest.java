@@ -1,11 +1,10 @@
 package eu.gricom.basic.statements;
 
+import eu.gricom.basic.error.RuntimeException;
 import eu.gricom.basic.error.SyntaxErrorException;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.variableTypes.IntegerValue;
 import eu.gricom.basic.variableTypes.RealValue;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
-import eu.gricom.basic.memoryManager.Stack;
+import eu.gricom.basic.memoryManager.ControlStack;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -14,13 +13,12 @@ import static org.junit.jupiter.api.Assertions.fail;
 public class UntilStatementTest {
 
     @Test
-    public void testEndLoop() throws SyntaxErrorException {
+    public void testEndLoop() throws SyntaxErrorException, RuntimeException {
         ProgramPointer oProgramPointer = new ProgramPointer();
-        LineNumberXRef oLineNumberObject = new LineNumberXRef();
-        Stack oStack = new Stack();
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
 
-        oStack.push(new IntegerValue(5));
-        oLineNumberObject.putStatementNumber(5, 5);
+        oControlStack.push(ControlStack.DO, 5);
 
         oProgramPointer.setCurrentStatement(10);
 
@@ -42,13 +40,12 @@ public class UntilStatementTest {
     }
 
     @Test
-    public void testContinueLoop() throws SyntaxErrorException {
+    public void testContinueLoop() throws SyntaxErrorException, RuntimeException {
         ProgramPointer oProgramPointer = new ProgramPointer();
-        LineNumberXRef oLineNumberObject = new LineNumberXRef();
-        Stack oStack = new Stack();
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
 
-        oStack.push(new IntegerValue(5));
-        oLineNumberObject.putStatementNumber(5, 5);
+        oControlStack.push(ControlStack.DO, 5);
 
         oProgramPointer.setCurrentStatement(10);
 
@@ -1,4 +1,38 @@
 package eu.gricom.basic.statements;
 
+import eu.gricom.basic.variableTypes.IntegerValue;
+import eu.gricom.basic.variableTypes.RealValue;
+import eu.gricom.basic.variableTypes.VariableType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class VariableExpressionTest {
+
+    @Test
+    public void testPrimitivePaths() throws Exception {
+        VariableExpression oInteger = new VariableExpression("VAR_TEST_I%");
+        assertEquals(VariableType.INTEGER, oInteger.getType());
+
+        oInteger.assignDouble(7.9);
+        assertEquals(7, oInteger.evaluateInt());
+        assertEquals(7.0, oInteger.evaluateDouble());
+        assertTrue(oInteger.evaluate() instanceof IntegerValue);
+
+        VariableExpression oReal = new VariableExpression("VAR_TEST_R#");
+        assertEquals(VariableType.REAL, oReal.getType());
+
+        oReal.assignInt(3);
+        assertEquals(3.0, oReal.evaluateDouble());
+        assertTrue(oReal.evaluate() instanceof RealValue);
+
+        // untyped variables keep the type of the value assigned
+        VariableExpression oUntyped = new VariableExpression("VAR_TEST_U");
+        assertEquals(VariableType.UNDEFINED, oUntyped.getType());
+
+        oUntyped.assign(new IntegerValue(4));
+        assertEquals(4.0, oUntyped.evaluateDouble());
+        assertTrue(oUntyped.evaluate() instanceof IntegerValue);
+    }
 }
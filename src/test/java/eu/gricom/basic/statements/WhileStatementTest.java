@@ -1,29 +1,36 @@
 package eu.gricom.basic.statements;
 
 import eu.gricom.basic.variableTypes.RealValue;
-import eu.gricom.basic.error.EmptyStackException;
-import eu.gricom.basic.memoryManager.LineNumberXRef;
+import eu.gricom.basic.error.RuntimeException;
+import eu.gricom.basic.linker.Linker;
 import eu.gricom.basic.memoryManager.ProgramPointer;
-import eu.gricom.basic.memoryManager.Stack;
+import eu.gricom.basic.memoryManager.ControlStack;
+import eu.gricom.basic.tokenizer.BasicTokenType;
+import eu.gricom.basic.tokenizer.Token;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class WhileStatementTest {
 
     @Test
-    public void testWhileLoop() throws EmptyStackException {
-        Stack oStack = new Stack();
+    public void testWhileLoop() throws RuntimeException {
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
 
         ProgramPointer oProgramPointer = new ProgramPointer();
-        LineNumberXRef oLineNumberObject = new LineNumberXRef();
-
-        oLineNumberObject.putLineNumber(6, 1);
-        oLineNumberObject.putStatementNumber(1, 6);
+        List<Token> aoTokens = new ArrayList<>();
+        List<Statement> aoStatements = new ArrayList<>();
 
-        oLineNumberObject.putLineNumber(7, 2);
-        oLineNumberObject.putStatementNumber(2, 7);
+        // the END-WHILE is statement no. 2, the loop is left to statement no. 3
+        aoTokens.add(new Token("WHILE", BasicTokenType.WHILE, 5));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 6));
+        aoTokens.add(new Token("END-WHILE", BasicTokenType.ENDWHILE, 7));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 8));
 
         oProgramPointer.setCurrentStatement(4);
 
@@ -32,8 +39,13 @@ public class WhileStatementTest {
         try {
             OperatorExpression oExpression = new OperatorExpression(oLeftValue, "==", oLeftValue);
 
-            WhileStatement oStatement = new WhileStatement(1, oExpression, 6);
+            WhileStatement oStatement = new WhileStatement(0, oExpression, 7);
+            aoStatements.add(oStatement);
+            aoStatements.add(new RemStatement(1, "Comment"));
+            aoStatements.add(new EndWhileStatement(2));
+            aoStatements.add(new RemStatement(3, "Comment"));
 
+            new Linker(aoTokens, aoStatements).link();
             oStatement.execute();
 
             int iNewLabel = oProgramPointer.getCurrentStatement();
@@ -44,21 +56,23 @@ public class WhileStatementTest {
             fail();
         }
 
-        oStack.pop();
+        oControlStack.pop(ControlStack.WHILE);
     }
 
     @Test
-    public void testEndWhileLoop() throws EmptyStackException {
-        Stack oStack = new Stack();
+    public void testEndWhileLoop() throws RuntimeException {
+        ControlStack oControlStack = new ControlStack();
+        oControlStack.reset();
 
         ProgramPointer oProgramPointer = new ProgramPointer();
-        LineNumberXRef oLineNumberObject = new LineNumberXRef();
-
-        oLineNumberObject.putLineNumber(6, 1);
-        oLineNumberObject.putStatementNumber(1, 6);
+        List<Token> aoTokens = new ArrayList<>();
+        List<Statement> aoStatements = new ArrayList<>();
 
-        oLineNumberObject.putLineNumber(7, 2);
-        oLineNumberObject.putStatementNumber(2, 7);
+        // the END-WHILE is statement no. 2, the loop is left to statement no. 3
+        aoTokens.add(new Token("WHILE", BasicTokenType.WHILE, 5));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 6));
+        aoTokens.add(new Token("END-WHILE", BasicTokenType.ENDWHILE, 7));
+        aoTokens.add(new Token("REM", BasicTokenType.REM, 8));
 
         oProgramPointer.setCurrentStatement(4);
 
@@ -67,13 +81,18 @@ public class WhileStatementTest {
         try {
             OperatorExpression oExpression = new OperatorExpression(oLeftValue, ">", oLeftValue);
 
-            WhileStatement oStatement = new WhileStatement(1, oExpression, 6);
+            WhileStatement oStatement = new WhileStatement(0, oExpression, 7);
+            aoStatements.add(oStatement);
+            aoStatements.add(new RemStatement(1, "Comment"));
+            aoStatements.add(new EndWhileStatement(2));
+            aoStatements.add(new RemStatement(3, "Comment"));
 
+            new Linker(aoTokens, aoStatements).link();
             oStatement.execute();
 
             int iNewLabel = oProgramPointer.getCurrentStatement();
 
-            assertEquals(iNewLabel, 7);
+            assertEquals(iNewLabel, 3);
         } catch (Exception eException) {
             System.out.println(eException.getMessage());
             fail();
@@ -52,6 +52,22 @@ public class NormalizerTest {
         assertEquals(strTarget, strResult);
     }
 
+    @Test
+    public void testNormalStringWithOperators() {
+        String strTest = "IF A(I)<=A(I+1) THEN 120";
+        String strTarget = "IF A ( I ) <= A ( I + 1 ) THEN 120";
+
+        assertEquals(strTarget, Normalizer.normalize(strTest));
+    }
+
+    @Test
+    public void testNormalStringWithSign() {
+        String strTest = "FOR I=999 TO 0 STEP -1";
+        String strTarget = "FOR I = 999 TO 0 STEP -1";
+
+        assertEquals(strTarget, Normalizer.normalize(strTest));
+    }
+
     @Test
     public void testIndexString() {
         String strTest = "(1, 1, 1, 1,1)";
@@ -126,4 +142,21 @@ public class NormalizerTest {
             Normalizer.normalizeFunction(strTest);
         });
     }
+
+    @Test
+    public void testNormalizeFunctionEmptyParenthesis() throws SyntaxErrorException {
+        assertEquals("A = MEM", Normalizer.normalizeFunction("A = MEM ( )"));
+        assertEquals("\"()\"", Normalizer.normalizeFunction("\"(( ))\""));
+    }
+
+    @Test
+    public void testReservedWords() {
+        assertEquals(BasicTokenType.PRINT, ReservedWords.getTokenType(ReservedWords.getIndex("print")));
+        assertEquals(BasicTokenType.ENDIF, ReservedWords.getTokenType(ReservedWords.getIndex("End-If")));
+        assertEquals(BasicTokenType.SMALLER_EQUAL, ReservedWords.getTokenType(ReservedWords.getIndex("<=")));
+        assertEquals(BasicTokenType.LOG10, ReservedWords.getTokenType(ReservedWords.getIndex("X LOG10", 2, 7)));
+        assertEquals(-1, ReservedWords.getIndex("PRINTS"));
+        assertEquals(-1, ReservedWords.getIndex("PRIN"));
+    }
 }
+
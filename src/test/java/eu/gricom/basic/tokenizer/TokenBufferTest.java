@@ -0,0 +1,77 @@
+package eu.gricom.basic.tokenizer;
+
+import eu.gricom.basic.error.SyntaxErrorException;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TokenBufferTest {
+
+    @Test
+    public void testTokenizeCompact() throws SyntaxErrorException {
+        String strProgram = "10 A = A + 1\n20 PRINT \"A B\"; A\n30 GOTO 10";
+        List<Token> aoTokens = new BasicLexer().tokenize(strProgram);
+        TokenBuffer oTokens = new BasicLexer().tokenizeCompact(strProgram);
+
+        assertEquals(aoTokens.size(), oTokens.size());
+
+        for (int iToken = 0; iToken < oTokens.size(); iToken++) {
+            assertEquals(aoTokens.get(iToken).getText(), oTokens.getText(iToken));
+            assertEquals(aoTokens.get(iToken).getType(), oTokens.getType(iToken));
+            assertEquals(aoTokens.get(iToken).getLine(), oTokens.getLine(iToken));
+            assertEquals(1, oTokens.getCommandSequence(iToken));
+        }
+
+        assertEquals("A B", oTokens.getText(6));
+        assertEquals(20, oTokens.getLine(6));
+    }
+
+    @Test
+    public void testInternedTexts() {
+        TokenBuffer oTokens = new TokenBuffer();
+        StringBuilder strLine = new StringBuilder("A = A + A");
+
+        oTokens.add(strLine, 0, 1, BasicTokenType.WORD, 10);
+        oTokens.add(strLine, 2, 3, BasicTokenType.ASSIGN_EQUAL, 10);
+        oTokens.add(strLine, 4, 5, BasicTokenType.WORD, 10);
+        oTokens.add(strLine, 6, 7, BasicTokenType.PLUS, 10);
+        oTokens.add("A", BasicTokenType.WORD, 10, 2);
+
+        assertEquals(5, oTokens.size());
+        assertEquals(3, oTokens.getTextCount());
+        assertSame(oTokens.getText(0), oTokens.getText(2));
+        assertSame(oTokens.getText(0), oTokens.getText(4));
+        assertEquals(2, oTokens.getCommandSequence(4));
+
+        // the hash table grows with the number of texts
+        for (int iIndex = 0; iIndex < 1000; iIndex++) {
+            oTokens.add("V" + iIndex, BasicTokenType.WORD, 20);
+        }
+
+        oTokens.add("V500", BasicTokenType.WORD, 30);
+        oTokens.trimToSize();
+
+        assertEquals(1006, oTokens.size());
+        assertEquals(1003, oTokens.getTextCount());
+        assertSame(oTokens.getText(505), oTokens.getText(1005));
+        assertThrows(IndexOutOfBoundsException.class, () -> oTokens.getType(1006));
+    }
+
+    @Test
+    public void testListOfTokens() {
+        List<Token> aoTokens = List.of(new Token("PRINT", BasicTokenType.PRINT, 10),
+                                       new Token("X", BasicTokenType.WORD, 10, 2));
+        TokenBuffer oTokens = TokenBuffer.of(aoTokens);
+        List<Token> aoCopy = oTokens.toList();
+
+        assertEquals(2, aoCopy.size());
+        assertEquals("X", aoCopy.get(1).getText());
+        assertEquals(BasicTokenType.WORD, aoCopy.get(1).getType());
+        assertEquals(10, aoCopy.get(1).getLine());
+        assertEquals(2, aoCopy.get(1).getCommandSequence());
+    }
+}
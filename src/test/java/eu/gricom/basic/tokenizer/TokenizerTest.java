@@ -276,4 +276,51 @@ public class TokenizerTest {
             e.printStackTrace();
         }
     }
+
+    @Test
+    public void testTokenizeStringsAndComments() throws SyntaxErrorException {
+        LOGGER.setLogLevel("");
+
+        String strProgram = "10 PRINT \"A  B\";\"\"\n\n   \n20 rem SEE (X)\n30";
+        List<Token> aoTokens = new BasicLexer().tokenize(strProgram);
+
+        assertEquals(6, aoTokens.size());
+        assertEquals(BasicTokenType.PRINT, aoTokens.get(0).getType());
+        assertEquals("A B", aoTokens.get(1).getText());
+        assertEquals(BasicTokenType.STRING, aoTokens.get(1).getType());
+        assertEquals(BasicTokenType.SEMICOLON, aoTokens.get(2).getType());
+        assertEquals("", aoTokens.get(3).getText());
+        assertEquals(BasicTokenType.STRING, aoTokens.get(3).getType());
+        assertEquals(20, aoTokens.get(4).getLine());
+        assertEquals("rem SEE  ( X )", aoTokens.get(4).getText());
+        assertEquals(BasicTokenType.REM, aoTokens.get(4).getType());
+        assertEquals(30, aoTokens.get(5).getLine());
+        assertEquals(BasicTokenType.LINE, aoTokens.get(5).getType());
+    }
+
+    @Test
+    public void testTokenizeCompactLine() throws SyntaxErrorException {
+        LOGGER.setLogLevel("");
+
+        List<Token> aoTokens = new BasicLexer().tokenize("10 if A(I)<=-1.5 then X=true");
+        String[] astrTexts = {"if", "A", "(", "I", ")", "<=", "-1.5", "then", "X", "=", "true"};
+        BasicTokenType[] aeTypes = {BasicTokenType.IF, BasicTokenType.WORD, BasicTokenType.LEFT_PAREN,
+                                    BasicTokenType.WORD, BasicTokenType.RIGHT_PAREN, BasicTokenType.SMALLER_EQUAL,
+                                    BasicTokenType.NUMBER, BasicTokenType.THEN, BasicTokenType.WORD,
+                                    BasicTokenType.ASSIGN_EQUAL, BasicTokenType.BOOLEAN};
+
+        assertEquals(astrTexts.length, aoTokens.size());
+
+        for (int i = 0; i < astrTexts.length; i++) {
+            assertEquals(astrTexts[i], aoTokens.get(i).getText());
+            assertEquals(aeTypes[i], aoTokens.get(i).getType());
+        }
+    }
+
+    @Test
+    public void testTokenizeUnterminatedString() {
+        LOGGER.setLogLevel("");
+
+        assertThrows(SyntaxErrorException.class, () -> new BasicLexer().tokenize("10 PRINT \"A\n20 PRINT B"));
+    }
 }
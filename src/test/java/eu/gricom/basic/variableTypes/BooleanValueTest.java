@@ -2,6 +2,7 @@ package eu.gricom.basic.variableTypes;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -42,6 +43,16 @@ public class BooleanValueTest {
         assertTrue(strResult.matches("False"));
     }
 
+    @Test
+    public void testValueOf() throws Exception {
+        assertSame(BooleanValue.TRUE, BooleanValue.valueOf(true));
+        assertSame(BooleanValue.FALSE, BooleanValue.valueOf(false));
+
+        // comparisons return the shared instances
+        assertSame(BooleanValue.TRUE, new IntegerValue(1).smallerThan(new IntegerValue(2)));
+        assertSame(BooleanValue.FALSE, new StringValue("A").equals(new StringValue("B")));
+    }
+
     @Test
     public void testToNumber() {
         BooleanValue oValue = new BooleanValue(true);
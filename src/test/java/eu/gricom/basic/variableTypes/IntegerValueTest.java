@@ -5,6 +5,7 @@ import eu.gricom.basic.error.SyntaxErrorException;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -27,6 +28,17 @@ public class IntegerValueTest {
         assertEquals(dResult, 999);
     }
 
+    @Test
+    public void testValueOf() throws Exception {
+        // small numbers are shared, as are the results of operations
+        assertSame(IntegerValue.valueOf(7), IntegerValue.valueOf(7));
+        assertSame(IntegerValue.valueOf(-128), IntegerValue.valueOf(-128));
+        assertSame(IntegerValue.valueOf(10), IntegerValue.valueOf(3).plus(IntegerValue.valueOf(7)));
+
+        assertEquals(100000, IntegerValue.valueOf(100000).toInt());
+        assertEquals(-129, IntegerValue.valueOf(-129).toInt());
+    }
+
     @Test
     public void testEvaluate() {
         IntegerValue oNumberValue = new IntegerValue(999);
@@ -4,6 +4,7 @@ import eu.gricom.basic.error.RuntimeException;
 import eu.gricom.basic.error.SyntaxErrorException;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -63,6 +64,64 @@ public class StringValueTest {
         }
     }
 
+    @Test
+    public void testEqualsWithoutPattern() throws Exception {
+        // the right side is a text, not a regular expression
+        assertFalse(((BooleanValue) new StringValue("abc").equals(new StringValue("a.c"))).isTrue());
+        assertTrue(((BooleanValue) new StringValue("a.c").equals(new StringValue("a.c"))).isTrue());
+        assertTrue(((BooleanValue) new StringValue("(").equals(new StringValue("("))).isTrue());
+        assertTrue(((BooleanValue) new StringValue("a+").notEqual(new StringValue("aa"))).isTrue());
+    }
+
+    @Test
+    public void testEqualsConcatenation() throws Exception {
+        Value oConcatenation = new StringValue("a").plus(new StringValue("b"));
+
+        assertTrue(((BooleanValue) oConcatenation.equals(new StringValue("ab"))).isTrue());
+        assertFalse(((BooleanValue) oConcatenation.equals(new StringValue("abc"))).isTrue());
+    }
+
+    @Test
+    public void testCompareTo() {
+        assertTrue(new StringValue("a").compareTo(new StringValue("b")) < 0);
+        assertTrue(new StringValue("b").compareTo(new StringValue("a")) > 0);
+        assertEquals(0, new StringValue("a").compareTo(new StringValue("a")));
+        assertTrue(new StringValue("B").compareTo(new StringValue("a")) < 0);
+    }
+
+    @Test
+    public void testCollationNoCase() throws Exception {
+        try {
+            assertTrue(StringValue.setCollation("nocase"));
+
+            assertTrue(((BooleanValue) new StringValue("Abc").equals(new StringValue("aBC"))).isTrue());
+            assertTrue(((BooleanValue) new StringValue("B").largerThan(new StringValue("a"))).isTrue());
+            assertTrue(((BooleanValue) new StringValue("a").smallerEqualThan(new StringValue("A"))).isTrue());
+        } finally {
+            StringValue.setCollation("binary");
+        }
+
+        assertFalse(((BooleanValue) new StringValue("Abc").equals(new StringValue("aBC"))).isTrue());
+    }
+
+    @Test
+    public void testCollationLanguage() throws Exception {
+        try {
+            assertTrue(StringValue.setCollation("de"));
+
+            assertTrue(((BooleanValue) new StringValue("\u00e4").smallerThan(new StringValue("b"))).isTrue());
+        } finally {
+            StringValue.setCollation("binary");
+        }
+
+        assertTrue(((BooleanValue) new StringValue("\u00e4").largerThan(new StringValue("b"))).isTrue());
+    }
+
+    @Test
+    public void testCollationUnknown() {
+        assertFalse(StringValue.setCollation("xx"));
+    }
+
     @Test
     public void testPlus() {
         try {
@@ -77,6 +136,33 @@ public class StringValueTest {
         }
     }
 
+    @Test
+    public void testPlusAccumulates() throws Exception {
+        Value oLine = new StringValue("");
+
+        for (int iCount = 0; iCount < 1000; iCount++) {
+            oLine = oLine.plus(new StringValue("x"));
+        }
+
+        assertEquals(1000, ((StringValue) oLine).length());
+        assertEquals("x".repeat(1000), oLine.toString());
+    }
+
+    @Test
+    public void testPlusKeepsPrefixes() throws Exception {
+        // B$ = A$: appending to both must not change the other value
+        Value oFirst = new StringValue("a").plus(new StringValue("b"));
+        Value oSecond = oFirst;
+
+        Value oFirstResult = oFirst.plus(new StringValue("c"));
+        Value oSecondResult = oSecond.plus(new StringValue("d"));
+
+        assertEquals("ab", oFirst.toString());
+        assertEquals("abc", oFirstResult.toString());
+        assertEquals("abd", oSecondResult.toString());
+        assertEquals("abcabd", oFirstResult.plus(oSecondResult).toString());
+    }
+
     @Test
     public void testMinus() {
         StringValue oFirstValue = new StringValue("a");
@@ -166,6 +252,8 @@ public class StringValueTest {
 
             BooleanValue oResultValue = (BooleanValue) oFirstValue.smallerEqualThan(oSecondValue);
             assertTrue(oResultValue.isTrue());
+            assertTrue(((BooleanValue) oFirstValue.smallerEqualThan(oFirstValue)).isTrue());
+            assertFalse(((BooleanValue) oSecondValue.smallerEqualThan(oFirstValue)).isTrue());
 
         } catch (SyntaxErrorException e) {
             fail();
@@ -218,6 +306,8 @@ public class StringValueTest {
 
             BooleanValue oResultValue = (BooleanValue) oFirstValue.largerEqualThan(oSecondValue);
             assertTrue(oResultValue.isTrue());
+            assertTrue(((BooleanValue) oFirstValue.largerEqualThan(oFirstValue)).isTrue());
+            assertFalse(((BooleanValue) oSecondValue.largerEqualThan(oFirstValue)).isTrue());
 
         } catch (SyntaxErrorException e) {
             fail();
@@ -237,53 +327,78 @@ public class StringValueTest {
     }
 
     @Test
-    public void testProcessSquareBrackets() {
+    public void testSliceSquareBrackets() {
         StringValue oValue = new StringValue("abcdef");
 
         try {
-            assertEquals("b", oValue.process("a$[1]").toString());
+            assertEquals("b", oValue.slice(1, 1).toString());
         } catch (RuntimeException e) {
             fail();
         }
     }
 
     @Test
-    public void testProcessSquareBracketsOutOfBorder() {
+    public void testSliceSquareBracketsOutOfBorder() {
         StringValue oValue = new StringValue("abcdef");
 
         assertThrows(RuntimeException.class, () -> {
-            oValue.process("a$[6]").toString();
+            oValue.slice(6, 6).toString();
+        });
+        assertThrows(RuntimeException.class, () -> {
+            oValue.slice(-1, 2).toString();
         });
     }
 
     @Test
-    public void testProcessSquareBracketsTwoParams() {
+    public void testSliceSquareBracketsTwoParams() {
         StringValue oValue = new StringValue("abcdef");
 
         try {
-            assertEquals("bc", oValue.process("a$[1,2]").toString());
+            assertEquals("bc", oValue.slice(1, 2).toString());
         } catch (RuntimeException e) {
             fail();
         }
     }
 
     @Test
-    public void testProcessSquareBracketsTwoParamsSecondLarge() {
+    public void testSliceSquareBracketsTwoParamsSecondLarge() {
         StringValue oValue = new StringValue("abcdef");
 
         try {
-            assertEquals("bcdef", oValue.process("a$[1,5]").toString());
+            assertEquals("bcdef", oValue.slice(1, 5).toString());
         } catch (RuntimeException e) {
             fail();
         }
     }
 
     @Test
-    public void testProcessSquareBracketsTwoParamsOutOfBorder() {
+    public void testSliceSquareBracketsTwoParamsOutOfBorder() {
         StringValue oValue = new StringValue("abcdef");
 
         assertThrows(RuntimeException.class, () -> {
-            oValue.process("a$[1,6]").toString();
+            oValue.slice(1, 6).toString();
         });
     }
+
+    @Test
+    public void testSliceView() {
+        try {
+            StringValue oValue = (StringValue) new StringValue("abc").plus(new StringValue("def"));
+            StringValue oSlice = oValue.slice(2, 4);
+
+            assertEquals(3, oSlice.length());
+            assertEquals(BooleanValue.TRUE, oSlice.equals(new StringValue("cde")));
+            assertTrue(oSlice.compareTo(new StringValue("cdf")) < 0);
+            assertTrue(oSlice.compareTo(new StringValue("cd")) > 0);
+            assertEquals("d", oSlice.slice(1, 1).toString());
+            assertEquals("", oSlice.slice(3, 2).toString());
+
+            // the slice does not end at the end of the buffer: the concatenation must not change the original
+            assertEquals("cdexy", oSlice.plus(new StringValue("xy")).toString());
+            assertEquals("abcdef", oValue.toString());
+            assertEquals("abcdefcd", oValue.plus(oSlice.slice(0, 1)).toString());
+        } catch (Exception e) {
+            fail();
+        }
+    }
 }